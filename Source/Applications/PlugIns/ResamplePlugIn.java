@@ -24,11 +24,16 @@ limitations under the License.
         2007/04/04  WHF  Added dynamic options.
         2007/08/15  WHF  Changed the meaning of 'maxSamples' so that it is an 
                 aggregate across all channels.  Then commented it.
+        2026/10/18  JRS  When anti-aliasing, ask the server for no more than
+                maxSamples, so channels with decimation pyramids are answered
+                without fetching the raw data.
 */
 
 import com.rbnb.sapi.ChannelMap;
 import com.rbnb.sapi.PlugInChannelMap;
+import com.rbnb.sapi.RequestOptions;
 import com.rbnb.sapi.SAPIException;
+import com.rbnb.sapi.Sink;
 
 
 import java.lang.reflect.Array;
@@ -98,6 +103,52 @@ public class ResamplePlugIn extends com.rbnb.plugins.PlugInTemplate
         { this.minDecimation = minDecimation; }
         
 //**********************  PlugInTemplate Overrides  *************************//
+        /**
+          * When anti-aliasing, passes the maximum number of samples on to the
+          *  server as a hint.  The server then answers channels that have
+          *  decimation pyramids with interval means instead of the raw data,
+          *  which leaves nothing for {@link #processRequest} to decimate.
+          */
+        protected ChannelMap getForwardData(
+                        Sink sink,
+                        ChannelMap mappedChannels,
+                        PlugInChannelMap picm)
+                throws SAPIException
+        {
+                int minDecimation = this.minDecimation, maxSamples = this.maxSamples;
+                boolean antiAlias = this.antiAlias;
+                
+                java.util.Properties opts = getRequestOptions();
+                String temp;
+                if ((temp = opts.getProperty("minDecimation")) != null)
+                        minDecimation = Integer.parseInt(temp);
+                if ((temp = opts.getProperty("maxSamples")) != null)
+                        maxSamples = Integer.parseInt(temp);
+                if ((temp = opts.getProperty("antiAlias")) != null)
+                        antiAlias = "true".equals(temp);
+                
+                if (!antiAlias || minDecimation >= 2 || picm.IsRequestFrames())
+                        return super.getForwardData(sink, mappedChannels, picm);
+                
+                RequestOptions ro = new RequestOptions();
+                if (picm.GetRequestOptions() != null) {
+                        ro.setMaxWait(picm.GetRequestOptions().getMaxWait());
+                        ro.setExtendStart(picm.GetRequestOptions().getExtendStart());
+                }
+                ro.setMaxSamples(maxSamples);
+                
+                sink.Request(
+                                mappedChannels,
+                                picm.GetRequestStart(),
+                                picm.GetRequestDuration(),
+                                picm.GetRequestReference(),
+                                ro
+                );
+                sink.Fetch(getTimeout(), mappedChannels);
+                
+                return mappedChannels;
+        }
+        
         protected void processRequest(ChannelMap fwdData, PlugInChannelMap out)
                         throws SAPIException
         {
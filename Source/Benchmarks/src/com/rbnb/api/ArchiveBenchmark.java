@@ -0,0 +1,346 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks writing frames to and reading frames from the archive.
+ * <p>
+ * <code>writeFrames</code> adds frames to a RAM <code>Source</code> with an
+ * archive and a small cache.  Each time a cache <code>FrameSet</code> fills,
+ * it is written out by <code>FrameSet.writeToArchive</code>.
+ * <p>
+ * <code>readFrame</code> requests frames from a second source whose cache is
+ * much smaller than its archive.  The requests walk through the older frames
+ * so that each one has to be brought back in by
+ * <code>FrameSet.readFromArchive</code>.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.BenchmarkServer
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.SECONDS)
+public class ArchiveBenchmark {
+
+    /**
+     * the number of frames added by <code>writeFrames</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int BURST = 100;
+
+    /**
+     * the number of cache frames.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int CFRAMES = 10;
+
+    /**
+     * the number of frames loaded into the read source.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int LOADED = 1000;
+
+    /**
+     * the number of channels in a frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "10" })
+    public int nChans;
+
+    /**
+     * the number of points per channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "1000" })
+    public int nPoints;
+
+    /**
+     * the frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap frame;
+
+    /**
+     * the index of the next frame to read.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int readIndex = 0;
+
+    /**
+     * the source read by <code>readFrame</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Source reader;
+
+    /**
+     * the requests made by <code>readFrame</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataRequest[] requests;
+
+    /**
+     * the <code>Sink</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Sink sink;
+
+    /**
+     * the time of the next frame written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double time = 0.;
+
+    /**
+     * the source written by <code>writeFrames</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Source writer;
+
+    /**
+     * Starts the sources, loads the read source, and builds the requests.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverI the in-process server.
+     * @exception java.lang.Exception
+     *		  thrown if the setup fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void setup(BenchmarkServer serverI)
+	throws java.lang.Exception
+    {
+	String suffix = "_" + nChans + "_" + nPoints;
+	frame = BenchmarkServer.createFrame(nChans,nPoints);
+
+	writer = serverI.createSource("ArchiveWrite" + suffix,
+				      CFRAMES,
+				      Source.ACCESS_CREATE,
+				      Integer.MAX_VALUE);
+
+	reader = serverI.createSource("ArchiveRead" + suffix,
+				      CFRAMES,
+				      Source.ACCESS_CREATE,
+				      LOADED);
+	for (int idx = 0; idx < LOADED; ++idx) {
+	    BenchmarkServer.setFrameTime(frame,idx*nPoints);
+	    reader.addChild(frame);
+	}
+	reader.synchronizeWserver();
+
+	// Skip the frames that may still be in the cache.
+	requests = new DataRequest[LOADED - 2*CFRAMES];
+	for (int idx = 0; idx < requests.length; ++idx) {
+	    requests[idx] = serverI.createRequest(reader,
+						  nChans,
+						  DataRequest.ABSOLUTE,
+						  idx*nPoints,
+						  nPoints);
+	}
+	sink = serverI.createSink("ArchiveSink" + suffix);
+    }
+
+    /**
+     * Stops the clients.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the clients cannot be stopped.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @TearDown(Level.Trial)
+    public void teardown()
+	throws java.lang.Exception
+    {
+	sink.stop();
+	reader.stop();
+	writer.stop();
+    }
+
+    /**
+     * Adds a burst of frames to the archiving source.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the frames cannot be added.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void writeFrames()
+	throws java.lang.Exception
+    {
+	for (int idx = 0; idx < BURST; ++idx) {
+	    BenchmarkServer.setFrameTime(frame,time);
+	    time += nPoints;
+	    writer.addChild(frame);
+	}
+	writer.synchronizeWserver();
+    }
+
+    /**
+     * Reads the next archived frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the response.
+     * @exception java.lang.Exception
+     *		  thrown if the frame cannot be read.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public Rmap readFrame()
+	throws java.lang.Exception
+    {
+	Rmap responseR = BenchmarkServer.fetch(sink,requests[readIndex]);
+	readIndex = (readIndex + 1) % requests.length;
+	return (responseR);
+    }
+}
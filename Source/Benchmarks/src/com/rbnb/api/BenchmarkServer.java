@@ -0,0 +1,474 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * In-process RBNB server shared by the benchmarks.
+ * <p>
+ * A server is launched in the benchmark JVM for each trial, with its archive
+ * home in a temporary directory.  Benchmarks talk to it through
+ * <code>Sources</code> and <code>Sinks</code> created with
+ * <code>Server.createRAMSource</code> and
+ * <code>Server.createRAMSink</code>, so that the numbers measure the server
+ * rather than the TCP stack.
+ * <p>
+ * The server listens at <code>localhost:3398</code> unless the
+ * <code>com.rbnb.api.BenchmarkServer.address</code> system property says
+ * otherwise.
+ * <p>
+ * This class also holds the helpers that build the frames and requests used
+ * by the benchmarks.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+@State(Scope.Benchmark)
+public class BenchmarkServer {
+
+    /**
+     * the address of the server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String ADDRESS =
+	System.getProperty("com.rbnb.api.BenchmarkServer.address",
+			   "localhost:3398");
+
+    /**
+     * the archive home directory.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.io.File archiveHome = null;
+
+    /**
+     * the server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Server server = null;
+
+    /**
+     * Launches the server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the server cannot be launched.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void launch()
+	throws java.lang.Exception
+    {
+	archiveHome = java.io.File.createTempFile("rbnbBench","");
+	archiveHome.delete();
+	archiveHome.mkdirs();
+	server = Server.launchNewServer
+	    (new String[] { "-a",
+			    ADDRESS,
+			    "-H",
+			    archiveHome.getAbsolutePath() });
+    }
+
+    /**
+     * Stops the server and removes its archives.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the server cannot be stopped.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @TearDown(Level.Trial)
+    public void shutdown()
+	throws java.lang.Exception
+    {
+	try {
+	    if (server != null) {
+		server.stop();
+	    }
+	} finally {
+	    server = null;
+	    delete(archiveHome);
+	}
+    }
+
+    /**
+     * Gets the server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the server.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final Server getServer() {
+	return (server);
+    }
+
+    /**
+     * Creates and starts a RAM <code>Source</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI    the name of the source.
+     * @param cframesI the number of cache frames.
+     * @param amodeI   the archive mode.
+     * @param aframesI the number of archive frames.
+     * @return the started <code>Source</code>.
+     * @exception java.lang.Exception
+     *		  thrown if the source cannot be started.
+     * @see com.rbnb.api.SourceInterface#ACCESS_NONE
+     * @see com.rbnb.api.SourceInterface#ACCESS_CREATE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final Source createSource(String nameI,
+				     long cframesI,
+				     byte amodeI,
+				     long aframesI)
+	throws java.lang.Exception
+    {
+	Source sourceR = getServer().createRAMSource(nameI);
+	sourceR.setCframes(cframesI);
+	sourceR.setAmode(amodeI);
+	if (amodeI != Source.ACCESS_NONE) {
+	    sourceR.setAframes(aframesI);
+	}
+	sourceR.start();
+	return (sourceR);
+    }
+
+    /**
+     * Creates and starts a RAM <code>Sink</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI the name of the sink.
+     * @return the started <code>Sink</code>.
+     * @exception java.lang.Exception
+     *		  thrown if the sink cannot be started.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final Sink createSink(String nameI)
+	throws java.lang.Exception
+    {
+	Sink sinkR = getServer().createRAMSink(nameI);
+	sinkR.setCframes(1);
+	sinkR.start();
+	return (sinkR);
+    }
+
+    /**
+     * Builds a frame of 64-bit floating point channels.
+     * <p>
+     * The channels are named <code>c0</code>, <code>c1</code>, ...  The
+     * frame itself carries the <code>TimeRange</code>; use
+     * <code>setFrameTime</code> to move it along.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nChansI  the number of channels.
+     * @param nPointsI the number of points per channel.
+     * @return the frame.
+     * @exception java.lang.Exception
+     *		  thrown if the frame cannot be built.
+     * @see #setFrameTime(Rmap,double)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final static Rmap createFrame(int nChansI,int nPointsI)
+	throws java.lang.Exception
+    {
+	Rmap frameR = new Rmap();
+	frameR.setTrange(new TimeRange(0.,nPointsI));
+
+	for (int idx = 0; idx < nChansI; ++idx) {
+	    double[] data = new double[nPointsI];
+	    for (int idx1 = 0; idx1 < nPointsI; ++idx1) {
+		data[idx1] = idx*nPointsI + idx1;
+	    }
+	    frameR.addChild
+		(new Rmap("c" + idx,
+			  new DataBlock(data,
+					nPointsI,
+					8,
+					DataBlock.TYPE_FLOAT64,
+					DataBlock.ORDER_MSB,
+					false,
+					0,
+					8),
+			  null));
+	}
+
+	return (frameR);
+    }
+
+    /**
+     * Sets the start time of a frame built by <code>createFrame</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param frameI the frame.
+     * @param timeI  the start time.
+     * @see #createFrame(int,int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final static void setFrameTime(Rmap frameI,double timeI) {
+	TimeRange tRange = frameI.getTrange();
+	tRange.set(timeI,tRange.getDuration());
+    }
+
+    /**
+     * Builds a request for channels of a source.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param sourceI	 the source.
+     * @param nChansI	 the number of channels to request.
+     * @param referenceI the time reference.
+     * @param startI	 the start of the request.
+     * @param durationI	 the duration of the request.
+     * @return the request.
+     * @exception java.lang.Exception
+     *		  thrown if the request cannot be built.
+     * @see com.rbnb.api.DataRequest#ABSOLUTE
+     * @see com.rbnb.api.DataRequest#NEWEST
+     * @see com.rbnb.api.DataRequest#OLDEST
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final DataRequest createRequest(Source sourceI,
+					   int nChansI,
+					   byte referenceI,
+					   double startI,
+					   double durationI)
+	throws java.lang.Exception
+    {
+	DataRequest requestR = new DataRequest(null,
+					       null,
+					       null,
+					       referenceI,
+					       DataRequest.EXISTING,
+					       1,
+					       1.,
+					       true,
+					       DataRequest.CONSOLIDATED);
+	String prefix = "/" + getServer().getName() + "/" + sourceI.getName();
+
+	for (int idx = 0; idx < nChansI; ++idx) {
+	    requestR.addChannel(prefix + "/c" + idx);
+	}
+	for (int idx = 0; idx < requestR.getNchildren(); ++idx) {
+	    requestR.getChildAt(idx).setTrange(new TimeRange(startI,
+							     durationI));
+	}
+
+	return (requestR);
+    }
+
+    /**
+     * Makes a request of a <code>Sink</code> and waits for the response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param sinkI    the <code>Sink</code>.
+     * @param requestI the request.
+     * @return the response.
+     * @exception java.lang.Exception
+     *		  thrown if the request fails.
+     * @exception java.lang.IllegalStateException
+     *		  thrown if no data is returned.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final static Rmap fetch(Sink sinkI,Rmap requestI)
+	throws java.lang.Exception
+    {
+	sinkI.addChild(requestI);
+	sinkI.initiateRequestAt(0);
+
+	Rmap responseR;
+	while ((responseR = sinkI.fetch(1000)) == null) {
+	}
+	if (responseR.getNchildren() == 0) {
+	    throw new java.lang.IllegalStateException
+		("No data returned for:\n" + requestI + "\n" + responseR);
+	}
+
+	return (responseR);
+    }
+
+    /**
+     * Deletes a file or directory tree.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param fileI the file or directory.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static void delete(java.io.File fileI) {
+	if (fileI == null) {
+	    return;
+	}
+	java.io.File[] children = fileI.listFiles();
+	if (children != null) {
+	    for (int idx = 0; idx < children.length; ++idx) {
+		delete(children[idx]);
+	    }
+	}
+	fileI.delete();
+    }
+}
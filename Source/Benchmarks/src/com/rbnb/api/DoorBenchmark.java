@@ -0,0 +1,339 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures contention on a <code>READ_WRITE Door</code>.
+ * <p>
+ * Seven reader threads and one writer share a <code>Door</code>, much as
+ * sinks and a source share an <code>RBO's</code> registration.  The
+ * <code>locked</code> group reads under a read lock.  The
+ * <code>optimistic</code> group tries an optimistic read first and only
+ * takes the read lock if that does not validate, as
+ * <code>RBO.getRegistered</code> does.  Each group is run with the
+ * original implementation and with the <code>ReadWriteGate</code>; the
+ * original never grants optimistic reads.
+ * <p>
+ * The writer spends <code>writeTokens</code> of CPU between writes, so
+ * the ratio of reads to writes can be varied:
+ * <p><pre>
+ * ant benchmark -Drbnb.jmhargs="DoorBenchmark"
+ * </pre><p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.Door#tryOptimisticRead()
+ * @see com.rbnb.api.ReadWriteGate
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created from the DoorContention program.
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+public class DoorBenchmark {
+
+    /**
+     * use the <code>ReadWriteGate</code>?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "false", "true" })
+    public boolean concurrent;
+
+    /**
+     * the CPU spent by the writer between writes.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "100", "10000" })
+    public long writeTokens;
+
+    /**
+     * the <code>Door</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Door door;
+
+    /**
+     * the values protected by the <code>Door</code>.
+     * <p>
+     * The writer keeps <code>valueA == valueB</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long valueA = 0,
+		 valueB = 0;
+
+    /**
+     * Creates the <code>Door</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.InterruptedException
+     *		  thrown if the creation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void setup()
+	throws java.lang.InterruptedException
+    {
+	door = new Door("DoorBenchmark",Door.READ_WRITE,concurrent);
+    }
+
+    /**
+     * Reads the values under a read lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the difference between the values, which is always zero.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the read is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(7)
+    public long lockedRead()
+	throws java.lang.InterruptedException
+    {
+	return (readLocked());
+    }
+
+    /**
+     * Writes the values while the <code>locked</code> readers run.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.InterruptedException
+     *		  thrown if the write is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public void lockedWrite()
+	throws java.lang.InterruptedException
+    {
+	write();
+    }
+
+    /**
+     * Reads the values optimistically, falling back to a read lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the difference between the values, which is always zero.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the read is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    @Group("optimistic")
+    @GroupThreads(7)
+    public long optimisticRead()
+	throws java.lang.InterruptedException
+    {
+	long stamp = door.tryOptimisticRead();
+	if (stamp != 0L) {
+	    long difference = valueA - valueB;
+	    if (door.validate(stamp)) {
+		return (difference);
+	    }
+	}
+	return (readLocked());
+    }
+
+    /**
+     * Writes the values while the <code>optimistic</code> readers run.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.InterruptedException
+     *		  thrown if the write is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    @Group("optimistic")
+    @GroupThreads(1)
+    public void optimisticWrite()
+	throws java.lang.InterruptedException
+    {
+	write();
+    }
+
+    /**
+     * Reads the values under a read lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the difference between the values.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the read is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final long readLocked()
+	throws java.lang.InterruptedException
+    {
+	door.lockRead("DoorBenchmark.readLocked");
+	try {
+	    return (valueA - valueB);
+	} finally {
+	    door.unlockRead();
+	}
+    }
+
+    /**
+     * Writes the values under the write lock, then spends
+     * <code>writeTokens</code> of CPU.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.InterruptedException
+     *		  thrown if the write is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void write()
+	throws java.lang.InterruptedException
+    {
+	door.lock("DoorBenchmark.write");
+	try {
+	    ++valueA;
+	    ++valueB;
+	} finally {
+	    door.unlock();
+	}
+	Blackhole.consumeCPU(writeTokens);
+    }
+}
@@ -0,0 +1,402 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the request matching and extraction paths.
+ * <p>
+ * A frame is put into the in-process server through a RAM
+ * <code>Source</code> and read back through a RAM <code>Sink</code>.  The
+ * response, which is built by the server, is then used as the input for:
+ * <p><ul>
+ * <li><code>Rmap.extractRmap</code> of half of the channels and half of the
+ *     time,</li>
+ * <li><code>DataBlock.extractData</code> of a channel's data pool, and</li>
+ * <li><code>TimeRange.matches</code> against requests before, inside, and
+ *     after the frame.</li>
+ * </ul><p>
+ * <code>fetchNewest</code> times the complete request through the server.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.BenchmarkServer
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+public class ExtractBenchmark {
+
+    /**
+     * the number of channels in the frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "10", "100" })
+    public int nChans;
+
+    /**
+     * the number of points per channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "1000" })
+    public int nPoints;
+
+    /**
+     * the data pool of the first channel of the response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataBlock dBlock;
+
+    /**
+     * the reference used to extract the data pool.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataBlock dRef;
+
+    /**
+     * the request for the newest frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataRequest newest;
+
+    /**
+     * the response to the request for the newest frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap response;
+
+    /**
+     * the request used to extract from the response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap subset;
+
+    /**
+     * the <code>Sink</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Sink sink;
+
+    /**
+     * the <code>Source</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Source source;
+
+    /**
+     * the time range of the response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private TimeRange stored;
+
+    /**
+     * the time ranges matched against the response's time range.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private TimeRange[] tRequests;
+
+    /**
+     * Loads the server and builds the fixtures.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverI the in-process server.
+     * @exception java.lang.Exception
+     *		  thrown if the setup fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void setup(BenchmarkServer serverI)
+	throws java.lang.Exception
+    {
+	String suffix = "_" + nChans + "_" + nPoints;
+	source = serverI.createSource("Extract" + suffix,
+				      10,
+				      Source.ACCESS_NONE,
+				      0);
+	Rmap frame = BenchmarkServer.createFrame(nChans,nPoints);
+	for (int idx = 0; idx < 10; ++idx) {
+	    BenchmarkServer.setFrameTime(frame,idx*nPoints);
+	    source.addChild(frame);
+	}
+	source.synchronizeWserver();
+
+	sink = serverI.createSink("ExtractSink" + suffix);
+	newest = serverI.createRequest(source,
+				       nChans,
+				       DataRequest.NEWEST,
+				       0.,
+				       nPoints);
+	response = BenchmarkServer.fetch(sink,newest);
+
+	// Ask for the first half of the channels and the middle of the time.
+	double start = 9*nPoints;
+	subset = serverI.createRequest(source,
+				       Math.max(1,nChans/2),
+				       DataRequest.ABSOLUTE,
+				       start + nPoints/4.,
+				       nPoints/2.);
+
+	Rmap channel = response.findDescendant
+	    ("/" + serverI.getServer().getName() + "/" + source.getName() +
+	     "/c0",
+	     false);
+	dBlock = channel.getDblock();
+	dRef = new DataBlock(null,
+			     1,
+			     8,
+			     DataBlock.TYPE_FLOAT64,
+			     DataBlock.ORDER_MSB,
+			     false,
+			     0,
+			     8);
+
+	stored = new TimeRange(start,nPoints);
+	tRequests = new TimeRange[] {
+	    new TimeRange(start - 2.*nPoints,nPoints),
+	    new TimeRange(start + nPoints/4.,nPoints/2.),
+	    new TimeRange(start,nPoints),
+	    new TimeRange(start + 2.*nPoints,nPoints)
+	};
+    }
+
+    /**
+     * Stops the clients.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the clients cannot be stopped.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @TearDown(Level.Trial)
+    public void teardown()
+	throws java.lang.Exception
+    {
+	sink.stop();
+	source.stop();
+    }
+
+    /**
+     * Extracts half of the channels and time from a server response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the extracted <code>Rmap</code>.
+     * @exception java.lang.Exception
+     *		  thrown if the extraction fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public Rmap extractRmap()
+	throws java.lang.Exception
+    {
+	return (response.extractRmap(subset,true));
+    }
+
+    /**
+     * Extracts a channel's data pool into a <code>double</code> array.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the data.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public Object extractData() {
+	return (dBlock.extractData(dRef));
+    }
+
+    /**
+     * Matches a stored <code>TimeRange</code> against several requests.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the combined match results.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public int timeRangeMatches() {
+	int resultR = 0;
+	for (int idx = 0; idx < tRequests.length; ++idx) {
+	    resultR = (resultR << 4) | stored.matches(tRequests[idx]);
+	}
+	return (resultR);
+    }
+
+    /**
+     * Requests the newest frame through the server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the response.
+     * @exception java.lang.Exception
+     *		  thrown if the request fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public Rmap fetchNewest()
+	throws java.lang.Exception
+    {
+	return (BenchmarkServer.fetch(sink,newest));
+    }
+}
@@ -0,0 +1,340 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the cost of idle subscribed sinks.
+ * <p>
+ * <code>nSinks</code> RAM <code>Sinks</code> subscribe to a source that
+ * never sends anything, so each of them leaves its handlers (the
+ * <code>RBNBClient</code>, <code>RCO</code>, and
+ * <code>StreamRequestHandler</code> threads) parked in the server.  The
+ * benchmark then times one frame from an active source through the server
+ * to an active subscribed sink.
+ * <p>
+ * When the trial ends, the number of live threads and the peak are
+ * printed, along with whether the handlers ran on virtual threads.  To
+ * compare the two thread modes and see where virtual threads pin their
+ * carriers (Java 21 or later):
+ * <p><pre>
+ * ant benchmark -Drbnb.jmhargs="-jvmArgsAppend
+ *     '-Dcom.rbnb.api.ThreadWithLocks.virtual=true
+ *      -Djdk.tracePinnedThreads=short' IdleSinkBenchmark"
+ * </pre><p>
+ * Each pinned wait is printed once with the stack that caused it.  A JFR
+ * recording (<code>-XX:StartFlightRecording</code>) reports the same
+ * information as <code>jdk.VirtualThreadPinned</code> events.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.BenchmarkServer
+ * @see com.rbnb.api.ThreadWithLocks#newHandlerThread(Runnable,String)
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+public class IdleSinkBenchmark {
+
+    /**
+     * the number of idle subscribed sinks.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "0", "1000", "4000" })
+    public int nSinks;
+
+    /**
+     * the frame sent by the active source.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap frame;
+
+    /**
+     * the idle sinks.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Sink[] idle;
+
+    /**
+     * the source that the idle sinks subscribe to.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Source idleSource;
+
+    /**
+     * the active sink.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Sink sink;
+
+    /**
+     * the active source.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Source source;
+
+    /**
+     * the time of the next frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double time = 0.;
+
+    /**
+     * Creates the sources and subscribes the sinks.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverI the server.
+     * @exception java.lang.Exception
+     *		  thrown if there is a problem.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void setup(BenchmarkServer serverI)
+	throws java.lang.Exception
+    {
+	String suffix = "_" + nSinks;
+	frame = BenchmarkServer.createFrame(1,1);
+
+	idleSource = serverI.createSource("IdleSource" + suffix,
+					  10,
+					  Source.ACCESS_NONE,
+					  0);
+	idleSource.addChild(frame);
+	idleSource.synchronizeWserver();
+
+	idle = new Sink[nSinks];
+	for (int idx = 0; idx < nSinks; ++idx) {
+	    idle[idx] = serverI.createSink("Idle" + suffix + "_" + idx);
+	    subscribe(serverI,idle[idx],idleSource);
+	}
+
+	source = serverI.createSource("Active" + suffix,
+				      10,
+				      Source.ACCESS_NONE,
+				      0);
+	sink = serverI.createSink("ActiveSink" + suffix);
+	subscribe(serverI,sink,source);
+
+	// Frames sent before the subscription is in place are not delivered,
+	// so send frames until one arrives.
+	Rmap response;
+	do {
+	    BenchmarkServer.setFrameTime(frame,++time);
+	    source.addChild(frame);
+	    source.synchronizeWserver();
+	} while (((response = sink.fetch(100)) == null) ||
+		 (response.getNchildren() == 0));
+    }
+
+    /**
+     * Stops the sources and sinks and reports the threads.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if there is a problem.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @TearDown(Level.Trial)
+    public void teardown()
+	throws java.lang.Exception
+    {
+	java.lang.management.ThreadMXBean threads =
+	    java.lang.management.ManagementFactory.getThreadMXBean();
+	System.out.println
+	    ("\nIdleSinkBenchmark: " + nSinks + " idle sinks, " +
+	     threads.getThreadCount() + " live platform threads (peak " +
+	     threads.getPeakThreadCount() + "), virtual handlers " +
+	     Boolean.getBoolean("com.rbnb.api.ThreadWithLocks.virtual"));
+
+	sink.stop();
+	source.stop();
+	for (int idx = 0; idx < idle.length; ++idx) {
+	    idle[idx].stop();
+	}
+	idleSource.stop();
+    }
+
+    /**
+     * Sends a frame and waits for the subscribed sink to receive it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the frame received.
+     * @exception java.lang.Exception
+     *		  thrown if there is a problem.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public Rmap deliver()
+	throws java.lang.Exception
+    {
+	BenchmarkServer.setFrameTime(frame,++time);
+	source.addChild(frame);
+	source.synchronizeWserver();
+
+	Rmap responseR;
+	while (((responseR = sink.fetch(1000)) == null) ||
+	       (responseR.getNchildren() == 0)) {
+	}
+
+	return (responseR);
+    }
+
+    /**
+     * Subscribes a sink to the channel of a source.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverI the server.
+     * @param sinkI   the sink.
+     * @param sourceI the source.
+     * @exception java.lang.Exception
+     *		  thrown if there is a problem.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static void subscribe(BenchmarkServer serverI,
+					Sink sinkI,
+					Source sourceI)
+	throws java.lang.Exception
+    {
+	DataRequest request = new DataRequest();
+	request.setReference(DataRequest.NEWEST);
+	request.setRepetitions(DataRequest.INFINITE,1.);
+	request.setMode(DataRequest.FRAMES);
+	request.setSynchronized(true);
+	request.setDomain(DataRequest.FUTURE);
+
+	// Like sapi.Sink.Subscribe, mark the channel as wanting
+	// data and ask for frames rather than times.
+	Rmap channel = request.addChannel("/" + serverI.getServer().getName() +
+					  "/" + sourceI.getName() + "/c0");
+	Rmap marker = new Rmap();
+	marker.setDblock(new DataBlock(new byte[1],1,1));
+	channel.addChild(marker);
+	for (int idx = 0; idx < request.getNchildren(); ++idx) {
+	    request.getChildAt(idx).setFrange(new TimeRange(0.,0.));
+	}
+
+	sinkI.addChild(request);
+	sinkI.initiateRequestAt(0);
+    }
+}
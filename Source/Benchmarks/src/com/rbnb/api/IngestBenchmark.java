@@ -0,0 +1,268 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the ingest path into the cache.
+ * <p>
+ * Each operation adds one frame to a RAM <code>Source</code> that has no
+ * archive.  The frame goes through <code>RBO.acceptFrame</code>,
+ * <code>RingBuffer.acceptFrame</code>, and
+ * <code>StorageManager.addElement</code> for the cache's
+ * <code>FrameSets</code>.  <code>addFrame</code> synchronizes with the server
+ * after every frame, so it measures the latency of a single frame;
+ * <code>addFrames</code> only synchronizes after a burst and so measures the
+ * throughput of the ingest queue.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.BenchmarkServer
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.SECONDS)
+public class IngestBenchmark {
+
+    /**
+     * the number of frames added by <code>addFrames</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int BURST = 100;
+
+    /**
+     * the number of cache frames.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "100", "10000" })
+    public int cframes;
+
+    /**
+     * the number of channels in a frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "10", "100" })
+    public int nChans;
+
+    /**
+     * the number of points per channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "100" })
+    public int nPoints;
+
+    /**
+     * the frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap frame;
+
+    /**
+     * the <code>Source</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Source source;
+
+    /**
+     * the time of the next frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double time = 0.;
+
+    /**
+     * Starts the <code>Source</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverI the in-process server.
+     * @exception java.lang.Exception
+     *		  thrown if the setup fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void setup(BenchmarkServer serverI)
+	throws java.lang.Exception
+    {
+	source = serverI.createSource
+	    ("Ingest_" + cframes + "_" + nChans + "_" + nPoints,
+	     cframes,
+	     Source.ACCESS_NONE,
+	     0);
+	frame = BenchmarkServer.createFrame(nChans,nPoints);
+    }
+
+    /**
+     * Stops the <code>Source</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the source cannot be stopped.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @TearDown(Level.Trial)
+    public void teardown()
+	throws java.lang.Exception
+    {
+	source.stop();
+    }
+
+    /**
+     * Adds one frame and waits for the server to accept it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the frame cannot be added.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public void addFrame()
+	throws java.lang.Exception
+    {
+	BenchmarkServer.setFrameTime(frame,time);
+	time += nPoints;
+	source.addChild(frame);
+	source.synchronizeWserver();
+    }
+
+    /**
+     * Adds a burst of frames, then waits for the server to accept them.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the frames cannot be added.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void addFrames()
+	throws java.lang.Exception
+    {
+	for (int idx = 0; idx < BURST; ++idx) {
+	    BenchmarkServer.setFrameTime(frame,time);
+	    time += nPoints;
+	    source.addChild(frame);
+	}
+	source.synchronizeWserver();
+    }
+}
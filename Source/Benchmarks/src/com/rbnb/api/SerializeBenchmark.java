@@ -0,0 +1,263 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the serialization of <code>Rmaps</code>.
+ * <p>
+ * A response is fetched from the in-process server through a RAM
+ * <code>Sink</code> and then written with <code>Language.write</code> and
+ * read back with <code>Language.read</code>.  As in the archive, the
+ * <code>Rmap</code> header goes through an <code>OutputStream</code> and the
+ * data payloads through a <code>DataOutputStream</code>, each into its own
+ * byte array.  Both are in the binary form used by the archive and the
+ * data sockets.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.BenchmarkServer
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+public class SerializeBenchmark {
+
+    /**
+     * the number of channels in the frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "10", "100" })
+    public int nChans;
+
+    /**
+     * the number of points per channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "1000" })
+    public int nPoints;
+
+    /**
+     * the serialized data payloads.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] data;
+
+    /**
+     * the serialized header.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] header;
+
+    /**
+     * the buffer the data payloads are written to.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.io.ByteArrayOutputStream dataOut;
+
+    /**
+     * the buffer the header is written to.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.io.ByteArrayOutputStream headerOut;
+
+    /**
+     * the <code>Rmap</code> to serialize.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap response;
+
+    /**
+     * Fetches the response to serialize and serializes it once.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverI the in-process server.
+     * @exception java.lang.Exception
+     *		  thrown if the setup fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void setup(BenchmarkServer serverI)
+	throws java.lang.Exception
+    {
+	String suffix = "_" + nChans + "_" + nPoints;
+	Source source = serverI.createSource("Serialize" + suffix,
+					     1,
+					     Source.ACCESS_NONE,
+					     0);
+	source.addChild(BenchmarkServer.createFrame(nChans,nPoints));
+	source.synchronizeWserver();
+
+	Sink sink = serverI.createSink("SerializeSink" + suffix);
+	response = BenchmarkServer.fetch
+	    (sink,
+	     serverI.createRequest(source,
+				   nChans,
+				   DataRequest.NEWEST,
+				   0.,
+				   nPoints));
+	sink.stop();
+	source.stop();
+
+	headerOut = new java.io.ByteArrayOutputStream();
+	dataOut = new java.io.ByteArrayOutputStream();
+	write();
+	header = headerOut.toByteArray();
+	data = dataOut.toByteArray();
+    }
+
+    /**
+     * Writes the response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes written.
+     * @exception java.lang.Exception
+     *		  thrown if the write fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public int write()
+	throws java.lang.Exception
+    {
+	headerOut.reset();
+	dataOut.reset();
+
+	OutputStream os = new OutputStream(headerOut,true,0);
+	DataOutputStream dos = new DataOutputStream(dataOut,0);
+	Language.write(response,null,os,dos);
+	os.flush();
+	dos.flush();
+
+	return (headerOut.size() + dataOut.size());
+    }
+
+    /**
+     * Reads the response back.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the <code>Rmap</code> read.
+     * @exception java.lang.Exception
+     *		  thrown if the read fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public Serializable read()
+	throws java.lang.Exception
+    {
+	InputStream is = new InputStream
+	    (new java.io.ByteArrayInputStream(header),true,0);
+	DataInputStream dis = new DataInputStream
+	    (new java.io.ByteArrayInputStream(data),0);
+
+	return (Language.read(null,is,dis));
+    }
+}
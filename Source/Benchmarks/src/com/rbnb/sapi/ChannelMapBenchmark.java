@@ -0,0 +1,461 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.sapi;
+
+import com.rbnb.api.BenchmarkServer;
+import com.rbnb.api.DataRequest;
+import com.rbnb.api.Rmap;
+import com.rbnb.api.Sink;
+import com.rbnb.api.Source;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the simple API <code>ChannelMap</code>.
+ * <p>
+ * <code>putData</code> times <code>PutTime</code> and
+ * <code>PutDataAsFloat64</code> for every channel, followed by the
+ * conversion to an <code>Rmap</code> that <code>Source.Flush</code> does.
+ * <code>getData</code> times the processing of a response fetched from the
+ * in-process server, as <code>Sink.Fetch</code> does, followed by
+ * <code>GetDataAsFloat64</code> for every channel.  <code>roundTrip</code>
+ * does both, sending the frame to the server through a RAM
+ * <code>Source</code> and fetching it back through a RAM <code>Sink</code>.
+ * <p>
+ * The simple API <code>Client</code> classes cannot be attached to a RAM
+ * connection, so the <code>ChannelMaps</code> are fed to and from the
+ * underlying <code>com.rbnb.api</code> clients directly.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.BenchmarkServer
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+public class ChannelMapBenchmark {
+
+    /**
+     * the number of channels.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "10", "100" })
+    public int nChans;
+
+    /**
+     * the number of points per channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "1000" })
+    public int nPoints;
+
+    /**
+     * the data put into each channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double[] data;
+
+    /**
+     * the map the response is processed into.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private ChannelMap getMap;
+
+    /**
+     * the map the data is put into.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private ChannelMap putMap;
+
+    /**
+     * the request for the newest frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataRequest request;
+
+    /**
+     * the response processed by <code>getData</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap response;
+
+    /**
+     * the <code>Sink</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Sink sink;
+
+    /**
+     * the <code>Source</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Source source;
+
+    /**
+     * the time of the next frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double time = 0.;
+
+    /**
+     * Starts the clients and fetches the response used by
+     * <code>getData</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverI the in-process server.
+     * @exception java.lang.Exception
+     *		  thrown if the setup fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void setup(BenchmarkServer serverI)
+	throws java.lang.Exception
+    {
+	String suffix = "_" + nChans + "_" + nPoints;
+	source = serverI.createSource("ChannelMap" + suffix,
+				      100,
+				      Source.ACCESS_NONE,
+				      0);
+	sink = serverI.createSink("ChannelMapSink" + suffix);
+
+	data = new double[nPoints];
+	for (int idx = 0; idx < nPoints; ++idx) {
+	    data[idx] = idx;
+	}
+	putMap = new ChannelMap();
+	for (int idx = 0; idx < nChans; ++idx) {
+	    putMap.Add("c" + idx);
+	}
+	getMap = new ChannelMap();
+
+	request = serverI.createRequest(source,
+					nChans,
+					DataRequest.NEWEST,
+					0.,
+					nPoints);
+	flush(produce());
+	response = BenchmarkServer.fetch(sink,request);
+    }
+
+    /**
+     * Stops the clients.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the clients cannot be stopped.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @TearDown(Level.Trial)
+    public void teardown()
+	throws java.lang.Exception
+    {
+	sink.stop();
+	source.stop();
+    }
+
+    /**
+     * Puts a frame of data into the put map and converts it to an
+     * <code>Rmap</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of channels in the <code>Rmap</code>.
+     * @exception java.lang.Exception
+     *		  thrown if the data cannot be put.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public int putData()
+	throws java.lang.Exception
+    {
+	int nChildrenR = produce().getNchildren();
+	putMap.clearData();
+	return (nChildrenR);
+    }
+
+    /**
+     * Processes a response and gets the data for every channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the total number of points.
+     * @exception java.lang.Exception
+     *		  thrown if the response cannot be processed.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public int getData()
+	throws java.lang.Exception
+    {
+	return (getData(response));
+    }
+
+    /**
+     * Sends a frame to the server and fetches it back.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the total number of points fetched.
+     * @exception java.lang.Exception
+     *		  thrown if the round trip fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public int roundTrip()
+	throws java.lang.Exception
+    {
+	flush(produce());
+	return (getData(BenchmarkServer.fetch(sink,request)));
+    }
+
+    /**
+     * Puts a frame of data into the put map and converts it to an
+     * <code>Rmap</code>, as <code>Source.Flush</code> does.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the <code>Rmap</code>.
+     * @exception java.lang.Exception
+     *		  thrown if the data cannot be put.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final Rmap produce()
+	throws java.lang.Exception
+    {
+	putMap.PutTime(time,nPoints);
+	time += nPoints;
+	for (int idx = 0; idx < nChans; ++idx) {
+	    putMap.PutDataAsFloat64(idx,data);
+	}
+
+	Rmap outputR = putMap.produceOutput();
+	outputR.collapse();
+	return (outputR);
+    }
+
+    /**
+     * Sends an <code>Rmap</code> produced by the put map to the server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param outputI the <code>Rmap</code>.
+     * @exception java.lang.Exception
+     *		  thrown if the frame cannot be sent.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void flush(Rmap outputI)
+	throws java.lang.Exception
+    {
+	source.addChild(outputI);
+	putMap.clearData();
+	source.synchronizeWserver();
+    }
+
+    /**
+     * Processes a response and gets the data for every channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param responseI the response.
+     * @return the total number of points.
+     * @exception java.lang.Exception
+     *		  thrown if the response cannot be processed.
+     * @exception java.lang.IllegalStateException
+     *		  thrown if the response is missing channels.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final int getData(Rmap responseI)
+	throws java.lang.Exception
+    {
+	getMap.Clear();
+	getMap.processResult(responseI,true,false);
+	if (getMap.NumberOfChannels() != nChans) {
+	    throw new java.lang.IllegalStateException
+		("Expected " + nChans + " channels, got " +
+		 getMap.NumberOfChannels() + ".");
+	}
+
+	int pointsR = 0;
+	for (int idx = 0; idx < nChans; ++idx) {
+	    pointsR += getMap.GetDataAsFloat64(idx).length;
+	}
+	return (pointsR);
+    }
+}
@@ -0,0 +1,398 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.sapi;
+
+import com.rbnb.api.Rmap;
+import com.rbnb.utility.ByteConvert;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the conversion of numeric data to and from bytes for each of
+ * the numeric <code>ChannelMap</code> types in each byte order.
+ * <p>
+ * <code>fromBytes</code> and <code>toBytes</code> time
+ * <code>ByteConvert</code> on its own.  <code>getData</code> times a
+ * <code>ChannelMap</code> processing a response whose data arrived as
+ * bytes in the given order, followed by the matching
+ * <code>GetDataAs</code> call, which is where a sink spends its conversion
+ * time.  <code>getBytes</code> times <code>GetData</code> on that map,
+ * which converts the numbers back to bytes.
+ * <p>
+ * <code>TYPE_STRING</code>, <code>TYPE_BYTEARRAY</code>,
+ * <code>TYPE_USER</code>, and <code>TYPE_INT8</code> data is never
+ * converted, so it is not benchmarked here.  Compare the results with those
+ * of an earlier release to see the effect of a change to the conversions.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.utility.ByteConvert
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+public class ConversionBenchmark {
+
+    /**
+     * the number of points.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "1", "16", "1000" })
+    public int nPoints;
+
+    /**
+     * the byte order.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "MSB", "LSB" })
+    public String order;
+
+    /**
+     * the data type.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    @Param({ "FLOAT64", "FLOAT32", "INT64", "INT32", "INT16" })
+    public String type;
+
+    /**
+     * the data as bytes in <code>order</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] bytes;
+
+    /**
+     * the data as numbers.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Object data;
+
+    /**
+     * the map the response is processed into.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private ChannelMap getMap;
+
+    /**
+     * is the byte order least significant byte first?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean lsb;
+
+    /**
+     * the response processed by <code>getData</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap response;
+
+    /**
+     * the <code>ChannelMap</code> type code.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int typeID;
+
+    /**
+     * Builds the data and the response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.Exception
+     *		  thrown if the setup fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Setup(Level.Trial)
+    public void setup()
+	throws java.lang.Exception
+    {
+	ChannelMap putMap = new ChannelMap();
+	typeID = putMap.TypeID(type);
+	lsb = order.equals("LSB");
+
+	java.util.Random random = new java.util.Random(nPoints);
+	switch (typeID) {
+	case ChannelMap.TYPE_FLOAT64:
+	    double[] doubles = new double[nPoints];
+	    for (int idx = 0; idx < nPoints; ++idx) {
+		doubles[idx] = random.nextGaussian();
+	    }
+	    data = doubles;
+	    bytes = ByteConvert.double2Byte(doubles,lsb);
+	    break;
+
+	case ChannelMap.TYPE_FLOAT32:
+	    float[] floats = new float[nPoints];
+	    for (int idx = 0; idx < nPoints; ++idx) {
+		floats[idx] = (float) random.nextGaussian();
+	    }
+	    data = floats;
+	    bytes = ByteConvert.float2Byte(floats,lsb);
+	    break;
+
+	case ChannelMap.TYPE_INT64:
+	    long[] longs = new long[nPoints];
+	    for (int idx = 0; idx < nPoints; ++idx) {
+		longs[idx] = random.nextLong();
+	    }
+	    data = longs;
+	    bytes = ByteConvert.long2Byte(longs,lsb);
+	    break;
+
+	case ChannelMap.TYPE_INT32:
+	    int[] ints = new int[nPoints];
+	    for (int idx = 0; idx < nPoints; ++idx) {
+		ints[idx] = random.nextInt();
+	    }
+	    data = ints;
+	    bytes = ByteConvert.int2Byte(ints,lsb);
+	    break;
+
+	default:
+	    short[] shorts = new short[nPoints];
+	    for (int idx = 0; idx < nPoints; ++idx) {
+		shorts[idx] = (short) random.nextInt();
+	    }
+	    data = shorts;
+	    bytes = ByteConvert.short2Byte(shorts,lsb);
+	    break;
+	}
+
+	putMap.Add("c");
+	putMap.PutTime(0.,nPoints);
+	putMap.PutData(0,
+		       bytes,
+		       typeID,
+		       lsb ? ChannelMap.LSB : ChannelMap.MSB);
+	response = putMap.produceOutput();
+	response.collapse();
+
+	getMap = new ChannelMap();
+	getMap.processResult(response,true,false);
+    }
+
+    /**
+     * Converts the bytes to numbers with <code>ByteConvert</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the numbers.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public Object fromBytes() {
+	switch (typeID) {
+	case ChannelMap.TYPE_FLOAT64:
+	    return (ByteConvert.byte2Double(bytes,lsb));
+	case ChannelMap.TYPE_FLOAT32:
+	    return (ByteConvert.byte2Float(bytes,lsb));
+	case ChannelMap.TYPE_INT64:
+	    return (ByteConvert.byte2Long(bytes,lsb));
+	case ChannelMap.TYPE_INT32:
+	    return (ByteConvert.byte2Int(bytes,lsb));
+	default:
+	    return (ByteConvert.byte2Short(bytes,lsb));
+	}
+    }
+
+    /**
+     * Gets the data of the processed map back as bytes.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the bytes.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public byte[] getBytes() {
+	return (getMap.GetData(0));
+    }
+
+    /**
+     * Processes the response and gets its data as numbers.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the numbers.
+     * @exception java.lang.Exception
+     *		  thrown if the response cannot be processed.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public Object getData()
+	throws java.lang.Exception
+    {
+	ChannelMap map = new ChannelMap();
+	map.processResult(response,true,false);
+
+	switch (typeID) {
+	case ChannelMap.TYPE_FLOAT64:
+	    return (map.GetDataAsFloat64(0));
+	case ChannelMap.TYPE_FLOAT32:
+	    return (map.GetDataAsFloat32(0));
+	case ChannelMap.TYPE_INT64:
+	    return (map.GetDataAsInt64(0));
+	case ChannelMap.TYPE_INT32:
+	    return (map.GetDataAsInt32(0));
+	default:
+	    return (map.GetDataAsInt16(0));
+	}
+    }
+
+    /**
+     * Converts the numbers to bytes with <code>ByteConvert</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the bytes.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    @Benchmark
+    public byte[] toBytes() {
+	switch (typeID) {
+	case ChannelMap.TYPE_FLOAT64:
+	    return (ByteConvert.double2Byte((double[]) data,lsb));
+	case ChannelMap.TYPE_FLOAT32:
+	    return (ByteConvert.float2Byte((float[]) data,lsb));
+	case ChannelMap.TYPE_INT64:
+	    return (ByteConvert.long2Byte((long[]) data,lsb));
+	case ChannelMap.TYPE_INT32:
+	    return (ByteConvert.int2Byte((int[]) data,lsb));
+	default:
+	    return (ByteConvert.short2Byte((short[]) data,lsb));
+	}
+    }
+}
@@ -67,6 +67,10 @@ package com.rbnb.api;
  *	 <td><code><dir><dir>TCPRCO</code></dir></dir></td>
  *     </tr>
  *     <tr>
+ *	 <td><code><dir><dir>TCPACO</code></dir></dir></td>
+ *	 <td><code><dir><dir><dir>NIORCO</code></dir></dir></dir></td>
+ *     </tr>
+ *     <tr>
  *	 <td><code><dir>RAMACO</code></dir></td>
  *	 <td><code><dir>RAMRCO</code></dir></td>
  *     </tr>
@@ -92,7 +96,7 @@ package com.rbnb.api;
  * @see com.rbnb.api.ClientHandle
  * @see com.rbnb.api.RCO
  * @since V2.0
- * @version 09/21/2012
+ * @version 10/18/2026
  */
 
 /*
@@ -102,6 +106,10 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>getRegisteredSince</code>.
+ * 10/18/2026  JRS	Added data stream byte counts.
+ * 10/18/2026  JRS	Added wire protocol negotiation.
+ * 10/18/2026  JRS	Clients of NIO servers use <code>TCPACOs</code>.
  * 2013/02/11  MJM  check for pingValue overflow
  * 2012/09/21  JPW	Change name of the archive load timeout flag from
  * 			"archiveLoadClientHandlerTO" to "archiveLoadTimeout"
@@ -220,6 +228,7 @@ abstract class ACO
 
     // Package class variables:
     final static Class okClass = (new Ping()).getClass(),
+		       protocolClass = (new WireProtocol()).getClass(),
 		       rmapClass = (new Rmap()).getClass(),
 		       serverClass = (new Server()).getClass();
 
@@ -424,6 +433,34 @@ abstract class ACO
 	receive(okClass,false,Client.FOREVER);
     }
 
+    /**
+     * Calculates the number of bytes transferred on the data stream.
+     * <p>
+     * This is the size after compression.  This implementation
+     * has no data stream and returns 0.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes transferred.
+     * @see #uncompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    long compressedBytes() {
+	return (0);
+    }
+
+
     /**
      * Connects the data communications channel.
      * <p>
@@ -850,6 +887,65 @@ abstract class ACO
 	Rmap rmapR = (Rmap) response;
 	return (rmapR);
     }
+
+    /**
+     * Gets the registration information that has changed since a version.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param sinceI  the version already seen, or 0 for the complete
+     *		      registration.
+     * @return the answer from the server (see
+     *	       <code>Ask.REGISTEREDSINCE</code>), or null if the server does not
+     *	       support the request.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a serialization problem.
+     * @exception java.io.EOFException
+     *		  thrown if the connection is closed.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the I/O is interrupted.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem with the I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.Ask#REGISTEREDSINCE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Ask getRegisteredSince(long sinceI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (!isSupported(IsSupported.FEATURE_REGISTRATION_VERSIONS)) {
+	    return (null);
+	}
+
+	send(new Ask(Ask.REGISTEREDSINCE,new Long(sinceI)));
+
+	Serializable response = fetch(Client.FOREVER);
+	if (!(response instanceof Ask)) {
+	    throw new com.rbnb.api.SerializeException
+		("Unexpected response: " + response);
+	}
+
+	return ((Ask) response);
+    }
 
     /**
      * Gets the client-side communications object.
@@ -1219,6 +1315,50 @@ System.err.println("Bad Ping response.");
 	}
     }
  
+    /**
+     * Negotiates the wire protocol to use with the <code>RCO</code>.
+     * <p>
+     * This implementation does nothing, leaving the connection using the
+     * legacy protocol.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a serialization problem.
+     * @exception java.io.EOFException
+     *		  thrown if the connection is closed.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the I/O is interrupted.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem with the I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.RCO#protocol(com.rbnb.api.WireProtocol)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    void negotiateProtocol()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+    }
+
     /**
      * Creates a new <code>ACO</code> for the specified <code>Client</code>.
      * <p>
@@ -1237,7 +1377,7 @@ System.err.println("Bad Ping response.");
      *		  thrown if the <code>Client</code> is not a child of a
      *		  <code>Server</code>.
      * @since V2.0
-     * @version 05/08/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -1245,6 +1385,7 @@ System.err.println("Bad Ping response.");
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Connect to NIO addresses using TCP.
      * 05/08/2001  INB	Created.
      *
      */
@@ -1265,7 +1406,9 @@ System.err.println("Bad Ping response.");
 	    acoR = new TCPACO(clientI);
 	} else if (strAddr.substring(0,ss).equalsIgnoreCase("INTERNAL")) {
 	    acoR = new RAMACO(clientI);
-	} else if (strAddr.substring(0,ss).equalsIgnoreCase("TCP")) {
+	} else if (strAddr.substring(0,ss).equalsIgnoreCase("TCP") ||
+		   strAddr.substring(0,ss).equalsIgnoreCase("NIO")) {
+	    // NIO servers speak TCP to their clients.
 	    acoR = new TCPACO(clientI);
 	} else {
 	    throw new com.rbnb.api.AddressException
@@ -1935,7 +2078,7 @@ System.err.println("Bad Ping response.");
      *		  thrown if the operation is interrupted.
      * @see #stop()
      * @since V2.0
-     * @version 02/17/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1943,6 +2086,8 @@ System.err.println("Bad Ping response.");
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Negotiate the wire protocol once the data connection is
+     *			up.
      * 12/1/2004   MJM  catch System.getProperty exception for applets
      * 02/17/2004  INB	Added <code>RBNBFAILREVERSE</code> code for testing.
      * 05/07/2003  INB	Use <code>STARTUP_WAIT</code> instead of
@@ -1980,6 +2125,7 @@ System.err.println("Bad Ping response.");
 	    } else {
 		connectData();
 	    }
+	    negotiateProtocol();
 	    start(getClient());
 
 	    if ((getClient().getUsername() != null) &&
@@ -2378,4 +2524,30 @@ System.err.println("Bad Ping response.");
 		 TimerPeriod.SHUTDOWN :
 		 Client.FOREVER));
     }
+
+    /**
+     * Calculates the number of bytes transferred on the data stream before
+     * compression.  This implementation
+     * has no data stream and returns 0.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #compressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    long uncompressedBytes() {
+	return (0);
+    }
 }
@@ -27,7 +27,12 @@ package com.rbnb.api;
  * The files are organized into a hierarchy as follows:
  * <p>
  * <dir><code>Address</code>
- *   <dir><code>TCP</code></dir>
+ *   <dir><code>TCP</code>
+ *     <dir><code>NIO</code>
+ *	 <dir>Adjunct classes: <code>NIOConnection</code> and
+ *	      <code>NIOSelector</code></dir>
+ *     </dir>
+ *   </dir>
  *   <dir><code>RAM</code>
  *     <dir>Adjunct classes: <code>RAMCommunications</code> and
  *	    <code>RAMServerCommunications</code></dir>
@@ -41,6 +46,12 @@ package com.rbnb.api;
  * methods for using TCP server sockets as the address of an RBNB DataTurbine
  * server.
  * <p>
+ * The <code>NIO</code> class extends <code>TCP</code> to serve the socket
+ * connections of a server using non-blocking I/O.  A few selector threads
+ * (<code>NIOSelector</code>) read the connections (<code>NIOConnection</code>)
+ * and the messages are handled by a shared pool of worker threads rather
+ * than by a thread per connection.
+ * <p>
  * The <code>RAM</code> class provides the low-level in-memory (RAM) handling
  * methods for using direct memory-to-memory copy to communicate between the
  * API and the RBNB DataTurbine server.
@@ -57,7 +68,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 08/06/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -67,6 +78,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added NIO addresses.
  * 2005/01/20  WHF	Now implements UsernameInterface.
  * 08/06/2004  INB	Added documentation.
  * 05/11/2001  INB	Created.
@@ -347,7 +359,7 @@ abstract class Address implements UsernameInterface {
      * @exception com.rbnb.api.AddressException
      *		  thrown if there is a problem with the address.
      * @since V2.0
-     * @version 08/06/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -355,6 +367,7 @@ abstract class Address implements UsernameInterface {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added NIO addresses.
      * 08/06/2004  INB	Added some in-line documentation.
      * 05/11/2001  INB	Created.
      *
@@ -386,6 +399,11 @@ abstract class Address implements UsernameInterface {
 		// socket communications.
 		addressR = new TCP(TCP.buildAddress(addressI));
 
+	    } else if (type.equalsIgnoreCase("NIO:")) {
+		// NIO addresses use the NIO class, which serves TCP socket
+		// connections using non-blocking I/O.
+		addressR = new NIO(NIO.buildAddress(addressI));
+
 	    } else {
 		throw new com.rbnb.api.AddressException
 		    ("Unsupported address: " + addressI);
@@ -23,7 +23,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 10/02/2006
+ * @version 10/18/2026
  */
 
 /*
@@ -33,6 +33,11 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Optionally open the <code>FileSets</code> lazily.
+ * 10/18/2026  JRS	Refresh the running data size after reading or
+ *			recovering.
+ * 10/18/2026  JRS	Rebuild missing <code>FileSet</code> channel indexes
+ *			on load and when recovering.
  * 10/18/2010  MJm		Explicit buffer size in BufferedReader
  * 11/16/2006  EMF      Fixed archive read and recover.
  * 10/11/2006  EMF      Added trim by time arguments to constructor.
@@ -128,6 +133,26 @@ final class Archive
 
     final static int ARC_REG = 0;
     final static int ARC_EXP = 1;
+
+    /**
+     * open the <code>FileSets</code> lazily?
+     * <p>
+     * When set, reading an <code>Archive</code> only reads the summary of
+     * each <code>FileSet</code>.  Their skeletons are loaded as requests
+     * reach them and unloaded by the <code>SkeletonCache</code> when they
+     * are no longer in use.  Set by the <code>com.rbnb.api.Archive.lazy</code>
+     * system property.  Recovery always reads the <code>FileSets</code> in
+     * full.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.FileSet#loadSkeleton()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static boolean LAZY =
+	Boolean.getBoolean("com.rbnb.api.Archive.lazy");
 
     /**
      * Class constructor.
@@ -591,7 +616,7 @@ final class Archive
      *		  thrown if the operation is interrupted.
      * @see #writeToArchive()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -599,6 +624,12 @@ final class Archive
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Build missing channel indexes.
+     * 10/18/2026  JRS	Only read the <code>FileSet</code> summaries when
+     *			opening lazily.
+     * 10/18/2026  JRS	Read the <code>FileSets</code> in parallel.
+     * 10/18/2026  JRS	Refresh the data size once the <code>FileSets</code>
+     *			are read.
      * 11/14/2003  INB	Added identification to the <code>Door</code> and
      *			locations to the <code>Locks</code>.
      * 04/24/2003  INB	Mark <code>Archive</code> as not out-of-date.
@@ -628,8 +659,12 @@ final class Archive
 	    // Read a skeleton of the data from the archive.
 	    readSkeletonFromArchive();
 
-	    // Load the <code>FileSets</code> from the archive.
+	    // Load the <code>FileSets</code> from the archive.  They are put in
+	    // place in order, but are independent of each other, so they are
+	    // read in parallel.  Lazily opened <code>FileSets</code> just read
+	    // their summaries for now.
 	    FileSet lastFS = null;
+	    java.util.Vector reads = new java.util.Vector();
 	    for (long idx = getOldest(),
 		     endIdx = getNewest();
 		 idx <= endIdx;
@@ -639,18 +674,36 @@ final class Archive
 		     Archive.SEPARATOR +
 		     "FS" + idx);
 		if (fileSetDirectory.exists()) {
-		    FileSet fs = new FileSet(idx);
+		    final FileSet fs = new FileSet(idx);
 		    addChild(fs);
-		    fs.readFromArchive();
+		    reads.addElement(new ArchiveLoader.Task() {
+			final void perform()
+			    throws java.lang.Exception
+			{
+			    if (LAZY) {
+				fs.readSummaryFromArchive();
+			    } else {
+				fs.readFromArchive();
+				fs.checkChannelIndex();
+			    }
+			}
+		    });
 		    lastFS = fs;
 		}
 	    }
+	    ArchiveLoader.runAll(reads);
+	    for (int idx = 0; idx < reads.size(); ++idx) {
+		ArchiveLoader.rethrow((ArchiveLoader.Task) reads.elementAt(idx));
+	    }
 
 	    // Update the next frame, frameset, and fileset indexes.
 	    if (lastFS != null) {
 		setNextIndex(lastFS.getIndex() + 1);
 	    }
 
+	    // The <code>FileSets</code> were sized as they were read.
+	    refreshDataSize();
+
 	    // Mark as not out-of-date.
 	    outOfDate = false;
 
@@ -851,7 +904,7 @@ final class Archive
      *		  thrown if there is just no way to recover anything from the
      *		  <code>Archive</code>.
      * @since V2.0
-     * @version 02/18/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -859,6 +912,8 @@ final class Archive
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Refresh the data size once the <code>FileSets</code>
+     *			are read.
      * 10/31/2003  INB	Build a recovery message buffers rather than report to
      *			the log.
      * 02/18/2003  INB	Modified to work with the multiple
@@ -900,6 +955,12 @@ final class Archive
 			notMessageO,
 			unMessageO);
 
+	// The <code>FileSets</code> were sized as they were read.
+	try {
+	    refreshDataSize();
+	} catch (java.lang.Exception e) {
+	}
+
 	// Update the registration from the result.
 	setRegistered(new Registration());
 	setLastRegistration(Long.MIN_VALUE);
@@ -922,7 +983,7 @@ final class Archive
      *		  thrown if there is just no way to recover anything from the
      *		  <code>Archive</code>.
      * @since V2.0
-     * @version 09/10/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -930,6 +991,12 @@ final class Archive
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Seal recovered <code>FileSets</code> again in order,
+     *			as they finish recovering in any order.
+     * 10/18/2026  JRS	Read or recover the <code>FileSets</code> in parallel
+     *			before checking their <code>Seals</code> in order.
+     * 10/18/2026  JRS	Rebuild the channel index of <code>FileSets</code> that
+     *			do not have one.
      * 11/16/2006  EMF  Fixed routine, so all FileSets recovered.
      *                  Force deep recovery if seal is invalid.
      * 10/31/2003  INB	Build a recovery message buffers rather than report to
@@ -988,6 +1055,7 @@ final class Archive
         //              numbers are changed to be in a different order than
         //              the timestamps
         boolean forceDeep=false;
+	java.util.Vector recoveries = new java.util.Vector();
         //EMF 11/16/06: added check for nonnull Files, so won't skip last one
 	for (int idx = 0,
 		 endIdx = validSealsI.size(),
@@ -1036,51 +1104,59 @@ final class Archive
 		invalidFS = Long.MAX_VALUE;
 	    }
 
-	    FileSet fs = null;
+            //EMF 11/14/06: do deep recovery if seal bad, or already
+            //              done a deep recovery
+	    recoveries.addElement
+		(new RecoverFileSet(fileSetDirectory,
+				    fsIndex,
+				    theSeal,
+				    (forceDeep ||
+				     (theSeal == null) ||
+				     theSeal.equals(invalidSeal))));
+	}
+
+	// Set up the <code>FileSets</code> in order, then read or recover
+	// them in parallel.  They are independent of each other until their
+	// <code>Seals</code> are checked against each other below.
+	for (int idx = 0; idx < recoveries.size(); ++idx) {
+	    RecoverFileSet recovery =
+		(RecoverFileSet) recoveries.elementAt(idx);
+	    try {
+		FileSet fs = new FileSet(recovery.index);
+		addChild(fs);
+		recovery.fileSet = fs;
+	    } catch (java.lang.Exception e) {
+	    }
+	}
+	try {
+	    ArchiveLoader.runAll(recoveries);
+	} catch (java.lang.InterruptedException e) {
+	    throw new java.lang.IllegalStateException
+		("Archive recovery was interrupted.");
+	}
+
+	for (int idx = 0; idx < recoveries.size(); ++idx) {
+	    RecoverFileSet recovery =
+		(RecoverFileSet) recoveries.elementAt(idx);
+	    java.io.File fileSetDirectory = recovery.directory;
+	    Seal theSeal = recovery.seal;
+	    long fsIndex = recovery.index;
+	    FileSet fs = recovery.fileSet;
 	    boolean added = false;
 	    try {
 		// Determine if this is a usable <code>FileSet</code>.
+		if (fs != null) {
+		    previousFS = lastFS;
+		    lastFS = fs;
+		    added = true;
+		}
+		ArchiveLoader.rethrow(recovery);
 
-		// Attempt to read the <code>FileSet</code> into memory.
-		fs = new FileSet(fsIndex);
-		addChild(fs);
-		previousFS = lastFS;
-		lastFS = fs;
-		added = true;
-		try {
-                  //EMF 11/14/06: do deep recovery if seal bad, or already
-                  //              done a deep recovery
-                  if (forceDeep || theSeal==null || theSeal.equals(invalidSeal)) {
-                    //System.err.println("invalidSeal, force recovery: "+theSeal);
-                    throw new Exception();
-                  } else {
-                    //System.err.println("validSeal, normal read: "+theSeal);
-		    fs.accessFiles(true);
-		    fs.readFromArchive();
-		    fs.releaseFiles();
-                  }
-
-		} catch (java.lang.Exception e) {
-//EMF 7/26/07: temporary test - do not latch; recover only bad filesets not
-//             all subsequent ones
-                  //forceDeep=true;
-                  try {
-                    String dir=fs.getArchiveDirectory()+Archive.SEPARATOR;
-                    System.err.println("\nRecovering "+dir);
-                    //EMF 11/16/06: remove summary files, since recovery
-                    //              code appends to them
-                    java.io.File foo=new java.io.File(dir+"regdat.rbn");
-                    if (foo.exists()) foo.delete();
-                    foo=new java.io.File(dir+"reghdr.rbn");
-                    if (foo.exists()) foo.delete();
-                    foo=new java.io.File(dir+"offsets.rbn");
-                    if (foo.exists()) foo.delete();
-                    } catch (Exception ee) {
-                      ee.printStackTrace();
-                    }
-		    // If we get here, then the only chance of recovery is to
-		    // read  from the data file pair.
-		    theSeal = fs.recoverFromDataFiles();
+		if (recovery.recovered) {
+		    // The <code>FileSets</code> recovered from their data files
+		    // were sealed in whatever order they finished, so they are
+		    // sealed again here, in order.
+		    theSeal = null;
 		}
 
 		if (theSeal == null) {
@@ -1749,4 +1825,199 @@ final class Archive
 	    getDoor().unlock();
 	}
     }
+
+    /**
+     * Reads or recovers one <code>FileSet</code> for
+     * <code>recoverFileSets</code>.
+     * <p>
+     * <code>FileSets</code> that have a good <code>Seal</code> are read
+     * normally.  Those that do not, or that fail to read, are recovered from
+     * their data file pair.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>recoverFileSets</code>.
+     *
+     */
+    private final static class RecoverFileSet
+	extends ArchiveLoader.Task
+    {
+	/**
+	 * recover from the data file pair without trying to read?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private final boolean deep;
+
+	/**
+	 * the <code>FileSet</code> directory.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final java.io.File directory;
+
+	/**
+	 * the <code>FileSet</code>, once it has been set up.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	FileSet fileSet = null;
+
+	/**
+	 * the <code>FileSet</code> index.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final long index;
+
+	/**
+	 * was the <code>FileSet</code> recovered from its data file pair?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	boolean recovered = false;
+
+	/**
+	 * the <code>Seal</code>, replaced by the new one if the
+	 * <code>FileSet</code> is recovered.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	Seal seal;
+
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param directoryI the <code>FileSet</code> directory.
+	 * @param indexI     the <code>FileSet</code> index.
+	 * @param sealI      the <code>Seal</code>.
+	 * @param deepI      recover without trying to read?
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	RecoverFileSet(java.io.File directoryI,
+		       long indexI,
+		       Seal sealI,
+		       boolean deepI)
+	{
+	    super();
+	    directory = directoryI;
+	    index = indexI;
+	    seal = sealI;
+	    deep = deepI;
+	}
+
+	/**
+	 * Reads or recovers the <code>FileSet</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @exception java.lang.Exception
+	 *		  thrown if the <code>FileSet</code> cannot be recovered.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Note when the <code>FileSet</code> is recovered from
+	 *			its data file pair.
+	 * 10/18/2026  JRS	Created from code in <code>recoverFileSets</code>.
+	 *
+	 */
+	final void perform()
+	    throws java.lang.Exception
+	{
+	    if (fileSet == null) {
+		throw new java.lang.IllegalStateException
+		    ("Could not set up " + directory.getName() + ".");
+	    }
+
+	    boolean recover = deep;
+	    if (!recover) {
+		try {
+		    fileSet.accessFiles(true);
+		    fileSet.readFromArchive();
+		    fileSet.checkChannelIndex();
+		    fileSet.releaseFiles();
+
+		} catch (java.lang.Exception e) {
+		    recover = true;
+		}
+	    }
+
+	    if (recover) {
+		try {
+		    String dir =
+			fileSet.getArchiveDirectory() + Archive.SEPARATOR;
+		    System.err.println("\nRecovering " + dir);
+		    //EMF 11/16/06: remove summary files, since recovery
+		    //              code appends to them
+		    java.io.File foo = new java.io.File(dir + "regdat.rbn");
+		    if (foo.exists()) foo.delete();
+		    foo = new java.io.File(dir + "reghdr.rbn");
+		    if (foo.exists()) foo.delete();
+		    foo = new java.io.File(dir + "offsets.rbn");
+		    if (foo.exists()) foo.delete();
+		} catch (java.lang.Exception e) {
+		    e.printStackTrace();
+		}
+
+		// If we get here, then the only chance of recovery is to read
+		// from the data file pair.
+		seal = fileSet.recoverFromDataFiles();
+		recovered = true;
+	    }
+	}
+    }
 }
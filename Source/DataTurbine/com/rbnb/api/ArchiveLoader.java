@@ -0,0 +1,624 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Bounds and tracks the loading of archives when a server starts.
+ * <p>
+ * An <code>ArchiveLoader</code> is created by <code>RBNB.loadArchives</code>
+ * for the archives it finds.  Each <code>LoadSource</code> takes a turn from
+ * it before loading its archive, so that only a limited number of archives
+ * are loaded at once, and reports its result back to it, so that the log
+ * shows how far along the load is.  Archives that have been loaded serve
+ * requests while the rest are still loading.
+ * <p>
+ * Within an archive, the <code>RingBuffers</code> and the
+ * <code>FileSets</code> are independent of each other until they are put in
+ * order, so they are read or recovered as <code>Tasks</code> on a shared
+ * pool of worker threads (see <code>runAll</code>).  The thread asking for
+ * the <code>Tasks</code> works on them as well, so that nested
+ * <code>Tasks</code> cannot run out of threads.
+ * <p>
+ * The number of worker threads and the number of archives loaded at once
+ * can be set with the <code>com.rbnb.api.ArchiveLoader.threads</code> and
+ * <code>com.rbnb.api.ArchiveLoader.sources</code> system properties.  Both
+ * default to the number of processors, with a minimum of two.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.LoadSource
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class ArchiveLoader {
+
+    /**
+     * the number of worker threads.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int THREADS =
+	Math.max(1,
+		 Integer.getInteger
+		 ("com.rbnb.api.ArchiveLoader.threads",
+		  Math.max(2,
+			   Runtime.getRuntime().availableProcessors())).intValue());
+
+    /**
+     * the number of archives loaded at once.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int SOURCES =
+	Math.max(1,
+		 Integer.getInteger("com.rbnb.api.ArchiveLoader.sources",
+				    THREADS).intValue());
+
+    /**
+     * the shared worker thread pool.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static java.util.concurrent.ThreadPoolExecutor workers = null;
+
+    /**
+     * the number of archives that failed to load.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int failed = 0;
+
+    /**
+     * the number of archives that have been loaded.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int loaded = 0;
+
+    /**
+     * the turns for loading archives.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.Semaphore turns =
+	new java.util.concurrent.Semaphore(SOURCES,true);
+
+    /**
+     * the number of archives to load.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final int total;
+
+    /**
+     * Class constructor to build an <code>ArchiveLoader</code> for a number
+     * of archives.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param totalI the number of archives.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    ArchiveLoader(int totalI) {
+	super();
+	total = totalI;
+    }
+
+    /**
+     * Waits for a turn to load an archive.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.InterruptedException
+     *		  thrown if the wait is interrupted.
+     * @see #finished(boolean)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void begin()
+	throws java.lang.InterruptedException
+    {
+	turns.acquire();
+    }
+
+    /**
+     * Ends a turn started by <code>begin</code> and counts its result.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param loadedI was the archive loaded?
+     * @return a description of how far along the load is.
+     * @see #begin()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final String finished(boolean loadedI) {
+	String progressR;
+
+	synchronized (this) {
+	    if (loadedI) {
+		++loaded;
+	    } else {
+		++failed;
+	    }
+	    progressR = ((loaded + failed) + " of " + total + " archives" +
+			 ((failed == 0) ? "" : (", " + failed + " failed")));
+	}
+	turns.release();
+
+	return (progressR);
+    }
+
+    /**
+     * Gets the shared worker thread pool, creating it if necessary.
+     * <p>
+     * The threads exit when they have been idle for a while, as they are
+     * only needed while archives are being loaded.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the pool.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static synchronized
+	java.util.concurrent.ThreadPoolExecutor getWorkers()
+    {
+	if (workers == null) {
+	    workers = new java.util.concurrent.ThreadPoolExecutor
+		(THREADS,
+		 THREADS,
+		 10L,
+		 java.util.concurrent.TimeUnit.SECONDS,
+		 new java.util.concurrent.LinkedBlockingQueue(),
+		 new java.util.concurrent.ThreadFactory() {
+		     private int count = 0;
+
+		     public final synchronized Thread newThread
+			 (Runnable runnableI)
+		     {
+			 Thread threadR = new ThreadWithLocks
+			     (runnableI,"ArchiveLoader.worker." + count++);
+			 threadR.setDaemon(true);
+			 return (threadR);
+		     }
+		 });
+	    workers.allowCoreThreadTimeOut(true);
+	}
+
+	return (workers);
+    }
+
+    /**
+     * Rethrows the failure of a <code>Task</code>, if there is one.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param taskI the <code>Task</code>.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with addressing.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static void rethrow(Task taskI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	Throwable failure = taskI.getFailure();
+
+	if (failure == null) {
+	    return;
+	} else if (failure instanceof com.rbnb.api.AddressException) {
+	    throw (com.rbnb.api.AddressException) failure;
+	} else if (failure instanceof com.rbnb.api.SerializeException) {
+	    throw (com.rbnb.api.SerializeException) failure;
+	} else if (failure instanceof java.io.IOException) {
+	    throw (java.io.IOException) failure;
+	} else if (failure instanceof java.lang.InterruptedException) {
+	    throw (java.lang.InterruptedException) failure;
+	} else if (failure instanceof java.lang.RuntimeException) {
+	    throw (java.lang.RuntimeException) failure;
+	} else if (failure instanceof java.lang.Error) {
+	    throw (java.lang.Error) failure;
+	}
+	throw new java.lang.IllegalStateException(failure.toString());
+    }
+
+    /**
+     * Runs a list of <code>Tasks</code> and waits for all of them to
+     * finish.
+     * <p>
+     * The <code>Tasks</code> are handed to the worker threads, and then the
+     * calling thread runs any that no worker has started yet.  Failures are
+     * kept by the <code>Tasks</code> rather than thrown.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param tasksI the <code>Tasks</code>.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the wait is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static void runAll(java.util.Vector tasksI)
+	throws java.lang.InterruptedException
+    {
+	int nTasks = tasksI.size();
+
+	if ((nTasks > 1) && (THREADS > 1)) {
+	    java.util.concurrent.CountDownLatch done =
+		new java.util.concurrent.CountDownLatch(nTasks);
+	    java.util.concurrent.ThreadPoolExecutor pool = getWorkers();
+
+	    for (int idx = 0; idx < nTasks; ++idx) {
+		Task task = (Task) tasksI.elementAt(idx);
+		task.done = done;
+		if (idx > 0) {
+		    try {
+			pool.execute(task);
+		    } catch (java.util.concurrent.RejectedExecutionException
+			     e) {
+		    }
+		}
+	    }
+	    for (int idx = 0; idx < nTasks; ++idx) {
+		((Task) tasksI.elementAt(idx)).run();
+	    }
+	    done.await();
+
+	} else {
+	    for (int idx = 0; idx < nTasks; ++idx) {
+		((Task) tasksI.elementAt(idx)).run();
+	    }
+	}
+    }
+
+    /**
+     * Gets the total size of the files in a directory and its
+     * subdirectories.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param directoryI the directory.
+     * @return the size in bytes.
+     * @exception java.lang.Exception
+     *		  thrown if the directory cannot be listed.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static long sizeOf(java.io.File directoryI)
+	throws java.lang.Exception
+    {
+	long sizeR = 0;
+	java.io.File[] files = new Directory(directoryI).listFiles();
+
+	for (int idx = 0; (files != null) && (idx < files.length); ++idx) {
+	    if (files[idx].isDirectory()) {
+		sizeR += sizeOf(files[idx]);
+	    } else {
+		sizeR += files[idx].length();
+	    }
+	}
+
+	return (sizeR);
+    }
+
+    /**
+     * Sorts archive directories from smallest to largest.
+     * <p>
+     * Loading the smallest archives first brings as many sources as possible
+     * on line early in the load.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param directoriesI the archive directories.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static void sortBySize(java.io.File[] directoriesI) {
+	long[] sizes = new long[directoriesI.length];
+
+	for (int idx = 0; idx < directoriesI.length; ++idx) {
+	    try {
+		sizes[idx] = sizeOf(directoriesI[idx]);
+	    } catch (java.lang.Exception e) {
+		sizes[idx] = Long.MAX_VALUE;
+	    }
+
+	    // Insert the directory among those already sorted.
+	    java.io.File directory = directoriesI[idx];
+	    long size = sizes[idx];
+	    int idx1;
+	    for (idx1 = idx; (idx1 > 0) && (sizes[idx1 - 1] > size); --idx1) {
+		directoriesI[idx1] = directoriesI[idx1 - 1];
+		sizes[idx1] = sizes[idx1 - 1];
+	    }
+	    directoriesI[idx1] = directory;
+	    sizes[idx1] = size;
+	}
+    }
+
+    /**
+     * A piece of work run by <code>runAll</code>.
+     * <p>
+     * Each <code>Task</code> runs once, on whichever thread gets to it first.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    abstract static class Task
+	implements Runnable
+    {
+	/**
+	 * has a thread started this <code>Task</code>?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private boolean claimed = false;
+
+	/**
+	 * counts down the <code>Tasks</code> still to finish.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	java.util.concurrent.CountDownLatch done = null;
+
+	/**
+	 * the failure, if any.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private Throwable failure = null;
+
+	/**
+	 * Gets the failure of this <code>Task</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @return the failure, or <code>null</code> if it succeeded.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final Throwable getFailure() {
+	    return (failure);
+	}
+
+	/**
+	 * Does the work of this <code>Task</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @exception java.lang.Exception
+	 *		  thrown if the work fails.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	abstract void perform()
+	    throws java.lang.Exception;
+
+	/**
+	 * Runs this <code>Task</code> unless another thread has already
+	 * started it.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final void run() {
+	    synchronized (this) {
+		if (claimed) {
+		    return;
+		}
+		claimed = true;
+	    }
+
+	    try {
+		perform();
+	    } catch (java.lang.Throwable e) {
+		failure = e;
+	    } finally {
+		if (done != null) {
+		    done.countDown();
+		}
+	    }
+	}
+    }
+}
@@ -0,0 +1,1055 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Writes closed <code>FrameSets</code> to their <code>Archives</code> behind
+ * the back of the thread that closed them.
+ * <p>
+ * Normally, when a <code>Cache</code> closes a <code>FrameSet</code>, the
+ * closing thread (usually the one ingesting frames) adds it to the
+ * <code>Archive</code> itself and waits for its files to be synced to disk.
+ * When write-behind is turned on, the <code>FrameSet</code> is instead put
+ * on the queue of the <code>ArchiveWriter</code> for the disk holding the
+ * <code>Archive</code>, and the closing thread carries on.
+ * <p>
+ * Each <code>ArchiveWriter</code> has a single thread that takes up to
+ * <code>BATCH</code> queued <code>FrameSets</code> at a time and adds them
+ * to their <code>Archives</code> in order.  The current
+ * <code>FileSet</code> of each <code>Archive</code> in the batch is held
+ * open for the whole batch, so its files are synced once for the batch
+ * rather than once per <code>FrameSet</code>.
+ * <p>
+ * The queue holds at most <code>QUEUE</code> <code>FrameSets</code>; a
+ * <code>RingBuffer</code> accepting a frame while its writer is full waits
+ * for room, so a slow disk slows down its sources rather than filling
+ * memory.  A <code>FrameSet</code> trimmed from its <code>Cache</code>
+ * before it has been written is cleared by the writer afterwards, and
+ * <code>RingBuffers</code> wait for their queued <code>FrameSets</code>
+ * before closing or sealing their <code>Archives</code>, so that a
+ * <code>Seal</code> only ever covers data that is actually on disk.
+ * <p>
+ * Each <code>FrameSet</code> is written under the same locks that the
+ * thread accepting the frame that closed it would have held to write it
+ * inline, those of its <code>RingBuffer</code> and <code>RBO</code>.  A
+ * thread waiting for an <code>Archive's</code> sets to be written may hold
+ * those locks itself, so it writes any sets that the writer has yet to
+ * start on rather than waiting for them.
+ * <p>
+ * If a <code>FrameSet</code> cannot be written, nothing more is written to
+ * its <code>Archive</code>, and its <code>RingBuffer</code> gets an
+ * <code>IOException</code>, which is passed on to the source, the next time
+ * it waits for room in the writer or for its sets to be written.  The other
+ * <code>Archives</code> on the disk are written as before.
+ * <p>
+ * Write-behind is off unless the
+ * <code>com.rbnb.api.ArchiveWriter.queue</code> system property is set to a
+ * positive number of <code>FrameSets</code>.  The batch size can be set
+ * with the <code>com.rbnb.api.ArchiveWriter.batch</code> system property.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.FrameSet#close()
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Fail only the <code>Archive</code> whose set cannot be
+ *			written, rather than every <code>Archive</code> on the
+ *			disk, for as long as the server runs.
+ * 10/18/2026  JRS	Write under the locks of the <code>RingBuffer</code>,
+ *			and let threads waiting for the writer write sets it
+ *			has yet to start on.  Fail the writer when a set
+ *			cannot be written.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class ArchiveWriter
+    implements Runnable
+{
+    /**
+     * the maximum number of <code>FrameSets</code> written per batch.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int BATCH =
+	Math.max(1,
+		 Integer.getInteger("com.rbnb.api.ArchiveWriter.batch",
+				    16).intValue());
+
+    /**
+     * the maximum number of <code>FrameSets</code> queued per writer.
+     * <p>
+     * Zero (the default) turns write-behind off.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int QUEUE =
+	Math.max(0,
+		 Integer.getInteger("com.rbnb.api.ArchiveWriter.queue",
+				    0).intValue());
+
+    /**
+     * the writers, keyed by disk.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static java.util.Hashtable writers =
+	new java.util.Hashtable();
+
+    /**
+     * the number of batches written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final MetricsRegistry.Counter commits;
+
+    /**
+     * the number of <code>FrameSets</code> queued or being written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final MetricsRegistry.Gauge depth;
+
+    /**
+     * the disk.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final String disk;
+
+    /**
+     * the exceptions that stopped the writing of <code>Archives</code>,
+     * keyed by <code>Archive</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.WeakHashMap failures =
+	new java.util.WeakHashMap();
+
+    /**
+     * the queued <code>Entries</code>, oldest first.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.LinkedList queue = new java.util.LinkedList();
+
+    /**
+     * the <code>Entries</code> in the batch being written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.Vector writing = new java.util.Vector();
+
+    /**
+     * Class constructor to build an <code>ArchiveWriter</code> for a disk.
+     * <p>
+     * Starts the writer thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param diskI the disk.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private ArchiveWriter(String diskI) {
+	super();
+	disk = diskI;
+	commits = MetricsRegistry.getDefault().counter
+	    (MetricsRegistry.ARCHIVE_COMMITS,diskI);
+	depth = MetricsRegistry.getDefault().gauge
+	    (MetricsRegistry.ARCHIVE_QUEUE,diskI);
+
+	Thread writer = new ThreadWithLocks(this,"ArchiveWriter." + diskI);
+	writer.setDaemon(true);
+	writer.start();
+    }
+
+    /**
+     * Waits for every <code>FrameSet</code> queued for an
+     * <code>Archive</code> to be written.
+     * <p>
+     * The sets that the writer has yet to start on are written by the
+     * calling thread, so the caller may hold the locks of the
+     * <code>Archive's</code> <code>RingBuffer</code>, as a flush under the
+     * <code>RBO's</code> write lock does.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param archiveI the <code>Archive</code>.
+     * @exception java.io.IOException
+     *		  thrown if the <code>Archive</code> could not be written.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the wait is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Write the sets the writer has yet to start on.
+     *			Throw if the writer has failed.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static void awaitWritten(Archive archiveI)
+	throws java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if ((QUEUE == 0) || (archiveI == null)) {
+	    return;
+	}
+
+	java.util.Enumeration it = writers.elements();
+	while (it.hasMoreElements()) {
+	    ((ArchiveWriter) it.nextElement()).drain(archiveI);
+	}
+    }
+
+    /**
+     * Throws an exception if an <code>Archive</code> could not be written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param archiveI the <code>Archive</code>.
+     * @exception java.io.IOException
+     *		  thrown if the <code>Archive</code> could not be written.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Check a single <code>Archive</code>.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void checkFailure(Archive archiveI)
+	throws java.io.IOException
+    {
+	synchronized (queue) {
+	    java.lang.Exception failure =
+		(java.lang.Exception) failures.get(archiveI);
+	    if (failure != null) {
+		throw new java.io.IOException
+		    ("Cannot write to the archive on " + disk + ": " +
+		     failure);
+	    }
+	}
+    }
+
+    /**
+     * Claims the unclaimed <code>Entries</code> for an
+     * <code>Archive</code>.
+     * <p>
+     * The caller must be synchronized on the queue.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param archiveI  the <code>Archive</code>.
+     * @param entriesI  the <code>Entries</code> to search.
+     * @param claimedIO the claimed <code>Entries</code>, in order.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void claim(Archive archiveI,
+			     java.util.List entriesI,
+			     java.util.Vector claimedIO)
+    {
+	for (int idx = 0; idx < entriesI.size(); ++idx) {
+	    Entry entry = (Entry) entriesI.get(idx);
+	    if ((entry.archive == archiveI) && !entry.claimed) {
+		entry.claimed = true;
+		claimedIO.addElement(entry);
+	    }
+	}
+    }
+
+    /**
+     * Arranges for a <code>FrameSet</code> that has been trimmed from its
+     * <code>Cache</code> to be cleared once it has been written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param frameSetI the <code>FrameSet</code>.
+     * @return was the <code>FrameSet</code> still waiting to be written?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static boolean deferClear(FrameSet frameSetI) {
+	if (QUEUE == 0) {
+	    return (false);
+	}
+
+	java.util.Enumeration it = writers.elements();
+	while (it.hasMoreElements()) {
+	    ArchiveWriter writer = (ArchiveWriter) it.nextElement();
+	    synchronized (writer.queue) {
+		Entry entry = writer.find(frameSetI,writer.queue);
+		if (entry == null) {
+		    entry = writer.find(frameSetI,writer.writing);
+		}
+		if (entry != null) {
+		    entry.clear = true;
+		    return (true);
+		}
+	    }
+	}
+
+	return (false);
+    }
+
+    /**
+     * Writes or waits for every <code>FrameSet</code> this writer holds for
+     * an <code>Archive</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param archiveI the <code>Archive</code>.
+     * @exception java.io.IOException
+     *		  thrown if the <code>Archive</code> could not be written.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the wait is interrupted.
+     * @see #awaitWritten(com.rbnb.api.Archive)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Throw only if this <code>Archive</code> could not
+     *			be written.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void drain(Archive archiveI)
+	throws java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	java.util.Vector held = new java.util.Vector();
+
+	try {
+	    while (true) {
+		Entry first = null;
+		synchronized (queue) {
+		    for (int idx = 0;
+			 (first == null) && (idx < writing.size());
+			 ++idx) {
+			Entry entry = (Entry) writing.elementAt(idx);
+			if ((entry.archive == archiveI) && !entry.claimed) {
+			    first = entry;
+			}
+		    }
+		    for (int idx = 0;
+			 (first == null) && (idx < queue.size());
+			 ++idx) {
+			Entry entry = (Entry) queue.get(idx);
+			if ((entry.archive == archiveI) && !entry.claimed) {
+			    first = entry;
+			}
+		    }
+
+		    if (first == null) {
+			if (!holds(archiveI,writing) &&
+			    !holds(archiveI,queue)) {
+			    break;
+			}
+
+			// The writer is part way through a set.
+			queue.wait();
+			continue;
+		    }
+		}
+
+		write(first,held,true);
+	    }
+
+	} finally {
+	    release(held);
+	}
+
+	checkFailure(archiveI);
+    }
+
+    /**
+     * Finds the <code>Entry</code> for a <code>FrameSet</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param frameSetI the <code>FrameSet</code>.
+     * @param entriesI  the <code>Entries</code> to search.
+     * @return the <code>Entry</code> or null.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final Entry find(FrameSet frameSetI,java.util.List entriesI) {
+	for (int idx = 0; idx < entriesI.size(); ++idx) {
+	    Entry entry = (Entry) entriesI.get(idx);
+	    if (entry.frameSet == frameSetI) {
+		return (entry);
+	    }
+	}
+
+	return (null);
+    }
+
+    /**
+     * Gets the <code>ArchiveWriter</code> for the disk holding an
+     * <code>Archive</code>, creating it if necessary.
+     * <p>
+     * Disks are told apart by their file stores.  If the file store cannot
+     * be determined, the <code>Archive</code> gets a writer of its own.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param archiveI the <code>Archive</code>.
+     * @return the <code>ArchiveWriter</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static synchronized ArchiveWriter forArchive(Archive archiveI) {
+	java.io.File directory =
+	    new java.io.File(archiveI.getArchiveDirectory()).getAbsoluteFile();
+	String disk = directory.getPath();
+
+	try {
+	    java.io.File existing = directory;
+	    while ((existing != null) && !existing.exists()) {
+		existing = existing.getParentFile();
+	    }
+	    if (existing != null) {
+		disk = java.nio.file.Files.getFileStore
+		    (existing.toPath()).toString();
+	    }
+	} catch (java.io.IOException e) {
+	}
+
+	ArchiveWriter writerR = (ArchiveWriter) writers.get(disk);
+	if (writerR == null) {
+	    writerR = new ArchiveWriter(disk);
+	    writers.put(disk,writerR);
+	}
+
+	return (writerR);
+    }
+
+    /**
+     * Accesses the current <code>FileSet</code> of an <code>Archive</code>
+     * for the rest of the batch, if it has one that is not already held.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param archiveI the <code>Archive</code>.
+     * @param heldIO   the <code>FileSets</code> already held.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void hold(Archive archiveI,java.util.Vector heldIO)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	FileSet current = (FileSet) archiveI.getSet();
+	if ((current != null) && !heldIO.contains(current)) {
+	    current.accessFiles(true);
+	    heldIO.addElement(current);
+	}
+    }
+
+    /**
+     * Does a list of <code>Entries</code> hold any for an
+     * <code>Archive</code> that have yet to be written?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param archiveI the <code>Archive</code>.
+     * @param entriesI the <code>Entries</code> to search.
+     * @return are there any?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Skip <code>Entries</code> that have been written.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final boolean holds(Archive archiveI,java.util.List entriesI) {
+	for (int idx = 0; idx < entriesI.size(); ++idx) {
+	    Entry entry = (Entry) entriesI.get(idx);
+	    if ((entry.archive == archiveI) && !entry.done) {
+		return (true);
+	    }
+	}
+
+	return (false);
+    }
+
+    /**
+     * Releases the files of the <code>FileSets</code> held for a batch.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param heldI the <code>FileSets</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from <code>write</code>.
+     *
+     */
+    private final void release(java.util.Vector heldI) {
+	for (int idx = 0; idx < heldI.size(); ++idx) {
+	    try {
+		((FileSet) heldI.elementAt(idx)).releaseFiles();
+	    } catch (java.lang.Exception e) {
+		e.printStackTrace();
+	    }
+	}
+    }
+
+    /**
+     * Writes queued <code>FrameSets</code> in batches.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void run() {
+	while (true) {
+	    try {
+		synchronized (queue) {
+		    while (queue.isEmpty()) {
+			queue.wait();
+		    }
+		    while (!queue.isEmpty() && (writing.size() < BATCH)) {
+			writing.addElement(queue.removeFirst());
+		    }
+		    queue.notifyAll();
+		}
+
+		write();
+
+	    } catch (java.lang.InterruptedException e) {
+	    } finally {
+		synchronized (queue) {
+		    depth.add(-writing.size());
+		    writing.removeAllElements();
+		    queue.notifyAll();
+		}
+	    }
+	}
+    }
+
+    /**
+     * Queues a closed <code>FrameSet</code> to be added to its
+     * <code>Archive</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param ringBufferI the <code>RingBuffer</code> whose
+     *			  <code>Archive</code> gets the set.
+     * @param frameSetI	  the <code>FrameSet</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Take the <code>RingBuffer</code>, whose locks are
+     *			needed to write the set.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void submit(RingBuffer ringBufferI,FrameSet frameSetI) {
+	synchronized (queue) {
+	    queue.addLast(new Entry(ringBufferI,frameSetI));
+	    depth.add(1);
+	    queue.notifyAll();
+	}
+    }
+
+    /**
+     * Waits until there is room in the queue for another set of an
+     * <code>Archive</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param archiveI the <code>Archive</code>.
+     * @exception java.io.IOException
+     *		  thrown if the <code>Archive</code> could not be written.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the wait is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Take the <code>Archive</code>, and throw only if it
+     *			could not be written.
+     * 10/18/2026  JRS	Throw if the writer has failed.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void waitForRoom(Archive archiveI)
+	throws java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	synchronized (queue) {
+	    while (!failures.containsKey(archiveI) &&
+		   (queue.size() >= QUEUE)) {
+		queue.wait();
+	    }
+	}
+	checkFailure(archiveI);
+    }
+
+    /**
+     * Writes the current batch.
+     * <p>
+     * The current <code>FileSet</code> of each <code>Archive</code> is
+     * accessed for the rest of the batch as soon as it is seen, so that
+     * its files are only released, and synced, once at the end.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Write each set via <code>write(Entry,...)</code>.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void write()
+	throws java.lang.InterruptedException
+    {
+	java.util.Vector held = new java.util.Vector();
+
+	try {
+	    for (int idx = 0; idx < writing.size(); ++idx) {
+		write((Entry) writing.elementAt(idx),held,false);
+	    }
+
+	} finally {
+	    release(held);
+	    commits.increment();
+	}
+    }
+
+    /**
+     * Writes a queued <code>FrameSet</code> under the locks of its
+     * <code>RingBuffer</code>.
+     * <p>
+     * The set is claimed once the locks are held, so that it is written
+     * exactly once, by whichever thread gets them first.  A thread waiting
+     * for an <code>Archive</code> also claims and writes every later set
+     * for it, in order.  Once a set of an <code>Archive</code> could not be
+     * written, its later sets are not written, but are still cleared if
+     * they have been trimmed.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param entryI  the <code>Entry</code> for the set.
+     * @param heldIO  the <code>FileSets</code> held open.
+     * @param allI    write every unclaimed set for the
+     *		      <code>Archive</code>?
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Stop writing just the <code>Archive</code> that
+     *			could not be written.
+     * 10/18/2026  JRS	Created from <code>write()</code>.
+     *
+     */
+    private final void write(Entry entryI,
+			     java.util.Vector heldIO,
+			     boolean allI)
+	throws java.lang.InterruptedException
+    {
+	synchronized (queue) {
+	    if (!allI && entryI.claimed) {
+		// Written already, by a thread waiting for the
+		// <code>Archive</code>.
+		return;
+	    }
+	}
+
+	java.util.Vector claimed = new java.util.Vector();
+	boolean locked = entryI.ringBuffer.lockAccept("ArchiveWriter.write");
+
+	try {
+	    synchronized (queue) {
+		if (allI) {
+		    claim(entryI.archive,writing,claimed);
+		    claim(entryI.archive,queue,claimed);
+		} else if (!entryI.claimed) {
+		    entryI.claimed = true;
+		    claimed.addElement(entryI);
+		}
+	    }
+
+	    for (int idx = 0; idx < claimed.size(); ++idx) {
+		Entry entry = (Entry) claimed.elementAt(idx);
+		boolean failed;
+		synchronized (queue) {
+		    failed = failures.containsKey(entry.archive);
+		}
+
+		// If the <code>RingBuffer</code> has been removed, there is
+		// nothing left to write to.
+		if (locked && !failed) {
+		    try {
+			hold(entry.archive,heldIO);
+			entry.archive.addElement(entry.frameSet);
+			hold(entry.archive,heldIO);
+		    } catch (java.lang.InterruptedException e) {
+			throw e;
+		    } catch (java.lang.Exception e) {
+			System.err.println("Exception writing set to archive" +
+					   " on " + disk + ", no more sets " +
+					   "will be written to it:");
+			e.printStackTrace();
+			synchronized (queue) {
+			    failures.put(entry.archive,e);
+			    queue.notifyAll();
+			}
+		    }
+		}
+
+		boolean clear;
+		synchronized (queue) {
+		    clear = entry.clear;
+		}
+		if (clear) {
+		    // The <code>FrameSet</code> was trimmed from the
+		    // <code>Cache</code> while it waited.
+		    try {
+			entry.frameSet.clear();
+			if (entry.frameSet.getParent() == null) {
+			    entry.frameSet.nullify();
+			}
+		    } catch (java.lang.InterruptedException e) {
+			throw e;
+		    } catch (java.lang.Exception e) {
+			e.printStackTrace();
+		    }
+		}
+	    }
+
+	} finally {
+	    if (locked) {
+		entryI.ringBuffer.unlockAccept();
+	    }
+	    synchronized (queue) {
+		for (int idx = 0; idx < claimed.size(); ++idx) {
+		    ((Entry) claimed.elementAt(idx)).done = true;
+		}
+		queue.notifyAll();
+	    }
+	}
+    }
+
+    /**
+     * A <code>FrameSet</code> waiting to be written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static class Entry {
+
+	/**
+	 * the <code>Archive</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final Archive archive;
+
+	/**
+	 * has a thread taken on writing the <code>FrameSet</code>?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	boolean claimed = false;
+
+	/**
+	 * clear the <code>FrameSet</code> once it has been written?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	boolean clear = false;
+
+	/**
+	 * has the <code>FrameSet</code> been written (or given up on)?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	boolean done = false;
+
+	/**
+	 * the <code>FrameSet</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final FrameSet frameSet;
+
+	/**
+	 * the <code>RingBuffer</code> whose locks are held to write the
+	 * <code>FrameSet</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final RingBuffer ringBuffer;
+
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param ringBufferI the <code>RingBuffer</code>.
+	 * @param frameSetI   the <code>FrameSet</code>.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Take the <code>RingBuffer</code>.
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	Entry(RingBuffer ringBufferI,FrameSet frameSetI) {
+	    super();
+	    ringBuffer = ringBufferI;
+	    archive = ringBufferI.getArchive();
+	    frameSet = frameSetI;
+	}
+    }
+}
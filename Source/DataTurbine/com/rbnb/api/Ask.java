@@ -27,6 +27,9 @@ package com.rbnb.api;
  *				   <code>Client</code>,</li>
  *    <li><code>REGISTERED</code> - requests matching registration
  *				    information,</li>
+ *    <li><code>REGISTEREDSINCE</code> - requests the registration information
+ *					 that has changed since a
+ *					 version,</li>
  *    <li><code>REQUESTAT</code> - initiates a specific request out of an NBO's
  *				   ring buffer (see
  *				   <code>NBO.initiateRequestAt</code>),</li>
@@ -40,17 +43,18 @@ package com.rbnb.api;
  * @see com.rbnb.api.NBO#initiateRequestAt(int indexI)
  * @see com.rbnb.api.RemoteServer
  * @since V2.0
- * @version 08/13/2004
+ * @version 10/18/2026
  */
 
 /*
- * Copyright 2001, 2002, 2003, 2004 Creare Inc.
+ * Copyright 2001, 2002, 2003, 2004, 2026 Creare Inc.
  * All Rights Reserved
  *
  *
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>REGISTEREDSINCE</code>.
  * 08/13/2004  INB	Added documentation.
  * 07/30/2004  INB	In order to support communications between different
  *			JVMs that might disagree about how to serialize Java
@@ -108,6 +112,36 @@ public final class Ask
      */
     public final static String REGISTERED = "RG";
 
+    /**
+     * Ask for the registration information that has changed since a version.
+     * <p>
+     * The additional arguments are:
+     * <p><ol>
+     * <li><code>java.lang.Long</code> - the version the client has already
+     *     seen, as returned by an earlier request.</li>
+     * </ol><p>
+     * The answer is an <code>Ask</code> of the same type, whose additional
+     * arguments are:
+     * <p><ol>
+     * <li><code>java.lang.Long</code> - the current version,</li>
+     * <li><code>com.rbnb.api.Rmap</code> - the registration of the changed
+     *     children of the server,</li>
+     * <li><code>java.lang.Integer</code> - the number of changed children,
+     *     followed by their names as <code>java.lang.Strings</code>.  A value
+     *     of -1 means that the registration is complete and nothing
+     *     follows,</li>
+     * <li><code>java.lang.Integer</code> - the number of removed children,
+     *     followed by their names.</li>
+     * </ol><p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.RBNB#getRegisteredSince(long)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static String REGISTEREDSINCE = "RS";
+
     /**
      * Request for the matches to the child at a particular index.
      * <p>
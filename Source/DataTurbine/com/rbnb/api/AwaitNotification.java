@@ -36,6 +36,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added the optional channel request, used to route
+ *			frames only to notifications that want them.
  * 05/26/2004  INB	Added <code>terminateRequested</code> flag and
  *			handling.
  * 02/24/2004  INB	Added optional debug in <code>run</code>.
@@ -70,6 +72,21 @@ final class AwaitNotification
      */
     private java.util.Vector events = new java.util.Vector();
 
+    /**
+     * the request <code>Rmap</code> naming the channels we are interested in.
+     * <p>
+     * If this is set, then a new frame is only posted to us if it is added to
+     * a <code>RingBuffer</code> holding at least one of the channels.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #isInterestedIn(String[])
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap channelRequest = null;
+
     /**
      * the number of events added.
      * <p>
@@ -196,6 +213,7 @@ final class AwaitNotification
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Call the version that takes a channel request.
      * 03/26/2001  INB	Created.
      *
      */
@@ -207,6 +225,58 @@ final class AwaitNotification
 	       java.io.EOFException,
 	       java.io.IOException,
 	       java.lang.InterruptedException
+    {
+	this(requestI,null,fromI,toI);
+    }
+
+    /**
+     * Class constructor to build an <code>AwaitNotification</code> object from
+     * the specified request <code>Rmap</code>, channel request
+     * <code>Rmap</code>, source, and target of the notification.
+     * <p>
+     * The channel request limits the frames posted by an <code>RBO</code>
+     * to those added to <code>RingBuffers</code> holding at least one of the
+     * requested channels.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI	      the request <code>Rmap</code>.
+     * @param channelRequestI the channel request <code>Rmap</code>. If this
+     *			      is <code>null</code>, all frames are posted.
+     * @param fromI	      the source of the notification.
+     * @param toI	      the target of the notification.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem during serialization.
+     * @exception java.io.EOFException
+     *		  thrown if an EOF is encountered while getting the response.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the get is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from the version without a channel request.
+     *
+     */
+    AwaitNotification(Rmap requestI,
+		      Rmap channelRequestI,
+		      NotificationFrom fromI,
+		      NotificationTo toI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
     {
 	this();
 
@@ -225,6 +295,7 @@ final class AwaitNotification
 	}
 	setName(thrName.replace('/','_'));
 	setRequest(requestI);
+	setChannelRequest(channelRequestI);
 	setFrom(fromI);
 	setTo(toI);
 	
@@ -364,6 +435,33 @@ final class AwaitNotification
 	return (mine.compareTo(other));
     }
 
+    /**
+     * Gets the channel request used to pick the frames of interest.
+     * <p>
+     * A <code>null</code> value means that this
+     * <code>AwaitNotification</code> is interested in every frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the channel request.
+     * @see #isInterestedIn(String[])
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Rmap getChannelRequest() {
+	return (channelRequest);
+    }
+
     /**
      * Gets the source of the notification event.
      * <p>
@@ -535,6 +633,76 @@ final class AwaitNotification
 	super.interrupt();
 	}
 
+    /**
+     * Is this <code>AwaitNotification</code> interested in frames containing
+     * any of the specified channels?
+     * <p>
+     * A channel is of interest if the channel request names it, or names
+     * one of the groups containing it.  An empty list of channels means that
+     * the channels are not known, so they are always of interest.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param channelNamesI the channel names, relative to the source.
+     * @return are we interested?
+     * @see #setChannelRequest(com.rbnb.api.Rmap)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean isInterestedIn(String[] channelNamesI) {
+	if ((channelRequest == null) || (channelNamesI.length == 0)) {
+	    return (true);
+	}
+
+	String base = Rmap.PATHDELIMITER + channelRequest.getName();
+
+	try {
+	    for (int idx = 0; idx < channelNamesI.length; ++idx) {
+		// Walk down the request along the channel's path.  Reaching
+		// the end of either means that the channel is requested.
+		String name = channelNamesI[idx];
+		if ((name.length() == 0) ||
+		    (name.charAt(0) != Rmap.PATHDELIMITER)) {
+		    name = Rmap.PATHDELIMITER + name;
+		}
+		int start = 1;
+		Rmap level = channelRequest;
+		while ((level != null) && (level.getNchildren() > 0)) {
+		    if (start > name.length()) {
+			break;
+		    }
+		    int end = name.indexOf(Rmap.PATHDELIMITER,start);
+		    if (end == -1) {
+			end = name.length();
+		    }
+		    level = channelRequest.findDescendant
+			(base + name.substring(0,end),
+			 false);
+		    start = end + 1;
+		}
+		if (level != null) {
+		    return (true);
+		}
+	    }
+
+	} catch (java.lang.Exception e) {
+	    // If we can't tell, assume that we're interested.
+	    return (true);
+	}
+
+	return (false);
+    }
+
     /**
      * Matches the input <code>Rmap</code> against the request
      * <code>Rmap</code> to determine if it is really of interest.
@@ -624,6 +792,47 @@ final class AwaitNotification
 	return (resultR);
     }
 
+    /**
+     * Does the specified request <code>Rmap</code> hierarchy name its
+     * channels explicitly?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI the request <code>Rmap</code>.
+     * @return are all of the descendants of the request named without
+     *	       wildcards?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static boolean namesChannels(Rmap requestI) {
+	try {
+	    for (int idx = 0; idx < requestI.getNchildren(); ++idx) {
+		Rmap child = requestI.getChildAt(idx);
+		String name = child.getName();
+		if ((name == null) ||
+		    name.startsWith(".") ||
+		    (name.indexOf('*') != -1) ||
+		    !namesChannels(child)) {
+		    return (false);
+		}
+	    }
+	} catch (java.lang.Exception e) {
+	    return (false);
+	}
+
+	return (true);
+    }
+
     /**
      * Runs the <code>AwaitNotification</code> handler.
      * <p>
@@ -753,6 +962,38 @@ final class AwaitNotification
 			   0L);
     }
 
+    /**
+     * Sets the channel request <code>Rmap</code>.
+     * <p>
+     * Requests that use wildcards or unnamed levels cannot be checked
+     * against channel names, so they are not kept.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param channelRequestI the channel request <code>Rmap</code>.
+     * @see #isInterestedIn(String[])
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void setChannelRequest(Rmap channelRequestI) {
+	channelRequest =
+	    (((channelRequestI == null) ||
+	      (channelRequestI.getName() == null) ||
+	      !namesChannels(channelRequestI)) ?
+	     null :
+	     channelRequestI);
+    }
+
     /**
      * Sets the source of the notification.
      * <p>
@@ -0,0 +1,774 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Per-channel time index of the <code>FrameSets</code> in a
+ * <code>FileSet</code>.
+ * <p>
+ * For each channel, the index holds the time limits of the channel in each
+ * of the <code>FrameSets</code> that contain it, sorted by
+ * <code>FrameSet</code> position.  A time reference can then be located
+ * with a binary search rather than by comparing it against the summary of
+ * each <code>FrameSet</code>, which spans all of the channels.  The index
+ * is small and is kept even when the <code>FileSet</code> itself is reduced
+ * to its summary, so that the <code>FileSet</code> can be passed over
+ * without reading its skeleton when the request's channels have nothing in
+ * it.
+ * <p>
+ * The index is stored in the <code>FileSet</code> directory as
+ * <code>chindex.rbn</code>:
+ * <p><pre>
+ *	int    version
+ *	int    number of FrameSets
+ *	int    number of channels
+ *	for each channel:
+ *	    UTF    channel name
+ *	    int    number of entries
+ *	    for each entry:
+ *		int    FrameSet position
+ *		double start time
+ *		double end time
+ * </pre><p>
+ * <code>FileSets</code> written before the index existed simply do not have
+ * the file; their index can be rebuilt from the <code>FrameSet</code>
+ * headers.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.FileSet
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Compare requests against the index and remember the
+ *			number of <code>FrameSets</code> it covers.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class ChannelIndex {
+
+    /**
+     * the channels, keyed by name.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Hashtable channels = new java.util.Hashtable();
+
+    /**
+     * the name of the index file.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String FILE_NAME = "chindex.rbn";
+
+    /**
+     * the number of <code>FrameSets</code> covered by the index.
+     * <p>
+     * This is only known for an index that has been read or written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int frameSets = -1;
+
+    /**
+     * the version of the index file format.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int VERSION = 1;
+
+    /**
+     * Class constructor.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    ChannelIndex() {
+	super();
+    }
+
+    /**
+     * Adds the channel time limits of a <code>FrameSet</code> to the index.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param positionI     the position of the <code>FrameSet</code> in its
+     *			    <code>FileSet</code>.
+     * @param registrationI the <code>Registration</code> of the
+     *			    <code>FrameSet</code>.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Index channels without times across all time.
+     *			Synchronized.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void add(int positionI,Registration registrationI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	String[] names = registrationI.extractNames();
+
+	for (int idx = 0; idx < names.length; ++idx) {
+	    DataArray limits = registrationI.extract(names[idx]);
+
+	    if ((limits.timeRanges != null) &&
+		(limits.timeRanges.size() > 0)) {
+		double start = limits.getStartTime();
+		add(names[idx],positionI,start,start + limits.getDuration());
+	    } else {
+		// A channel without times could match any time, but it must
+		// still be seen to be in the <code>FrameSet</code>.
+		add(names[idx],positionI,-Double.MAX_VALUE,Double.MAX_VALUE);
+	    }
+	}
+    }
+
+    /**
+     * Adds the time limits of a channel in a <code>FrameSet</code> to the
+     * index.
+     * <p>
+     * An existing entry for the same <code>FrameSet</code> is replaced.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI     the name of the channel.
+     * @param positionI the position of the <code>FrameSet</code>.
+     * @param startI    the start time of the channel.
+     * @param endI      the end time of the channel.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void add(String nameI,
+			   int positionI,
+			   double startI,
+			   double endI)
+    {
+	Channel channel = (Channel) channels.get(nameI);
+	if (channel == null) {
+	    channel = new Channel(4);
+	    channels.put(nameI,channel);
+	}
+	channel.add(positionI,startI,endI);
+    }
+
+    /**
+     * Compares a time range to the data of a channel.
+     * <p>
+     * The result is -1 if the range is entirely before the channel's data,
+     * 1 if it is entirely after it, 0 if it overlaps the data of at least
+     * one <code>FrameSet</code>, and 2 if the channel is not in the index or
+     * the range falls between the <code>FrameSets</code> that hold it.  The
+     * ends of the range are inclusive, so a range that just touches the data
+     * is treated as overlapping it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI  the name of the channel.
+     * @param startI the start of the range.
+     * @param endI   the end of the range.
+     * @return the result of the comparison.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized int compare(String nameI,double startI,double endI) {
+	Channel channel = (Channel) channels.get(nameI);
+
+	return ((channel == null) ? 2 : channel.compare(startI,endI));
+    }
+
+    /**
+     * Gets the number of <code>FrameSets</code> covered by the index.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of <code>FrameSets</code> or -1 if it is not
+     *	       known.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int getFrameSets() {
+	return (frameSets);
+    }
+
+    /**
+     * Locates the <code>FrameSet</code> holding a time for a channel.
+     * <p>
+     * The answer is only given when it is unambiguous: the channel is in the
+     * index, its entries are in time order, and the time falls within the
+     * limits of exactly one <code>FrameSet</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI the name of the channel.
+     * @param timeI the time.
+     * @return the position of the <code>FrameSet</code> or -1.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Synchronized.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized int locate(String nameI,double timeI) {
+	Channel channel = (Channel) channels.get(nameI);
+
+	return ((channel == null) ? -1 : channel.locate(timeI));
+    }
+
+    /**
+     * Reads the index of a <code>FileSet</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param directoryI  the <code>FileSet</code> directory.
+     * @param frameSetsI  the number of <code>FrameSets</code> in the
+     *			  <code>FileSet</code> or -1 to accept any number.
+     * @return the index or <code>null</code> if there is no usable index.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Allow any number of <code>FrameSets</code>.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static ChannelIndex read(String directoryI,int frameSetsI) {
+	java.io.File file = new java.io.File(directoryI +
+					     Archive.SEPARATOR +
+					     FILE_NAME);
+	if (!file.exists()) {
+	    return (null);
+	}
+
+	ChannelIndex indexR = null;
+	java.io.DataInputStream dis = null;
+	try {
+	    dis = new java.io.DataInputStream
+		(new java.io.BufferedInputStream
+		    (new java.io.FileInputStream(file)));
+
+	    int frameSets;
+	    if ((dis.readInt() == VERSION) &&
+		(((frameSets = dis.readInt()) == frameSetsI) ||
+		 (frameSetsI == -1))) {
+		ChannelIndex index = new ChannelIndex();
+		index.frameSets = frameSets;
+		for (int idx = 0, endIdx = dis.readInt();
+		     idx < endIdx;
+		     ++idx) {
+		    String name = dis.readUTF();
+		    int nEntries = dis.readInt();
+		    Channel channel = new Channel(nEntries);
+		    for (int idx1 = 0; idx1 < nEntries; ++idx1) {
+			channel.add(dis.readInt(),
+				    dis.readDouble(),
+				    dis.readDouble());
+		    }
+		    index.channels.put(name,channel);
+		}
+		indexR = index;
+	    }
+
+	} catch (java.io.IOException e) {
+	    // A damaged index is simply ignored.
+	    indexR = null;
+
+	} finally {
+	    if (dis != null) {
+		try {
+		    dis.close();
+		} catch (java.io.IOException e) {
+		}
+	    }
+	}
+
+	return (indexR);
+    }
+
+    /**
+     * Writes the index of a <code>FileSet</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param directoryI  the <code>FileSet</code> directory.
+     * @param frameSetsI  the number of <code>FrameSets</code> in the
+     *			  <code>FileSet</code>.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Remember the number of <code>FrameSets</code>.
+     *			Synchronized.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void write(String directoryI,int frameSetsI)
+	throws java.io.IOException
+    {
+	// The index covers the <code>FrameSets</code> even if it cannot be
+	// saved.
+	frameSets = frameSetsI;
+
+	java.io.DataOutputStream dos = new java.io.DataOutputStream
+	    (new java.io.BufferedOutputStream
+		(new java.io.FileOutputStream(directoryI +
+					      Archive.SEPARATOR +
+					      FILE_NAME)));
+
+	try {
+	    dos.writeInt(VERSION);
+	    dos.writeInt(frameSetsI);
+	    dos.writeInt(channels.size());
+	    for (java.util.Enumeration keys = channels.keys();
+		 keys.hasMoreElements();
+		 ) {
+		String name = (String) keys.nextElement();
+		Channel channel = (Channel) channels.get(name);
+		dos.writeUTF(name);
+		dos.writeInt(channel.count);
+		for (int idx = 0; idx < channel.count; ++idx) {
+		    dos.writeInt(channel.positions[idx]);
+		    dos.writeDouble(channel.starts[idx]);
+		    dos.writeDouble(channel.ends[idx]);
+		}
+	    }
+
+	} finally {
+	    dos.close();
+	}
+    }
+
+    /**
+     * Time limits of a channel, by <code>FrameSet</code> position.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     * Copyright 2026 Creare Inc.
+     * All Rights Reserved
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static class Channel {
+
+	/**
+	 * the number of entries.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	int count = 0;
+
+	/**
+	 * the end times.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	double[] ends;
+
+	/**
+	 * are the entries in time order?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	boolean ordered = true;
+
+	/**
+	 * the <code>FrameSet</code> positions.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	int[] positions;
+
+	/**
+	 * the start times.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	double[] starts;
+
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param capacityI the initial capacity.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	Channel(int capacityI) {
+	    int capacity = Math.max(capacityI,1);
+	    positions = new int[capacity];
+	    starts = new double[capacity];
+	    ends = new double[capacity];
+	}
+
+	/**
+	 * Adds or replaces the entry for a <code>FrameSet</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param positionI the position of the <code>FrameSet</code>.
+	 * @param startI    the start time.
+	 * @param endI      the end time.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void add(int positionI,double startI,double endI) {
+	    // Entries are almost always added in order, so look for the
+	    // slot from the end.
+	    int idx = count;
+	    while ((idx > 0) && (positions[idx - 1] > positionI)) {
+		--idx;
+	    }
+
+	    if ((idx == 0) || (positions[idx - 1] != positionI)) {
+		if (count == positions.length) {
+		    int capacity = 2*count;
+		    int[] nPositions = new int[capacity];
+		    double[] nStarts = new double[capacity];
+		    double[] nEnds = new double[capacity];
+		    System.arraycopy(positions,0,nPositions,0,count);
+		    System.arraycopy(starts,0,nStarts,0,count);
+		    System.arraycopy(ends,0,nEnds,0,count);
+		    positions = nPositions;
+		    starts = nStarts;
+		    ends = nEnds;
+		}
+		System.arraycopy(positions,idx,positions,idx + 1,count - idx);
+		System.arraycopy(starts,idx,starts,idx + 1,count - idx);
+		System.arraycopy(ends,idx,ends,idx + 1,count - idx);
+		++count;
+	    } else {
+		--idx;
+	    }
+	    positions[idx] = positionI;
+	    starts[idx] = startI;
+	    ends[idx] = endI;
+
+	    if (ordered && (idx == count - 1)) {
+		ordered = inOrder(idx);
+	    } else {
+		ordered = true;
+		for (int idx1 = 0; ordered && (idx1 < count); ++idx1) {
+		    ordered = inOrder(idx1);
+		}
+	    }
+	}
+
+	/**
+	 * Compares a time range to the entries.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param startI the start of the range.
+	 * @param endI   the end of the range.
+	 * @return -1 if the range is before the entries, 1 if it is after them,
+	 *	   0 if it overlaps one, and 2 if it falls between them.
+	 * @see com.rbnb.api.ChannelIndex#compare(String,double,double)
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final int compare(double startI,double endI) {
+	    if (count == 0) {
+		return (2);
+
+	    } else if (!ordered) {
+		// Without a time order, each entry has to be checked.
+		double first = Double.MAX_VALUE;
+		double last = -Double.MAX_VALUE;
+		for (int idx = 0; idx < count; ++idx) {
+		    if ((starts[idx] <= endI) && (ends[idx] >= startI)) {
+			return (0);
+		    }
+		    first = Math.min(first,starts[idx]);
+		    last = Math.max(last,ends[idx]);
+		}
+		return ((endI < first) ? -1 : (startI > last) ? 1 : 2);
+
+	    } else if (endI < starts[0]) {
+		return (-1);
+
+	    } else if (startI > ends[count - 1]) {
+		return (1);
+	    }
+
+	    // Find the first entry that ends at or after the start of the
+	    // range.  The range overlaps it if it starts before the range
+	    // ends.
+	    int lo = 0;
+	    int hi = count - 1;
+	    while (lo < hi) {
+		int mid = (lo + hi) >>> 1;
+		if (ends[mid] < startI) {
+		    lo = mid + 1;
+		} else {
+		    hi = mid;
+		}
+	    }
+
+	    return ((starts[lo] <= endI) ? 0 : 2);
+	}
+
+	/**
+	 * Is an entry in time order with respect to the one before it?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param idxI the index of the entry.
+	 * @return is the entry in order?
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	private final boolean inOrder(int idxI) {
+	    return ((starts[idxI] <= ends[idxI]) &&
+		    ((idxI == 0) ||
+		     ((starts[idxI] >= starts[idxI - 1]) &&
+		      (ends[idxI] >= ends[idxI - 1]))));
+	}
+
+	/**
+	 * Locates the entry holding a time.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param timeI the time.
+	 * @return the position of the <code>FrameSet</code> or -1.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final int locate(double timeI) {
+	    if (!ordered || (count == 0)) {
+		return (-1);
+	    }
+
+	    // Find the first entry that ends at or after the time.
+	    int lo = 0;
+	    int hi = count - 1;
+	    while (lo < hi) {
+		int mid = (lo + hi) >>> 1;
+		if (ends[mid] < timeI) {
+		    lo = mid + 1;
+		} else {
+		    hi = mid;
+		}
+	    }
+
+	    if ((ends[lo] < timeI) || (starts[lo] > timeI)) {
+		// The time is outside of the channel's data.
+		return (-1);
+
+	    } else if ((timeI == ends[lo]) &&
+		       (lo + 1 < count) &&
+		       (starts[lo + 1] <= timeI)) {
+		// The time is on the boundary between two entries, so let the
+		// regular search decide.
+		return (-1);
+	    }
+
+	    return (positions[lo]);
+	}
+    }
+}
@@ -24,7 +24,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 09/29/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -34,6 +34,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added data stream compression settings and counters.
  * 09/29/2004  JPW	In order to compile under J#, need to explicitly
  *			add a declaration for the clone method in this class.
  * 05/09/2001  INB	Created.
@@ -42,6 +43,47 @@ package com.rbnb.api;
 public interface Client
     extends com.rbnb.api.ClientInterface
 {
+    /**
+     * do not compress the data stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #COMPRESS_DEFLATE
+     * @see #COMPRESS_FAST
+     * @see #setCompression(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static int COMPRESS_NONE = 0;
+
+    /**
+     * compress the data stream using a fast LZ77 (LZ4 style) coder.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #COMPRESS_DEFLATE
+     * @see #COMPRESS_NONE
+     * @see #setCompression(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static int COMPRESS_FAST = 1;
+
+    /**
+     * compress the data stream using Deflate.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #COMPRESS_FAST
+     * @see #COMPRESS_NONE
+     * @see #setCompression(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static int COMPRESS_DEFLATE = 2;
 
     /**
      * Clones this object.
@@ -68,6 +110,80 @@ public interface Client
      */
     public abstract Object clone();
 
+    /**
+     * Gets the compression requested for the data stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the compression mode.
+     * @see #setCompression(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public abstract int getCompression();
+
+    /**
+     * Gets the number of bytes sent and received on the data stream.
+     * <p>
+     * This is the size after any compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #getUncompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public abstract long getCompressedBytes();
+
+    /**
+     * Gets the number of bytes sent and received on the data stream before
+     * compression.
+     * <p>
+     * Comparing this to <code>getCompressedBytes</code> shows how well the
+     * data stream compresses.  The two are the same if the connection does
+     * not use compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #getCompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public abstract long getUncompressedBytes();
+
+
     /**
      * Is this <code>Client</code> synchronized with the server?
      * <p>
@@ -89,6 +205,40 @@ public interface Client
      */
     public abstract boolean isSynchronized();
 
+    /**
+     * Sets the compression to request for the data stream.
+     * <p>
+     * This must be set before the <code>Client</code> is started.  The
+     * compression is only used if the server supports it, which can be
+     * seen by comparing <code>getCompressedBytes</code> to
+     * <code>getUncompressedBytes</code>.  Requesting compression switches
+     * the connection to the framed wire protocol.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param compressionI the compression mode:
+     *	      <br><ul>
+     *	      <li><code>COMPRESS_NONE</code>,</li>
+     *	      <li><code>COMPRESS_FAST</code>, or</li>
+     *	      <li><code>COMPRESS_DEFLATE</code>.</li>
+     *	      </ul>
+     * @see #getCompression()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public abstract void setCompression(int compressionI);
+
+
     /**
      * Starts this <code>Client</code>.
      * <p>
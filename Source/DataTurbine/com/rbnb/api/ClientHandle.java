@@ -24,7 +24,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 01/14/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -34,6 +34,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added data stream byte counts.
  * 01/14/2004  INB	Added metrics synchronization.
  * 03/31/2003  INB	Throw an exception on a name mismatch for our parent.
  * 05/11/2001  INB	Created.
@@ -65,6 +66,28 @@ abstract class ClientHandle
      */
     long metricsBytes = 0;
 
+    /**
+     * metrics: final data stream bytes transferred after compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long metricsCompressedBytes = 0;
+
+    /**
+     * metrics: final data stream bytes transferred before compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long metricsUncompressedBytes = 0;
+
     /**
      * have we been started?
      * <p>
@@ -233,6 +256,33 @@ abstract class ClientHandle
 	return (aco);
     }
 
+    /**
+     * Gets the number of bytes sent and received on the data stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #getUncompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final synchronized long getCompressedBytes() {
+	return (getStarted() ?
+		getACO().compressedBytes() :
+		metricsCompressedBytes);
+    }
+
+
     /**
      * Gets the list of registered <code>Rmaps</code> matching the requested
      * <code>Rmap</code> hierarchy.
@@ -319,6 +369,34 @@ abstract class ClientHandle
 	return (started);
     }
 
+    /**
+     * Gets the number of bytes sent and received on the data stream before
+     * compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #getCompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final synchronized long getUncompressedBytes() {
+	return (getStarted() ?
+		getACO().uncompressedBytes() :
+		metricsUncompressedBytes);
+    }
+
+
     /**
      * Is this <code>ClientHandle</code> running?
      * <p>
@@ -612,7 +690,7 @@ abstract class ClientHandle
      *		  thrown if the start is interrupted.
      * @see #start()
      * @since V2.0
-     * @version 01/14/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -620,6 +698,7 @@ abstract class ClientHandle
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Save the data stream byte counts.
      * 01/14/2004  INB	Added metrics synchronization.
      * 12/21/2000  INB	Created.
      *
@@ -633,6 +712,8 @@ abstract class ClientHandle
 	       java.lang.InterruptedException
     {
 	if (getStarted()) {
+	    metricsCompressedBytes = getACO().compressedBytes();
+	    metricsUncompressedBytes = getACO().uncompressedBytes();
 	    getACO().stop();
 	    metricsBytes = getACO().bytesTransferred();
 
@@ -23,7 +23,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 04/17/2003
+ * @version 10/18/2026
  */
 
 /*
@@ -33,6 +33,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added the data stream compression setting.
  * 04/17/2003  INB	Added <code>tryReconnect</code> method.
  * 03/28/2003  INB	Eliminated unnecessary synchronization.
  * 05/09/2001  INB	Created.
@@ -75,6 +76,17 @@ abstract class ClientIO
      */
     private Username username = null;
 
+    /**
+     * the compression requested for the data stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int compression = COMPRESS_NONE;
+
     // Private constants:
     private final static byte PAR_RID = 0;
     private final static byte PAR_TYP = 1;
@@ -387,6 +399,57 @@ abstract class ClientIO
 	}
     }
 
+    /**
+     * Gets the number of bytes sent and received on the data stream.
+     * <p>
+     * This implementation has no data stream and returns 0.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #getUncompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public long getCompressedBytes() {
+	return (0);
+    }
+
+    /**
+     * Gets the compression requested for the data stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the compression mode.
+     * @see #setCompression(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final int getCompression() {
+	return (compression);
+    }
+
+
     /**
      * Gets the list of registered <code>Rmaps</code> matching the requested
      * <code>Rmap</code> hierarchy.
@@ -470,6 +533,34 @@ abstract class ClientIO
 	return (remoteID);
     }
 
+    /**
+     * Gets the number of bytes sent and received on the data stream before
+     * compression.
+     * <p>
+     * This implementation has no data stream and returns 0.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #getCompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public long getUncompressedBytes() {
+	return (0);
+    }
+
+
     /**
      * Gets the type of client connection.
      * <p>
@@ -896,6 +987,39 @@ abstract class ClientIO
 	return (successR);
     }
 
+    /**
+     * Sets the compression to request for the data stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param compressionI the compression mode.
+     * @exception java.lang.IllegalArgumentException
+     *		  thrown if the mode is not one of the
+     *		  <code>COMPRESS_</code> values.
+     * @see #getCompression()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void setCompression(int compressionI) {
+	if ((compressionI < COMPRESS_NONE) ||
+	    (compressionI > COMPRESS_DEFLATE)) {
+	    throw new java.lang.IllegalArgumentException
+		(compressionI + " is not a valid compression mode.");
+	}
+	compression = compressionI;
+    }
+
+
     /**
      * Sets the remote identification.
      * <p>
@@ -0,0 +1,604 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Compresses and decompresses the data bodies of frames.
+ * <p>
+ * Two modes are supported:
+ * <p><ul>
+ * <li><code>Client.COMPRESS_FAST</code> - a byte-oriented LZ77 coder
+ *     using the LZ4 block layout.  It finds matches through a small hash
+ *     table of four byte sequences and never looks back more than 64K, so
+ *     it runs at close to memory speed and does well on repetitive
+ *     payloads such as slowly changing samples.</li>
+ * <li><code>Client.COMPRESS_DEFLATE</code> - the
+ *     <code>java.util.zip</code> Deflate coder, which is slower but
+ *     compresses noisy numeric payloads better.</li>
+ * </ul><p>
+ * Each <code>Language</code> object that compresses or decompresses frames
+ * owns one <code>Compressor</code>, as the coders keep state between
+ * calls.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.Language#setCompression(int)
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class Compressor {
+
+    /**
+     * the number of bits in a hash table index for the fast mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int HASH_BITS = 12;
+
+    /**
+     * the number of bytes at the end of a block that are always sent as
+     * literals in the fast mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int LAST_LITERALS = 5;
+
+    /**
+     * the farthest back that a match can start in the fast mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int MAX_OFFSET = 65535;
+
+    /**
+     * the number of bytes from the end of a block within which no match can
+     * start in the fast mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int MATCH_LIMIT = 12;
+
+    /**
+     * the shortest match used in the fast mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int MIN_MATCH = 4;
+
+    /**
+     * the Deflate compressor.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.zip.Deflater deflater = null;
+
+    /**
+     * the fast mode hash table of recent positions.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int[] hashTable = null;
+
+    /**
+     * the Deflate decompressor.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.zip.Inflater inflater = null;
+
+    /**
+     * Class constructor.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    Compressor() {
+	super();
+    }
+
+    /**
+     * Releases the resources held by the coders.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void close() {
+	if (deflater != null) {
+	    deflater.end();
+	    deflater = null;
+	}
+	if (inflater != null) {
+	    inflater.end();
+	    inflater = null;
+	}
+	hashTable = null;
+    }
+
+    /**
+     * Compresses a block of bytes.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param modeI   the compression mode.
+     * @param srcI    the bytes to compress.
+     * @param offsetI the offset of the first byte.
+     * @param lengthI the number of bytes.
+     * @param dstI    the buffer to compress into.
+     * @param dOffsetI the offset to start at in the buffer.
+     * @param dLengthI the room in the buffer.
+     * @return the number of compressed bytes or -1 if the result does not
+     *	       fit.
+     * @see #decompress(int,byte[],int,int,byte[],int,int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int compress(int modeI,
+		       byte[] srcI,
+		       int offsetI,
+		       int lengthI,
+		       byte[] dstI,
+		       int dOffsetI,
+		       int dLengthI)
+    {
+	switch (modeI) {
+	case Client.COMPRESS_FAST:
+	    return (compressFast(srcI,
+				 offsetI,
+				 lengthI,
+				 dstI,
+				 dOffsetI,
+				 dLengthI));
+
+	case Client.COMPRESS_DEFLATE:
+	    if (deflater == null) {
+		deflater = new java.util.zip.Deflater();
+	    }
+	    deflater.reset();
+	    deflater.setInput(srcI,offsetI,lengthI);
+	    deflater.finish();
+	    int sizeR = deflater.deflate(dstI,dOffsetI,dLengthI);
+	    return (deflater.finished() ? sizeR : -1);
+
+	default:
+	    return (-1);
+	}
+    }
+
+    /**
+     * Compresses a block of bytes using the fast mode.
+     * <p>
+     * The output is a series of sequences, each made up of a token byte
+     * holding the literal count and the match length, any literal bytes, and
+     * the two byte (little endian) offset of the match.  Counts of 15 or
+     * more are continued in additional bytes.  The last sequence has no
+     * match.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param srcI    the bytes to compress.
+     * @param offsetI the offset of the first byte.
+     * @param lengthI the number of bytes.
+     * @param dstI    the buffer to compress into.
+     * @param dOffsetI the offset to start at in the buffer.
+     * @param dLengthI the room in the buffer.
+     * @return the number of compressed bytes or -1 if the result does not
+     *	       fit.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final int compressFast(byte[] srcI,
+				   int offsetI,
+				   int lengthI,
+				   byte[] dstI,
+				   int dOffsetI,
+				   int dLengthI)
+    {
+	if (hashTable == null) {
+	    hashTable = new int[1 << HASH_BITS];
+	}
+	java.util.Arrays.fill(hashTable,-1);
+
+	int end = offsetI + lengthI,
+	    matchStartLimit = end - MATCH_LIMIT,
+	    matchEndLimit = end - LAST_LITERALS,
+	    dEnd = dOffsetI + dLengthI,
+	    anchor = offsetI,
+	    ip = offsetI,
+	    op = dOffsetI;
+
+	while (ip < matchStartLimit) {
+	    int sequence = getInt(srcI,ip),
+		hash = (sequence * -1640531535) >>> (32 - HASH_BITS),
+		ref = hashTable[hash];
+	    hashTable[hash] = ip;
+
+	    if ((ref < 0) ||
+		(ip - ref > MAX_OFFSET) ||
+		(getInt(srcI,ref) != sequence)) {
+		++ip;
+		continue;
+	    }
+
+	    // Extend the match backwards over any pending literals, then
+	    // forwards as far as the data allows.
+	    while ((ip > anchor) &&
+		   (ref > offsetI) &&
+		   (srcI[ip - 1] == srcI[ref - 1])) {
+		--ip;
+		--ref;
+	    }
+	    int match = MIN_MATCH;
+	    while ((ip + match < matchEndLimit) &&
+		   (srcI[ip + match] == srcI[ref + match])) {
+		++match;
+	    }
+
+	    int literals = ip - anchor;
+	    if (op + 1 + literals + literals/255 + 2 + match/255 + 1 > dEnd) {
+		return (-1);
+	    }
+	    int token = op++;
+	    if (literals >= 15) {
+		dstI[token] = (byte) 0xF0;
+		op = putCount(dstI,op,literals - 15);
+	    } else {
+		dstI[token] = (byte) (literals << 4);
+	    }
+	    System.arraycopy(srcI,anchor,dstI,op,literals);
+	    op += literals;
+
+	    int offset = ip - ref;
+	    dstI[op++] = (byte) offset;
+	    dstI[op++] = (byte) (offset >>> 8);
+	    if (match - MIN_MATCH >= 15) {
+		dstI[token] |= 0x0F;
+		op = putCount(dstI,op,match - MIN_MATCH - 15);
+	    } else {
+		dstI[token] |= (byte) (match - MIN_MATCH);
+	    }
+
+	    ip += match;
+	    anchor = ip;
+	}
+
+	int literals = end - anchor;
+	if (op + 1 + literals + literals/255 + 1 > dEnd) {
+	    return (-1);
+	}
+	int token = op++;
+	if (literals >= 15) {
+	    dstI[token] = (byte) 0xF0;
+	    op = putCount(dstI,op,literals - 15);
+	} else {
+	    dstI[token] = (byte) (literals << 4);
+	}
+	System.arraycopy(srcI,anchor,dstI,op,literals);
+	op += literals;
+
+	return (op - dOffsetI);
+    }
+
+    /**
+     * Decompresses a block of bytes.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param modeI   the compression mode.
+     * @param srcI    the compressed bytes.
+     * @param offsetI the offset of the first compressed byte.
+     * @param lengthI the number of compressed bytes.
+     * @param dstI    the buffer to decompress into.
+     * @param dOffsetI the offset to start at in the buffer.
+     * @param dLengthI the expected number of decompressed bytes.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if the compressed bytes are not valid or do not
+     *		  produce the expected number of bytes.
+     * @see #compress(int,byte[],int,int,byte[],int,int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void decompress(int modeI,
+			  byte[] srcI,
+			  int offsetI,
+			  int lengthI,
+			  byte[] dstI,
+			  int dOffsetI,
+			  int dLengthI)
+	throws com.rbnb.api.SerializeException
+    {
+	switch (modeI) {
+	case Client.COMPRESS_FAST:
+	    decompressFast(srcI,offsetI,lengthI,dstI,dOffsetI,dLengthI);
+	    break;
+
+	case Client.COMPRESS_DEFLATE:
+	    if (inflater == null) {
+		inflater = new java.util.zip.Inflater();
+	    }
+	    inflater.reset();
+	    inflater.setInput(srcI,offsetI,lengthI);
+	    try {
+		if ((inflater.inflate(dstI,dOffsetI,dLengthI) != dLengthI) ||
+		    !inflater.finished()) {
+		    throw new com.rbnb.api.SerializeException
+			("Compressed frame data has the wrong length.");
+		}
+	    } catch (java.util.zip.DataFormatException e) {
+		throw new com.rbnb.api.SerializeException
+		    ("Compressed frame data is corrupt: " + e.getMessage());
+	    }
+	    break;
+
+	default:
+	    throw new com.rbnb.api.SerializeException
+		("Unknown frame data compression " + modeI + ".");
+	}
+    }
+
+    /**
+     * Decompresses a block of bytes compressed using the fast mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param srcI    the compressed bytes.
+     * @param offsetI the offset of the first compressed byte.
+     * @param lengthI the number of compressed bytes.
+     * @param dstI    the buffer to decompress into.
+     * @param dOffsetI the offset to start at in the buffer.
+     * @param dLengthI the expected number of decompressed bytes.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if the compressed bytes are not valid.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static void decompressFast(byte[] srcI,
+					     int offsetI,
+					     int lengthI,
+					     byte[] dstI,
+					     int dOffsetI,
+					     int dLengthI)
+	throws com.rbnb.api.SerializeException
+    {
+	int end = offsetI + lengthI,
+	    dEnd = dOffsetI + dLengthI,
+	    ip = offsetI,
+	    op = dOffsetI;
+
+	try {
+	    while (ip < end) {
+		int token = srcI[ip++] & 0xff,
+		    literals = token >>> 4;
+		if (literals == 15) {
+		    int value;
+		    do {
+			value = srcI[ip++] & 0xff;
+			literals += value;
+		    } while (value == 255);
+		}
+		if ((ip + literals > end) || (op + literals > dEnd)) {
+		    break;
+		}
+		System.arraycopy(srcI,ip,dstI,op,literals);
+		ip += literals;
+		op += literals;
+		if (ip == end) {
+		    break;
+		}
+
+		int offset = (srcI[ip] & 0xff) | ((srcI[ip + 1] & 0xff) << 8),
+		    match = token & 0x0F;
+		ip += 2;
+		if (match == 15) {
+		    int value;
+		    do {
+			value = srcI[ip++] & 0xff;
+			match += value;
+		    } while (value == 255);
+		}
+		match += MIN_MATCH;
+		int ref = op - offset;
+		if ((offset == 0) || (ref < dOffsetI) || (op + match > dEnd)) {
+		    break;
+		}
+		if (offset >= match) {
+		    System.arraycopy(dstI,ref,dstI,op,match);
+		    op += match;
+		} else {
+		    // The match overlaps the bytes it produces.
+		    for (int idx = 0; idx < match; ++idx) {
+			dstI[op++] = dstI[ref++];
+		    }
+		}
+	    }
+	} catch (java.lang.ArrayIndexOutOfBoundsException e) {
+	}
+
+	if ((ip != end) || (op != dEnd)) {
+	    throw new com.rbnb.api.SerializeException
+		("Compressed frame data is corrupt.");
+	}
+    }
+
+    /**
+     * Gets a four byte integer from a buffer.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param bufferI the buffer.
+     * @param offsetI the offset of the integer.
+     * @return the integer.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static int getInt(byte[] bufferI,int offsetI) {
+	return ((bufferI[offsetI] & 0xff) |
+		((bufferI[offsetI + 1] & 0xff) << 8) |
+		((bufferI[offsetI + 2] & 0xff) << 16) |
+		((bufferI[offsetI + 3] & 0xff) << 24));
+    }
+
+    /**
+     * Writes the continuation bytes of a literal or match count.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param bufferI the buffer.
+     * @param offsetI the offset to write at.
+     * @param countI  the count remaining after the token.
+     * @return the offset after the count.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static int putCount(byte[] bufferI,int offsetI,int countI) {
+	int offsetR = offsetI;
+
+	for (; countI >= 255; countI -= 255) {
+	    bufferI[offsetR++] = (byte) 255;
+	}
+	bufferI[offsetR++] = (byte) countI;
+
+	return (offsetR);
+    }
+}
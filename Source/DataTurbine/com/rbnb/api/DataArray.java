@@ -24,7 +24,7 @@ package com.rbnb.api;
  *
  * @see com.rbnb.api.Rmap
  * @since V2.0
- * @version 2005/03/31
+ * @version 10/18/2026
  */
 
 /*
@@ -34,6 +34,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>reuseArrays</code>.
  * 01/26/2012  MJM  compress point times to start+duration if it is net savings
  * 2005/03/31  WHF  Added getDataType().
  * 11/12/2003  INB	Handle case where the number of points of data is not
@@ -147,6 +148,30 @@ public class DataArray
      */
     private int ptSize = 0;
 
+    /**
+     * the data array of an earlier <code>DataArray</code> that can be
+     * reused for this one's data.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Object spareData = null;
+
+    /**
+     * the time array of an earlier <code>DataArray</code> that can be
+     * reused for this one's times.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double[] spareTimes = null;
+
     /**
      * the time information.
      * <p>
@@ -964,7 +989,7 @@ public class DataArray
      *
      * @return the time array.
      * @since V2.0
-     * @version 04/15/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -972,13 +997,21 @@ public class DataArray
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Reuses the time array from <code>reuseArrays</code>
+     *			when it fits.
      * 11/30/2000  INB	Created.
      *
      */
     public final double[] getTime() {
 	if (times == null) {
 	    if (timeRanges != null) {
-		times = new double[getNumberOfPoints()];
+		if ((spareTimes != null) &&
+		    (spareTimes.length == getNumberOfPoints())) {
+		    times = spareTimes;
+		} else {
+		    times = new double[getNumberOfPoints()];
+		}
+		spareTimes = null;
 
 		if (pointsPerRange != null) {
 		    for (int idx = 0, idx1 = 0;
@@ -1286,6 +1319,74 @@ public class DataArray
 			  otherStoreI);
     }
 
+    /**
+     * Is a spare array of the right class and length to be reused?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param spareI  the spare array.
+     * @param classI  the desired array class.
+     * @param lengthI the desired length.
+     * @return can the spare array be reused?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static boolean isReusable(Object spareI,
+					    Class classI,
+					    int lengthI)
+    {
+	return ((spareI != null) &&
+		(spareI.getClass() == classI) &&
+		(java.lang.reflect.Array.getLength(spareI) == lengthI));
+    }
+
+    /**
+     * Reuses the data and time arrays of an earlier <code>DataArray</code>
+     * for this one.
+     * <p>
+     * This must be called before <code>setNumberOfPoints</code>.  The
+     * primitive data array and the time array of the earlier
+     * <code>DataArray</code> are used instead of new ones if they are the
+     * right type and length, as they are for each fetch of a steady
+     * subscription.  Once this is done, the contents of the earlier
+     * <code>DataArray</code> are overwritten and should no longer be used.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param previousI the earlier <code>DataArray</code>.
+     * @see #setNumberOfPoints(int,int,byte)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void reuseArrays(DataArray previousI) {
+	if ((previousI != null) && (previousI != this)) {
+	    spareData = previousI.data;
+	    spareTimes = ((previousI.times != null) ?
+			  previousI.times :
+			  previousI.spareTimes);
+	}
+    }
+
     /**
      * Sets the MIME type.
      * <p>
@@ -1322,7 +1423,7 @@ public class DataArray
      * @param dTypeI	      the data type.
      * @see #getNumberOfPoints()
      * @since V2.0
-     * @version 09/20/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -1330,6 +1431,8 @@ public class DataArray
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Reuses the spare data array from
+     *			<code>reuseArrays</code> when it fits.
      * 04/12/2002  INB	Created.
      *
      */
@@ -1340,30 +1443,57 @@ public class DataArray
 	dType = dTypeI;
 	ptSize = ptSizeI;
 
+	Object spare = spareData;
+	spareData = null;
+
 	if (ptSizeI > 0) {
 	    switch (dTypeI) {
 	    case DataBlock.TYPE_BOOLEAN:
-		data = new boolean[numberOfPointsI];
+		if (isReusable(spare,boolean[].class,numberOfPointsI)) {
+		    data = spare;
+		} else {
+		    data = new boolean[numberOfPointsI];
+		}
 		break;
 
 	    case DataBlock.TYPE_INT16:
-		data = new short[numberOfPointsI];
+		if (isReusable(spare,short[].class,numberOfPointsI)) {
+		    data = spare;
+		} else {
+		    data = new short[numberOfPointsI];
+		}
 		break;
 
 	    case DataBlock.TYPE_INT32:
-		data = new int[numberOfPointsI];
+		if (isReusable(spare,int[].class,numberOfPointsI)) {
+		    data = spare;
+		} else {
+		    data = new int[numberOfPointsI];
+		}
 		break;
 
 	    case DataBlock.TYPE_INT64:
-		data = new long[numberOfPointsI];
+		if (isReusable(spare,long[].class,numberOfPointsI)) {
+		    data = spare;
+		} else {
+		    data = new long[numberOfPointsI];
+		}
 		break;
 
 	    case DataBlock.TYPE_FLOAT32:
-		data = new float[numberOfPointsI];
+		if (isReusable(spare,float[].class,numberOfPointsI)) {
+		    data = spare;
+		} else {
+		    data = new float[numberOfPointsI];
+		}
 		break;
 
 	    case DataBlock.TYPE_FLOAT64:
-		data = new double[numberOfPointsI];
+		if (isReusable(spare,double[].class,numberOfPointsI)) {
+		    data = spare;
+		} else {
+		    data = new double[numberOfPointsI];
+		}
 		break;
 
 	    case DataBlock.TYPE_STRING:
@@ -1379,7 +1509,11 @@ public class DataArray
 		     (dType == DataBlock.UNKNOWN)) &&
 		    (ptSizeI == 1)) {
 		    // With a single byte per point, return a byte array.
-		    data = new byte[numberOfPointsI];
+		    if (isReusable(spare,byte[].class,numberOfPointsI)) {
+			data = spare;
+		    } else {
+			data = new byte[numberOfPointsI];
+		    }
 
 		} else {
 		    // With multiple bytes per point, return an array of
@@ -29,7 +29,7 @@ package com.rbnb.api;
  *
  * @see com.rbnb.api.DataArray
  * @since V2.0
- * @version 09/20/2002
+ * @version 10/18/2026
  */
 
 /*
@@ -40,6 +40,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>reuse</code>.
  * 12/11/2000  INB	Created.
  *
  *
@@ -90,6 +91,17 @@ class DataArrayExtractor
      * @version 11/30/2000
      */
     private int pointSize = 0;
+
+    /**
+     * an earlier <code>DataArray</code> whose arrays can be reused.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataArray reuse = null;
 
     /**
      * Class constructor.
@@ -349,7 +361,7 @@ class DataArrayExtractor
      *	      thrown if the data cannot be returned using a single
      *	      primitive type.
      * @since V2.0
-     * @version 08/30/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -357,6 +369,7 @@ class DataArrayExtractor
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Reuses the arrays of <code>reuse</code>.
      * 11/30/2000  INB	Created.
      *
      */
@@ -371,6 +384,9 @@ class DataArrayExtractor
 	}
 
 	DataArray dArrayR = new DataArray();
+	if (reuse != null) {
+	    dArrayR.reuseArrays(reuse);
+	}
 	dArrayR.setNumberOfPoints(getNpoints(),getPtsize(),getDtype());
 	dArrayR.setMIMEType(getMIMEType());
 
@@ -490,4 +506,28 @@ class DataArrayExtractor
     final void setPtsize(int ptSizeI) {
 	pointSize = ptSizeI;
     }
+
+    /**
+     * Sets an earlier <code>DataArray</code> whose arrays can be reused.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param reuseI the earlier <code>DataArray</code>.
+     * @see com.rbnb.api.DataArray#reuseArrays(com.rbnb.api.DataArray)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void setReuse(DataArray reuseI) {
+	reuse = reuseI;
+    }
 }
@@ -50,6 +50,13 @@ package com.rbnb.api;
  * A special case: a byte[0] array of data is a placeholder indicating that
  * a data payload exists, but has been omitted.
  * <p>
+ * Once a <code>DataBlock</code> has been stored by the server, the arrays in
+ * its data payload are never modified.  Copies made on the way to sinks
+ * (<code>share</code>, <code>extractInheritance</code>, and
+ * <code>extractData</code> when a whole array is wanted) refer to the same
+ * arrays rather than copying them, so a frame fanned out to many sinks is
+ * written to each of their streams straight from the stored arrays.
+ * <p>
  *
  * @author Ian Brown
  *
@@ -66,6 +73,9 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Convert contiguous numeric points in bulk.
+ * 10/18/2026  JRS	Share payload arrays rather than copying them when
+ *			extracting data for sinks.  Added <code>share</code>.
  * 11/17/2006  EMF      Use marker to save space on archive recovery.
  * 2005/03/22  WHF      Added TYPE_USER data type, and associated values.
  * 11/10/2003  INB	Added <code>copyDataFromArray</code> case in
@@ -304,6 +314,23 @@ public final class DataBlock
      */
     private java.util.Vector data = null;
 
+    /**
+     * copy the data payload when extracting, as was done before V3.6?
+     * <p>
+     * Set by the system property
+     * <code>com.rbnb.api.DataBlock.copyPayloads</code>.  This is intended
+     * for comparison and as a fallback.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #share()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    static final boolean COPY_PAYLOADS =
+	Boolean.getBoolean("com.rbnb.api.DataBlock.copyPayloads");
+
     // Private constants:
     private static final byte PAR_DAT = 0;
     private static final byte PAR_DRF = 1;
@@ -768,6 +795,92 @@ public final class DataBlock
 	return (clonedR);
     }
 
+    /**
+     * Converts contiguous numeric points from the input array of bytes to
+     * the output array of primitives in a single pass.
+     * <p>
+     * The conversion is done through a <code>ByteBuffer</code> view in the
+     * byte order of this <code>DataBlock</code>, which is much faster than
+     * assembling each value a byte at a time.  Only points that are packed
+     * one after the other can be converted this way.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param inputI	the input array.
+     * @param fromI	the starting index into the input array.
+     * @param outputI	the output array.
+     * @param toI	the starting index into the output array.
+     * @param nPointsI  the number of points to copy.
+     * @return were the points converted?
+     * @see com.rbnb.utility.ByteConvert
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final boolean convertBytesInBulk(byte[] inputI,
+					     int fromI,
+					     Object outputI,
+					     int toI,
+					     int nPointsI)
+    {
+	int dStride = getStride();
+	boolean lsb = (getWorder() == ORDER_LSB);
+
+	switch (getDtype()) {
+	case TYPE_INT16:
+	    if (dStride != 2) {
+		return (false);
+	    }
+	    com.rbnb.utility.ByteConvert.byte2Short
+		(inputI,fromI,(short[]) outputI,toI,nPointsI,lsb);
+	    return (true);
+
+	case TYPE_INT32:
+	    if (dStride != 4) {
+		return (false);
+	    }
+	    com.rbnb.utility.ByteConvert.byte2Int
+		(inputI,fromI,(int[]) outputI,toI,nPointsI,lsb);
+	    return (true);
+
+	case TYPE_FLOAT32:
+	    if (dStride != 4) {
+		return (false);
+	    }
+	    com.rbnb.utility.ByteConvert.byte2Float
+		(inputI,fromI,(float[]) outputI,toI,nPointsI,lsb);
+	    return (true);
+
+	case TYPE_INT64:
+	    if (dStride != 8) {
+		return (false);
+	    }
+	    com.rbnb.utility.ByteConvert.byte2Long
+		(inputI,fromI,(long[]) outputI,toI,nPointsI,lsb);
+	    return (true);
+
+	case TYPE_FLOAT64:
+	    if (dStride != 8) {
+		return (false);
+	    }
+	    com.rbnb.utility.ByteConvert.byte2Double
+		(inputI,fromI,(double[]) outputI,toI,nPointsI,lsb);
+	    return (true);
+
+	default:
+	    return (false);
+	}
+    }
+
     /**
      * Copies elements from the input array of bytes to the output array of
      * primitives, converting along the way.
@@ -781,7 +894,7 @@ public final class DataBlock
      * @param toI	the starting index into the output array.
      * @param nPointsI  the number of points to copy.
      * @since V2.0
-     * @version 01/02/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -789,6 +902,7 @@ public final class DataBlock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Try <code>convertBytesInBulk</code> first.
      * 11/30/2000  INB	Created.
      *
      */
@@ -800,6 +914,10 @@ public final class DataBlock
     {
 	int dStride = getStride();
 
+	if (convertBytesInBulk(inputI,fromI,outputI,toI,nPointsI)) {
+	    return;
+	}
+
 	switch (getDtype()) {
 	case TYPE_BOOLEAN:
 	    boolean[] outputBool = (boolean[]) outputI;
@@ -1673,6 +1791,8 @@ public final class DataBlock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Return the payload array itself when the reference
+     *			covers all of it.
      * 11/30/2000  INB	Created.
      *
      */
@@ -1690,6 +1810,22 @@ public final class DataBlock
 		 " byte data pool entries.");
 	}
 
+	if (!COPY_PAYLOADS &&
+	    (getData().size() == 1) &&
+	    (getData().firstElement() instanceof byte[]) &&
+	    (getOffset() == 0) &&
+	    (getStride() == getPtsize()) &&
+	    (dRefI.getNpts() == 1) &&
+	    (dRefI.getOffset() == 0) &&
+	    (dRefI.getPtsize() == getPtsize()) &&
+	    (dRefI.getStride() == getPtsize()) &&
+	    (((byte[]) getData().firstElement()).length ==
+	     getNpts()*getPtsize())) {
+	    // If the reference wants every byte of a single array, in order,
+	    // then the array itself is the answer.
+	    return (getData().firstElement());
+	}
+
 	// The total number of points is equal to the number of points in this
 	// data pool times the number of points in the
 	// <code>DataBlock/code>. Create an output object of the correct type.
@@ -1780,6 +1916,7 @@ public final class DataBlock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Share rather than clone the data payload.
      * 12/01/2000  INB	Created.
      *
      */
@@ -1791,9 +1928,9 @@ public final class DataBlock
 	// <code>DataBlock</code>.
 	if (dBlockI == null) {
 	    // If this is the <code>Rmap</code> containing the
-	    // <code>DataBlock</code> with the data payload, clone the
-	    // <code>DataBlock</code>.
-	    dBlockR = (DataBlock) clone();
+	    // <code>DataBlock</code> with the data payload, copy the
+	    // <code>DataBlock</code>, sharing the payload.
+	    dBlockR = share();
 
 	} else {
 	    // If this <code>DataBlock</code> inherits from the
@@ -2430,6 +2567,48 @@ public final class DataBlock
 	}
     }
 
+    /**
+     * Copies this <code>DataBlock</code>, sharing the arrays in the data
+     * payload.
+     * <p>
+     * Unlike <code>clone</code>, which copies every array, this method puts
+     * the same arrays into a new <code>java.util.Vector</code>.  The caller
+     * must not modify the arrays.
+     * <p>
+     * If <code>COPY_PAYLOADS</code> is set, this is the same as
+     * <code>clone</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the copy.
+     * @see #clone()
+     * @see #COPY_PAYLOADS
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final DataBlock share() {
+	if (COPY_PAYLOADS) {
+	    return ((DataBlock) clone());
+	}
+
+	DataBlock copyR = duplicate();
+	if (getData() != null) {
+	    copyR.data = (java.util.Vector) getData().clone();
+	}
+
+	return (copyR);
+    }
+
     /**
      * Sets the data payload and description using basic values.
      * <p>
@@ -38,6 +38,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Convert arrays of numbers in bulk.
  * 10/22/2003  INB	Made <code>setWritten</code> externally accessible.
  * 01/08/2001  INB	Created.
  *
@@ -438,7 +439,7 @@ class DataOutputStream
      * @exception java.io.IOException
      *		  thrown if there is a problem writing to the output stream.
      * @since V2.0
-     * @version 08/14/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -446,6 +447,7 @@ class DataOutputStream
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Convert in bulk with <code>ByteConvert</code>.
      * 01/08/2001  INB	Created.
      *
      */
@@ -455,22 +457,8 @@ class DataOutputStream
 	int len = doublesI.length;
 	byte[] bytes = getWriteBuffer(len*8);
 
-	for (int idx = 0,
-		 idx2 = 0;
-	     idx < len;
-	     ++idx,
-		 idx2 += 8) {
-	    // Convert the doubles to bytes.
-	    long value = Double.doubleToLongBits(doublesI[idx]);
-	    bytes[idx2    ] = (byte) (value >>> 56);
-	    bytes[idx2 + 1] = (byte) (value >>> 48);
-	    bytes[idx2 + 2] = (byte) (value >>> 40);
-	    bytes[idx2 + 3] = (byte) (value >>> 32);
-	    bytes[idx2 + 4] = (byte) (value >>> 24);
-	    bytes[idx2 + 5] = (byte) (value >>> 16);
-	    bytes[idx2 + 6] = (byte) (value >>>  8);
-	    bytes[idx2 + 7] = (byte) (value       );
-	}
+	// Convert the doubles to bytes.
+	com.rbnb.utility.ByteConvert.double2Byte(doublesI,0,bytes,0,len,false);
 
 	// Write out the byte array.
 	write(bytes,0,len*8);
@@ -486,7 +474,7 @@ class DataOutputStream
      * @exception java.io.IOException
      *		  thrown if there is a problem writing to the output stream.
      * @since V2.0
-     * @version 08/14/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -494,6 +482,7 @@ class DataOutputStream
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Convert in bulk with <code>ByteConvert</code>.
      * 01/08/2001  INB	Created.
      *
      */
@@ -503,18 +492,8 @@ class DataOutputStream
 	int len = floatsI.length;
 	byte[] bytes = getWriteBuffer(len*4);
 
-	for (int idx = 0,
-		 idx2 = 0;
-	     idx < len;
-	     ++idx,
-		 idx2 += 4) {
-	    // Convert the floats to bytes.
-	    int value = Float.floatToIntBits(floatsI[idx]);
-	    bytes[idx2    ] = (byte) (value >>> 24);
-	    bytes[idx2 + 1] = (byte) (value >>> 16);
-	    bytes[idx2 + 2] = (byte) (value >>>  8);
-	    bytes[idx2 + 3] = (byte) (value       );
-	}
+	// Convert the floats to bytes.
+	com.rbnb.utility.ByteConvert.float2Byte(floatsI,0,bytes,0,len,false);
 
 	// Write out the byte array.
 	write(bytes,0,len*4);
@@ -558,7 +537,7 @@ class DataOutputStream
      * @exception java.io.IOException
      *		  thrown if there is a problem writing to the output stream.
      * @since V2.0
-     * @version 08/14/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -566,6 +545,7 @@ class DataOutputStream
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Convert in bulk with <code>ByteConvert</code>.
      * 01/08/2001  INB	Created.
      *
      */
@@ -575,18 +555,8 @@ class DataOutputStream
 	int len = intsI.length;
 	byte[] bytes = getWriteBuffer(len*4);
 
-	for (int idx = 0,
-		 idx2 = 0;
-	     idx < len;
-	     ++idx,
-		 idx2 += 4) {
-	    // Convert the ints to bytes.
-	    int value = intsI[idx];
-	    bytes[idx2    ] = (byte) (value >>> 24);
-	    bytes[idx2 + 1] = (byte) (value >>> 16);
-	    bytes[idx2 + 2] = (byte) (value >>>  8);
-	    bytes[idx2 + 3] = (byte) (value       );
-	}
+	// Convert the ints to bytes.
+	com.rbnb.utility.ByteConvert.int2Byte(intsI,0,bytes,0,len,false);
 
 	// Write out the byte array.
 	write(bytes,0,len*4);
@@ -602,7 +572,7 @@ class DataOutputStream
      * @exception java.io.IOException
      *		  thrown if there is a problem writing to the output stream.
      * @since V2.0
-     * @version 08/14/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -610,6 +580,7 @@ class DataOutputStream
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Convert in bulk with <code>ByteConvert</code>.
      * 01/08/2001  INB	Created.
      *
      */
@@ -619,22 +590,8 @@ class DataOutputStream
 	int len = longsI.length;
 	byte[] bytes = getWriteBuffer(len*8);
 
-	for (int idx = 0,
-		 idx2 = 0;
-	     idx < len;
-	     ++idx,
-		 idx2 += 8) {
-	    // Convert the longs to bytes.
-	    long value = longsI[idx];
-	    bytes[idx2    ] = (byte) (value >>> 56);
-	    bytes[idx2 + 1] = (byte) (value >>> 48);
-	    bytes[idx2 + 2] = (byte) (value >>> 40);
-	    bytes[idx2 + 3] = (byte) (value >>> 32);
-	    bytes[idx2 + 4] = (byte) (value >>> 24);
-	    bytes[idx2 + 5] = (byte) (value >>> 16);
-	    bytes[idx2 + 6] = (byte) (value >>>  8);
-	    bytes[idx2 + 7] = (byte) (value       );
-	}
+	// Convert the longs to bytes.
+	com.rbnb.utility.ByteConvert.long2Byte(longsI,0,bytes,0,len,false);
 
 	// Write out the byte array.
 	write(bytes,0,len*8);
@@ -650,7 +607,7 @@ class DataOutputStream
      * @exception java.io.IOException
      *		  thrown if there is a problem writing to the output stream.
      * @since V2.0
-     * @version 08/14/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -658,6 +615,7 @@ class DataOutputStream
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Convert in bulk with <code>ByteConvert</code>.
      * 01/08/2001  INB	Created.
      *
      */
@@ -667,16 +625,8 @@ class DataOutputStream
 	int len = shortsI.length;
 	byte[] bytes = getWriteBuffer(len*2);
 
-	for (int idx = 0,
-		 idx2 = 0;
-	     idx < len;
-	     ++idx,
-		 idx2 += 2) {
-	    // Convert the shorts to bytes.
-	    short value = shortsI[idx];
-	    bytes[idx2    ] = (byte) (value >>> 8);
-	    bytes[idx2 + 1] = (byte) (value      );
-	}
+	// Convert the shorts to bytes.
+	com.rbnb.utility.ByteConvert.short2Byte(shortsI,0,bytes,0,len,false);
 
 	// Write out the byte array.
 	write(bytes,0,len*2);
@@ -0,0 +1,1055 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Multi-resolution summary of a numeric channel.
+ * <p>
+ * A decimation pyramid is a stack of levels, each of which divides the data
+ * of the channel into intervals of a fixed number of samples and keeps the
+ * time limits, minimum, maximum, sum, and count of each interval.  Level
+ * <code>k</code> holds intervals of <code>factor^(k+1)</code> samples.  Each
+ * level is a circular buffer of a fixed number of intervals, so finer levels
+ * cover recent data and coarser levels reach further back in time.
+ * <p>
+ * Pyramids are built incrementally by the <code>RingBuffer</code> that holds
+ * the channel as frames arrive, and are written to the archive of that
+ * <code>RingBuffer</code> when the archive is closed.  A request that sets
+ * <code>RequestOptions.maxSamples</code> is answered from the finest level
+ * that covers the requested time range with no more than that number of
+ * intervals, without reading the raw data.
+ * <p>
+ * Pyramids are only maintained for the channels named in the
+ * <code>com.rbnb.api.DecimationPyramid.channels</code> property, a comma
+ * separated list of channel names relative to their source.  A name ending
+ * in '*' matches any channel starting with the characters before the '*'.
+ * The shape of new pyramids is set by the
+ * <code>com.rbnb.api.DecimationPyramid.factor</code> (default 4),
+ * <code>levels</code> (default 8), and <code>capacity</code> (default 1024
+ * intervals per level) properties.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.RequestOptions#setMaxSamples(int)
+ * @see com.rbnb.api.RingBuffer
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class DecimationPyramid {
+
+    /**
+     * the number of intervals kept by each level of new pyramids.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int CAPACITY =
+	Math.max(16,
+		 Integer.getInteger
+		 ("com.rbnb.api.DecimationPyramid.capacity",
+		  1024).intValue());
+
+    /**
+     * the channels that get pyramids.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static String[] CHANNELS =
+	parseChannels(System.getProperty
+		      ("com.rbnb.api.DecimationPyramid.channels"));
+
+    /**
+     * the ratio of the interval sizes of successive levels of new pyramids.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int FACTOR =
+	Math.max(2,
+		 Integer.getInteger
+		 ("com.rbnb.api.DecimationPyramid.factor",
+		  4).intValue());
+
+    /**
+     * the number of levels of new pyramids.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int LEVELS =
+	Math.max(1,
+		 Integer.getInteger
+		 ("com.rbnb.api.DecimationPyramid.levels",
+		  8).intValue());
+
+    /**
+     * the ratio of the interval sizes of successive levels.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int factor;
+
+    /**
+     * the levels, finest first.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Level[] levels;
+
+    /**
+     * the name of the channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private String name;
+
+    /**
+     * Class constructor to build a <code>DecimationPyramid</code> of the
+     * configured shape.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI  the name of the channel.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    DecimationPyramid(String nameI) {
+	this(nameI,FACTOR,LEVELS,CAPACITY);
+    }
+
+    /**
+     * Class constructor to build a <code>DecimationPyramid</code> of a
+     * particular shape.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI	 the name of the channel.
+     * @param factorI	 the ratio of the interval sizes of successive
+     *			 levels.
+     * @param nLevelsI	 the number of levels.
+     * @param capacityI  the number of intervals kept by each level.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private DecimationPyramid(String nameI,
+			      int factorI,
+			      int nLevelsI,
+			      int capacityI)
+    {
+	super();
+	name = nameI;
+	factor = factorI;
+	levels = new Level[nLevelsI];
+	long span = 1;
+	for (int idx = 0; idx < nLevelsI; ++idx) {
+	    span *= factorI;
+	    levels[idx] = new Level(span,capacityI);
+	}
+    }
+
+    /**
+     * Adds data points to this <code>DecimationPyramid</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param timesI  the time of each point.
+     * @param dataI   the data, an array of a primitive numeric type.
+     * @return was the data numeric?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized boolean add(double[] timesI,Object dataI) {
+	int nPoints = Math.min(timesI.length,
+			       java.lang.reflect.Array.getLength(dataI));
+	double value;
+
+	for (int idx = 0; idx < nPoints; ++idx) {
+	    if (dataI instanceof double[]) {
+		value = ((double[]) dataI)[idx];
+	    } else if (dataI instanceof float[]) {
+		value = ((float[]) dataI)[idx];
+	    } else if (dataI instanceof long[]) {
+		value = ((long[]) dataI)[idx];
+	    } else if (dataI instanceof int[]) {
+		value = ((int[]) dataI)[idx];
+	    } else if (dataI instanceof short[]) {
+		value = ((short[]) dataI)[idx];
+	    } else if (dataI instanceof byte[]) {
+		value = ((byte[]) dataI)[idx];
+	    } else {
+		return (false);
+	    }
+
+	    for (int lIdx = 0; lIdx < levels.length; ++lIdx) {
+		levels[lIdx].add(timesI[idx],value);
+	    }
+	}
+
+	return (true);
+    }
+
+    /**
+     * Decimates the data in a time range.
+     * <p>
+     * The finest level that covers the time range with no more than the
+     * maximum number of intervals is used.  Each returned point is stamped
+     * with the midpoint of its interval.
+     * <p>
+     * If no level has few enough intervals, the coarsest level that covers
+     * the range is used.  No answer is produced (<code>null</code> is
+     * returned) if there is no data in the range, if the raw data would not
+     * exceed the maximum anyway, or if no level covers the range.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param startI	    the start of the range.
+     * @param endI	    the end of the range.
+     * @param maxSamplesI   the maximum number of points wanted.
+     * @param decimationI   the statistic to return for each interval.
+     * @return the times and values of the decimated points, or
+     *	       <code>null</code>.
+     * @see com.rbnb.api.RequestOptions#DECIMATE_MEAN
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized double[][] decimate(double startI,
+					   double endI,
+					   int maxSamplesI,
+					   byte decimationI)
+    {
+	Level level = null;
+	int lo = 0,
+	    hi = 0;
+
+	for (int idx = 0; idx < levels.length; ++idx) {
+	    if (!levels[idx].covers(startI)) {
+		continue;
+	    }
+	    level = levels[idx];
+	    lo = level.findFirstEndingAtOrAfter(startI);
+	    hi = level.findFirstStartingAfter(endI);
+	    if (hi <= lo) {
+		return (null);
+	    } else if (hi - lo <= maxSamplesI) {
+		if (level.countSamples(lo,hi,startI,endI) <= maxSamplesI) {
+		    return (null);
+		}
+		break;
+	    }
+	}
+
+	// If even the coarsest level that covers the range has too many
+	// intervals, use it anyway; it is still far smaller than the raw
+	// data.
+	if (level == null) {
+	    return (null);
+	}
+	double[][] resultR = new double[2][hi - lo];
+	for (int idx = lo; idx < hi; ++idx) {
+	    resultR[0][idx - lo] = level.getMidpoint(idx);
+	    resultR[1][idx - lo] = level.getValue(idx,decimationI);
+	}
+	return (resultR);
+    }
+
+    /**
+     * Gets the name of the channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the name of the channel.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final String getName() {
+	return (name);
+    }
+
+    /**
+     * Are pyramids maintained for any channels?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return are any channels configured?
+     * @see #isEnabled(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static boolean isConfigured() {
+	return (CHANNELS.length > 0);
+    }
+
+    /**
+     * Is a pyramid maintained for a channel?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI  the name of the channel relative to its source.
+     * @return should the channel get a pyramid?
+     * @see #isConfigured()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static boolean isEnabled(String nameI) {
+	String name = (nameI.charAt(0) == '/') ? nameI.substring(1) : nameI;
+
+	for (int idx = 0; idx < CHANNELS.length; ++idx) {
+	    if (CHANNELS[idx].endsWith("*") ?
+		name.startsWith(CHANNELS[idx].substring
+				(0,CHANNELS[idx].length() - 1)) :
+		name.equals(CHANNELS[idx])) {
+		return (true);
+	    }
+	}
+
+	return (false);
+    }
+
+    /**
+     * Parses the list of channels that get pyramids.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param listI  the comma separated list.
+     * @return the channel names and patterns.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static String[] parseChannels(String listI) {
+	java.util.Vector channels = new java.util.Vector();
+
+	if (listI != null) {
+	    java.util.StringTokenizer st =
+		new java.util.StringTokenizer(listI,",");
+	    while (st.hasMoreTokens()) {
+		String channel = st.nextToken().trim();
+		if (channel.startsWith("/")) {
+		    channel = channel.substring(1);
+		}
+		if (channel.length() > 0) {
+		    channels.addElement(channel);
+		}
+	    }
+	}
+
+	String[] channelsR = new String[channels.size()];
+	channels.copyInto(channelsR);
+	return (channelsR);
+    }
+
+    /**
+     * Reads a <code>DecimationPyramid</code> from a stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param disI  the stream.
+     * @return the <code>DecimationPyramid</code>.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem reading the stream.
+     * @see #write(java.io.DataOutputStream)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static DecimationPyramid read(java.io.DataInputStream disI)
+	throws java.io.IOException
+    {
+	String name = disI.readUTF();
+	int factor = disI.readInt(),
+	    nLevels = disI.readInt(),
+	    capacity = disI.readInt();
+	if ((factor < 2) || (nLevels < 1) || (capacity < 1)) {
+	    throw new java.io.IOException
+		("Bad decimation pyramid for " + name + ".");
+	}
+
+	DecimationPyramid pyramidR =
+	    new DecimationPyramid(name,factor,nLevels,capacity);
+	for (int idx = 0; idx < nLevels; ++idx) {
+	    pyramidR.levels[idx].read(disI);
+	}
+	return (pyramidR);
+    }
+
+    /**
+     * Writes this <code>DecimationPyramid</code> to a stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param dosI  the stream.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem writing the stream.
+     * @see #read(java.io.DataInputStream)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void write(java.io.DataOutputStream dosI)
+	throws java.io.IOException
+    {
+	dosI.writeUTF(name);
+	dosI.writeInt(factor);
+	dosI.writeInt(levels.length);
+	dosI.writeInt(levels[0].capacity);
+	for (int idx = 0; idx < levels.length; ++idx) {
+	    levels[idx].write(dosI);
+	}
+    }
+
+    /**
+     * One level of a <code>DecimationPyramid</code>.
+     * <p>
+     * The closed intervals are kept in parallel circular arrays, oldest
+     * first.  The interval being filled is kept separately so that the
+     * newest data is always available.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static class Level {
+
+	/**
+	 * the number of intervals that can be kept.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	int capacity;
+
+	/**
+	 * the number of samples in each interval.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	long span;
+
+	/**
+	 * have any intervals been discarded?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	boolean discarded = false;
+
+	/**
+	 * the index of the oldest closed interval.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	int first = 0;
+
+	/**
+	 * the number of closed intervals.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	int size = 0;
+
+	/*
+	 * the statistics of the closed intervals.
+	 */
+	double[] starts,
+	    ends,
+	    mins,
+	    maxs,
+	    sums;
+	long[] counts;
+
+	/*
+	 * the statistics of the interval being filled.
+	 */
+	double oStart,
+	    oEnd,
+	    oMin,
+	    oMax,
+	    oSum;
+	long oCount = 0;
+
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param spanI	     the number of samples in each interval.
+	 * @param capacityI  the number of intervals that can be kept.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	Level(long spanI,int capacityI) {
+	    super();
+	    span = spanI;
+	    capacity = capacityI;
+	    starts = new double[capacityI];
+	    ends = new double[capacityI];
+	    mins = new double[capacityI];
+	    maxs = new double[capacityI];
+	    sums = new double[capacityI];
+	    counts = new long[capacityI];
+	}
+
+	/**
+	 * Adds a sample, closing the open interval if it is full.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param timeI   the time of the sample.
+	 * @param valueI  the value of the sample.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void add(double timeI,double valueI) {
+	    if (oCount == 0) {
+		oStart = oEnd = timeI;
+		oMin = oMax = oSum = valueI;
+	    } else {
+		oEnd = timeI;
+		oMin = Math.min(oMin,valueI);
+		oMax = Math.max(oMax,valueI);
+		oSum += valueI;
+	    }
+
+	    if (++oCount == span) {
+		int slot;
+		if (size == capacity) {
+		    slot = first;
+		    first = (first + 1) % capacity;
+		    discarded = true;
+		} else {
+		    slot = (first + size++) % capacity;
+		}
+		starts[slot] = oStart;
+		ends[slot] = oEnd;
+		mins[slot] = oMin;
+		maxs[slot] = oMax;
+		sums[slot] = oSum;
+		counts[slot] = oCount;
+		oCount = 0;
+	    }
+	}
+
+	/**
+	 * Estimates the number of samples in a time range.
+	 * <p>
+	 * Intervals that only partly overlap the range are assumed to have
+	 * their samples spread evenly over time.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param loI     the first interval.
+	 * @param hiI     the interval after the last.
+	 * @param startI  the start of the range.
+	 * @param endI    the end of the range.
+	 * @return the number of samples.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final double countSamples(int loI,
+				  int hiI,
+				  double startI,
+				  double endI)
+	{
+	    double countR = 0.;
+	    for (int idx = loI; idx < hiI; ++idx) {
+		boolean open = (idx == size);
+		int slot = open ? -1 : slot(idx);
+		double start = open ? oStart : starts[slot],
+		    end = open ? oEnd : ends[slot],
+		    count = open ? oCount : counts[slot];
+		if ((end > start) && ((start < startI) || (end > endI))) {
+		    count *= (Math.min(end,endI) - Math.max(start,startI))/
+			(end - start);
+		}
+		countR += count;
+	    }
+	    return (countR);
+	}
+
+	/**
+	 * Does this level hold everything from a time onwards?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param timeI  the time.
+	 * @return is the level complete from the time?
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final boolean covers(double timeI) {
+	    return (!discarded || (starts[first] <= timeI));
+	}
+
+	/**
+	 * Finds the first interval that ends at or after a time.
+	 * <p>
+	 * Intervals are numbered from the oldest closed interval; the open
+	 * interval, if any, is numbered <code>size</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param timeI  the time.
+	 * @return the interval number.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final int findFirstEndingAtOrAfter(double timeI) {
+	    int lo = 0,
+		hi = size;
+	    while (lo < hi) {
+		int mid = (lo + hi) >>> 1;
+		if (ends[slot(mid)] < timeI) {
+		    lo = mid + 1;
+		} else {
+		    hi = mid;
+		}
+	    }
+	    if ((lo == size) && ((oCount == 0) || (oEnd < timeI))) {
+		lo = size + ((oCount == 0) ? 0 : 1);
+	    }
+	    return (lo);
+	}
+
+	/**
+	 * Finds the first interval that starts after a time.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param timeI  the time.
+	 * @return the interval number.
+	 * @see #findFirstEndingAtOrAfter(double)
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final int findFirstStartingAfter(double timeI) {
+	    int lo = 0,
+		hi = size;
+	    while (lo < hi) {
+		int mid = (lo + hi) >>> 1;
+		if (starts[slot(mid)] <= timeI) {
+		    lo = mid + 1;
+		} else {
+		    hi = mid;
+		}
+	    }
+	    if ((lo == size) && (oCount > 0) && (oStart <= timeI)) {
+		++lo;
+	    }
+	    return (lo);
+	}
+
+	/**
+	 * Gets the midpoint of an interval.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param idxI  the interval number.
+	 * @return the midpoint time.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final double getMidpoint(int idxI) {
+	    if (idxI == size) {
+		return ((oStart + oEnd)/2.);
+	    }
+	    int slot = slot(idxI);
+	    return ((starts[slot] + ends[slot])/2.);
+	}
+
+	/**
+	 * Gets a statistic of an interval.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param idxI	       the interval number.
+	 * @param decimationI  the statistic.
+	 * @return the value.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final double getValue(int idxI,byte decimationI) {
+	    boolean open = (idxI == size);
+	    int slot = open ? -1 : slot(idxI);
+
+	    switch (decimationI) {
+	    case RequestOptions.DECIMATE_MIN:
+		return (open ? oMin : mins[slot]);
+	    case RequestOptions.DECIMATE_MAX:
+		return (open ? oMax : maxs[slot]);
+	    default:
+		return (open ? oSum/oCount : sums[slot]/counts[slot]);
+	    }
+	}
+
+	/**
+	 * Reads the contents of this level from a stream.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param disI  the stream.
+	 * @exception java.io.IOException
+	 *		  thrown if there is a problem reading the stream.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void read(java.io.DataInputStream disI)
+	    throws java.io.IOException
+	{
+	    discarded = disI.readBoolean();
+	    size = disI.readInt();
+	    if ((size < 0) || (size > capacity)) {
+		throw new java.io.IOException
+		    ("Bad decimation pyramid level size " + size + ".");
+	    }
+	    first = 0;
+	    for (int idx = 0; idx < size; ++idx) {
+		starts[idx] = disI.readDouble();
+		ends[idx] = disI.readDouble();
+		mins[idx] = disI.readDouble();
+		maxs[idx] = disI.readDouble();
+		sums[idx] = disI.readDouble();
+		counts[idx] = disI.readLong();
+	    }
+	    oCount = disI.readLong();
+	    oStart = disI.readDouble();
+	    oEnd = disI.readDouble();
+	    oMin = disI.readDouble();
+	    oMax = disI.readDouble();
+	    oSum = disI.readDouble();
+	}
+
+	/**
+	 * Maps an interval number to its slot in the circular arrays.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param idxI  the interval number.
+	 * @return the slot.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	private final int slot(int idxI) {
+	    return ((first + idxI) % capacity);
+	}
+
+	/**
+	 * Writes the contents of this level to a stream.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param dosI  the stream.
+	 * @exception java.io.IOException
+	 *		  thrown if there is a problem writing the stream.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void write(java.io.DataOutputStream dosI)
+	    throws java.io.IOException
+	{
+	    dosI.writeBoolean(discarded);
+	    dosI.writeInt(size);
+	    for (int idx = 0; idx < size; ++idx) {
+		int slot = slot(idx);
+		dosI.writeDouble(starts[slot]);
+		dosI.writeDouble(ends[slot]);
+		dosI.writeDouble(mins[slot]);
+		dosI.writeDouble(maxs[slot]);
+		dosI.writeDouble(sums[slot]);
+		dosI.writeLong(counts[slot]);
+	    }
+	    dosI.writeLong(oCount);
+	    dosI.writeDouble(oStart);
+	    dosI.writeDouble(oEnd);
+	    dosI.writeDouble(oMin);
+	    dosI.writeDouble(oMax);
+	    dosI.writeDouble(oSum);
+	}
+    }
+}
@@ -29,8 +29,9 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @see com.rbnb.api.Lock
+ * @see com.rbnb.api.ReadWriteGate
  * @since V2.0
- * @version 11/17/2003
+ * @version 10/18/2026
  */
 
 /*
@@ -41,6 +42,15 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Record lock waits in the <code>MetricsRegistry</code>.
+ * 10/18/2026  JRS	Protect the <code>readLocks</code> list with a
+ *			<code>ReentrantLock</code> rather than its monitor so
+ *			that waiting virtual threads do not pin their carrier
+ *			threads.
+ * 10/18/2026  JRS	<code>READ_WRITE Doors</code> can use a
+ *			<code>ReadWriteGate</code> built on
+ *			<code>java.util.concurrent.locks</code>.  Added
+ *			optimistic read stamps.
  * 08/06/2007  WHF	Added isDebug() static method.  Made id string optional.  
  * 11/17/2003  INB	Added <code>clear</code> method.
  *			<code>java.lang.InterruptedExceptions</code> always
@@ -80,6 +90,22 @@ final class Door {
      */
     private String identification = null;
 
+    /**
+     * concurrent implementation of the <code>READ_WRITE</code> locking.
+     * <p>
+     * When this is set, all <code>READ_WRITE</code> locking is delegated to
+     * it and the primary and read locks of this <code>Door</code> are
+     * unused.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #CONCURRENT
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private ReadWriteGate gate = null;
+
     /**
      * primary lock.
      * <p>
@@ -91,6 +117,18 @@ final class Door {
      */
     private Lock primaryLock = new Lock(this);
 
+    /**
+     * the time spent waiting for locks, in the <code>MetricsRegistry</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static MetricsRegistry.Histogram WAIT =
+	MetricsRegistry.getDefault().histogram(MetricsRegistry.DOOR_WAIT,null);
+
     /**
      * read locks.
      * <p>
@@ -102,6 +140,31 @@ final class Door {
      */
     private com.rbnb.utility.SortedVector readLocks = null;
 
+    /**
+     * protects changes to the <code>readLocks</code> list.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.locks.ReentrantLock readLocksLock =
+	new java.util.concurrent.locks.ReentrantLock();
+
+    /**
+     * signalled when a read lock is removed from the
+     * <code>readLocks</code> list.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.locks.Condition readLocksChanged =
+	readLocksLock.newCondition();
+
    /**
      * type of lock.
      * <p>
@@ -163,6 +226,23 @@ final class Door {
       * @version 2007/08/06
       */
     private static final String ID_DEBUG_OFF = "DEBUG OFF";
+
+    /**
+     * use the <code>java.util.concurrent</code> based implementation for
+     * <code>READ_WRITE Doors</code>?
+     * <p>
+     * Set by the system property
+     * <code>com.rbnb.api.Door.concurrent</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.ReadWriteGate
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    static final boolean CONCURRENT =
+	Boolean.getBoolean("com.rbnb.api.Door.concurrent");
     
 
     /**
@@ -235,15 +315,50 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Call implementation that takes the concurrent
+     *			flag.
      * 11/12/2003  INB	Created.
      *
      */
     Door(String identificationI,byte typeOfLockI)
 	throws java.lang.InterruptedException
+    {
+	this(identificationI,typeOfLockI,CONCURRENT);
+    }
+
+    /**
+     * Class constructor to build a <code>Door</code> with the specified
+     * type of lock and identification, choosing the implementation.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param identificationI the identification.
+     * @param typeOfLockI     the type of lock on the <code>Door</code>.
+     * @param concurrentI     use a <code>ReadWriteGate</code> for a
+     *			      <code>READ_WRITE</code> lock?
+     * @see #CONCURRENT
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    Door(String identificationI,byte typeOfLockI,boolean concurrentI)
+	throws java.lang.InterruptedException
     {
 	this();
 	setIdentification(identificationI);
 	setTypeOfLock(typeOfLockI);
+	if (concurrentI && (typeOfLockI == READ_WRITE)) {
+	    gate = new ReadWriteGate(this);
+	}
     }
 
     /**
@@ -256,7 +371,7 @@ final class Door {
      *
      * @param lockI the <code>Lock</code> to be released.
      * @since V2.2
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -264,11 +379,16 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>readLocksLock</code>.
+     * 10/18/2026  JRS	Delegate to the <code>ReadWriteGate</code>.
      * 11/17/2003  INB	Created.
      *
      */
     public final void clear(Lock lockI) {
-	if (lockI == getPrimaryLock()) {
+	if (gate != null) {
+	    gate.clear(lockI);
+
+	} else if (lockI == getPrimaryLock()) {
 	    try {
 		unlockReadWrite();
 	    } catch (java.lang.Exception e) {
@@ -276,9 +396,12 @@ final class Door {
 
 	} else {
 	    if (getReadLocks().contains(lockI)) {
-		synchronized (getReadLocks()) {
+		readLocksLock.lock();
+		try {
 		    getReadLocks().removeElement(lockI);
-		    getReadLocks().notifyAll();
+		    readLocksChanged.signalAll();
+		} finally {
+		    readLocksLock.unlock();
 		}
 	    }
 	    lockI.clear();
@@ -499,7 +622,7 @@ final class Door {
      * @see #lockRead(String)
      * @see #unlock()
      * @since V2.0
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -507,17 +630,24 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Record the wait in the <code>MetricsRegistry</code>.
+     * 10/18/2026  JRS	Delegate to the <code>ReadWriteGate</code>.
      * 11/12/2003  INB	Created.
      *
      */
     final void lock(String locationI)
 	throws java.lang.InterruptedException
     {
+	long startAt = System.nanoTime();
+
 	if (getTypeOfLock() == STANDARD) {
 	    getPrimaryLock().grab(locationI,false,false);
+	} else if (gate != null) {
+	    gate.lockWrite(locationI);
 	} else {
 	    lockReadWrite(locationI);
 	}
+	WAIT.observeNanos(System.nanoTime() - startAt);
     }
 
     /**
@@ -560,7 +690,7 @@ final class Door {
      * @see #lock()
      * @see #unlockRead()
      * @since V2.0
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -568,6 +698,9 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Record the wait in the <code>MetricsRegistry</code>.
+     * 10/18/2026  JRS	Use <code>readLocksLock</code>.
+     * 10/18/2026  JRS	Delegate to the <code>ReadWriteGate</code>.
      * 11/17/2003  INB	Ensure that no <code>Lock</code> is set on an
      *			<code>InterruptedException</code>.  Clear the thread on
      *			release of the primary <code>Lock</code>.
@@ -577,6 +710,14 @@ final class Door {
     final void lockRead(String locationI)
 	throws java.lang.InterruptedException
     {
+	long startAt = System.nanoTime();
+
+	if (gate != null) {
+	    gate.lockRead(locationI);
+	    WAIT.observeNanos(System.nanoTime() - startAt);
+	    return;
+	}
+
 	boolean grabbed = false;
 
 	try {
@@ -606,8 +747,11 @@ final class Door {
 			readLock.unlock();
 			throw e;
 		    }
-		    synchronized (getReadLocks()) {
+		    readLocksLock.lock();
+		    try {
 			getReadLocks().add(readLock);
+		    } finally {
+			readLocksLock.unlock();
 		    }
 		    releasePrimaryLock();
 		    grabbed = false;		    
@@ -637,6 +781,7 @@ final class Door {
 
 	    }
 	}
+	WAIT.observeNanos(System.nanoTime() - startAt);
     }
 
     /**
@@ -657,7 +802,7 @@ final class Door {
      * @see #lockRead(String)
      * @see #unlock()
      * @since V2.0
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -665,6 +810,8 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>readLocksLock</code> and wait on
+     *			<code>readLocksChanged</code>.
      * 11/17/2003  INB	<code>java.lang.InterruptedException</code> now simply
      *			releases all <code>Locks</code> set by this method and
      *			returns.  Clear the thread on release of the primary
@@ -708,7 +855,8 @@ final class Door {
 		long lastAt = System.currentTimeMillis();
 		long nowAt;
 
-		synchronized (getReadLocks()) {
+		readLocksLock.lock();
+		try {
 		    boolean blocked;
 
 		    do {
@@ -747,7 +895,8 @@ final class Door {
 			    // If we're blocked, wait for something to happen
 			    // or a little while (the latter ensures that we
 			    // don't get blocked by threads that die).
-			    getReadLocks().wait(100);
+			    readLocksChanged.await
+				(100,java.util.concurrent.TimeUnit.MILLISECONDS);
 			}
 
 			if ((nowAt = System.currentTimeMillis()) - lastAt >=
@@ -773,6 +922,8 @@ final class Door {
 			}
 
 		    } while (blocked);
+		} finally {
+		    readLocksLock.unlock();
 		}
 	    }
 
@@ -822,11 +973,13 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Drop the <code>ReadWriteGate</code>.
      * 07/30/2003  INB	Created.
      *
      */
     public final void nullify() {
 	setIdentification(null);
+	gate = null;
 	if (getReadLocks() != null) {
 	    Lock lock;
 	    while (getReadLocks().size() > 0) {
@@ -970,16 +1123,60 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Show the <code>ReadWriteGate</code>.
      * 10/28/2003  INB	Created.
      *
      */
     public final String toString() {
+	if (gate != null) {
+	    return ("Door:" +
+		    " Identification: " + getIdentification() +
+		    " Type: " + getTypeOfLock() +
+		    " " + gate);
+	}
 	return ("Door:" +
 		" Identification: " + getIdentification() +
 		" Type: " + getTypeOfLock() +
 		" Primary: " + getPrimaryLock() +
 		" Read Locks: " + getReadLocks());
     }
+
+    /**
+     * Gets a stamp for an optimistic read of the data protected by this
+     * <code>Door</code>.
+     * <p>
+     * The caller may read without setting a lock, but must then call
+     * <code>validate</code> with the stamp.  If that fails (or the stamp is
+     * zero), the results must be discarded and the read repeated under a
+     * read lock.  The data may be changing while it is being read, so the
+     * caller must also be prepared for exceptions.  As the read may be
+     * repeated, it must not change anything outside of itself.
+     * <p>
+     * Only a <code>READ_WRITE Door</code> using a
+     * <code>ReadWriteGate</code> supports optimistic reads; all others
+     * always return zero.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the stamp, or zero if an optimistic read is not possible.
+     * @see com.rbnb.api.RBO#getRegistered(com.rbnb.api.Rmap)
+     * @see #validate(long)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final long tryOptimisticRead() {
+	return ((gate == null) ? 0L : gate.tryOptimisticRead());
+    }
 
     /**
      * Clears the primary <code>LocK</code> for this <code>Door</code>.
@@ -998,6 +1195,7 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Delegate to the <code>ReadWriteGate</code>.
      * 11/17/2003  INB	Clear the primary lock thread.
      * 02/21/2001  INB	Created.
      *
@@ -1013,6 +1211,8 @@ final class Door {
 		    getPrimaryLock().setThread(null);
 		}
 	    }*/
+	} else if (gate != null) {
+	    gate.unlockWrite();
 	} else {
 	    unlockReadWrite();
 	}
@@ -1028,7 +1228,7 @@ final class Door {
      * @see #lockRead()
      * @see #unlock()
      * @since V2.0
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1036,16 +1236,23 @@ final class Door {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>readLocksLock</code>.
      * 11/17/2003  INB	Eliminated <code>java.lang.InterruptedException</code>.
      *			Only synchronize when we're removing the
      *			<code>Lock</code>.
      * 05/23/2003  INB	Ensure that we don't have cleared lock entries in
      *			the <code>readLocks</code> list while that list can
      *			be accessed.
+     * 10/18/2026  JRS	Delegate to the <code>ReadWriteGate</code>.
      * 02/21/2001  INB	Created.
      *
      */
     final void unlockRead() {
+	if (gate != null) {
+	    gate.unlockRead();
+	    return;
+	}
+
 	// Look for an existing read lock.
 	try {
 	    Lock readLock = null;
@@ -1056,9 +1263,12 @@ final class Door {
 		if ((readLock != null) && readLock.unlock()) {
 		    // If one exists, clear it. If the read lock is now off,
 		    // remove it from the list.
-		    synchronized (getReadLocks()) {
+		    readLocksLock.lock();
+		    try {
 			getReadLocks().removeElement(readLock);
-			getReadLocks().notifyAll();
+			readLocksChanged.signalAll();
+		    } finally {
+			readLocksLock.unlock();
 		    }
 
 		} else if (readLock == null) {
@@ -1088,6 +1298,34 @@ final class Door {
     }
 
 
+    /**
+     * Determines whether an optimistic read is still valid.
+     * <p>
+     * The read is valid if the stamp is non-zero and no write lock has been
+     * set on this <code>Door</code> since the stamp was obtained.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param stampI the stamp from <code>tryOptimisticRead</code>.
+     * @return is the read valid?
+     * @see #tryOptimisticRead()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean validate(long stampI) {
+	return ((gate != null) && gate.validate(stampI));
+    }
+
     /**
      * Clears the primary <code>LocK</code> for this <code>READ_WRITE
      * Door</code>.
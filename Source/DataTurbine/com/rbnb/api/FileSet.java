@@ -24,7 +24,7 @@ package com.rbnb.api;
  *
  * @see com.rbnb.api.Archive
  * @since V2.0
- * @version 01/12/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -35,6 +35,17 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Keep the channel index with the summary and use it to
+ *			pass over <code>FileSets</code> without loading their
+ *			skeletons.  Build the index whenever it is missing.
+ * 10/18/2026  JRS	Don't sync files opened for reading only when they are
+ *			released.
+ * 10/18/2026  JRS	Lazily opened <code>FileSets</code> load their
+ *			skeletons on first use (<code>SkeletonCache</code>).
+ * 10/18/2026  JRS	Added a per-channel time index of the
+ *			<code>FrameSets</code> (<code>ChannelIndex</code>).
+ * 10/18/2026  JRS	Optionally memory-map the header and data files of
+ *			sealed <code>FileSets</code> for reading.
  * 10/24/2012  MJM  Make sure files are sync'd fully to disk upon release
  * 11/16/2006  EMF      Fixed recoverFromDataFiles(), reduced memory usage.
  * 01/12/2004  INB	Ensure that we don't try to write out a
@@ -92,6 +103,21 @@ final class FileSet
      */
     private long accessCount = 0;
 
+    /**
+     * the per-channel time index of the <code>FrameSets</code>.
+     * <p>
+     * Unlike the skeleton, the index stays in memory for as long as the
+     * <code>FileSet</code> does.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.ChannelIndex
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private volatile ChannelIndex channelIndex = null;
+
     /**
      * has the file been deleted?
      * <p>
@@ -203,6 +229,21 @@ final class FileSet
      */
     private int lastRegistrationIndex = -1;
 
+    /**
+     * was this <code>FileSet</code> opened lazily?
+     * <p>
+     * Only lazily opened <code>FileSets</code> load and unload their
+     * skeletons through the <code>SkeletonCache</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #readSummaryFromArchive()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private volatile boolean lazy = false;
+
     /**
      * the <code>LimitedResource</code> object controlling open
      * <code>FileSet</code> files.
@@ -226,6 +267,17 @@ final class FileSet
      */
     private boolean previousOpen = false;
 
+    /**
+     * were the files opened for reading only?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean readOnly = false;
+
     /**
      * the file offset of the <code>Registration</code> data.
      * <p>
@@ -250,6 +302,67 @@ final class FileSet
      */
     private long regHeaderOffset = -1;
 
+    /**
+     * is the skeleton of this <code>FileSet</code> in memory?
+     * <p>
+     * This is only false for <code>FileSets</code> that were opened lazily
+     * and have not yet been used, or that have since been unloaded by the
+     * <code>SkeletonCache</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #loadSkeleton()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private volatile boolean skeletonLoaded = true;
+
+    /**
+     * lock held while the skeleton is loaded or unloaded.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final Object skeletonLock = new Object();
+
+    /**
+     * memory-map the files of sealed <code>FileSets</code> for reading?
+     * <p>
+     * Set by the <code>com.rbnb.api.FileSet.mapArchive</code> system
+     * property.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #MAP_LIMIT
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static boolean MAP_ARCHIVE =
+	Boolean.getBoolean("com.rbnb.api.FileSet.mapArchive");
+
+    /**
+     * the largest file, in bytes, that will be memory-mapped.
+     * <p>
+     * Larger files are read through the regular file streams.  Set by the
+     * <code>com.rbnb.api.FileSet.mapLimit</code> system property; defaults
+     * to 256 MB.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #MAP_ARCHIVE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static long MAP_LIMIT =
+	Long.getLong("com.rbnb.api.FileSet.mapLimit",
+		     256L*1024L*1024L).longValue();
+
     // Private constants:
     private final static String[] ARCHIVE_PARAMETERS = {
 				    "DSZ",
@@ -519,6 +632,188 @@ final class FileSet
 	} while (retry);
     }
 
+    /**
+     * Determines the time at the start of the <code>FileSet</code> for a
+     * <code>TimeRelativeRequest</code>.
+     * <p>
+     * The skeleton is loaded first if it is not in memory.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI	    the <code>TimeRelativeRequest</code>.
+     * @param roI	    the <code>RequestOptions</code>.
+     * @return the <code>TimeRelativeResponse</code>.
+     * @exception com.rbnb.utility.SortException
+     *		  if there is a problem locating a reference.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #loadSkeleton()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final TimeRelativeResponse afterTimeRelative(TimeRelativeRequest requestI,
+					  RequestOptions roI)
+	throws com.rbnb.utility.SortException,
+	       com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	loadSkeleton();
+	return (super.afterTimeRelative(requestI,roI));
+    }
+
+    /**
+     * Determines the time at the end of the <code>FileSet</code> for a
+     * <code>TimeRelativeRequest</code>.
+     * <p>
+     * The skeleton is loaded first if it is not in memory.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI	    the <code>TimeRelativeRequest</code>.
+     * @param roI	    the <code>RequestOptions</code>.
+     * @return the <code>TimeRelativeResponse</code>.
+     * @exception com.rbnb.utility.SortException
+     *		  if there is a problem locating a reference.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #loadSkeleton()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final TimeRelativeResponse beforeTimeRelative(TimeRelativeRequest requestI,
+					  RequestOptions roI)
+	throws com.rbnb.utility.SortException,
+	       com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	loadSkeleton();
+	return (super.beforeTimeRelative(requestI,roI));
+    }
+
+    /**
+     * Adds the names of the channels in a request to a list, in the form
+     * used by the channel index.
+     * <p>
+     * Only plain names can be looked up in the index.  Wildcards, relative
+     * names, and request levels with their own time or frame ranges cannot,
+     * so they stop the search.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI the request <code>Rmap</code>.
+     * @param prefixI  the name of the levels above the request.
+     * @param namesO   the list of names.
+     * @return were all of the names added?
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #moveDownIndexed(ExtractedChain)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static boolean addIndexedNames(Rmap requestI,
+						 String prefixI,
+						 java.util.Vector namesO)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if ((requestI.getTrange() != null) || (requestI.getFrange() != null)) {
+	    return (false);
+	}
+
+	String name = requestI.getName();
+	String prefix = prefixI;
+	if (name != null) {
+	    if ((name.length() == 0) ||
+		(name.indexOf('*') != -1) ||
+		(name.indexOf('?') != -1) ||
+		(name.charAt(0) == '.')) {
+		return (false);
+	    }
+	    prefix = prefixI + Rmap.PATHDELIMITER + name;
+	}
+
+	if (requestI.getNchildren() == 0) {
+	    if (name == null) {
+		return (false);
+	    }
+	    namesO.addElement(prefix);
+	    return (true);
+	}
+
+	for (int idx = 0, endIdx = requestI.getNchildren();
+	     idx < endIdx;
+	     ++idx) {
+	    if (!addIndexedNames(requestI.getChildAt(idx),prefix,namesO)) {
+		return (false);
+	    }
+	}
+
+	return (true);
+    }
+
     /**
      * Builds the registration for this <code>FileSet</code>.
      * <p>
@@ -535,7 +830,7 @@ final class FileSet
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 01/06/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -543,6 +838,7 @@ final class FileSet
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Add each <code>FrameSet</code> to the channel index.
      * 01/06/2004  INB	Only read <code>FrameSets</code> from the archive
      *			if we have reason to believe that we need to in order
      *			to actually update the <code>FileSet</code>
@@ -578,6 +874,10 @@ final class FileSet
 						       false,
 						       false) ||
 		    changedR;
+		if (channelIndex == null) {
+		    channelIndex = new ChannelIndex();
+		}
+		channelIndex.add(idx,fs.getRegistered());
 		lastRegistrationIndex = Math.max(lastRegistrationIndex,idx);
 	    }
 	}
@@ -585,6 +885,40 @@ final class FileSet
 	return (changedR);
     }
 
+    /**
+     * Builds the channel index of this <code>FileSet</code> if it does not
+     * have one.
+     * <p>
+     * <code>FileSets</code> written before the index existed get one the
+     * first time that their skeleton is read.  The index is only an aid to
+     * finding data, so a failure to build it is not a problem with the
+     * <code>FileSet</code> itself.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #rebuildChannelIndex()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void checkChannelIndex() {
+	if ((channelIndex == null) && !deleted) {
+	    try {
+		rebuildChannelIndex();
+	    } catch (java.lang.Exception e) {
+	    }
+	}
+    }
+
     /**
      * Clears this <code>FileSet's</code> contents.
      * <p>
@@ -600,7 +934,7 @@ final class FileSet
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -608,6 +942,7 @@ final class FileSet
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Drop out of the <code>SkeletonCache</code>.
      * 11/14/2003  INB	Added location to the <code>Lock</code>.
      * 10/23/2003  INB	Modified code to hold onto the files unless someone
      *			else needs to be able to open other files via the
@@ -626,6 +961,7 @@ final class FileSet
 	    getDoor().lock("FileSet.clear");
 
 	    deleted = true;
+	    SkeletonCache.forget(this);
 	    boolean decrementCount = false;
 	    if (openFileSets != null) {
 		if (files != null) {
@@ -794,6 +1130,62 @@ final class FileSet
 	}
     }
 
+    /**
+     * Compares the time reference of a <code>TimeRelativeRequest</code> to
+     * the channel index.
+     * <p>
+     * This works like the comparison against the limits of the
+     * <code>Registration</code> in <code>matchTimeRelative</code>, but does
+     * not need the skeleton.  It only gives an answer when the reference is
+     * strictly before or strictly after the data for every channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI the <code>TimeRelativeRequest</code>.
+     * @return -1 if the reference is before the data, 1 if it is after it,
+     *	       or 2 if the index cannot tell.
+     * @see #matchTimeRelative(TimeRelativeRequest,RequestOptions)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final int compareIndexed(TimeRelativeRequest requestI) {
+	ChannelIndex index = channelIndex;
+	if (index == null) {
+	    return (2);
+	}
+
+	com.rbnb.utility.SortedVector toMatch = requestI.getByChannel();
+	double reference = requestI.getTimeRange().getTime();
+	int statusR = 2;
+
+	for (int idx = 0; idx < toMatch.size(); ++idx) {
+	    TimeRelativeChannel trc =
+		(TimeRelativeChannel) toMatch.elementAt(idx);
+	    int direction = index.compare
+		(trc.getChannelName().substring(requestI.getNameOffset()),
+		 reference,
+		 reference);
+
+	    if (((direction != -1) && (direction != 1)) ||
+		((idx > 0) && (direction != statusR))) {
+		return (2);
+	    }
+	    statusR = direction;
+	}
+
+	return (statusR);
+    }
+
     /**
      * Deletes the <code>FileSet</code> archive files.
      * <p>
@@ -1281,7 +1673,122 @@ final class FileSet
     final OutputStream getRHOS() {
 	return ((hos == null) ? null : hos[1]);
     }
-
+
+    /**
+     * Loads the skeleton of a lazily opened <code>FileSet</code>, if it is
+     * not already in memory.
+     * <p>
+     * The skeleton is everything that <code>readFromArchive</code> reads:
+     * the <code>Registration</code> and the <code>FrameSet</code>
+     * skeletons.  A missing channel index is built once the skeleton is in
+     * memory.  The <code>SkeletonCache</code> is told each
+     * time the <code>FileSet</code> is used, so that the least recently used
+     * skeletons can be unloaded again.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #readSummaryFromArchive()
+     * @see #unloadSkeleton()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Build a missing channel index.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void loadSkeleton()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (!lazy) {
+	    return;
+	}
+
+	if (!skeletonLoaded) {
+	    synchronized (skeletonLock) {
+		if (!skeletonLoaded && !deleted) {
+		    readFromArchive();
+		    checkChannelIndex();
+		    skeletonLoaded = true;
+		}
+	    }
+	}
+
+	if (skeletonLoaded) {
+	    SkeletonCache.used(this);
+	}
+    }
+
+    /**
+     * Locks the <code>Door</code> for reading with the skeleton in memory.
+     * <p>
+     * The skeleton could be unloaded between loading it and locking the
+     * <code>Door</code>, so this keeps trying until both are true at once.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param locationI the location of the lock.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #loadSkeleton()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void lockLoaded(String locationI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	while (true) {
+	    loadSkeleton();
+	    getDoor().lockRead(locationI);
+	    if (skeletonLoaded || deleted) {
+		break;
+	    }
+	    getDoor().unlockRead();
+	}
+    }
+
     /**
      * Marks the <code>FileSet</code> (and the <code>Archive</code> above it)
      * as out-of-date.
@@ -1356,7 +1863,7 @@ final class FileSet
      *		  thrown if the <code>Rmap</code> hierarchy contains
      *		  information that cannot be processed by this code.
      * @since V2.2
-     * @version 12/11/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1364,6 +1871,12 @@ final class FileSet
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Release the <code>Door</code> read lock taken by
+     *			<code>lockLoaded</code>.
+     * 10/18/2026  JRS	Check the channel index before loading the skeleton.
+     * 10/18/2026  JRS	Load the skeleton first.
+     * 10/18/2026  JRS	Use the channel index to go straight to the
+     *			<code>FrameSet</code> holding the time reference.
      * 12/11/2003  INB	Added <code>RequestOptions</code> to
      *			<code>TimeRelativeRequest</code> handling to allow the
      *			code to do the right thing for
@@ -1389,10 +1902,19 @@ final class FileSet
 
 	TimeRelativeResponse responseR = new TimeRelativeResponse();
 	responseR.setStatus(1);
-	boolean locked = false;
 
+	// When the channel index puts the time reference on the same side of
+	// the data for all of the channels, there is no need to load the
+	// skeleton to know where to go next.
+	int side = compareIndexed(requestI);
+	if ((side == -1) || (side == 1)) {
+	    responseR.setStatus(side);
+	    return (responseR);
+	}
+
+	boolean locked = false;
 	try {
-	    lockRead("FileSet.matchTimeRelative");
+	    lockLoaded("FileSet.matchTimeRelative");
 	    locked = true;
 
 	    TimeRelativeChannel trc;
@@ -1438,16 +1960,22 @@ final class FileSet
 		    (requestI + " did not match any data in a fileset.");
 
 	    case 0:
-		// Looks like the data is in this <code>FileSet</code>.
-		// Perform a binary search of the <code>FrameSets</code> found
-		// herein.
-		responseR = super.matchTimeRelative(requestI,roI);
+		// Looks like the data is in this <code>FileSet</code>.  Try
+		// the channel index first.  If it cannot pin down a single
+		// <code>FrameSet</code>, perform a binary search of the
+		// <code>FrameSets</code> found herein.
+		TimeRelativeResponse indexed = matchIndexed(requestI,roI);
+		if (indexed != null) {
+		    responseR = indexed;
+		} else {
+		    responseR = super.matchTimeRelative(requestI,roI);
+		}
 		break;
 	    }
 
 	} finally {
 	    if (locked) {
-		unlockRead();
+		getDoor().unlockRead();
 	    }
 	}
 
@@ -1460,6 +1988,87 @@ final class FileSet
 
 	return (responseR);
     }
+
+    /**
+     * Matches a <code>TimeRelativeRequest</code> using the channel index.
+     * <p>
+     * If every channel in the request has its time reference inside the
+     * same <code>FrameSet</code>, that <code>FrameSet</code> is matched
+     * directly.  Anything less certain is left to the regular binary search.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI	    the <code>TimeRelativeRequest</code>.
+     * @param roI	    the <code>RequestOptions</code>.
+     * @return the <code>TimeRelativeResponse</code> or <code>null</code> if
+     *	       the index could not find the data.
+     * @exception com.rbnb.utility.SortException
+     *		  if there is a problem locating a reference.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #matchTimeRelative(TimeRelativeRequest,RequestOptions)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final TimeRelativeResponse matchIndexed
+	(TimeRelativeRequest requestI,
+	 RequestOptions roI)
+	throws com.rbnb.utility.SortException,
+	       com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	ChannelIndex index = channelIndex;
+	if (index == null) {
+	    return (null);
+	}
+
+	com.rbnb.utility.SortedVector toMatch = requestI.getByChannel();
+	double reference = requestI.getTimeRange().getTime();
+	int position = -1;
+
+	for (int idx = 0; idx < toMatch.size(); ++idx) {
+	    TimeRelativeChannel trc =
+		(TimeRelativeChannel) toMatch.elementAt(idx);
+	    int where = index.locate
+		(trc.getChannelName().substring(requestI.getNameOffset()),
+		 reference);
+
+	    if ((where == -1) || ((idx > 0) && (where != position))) {
+		return (null);
+	    }
+	    position = where;
+	}
+
+	if ((position == -1) || (position >= getNchildren())) {
+	    return (null);
+	}
+
+	FrameSet fs = (FrameSet) getChildAt(position);
+	TimeRelativeResponse responseR = fs.matchTimeRelative(requestI,roI);
+
+	return ((responseR.getStatus() == 0) ? responseR : null);
+    }
 
     /**
      * Moves down a level in the <code>Rmap</code> hierarchy in response to a
@@ -1494,7 +2103,7 @@ final class FileSet
      *		  source <code>Rmap</code> hierarchy or in extracting the
      *		  desired information.
      * @since V2.0
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1502,6 +2111,8 @@ final class FileSet
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Check the channel index before loading the skeleton.
+     * 10/18/2026  JRS	Load the skeleton first.
      * 11/17/2003  INB	Ensure that a <code>Lock</code> is set before clearing
      *			it.
      * 11/14/2003  INB	Added location to the <code>Lock</code>.
@@ -1538,6 +2149,16 @@ final class FileSet
 	}
 	*/
 
+	if (getParent() != null) {
+	    // If the channel index shows that none of the requested channels
+	    // have data at the requested time, then there is no need to load
+	    // the skeleton.
+	    reasonR = moveDownIndexed(unsatisfiedI);
+	    if (reasonR != Rmap.MATCH_UNKNOWN) {
+		return (reasonR);
+	    }
+	}
+
 	boolean locked = false;
 	try {
 	    // Lock the door.
@@ -1547,7 +2168,7 @@ final class FileSet
 			       " moveDownFrom read lock.");
 	    */
 
-	    getDoor().lockRead("FileSet.moveDownFrom");
+	    lockLoaded("FileSet.moveDownFrom");
 	    locked = true;
 
 	    if (getParent() == null) {
@@ -1599,6 +2220,108 @@ final class FileSet
 	return (reasonR);
     }
 
+    /**
+     * Matches a request against the channel index.
+     * <p>
+     * This handles requests for existing data at absolute times whose
+     * channels are named explicitly.  If none of the channels has data in
+     * this <code>FileSet</code> that overlaps the requested time, the reason
+     * for the failed match is returned without loading the skeleton.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param unsatisfiedI  the unsatisfied <code>ExtractedChain</code>.
+     * @return the reason for a failed match or <code>MATCH_UNKNOWN</code>
+     *	       if the <code>FrameSets</code> need to be looked at.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #moveDownFrom(RmapExtractor,ExtractedChain,java.util.Vector)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final byte moveDownIndexed(ExtractedChain unsatisfiedI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	ChannelIndex index = channelIndex;
+	DataRequest inherited;
+	TimeRange tRange;
+
+	if ((index == null) ||
+	    (unsatisfiedI == null) ||
+	    (unsatisfiedI.getRequest() == null) ||
+	    ((inherited = unsatisfiedI.getInherited()) == null) ||
+	    (inherited.getFrange() != null) ||
+	    ((tRange = inherited.getTrange()) == null) ||
+	    tRange.getDirection() ||
+	    (inherited.getReference() != DataRequest.ABSOLUTE) ||
+	    (inherited.getRelationship() != DataRequest.EQUAL) ||
+	    (inherited.getMode() != DataRequest.EXISTING)) {
+	    return (Rmap.MATCH_UNKNOWN);
+	}
+
+	java.util.Vector names = new java.util.Vector();
+	if (!addIndexedNames(unsatisfiedI.getRequest(),"",names) ||
+	    (names.size() == 0)) {
+	    return (Rmap.MATCH_UNKNOWN);
+	}
+
+	double start = tRange.getTime();
+	double end = (tRange.getPtimes()[tRange.getNptimes() - 1] +
+		      tRange.getDuration());
+	byte reasonR = Rmap.MATCH_UNKNOWN;
+
+	for (int idx = 0; idx < names.size(); ++idx) {
+	    byte reason;
+
+	    switch (index.compare((String) names.elementAt(idx),start,end)) {
+	    case -1:
+		// The channel's data is all after the request.
+		reason = Rmap.MATCH_AFTER;
+		break;
+
+	    case 1:
+		// The channel's data is all before the request.
+		reason = Rmap.MATCH_BEFORE;
+		break;
+
+	    case 2:
+		// The channel is not here or has nothing at the time.
+		reason = Rmap.MATCH_NOINTERSECTION;
+		break;
+
+	    default:
+		// The channel may have data, so it needs to be looked at.
+		return (Rmap.MATCH_UNKNOWN);
+	    }
+
+	    reasonR = Rmap.combineReasons(reasonR,reason);
+	}
+
+	return (reasonR);
+    }
+
     /**
      * Nullifies this <code>FileSet</code>.
      * <p>
@@ -1610,7 +2333,7 @@ final class FileSet
      * @author Ian Brown
      *
      * @since V2.2
-     * @version 10/23/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1618,6 +2341,8 @@ final class FileSet
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Drop out of the <code>SkeletonCache</code>.
+     * 10/18/2026  JRS	Drop the channel index.
      * 10/23/2003  INB	Modified code to hold onto the files unless someone
      *			else needs to be able to open other files via the
      *			<code>LimitedResourceInterface</code>.
@@ -1627,6 +2352,8 @@ final class FileSet
     public final void nullify() {
 	boolean decrementCount = false;
 
+	SkeletonCache.forget(this);
+
 	if (openFileSets != null) {
 	    try {
 		if (files != null) {
@@ -1649,6 +2376,7 @@ final class FileSet
 	}
 
 	super.nullify();
+	channelIndex = null;
 
 	if (files != null) {
 	    try {
@@ -1685,7 +2413,7 @@ final class FileSet
      *		  thrown if the operation is interrupted.
      * @see #closeFiles()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1693,6 +2421,9 @@ final class FileSet
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Note whether the files are opened for reading only.
+     * 10/18/2026  JRS	Map the header and data files of sealed
+     *			<code>FileSets</code> when requested.
      * 11/14/2003  INB	Added identification to the <code>Door</code> and
      *			locations to the <code>Locks</code>.
      * 10/23/2003  INB	Set the <code>openFileSets</code> object.
@@ -1755,6 +2486,8 @@ final class FileSet
 		    afDelete = false;
 		}
 
+		readOnly = !os;
+
 		// Clean up any files that should be created from scratch.
 		if (afDelete) {
 		    deleteFromArchive();
@@ -1831,6 +2564,17 @@ final class FileSet
 		    dos[2] = new DataOutputStream(files[4].getRAOS(),0);
 		    dos[2].setWritten(files[4].length());
 		}
+
+		// A sealed <code>FileSet</code> is no longer written to, so
+		// its header and data files can be read straight out of
+		// memory.  Anything too big simply stays on the regular path.
+		if (MAP_ARCHIVE &&
+		    (!os ||
+		     ((getParent() instanceof Archive) &&
+		      (((Archive) getParent()).getSet() != this)))) {
+		    files[0].mapForRead(MAP_LIMIT);
+		    files[1].mapForRead(MAP_LIMIT);
+		}
 		previousOpen = true;
 	    }
 
@@ -1882,7 +2626,7 @@ final class FileSet
      *		  thrown if the operation is interrupted.
      * @see #writeToArchive()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1890,6 +2634,9 @@ final class FileSet
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Keep a channel index that already covers the
+ *			<code>FrameSets</code>.
+ * 10/18/2026  JRS	Read the channel index.
      * 11/14/2003  INB	Added identification to the <code>Door</code> and
      *			locations to the <code>Locks</code>.
      * 10/17/2003  INB	Do the file lock inside the other lock.  Access the
@@ -1950,6 +2697,15 @@ final class FileSet
 		    fs.readSkeletonFromArchive();
 		}
 
+		// Pick up the channel index, if this <code>FileSet</code> has
+		// one and the index in memory does not already cover it.
+		ChannelIndex index = channelIndex;
+		if ((index == null) ||
+		    (index.getFrameSets() != getNchildren())) {
+		    channelIndex = ChannelIndex.read(getArchiveDirectory(),
+						     getNchildren());
+		}
+
 		successR = true;
 		getDoor().setIdentification(getFullName() + "/" +
 					    getClass() + "_" +
@@ -1975,6 +2731,77 @@ final class FileSet
 	return (successR);
     }
 
+    /**
+     * Rebuilds the channel index of this <code>FileSet</code> from the
+     * <code>FrameSet</code> headers.
+     * <p>
+     * This is used for <code>FileSets</code> written before the index
+     * existed.  Only the headers are read; the data is left on disk.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #checkChannelIndex()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Keep the index even if it cannot be saved.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void rebuildChannelIndex()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	try {
+	    accessFiles();
+
+	    ChannelIndex index = new ChannelIndex();
+	    for (int idx = 0, endIdx = getNchildren(); idx < endIdx; ++idx) {
+		// Work on a copy so that the skeleton stays a skeleton.
+		FrameSet fs = (FrameSet) ((FrameSet) getChildAt(idx)).clone();
+		fs.setFileSet(this);
+		fs.setParent(this);
+		fs.readFromArchive(false);
+		fs.setRegistered(new Registration());
+		fs.setUpToDate(false);
+		fs.setLastRegistration(Long.MIN_VALUE);
+		fs.updateRegistration();
+		index.add(idx,fs.getRegistered());
+	    }
+
+	    channelIndex = index;
+	    try {
+		index.write(getArchiveDirectory(),getNchildren());
+	    } catch (java.io.IOException e) {
+		// The index can still be used while the
+		// <code>FileSet</code> is open.
+	    }
+
+	} finally {
+	    releaseFiles();
+	}
+    }
+
     /**
      * Recover the <code>FileSet</code> from its component data file pair
      * (header and data).
@@ -2307,6 +3134,67 @@ int i=0;
 	}
     }
 
+    /**
+     * Opens this <code>FileSet</code> lazily by reading just its summary
+     * <code>Registration</code>, data size, and channel index from the
+     * archive.
+     * <p>
+     * That is enough for the <code>Archive</code> to match requests against
+     * it and to account for its size.  The rest of the skeleton is read by
+     * <code>loadSkeleton</code> when a request first needs it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if this operation is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #loadSkeleton()
+     * @see #readFromArchive()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Read the channel index too.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void readSummaryFromArchive()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (!deleted) {
+	    readSkeletonFromArchive();
+	    channelIndex = ChannelIndex.read(getArchiveDirectory(),-1);
+	    skeletonLoaded = false;
+	    lazy = true;
+	    getDoor().setIdentification(getFullName() + "/" +
+					getClass() + "_" +
+					getIndex());
+	    getFileDoor().setIdentification(getFullName() + "/" +
+					    getClass() + "_" +
+					    getIndex() + "_FileDoor");
+	}
+    }
+
     /**
      * Reduces this <code>FrameSet</code> to a skeleton.
      * <p>
@@ -2363,7 +3251,7 @@ int i=0;
      *		  thrown if this operation is interrupted.
      * @see #accessFiles()
      * @since V2.0
-     * @version 10/23/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -2371,6 +3259,7 @@ int i=0;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Don't sync files opened for reading only.
      * 10/24/2012  MJM  Make sure files are sync'd fully to disk
      * 10/23/2003  INB	Modified code to hold onto the files unless someone
      *			else needs to be able to open other files via the
@@ -2387,9 +3276,12 @@ int i=0;
 	synchronized (this) {	
 	    if ((--accessCount == 0) & (openFileSets != null)) {
 		if (files != null) {
-		    for (int i=0; i<files.length; ++i) // MJM 10/12:  SYNC the files to disk!
-		    	if (files[i] != null) files[i].getFD().sync();				
-			
+		    // Files opened for reading only have nothing to sync.
+		    if (!readOnly) {
+			for (int i=0; i<files.length; ++i) // MJM 10/12:  SYNC the files to disk!
+			    if (files[i] != null) files[i].getFD().sync();
+		    }
+
 		    openFileSets.holdResource(this,files);
 		}
 		filesUsable = false;
@@ -2532,6 +3424,73 @@ int i=0;
 	}
     }
 
+    /**
+     * Unloads the skeleton of a lazily opened <code>FileSet</code>, leaving
+     * just its summary, <code>Registration</code>, and channel index.
+     * <p>
+     * The <code>FrameSets</code> are simply dropped, not nullified, so that
+     * anything still holding onto one can finish with it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #loadSkeleton()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Do nothing once nullified.
+     * 10/18/2026  JRS	Keep the channel index.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void unloadSkeleton()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	synchronized (skeletonLock) {
+	    // A <code>FileSet</code> that was nullified while waiting to be
+	    // unloaded belongs to an archive that is gone.
+	    if (!lazy || !skeletonLoaded || deleted || (getDoor() == null)) {
+		return;
+	    }
+
+	    boolean locked = false;
+	    try {
+		getDoor().lock("FileSet.unloadSkeleton");
+		locked = true;
+
+		for (int idx = getNchildren() - 1; idx >= 0; --idx) {
+		    removeChildAt(idx);
+		}
+		skeletonLoaded = false;
+
+	    } finally {
+		if (locked) {
+		    getDoor().unlock();
+		}
+	    }
+	}
+    }
+
     /**
      * Writes this <code>FileSet</code> to the archive.
      * <p>
@@ -2552,7 +3511,7 @@ int i=0;
      * @see #readOffsetsFromArchive()
      * @see #readSkeletonFromArchive()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -2560,6 +3519,7 @@ int i=0;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Write the channel index.
      * 11/14/2003  INB	Added location to the <code>Lock</code>.
      * 10/22/2003  INB	Force read/write access.
      * 10/17/2003  INB	Access the files outside of the locks and put the
@@ -2630,6 +3590,18 @@ int i=0;
 	    hos.close();
 	    hfos.close();
 
+	    // Write the channel index.  It is only an aid to finding data, so
+	    // a failure here leaves the <code>FileSet</code> without one.
+	    if (channelIndex != null) {
+		try {
+		    channelIndex.write(getArchiveDirectory(),getNchildren());
+		} catch (java.io.IOException e) {
+		    new java.io.File(getArchiveDirectory() +
+				     Archive.SEPARATOR +
+				     ChannelIndex.FILE_NAME).delete();
+		}
+	    }
+
 	    // Release the files.
 	    releaseFiles();
 	    locks[2] = false;
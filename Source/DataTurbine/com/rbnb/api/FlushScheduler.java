@@ -0,0 +1,516 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Shared scheduler for the time-based flushes of
+ * <code>StorageManagers</code>.
+ * <p>
+ * <code>StorageManagers</code> that close their sets by time (see
+ * <code>RingBuffer.setupTrimTimes</code>) used to run a thread apiece that
+ * slept for the flush interval.  Instead, they are now entered on a hashed
+ * timing wheel driven by a single ticker thread.  Each tick, the ticker looks
+ * at one slot of the wheel and hands the <code>StorageManagers</code> that
+ * are due to a small, fixed pool of worker threads, which close their
+ * current sets.
+ * <p>
+ * <code>StorageManagers</code> with the same interval are given different
+ * starting offsets within that interval, so that their flushes are spread
+ * out rather than all hitting the disk at once.  A
+ * <code>StorageManager</code> is not rescheduled until its flush has
+ * finished, so a slow disk delays flushes rather than piling them up.
+ * <p>
+ * The time taken by each flush is recorded per
+ * <code>StorageManager</code> in the <code>MetricsRegistry</code>.
+ * <p>
+ * The tick and number of workers can be set with the
+ * <code>com.rbnb.api.FlushScheduler.tick</code> (milliseconds) and
+ * <code>com.rbnb.api.FlushScheduler.workers</code> system properties.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.StorageManager
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class FlushScheduler
+    implements Runnable
+{
+    /**
+     * the number of slots in the wheel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int SLOTS = 512;
+
+    /**
+     * the length of a tick in milliseconds.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static long TICK =
+	Math.max(1L,
+		 Long.getLong("com.rbnb.api.FlushScheduler.tick",
+			      100L).longValue());
+
+    /**
+     * the number of worker threads.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int WORKERS =
+	Math.max(1,
+		 Integer.getInteger("com.rbnb.api.FlushScheduler.workers",
+				    2).intValue());
+
+    /**
+     * the shared scheduler.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static FlushScheduler scheduler = null;
+
+    /**
+     * the current tick.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long now = 0;
+
+    /**
+     * the number of <code>StorageManagers</code> scheduled so far, used to
+     * spread out their starting offsets.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long scheduled = 0;
+
+    /**
+     * the wheel: each slot holds the <code>Entries</code> due on ticks that
+     * map to it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.Vector[] wheel = new java.util.Vector[SLOTS];
+
+    /**
+     * the worker thread pool.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.ThreadPoolExecutor workers;
+
+    /**
+     * Class constructor.
+     * <p>
+     * Starts the ticker thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private FlushScheduler() {
+	super();
+	for (int idx = 0; idx < SLOTS; ++idx) {
+	    wheel[idx] = new java.util.Vector();
+	}
+	workers = new java.util.concurrent.ThreadPoolExecutor
+	    (WORKERS,
+	     WORKERS,
+	     60L,
+	     java.util.concurrent.TimeUnit.SECONDS,
+	     new java.util.concurrent.LinkedBlockingQueue(),
+	     new java.util.concurrent.ThreadFactory() {
+		 private int count = 0;
+
+		 public final synchronized Thread newThread(Runnable runnableI)
+		 {
+		     Thread threadR = new ThreadWithLocks
+			 (runnableI,"FlushScheduler.worker." + count++);
+		     threadR.setDaemon(true);
+		     return (threadR);
+		 }
+	     });
+
+	Thread ticker = new Thread(this,"FlushScheduler.ticker");
+	ticker.setDaemon(true);
+	ticker.start();
+    }
+
+    /**
+     * Puts an <code>Entry</code> on the wheel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param entryI the <code>Entry</code>.
+     * @param delayI the delay in ticks (at least one).
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final synchronized void add(Entry entryI,long delayI) {
+	entryI.due = now + Math.max(1L,delayI);
+	wheel[(int) (entryI.due%SLOTS)].addElement(entryI);
+    }
+
+    /**
+     * Flushes a <code>StorageManager</code> and reschedules it if it is
+     * still in use.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param entryI the <code>Entry</code> for the
+     *		     <code>StorageManager</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void flush(Entry entryI) {
+	StorageManager manager = entryI.manager;
+	long startAt = System.nanoTime();
+
+	manager.close();
+
+	if (manager.getParent() == null) {
+	    // The <code>StorageManager</code> has been dropped (or was never
+	    // attached, which is how the old flush thread behaved too).
+	    if (entryI.label != null) {
+		MetricsRegistry.getDefault().remove
+		    (MetricsRegistry.STORAGE_FLUSH,entryI.label);
+	    }
+	    return;
+	}
+
+	if (entryI.latency == null) {
+	    try {
+		entryI.label =
+		    manager.getParent().getFullName() + "/" +
+		    ((manager instanceof Cache) ? "cache" : "archive");
+		entryI.latency = MetricsRegistry.getDefault().histogram
+		    (MetricsRegistry.STORAGE_FLUSH,entryI.label);
+	    } catch (java.lang.Exception e) {
+		entryI.label = null;
+	    }
+	}
+	if (entryI.latency != null) {
+	    entryI.latency.observeNanos(System.nanoTime() - startAt);
+	}
+
+	add(entryI,entryI.period);
+    }
+
+    /**
+     * Gets the shared scheduler, creating it if necessary.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the scheduler.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static synchronized FlushScheduler getDefault() {
+	if (scheduler == null) {
+	    scheduler = new FlushScheduler();
+	}
+
+	return (scheduler);
+    }
+
+    /**
+     * Runs the ticker.
+     * <p>
+     * Ticks are counted from the start time rather than from the end of the
+     * previous tick, so the wheel does not drift.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void run() {
+	long startAt = System.currentTimeMillis();
+	java.util.Vector due = new java.util.Vector();
+
+	while (true) {
+	    long sleepFor;
+	    synchronized (this) {
+		sleepFor = startAt + (now + 1)*TICK - System.currentTimeMillis();
+	    }
+	    if (sleepFor > 0) {
+		try {
+		    Thread.sleep(sleepFor);
+		} catch (java.lang.InterruptedException e) {
+		}
+		continue;
+	    }
+
+	    synchronized (this) {
+		++now;
+		java.util.Vector slot = wheel[(int) (now%SLOTS)];
+		for (int idx = 0; idx < slot.size(); ) {
+		    Entry entry = (Entry) slot.elementAt(idx);
+		    if (entry.due <= now) {
+			slot.removeElementAt(idx);
+			due.addElement(entry);
+		    } else {
+			++idx;
+		    }
+		}
+	    }
+
+	    for (int idx = 0; idx < due.size(); ++idx) {
+		final Entry entry = (Entry) due.elementAt(idx);
+		workers.execute(new Runnable() {
+		    public final void run() {
+			flush(entry);
+		    }
+		});
+	    }
+	    due.removeAllElements();
+	}
+    }
+
+    /**
+     * Schedules a <code>StorageManager</code> to be flushed periodically.
+     * <p>
+     * The first flush happens somewhere within the first period, at an
+     * offset chosen to spread <code>StorageManagers</code> with the same
+     * period evenly.  Flushing stops once the <code>StorageManager</code>
+     * no longer has a parent.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param managerI the <code>StorageManager</code>.
+     * @param periodI  the flush period in milliseconds.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void schedule(StorageManager managerI,long periodI) {
+	Entry entry = new Entry(managerI,
+				Math.max(1L,(periodI + TICK/2)/TICK));
+
+	// Golden ratio spacing keeps the offsets well spread no matter how
+	// many <code>StorageManagers</code> there are.
+	double fraction = (scheduled++*0.6180339887498949)%1.;
+	add(entry,1 + (long) (fraction*entry.period));
+    }
+
+    /**
+     * A <code>StorageManager</code> on the wheel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static class Entry {
+
+	/**
+	 * the tick on which the flush is due.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	long due = 0;
+
+	/**
+	 * the label of <code>latency</code> in the
+	 * <code>MetricsRegistry</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	String label = null;
+
+	/**
+	 * the flush latency, in the <code>MetricsRegistry</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	MetricsRegistry.Histogram latency = null;
+
+	/**
+	 * the <code>StorageManager</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final StorageManager manager;
+
+	/**
+	 * the flush period in ticks.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final long period;
+
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param managerI the <code>StorageManager</code>.
+	 * @param periodI  the flush period in ticks.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	Entry(StorageManager managerI,long periodI) {
+	    manager = managerI;
+	    period = periodI;
+	}
+    }
+}
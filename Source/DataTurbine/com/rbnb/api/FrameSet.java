@@ -37,6 +37,10 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Write closed sets behind when the
+ *			<code>ArchiveWriter</code> is enabled.
+ * 10/18/2026  JRS	Record archive write latency in the
+ *			<code>MetricsRegistry</code>.
  * 11/08/2006  EMF      Use markers on archive recovery to reduce memory needs.
  * 01/06/2004  INB	The <code>reduceToSkeleton</code> method always does
  *			the reduction, after ensuring that a parent is
@@ -177,6 +181,20 @@ final class FrameSet
 
     private final static int  ARC_FST = 0;
     /*private*/ final static int  ARC_REG = 1;
+
+    /**
+     * the time taken to write to the archive, in the
+     * <code>MetricsRegistry</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static MetricsRegistry.Histogram FLUSH_LATENCY =
+	MetricsRegistry.getDefault().histogram(MetricsRegistry.ARCHIVE_FLUSH,
+					       null);
 
     /**
      * Class constructor.
@@ -553,7 +571,7 @@ final class FrameSet
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 02/19/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -561,6 +579,10 @@ final class FrameSet
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Give the <code>ArchiveWriter</code> the
+     *			<code>RingBuffer</code>, whose locks it writes under.
+     * 10/18/2026  JRS	Hand off to the <code>ArchiveWriter</code> when
+     *			write-behind is on.
      * 02/19/2003  INB	Our grandparent is now a <code>RingBuffer</code>.
      * 06/05/2001  INB	Created.
      *
@@ -579,10 +601,16 @@ final class FrameSet
         //da = null;
 
 	// If there is an <code>Archive</code>, then write this
-	// <code>FrameSet</code> to it.
-	if (((RingBuffer) getParent().getParent()).getArchive() != null) {
-	    ((RingBuffer)
-	     getParent().getParent()).getArchive().addElement(this);
+	// <code>FrameSet</code> to it, or leave that to its
+	// <code>ArchiveWriter</code>.
+	RingBuffer ringBuffer = (RingBuffer) getParent().getParent();
+	Archive archive = ringBuffer.getArchive();
+	if (archive != null) {
+	    if (ArchiveWriter.QUEUE > 0) {
+		ArchiveWriter.forArchive(archive).submit(ringBuffer,this);
+	    } else {
+		archive.addElement(this);
+	    }
 	}
     }
 
@@ -1953,7 +1981,7 @@ lastRegistrationIndex=-1;
      * @see #readOffsetsFromArchive()
      * @see #readSkeletonFromArchive()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1961,6 +1989,8 @@ lastRegistrationIndex=-1;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Record the time taken in the
+     *			<code>MetricsRegistry</code>.
      * 11/14/2003  INB	Added location to the <code>Lock</code>.
      * 10/22/2003  INB	Force read/write access.
      * 10/17/2003  INB	Access the files outside of locks and put the file lock
@@ -1983,6 +2013,7 @@ lastRegistrationIndex=-1;
 	       java.lang.InterruptedException
     {
 	boolean[] locks = new boolean[3];
+	long startAt = System.nanoTime();
 	// System.err.println("FrameSet.writeToArchive() start\n" + this);
 	try {
 	    // Ask the <code>FileSet</code> to mark the archive as out of date.
@@ -2077,6 +2108,7 @@ try{Thread.currentThread().sleep(1);}catch(Exception e){}
 		getFileSet().releaseFiles();
 	    }
 	}
+	FLUSH_LATENCY.observeNanos(System.nanoTime() - startAt);
 	// System.err.println("FrameSet.writeToArchive() end\n" + this);
     }
 }
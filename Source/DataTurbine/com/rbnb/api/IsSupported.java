@@ -23,7 +23,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 07/30/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -33,6 +33,10 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added FEATURE_COMPACT_TIMES.
+ * 10/18/2026  JRS	Added FEATURE_DECIMATION_PYRAMIDS.
+ * 10/18/2026  JRS	Added FEATURE_REGISTRATION_VERSIONS.
+ * 10/18/2026  JRS	Added FEATURE_FRAMED_PROTOCOL.
  * 07/30/2004  INB	FEATURE_ASK_NO_JAVA_SERIALIZE is not supported prior to
  *			V2.4.3.
  * 01/08/2004  INB	FEATURE_CLEAR_CACHE is not supported prior to V2.2.
@@ -74,6 +78,30 @@ final class IsSupported {
      */
     public final static int FEATURE_CLEAR_CACHE = 9;
 
+    /**
+     * can <code>TimeRanges</code> be sent as regular or delta-encoded times?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.TimeRange
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static int FEATURE_COMPACT_TIMES = 14;
+
+    /**
+     * can requests ask for data decimated to a maximum number of samples?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.RequestOptions#setMaxSamples(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static int FEATURE_DECIMATION_PYRAMIDS = 13;
+
     /**
      * are <code>DeleteChannels</code> supported?
      * <p>
@@ -85,6 +113,18 @@ final class IsSupported {
      */
     public final static int FEATURE_DELETE_CHANNELS = 6;
 
+    /**
+     * can the connection be switched to the framed wire protocol?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.WireProtocol
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static int FEATURE_FRAMED_PROTOCOL = 11;
+
     /**
      * are <code>RequestOptions.extendStart</code> settings supported?
      * <p>
@@ -107,6 +147,18 @@ final class IsSupported {
      */
     public final static int FEATURE_PINGS_WITH_DATA = 4;
 
+    /**
+     * can the registration changed since a version be requested?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.Ask#REGISTEREDSINCE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static int FEATURE_REGISTRATION_VERSIONS = 12;
+
     /**
      * aligned requests allowed?
      * <p>
@@ -180,9 +232,9 @@ final class IsSupported {
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 07/30/2004
+     * @version 10/18/2026
      */
-    private static java.util.Date[] Feature_Dates = new java.util.Date[11];
+    private static java.util.Date[] Feature_Dates = new java.util.Date[15];
 
     /**
      * Determines if the specified feature is supported.
@@ -194,7 +246,7 @@ final class IsSupported {
      * @param buildVersionI the version to check.
      * @param buildDateI    the date to check.
      * @since V2.0
-     * @version 07/30/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -202,6 +254,14 @@ final class IsSupported {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	FEATURE_COMPACT_TIMES is not supported prior to
+     *			Oct 18 2026.
+     * 10/18/2026  JRS	FEATURE_DECIMATION_PYRAMIDS is not supported prior to
+     *			Oct 18 2026.
+     * 10/18/2026  JRS	FEATURE_REGISTRATION_VERSIONS is not supported prior
+     *			to Oct 18 2026.
+     * 10/18/2026  JRS	FEATURE_FRAMED_PROTOCOL is not supported prior to
+     *			Oct 18 2026.
      * 07/30/2004  INB	FEATURE_ASK_NO_JAVA_SERIALIZE is not supported prior to
      *			V2.4.3.
      * 01/08/2004  INB	FEATURE_CLEAR_CACHE is not supported prior to V2.2.
@@ -237,6 +297,42 @@ final class IsSupported {
 		} catch (java.text.ParseException e) {
 		    throw new java.lang.Error();
 		}
+		try {
+		    Feature_Dates[FEATURE_FRAMED_PROTOCOL] =
+			((new java.text.SimpleDateFormat
+			    ("MMM dd yyyy",
+			     java.util.Locale.US)).parse
+			 ("Oct 18 2026"));
+		} catch (java.text.ParseException e) {
+		    throw new java.lang.Error();
+		}
+		try {
+		    Feature_Dates[FEATURE_COMPACT_TIMES] =
+			((new java.text.SimpleDateFormat
+			    ("MMM dd yyyy",
+			     java.util.Locale.US)).parse
+			 ("Oct 18 2026"));
+		} catch (java.text.ParseException e) {
+		    throw new java.lang.Error();
+		}
+		try {
+		    Feature_Dates[FEATURE_DECIMATION_PYRAMIDS] =
+			((new java.text.SimpleDateFormat
+			    ("MMM dd yyyy",
+			     java.util.Locale.US)).parse
+			 ("Oct 18 2026"));
+		} catch (java.text.ParseException e) {
+		    throw new java.lang.Error();
+		}
+		try {
+		    Feature_Dates[FEATURE_REGISTRATION_VERSIONS] =
+			((new java.text.SimpleDateFormat
+			    ("MMM dd yyyy",
+			     java.util.Locale.US)).parse
+			 ("Oct 18 2026"));
+		} catch (java.text.ParseException e) {
+		    throw new java.lang.Error();
+		}
 		try {
 		    Feature_Dates[FEATURE_CLEAR_CACHE] =
 			((new java.text.SimpleDateFormat
@@ -340,6 +436,26 @@ final class IsSupported {
 		// Entries in this switch should be added at the top and should
 		// fall through.
 
+	    case FEATURE_COMPACT_TIMES:
+		featureAt = Math.max
+		    (featureAt,
+		     Feature_Dates[FEATURE_COMPACT_TIMES].getTime());
+
+	    case FEATURE_DECIMATION_PYRAMIDS:
+		featureAt = Math.max
+		    (featureAt,
+		     Feature_Dates[FEATURE_DECIMATION_PYRAMIDS].getTime());
+
+	    case FEATURE_REGISTRATION_VERSIONS:
+		featureAt = Math.max
+		    (featureAt,
+		     Feature_Dates[FEATURE_REGISTRATION_VERSIONS].getTime());
+
+	    case FEATURE_FRAMED_PROTOCOL:
+		featureAt = Math.max
+		    (featureAt,
+		     Feature_Dates[FEATURE_FRAMED_PROTOCOL].getTime());
+
 	    case FEATURE_ASK_NO_JAVA_SERIALIZE:
 		if (buildVersionI.startsWith("V2.3") ||
 		    buildVersionI.equals("V2.4") ||
@@ -29,7 +29,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 01/08/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -40,6 +40,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added data stream compression.
+ * 10/18/2026  JRS	Added the framed wire protocol.
  * 07/23/2007  WHF  Added Get/SetAddressAuthorization.
  * 01/08/2004  INB	Added support for <code>ClearCache</code>.
  * 07/30/2003  INB	Added support for <code>DeleteChannels</code>.
@@ -96,7 +98,8 @@ class Language
 			COM_DLC = 33,
 			COM_CLC = 34,
 			COM_GAA = 35,
-			COM_SAA = 36;
+			COM_SAA = 36,
+			COM_WPR = 37;
 
     final static String[] COMMANDS = {
 			    "ACK",
@@ -135,9 +138,61 @@ class Language
 			    "DLC",
 			    "CLC",
 				"GAA",
-				"SAA"
+				"SAA",
+			    "WPR"
 			};
 
+    /**
+     * the size of the fixed header at the start of each frame in the framed
+     * protocol.
+     * <p>
+     * The header is laid out as follows:
+     * <p><ul>
+     * <li>bytes 0-3: the length of the control body that follows,</li>
+     * <li>byte 4: the protocol version,</li>
+     * <li>byte 5: the command (one of the <code>COM_</code> values),</li>
+     * <li>byte 6: flags (<code>FRAME_SELF_CONTAINED</code>),</li>
+     * <li>byte 7: the compression of the data body (one of the
+     *     <code>Client.COMPRESS_</code> values), and</li>
+     * <li>bytes 8-11: the length of the data body.</li>
+     * </ul><p>
+     * The control body is sent on the control stream immediately after the
+     * header.  The data body is sent on the data stream.  A compressed data
+     * body starts with its uncompressed length.  Lengths are in network byte
+     * order.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.WireProtocol#FRAMED
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int FRAME_HEADER = 12;
+
+    /**
+     * frame flag: the frame was not written relative to the previous
+     * <code>Rmap</code>, so it can be decoded (or forwarded) on its own.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static byte FRAME_SELF_CONTAINED = 0x01;
+
+    /**
+     * the smallest data body that is compressed.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int MIN_COMPRESS = 64;
+
     // Private fields:
     /**
      * the input data stream.
@@ -193,6 +248,215 @@ class Language
      * @version 05/09/2001
      */
     private OutputStream outputControl = null;
+
+    /**
+     * the compression used for the data bodies of frames written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int compression = Client.COMPRESS_NONE;
+
+    /**
+     * the coder used to compress and decompress data bodies.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Compressor compressor = null;
+
+    /**
+     * buffer for compressed data bodies read.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] compressedI = null;
+
+    /**
+     * buffer for compressed data bodies written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] compressedO = null;
+
+    /**
+     * metrics: bytes transferred on closed data streams.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long metricsDataBytes = 0;
+
+    /**
+     * metrics: bytes saved by compressing data bodies.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long metricsSavedBytes = 0;
+
+    /**
+     * the data body of the last frame read.
+     * <p>
+     * This is consumed by <code>readData</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataInputStream frameIdata = null;
+
+    /**
+     * the control input stream for the body of the current frame.
+     * <p>
+     * This reads from <code>frameIsource</code>.  It is built once, as
+     * switching an <code>InputStream</code> to binary mode consumes the
+     * mode switch marker.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private InputStream frameIcontrol = null;
+
+    /**
+     * the source of <code>frameIcontrol</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private FrameInputStream frameIsource = null;
+
+    /**
+     * buffer for the control body of frames read.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] frameIbody = null;
+
+    /**
+     * buffer for the data body of frames read.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] frameIdataBody = null;
+
+    /**
+     * the header of the last frame read.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] frameIheader = null;
+
+    /**
+     * buffer for the control body of frames written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.io.ByteArrayOutputStream frameObody = null;
+
+    /**
+     * the control stream used to encode frames.
+     * <p>
+     * This writes into <code>frameObody</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private OutputStream frameOcontrol = null;
+
+    /**
+     * the data stream used to encode frames.
+     * <p>
+     * This writes into <code>frameOdataBody</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataOutputStream frameOdata = null;
+
+    /**
+     * buffer for the data body of frames written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private FrameOutputStream frameOdataBody = null;
+
+    /**
+     * the header of the frame being written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] frameOheader = null;
+
+    /**
+     * the wire protocol in use.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.WireProtocol
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int protocol = WireProtocol.LEGACY;
 
     /**
      * Class constructor.
@@ -359,7 +623,7 @@ class Language
      * @exception java.io.IOException
      *		  thrown if there is a problem closing the streams.
      * @since V2.0
-     * @version 11/19/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -367,6 +631,8 @@ class Language
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Close the <code>Compressor</code> and count data stream
+     *			bytes.
      * 03/05/2001  INB	Created.
      *
      */
@@ -380,6 +646,7 @@ class Language
 	}
 	if (getIdata() != null) {
 	    metricsBytes += getIdata().getRead();
+	    metricsDataBytes += getIdata().getRead();
 	    getIdata().close();
 	    setIdata(null);
 	}
@@ -390,11 +657,51 @@ class Language
 	}
 	if (getOdata() != null) {
 	    metricsBytes += getOdata().getWritten();
+	    metricsDataBytes += getOdata().getWritten();
 	    getOdata().close();
 	    setOdata(null);
 	}
+	if (compressor != null) {
+	    compressor.close();
+	}
     }
 
+    /**
+     * Calculates the number of bytes transferred on the data streams.
+     * <p>
+     * This is the size after compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes transferred.
+     * @see #uncompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final long compressedBytes() {
+	long bytesR = metricsDataBytes;
+
+	if (getIdata() != null) {
+	    bytesR += getIdata().getRead();
+	}
+	if (getOdata() != null) {
+	    bytesR += getOdata().getWritten();
+	}
+
+	return (bytesR);
+    }
+
+
     /**
      * Returns an <code>Serializable</code> exception message for the input
      * <code>Exception</code>.
@@ -420,6 +727,60 @@ class Language
 	return (new ExceptionMessage(exceptionI));
     }
 
+    /**
+     * Gets the compression used for the data bodies of frames written.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the compression mode.
+     * @see #setCompression(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int getCompression() {
+	return (compression);
+    }
+
+
+    /**
+     * Gets a four byte integer from a frame header.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param headerI the frame header.
+     * @param offsetI the offset of the integer.
+     * @return the integer.
+     * @see #setFrameInt(byte[],int,int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static int getFrameInt(byte[] headerI,int offsetI) {
+	return (((headerI[offsetI] & 0xff) << 24) |
+		((headerI[offsetI + 1] & 0xff) << 16) |
+		((headerI[offsetI + 2] & 0xff) << 8) |
+		(headerI[offsetI + 3] & 0xff));
+    }
+
     /**
      * Gets the input control stream.
      * <p>
@@ -515,6 +876,30 @@ class Language
     final DataOutputStream getOdata() {
 	return (outputData);
     }
+
+    /**
+     * Gets the wire protocol in use.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the protocol version.
+     * @see #setProtocol(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int getProtocol() {
+	return (protocol);
+    }
 
     /**
      * Identifies the input object by returning the command to use to transmit
@@ -526,7 +911,7 @@ class Language
      * @param objectI the object in question.
      * @return the command index.
      * @since V2.0
-     * @version 01/08/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -534,6 +919,7 @@ class Language
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added support for <code>WireProtocol</code>.
      * 01/08/2004  INB	Added support for <code>ClearCache</code>.
      * 07/30/2003  INB	Added support for <code>DeleteChannels</code>.
      * 06/11/2003  INB	Added support for <code>RequestOptions</code>.
@@ -611,6 +997,8 @@ class Language
 		commandR = COM_GAA;
 	    } else if (objectI instanceof SetAddressAuthorization) {
 		commandR = COM_SAA;
+	    } else if (objectI instanceof WireProtocol) {
+		commandR = COM_WPR;
 		
 
 	    } else if (objectI instanceof Rmap) {
@@ -926,7 +1314,7 @@ class Language
      *		  thrown if the read is interrupted.
      * @see #write(com.rbnb.api.Serializable,com.rbnb.api.Rmap)
      * @since V2.0
-     * @version 01/15/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -934,6 +1322,7 @@ class Language
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Read a frame when the framed protocol is in use.
      * 01/09/2001  INB	Created.
      *
      */
@@ -945,7 +1334,12 @@ class Language
 	       java.io.IOException,
 	       java.lang.InterruptedException
     {
-	Serializable objectR = read(otherI,getIcontrol(),getIdata());
+	Serializable objectR;
+	if (getProtocol() == WireProtocol.FRAMED) {
+	    objectR = readFramed(otherI);
+	} else {
+	    objectR = read(otherI,getIcontrol(),getIdata());
+	}
 	if (objectR == null) {
 	    throw new com.rbnb.api.SerializeException
 		("Software error:\nUnrecognized command received.");
@@ -1025,7 +1419,7 @@ class Language
      *		  thrown if the read is interrupted.
      * @see #writeData(com.rbnb.api.Serializable)
      * @since V2.0
-     * @version 02/25/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1033,6 +1427,8 @@ class Language
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the data body of the frame when the framed protocol
+     *			is in use.
      * 02/25/2003  INB	Added support for <code>Pings</code> with data.
      * 08/15/2001  INB	Created.
      *
@@ -1044,21 +1440,224 @@ class Language
 	       java.io.IOException,
 	       java.lang.InterruptedException
     {
-	if (getIdata() != null) {
+	DataInputStream dis;
+	if (getProtocol() == WireProtocol.FRAMED) {
+	    // The data body was read along with the frame.
+	    dis = frameIdata;
+	    frameIdata = null;
+	} else {
+	    dis = getIdata();
+	}
+
+	if (dis != null) {
 	    if (objectI instanceof Ping) {
-		((Ping) objectI).readData(getIdata());
+		((Ping) objectI).readData(dis);
 	    } else if (objectI instanceof Rmap) {
-		((Rmap) objectI).readData(getIdata());
+		((Rmap) objectI).readData(dis);
 	    } else if (objectI instanceof RoutedMessage) {
-		((RoutedMessage) objectI).readData(getIdata());
+		((RoutedMessage) objectI).readData(dis);
 	    } else if (objectI instanceof RSVP) {
-		((RSVP) objectI).readData(getIdata());
+		((RSVP) objectI).readData(dis);
 	    } else if (objectI instanceof Register) {
-		((Register) objectI).readData(getIdata());
+		((Register) objectI).readData(dis);
+	    }
+	}
+    }
+
+    /**
+     * Reads the next frame without decoding it.
+     * <p>
+     * The frame is returned as its header, followed by its control body and
+     * its data body, and can be passed to <code>writeFrame</code> on another
+     * connection using the framed protocol.  Frames that are not marked
+     * <code>FRAME_SELF_CONTAINED</code> were written relative to the
+     * previous <code>Rmap</code> on this connection, so they can only be
+     * decoded by a reader that has seen that <code>Rmap</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the frame.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if the frame header is bad.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error reading the input streams.
+     * @see #skipFrame()
+     * @see #writeFrame(byte[])
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final byte[] readFrame()
+	throws com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException
+    {
+	readFrameHeader();
+	int length = getFrameInt(frameIheader,0),
+	    dataLength = getFrameInt(frameIheader,8);
+	byte[] frameR = new byte[FRAME_HEADER + length + dataLength];
+
+	System.arraycopy(frameIheader,0,frameR,0,FRAME_HEADER);
+	if (length > 0) {
+	    getIcontrol().readFully(frameR,FRAME_HEADER,length);
+	}
+	if (dataLength > 0) {
+	    getIdata().readFully(frameR,FRAME_HEADER + length,dataLength);
+	}
+
+	return (frameR);
+    }
+
+    /**
+     * Reads the header of the next frame into <code>frameIheader</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if the frame header is bad.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error reading the input stream.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Check the compression.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void readFrameHeader()
+	throws com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException
+    {
+	getIcontrol().readFully(frameIheader,0,FRAME_HEADER);
+	if ((frameIheader[4] != getProtocol()) ||
+	    (frameIheader[7] < Client.COMPRESS_NONE) ||
+	    (frameIheader[7] > Client.COMPRESS_DEFLATE) ||
+	    (getFrameInt(frameIheader,0) < 0) ||
+	    (getFrameInt(frameIheader,8) < 0)) {
+	    throw new com.rbnb.api.SerializeException
+		("Lost frame synchronization with the remote side.");
+	}
+    }
+
+    /**
+     * Reads a <code>Serializable</code> object from the next frame.
+     * <p>
+     * The control and data bodies are each read in a single operation and
+     * then decoded from memory.  The data body is held for
+     * <code>readData</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param otherI the other <code>Rmap</code>.
+     * @return the <code>Serializable</code> object read.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.lang.InterruptedIOException
+     *		  thrown if the read is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is an error reading the input stream.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the read is interrupted.
+     * @see #writeFramed(com.rbnb.api.Serializable,com.rbnb.api.Rmap)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Expand compressed data bodies.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final Serializable readFramed(Rmap otherI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	readFrameHeader();
+	int length = getFrameInt(frameIheader,0),
+	    dataLength = getFrameInt(frameIheader,8);
+
+	if (frameIbody.length < length) {
+	    frameIbody = new byte[Math.max(length,2*frameIbody.length)];
+	}
+	if (length > 0) {
+	    getIcontrol().readFully(frameIbody,0,length);
+	}
+
+	if (frameIheader[7] != Client.COMPRESS_NONE) {
+	    // Read the compressed data body and expand it.
+	    if ((compressedI == null) || (compressedI.length < dataLength)) {
+		compressedI = new byte[Math.max(dataLength,1024)];
+	    }
+	    getIdata().readFully(compressedI,0,dataLength);
+	    int compressedLength = dataLength - 4;
+	    dataLength = getFrameInt(compressedI,0);
+	    if ((compressedLength < 0) || (dataLength < 0)) {
+		throw new com.rbnb.api.SerializeException
+		    ("Lost frame synchronization with the remote side.");
+	    }
+	    if (frameIdataBody.length < dataLength) {
+		frameIdataBody =
+		    new byte[Math.max(dataLength,2*frameIdataBody.length)];
+	    }
+	    compressor.decompress(frameIheader[7],
+				  compressedI,
+				  4,
+				  compressedLength,
+				  frameIdataBody,
+				  0,
+				  dataLength);
+	    metricsSavedBytes += dataLength - compressedLength - 4;
+
+	} else {
+	    if (frameIdataBody.length < dataLength) {
+		frameIdataBody =
+		    new byte[Math.max(dataLength,2*frameIdataBody.length)];
+	    }
+	    if (dataLength > 0) {
+		getIdata().readFully(frameIdataBody,0,dataLength);
 	    }
 	}
+	frameIdata = new DataInputStream
+	    (new java.io.ByteArrayInputStream(frameIdataBody,0,dataLength));
+	frameIsource.setFrame(frameIbody,length);
+
+	return (read(otherI,frameIcontrol,frameIdata));
     }
-
+
     /**
      * Reads an object from the specified streams.
      * <p>
@@ -1221,7 +1820,7 @@ class Language
      *		  thrown if the read is interrupted.
      * @see #writeObject(java.lang.Object,com.rbnb.api.Rmap,com.rbnb.api.OutputStream,com.rbnb.api.DataOutputStream)
      * @since V2.0
-     * @version 01/08/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1229,6 +1828,7 @@ class Language
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added support for <code>WireProtocol</code>.
      * 01/08/2004  INB	Added support for <code>ClearCache</code>.
      * 07/30/2003  INB	Added support for <code>DeleteChannels</code>.
      * 06/11/2003  INB	Added support for <code>RequestOptions</code>.
@@ -1388,6 +1988,10 @@ class Language
 	case COM_SAA:
 	    objectR = new SetAddressAuthorization(isI, disI);
 	    break;
+
+	case COM_WPR:
+	    objectR = new WireProtocol(isI,disI);
+	    break;
 	}
 
 	if (objectR == null) {
@@ -1554,6 +2158,69 @@ class Language
 	return (vectorR);
     }
 
+    /**
+     * Sets the compression used for the data bodies of frames written.
+     * <p>
+     * Compression applies only to the framed protocol.  Each data body is
+     * compressed on its own, and is sent uncompressed if it is small or if
+     * compressing it does not make it smaller.  Frames read are expanded
+     * according to their headers, whatever this is set to.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param compressionI the compression mode.
+     * @see #getCompression()
+     * @see com.rbnb.api.Compressor
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void setCompression(int compressionI) {
+	compression = compressionI;
+    }
+
+
+    /**
+     * Puts a four byte integer into a frame header.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param headerI the frame header.
+     * @param offsetI the offset of the integer.
+     * @param valueI  the integer.
+     * @see #getFrameInt(byte[],int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static void setFrameInt(byte[] headerI,
+					  int offsetI,
+					  int valueI)
+    {
+	headerI[offsetI] = (byte) (valueI >>> 24);
+	headerI[offsetI + 1] = (byte) (valueI >>> 16);
+	headerI[offsetI + 2] = (byte) (valueI >>> 8);
+	headerI[offsetI + 3] = (byte) valueI;
+    }
+
     /**
      * Sets the input control stream.
      * <p>
@@ -1649,6 +2316,101 @@ class Language
     final void setOdata(DataOutputStream outputDataI) {
 	outputData = outputDataI;
     }
+
+    /**
+     * Sets the wire protocol to use.
+     * <p>
+     * Both sides of a connection must switch at the same point in the
+     * message stream.  The switch is negotiated with a
+     * <code>WireProtocol</code> message, which is itself sent using the
+     * legacy protocol.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param protocolI the protocol version.
+     * @see #getProtocol()
+     * @see com.rbnb.api.WireProtocol
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Create the <code>Compressor</code>.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void setProtocol(int protocolI)
+	throws java.io.IOException
+    {
+	if ((protocolI == WireProtocol.FRAMED) && (frameOcontrol == null)) {
+	    frameIheader = new byte[FRAME_HEADER];
+	    frameIbody = new byte[1024];
+	    frameIsource = new FrameInputStream();
+	    frameIcontrol = new InputStream(frameIsource,true,0);
+	    frameIdataBody = new byte[1024];
+	    frameOheader = new byte[FRAME_HEADER];
+	    frameObody = new java.io.ByteArrayOutputStream(1024);
+	    frameOcontrol = new OutputStream(frameObody,true,0);
+	    frameOdataBody = new FrameOutputStream();
+	    compressor = new Compressor();
+	    frameOdata = new DataOutputStream(frameOdataBody);
+	}
+	protocol = protocolI;
+    }
+
+    /**
+     * Skips the next frame without decoding it.
+     * <p>
+     * The next frame that is not marked <code>FRAME_SELF_CONTAINED</code>
+     * may have been written relative to the skipped frame and therefore
+     * cannot be decoded.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the command of the skipped frame.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if the frame header is bad.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error reading the input streams.
+     * @see #readFrame()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int skipFrame()
+	throws com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException
+    {
+	readFrameHeader();
+	int length = getFrameInt(frameIheader,0),
+	    dataLength = getFrameInt(frameIheader,8);
+
+	if ((length > 0) && (getIcontrol().skipBytes(length) < length)) {
+	    throw new java.io.EOFException();
+	}
+	if ((dataLength > 0) && (getIdata().skipBytes(dataLength) < dataLength)) {
+	    throw new java.io.EOFException();
+	}
+
+	return (frameIheader[5]);
+    }
 
     /**
      * Throws the exception contained in an <code>ExceptionMessage</code>.
@@ -1765,6 +2527,32 @@ class Language
 	}
     }
 
+    /**
+     * Calculates the number of bytes transferred on the data streams before
+     * compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #compressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final long uncompressedBytes() {
+	return (compressedBytes() + metricsSavedBytes);
+    }
+
+
     /**
      * Writes out the input <code>Serializable</code> object.
      * <p>
@@ -1829,7 +2617,7 @@ class Language
      *		  thrown if the write is interrupted.
      * @see #read(com.rbnb.api.Rmap)
      * @since V2.0
-     * @version 11/06/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -1837,6 +2625,7 @@ class Language
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Write a frame when the framed protocol is in use.
      * 01/09/2001  INB	Created.
      *
      */
@@ -1854,13 +2643,15 @@ if (getOcontrol() == null) {
 }
 	*/
 
-	write(objectI,
-	      (((otherI != null) &&
-		(otherI.getClass() == objectI.getClass())) ?
-		otherI :
-		null),
-	      getOcontrol(),
-	      getOdata());
+	Rmap other = (((otherI != null) &&
+		       (otherI.getClass() == objectI.getClass())) ?
+		      otherI :
+		      null);
+	if (getProtocol() == WireProtocol.FRAMED) {
+	    writeFramed(objectI,other);
+	} else {
+	    write(objectI,other,getOcontrol(),getOdata());
+	}
     }
 
     /**
@@ -1932,7 +2723,7 @@ if (getOcontrol() == null) {
      *		  thrown if the write is interrupted.
      * @see #readData(com.rbnb.api.Serializable)
      * @since V2.0
-     * @version 02/25/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1940,6 +2731,7 @@ if (getOcontrol() == null) {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	The framed protocol sends the data with the frame.
      * 02/25/2003  INB	Write <code>Pings</code> with data.
      * 08/15/2001  INB	Created.
      *
@@ -1951,27 +2743,200 @@ if (getOcontrol() == null) {
 	       java.io.IOException,
 	       java.lang.InterruptedException
     {
-	if (getOdata() != null) {
-	    if (objectI instanceof Ping) {
-		if (IsSupported.isSupported
-		    (IsSupported.FEATURE_PINGS_WITH_DATA,
-		     getOcontrol().getBuildVersion(),
-		     getOcontrol().getBuildDate())) {
-		    ((Ping) objectI).writeData(getOdata());
-		}
-	    } else if (objectI instanceof Rmap) {
-		((Rmap) objectI).writeData(getOdata());
-	    } else if (objectI instanceof RoutedMessage) {
-		((RoutedMessage) objectI).writeData(getOdata());
-	    } else if (objectI instanceof RSVP) {
-		((RSVP) objectI).writeData(getOdata());
-	    } else if (objectI instanceof Register) {
-		((Register) objectI).writeData(getOdata());
-	    }
+	// The framed protocol sends the data body along with the frame.
+	if ((getProtocol() != WireProtocol.FRAMED) && (getOdata() != null)) {
+	    writeData(objectI,getOdata());
 	    getOdata().flush();
 	}
     }
+
+    /**
+     * Writes the data for an object to the specified stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param objectI the object.
+     * @param dosI    the data output stream.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if the object cannot be serialized.
+     * @exception java.lang.InterruptedIOException
+     *		  thrown if the write is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem writing to the stream.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the write is interrupted.
+     * @see #writeData(com.rbnb.api.Serializable)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Split out of <code>writeData(Serializable)</code>.
+     *
+     */
+    private final void writeData(Serializable objectI,DataOutputStream dosI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (objectI instanceof Ping) {
+	    if (IsSupported.isSupported
+		(IsSupported.FEATURE_PINGS_WITH_DATA,
+		 getOcontrol().getBuildVersion(),
+		 getOcontrol().getBuildDate())) {
+		((Ping) objectI).writeData(dosI);
+	    }
+	} else if (objectI instanceof Rmap) {
+	    ((Rmap) objectI).writeData(dosI);
+	} else if (objectI instanceof RoutedMessage) {
+	    ((RoutedMessage) objectI).writeData(dosI);
+	} else if (objectI instanceof RSVP) {
+	    ((RSVP) objectI).writeData(dosI);
+	} else if (objectI instanceof Register) {
+	    ((Register) objectI).writeData(dosI);
+	}
+    }
 
+    /**
+     * Writes a frame read by <code>readFrame</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param frameI the frame.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem writing to the streams.
+     * @see #readFrame()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void writeFrame(byte[] frameI)
+	throws java.io.IOException
+    {
+	int length = getFrameInt(frameI,0),
+	    dataLength = getFrameInt(frameI,8);
+
+	getOcontrol().write(frameI,0,FRAME_HEADER + length);
+	getOcontrol().flush();
+	if (dataLength > 0) {
+	    getOdata().write(frameI,FRAME_HEADER + length,dataLength);
+	    getOdata().flush();
+	}
+    }
+
+    /**
+     * Writes out the input <code>Serializable</code> object as a frame.
+     * <p>
+     * The object is encoded into memory first, so that the frame header can
+     * carry the lengths of the control and data bodies.  Each body is then
+     * written in a single operation.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param objectI the <code>Serializable</code> object.
+     * @param otherI  the other <code>Rmap</code>.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if the object cannot be serialized.
+     * @exception java.lang.InterruptedIOException
+     *		  thrown if the write is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem writing to the stream.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the write is interrupted.
+     * @see #readFramed(com.rbnb.api.Rmap)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Compress data bodies.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void writeFramed(Serializable objectI,Rmap otherI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	frameObody.reset();
+	frameOdataBody.reset();
+	frameOcontrol.setBuildDate(getOcontrol().getBuildDate());
+	frameOcontrol.setBuildVersion(getOcontrol().getBuildVersion());
+
+	write(objectI,otherI,frameOcontrol,frameOdata);
+	writeData(objectI,frameOdata);
+
+	// Compress the data body if that is called for and it helps.
+	int dataLength = frameOdataBody.size(),
+	    compressedLength = -1;
+	if ((getCompression() != Client.COMPRESS_NONE) &&
+	    (dataLength >= MIN_COMPRESS)) {
+	    if ((compressedO == null) || (compressedO.length < dataLength)) {
+		compressedO = new byte[dataLength];
+	    }
+	    compressedLength = compressor.compress(getCompression(),
+						   frameOdataBody.getBuffer(),
+						   0,
+						   dataLength,
+						   compressedO,
+						   4,
+						   dataLength - 5);
+	}
+
+	int command = identifyObject(objectI);
+	setFrameInt(frameOheader,0,frameObody.size());
+	frameOheader[4] = (byte) getProtocol();
+	frameOheader[5] = (byte) ((command == -1) ? COM_OBJ : command);
+	frameOheader[6] = ((otherI == null) ? FRAME_SELF_CONTAINED : 0);
+	frameOheader[7] = (byte) ((compressedLength == -1) ?
+				  Client.COMPRESS_NONE :
+				  getCompression());
+	setFrameInt(frameOheader,
+		    8,
+		    (compressedLength == -1) ? dataLength : compressedLength + 4);
+
+	getOcontrol().write(frameOheader,0,FRAME_HEADER);
+	frameObody.writeTo(getOcontrol());
+	getOcontrol().flush();
+	if (compressedLength != -1) {
+	    setFrameInt(compressedO,0,dataLength);
+	    getOdata().write(compressedO,0,compressedLength + 4);
+	    getOdata().flush();
+	    metricsSavedBytes += dataLength - compressedLength - 4;
+
+	} else if (dataLength > 0) {
+	    frameOdataBody.writeTo(getOdata());
+	    getOdata().flush();
+	}
+    }
+
     /**
      * Writes out the input object.
      * <p>
@@ -2233,4 +3198,146 @@ if (getOcontrol() == null) {
 	
 	return (operationR);
     }
+
+    /**
+     * Byte array input stream that can be pointed at each frame in turn.
+     * <p>
+     * It starts out holding the binary mode switch marker.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static class FrameInputStream
+	extends java.io.ByteArrayInputStream
+    {
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	FrameInputStream() {
+	    super(new byte[1]);
+	}
+
+	/**
+	 * Points this stream at the body of a frame.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param bodyI   the buffer holding the body.
+	 * @param lengthI the length of the body.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void setFrame(byte[] bodyI,int lengthI) {
+	    buf = bodyI;
+	    pos = 0;
+	    mark = 0;
+	    count = lengthI;
+	}
+    }
+
+    /**
+     * Byte array output stream whose buffer can be read in place.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static class FrameOutputStream
+	extends java.io.ByteArrayOutputStream
+    {
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	FrameOutputStream() {
+	    super(1024);
+	}
+
+	/**
+	 * Gets the buffer holding the bytes written.
+	 * <p>
+	 * The first <code>size()</code> bytes are valid.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @return the buffer.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final byte[] getBuffer() {
+	    return (buf);
+	}
+    }
 }
@@ -29,13 +29,19 @@ package com.rbnb.api;
  * future.  It must inform the <code>LimitedResource</code> object handling
  * that resource by calling the <code>holdResource</code> method.  If
  * necessary, the <code>LimitedResource</code> object can demand access to the
- * resource if it is needed.
+ * resource if it is needed.  The resource demanded is always the one that
+ * has been held the longest, so the resources that are used most often stay
+ * available to their holders.
+ * <p>
+ * The number of times a held resource is grabbed back (a hit), a new user
+ * is added (a miss), and a held resource is demanded (an eviction) can be
+ * counted by <code>MetricsRegistry.Counters</code>.
  * <p>
  *
  * @author Ian Brown
  *
  * @since V2.1
- * @version 10/28/2003
+ * @version 10/18/2026
  */
 
 /*
@@ -45,6 +51,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Demand the least recently held resource.  Count hits,
+ *			misses, and evictions.
  * 10/28/2003  INB	All synchronization is now on the
  *			<code>heldResources</code> list.
  * 10/23/2003  INB	Added ability to hold resources for future use.
@@ -65,20 +73,44 @@ final class LimitedResource {
      */
     private int currentUsers = 0;
 
+    /**
+     * counts the held resources that were demanded.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private MetricsRegistry.Counter evictions = null;
+
     /**
      * list of objects holding resources.
      * <p>
      * The list also contains an optional value object that represents the
      * specific resource held so that the object holding it can identify it
-     * from a list of resources held.
+     * from a list of resources held.  The list is kept in the order that the
+     * resources were held, oldest first.
      * <p>
      *
      * @author Ian Brown
      *
      * @since V2.2
-     * @version 10/23/2003
+     * @version 10/18/2026
      */
-    private java.util.Hashtable heldResources = new java.util.Hashtable();
+    private java.util.LinkedHashMap heldResources =
+	new java.util.LinkedHashMap();
+
+    /**
+     * counts the held resources that were grabbed back.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private MetricsRegistry.Counter hits = null;
 
     /**
      * the maximum number of allowed users.
@@ -90,6 +122,17 @@ final class LimitedResource {
      * @version 03/13/2003
      */
     private int maximumUsers = 1;
+
+    /**
+     * counts the users added.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private MetricsRegistry.Counter misses = null;
 
     /**
      * Class constructor.
@@ -137,6 +180,41 @@ final class LimitedResource {
 	this();
 	maximumUsers = maximumUsersI;
     }
+
+    /**
+     * Class constructor to build a <code>LimitedResources</code> for the
+     * specified maximum number of simultaneous users that counts its hits,
+     * misses, and evictions.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param maximumUsersI the maximum number of users allowed.
+     * @param hitsI	    counts held resources grabbed back.
+     * @param missesI	    counts users added.
+     * @param evictionsI    counts held resources demanded.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    LimitedResource(int maximumUsersI,
+		    MetricsRegistry.Counter hitsI,
+		    MetricsRegistry.Counter missesI,
+		    MetricsRegistry.Counter evictionsI)
+    {
+	this(maximumUsersI);
+	hits = hitsI;
+	misses = missesI;
+	evictions = evictionsI;
+    }
 
     /**
      * Adds a user.
@@ -150,7 +228,7 @@ final class LimitedResource {
      *		  thrown if the add is interrupted.
      * @see #removeUser()
      * @since V2.1
-     * @version 10/22/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -158,6 +236,8 @@ final class LimitedResource {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Demand the resource held the longest. Count misses and
+     *			evictions.
      * 10/28/2003  INB	Redid code so that we only synchronize on the
      *			<code>heldResources</code> list.
      * 10/22/2003  INB	Use <code>TimerPeriod.LOCK_WAIT</code>.
@@ -170,15 +250,21 @@ final class LimitedResource {
 	long lastAt = System.currentTimeMillis();
 	long nowAt;
 	synchronized (heldResources) {
+	    if (misses != null) {
+		misses.increment();
+	    }
 	    while (currentUsers == maximumUsers) {
-		java.util.Enumeration keys = heldResources.keys();
-		if (keys.hasMoreElements()) {
+		java.util.Iterator keys = heldResources.keySet().iterator();
+		if (keys.hasNext()) {
 		    // If someone is holding a resource for later, grab it from
-		    // them.
+		    // the one that has been holding it the longest.
 		    LimitedResourceInterface lri =
-			(LimitedResourceInterface) keys.nextElement();
+			(LimitedResourceInterface) keys.next();
 		    Object heldResource = heldResources.get(lri);
-		    heldResources.remove(lri);
+		    keys.remove();
+		    if (evictions != null) {
+			evictions.increment();
+		    }
 		    lri.forcedRelease(heldResource);
 
 		    return;
@@ -205,6 +291,31 @@ final class LimitedResource {
 	}
     }
 
+    /**
+     * Gets the current number of users.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of users.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final int getCurrentUsers() {
+	synchronized (heldResources) {
+	    return (currentUsers);
+	}
+    }
+
     /**
      * Allows an object to grab a resource that it was holding.
      * <p>
@@ -220,7 +331,7 @@ final class LimitedResource {
      * @return was the resource grabbed?
      * @see #holdResource(LimitedResourceInterface,Object)
      * @since V2.2
-     * @version 10/23/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -228,6 +339,7 @@ final class LimitedResource {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Count hits.
      * 10/23/2003  INB	Created.
      *
      */
@@ -241,6 +353,9 @@ final class LimitedResource {
 	    if (resourceI == actualResource) {
 		heldResources.remove(controlledByI);
 		grabbedR = true;
+		if (hits != null) {
+		    hits.increment();
+		}
 	    }
 	}
 
@@ -258,7 +373,7 @@ final class LimitedResource {
      * @param resourceI     the object representing the resource to be held.
      * @see #grabResource(LimitedResourceInterface,Object)
      * @since V2.2
-     * @version 10/28/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -266,6 +381,8 @@ final class LimitedResource {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Keep the list in the order that the resources were
+     *			held.
      * 10/23/2003  INB	Created.
      *
      */
@@ -273,6 +390,8 @@ final class LimitedResource {
 				   Object resourceI)
     {
 	synchronized (heldResources) {
+	    // Move the holder to the end of the list.
+	    heldResources.remove(controlledByI);
 	    heldResources.put(controlledByI,resourceI);
 	    heldResources.notify();
 	}
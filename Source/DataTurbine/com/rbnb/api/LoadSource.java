@@ -19,13 +19,16 @@ package com.rbnb.api;
 /**
  * <bold>RBNB</bold> class to load a source archive into the server.
  * <p>
- * This class is used to automatically load archives at launch time.
+ * This class is used to automatically load archives at launch time.  When
+ * given an <code>ArchiveLoader</code>, it waits for a turn from it before
+ * loading and reports how far along the load is afterwards.
  * <p>
  *
  * @author Ian Brown
  *
+ * @see com.rbnb.api.ArchiveLoader
  * @since V2.1
- * @version 02/11/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -35,6 +38,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Take turns from an <code>ArchiveLoader</code> and log
+ *			progress.
  * 02/11/2004  INB	Log exceptions at standard level.
  * 12/24/2003  INB	Report the exception when a folder fails to load.
  *			Use RAM sources.
@@ -57,6 +62,17 @@ final class LoadSource
      */
     private String archiveName = null;
 
+    /**
+     * the <code>ArchiveLoader</code> to take turns from.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private ArchiveLoader loader = null;
+
     /**
      * the client-side object representing the server.
      * <p>
@@ -120,6 +136,34 @@ final class LoadSource
 	System.err.println("LoadSource: " + archiveNameI);
 	*/
     }
+
+    /**
+     * Class constructor to build a <code>LoadSource</code> object for a
+     * particular <code>Server</code> and archive name that takes turns from an
+     * <code>ArchiveLoader</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverI      the <code>Server</code>.
+     * @param archiveNameI the name of the archive.
+     * @param loaderI      the <code>ArchiveLoader</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    LoadSource(Server serverI,String archiveNameI,ArchiveLoader loaderI) {
+	this(serverI,archiveNameI);
+	loader = loaderI;
+    }
 
     /**
      * Performs this action.
@@ -128,7 +172,7 @@ final class LoadSource
      * @author Ian Brown
      *
      * @since V2.1
-     * @version 02/11/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -136,6 +180,8 @@ final class LoadSource
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Take a turn from the <code>ArchiveLoader</code> and log
+     *			the time taken and progress.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 12/24/2003  INB	Report the exception when a folder fails to load.
      *			Change to RAM source rather than TCP source.
@@ -150,8 +196,16 @@ final class LoadSource
 	*/
 	ServerHandler sh = server.getServerSide();
 	RBNB rbnb = (RBNB) sh;
+	boolean haveTurn = false;
+	String progress = null;
 
 	try {
+	    if (loader != null) {
+		loader.begin();
+		haveTurn = true;
+	    }
+	    long startAt = System.currentTimeMillis();
+
 	    Source source = server.createRAMSource(archiveName);
 
 	    source.setCframes(0);
@@ -176,8 +230,26 @@ final class LoadSource
 		     !sh.getTerminateRequested() &&
 		     ((sh.getThread() != null) && sh.getThread().isAlive()));
 
+	    if (haveTurn) {
+		haveTurn = false;
+		progress = loader.finished(started);
+	    }
+	    if (started) {
+		rbnb.getLog().addMessage
+		    (Log.STANDARD,
+		     sh.getLogClass(),
+		     archiveName,
+		     "Archive loaded in " +
+		     (System.currentTimeMillis() - startAt) + " ms" +
+		     ((progress == null) ? "." : (" (" + progress + ").")));
+	    }
+
 	    source.stop();
 	} catch (java.lang.Exception e) {
+	    if (haveTurn) {
+		haveTurn = false;
+		progress = loader.finished(false);
+	    }
 	    try {
 		rbnb.getLog().addException
 		    (Log.STANDARD,
@@ -188,7 +260,8 @@ final class LoadSource
 		    (Log.STANDARD,
 		     sh.getLogClass(),
 		     archiveName,
-		     "Folder could not be loaded as an archive.");
+		     "Folder could not be loaded as an archive" +
+		     ((progress == null) ? "." : (" (" + progress + ").")));
 	    } catch (java.lang.Exception e1) {
 	    }
 	}
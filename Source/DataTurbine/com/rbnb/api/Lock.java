@@ -21,13 +21,18 @@ package com.rbnb.api;
  * This class serves the <code>Door</code> class. It provides the actual
  * synchronization on the <code>Door</code>.
  * <p>
+ * The state of a <code>Lock</code> is protected by a
+ * <code>java.util.concurrent.locks.ReentrantLock</code> rather than by its
+ * monitor, so that a virtual thread waiting to grab it does not pin its
+ * carrier thread.
+ * <p>
  *
  * @author Ian Brown
  *
  * @see com.rbnb.api.Door
  * @see com.rbnb.api.ThreadWithLocks
  * @since V2.0
- * @version 11/17/2003
+ * @version 10/18/2026
  */
 
 /*
@@ -38,6 +43,9 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Use a <code>ReentrantLock</code> rather than the
+ *			monitor.  Use the static <code>ThreadWithLocks</code>
+ *			methods, as the thread may be a virtual thread.
  * 08/03/2007  WHF	Made 'locations' debug object optional and final.
  *                      Made some methods private that didn't need to be public.
  * 11/17/2003  INB	Added <code>clear</code>.  Don't clear the thread field
@@ -70,6 +78,17 @@ final class Lock
      */
     private long count = 0;
 
+    /**
+     * signalled when this <code>Lock</code> may have become available.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.locks.Condition available;
+
     /**
      * the <code>Door</code> that this <code>Lock</code> is on.
      * <p>
@@ -103,6 +122,18 @@ final class Lock
      */
     private java.util.Hashtable pending = new java.util.Hashtable();
 
+    /**
+     * protects the state of this <code>Lock</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.locks.ReentrantLock state =
+	new java.util.concurrent.locks.ReentrantLock();
+
     /**
      * the thread.
      * <p>
@@ -121,7 +152,7 @@ final class Lock
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 05/10/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -129,11 +160,13 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Create the <code>Condition</code>.
      * 02/21/2001  INB	Created.
      *
      */
     Lock() {
 	super();
+	available = state.newCondition();
 	setThread(Thread.currentThread());
 	// 2007/08/03  WHF
 	if (Door.isDebug()) locations = new java.util.Vector();
@@ -149,7 +182,7 @@ final class Lock
      *
      * @param doorI  the <code>Door</code>.
      * @since V2.0
-     * @version 05/10/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -157,11 +190,13 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Create the <code>Condition</code>.
      * 02/21/2001  INB	Created.
      *
      */
     Lock(Door doorI) {
 	super();
+	available = state.newCondition();
 	setDoor(doorI);
 	// 2007/08/03  WHF
 	if (Door.isDebug()) locations = new java.util.Vector();
@@ -177,7 +212,7 @@ final class Lock
      * @param locationI the location of the caller.
      * @see #removePending()
      * @since V2.0
-     * @version 11/12/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -185,18 +220,24 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the <code>ReentrantLock</code>.
      * 11/12/2003  INB	Added location handling.
      * 06/15/2001  INB	Created.
      *
      */
-    final synchronized void addPending(String locationI) {
-	java.util.Vector lLocations = (java.util.Vector)
-	    pending.get(Thread.currentThread());
-	if (lLocations == null) {
-	    lLocations = new java.util.Vector();
+    final void addPending(String locationI) {
+	state.lock();
+	try {
+	    java.util.Vector lLocations = (java.util.Vector)
+		pending.get(Thread.currentThread());
+	    if (lLocations == null) {
+		lLocations = new java.util.Vector();
+	    }
+	    lLocations.addElement(locationI);
+	    pending.put(Thread.currentThread(),lLocations);
+	} finally {
+	    state.unlock();
 	}
-	lLocations.addElement(locationI);
-	pending.put(Thread.currentThread(),lLocations);
     }
 
     /**
@@ -216,7 +257,7 @@ final class Lock
      * @param havePendingI  does this thread have a pending lock?
      * @return is the lock active?
      * @since V2.0
-     * @version 11/12/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -224,19 +265,25 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the <code>ReentrantLock</code>.
      * 11/12/2003  INB	Added location handling.
      * 02/21/2001  INB	Created.
      *
      */
-    final synchronized boolean check(String locationI,
-				     boolean checkPendingI,
-				     boolean havePendingI)
+    final boolean check(String locationI,
+			boolean checkPendingI,
+			boolean havePendingI)
     {
-	return (checkPendingI &&
-		 (havePendingI ?
-		  !pending.containsKey(Thread.currentThread()) :
-		  !pending.isEmpty())) ||
-		((count > 0) && (getThread() != null) && getThread().isAlive());
+	state.lock();
+	try {
+	    return (checkPendingI &&
+		     (havePendingI ?
+		      !pending.containsKey(Thread.currentThread()) :
+		      !pending.isEmpty())) ||
+		    ((count > 0) && (getThread() != null) && getThread().isAlive());
+	} finally {
+	    state.unlock();
+	}
     }
 
     /**
@@ -377,7 +424,7 @@ final class Lock
      * @param havePendingI  do we have a pending ID?
      * @see #release()
      * @since V2.0
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -385,53 +432,61 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the <code>ReentrantLock</code> and wait on its
+     *			<code>Condition</code>.
      * 11/12/2003  INB	Added location handling.
      * 03/26/2003  INB	Use <code>TimerPeriod.NORMAL_WAIT</code>.
      * 02/21/2001  INB	Created.
      *
      */
-    final synchronized void grab(String locationI,
-				 boolean checkPendingI,
-				 boolean havePendingI)
+    final void grab(String locationI,
+		    boolean checkPendingI,
+		    boolean havePendingI)
 	throws java.lang.InterruptedException
     {
-	long lastAt = System.currentTimeMillis();
-	long firstAt = lastAt; // MJM
-	long nowAt;
+	state.lock();
+	try {
+	    long lastAt = System.currentTimeMillis();
+	    long firstAt = lastAt; // MJM
+	    long nowAt;
 
-	while ((getThread() != Thread.currentThread()) &&
-	       check(locationI,checkPendingI,havePendingI)) {
-	    wait(TimerPeriod.NORMAL_WAIT);
+	    while ((getThread() != Thread.currentThread()) &&
+		   check(locationI,checkPendingI,havePendingI)) {
+		available.await(TimerPeriod.NORMAL_WAIT,
+				java.util.concurrent.TimeUnit.MILLISECONDS);
 
 // MJM 2/20/07:  grope to break deadlock bug
-	    if ( (System.currentTimeMillis() - firstAt) >=
-		2*TimerPeriod.LOCK_WAIT) {
-		  System.err.println("Cannot Grab Lock!!!  Forcibly clearing other locks!");
-		  clear();
-		  break;
-	    }
+		if ( (System.currentTimeMillis() - firstAt) >=
+		    2*TimerPeriod.LOCK_WAIT) {
+		      System.err.println("Cannot Grab Lock!!!  Forcibly clearing other locks!");
+		      clear();
+		      break;
+		}
 
-	    if ((nowAt = System.currentTimeMillis()) - lastAt >=
-		TimerPeriod.LOCK_WAIT) {
-		try {
-		    throw new Exception
-			(System.currentTimeMillis() + " " +
-			 this +
-			 " grab: blocked at " + locationI +
-			 " waiting for check pending: " +
-			 checkPendingI +
-			 ", have pending: " + havePendingI +
-			 ", or lock thread to clear.\n" +
-			 "My thread: " + Thread.currentThread() + "\n");
-		} catch (Exception e) {
-		    e.printStackTrace();
-		    lastAt = nowAt;
+		if ((nowAt = System.currentTimeMillis()) - lastAt >=
+		    TimerPeriod.LOCK_WAIT) {
+		    try {
+			throw new Exception
+			    (System.currentTimeMillis() + " " +
+			     this +
+			     " grab: blocked at " + locationI +
+			     " waiting for check pending: " +
+			     checkPendingI +
+			     ", have pending: " + havePendingI +
+			     ", or lock thread to clear.\n" +
+			     "My thread: " + Thread.currentThread() + "\n");
+		    } catch (Exception e) {
+			e.printStackTrace();
+			lastAt = nowAt;
+		    }
 		}
 	    }
-	}
 
-	// Set the lock.
-	lock(locationI,havePendingI);
+	    // Set the lock.
+	    lock(locationI,havePendingI);
+	} finally {
+	    state.unlock();
+	}
     }
 
     /**
@@ -451,7 +506,7 @@ final class Lock
      *	      thrown if another thread has set the <code>Lock</code>.
      * @see #unlock()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -459,25 +514,32 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the <code>ReentrantLock</code> and the static
+     *			<code>ThreadWithLocks</code> methods.
      * 11/14/2003  INB	Added <code>ThreadWithLocks</code> handling.
      * 11/12/2003  INB	Added location handling.
      * 02/21/2001  INB	Created.
      *
      */
-    final synchronized void lock(String locationI,boolean havePendingI) {
-	if ((getThread() != Thread.currentThread()) &&
-	    check(locationI,false,havePendingI)) {
-	    throw new java.lang.IllegalStateException
-		(this + " at " + locationI +
-		 ": lock is already set by another thread.");
-	}
+    final void lock(String locationI,boolean havePendingI) {
+	state.lock();
+	try {
+	    if ((getThread() != Thread.currentThread()) &&
+		check(locationI,false,havePendingI)) {
+		throw new java.lang.IllegalStateException
+		    (this + " at " + locationI +
+		     ": lock is already set by another thread.");
+	    }
 
-	setThread(Thread.currentThread());
-	if (locations != null)
-	    locations.addElement(locationI);
-	++count;
-	if ((count == 1) && (getThread() instanceof ThreadWithLocks)) {
-	    ((ThreadWithLocks) getThread()).addLock(this);
+	    setThread(Thread.currentThread());
+	    if (locations != null)
+		locations.addElement(locationI);
+	    ++count;
+	    if (count == 1) {
+		ThreadWithLocks.addLock(getThread(),this);
+	    }
+	} finally {
+	    state.unlock();
 	}
     }
 
@@ -492,7 +554,7 @@ final class Lock
      * @author Ian Brown
      *
      * @since V2.2
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -500,6 +562,7 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods.
      * 11/14/2003  INB	Added <code>ThreadWithLocks</code> handling.
      * 07/30/2003  INB	Created.
      *
@@ -518,9 +581,9 @@ final class Lock
 	    pending = null;
 	}
 
-	if ((getThread() instanceof ThreadWithLocks) &&
-	    (((ThreadWithLocks) getThread()).getLocks().contains(this))) {
-	    ((ThreadWithLocks) getThread()).removeLock(this);
+	java.util.Vector held = ThreadWithLocks.getLocks(getThread());
+	if ((held != null) && held.contains(this)) {
+	    ThreadWithLocks.removeLock(getThread(),this);
 	}
 	setThread(null);
     }
@@ -536,7 +599,7 @@ final class Lock
      *
      * @see #grab(String,boolean,boolean)
      * @since V2.0
-     * @version 08/13/2007
+     * @version 10/18/2026
      */
 
     /*
@@ -544,18 +607,24 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the <code>ReentrantLock</code>.
      * 08/13/2007  WHF  Sets thread to null if count equals zero.
      * 11/12/2003  INB	Updated see also list.
      * 02/21/2001  INB	Created.
      *
      */
-    final synchronized boolean release() {
-	unlock();
-	if (count == 0) {
-	    thread = null;
-	    return true;
+    final boolean release() {
+	state.lock();
+	try {
+	    unlock();
+	    if (count == 0) {
+		thread = null;
+		return true;
+	    }
+	    return false;
+	} finally {
+	    state.unlock();
 	}
-	return false;
     }
 
     /**
@@ -566,7 +635,7 @@ final class Lock
      *
      * @see #addPending(String)
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -574,14 +643,21 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the <code>ReentrantLock</code> and signal its
+     *			<code>Condition</code>.
      * 11/14/2003  INB	Made package accessible.
      * 11/12/2003  INB	Handle <code>Hashtable</code> pending.
      * 03/18/2002  INB	Created.
      *
      */
-    final synchronized void removePending() {
-	pending.remove(Thread.currentThread());
-	notifyAll();
+    final void removePending() {
+	state.lock();
+	try {
+	    pending.remove(Thread.currentThread());
+	    available.signalAll();
+	} finally {
+	    state.unlock();
+	}
     }
 
     /**
@@ -722,7 +798,7 @@ final class Lock
      *
      * @see #lock(String,boolean)
      * @since V2.0
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -730,6 +806,9 @@ final class Lock
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the <code>ReentrantLock</code>, signal its
+     *			<code>Condition</code>, and use the static
+     *			<code>ThreadWithLocks</code> methods.
      * 11/17/2003  INB	Don't clear the thread field!
      * 11/14/2003  INB	Added <code>ThreadWithLocks</code> handling.
      * 11/12/2003  INB	Added location handling.
@@ -737,25 +816,28 @@ final class Lock
      * 02/21/2001  INB	Created.
      *
      */
-    final synchronized boolean unlock() {
-	if (Thread.currentThread() == getThread()) {
-	    // If the current thread owns the lock, decrement the count.
-	    if (locations != null && locations.size() > 0) {
-		locations.removeElementAt(locations.size() - 1);
-	    }
+    final boolean unlock() {
+	state.lock();
+	try {
+	    if (Thread.currentThread() == getThread()) {
+		// If the current thread owns the lock, decrement the count.
+		if (locations != null && locations.size() > 0) {
+		    locations.removeElementAt(locations.size() - 1);
+		}
 
-	    if (--count <= 0) {
-		// If the count has been cleared, notify anyone waiting for
-		// the <code>Lock</code>.
-		if (count == 0) {
-		    if (getThread() instanceof ThreadWithLocks) {
-			((ThreadWithLocks) getThread()).removeLock(this);
+		if (--count <= 0) {
+		    // If the count has been cleared, notify anyone waiting for
+		    // the <code>Lock</code>.
+		    if (count == 0) {
+			ThreadWithLocks.removeLock(getThread(),this);
 		    }
+		    available.signalAll();
 		}
-		notifyAll();
 	    }
-	}
 
-	return (count <= 0);
+	    return (count <= 0);
+	} finally {
+	    state.unlock();
+	}
     }
 }
@@ -875,13 +875,14 @@ final class Log
      *
      * @author Ian Brown
      *
+     * @param rbI	 the <code>RingBuffer</code> the frame was added to.
      * @param theFrameI  the frame to handle.
      * @exception com.rbnb.api.AddressException
      *		  thrown if there is a problem with an address.
      * @exception java.lang.InterruptedException
      *		  thrown if the display operation is interrupted.
      * @since V2.0
-     * @version 01/23/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -889,15 +890,16 @@ final class Log
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added the <code>RingBuffer</code> parameter.
      * 01/07/2004  INB	Use the <code>LogDisplay</code>.
      * 02/27/2001  INB	Created.
      *
      */
-    final void handleNewFrame(Rmap theFrameI)
+    final void handleNewFrame(RingBuffer rbI,Rmap theFrameI)
 	throws com.rbnb.api.AddressException,
 	       java.lang.InterruptedException
     {
-	super.handleNewFrame(theFrameI);
+	super.handleNewFrame(rbI,theFrameI);
 
 	// Display the message via the <code>LogDisplay</code>.
 	synchronized (this) {
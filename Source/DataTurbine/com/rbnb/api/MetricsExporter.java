@@ -0,0 +1,297 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Local HTTP endpoint serving a <code>MetricsRegistry</code> in the
+ * Prometheus text format.
+ * <p>
+ * The endpoint listens on the loopback interface only.  Any
+ * <code>GET</code> of <code>/metrics</code> (or <code>/</code>) returns the
+ * registry; everything else gets a 404.  Requests are served one at a time
+ * on the exporter's own thread, which is plenty for a scraper polling every
+ * few seconds.
+ * <p>
+ * The server starts an exporter when the
+ * <code>com.rbnb.api.MetricsExporter.port</code> system property is set to
+ * a port number.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.MetricsRegistry
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class MetricsExporter
+    implements Runnable
+{
+
+    /**
+     * the port to listen on, or 0 for no exporter.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int PORT =
+	Integer.getInteger("com.rbnb.api.MetricsExporter.port",0).intValue();
+
+    /**
+     * the registry to export.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final MetricsRegistry registry;
+
+    /**
+     * the listening socket.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.net.ServerSocket serverSocket;
+
+    /**
+     * Class constructor to build an exporter listening on a port.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param registryI the registry to export.
+     * @param portI     the port.
+     * @exception java.io.IOException
+     *		  thrown if the port cannot be opened.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    MetricsExporter(MetricsRegistry registryI,int portI)
+	throws java.io.IOException
+    {
+	super();
+	registry = registryI;
+	serverSocket = new java.net.ServerSocket
+	    (portI,
+	     16,
+	     java.net.InetAddress.getByName("127.0.0.1"));
+    }
+
+    /**
+     * Gets the port the exporter is listening on.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the port.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int getPort() {
+	return (serverSocket.getLocalPort());
+    }
+
+    /**
+     * Serves a single HTTP request.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param socketI the connection.
+     * @exception java.io.IOException
+     *		  thrown if there is an I/O error.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void serve(java.net.Socket socketI)
+	throws java.io.IOException
+    {
+	socketI.setSoTimeout((int) TimerPeriod.LONG_WAIT);
+	java.io.BufferedReader reader = new java.io.BufferedReader
+	    (new java.io.InputStreamReader(socketI.getInputStream(),
+					   "US-ASCII"));
+	String requestLine = reader.readLine();
+	String line;
+	while (((line = reader.readLine()) != null) && (line.length() > 0)) {
+	    // Skip the headers.
+	}
+
+	String status = "200 OK";
+	String body;
+	java.util.StringTokenizer st =
+	    new java.util.StringTokenizer((requestLine == null) ?
+					  "" :
+					  requestLine);
+	String method = st.hasMoreTokens() ? st.nextToken() : "";
+	String path = st.hasMoreTokens() ? st.nextToken() : "";
+
+	if (method.equals("GET") &&
+	    (path.equals("/") || path.equals("/metrics"))) {
+	    java.io.StringWriter sw = new java.io.StringWriter();
+	    registry.writePrometheus(sw);
+	    body = sw.toString();
+	} else {
+	    status = "404 Not Found";
+	    body = "Not found.\n";
+	}
+
+	byte[] content = body.getBytes("UTF-8");
+	java.io.OutputStream os = socketI.getOutputStream();
+	os.write(("HTTP/1.0 " + status + "\r\n" +
+		  "Content-Type: text/plain; version=0.0.4; charset=utf-8\r\n" +
+		  "Content-Length: " + content.length + "\r\n" +
+		  "Connection: close\r\n" +
+		  "\r\n").getBytes("US-ASCII"));
+	os.write(content);
+	os.flush();
+    }
+
+    /**
+     * Accepts and serves connections until stopped.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void run() {
+	while (!serverSocket.isClosed()) {
+	    java.net.Socket socket = null;
+	    try {
+		socket = serverSocket.accept();
+		serve(socket);
+	    } catch (java.io.IOException e) {
+		// A bad scrape or the socket being closed by
+		// <code>stop</code>.
+	    } finally {
+		if (socket != null) {
+		    try {
+			socket.close();
+		    } catch (java.io.IOException e) {
+		    }
+		}
+	    }
+	}
+    }
+
+    /**
+     * Starts the exporter thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #stop()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void start() {
+	Thread thread = new Thread(this,"MetricsExporter:" + getPort());
+	thread.setDaemon(true);
+	thread.start();
+    }
+
+    /**
+     * Stops the exporter.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #start()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void stop() {
+	try {
+	    serverSocket.close();
+	} catch (java.io.IOException e) {
+	}
+    }
+}
@@ -0,0 +1,1643 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * In-process registry of server counters, gauges, and latency histograms.
+ * <p>
+ * The server code updates the metrics as it runs, so reading them costs
+ * nothing more than reading a few atomic values.  The registry can be
+ * exported two ways:
+ * <p><ul>
+ * <li>as Prometheus text by the <code>MetricsExporter</code> HTTP endpoint,
+ *     with one series per label value, and</li>
+ * <li>as additional channels of the server's <code>_Metrics</code> source,
+ *     with the series of each family summed together.</li>
+ * </ul><p>
+ * Each metric family has at most one label.  The families used by the
+ * server are defined when the registry is built, so that the set of
+ * <code>_Metrics</code> channels does not change as clients come and go.
+ * <p>
+ * Values that are cheaper to read on demand than to track can be supplied
+ * by a <code>Sampler</code>, which is called just before the registry is
+ * exported.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.MetricsExporter
+ * @see com.rbnb.api.RBNB#calculateMetrics(long,long)
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>MIRROR_LAG</code>.
+ * 10/18/2026  JRS	Added <code>ARCHIVE_COMMITS</code> and
+ *			<code>ARCHIVE_QUEUE</code>.
+ * 10/18/2026  JRS	Added the <code>FILESET_</code> families.
+ * 10/18/2026  JRS	Added <code>INGEST_QUEUE</code> and
+ *			<code>INGEST_DROPPED</code>.
+ * 10/18/2026  JRS	Added <code>STORAGE_FLUSH</code>.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class MetricsRegistry {
+
+    /**
+     * the frames accepted by each <code>RingBuffer</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String INGEST_FRAMES = "rbnb_ingest_frames_total";
+
+    /**
+     * the frames waiting in the ingest queue of each <code>RBO</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String INGEST_QUEUE = "rbnb_ingest_queue_frames";
+
+    /**
+     * the frames dropped from the full ingest queue of each
+     * <code>RBO</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String INGEST_DROPPED = "rbnb_ingest_dropped_frames_total";
+
+    /**
+     * the time spent waiting to get through a <code>Door</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String DOOR_WAIT = "rbnb_door_wait_seconds";
+
+    /**
+     * the time taken to write a <code>FrameSet</code> to the archive.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String ARCHIVE_FLUSH = "rbnb_archive_flush_seconds";
+
+    /**
+     * the time taken by the scheduled flush of each time-based
+     * <code>StorageManager</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.FlushScheduler
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String STORAGE_FLUSH = "rbnb_storage_flush_seconds";
+
+    /**
+     * the lag between the newest data time delivered to a sink and the time
+     * at which it was delivered.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String DELIVERY_LAG = "rbnb_delivery_lag_seconds";
+
+    /**
+     * the bytes of data held in the caches of each server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String CACHE_BYTES = "rbnb_cache_bytes";
+
+    /**
+     * the bytes of data held in the archives of each server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String ARCHIVE_BYTES = "rbnb_archive_bytes";
+
+    /**
+     * the archive <code>FileSets</code> whose files were still open when
+     * next needed.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String FILESET_HITS = "rbnb_fileset_handle_hits_total";
+
+    /**
+     * the archive <code>FileSets</code> whose files had to be opened.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String FILESET_MISSES = "rbnb_fileset_handle_misses_total";
+
+    /**
+     * the idle archive <code>FileSets</code> whose files were closed to make
+     * room for others.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String FILESET_EVICTIONS =
+	"rbnb_fileset_handle_evictions_total";
+
+    /**
+     * the archive <code>FileSets</code> of each server with open files.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String FILESET_OPEN = "rbnb_fileset_handles_open";
+
+    /**
+     * the batches written by the <code>ArchiveWriter</code> for each disk.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String ARCHIVE_COMMITS = "rbnb_archive_group_commits_total";
+
+    /**
+     * the <code>FrameSets</code> queued for, or being written by, the
+     * <code>ArchiveWriter</code> for each disk.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String ARCHIVE_QUEUE = "rbnb_archive_write_queue_framesets";
+
+    /**
+     * how far, in milliseconds, the data posted by each pipelined mirror
+     * trails the newest data it has fetched.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static String MIRROR_LAG = "rbnb_mirror_lag_milliseconds";
+
+    /**
+     * the upper bounds, in seconds, of the histogram buckets.
+     * <p>
+     * A final, unbounded, bucket is always added.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static double[] BUCKETS = {
+	0.00001, 0.0001, 0.001, 0.005, 0.01, 0.05,
+	0.1, 0.5, 1., 5., 10., 60., 300., 3600.
+    };
+
+    /**
+     * the server-wide registry.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static MetricsRegistry SERVER = new MetricsRegistry();
+
+    /**
+     * counter metric type.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int COUNTER = 0;
+
+    /**
+     * gauge metric type.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int GAUGE = 1;
+
+    /**
+     * histogram metric type.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int HISTOGRAM = 2;
+
+    /**
+     * the metric families, in the order they were defined.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Vector families = new java.util.Vector();
+
+    /**
+     * the metric families, keyed by name.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Hashtable familiesByName = new java.util.Hashtable();
+
+    /**
+     * the <code>Samplers</code> to call before exporting.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Vector samplers = new java.util.Vector();
+
+    /**
+     * Class constructor.
+     * <p>
+     * Defines the families used by the server.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Added the archive file handle families.
+     * 10/18/2026  JRS	Added the ingest queue families.
+     * 10/18/2026  JRS	Added the storage flush family.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    MetricsRegistry() {
+	super();
+	define(INGEST_FRAMES,
+	       "IngestFrames",
+	       COUNTER,
+	       "ringbuffer",
+	       "Frames accepted by each ring buffer.");
+	define(INGEST_QUEUE,
+	       "IngestQueue",
+	       GAUGE,
+	       "source",
+	       "Frames waiting in the ingest queue of each source.");
+	define(INGEST_DROPPED,
+	       "IngestDropped",
+	       COUNTER,
+	       "source",
+	       "Frames dropped from the full ingest queue of each source.");
+	define(DOOR_WAIT,
+	       "DoorWait",
+	       HISTOGRAM,
+	       null,
+	       "Time spent waiting for door locks.");
+	define(ARCHIVE_FLUSH,
+	       "ArchiveFlush",
+	       HISTOGRAM,
+	       null,
+	       "Time taken to write a frame set to the archive.");
+	define(STORAGE_FLUSH,
+	       "StorageFlush",
+	       HISTOGRAM,
+	       "manager",
+	       "Time taken by the scheduled flushes of each storage manager.");
+	define(DELIVERY_LAG,
+	       "DeliveryLag",
+	       HISTOGRAM,
+	       "sink",
+	       "Wall clock time less the newest data time delivered.");
+	define(CACHE_BYTES,
+	       null,
+	       GAUGE,
+	       "server",
+	       "Bytes of data held in the caches.");
+	define(ARCHIVE_BYTES,
+	       null,
+	       GAUGE,
+	       "server",
+	       "Bytes of data held in the archives.");
+	define(FILESET_HITS,
+	       "FileSetHandleHits",
+	       COUNTER,
+	       "server",
+	       "Archive file sets whose files were still open when needed.");
+	define(FILESET_MISSES,
+	       "FileSetHandleMisses",
+	       COUNTER,
+	       "server",
+	       "Archive file sets whose files had to be opened.");
+	define(FILESET_EVICTIONS,
+	       "FileSetHandleEvictions",
+	       COUNTER,
+	       "server",
+	       "Idle archive file sets closed to make room for others.");
+	define(FILESET_OPEN,
+	       "FileSetHandlesOpen",
+	       GAUGE,
+	       "server",
+	       "Archive file sets with open files.");
+	define(ARCHIVE_COMMITS,
+	       "ArchiveGroupCommits",
+	       COUNTER,
+	       "disk",
+	       "Batches of frame sets written to the archives on each disk.");
+	define(ARCHIVE_QUEUE,
+	       "ArchiveWriteQueue",
+	       GAUGE,
+	       "disk",
+	       "Frame sets waiting to be written to the archives on each disk.");
+	define(MIRROR_LAG,
+	       "MirrorLag",
+	       GAUGE,
+	       "mirror",
+	       "Newest data time fetched less the newest posted by a mirror.");
+    }
+
+    /**
+     * Adds a <code>Sampler</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param samplerI the <code>Sampler</code>.
+     * @see #removeSampler(com.rbnb.api.MetricsRegistry.Sampler)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void addSampler(Sampler samplerI) {
+	samplers.addElement(samplerI);
+    }
+
+    /**
+     * Adds the <code>_Metrics</code> channels for the families to a metrics
+     * <code>Rmap</code>.
+     * <p>
+     * Counters get a total and a rate channel, histograms get a count and a
+     * mean channel.  Families without a channel name are not added.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param metricsI the metrics <code>Rmap</code>.
+     * @exception java.lang.Exception
+     *		  thrown if the channels cannot be added.
+     * @see #fillMetricsChannels(com.rbnb.api.Rmap,double)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void addMetricsChannels(Rmap metricsI)
+	throws java.lang.Exception
+    {
+	for (int idx = 0; idx < families.size(); ++idx) {
+	    Family family = (Family) families.elementAt(idx);
+
+	    if (family.channel == null) {
+		continue;
+	    } else if (family.type == COUNTER) {
+		metricsI.addChild(new Rmap(family.channel));
+		metricsI.addChild(new Rmap(family.channel + "Rate"));
+	    } else if (family.type == HISTOGRAM) {
+		metricsI.addChild(new Rmap(family.channel + "Count"));
+		metricsI.addChild(new Rmap(family.channel + "Mean"));
+	    } else {
+		metricsI.addChild(new Rmap(family.channel));
+	    }
+	}
+    }
+
+    /**
+     * Gets the <code>Counter</code> for a label value in a family.
+     * <p>
+     * The <code>Counter</code> is created if it does not exist.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI	  the name of the family.
+     * @param labelValueI the label value, or <code>null</code> if the family
+     *			  has no label.
+     * @return the <code>Counter</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Counter counter(String nameI,String labelValueI) {
+	return ((Counter) getFamily(nameI,COUNTER).get(labelValueI));
+    }
+
+    /**
+     * Defines a metric family.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI    the Prometheus name of the family.
+     * @param channelI the base <code>_Metrics</code> channel name, or
+     *		       <code>null</code> to leave the family out of
+     *		       <code>_Metrics</code>.
+     * @param typeI    the metric type.
+     * @param labelI   the name of the label, or <code>null</code> for none.
+     * @param helpI    the help text.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void define(String nameI,
+				   String channelI,
+				   int typeI,
+				   String labelI,
+				   String helpI)
+    {
+	if (familiesByName.get(nameI) == null) {
+	    Family family = new Family(nameI,channelI,typeI,labelI,helpI);
+	    families.addElement(family);
+	    familiesByName.put(nameI,family);
+	}
+    }
+
+    /**
+     * Fills in the <code>_Metrics</code> channels added by
+     * <code>addMetricsChannels</code>.
+     * <p>
+     * The series of each family are summed together.  Rates and means are
+     * calculated over the interval since the previous call.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param metricsI  the metrics <code>Rmap</code>.
+     * @param durationI the interval since the previous call in seconds.
+     * @exception java.lang.Exception
+     *		  thrown if the channels cannot be filled in.
+     * @see #addMetricsChannels(com.rbnb.api.Rmap)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void fillMetricsChannels(Rmap metricsI,
+						double durationI)
+	throws java.lang.Exception
+    {
+	for (int idx = 0; idx < families.size(); ++idx) {
+	    Family family = (Family) families.elementAt(idx);
+
+	    if (family.channel == null) {
+		continue;
+	    }
+
+	    long total = 0,
+		sumNanos = 0;
+	    java.util.Enumeration metrics = family.metrics.elements();
+	    while (metrics.hasMoreElements()) {
+		Object metric = metrics.nextElement();
+
+		if (metric instanceof Histogram) {
+		    total += ((Histogram) metric).getCount();
+		    sumNanos += ((Histogram) metric).getSumNanos();
+		} else if (metric instanceof Counter) {
+		    total += ((Counter) metric).get();
+		} else {
+		    total += ((Gauge) metric).get();
+		}
+	    }
+
+	    if (family.type == COUNTER) {
+		// Series can disappear, so never report a negative rate.
+		double rate = 0.;
+		if ((durationI > 0.) && (total > family.lastTotal)) {
+		    rate = (total - family.lastTotal)/durationI;
+		}
+		setMetric(metricsI,family.channel,total);
+		setMetric(metricsI,family.channel + "Rate",rate);
+
+	    } else if (family.type == HISTOGRAM) {
+		double mean = 0.;
+		if (total > family.lastTotal) {
+		    mean = ((sumNanos - family.lastSumNanos)/
+			    (double) (total - family.lastTotal))/1.e9;
+		}
+		setMetric(metricsI,family.channel + "Count",total);
+		setMetric(metricsI,family.channel + "Mean",mean);
+
+	    } else {
+		setMetric(metricsI,family.channel,total);
+	    }
+
+	    family.lastTotal = total;
+	    family.lastSumNanos = sumNanos;
+	}
+    }
+
+    /**
+     * Gets the <code>Gauge</code> for a label value in a family.
+     * <p>
+     * The <code>Gauge</code> is created if it does not exist.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI	  the name of the family.
+     * @param labelValueI the label value, or <code>null</code> if the family
+     *			  has no label.
+     * @return the <code>Gauge</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Gauge gauge(String nameI,String labelValueI) {
+	return ((Gauge) getFamily(nameI,GAUGE).get(labelValueI));
+    }
+
+    /**
+     * Gets the server-wide registry.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the server-wide registry.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static MetricsRegistry getDefault() {
+	return (SERVER);
+    }
+
+    /**
+     * Gets a family, checking its type.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI the name of the family.
+     * @param typeI the expected type.
+     * @return the family.
+     * @exception java.lang.IllegalArgumentException
+     *		  thrown if there is no such family or it is of a different
+     *		  type.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final Family getFamily(String nameI,int typeI) {
+	Family familyR = (Family) familiesByName.get(nameI);
+
+	if ((familyR == null) || (familyR.type != typeI)) {
+	    throw new java.lang.IllegalArgumentException
+		("No metric family " + nameI + " of type " + typeI + ".");
+	}
+
+	return (familyR);
+    }
+
+    /**
+     * Gets the <code>Histogram</code> for a label value in a family.
+     * <p>
+     * The <code>Histogram</code> is created if it does not exist.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI	  the name of the family.
+     * @param labelValueI the label value, or <code>null</code> if the family
+     *			  has no label.
+     * @return the <code>Histogram</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Histogram histogram(String nameI,String labelValueI) {
+	return ((Histogram) getFamily(nameI,HISTOGRAM).get(labelValueI));
+    }
+
+    /**
+     * Quotes a label value for the Prometheus text format.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param valueI the label value.
+     * @return the quoted value.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static String quote(String valueI) {
+	StringBuffer quotedR = new StringBuffer(valueI.length() + 2);
+
+	quotedR.append('"');
+	for (int idx = 0; idx < valueI.length(); ++idx) {
+	    char ch = valueI.charAt(idx);
+
+	    if ((ch == '\\') || (ch == '"')) {
+		quotedR.append('\\').append(ch);
+	    } else if (ch == '\n') {
+		quotedR.append("\\n");
+	    } else {
+		quotedR.append(ch);
+	    }
+	}
+	quotedR.append('"');
+
+	return (quotedR.toString());
+    }
+
+    /**
+     * Removes the series for a label value from a family.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI	  the name of the family.
+     * @param labelValueI the label value, or <code>null</code> if the family
+     *			  has no label.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void remove(String nameI,String labelValueI) {
+	Family family = (Family) familiesByName.get(nameI);
+
+	if (family != null) {
+	    family.metrics.remove((labelValueI == null) ? "" : labelValueI);
+	}
+    }
+
+    /**
+     * Removes a <code>Sampler</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param samplerI the <code>Sampler</code>.
+     * @see #addSampler(com.rbnb.api.MetricsRegistry.Sampler)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void removeSampler(Sampler samplerI) {
+	samplers.removeElement(samplerI);
+    }
+
+    /**
+     * Calls the <code>Samplers</code>.
+     * <p>
+     * A failing <code>Sampler</code> does not stop the others.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void sample() {
+	Object[] lSamplers;
+
+	synchronized (samplers) {
+	    lSamplers = new Object[samplers.size()];
+	    samplers.copyInto(lSamplers);
+	}
+	for (int idx = 0; idx < lSamplers.length; ++idx) {
+	    try {
+		((Sampler) lSamplers[idx]).sample(this);
+	    } catch (java.lang.Exception e) {
+	    }
+	}
+    }
+
+    /**
+     * Sets the value of a metrics channel to a single floating point value.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param metricsI the metrics <code>Rmap</code>.
+     * @param channelI the channel name.
+     * @param valueI   the value.
+     * @exception java.lang.Exception
+     *		  thrown if the channel cannot be set.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static void setMetric(Rmap metricsI,
+					String channelI,
+					double valueI)
+	throws java.lang.Exception
+    {
+	double[] value = { valueI };
+	metricsI.findDescendant("/" + channelI,false).setDblock
+	    (new DataBlock(value,
+			   1,
+			   8,
+			   DataBlock.TYPE_FLOAT64,
+			   DataBlock.ORDER_MSB,
+			   false,
+			   0,
+			   8));
+    }
+
+    /**
+     * Sets the value of a metrics channel to a single integer value.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param metricsI the metrics <code>Rmap</code>.
+     * @param channelI the channel name.
+     * @param valueI   the value.
+     * @exception java.lang.Exception
+     *		  thrown if the channel cannot be set.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static void setMetric(Rmap metricsI,
+					String channelI,
+					long valueI)
+	throws java.lang.Exception
+    {
+	long[] value = { valueI };
+	metricsI.findDescendant("/" + channelI,false).setDblock
+	    (new DataBlock(value,
+			   1,
+			   8,
+			   DataBlock.TYPE_INT64,
+			   DataBlock.ORDER_MSB,
+			   false,
+			   0,
+			   8));
+    }
+
+    /**
+     * Writes the registry in the Prometheus text exposition format.
+     * <p>
+     * The <code>Samplers</code> are called first.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param writerI the <code>Writer</code> to write to.
+     * @exception java.io.IOException
+     *		  thrown if there is an error writing.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void writePrometheus(java.io.Writer writerI)
+	throws java.io.IOException
+    {
+	sample();
+
+	for (int idx = 0; idx < families.size(); ++idx) {
+	    Family family = (Family) families.elementAt(idx);
+
+	    writerI.write("# HELP " + family.name + " " + family.help + "\n");
+	    writerI.write("# TYPE " + family.name + " " +
+			  ((family.type == COUNTER) ? "counter" :
+			   (family.type == GAUGE) ? "gauge" :
+			   "histogram") +
+			  "\n");
+
+	    java.util.Enumeration keys = family.metrics.keys();
+	    while (keys.hasMoreElements()) {
+		String key = (String) keys.nextElement();
+		Object metric = family.metrics.get(key);
+		if (metric == null) {
+		    continue;
+		}
+		String labels =
+		    (family.label == null) ?
+		    "" :
+		    family.label + "=" + quote(key);
+
+		if (metric instanceof Histogram) {
+		    Histogram histogram = (Histogram) metric;
+		    String prefix = (family.label == null) ? "" : labels + ",";
+		    long cumulative = 0;
+
+		    for (int bIdx = 0; bIdx <= BUCKETS.length; ++bIdx) {
+			cumulative += histogram.buckets.get(bIdx);
+			writerI.write
+			    (family.name + "_bucket{" + prefix + "le=\"" +
+			     ((bIdx == BUCKETS.length) ?
+			      "+Inf" :
+			      Double.toString(BUCKETS[bIdx])) +
+			     "\"} " + cumulative + "\n");
+		    }
+		    String suffix =
+			(family.label == null) ? " " : "{" + labels + "} ";
+		    writerI.write(family.name + "_sum" + suffix +
+				  (histogram.getSumNanos()/1.e9) + "\n");
+		    writerI.write(family.name + "_count" + suffix +
+				  histogram.getCount() + "\n");
+
+		} else {
+		    writerI.write
+			(family.name +
+			 ((family.label == null) ? " " : "{" + labels + "} ") +
+			 ((metric instanceof Counter) ?
+			  ((Counter) metric).get() :
+			  ((Gauge) metric).get()) +
+			 "\n");
+		}
+	    }
+	}
+    }
+
+    /**
+     * Monotonically increasing count.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static class Counter {
+
+	/**
+	 * the count.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private final java.util.concurrent.atomic.AtomicLong count =
+	    new java.util.concurrent.atomic.AtomicLong();
+
+	/**
+	 * Adds to the count.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param amountI the amount to add.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void add(long amountI) {
+	    count.addAndGet(amountI);
+	}
+
+	/**
+	 * Gets the count.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @return the count.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final long get() {
+	    return (count.get());
+	}
+
+	/**
+	 * Adds one to the count.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void increment() {
+	    count.incrementAndGet();
+	}
+    }
+
+    /**
+     * A metric family: a name, a type, an optional label, and one metric per
+     * label value.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static class Family {
+
+	/**
+	 * the base <code>_Metrics</code> channel name.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final String channel;
+
+	/**
+	 * the help text.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final String help;
+
+	/**
+	 * the name of the label.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final String label;
+
+	/**
+	 * the summed sum of the histograms at the last <code>_Metrics</code>
+	 * sample.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	long lastSumNanos = 0;
+
+	/**
+	 * the summed total at the last <code>_Metrics</code> sample.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	long lastTotal = 0;
+
+	/**
+	 * the metrics, keyed by label value (the empty string for no label).
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final java.util.Hashtable metrics = new java.util.Hashtable();
+
+	/**
+	 * the Prometheus name.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final String name;
+
+	/**
+	 * the metric type.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final int type;
+
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param nameI    the Prometheus name.
+	 * @param channelI the base <code>_Metrics</code> channel name.
+	 * @param typeI    the metric type.
+	 * @param labelI   the name of the label.
+	 * @param helpI    the help text.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	Family(String nameI,
+	       String channelI,
+	       int typeI,
+	       String labelI,
+	       String helpI)
+	{
+	    name = nameI;
+	    channel = channelI;
+	    type = typeI;
+	    label = labelI;
+	    help = helpI;
+	}
+
+	/**
+	 * Gets the metric for a label value, creating it if needed.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param labelValueI the label value.
+	 * @return the metric.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final Object get(String labelValueI) {
+	    String key = (labelValueI == null) ? "" : labelValueI;
+	    Object metricR = metrics.get(key);
+
+	    if (metricR == null) {
+		synchronized (metrics) {
+		    if ((metricR = metrics.get(key)) == null) {
+			metricR =
+			    (type == COUNTER) ? (Object) new Counter() :
+			    (type == GAUGE) ? (Object) new Gauge() :
+			    (Object) new Histogram();
+			metrics.put(key,metricR);
+		    }
+		}
+	    }
+
+	    return (metricR);
+	}
+    }
+
+    /**
+     * Value that can go up and down.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static class Gauge {
+
+	/**
+	 * the value.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private final java.util.concurrent.atomic.AtomicLong value =
+	    new java.util.concurrent.atomic.AtomicLong();
+
+	/**
+	 * Adds to the value.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param amountI the amount to add (may be negative).
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void add(long amountI) {
+	    value.addAndGet(amountI);
+	}
+
+	/**
+	 * Gets the value.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @return the value.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final long get() {
+	    return (value.get());
+	}
+
+	/**
+	 * Sets the value.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param valueI the new value.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void set(long valueI) {
+	    value.set(valueI);
+	}
+    }
+
+    /**
+     * Distribution of durations over fixed buckets.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static class Histogram {
+
+	/**
+	 * the number of observations in each bucket (not cumulative).
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final java.util.concurrent.atomic.AtomicLongArray buckets =
+	    new java.util.concurrent.atomic.AtomicLongArray
+		(BUCKETS.length + 1);
+
+	/**
+	 * the number of observations.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private final java.util.concurrent.atomic.AtomicLong count =
+	    new java.util.concurrent.atomic.AtomicLong();
+
+	/**
+	 * the sum of the observations in nanoseconds.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private final java.util.concurrent.atomic.AtomicLong sumNanos =
+	    new java.util.concurrent.atomic.AtomicLong();
+
+	/**
+	 * Gets the number of observations.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @return the number of observations.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final long getCount() {
+	    return (count.get());
+	}
+
+	/**
+	 * Gets the sum of the observations in nanoseconds.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @return the sum.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final long getSumNanos() {
+	    return (sumNanos.get());
+	}
+
+	/**
+	 * Records an observation.
+	 * <p>
+	 * Negative durations are recorded as zero.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param nanosI the duration in nanoseconds.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void observeNanos(long nanosI) {
+	    long nanos = (nanosI < 0) ? 0 : nanosI;
+	    double seconds = nanos/1.e9;
+	    int idx = 0;
+
+	    while ((idx < BUCKETS.length) && (seconds > BUCKETS[idx])) {
+		++idx;
+	    }
+	    buckets.incrementAndGet(idx);
+	    sumNanos.addAndGet(nanos);
+	    count.incrementAndGet();
+	}
+    }
+
+    /**
+     * Supplies values to the registry just before it is exported.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    interface Sampler {
+
+	/**
+	 * Updates the registry.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param registryI the registry.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public abstract void sample(MetricsRegistry registryI);
+    }
+}
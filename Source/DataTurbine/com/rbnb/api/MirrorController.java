@@ -41,11 +41,29 @@ import com.rbnb.utility.ToString;
  * Actually, in both cases, the actual data transfer operation is driven from
  * the <code>NBO</code>.
  * <p>
+ * Normally, each frame is fetched from the <code>NBO</code> and posted to
+ * the <code>RBO</code> before the next one is fetched, which limits the
+ * mirror to one frame per round trip on a slow link.  A pipelined mirror
+ * (see <code>WINDOW</code>) fetches frames on a second thread while the
+ * earlier ones are being posted, and coalesces the frames that have piled
+ * up into a single frame (see <code>BATCH</code>) for each post.  The time
+ * by which the mirror trails the newest data fetched from the
+ * <code>NBO</code> is reported by the <code>MetricsRegistry</code>.
+ * <p>
+ * A mirror remembers the end of the newest data it has fetched, its
+ * high-water mark.  When its <code>Sink</code> is restarted, the first new
+ * frame shows whether anything was missed.  If it was, the missing interval
+ * is read out of the upstream cache and archive in pieces of
+ * <code>CATCHUP_SPAN</code> milliseconds, no faster than
+ * <code>CATCHUP_RATE</code> bytes per second, before the mirror goes back to
+ * streaming.  The destination ring buffer records how far it got in its own
+ * archive, so a mirror that appends to that archive starts from there.
+ * <p>
  *
  * @author Ian Brown
  *
  * @since V2.0
- * @version 12/22/2008
+ * @version 10/18/2026
  */
 
 /*
@@ -55,6 +73,8 @@ import com.rbnb.utility.ToString;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Resume from the high-water mark after a reconnect.
+ * 10/18/2026  JRS	Added the pipelined mirror and the mirror lag metric.
  * 03/13/2009  MJM	add synchronization call to mirror
  * 12/22/2008  JPW	In post(), we do a better job of properly handling the
  * 			case where we detect the sink connection has been shut
@@ -214,6 +234,250 @@ class MirrorController
      */
     private final static long MAX_NUM_RETRIES = 1500;
     
+    /**
+     * the most frames that a pipelined mirror coalesces into a single
+     * frame.
+     * <p>
+     * This can be set with the
+     * <code>com.rbnb.api.MirrorController.batch</code> system property.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #WINDOW
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int BATCH =
+	Math.max(1,
+		 Integer.getInteger("com.rbnb.api.MirrorController.batch",
+				    16).intValue());
+
+    /**
+     * the number of fetched frames that a pipelined mirror can hold while
+     * they wait to be posted.
+     * <p>
+     * With a window of zero, the default, each frame is posted before the
+     * next one is fetched.  Otherwise, a second thread keeps fetching frames
+     * until the window is full, which keeps the link busy and bounds the
+     * memory used.  This can be set with the
+     * <code>com.rbnb.api.MirrorController.window</code> system property.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #BATCH
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int WINDOW =
+	Math.max(0,
+		 Integer.getInteger("com.rbnb.api.MirrorController.window",
+				    0).intValue());
+
+    /**
+     * the most bytes per second read from the upstream server while a mirror
+     * catches up.
+     * <p>
+     * A value of zero means there is no limit.  This can be set with the
+     * <code>com.rbnb.api.MirrorController.catchupRate</code> system property.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #CATCHUP_SPAN
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static long CATCHUP_RATE =
+	Math.max(0L,
+		 Long.getLong("com.rbnb.api.MirrorController.catchupRate",
+			      1024L*1024L).longValue());
+
+    /**
+     * the span, in milliseconds, of each request made while a mirror catches
+     * up.
+     * <p>
+     * This can be set with the
+     * <code>com.rbnb.api.MirrorController.catchupSpan</code> system property.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #CATCHUP_RATE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static long CATCHUP_SPAN =
+	Math.max(1L,
+		 Long.getLong("com.rbnb.api.MirrorController.catchupSpan",
+			      10000L).longValue());
+
+    /**
+     * has the current catch-up returned any data?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean catchUpData = false;
+
+    /**
+     * the end of the interval being caught up.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double catchUpEnd = 0.;
+
+    /**
+     * is the point at <code>catchUpStart</code> already replicated?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean catchUpExclusive = false;
+
+    /**
+     * the <code>Sink</code> used to catch up, if a catch-up is under way.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #startCatchUp(double)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Sink catchUpSink = null;
+
+    /**
+     * the start of the rest of the interval being caught up.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double catchUpStart = 0.;
+
+    /**
+     * the exception that stopped the pipeline's fetch thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.lang.Exception fetchException = null;
+
+    /**
+     * the gauge reporting how far, in milliseconds, the posted data trails
+     * the newest data fetched.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private MetricsRegistry.Gauge lag = null;
+
+    /**
+     * the end of the newest data fetched, the high-water mark.
+     * <p>
+     * This starts at <code>-Double.MAX_VALUE</code>, meaning that nothing has
+     * been fetched yet.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #highWaterExclusive
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double highWater = -Double.MAX_VALUE;
+
+    /**
+     * does the high-water mark fall on a point of zero duration that has
+     * been fetched?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean highWaterExclusive = false;
+
+    /**
+     * the newest time fetched by the pipeline.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double newestFetched = -Double.MAX_VALUE;
+
+    /**
+     * the response that revealed a gap, held until the gap is caught
+     * up.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private Rmap pendingResponse = null;
+
+    /**
+     * the frames fetched by the pipeline and waiting to be posted.
+     * <p>
+     * A null entry marks the end of the fetched frames.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #WINDOW
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.LinkedList pipeline = null;
+
+    /**
+     * has the pipeline been stopped?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean pipelineStopped = false;
+
+    /**
+     * is the mirror checking for data missed while it was reconnecting?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean resuming = false;
+
     /**
      * Class constructor.
      * <p>
@@ -451,7 +715,7 @@ class MirrorController
      *		  thrown if the operation is interrupted.
      * @see #disconnectSink()
      * @since V2.0
-     * @version 02/21/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -459,6 +723,7 @@ class MirrorController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Moved the connection code to <code>openSink</code>.
      * 04/18/2001  INB	Created.
      *
      */
@@ -471,23 +736,9 @@ class MirrorController
     {
 	Server snkServer = ((getDirection() == PULL) ?
 			    getRemote() :
-			    (Server) getLocal()),
-	       srcServer = ((getDirection() == PULL) ?
-			    (Server) getLocal() :
-			    getRemote());
+			    (Server) getLocal());
 
-	if (snkServer instanceof ServerHandler) {
-	    snkServer = ((ServerHandler) snkServer).getClientSide();
-	    setSink(snkServer.createRAMSink
-		    ("_Mirror." + getSource().getName()));
-	} else {
-	    setSink(snkServer.createSink("_Mirror." + getSource().getName()));
-	}
-	getSink().setType(Client.MIRROR);
-	getSink().setRemoteID(srcServer.getAddress() +
-			      Rmap.PATHDELIMITER +
-			      getSource().getName());
-	getSink().start();
+	setSink(openSink(snkServer,"_Mirror." + getSource().getName()));
     }
 
     /**
@@ -606,16 +857,31 @@ class MirrorController
     }
     
     /**
-     * Computes the value of the specified <code>Action</code> at
-     * every end-point in the Rmap hierarchy.  An end-point is
-     * defined as a Rmap with no children.
+     * Fetches the next piece of the interval being caught up.
+     * <p>
+     * The interval is requested from the upstream server in pieces of no
+     * more than <code>CATCHUP_SPAN</code>, pausing as needed to hold the rate
+     * to <code>CATCHUP_RATE</code>.  A piece with no data is skipped.  If the
+     * catch-up fails, the live response that revealed the gap is dropped, so
+     * that the gap is looked for again with the next live response.
      * <p>
-     * <strong>Note:</strong>The Action should neither add nor delete children.
      *
-     * @author WHF
+     * @author John Stafford
      *
-     * @since V2.0
-     * @version 03/06/2007
+     * @return the data, or null once the interval has been caught up.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #startCatchUp(double)
+     * @since V3.6
+     * @version 10/18/2026
      */
 
     /*
@@ -623,55 +889,213 @@ class MirrorController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
-     * 03/06/2007  JPW	Copied from com.rbnb.sapi.Client.
+     * 10/18/2026  JRS	Created.
      *
      */
-    private static void forEachEndpoint(Rmap r, Action a) throws Exception
+    private final Rmap fetchCatchUp()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
     {
-	int n=r.getNchildren();
-	if (n==0)
-	    a.doAction(r);
-	else for (int ii=0; ii<n; ++ii)
-	    forEachEndpoint(r.getChildAt(ii),a);
+	// Stop short of the live response and skip a point that is already
+	// replicated.
+	double end = catchUpEnd - timeSlop(catchUpEnd);
+
+	try {
+	    while (catchUpStart < end) {
+		double start = catchUpStart,
+		    duration;
+		if (catchUpExclusive) {
+		    start += timeSlop(start);
+		}
+		duration = Math.min(CATCHUP_SPAN/1000.,end - start);
+		if (duration <= timeSlop(start)) {
+		    break;
+		}
+
+		long began = System.currentTimeMillis();
+		DataRequest request = new DataRequest(null,
+						      null,
+						      null,
+						      DataRequest.ABSOLUTE,
+						      DataRequest.EXISTING,
+						      1,
+						      0.,
+						      false,
+						      DataRequest.CONSOLIDATED);
+		for (int idx = 0; idx < getRequest().getNchildren(); ++idx) {
+		    Rmap child = getRequest().getChildAt(idx).duplicate();
+		    child.setFrange(null);
+		    child.setTrange(new TimeRange(start,duration));
+		    request.addChild(child);
+		}
+		catchUpSink.addChild(request);
+		catchUpSink.initiateRequestAt(0);
+
+		Rmap data = catchUpSink.fetch(TimerPeriod.RECONNECT);
+		if (data == null) {
+		    throw new java.io.InterruptedIOException
+			("Timed out catching up from " + start + ".");
+		} else if (data instanceof EndOfStream) {
+		    if (data.getNchildren() == 1) {
+			Rmap child = data.getChildAt(0);
+			data.removeChild(child);
+			data = child;
+		    } else {
+			data = null;
+		    }
+		}
+		long size = ((data == null) ? 0 : data.getDataSize());
+
+		if ((CATCHUP_RATE > 0) && (size > 0)) {
+		    long wait = (size*1000/CATCHUP_RATE -
+				 (System.currentTimeMillis() - began));
+		    if (wait > 0) {
+			Thread.currentThread().sleep(wait);
+		    }
+		}
+
+		double[] limits = ((size == 0) ? null : findLimits(data));
+		if (limits != null) {
+		    catchUpData = true;
+		    catchUpStart = limits[1];
+		    catchUpExclusive = (limits[2] == limits[1]);
+		    return (data);
+		}
+		catchUpStart = start + duration;
+		catchUpExclusive = false;
+	    }
+
+	    // Once a catch-up finds nothing, the mirror has stopped missing
+	    // data.
+	    resuming = catchUpData;
+
+	} catch (java.lang.InterruptedException e) {
+	    throw e;
+
+	} catch (java.lang.Exception e) {
+	    getLog().addException(getLogLevel(),
+				  getLogClass(),
+				  getSource().getName(),
+				  e);
+	    pendingResponse = null;
+	}
+
+	stopCatchUp();
+	return (null);
     }
-    
+
     /**
-     * Performs the specified <code>action</code> at every node in
-     * the hierarchy.
+     * Fetches the next response.
+     * <p>
+     * While the mirror is resuming, live responses that have already been
+     * replicated are dropped.  One that starts after the high-water mark is
+     * held back until the gap before it has been caught up.
      * <p>
-     * <strong>Note:</strong>The Action should neither add nor delete children.
      *
-     * @author WHF
+     * @author John Stafford
      *
-     * @since V2.0
-     * @version 03/06/2007
+     * @return the response, or null if there are no more.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #fetchCatchUp()
+     * @see #fetchStream()
+     * @since V3.6
+     * @version 10/18/2026
      */
-    
+
     /*
      *
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
-     * 03/06/2007  JPW	Copied from com.rbnb.sapi.Client.
+     * 10/18/2026  JRS	Created.
      *
      */
-    private static void forEachNode(Rmap r, Action a) throws Exception
+    private final Rmap fetchResponse()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
     {
-	int n=r.getNchildren();
-	a.doAction(r);
-	for (int ii=0; ii<n; ++ii)
-	    forEachNode(r.getChildAt(ii),a);		
+	Rmap response = null;
+
+	while (true) {
+	    if (catchUpSink != null) {
+		response = fetchCatchUp();
+		if (response != null) {
+		    noteFetched(response);
+		    return (response);
+		}
+	    }
+	    if (pendingResponse != null) {
+		response = pendingResponse;
+		pendingResponse = null;
+		noteFetched(response);
+		return (response);
+	    }
+
+	    response = fetchStream();
+	    double[] limits =
+		((!resuming ||
+		  (response == null) ||
+		  (response instanceof EndOfStream)) ?
+		 null :
+		 findLimits(response));
+
+	    if (limits == null) {
+		noteFetched(response);
+		return (response);
+
+	    } else if ((limits[1] < highWater) ||
+		       ((limits[1] == highWater) && highWaterExclusive)) {
+		// This response has already been replicated.
+
+	    } else if (limits[0] > highWater) {
+		// There may be a gap before this response.
+		pendingResponse = response;
+		startCatchUp(limits[0]);
+
+	    } else {
+		resuming = false;
+		noteFetched(response);
+		return (response);
+	    }
+	}
     }
-    
+
     /**
-     * Gets the <code>Log</code>.
+     * Fetches the next response from the streaming <code>Sink</code>,
+     * restarting the <code>Sink</code> if its connection is lost.
      * <p>
      *
-     * @author Ian Brown
+     * @author John Stafford
      *
-     * @return the <code>Log</code>.
-     * @since V2.0
-     * @version 11/19/2002
+     * @return the response, or null if there are no more.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #fetchResponse()
+     * @since V3.6
+     * @version 10/18/2026
      */
 
     /*
@@ -679,25 +1103,304 @@ class MirrorController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
-     * 11/19/2002  INB	Created.
-     *
-     */
-    public final Log getLog() {
-	return (getLocal().getLog());
-    }
-
-    /**
-     * Gets the log class mask for this <code>MirrorController</code>.
-     * <p>
-     * Log messages for this class use this mask.
-     * <p>
-     *
-     * @author Ian Brown
+     * 10/18/2026  JRS	Created from code in <code>loopRequest</code>.
      *
-     * @return the class mask.
-     * @see #getLogLevel()
-     * @since V2.0
-     * @version 01/11/2002
+     */
+    private final Rmap fetchStream()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	Rmap response = null;
+
+	// Keep trying until fetch succeeds
+	while (true) {
+	    try {
+		response = getSink().fetch(Sink.FOREVER);
+		// Fetch succeeded; break out of fetch loop
+		break;
+	    } catch (java.net.SocketException se) {
+		getLog().addException(
+		    getLogLevel(),
+		    getLogClass(),
+		    getSource().getName(),
+		    se);
+		// A stopped pipeline does not reconnect.
+		if (pipelineStopped) {
+		    throw se;
+		}
+		// If the original request was only for "EXISTING"
+		// data, then throw the exception - we're done
+		DataRequest dr = getRequest();
+		if (dr.getDomain() == DataRequest.EXISTING) {
+		    getLog().addMessage(
+			getLogLevel(),
+			getLogClass(),
+			getSource().getName(),
+			"Mirror sink request was only for existing data; we're done.");
+		    throw se;
+		}
+		int reconnectAttempt = 0;
+		long retryPeriod = MirrorController.INITIAL_RETRY_PERIOD;
+		while (true) {
+		    try {
+			getLog().addMessage(
+			    getLogLevel(),
+			    getLogClass(),
+			    getSource().getName(),
+			    "Restarting Mirror sink...");
+			reinitializeSink();
+			getLog().addMessage(
+			    getLogLevel(),
+			    getLogClass(),
+			    getSource().getName(),
+			    "Mirror sink successfully restarted");
+			// We succesfully reinitialized the Mirror sink; break out of the while loop
+			break;
+		    } catch (Exception reconnectException) {
+			getLog().addException(
+			    getLogLevel(),
+			    getLogClass(),
+			    getSource().getName(),
+			    reconnectException);
+			if (reconnectAttempt >= MirrorController.MAX_NUM_RETRIES) {
+			    getLog().addMessage(
+				getLogLevel(),
+				getLogClass(),
+				getSource().getName(),
+				"Exceeded maximum number of Mirror sink restart attempts");
+			    // Throw the original exception
+			    throw se;
+			} else {
+			    ++reconnectAttempt;
+			    retryPeriod = retryPeriod * 2;
+			    if (retryPeriod > MirrorController.RETRY_PERIOD_MAX) {
+				retryPeriod = RETRY_PERIOD_MAX;
+			    }
+			    try {
+				Thread.currentThread().sleep(retryPeriod);
+			    } catch (Exception sleepException) {
+				// Nothing to do
+			    }
+			}
+		    }
+		}
+	    }
+	}
+	return (response);
+    }
+
+    /**
+     * Finds the time limits of a response.
+     * <p>
+     * Times are added down the hierarchy, so the children of an
+     * <code>Rmap</code> are offset by its last point time.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param responseI  the response.
+     * @return the start of the earliest point, the end of the newest point
+     *	       and the start of the newest point, or null if the response has
+     *	       no times.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static double[] findLimits(Rmap responseI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	double[] limitsR = new double[3];
+	limitsR[0] = Double.MAX_VALUE;
+	limitsR[1] =
+	    limitsR[2] = -Double.MAX_VALUE;
+	findLimits(responseI,0.,limitsR);
+
+	return ((limitsR[0] == Double.MAX_VALUE) ? null : limitsR);
+    }
+
+    /**
+     * Finds the time limits of an <code>Rmap</code> hierarchy.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param rmapI    the <code>Rmap</code>.
+     * @param offsetI  the time offset inherited from the parents.
+     * @param limitsIO the limits found so far.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #findLimits(com.rbnb.api.Rmap)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static void findLimits(Rmap rmapI,
+					 double offsetI,
+					 double[] limitsIO)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	double offset = offsetI;
+	TimeRange trange = rmapI.getTrange();
+	double[] limits = ((trange == null) ? null : trange.getLimits());
+
+	if (limits != null) {
+	    double duration = trange.getDuration();
+	    if (Double.isNaN(duration)) {
+		duration = 0.;
+	    }
+	    double end = offsetI + limits[1];
+	    offset += limits[1] - duration;
+	    limitsIO[0] = Math.min(limitsIO[0],offsetI + limits[0]);
+	    if ((end > limitsIO[1]) ||
+		((end == limitsIO[1]) && (offset > limitsIO[2]))) {
+		limitsIO[1] = end;
+		limitsIO[2] = offset;
+	    }
+	}
+
+	for (int idx = 0; idx < rmapI.getNchildren(); ++idx) {
+	    findLimits(rmapI.getChildAt(idx),offset,limitsIO);
+	}
+    }
+
+    /**
+     * Computes the value of the specified <code>Action</code> at
+     * every end-point in the Rmap hierarchy.  An end-point is
+     * defined as a Rmap with no children.
+     * <p>
+     * <strong>Note:</strong>The Action should neither add nor delete children.
+     *
+     * @author WHF
+     *
+     * @since V2.0
+     * @version 03/06/2007
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 03/06/2007  JPW	Copied from com.rbnb.sapi.Client.
+     *
+     */
+    private static void forEachEndpoint(Rmap r, Action a) throws Exception
+    {
+	int n=r.getNchildren();
+	if (n==0)
+	    a.doAction(r);
+	else for (int ii=0; ii<n; ++ii)
+	    forEachEndpoint(r.getChildAt(ii),a);
+    }
+    
+    /**
+     * Performs the specified <code>action</code> at every node in
+     * the hierarchy.
+     * <p>
+     * <strong>Note:</strong>The Action should neither add nor delete children.
+     *
+     * @author WHF
+     *
+     * @since V2.0
+     * @version 03/06/2007
+     */
+    
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 03/06/2007  JPW	Copied from com.rbnb.sapi.Client.
+     *
+     */
+    private static void forEachNode(Rmap r, Action a) throws Exception
+    {
+	int n=r.getNchildren();
+	a.doAction(r);
+	for (int ii=0; ii<n; ++ii)
+	    forEachNode(r.getChildAt(ii),a);		
+    }
+    
+    /**
+     * Gets the <code>Log</code>.
+     * <p>
+     *
+     * @author Ian Brown
+     *
+     * @return the <code>Log</code>.
+     * @since V2.0
+     * @version 11/19/2002
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 11/19/2002  INB	Created.
+     *
+     */
+    public final Log getLog() {
+	return (getLocal().getLog());
+    }
+
+    /**
+     * Gets the log class mask for this <code>MirrorController</code>.
+     * <p>
+     * Log messages for this class use this mask.
+     * <p>
+     *
+     * @author Ian Brown
+     *
+     * @return the class mask.
+     * @see #getLogLevel()
+     * @since V2.0
+     * @version 01/11/2002
      */
 
     /*
@@ -1017,17 +1720,18 @@ class MirrorController
     }
     
     /**
-     * THIS IS THE ORIGINAL VERSION OF THE loopRequest() METHOD (BEFORE
-     * SINK RECONNECTION LOGIC WAS ADDED).
-     * Loops on the request.
+     * Loops, posting the frames fetched by a <code>PipelineFetcher</code>
+     * until the request completes.
+     * <p>
+     * Each pass takes up to <code>BATCH</code> of the waiting frames and
+     * posts them as one, so a slow destination sees fewer, larger, frames
+     * rather than falling further and further behind.
      * <p>
      *
-     * @author Ian Brown
+     * @author John Stafford
      *
      * @exception com.rbnb.api.AddressException
      *		  thrown if there is a problem with an address.
-     * @exception com.rbnb.api.EndOfStreamException
-     *		  thrown if the request stream ends prematurely.
      * @exception com.rbnb.api.SerializeException
      *		  thrown if there is a problem with the serialization.
      * @exception java.io.EOFException
@@ -1036,9 +1740,10 @@ class MirrorController
      *		  thrown if there is an error during I/O.
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
-     * @see #issueRequest()
-     * @since V2.0
-     * @version 11/17/2003
+     * @see #loopRequest()
+     * @see #WINDOW
+     * @since V3.6
+     * @version 10/18/2026
      */
 
     /*
@@ -1046,45 +1751,101 @@ class MirrorController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
-     * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
-     *			<code>Thread</code> and ensure that <code>Locks</code>
-     *			are released.
-     * 04/18/2001  INB	Created.
+     * 10/18/2026  JRS	Created.
      *
      */
-    private final void loopRequest_original()
+    private final void loopPipelined()
 	throws com.rbnb.api.AddressException,
 	       com.rbnb.api.SerializeException,
 	       java.io.EOFException,
 	       java.io.IOException,
 	       java.lang.InterruptedException
     {
-	Rmap response = null;
+	pipeline = new java.util.LinkedList();
+	lag = MetricsRegistry.getDefault().gauge(MetricsRegistry.MIRROR_LAG,
+						 getSource().getFullName());
+	Thread fetcher = new ThreadWithLocks(new PipelineFetcher(),
+					     getThread().getName() + ".fetch");
+	fetcher.start();
 
-	while ((response = getSink().fetch(Sink.FOREVER)) != null) {
-	    if (response instanceof EndOfStream) {
-		if (response.getNchildren() == 1) {
-		    Rmap child = response.getChildAt(0);
-		    response.removeChild(child);
-		    post(child,false);
+	try {
+	    java.util.Vector frames = new java.util.Vector();
+	    boolean done = false;
+
+	    while (!done) {
+		frames.removeAllElements();
+		synchronized (pipeline) {
+		    while (pipeline.isEmpty()) {
+			pipeline.wait(TimerPeriod.NORMAL_WAIT);
+		    }
+
+		    // Take up to a batch of frames.  The end marker is left
+		    // in place.
+		    while (!pipeline.isEmpty() && (frames.size() < BATCH)) {
+			Rmap frame = (Rmap) pipeline.getFirst();
+			if (frame == null) {
+			    done = true;
+			    break;
+			}
+			pipeline.removeFirst();
+			if (frame instanceof EndOfStream) {
+			    if (frame.getNchildren() == 1) {
+				Rmap child = frame.getChildAt(0);
+				frame.removeChild(child);
+				frames.addElement(child);
+			    }
+			    done = true;
+			    break;
+			}
+			frames.addElement(frame);
+		    }
+		    pipeline.notifyAll();
+		}
+
+		postFrames(frames);
+
+		if (getThread() != null) {
+		    ((ThreadWithLocks) getThread()).ensureLocksCleared
+			(toString(),
+			 "MirrorController.loopPipelined",
+			 getLog(),
+			 getLogLevel(),
+			 getLogClass());
 		}
-		break;
-	    } else {
-		post(response,false);
 	    }
-	    
-	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).ensureLocksCleared
-		    (toString(),
-		     "MirrorController.loopRequest",
-		     getLog(),
-		     getLogLevel(),
-		     getLogClass());
+
+	    // Pass on whatever stopped the fetches.
+	    java.lang.Exception e = fetchException;
+	    if (e instanceof com.rbnb.api.AddressException) {
+		throw (com.rbnb.api.AddressException) e;
+	    } else if (e instanceof com.rbnb.api.SerializeException) {
+		throw (com.rbnb.api.SerializeException) e;
+	    } else if (e instanceof java.io.IOException) {
+		throw (java.io.IOException) e;
+	    } else if (e instanceof java.lang.InterruptedException) {
+		throw (java.lang.InterruptedException) e;
+	    } else if (e != null) {
+		throw (java.lang.RuntimeException) e;
 	    }
-	}
-    }
-    
+
+	} finally {
+	    synchronized (pipeline) {
+		pipelineStopped = true;
+		pipeline.clear();
+		pipeline.notifyAll();
+	    }
+	    try {
+		MetricsRegistry.getDefault().remove(MetricsRegistry.MIRROR_LAG,
+						    getSource().getFullName());
+	    } catch (java.lang.Exception e) {
+	    }
+	    lag = null;
+	}
+    }
+
     /**
+     * THIS IS THE ORIGINAL VERSION OF THE loopRequest() METHOD (BEFORE
+     * SINK RECONNECTION LOGIC WAS ADDED).
      * Loops on the request.
      * <p>
      *
@@ -1104,7 +1865,73 @@ class MirrorController
      *		  thrown if the operation is interrupted.
      * @see #issueRequest()
      * @since V2.0
-     * @version 05/29/2007
+     * @version 11/17/2003
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
+     *			<code>Thread</code> and ensure that <code>Locks</code>
+     *			are released.
+     * 04/18/2001  INB	Created.
+     *
+     */
+    private final void loopRequest_original()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	Rmap response = null;
+
+	while ((response = getSink().fetch(Sink.FOREVER)) != null) {
+	    if (response instanceof EndOfStream) {
+		if (response.getNchildren() == 1) {
+		    Rmap child = response.getChildAt(0);
+		    response.removeChild(child);
+		    post(child,false);
+		}
+		break;
+	    } else {
+		post(response,false);
+	    }
+	    
+	    if (getThread() != null) {
+		((ThreadWithLocks) getThread()).ensureLocksCleared
+		    (toString(),
+		     "MirrorController.loopRequest",
+		     getLog(),
+		     getLogLevel(),
+		     getLogClass());
+	    }
+	}
+    }
+    
+    /**
+     * Loops on the request.
+     * <p>
+     *
+     * @author Ian Brown
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.EndOfStreamException
+     *		  thrown if the request stream ends prematurely.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #issueRequest()
+     * @since V2.0
+     * @version 10/18/2026
      */
     
     /*
@@ -1112,6 +1939,8 @@ class MirrorController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Moved the fetch retry loop to
+     *			<code>fetchResponse</code>.
      * 05/29/2007  JPW	Add Sink reconnection logic.
      * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
      *			<code>Thread</code> and ensure that <code>Locks</code>
@@ -1129,76 +1958,7 @@ class MirrorController
 	Rmap response = null;
 	
 	while (true) {
-	    // Keep trying until fetch succeeds
-	    while (true) {
-		try {
-		    response = getSink().fetch(Sink.FOREVER);
-		    // Fetch succeeded; break out of fetch loop
-		    break;
-		} catch (java.net.SocketException se) {
-		    getLog().addException(
-			getLogLevel(),
-			getLogClass(),
-			getSource().getName(),
-			se);
-		    // If the original request was only for "EXISTING"
-		    // data, then throw the exception - we're done
-		    DataRequest dr = getRequest();
-		    if (dr.getDomain() == DataRequest.EXISTING) {
-			getLog().addMessage(
-			    getLogLevel(),
-			    getLogClass(),
-			    getSource().getName(),
-			    "Mirror sink request was only for existing data; we're done.");
-			throw se;
-		    }
-		    int reconnectAttempt = 0;
-		    long retryPeriod = MirrorController.INITIAL_RETRY_PERIOD;
-		    while (true) {
-			try {
-			    getLog().addMessage(
-			    	getLogLevel(),
-				getLogClass(),
-				getSource().getName(),
-				"Restarting Mirror sink...");
-			    reinitializeSink();
-			    getLog().addMessage(
-				getLogLevel(),
-				getLogClass(),
-				getSource().getName(),
-				"Mirror sink successfully restarted");
-			    // We succesfully reinitialized the Mirror sink; break out of the while loop
-			    break;
-			} catch (Exception reconnectException) {
-			    getLog().addException(
-				getLogLevel(),
-				getLogClass(),
-				getSource().getName(),
-				reconnectException);
-			    if (reconnectAttempt >= MirrorController.MAX_NUM_RETRIES) {
-				getLog().addMessage(
-				    getLogLevel(),
-				    getLogClass(),
-				    getSource().getName(),
-				    "Exceeded maximum number of Mirror sink restart attempts");
-				// Throw the original exception
-				throw se;
-			    } else {
-				++reconnectAttempt;
-				retryPeriod = retryPeriod * 2;
-				if (retryPeriod > MirrorController.RETRY_PERIOD_MAX) {
-				    retryPeriod = RETRY_PERIOD_MAX;
-				}
-				try {
-				    Thread.currentThread().sleep(retryPeriod);
-				} catch (Exception sleepException) {
-				    // Nothing to do
-				}
-			    }
-			}
-		    }
-		}
-	    }
+	    response = fetchResponse();
 	    if (response == null) {
 		break;
 	    }
@@ -1224,16 +1984,200 @@ class MirrorController
 	}
     }
     
+    /**
+     * Gets the newest time in a frame.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param frameI  the frame.
+     * @return the newest time, or <code>-Double.MAX_VALUE</code> if the
+     *	       frame has no time.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static double newestTime(Rmap frameI) {
+	try {
+	    TimeRange trange = frameI.summarize().getTrange();
+	    if (trange != null) {
+		return (trange.getTime() + trange.getDuration());
+	    }
+	} catch (java.lang.Exception e) {
+	}
+	return (-Double.MAX_VALUE);
+    }
+
+    /**
+     * Moves the high-water mark up to the end of a fetched response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param responseI  the response.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void noteFetched(Rmap responseI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	double[] limits = ((responseI == null) ? null : findLimits(responseI));
+
+	if ((limits != null) && (limits[1] >= highWater)) {
+	    highWaterExclusive = ((limits[1] > highWater) ?
+				  (limits[2] == limits[1]) :
+				  (highWaterExclusive ||
+				   (limits[2] == limits[1])));
+	    highWater = limits[1];
+	}
+    }
+
+    /**
+     * Opens a mirror <code>Sink</code> on a server.
+     * <p>
+     *
+     * @author Ian Brown
+     *
+     * @param serverI the server.
+     * @param nameI   the name of the <code>Sink</code>.
+     * @return the started <code>Sink</code>.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>createSink</code>.
+     *
+     */
+    private final Sink openSink(Server serverI,String nameI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	Server server = serverI,
+	       srcServer = ((getDirection() == PULL) ?
+			    (Server) getLocal() :
+			    getRemote());
+	Sink sinkR;
+
+	if (server instanceof ServerHandler) {
+	    server = ((ServerHandler) server).getClientSide();
+	    sinkR = server.createRAMSink(nameI);
+	} else {
+	    sinkR = server.createSink(nameI);
+	}
+	sinkR.setType(Client.MIRROR);
+	sinkR.setRemoteID(srcServer.getAddress() +
+			  Rmap.PATHDELIMITER +
+			  getSource().getName());
+	sinkR.start();
+
+	return (sinkR);
+    }
+
+    /**
+     * Posts a data response, stripping off the <code>Server</code> and
+     * <code>Source</code> information.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param responseI	       the response <code>Rmap</code> to post.
+     * @param bIsRegistrationI is the response registration information?
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #post(com.rbnb.api.Rmap,boolean,boolean)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void post(Rmap responseI, boolean bIsRegistrationI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	post(responseI,bIsRegistrationI,true);
+    }
+
     /**
      * Posts a data response.
      * <p>
      * This method strips off the <code>Server</code> and <code>Source</code>
-     * information from the input response before passing it to the target.
+     * information from the input response before passing it to the target,
+     * unless told that has already been done.
      * <p>
      *
      * @author Ian Brown
      *
-     * @param responseI  the response <code>Rmap</code> to post.
+     * @param responseI	       the response <code>Rmap</code> to post.
+     * @param bIsRegistrationI is the response registration information?
+     * @param bStripI	       strip off the <code>Server</code> and
+     *			       <code>Source</code> information?
      * @exception com.rbnb.api.AddressException
      *		  thrown if there is a problem with an address.
      * @exception com.rbnb.api.EndOfStreamException
@@ -1247,7 +2191,7 @@ class MirrorController
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 12/22/2008
+     * @version 10/18/2026
      */
 
     /*
@@ -1255,6 +2199,8 @@ class MirrorController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added <code>bStripI</code>. Moved the stripping to
+     *			<code>stripResponse</code>.
      * 03/13/2009  MJM add synchronization call to help mirror to wait on network 
      * 			disconnect (versus continuing to send/buffer data that gets lost on
      * 			reconnect).
@@ -1269,7 +2215,9 @@ class MirrorController
      * 04/18/2001  INB	Created.
      *
      */
-    private final void post(Rmap responseI, boolean bIsRegistrationI)
+    private final void post(Rmap responseI,
+			    boolean bIsRegistrationI,
+			    boolean bStripI)
 	throws com.rbnb.api.AddressException,
 	       com.rbnb.api.SerializeException,
 	       java.io.EOFException,
@@ -1278,65 +2226,8 @@ class MirrorController
     {
 	
 	// Strip out the <code>Server</code> and <code>Source</code>
-	// information from the response. In addition, strip out unnecessary
-	// unnamed <code>Rmaps</code>.
-	Rmap response = responseI,
-	     level;
-	boolean foundServer = false,
-		foundSource = false,
-		hasInfo = false;
-	
-	for (level = responseI;
-	     !hasInfo ||!foundServer || !foundSource;
-	     level = level.getChildAt(0)) {
-	    boolean hadInfo = hasInfo;
-	    
-	    if (!hasInfo && (level.getParent() != null)) {
-		response = level;
-	    }
-	    
-	    if (!foundServer) {
-		if (level instanceof Server) {
-		    level.setName(null);
-		    foundServer = true;
-		} else if (level instanceof Client) {
-		    throw new java.lang.IllegalArgumentException
-			("Mirror request produced an Rmap that cannot be " +
-			 "properly placed into the output." +
-			 responseI);
-		}
-	    } else if (!foundSource) {
-		if (level instanceof Client) {
-		    level.setName(null);
-		    foundSource = true;
-		}
-	    }
-	    
-	    if (!level.isNamelessTimeless()) {
-		hasInfo = true;
-	    }
-	    if (!foundServer || !foundSource) {
-		if (level.getNchildren() > 1) {
-		    throw new java.lang.IllegalArgumentException
-			("Mirror request produced an Rmap that cannot be " +
-			 "properly placed into the output.\n" +
-			 responseI);
-		}
-	    } else {
-		hasInfo = hasInfo || (level.getNchildren() > 1);
-	    }
-	    
-	    if (hasInfo && foundServer && foundSource) {
-		if (!hadInfo) {
-		    response = response.getParent();
-		}
-		break;
-	    }
-	}
-	
-	if (response != responseI) {
-	    response.getParent().removeChild(response);
-	}
+	// information from the response, unless that has already been done.
+	Rmap response = (bStripI ? stripResponse(responseI) : responseI);
 	
 	// Send the result to our <code>Source</code>.
 	if (bIsRegistrationI) {
@@ -1492,9 +2383,160 @@ class MirrorController
 		}
 	    }
 	}
-	
+	
+    }
+    
+    /**
+     * Posts a batch of frames fetched by the pipeline.
+     * <p>
+     * Two or more frames are stripped and merged into a single frame, so that
+     * the whole batch costs one round trip to the destination.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param framesI  the frames.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #loopPipelined()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void postFrames(java.util.Vector framesI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (framesI.size() == 0) {
+	    return;
+	}
+
+	double newest = -Double.MAX_VALUE;
+	for (int idx = 0; idx < framesI.size(); ++idx) {
+	    newest = Math.max(newest,newestTime((Rmap) framesI.elementAt(idx)));
+	}
+
+	if (framesI.size() == 1) {
+	    post((Rmap) framesI.firstElement(),false);
+	} else {
+	    Rmap merged = new Rmap();
+	    for (int idx = 0; idx < framesI.size(); ++idx) {
+		merged.mergeWith(stripResponse((Rmap) framesI.elementAt(idx)));
+	    }
+	    post(merged,false,false);
+	}
+
+	if ((lag != null) && (newest != -Double.MAX_VALUE)) {
+	    double fetched;
+	    synchronized (pipeline) {
+		fetched = newestFetched;
+	    }
+	    lag.set((long) Math.max(0.,(fetched - newest)*1000.));
+	}
+    }
+
+    /**
+     * Reads the high-water mark back from a destination <code>Source</code>
+     * that is appending to its archive.
+     * <p>
+     * The end of the newest data in the destination's ring buffer is where
+     * the mirror left off.  If there is any, the request is changed to
+     * resume from there.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #resumeRequest()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void readHighWater() {
+	if ((getSource().getAmode() != Source.ACCESS_APPEND) ||
+	    (getRequest().getDomain() == DataRequest.EXISTING)) {
+	    return;
+	}
+
+	Sink sink = null;
+	try {
+	    Server srcServer = ((getDirection() == PULL) ?
+				(Server) getLocal() :
+				getRemote());
+	    sink = openSink(srcServer,
+			    "_Mirror." + getSource().getName() + ".resume");
+
+	    DataRequest request = new DataRequest(null,
+						  null,
+						  null,
+						  DataRequest.NEWEST,
+						  DataRequest.EXISTING,
+						  1,
+						  0.,
+						  false,
+						  DataRequest.CONSOLIDATED);
+	    Rmap child = Rmap.createFromName(getSource().getName() +
+					     Rmap.PATHDELIMITER +
+					     "...");
+	    child.setTrange(new TimeRange(0.,0.));
+	    child.moveToBottom().setDblock(new DataBlock(new byte[1],1,1));
+	    request.addChild(child);
+	    sink.addChild(request);
+	    sink.initiateRequestAt(0);
+
+	    double[] limits = findLimits(sink.fetch(Sink.FOREVER));
+	    if (limits != null) {
+		highWater = limits[1];
+		highWaterExclusive = (limits[2] == limits[1]);
+		resuming = true;
+		resumeRequest();
+	    }
+
+	} catch (java.lang.Exception e) {
+	    try {
+		getLog().addException(getLogLevel(),
+				      getLogClass(),
+				      getSource().getName(),
+				      e);
+	    } catch (java.lang.Exception e1) {
+	    }
+
+	} finally {
+	    if (sink != null) {
+		try {
+		    sink.stop();
+		} catch (java.lang.Exception e) {
+		}
+	    }
+	}
     }
-    
+
     /**
      * Reinitialize the <code>Sink</code>.
      * <p>
@@ -1514,7 +2556,7 @@ class MirrorController
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 05/29/2007
+     * @version 10/18/2026
      */
 
     /*
@@ -1522,6 +2564,7 @@ class MirrorController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Resume from the high-water mark.
      * 05/29/2007  JPW	Created.
      *
      */
@@ -1537,12 +2580,10 @@ class MirrorController
 	} catch (Exception ignoreException) {
 	    // don't do anything
 	}
-	// Tweak the request to start from newest
-	DataRequest dr = getRequest();
-	dr.setReference(DataRequest.NEWEST);
-	dr.setDomain(DataRequest.FUTURE);
-	dr.setRepetitions(DataRequest.INFINITE, dr.getIncrement());
-	setRequest(dr);
+	stopCatchUp();
+	pendingResponse = null;
+	resuming = (highWater != -Double.MAX_VALUE);
+	resumeRequest();
 	createSink();
 	// Reissue the request
 	issueRequest();
@@ -1628,6 +2669,35 @@ class MirrorController
 	// setRegistration();
     }
     
+    /**
+     * Changes the request to stream from the newest data.
+     * <p>
+     * Anything between the high-water mark and the first new response is
+     * caught up separately.
+     * <p>
+     *
+     * @author John Wilson
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>reinitializeSink</code>.
+     *
+     */
+    private final void resumeRequest() {
+	DataRequest dr = getRequest();
+	dr.setReference(DataRequest.NEWEST);
+	dr.setDomain(DataRequest.FUTURE);
+	dr.setRepetitions(DataRequest.INFINITE, dr.getIncrement());
+	setRequest(dr);
+    }
+
     /**
      * Runs the mirror.
      * <p>
@@ -1635,7 +2705,7 @@ class MirrorController
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 04/27/2007
+     * @version 10/18/2026
      */
 
     /*
@@ -1643,6 +2713,9 @@ class MirrorController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Resume where an appended destination left off.
+     * 10/18/2026  JRS	Use <code>loopPipelined</code> when <code>WINDOW</code>
+     *			is set.
      * 04/27/2007  JPW	Add reconnection logic on the Sink connection;
      *			when reconnecting the Sink, start data request
      *			at NEWEST.
@@ -1668,11 +2741,17 @@ class MirrorController
 	    //                 of the mirrored data.
 	    setRegistration();
 
-	    // Issue the request.
+	    // Issue the request, resuming where an appended destination left
+	    // off.
+	    readHighWater();
 	    issueRequest();
 
 	    // Loop until the request completes.
-	    loopRequest();
+	    if (WINDOW > 0) {
+		loopPipelined();
+	    } else {
+		loopRequest();
+	    }
 	} catch (java.lang.Exception e) {
 	    try {
 		String name;
@@ -1699,6 +2778,7 @@ class MirrorController
 	    }
 
 	} finally {
+	    stopCatchUp();
 	    try {
 		disconnectSource(false);
 	    } catch (java.lang.Exception e) {
@@ -1932,6 +3012,219 @@ class MirrorController
 	thread = threadI;
     }
     
+    /**
+     * Starts catching up the interval from the high-water mark to a time.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param untilI the end of the interval.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #fetchCatchUp()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void startCatchUp(double untilI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	Server snkServer = ((getDirection() == PULL) ?
+			    getRemote() :
+			    (Server) getLocal());
+
+	getLog().addMessage(getLogLevel(),
+			    getLogClass(),
+			    getSource().getName(),
+			    "Catching up from " + highWater + " to " + untilI +
+			    ".");
+	catchUpStart = highWater;
+	catchUpExclusive = highWaterExclusive;
+	catchUpEnd = untilI;
+	catchUpData = false;
+	catchUpSink = openSink(snkServer,
+			       "_Mirror." + getSource().getName() + ".catchup");
+    }
+
+    /**
+     * Stops catching up.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void stopCatchUp() {
+	if (catchUpSink != null) {
+	    try {
+		catchUpSink.stop();
+	    } catch (java.lang.Exception e) {
+	    }
+	    catchUpSink = null;
+	}
+    }
+
+    /**
+     * Strips off the <code>Server</code> and <code>Source</code>
+     * information, and any unnecessary unnamed <code>Rmaps</code>, from a
+     * response.
+     * <p>
+     *
+     * @author Ian Brown
+     *
+     * @param responseI  the response <code>Rmap</code>.
+     * @return the stripped response.
+     * @exception java.lang.IllegalArgumentException
+     *		  thrown if the response cannot be placed into the output.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>post</code>.
+     *
+     */
+    private final Rmap stripResponse(Rmap responseI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	// Strip out the <code>Server</code> and <code>Source</code>
+	// information from the response. In addition, strip out unnecessary
+	// unnamed <code>Rmaps</code>.
+	Rmap response = responseI,
+	     level;
+	boolean foundServer = false,
+		foundSource = false,
+		hasInfo = false;
+	
+	for (level = responseI;
+	     !hasInfo ||!foundServer || !foundSource;
+	     level = level.getChildAt(0)) {
+	    boolean hadInfo = hasInfo;
+	    
+	    if (!hasInfo && (level.getParent() != null)) {
+		response = level;
+	    }
+	    
+	    if (!foundServer) {
+		if (level instanceof Server) {
+		    level.setName(null);
+		    foundServer = true;
+		} else if (level instanceof Client) {
+		    throw new java.lang.IllegalArgumentException
+			("Mirror request produced an Rmap that cannot be " +
+			 "properly placed into the output." +
+			 responseI);
+		}
+	    } else if (!foundSource) {
+		if (level instanceof Client) {
+		    level.setName(null);
+		    foundSource = true;
+		}
+	    }
+	    
+	    if (!level.isNamelessTimeless()) {
+		hasInfo = true;
+	    }
+	    if (!foundServer || !foundSource) {
+		if (level.getNchildren() > 1) {
+		    throw new java.lang.IllegalArgumentException
+			("Mirror request produced an Rmap that cannot be " +
+			 "properly placed into the output.\n" +
+			 responseI);
+		}
+	    } else {
+		hasInfo = hasInfo || (level.getNchildren() > 1);
+	    }
+	    
+	    if (hasInfo && foundServer && foundSource) {
+		if (!hadInfo) {
+		    response = response.getParent();
+		}
+		break;
+	    }
+	}
+	
+	if (response != responseI) {
+	    response.getParent().removeChild(response);
+	}
+
+	return (response);
+    }
+    
+    /**
+     * Gets the slop allowed when comparing a time.
+     * <p>
+     * This is used to step just past, or to stop just short of, a point.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param timeI  the time.
+     * @return the slop.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static double timeSlop(double timeI) {
+	return (Math.max(Math.abs(timeI),1.)*1.e-12);
+    }
+
     /**
      * Stop the output source.  This is used when the Mirror's output Source is
      * trying to reconnect - first, the output Source must be terminated
@@ -2009,5 +3302,120 @@ class MirrorController
 	controller.stop();
 	
     }
-}
 
+    /**
+     * Fetches frames for a pipelined mirror.
+     * <p>
+     * The frames are queued in <code>pipeline</code>, with a null marking
+     * the end, for <code>loopPipelined</code> to post.  No more than
+     * <code>WINDOW</code> frames are allowed to wait.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #loopPipelined()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final class PipelineFetcher
+	implements Runnable
+    {
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	PipelineFetcher() {
+	    super();
+	}
+
+	/**
+	 * Fetches frames until the request completes or the pipeline is
+	 * stopped.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final void run() {
+	    try {
+		while (true) {
+		    Rmap response = fetchResponse();
+		    double newest =
+			((response == null) ?
+			 -Double.MAX_VALUE :
+			 newestTime(response));
+
+		    synchronized (pipeline) {
+			while (!pipelineStopped &&
+			       (pipeline.size() >= WINDOW)) {
+			    pipeline.wait(TimerPeriod.NORMAL_WAIT);
+			}
+			if (pipelineStopped) {
+			    break;
+			}
+			newestFetched = Math.max(newestFetched,newest);
+			pipeline.addLast(response);
+			pipeline.notifyAll();
+		    }
+
+		    if ((response == null) ||
+			(response instanceof EndOfStream)) {
+			break;
+		    }
+
+		    ((ThreadWithLocks) Thread.currentThread()).
+			ensureLocksCleared
+			(toString(),
+			 "MirrorController.PipelineFetcher.run",
+			 getLog(),
+			 getLogLevel(),
+			 getLogClass());
+		}
+	    } catch (java.lang.Exception e) {
+		fetchException = e;
+	    } finally {
+		// Mark the end of the frames.
+		synchronized (pipeline) {
+		    if (!pipelineStopped) {
+			pipeline.addLast(null);
+		    }
+		    pipeline.notifyAll();
+		}
+	    }
+	}
+    }
+}
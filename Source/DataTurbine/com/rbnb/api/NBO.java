@@ -1324,7 +1324,7 @@ final class NBO
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 03/21/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1332,6 +1332,8 @@ final class NBO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Remove the delivery lag from the
+     *			<code>MetricsRegistry</code>.
      * 03/21/2003  INB	Made final. Clear <code>RemoteClients</code> list.
      * 06/11/2001  INB	Created.
      *
@@ -1369,6 +1371,12 @@ final class NBO
 	    }
 	}
 
+	// Drop our delivery lag from the <code>MetricsRegistry</code>.
+	try {
+	    MetricsRegistry.getDefault().remove(MetricsRegistry.DELIVERY_LAG,
+						getFullName());
+	} catch (java.lang.Exception e) {
+	}
 
 	// Perform the <code>RBO</code> shutdown.
 	super.shutdown();
@@ -0,0 +1,533 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Extended <code>TCP</code> that serves connections using non-blocking I/O.
+ * <p>
+ * NIO addresses take the form:
+ * <p>
+ * nio://[host][:port]
+ * <p>
+ * A server started on an NIO address listens on a
+ * <code>java.nio.channels.ServerSocketChannel</code>.  The control and data
+ * connections it accepts are registered with a small pool of
+ * <code>NIOSelector</code> threads rather than each getting an
+ * <code>RCO</code> thread of its own.  When a connection has input, its
+ * <code>NIORCO</code> is run on a shared pool of worker threads until the
+ * input is used up.  An idle client therefore does not tie up a thread.
+ * <p>
+ * The bytes on the wire are exactly the same as for TCP, so clients connect
+ * to an NIO server with a regular TCP address (or with the NIO address
+ * itself, which is handled by the client side of this class as a TCP
+ * address).
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.NIOConnection
+ * @see com.rbnb.api.NIORCO
+ * @see com.rbnb.api.NIOSelector
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Release the port as soon as the server stops.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class NIO
+    extends com.rbnb.api.TCP
+{
+    /**
+     * Class constructor.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #NIO(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    NIO() {
+	super();
+    }
+
+    /**
+     * Class constructor to build a <code>NIO</code> object for the input
+     * address.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param addressI  the NIO address.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with the address.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    NIO(String addressI)
+	throws com.rbnb.api.AddressException
+    {
+	super(addressI);
+    }
+
+    /**
+     * Accepts connections to a server-side connection object.
+     * <p>
+     * The connections are accepted by the selector thread.  This method
+     * waits for the next one, admits it as <code>TCP</code> does, and then
+     * hands the channel to an <code>NIOConnection</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverSideI the server-side connection object.
+     * @param timeOutI  timeout in milliseconds.
+     *			<br><ul>
+     *			<li><code>Client.FOREVER</code> means wait for a
+     *			    connection to show up, or</li>
+     *			<li>anything else means wait for a connection to show
+     *			    up or for the timeout period to elapse.</li>
+     *			</ul>
+     * @return the socket of the connection, or null if none showed up.
+     * @exception java.io.IOException
+     *		  thrown if there is an I/O problem.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if the address is rejected for any reason.
+     * @see #newServerSide(com.rbnb.api.ServerHandler)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Object accept(Object serverSideI,long timeOutI)
+	throws com.rbnb.api.AddressException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	Listener listener = (Listener) serverSideI;
+	java.nio.channels.SocketChannel channel = null;
+
+	if ((timeOutI == 0) || (timeOutI == Client.FOREVER)) {
+	    while ((channel == null) && listener.channel.isOpen()) {
+		channel = (java.nio.channels.SocketChannel)
+		    listener.accepted.poll
+		    (TimerPeriod.NORMAL_WAIT,
+		     java.util.concurrent.TimeUnit.MILLISECONDS);
+	    }
+	} else {
+	    channel = (java.nio.channels.SocketChannel)
+		listener.accepted.poll
+		(timeOutI,
+		 java.util.concurrent.TimeUnit.MILLISECONDS);
+	}
+	if (channel == null) {
+	    return (null);
+	}
+
+	// The channel is still in blocking mode, so any authentication is
+	// done exactly as for TCP.
+	java.net.Socket socketR = admit(channel.socket());
+	new NIOConnection(channel);
+
+	return (socketR);
+    }
+
+    /**
+     * Builds a valid NIO address.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param addressI  the address object.
+     * @return the valid NIO address.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if the address cannot be made into a valid one.
+     * @see com.rbnb.api.TCP#buildAddress(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final static String buildAddress(String addressI)
+	throws com.rbnb.api.AddressException
+    {
+	String lAddress = addressI;
+	if ((lAddress != null) &&
+	    (lAddress.length() >= 6) &&
+	    lAddress.substring(0,6).equalsIgnoreCase("nio://")) {
+	    lAddress = lAddress.substring(6);
+	}
+
+	return ("nio://" + TCP.buildAddress(lAddress).substring(6));
+    }
+
+    /**
+     * Closes a connection object for this <code>NIO</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param connectionI the connection object.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void close(Object connectionI) {
+	if (connectionI instanceof Listener) {
+	    ((Listener) connectionI).close();
+
+	} else {
+	    NIOConnection connection = null;
+	    if (connectionI instanceof java.net.Socket) {
+		connection = NIOConnection.forSocket
+		    ((java.net.Socket) connectionI);
+	    }
+	    super.close(connectionI);
+	    if (connection != null) {
+		connection.closed();
+	    }
+	}
+    }
+
+    /**
+     * Gets the scheme that prefixes addresses of this type.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the scheme, "nio://".
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final String getScheme() {
+	return ("nio://");
+    }
+
+    /**
+     * Gets a server socket channel.
+     * <p>
+     * The binding follows the same rules as <code>TCP</code>.  The channel
+     * is registered with an <code>NIOSelector</code> to accept connections.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverHandlerI the <code>ServerHandler</code>.
+     * @return the connection object.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if the address is for a something other than the local
+     *		  host.
+     * @exception java.io.IOException
+     *		  thrown if an I/O error occurs during the socket creation.
+     * @exception java.lang.SecurityException
+     *		  thrown if a security manager exists and doesn't allow the
+     *		  connection.
+     * @see #accept(java.lang.Object,long)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Object newServerSide(ServerHandler serverHandlerI)
+	throws com.rbnb.api.AddressException,
+	       java.io.IOException,
+	       java.lang.SecurityException
+    {
+	RBNB sh = (RBNB) serverHandlerI;
+	int backlog = Math.max(100,sh.getMaxActivityThreads()*2 + 8);
+	java.net.InetSocketAddress bindTo;
+
+	synchronized (this) {
+	    if (getHost() == null) {
+		parseAddress(getAddress());
+	    }
+	}
+	if ((getHost() == null) || getHost().equals(getLocalHost())) {
+	    System.err.println("ServerSocketChannel: " + getHost() +
+			       ", listening on all interfaces...");
+	    bindTo = new java.net.InetSocketAddress(getPort());
+	} else {
+	    bindTo = new java.net.InetSocketAddress(getHost(),getPort());
+	}
+
+	java.nio.channels.ServerSocketChannel channel =
+	    java.nio.channels.ServerSocketChannel.open();
+	try {
+	    channel.socket().bind(bindTo,backlog);
+	} catch (java.io.IOException e) {
+	    channel.close();
+	    throw e;
+	}
+
+	Listener listenerR = new Listener(channel,NIOSelector.next());
+	listenerR.selector.register
+	    (channel,
+	     java.nio.channels.SelectionKey.OP_ACCEPT,
+	     listenerR);
+
+	return (listenerR);
+    }
+
+    /**
+     * Server-side connection object for an <code>NIO</code> address.
+     * <p>
+     * Connections accepted by the selector thread are queued for
+     * <code>accept</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     * Copyright 2026 Creare Inc.
+     * All Rights Reserved
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static class Listener
+	implements com.rbnb.api.NIOSelector.Handler
+    {
+	/**
+	 * the accepted connections.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final java.util.concurrent.LinkedBlockingQueue accepted =
+	    new java.util.concurrent.LinkedBlockingQueue();
+
+	/**
+	 * the server socket channel.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final java.nio.channels.ServerSocketChannel channel;
+
+	/**
+	 * the selector the channel is registered with.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final NIOSelector selector;
+
+	/**
+	 * Class constructor to build a <code>Listener</code> for a server
+	 * socket channel.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param channelI  the channel.
+	 * @param selectorI the selector to register it with.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	Listener(java.nio.channels.ServerSocketChannel channelI,
+		 NIOSelector selectorI)
+	{
+	    super();
+	    channel = channelI;
+	    selector = selectorI;
+	}
+
+	/**
+	 * Closes the channel and any connections that have not been picked
+	 * up.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Close the channel through the selector, so that
+	 *			the port is released straight away.
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	final void close() {
+	    selector.close(channel);
+
+	    java.nio.channels.SocketChannel waiting;
+	    while ((waiting = (java.nio.channels.SocketChannel)
+		    accepted.poll()) != null) {
+		try {
+		    waiting.close();
+		} catch (java.io.IOException e) {
+		}
+	    }
+	}
+
+	/**
+	 * Accepts the pending connections.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param keyI    the <code>SelectionKey</code> of the channel.
+	 * @param bufferI unused.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final void ready(java.nio.channels.SelectionKey keyI,
+				java.nio.ByteBuffer bufferI)
+	{
+	    java.nio.channels.SocketChannel socketChannel;
+
+	    try {
+		while ((socketChannel = channel.accept()) != null) {
+		    accepted.add(socketChannel);
+		}
+	    } catch (java.io.IOException e) {
+		if (!channel.isOpen()) {
+		    keyI.cancel();
+		}
+	    }
+	}
+
+	/**
+	 * Records the <code>SelectionKey</code> of the channel.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param keyI the <code>SelectionKey</code>.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final void registered(java.nio.channels.SelectionKey keyI) {
+	}
+    }
+}
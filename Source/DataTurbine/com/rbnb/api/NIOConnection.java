@@ -0,0 +1,1032 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Server-side connection of the <code>NIO</code> transport.
+ * <p>
+ * An <code>NIOConnection</code> wraps a non-blocking
+ * <code>java.nio.channels.SocketChannel</code> registered with an
+ * <code>NIOSelector</code>.  The selector thread reads whatever bytes arrive
+ * into a queue held by the connection and then tells the
+ * <code>NIORCO</code> listening to the connection, if any, that there is
+ * input.
+ * <p>
+ * The <code>InputStream</code> of the connection reads from that queue and
+ * honors the socket timeout, so the <code>Language</code> and
+ * <code>SerializingRCO</code> code works on it exactly as it does on a
+ * regular socket stream.  The <code>OutputStream</code> writes straight to
+ * the channel, waiting for the selector to report that the channel is
+ * writable when the socket buffer is full.
+ * <p>
+ * When more than <code>com.rbnb.api.NIO.readLimit</code> bytes (default
+ * 256 KB) are waiting to be read, the selector stops reading the channel
+ * until half of them have been consumed.  This pushes back on clients that
+ * send faster than the server can handle.
+ * <p>
+ * The <code>RCO</code> code works with the <code>java.net.Socket</code> of
+ * the channel.  The connection for a socket is found with
+ * <code>forSocket</code>.
+ * <p>
+ * Reads are made by the shared <code>NIORCO</code> workers once the start
+ * of a message has arrived, and block until the rest of it does.  So that a
+ * client that stops in the middle of a message cannot keep a worker from
+ * the pool forever, a read on a socket without a timeout fails the
+ * connection if no input arrives for <code>com.rbnb.api.NIO.stallLimit</code>
+ * milliseconds (default 30 seconds).
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.NIORCO
+ * @see com.rbnb.api.NIOSelector
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Fail connections that stall in the middle of a
+ *			message.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class NIOConnection
+    implements com.rbnb.api.NIOSelector.Handler
+{
+    /**
+     * the number of buffered bytes at which reading is suspended.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int READ_LIMIT =
+	Integer.getInteger("com.rbnb.api.NIO.readLimit",
+			   262144).intValue();
+
+    /**
+     * the longest time a read waits without any input arriving.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static long STALL_LIMIT =
+	Long.getLong("com.rbnb.api.NIO.stallLimit",
+		     30000L).longValue();
+
+    /**
+     * the open connections, by socket.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static java.util.concurrent.ConcurrentHashMap connections =
+	new java.util.concurrent.ConcurrentHashMap();
+
+    /**
+     * the number of bytes buffered.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int buffered = 0;
+
+    /**
+     * the channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.nio.channels.SocketChannel channel;
+
+    /**
+     * when input last arrived.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long inputAt = System.currentTimeMillis();
+
+    /**
+     * the buffered chunks of input.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.LinkedList chunks = new java.util.LinkedList();
+
+    /**
+     * has the connection been closed?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean closed = false;
+
+    /**
+     * has the end of the input been reached?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean endOfStream = false;
+
+    /**
+     * the offset into the first chunk.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int firstOffset = 0;
+
+    /**
+     * the input stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.io.InputStream input = new Input();
+
+    /**
+     * the <code>SelectionKey</code> of the channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.nio.channels.SelectionKey key = null;
+
+    /**
+     * the <code>NIORCO</code> told about input.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private NIORCO listener = null;
+
+    /**
+     * the output stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.io.OutputStream output = new Output();
+
+    /**
+     * has reading been suspended?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean readSuspended = false;
+
+    /**
+     * the selector.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final NIOSelector selector;
+
+    /**
+     * is the channel writable?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean writable = true;
+
+    /**
+     * the lock used to wait for the channel to become writable.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Class constructor to build an <code>NIOConnection</code> for a
+     * channel.
+     * <p>
+     * The channel is registered with the next <code>NIOSelector</code> and
+     * reading starts immediately.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param channelI the channel.
+     * @exception java.io.IOException
+     *		  thrown if the channel cannot be registered.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    NIOConnection(java.nio.channels.SocketChannel channelI)
+	throws java.io.IOException
+    {
+	super();
+	channel = channelI;
+	selector = NIOSelector.next();
+	connections.put(channel.socket(),this);
+	selector.register(channel,
+			  java.nio.channels.SelectionKey.OP_READ,
+			  this);
+    }
+
+    /**
+     * Gets the number of bytes available to be read without blocking.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized int available() {
+	return (buffered);
+    }
+
+    /**
+     * Notes that the connection has been closed.
+     * <p>
+     * The channel itself is closed by the code that closes the socket.  This
+     * method releases anyone waiting on the connection and tells the
+     * listener so that it can shut down.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Close the channel through the selector.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void closed() {
+	NIORCO lListener;
+
+	connections.remove(channel.socket());
+	selector.close(channel);
+	synchronized (this) {
+	    closed = true;
+	    lListener = listener;
+	    notifyAll();
+	}
+	synchronized (writeLock) {
+	    writeLock.notifyAll();
+	}
+	if (lListener != null) {
+	    lListener.dispatch();
+	}
+    }
+
+    /**
+     * Finds the connection for a socket.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param socketI the socket.
+     * @return the connection, or null if the socket does not belong to an
+     *	       open <code>NIOConnection</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static NIOConnection forSocket(java.net.Socket socketI) {
+	return ((socketI == null) ?
+		null :
+		(NIOConnection) connections.get(socketI));
+    }
+
+    /**
+     * Gets the input stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the input stream.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final java.io.InputStream getInputStream() {
+	return (input);
+    }
+
+    /**
+     * Gets the output stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the output stream.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final java.io.OutputStream getOutputStream() {
+	return (output);
+    }
+
+    /**
+     * Has the end of the input been reached with nothing left to read?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return is the input exhausted?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized boolean isEndOfStream() {
+	return ((endOfStream || closed) && (buffered == 0));
+    }
+
+    /**
+     * Reads bytes from the buffered input, waiting for them if necessary.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param bufferO  the buffer to read into.
+     * @param offsetI  the offset into the buffer.
+     * @param lengthI  the maximum number of bytes to read.
+     * @return the number of bytes read, or -1 at the end of the input.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the read is interrupted.
+     * @exception java.io.IOException
+     *		  thrown if the connection has been closed, or if it stalls
+     *		  with no socket timeout set.
+     * @exception java.net.SocketTimeoutException
+     *		  thrown if the socket timeout expires first.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Give up on input that stalls with no socket
+     *			timeout set.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final int read(byte[] bufferO,int offsetI,int lengthI)
+	throws java.io.IOException
+    {
+	int readR = 0;
+	boolean resume = false;
+
+	if (lengthI == 0) {
+	    return (0);
+	}
+
+	synchronized (this) {
+	    int timeOut = channel.socket().getSoTimeout();
+	    long startAt = System.currentTimeMillis();
+	    long nowAt;
+
+	    try {
+		while ((buffered == 0) && !endOfStream && !closed) {
+		    if (timeOut == 0) {
+			// This is not reported as a timeout, as those are
+			// ignored by receive, which would then read the rest
+			// of the message as the start of another.
+			// Input that sat waiting for a worker does not count
+			// against the client.
+			long since = Math.max(inputAt,startAt);
+			nowAt = System.currentTimeMillis();
+			if (nowAt - since >= STALL_LIMIT) {
+			    throw new java.io.IOException
+				(channel.socket() + " stalled for " +
+				 (nowAt - since) + " ms in a message.");
+			}
+			wait(Math.min(TimerPeriod.NORMAL_WAIT,
+				      STALL_LIMIT - (nowAt - since)));
+		    } else if ((nowAt = System.currentTimeMillis()) - startAt >=
+			       timeOut) {
+			throw new java.net.SocketTimeoutException
+			    ("Read timed out");
+		    } else {
+			wait(timeOut - (nowAt - startAt));
+		    }
+		}
+	    } catch (java.lang.InterruptedException e) {
+		throw new java.io.InterruptedIOException();
+	    }
+
+	    if (buffered == 0) {
+		if (endOfStream) {
+		    return (-1);
+		}
+		throw new java.net.SocketException("Socket closed");
+	    }
+
+	    while ((readR < lengthI) && !chunks.isEmpty()) {
+		byte[] chunk = (byte[]) chunks.getFirst();
+		int amount = Math.min(lengthI - readR,
+				      chunk.length - firstOffset);
+		System.arraycopy(chunk,
+				 firstOffset,
+				 bufferO,
+				 offsetI + readR,
+				 amount);
+		readR += amount;
+		firstOffset += amount;
+		if (firstOffset == chunk.length) {
+		    chunks.removeFirst();
+		    firstOffset = 0;
+		}
+	    }
+	    buffered -= readR;
+
+	    if (readSuspended && (buffered <= READ_LIMIT/2)) {
+		readSuspended = false;
+		resume = true;
+	    }
+	}
+
+	if (resume) {
+	    selector.changeInterest(key,
+				    java.nio.channels.SelectionKey.OP_READ,
+				    true);
+	}
+
+	return (readR);
+    }
+
+    /**
+     * Handles the channel being ready.
+     * <p>
+     * Called by the selector thread.  Readable channels are read until they
+     * have nothing more to give and the bytes are added to the buffered
+     * input.  A writable channel releases the writer waiting for it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param keyI    the <code>SelectionKey</code> of the channel.
+     * @param bufferI a buffer the channel can be read into.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Note when the input arrives.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void ready(java.nio.channels.SelectionKey keyI,
+			    java.nio.ByteBuffer bufferI)
+    {
+	NIORCO lListener = null;
+
+	if (keyI.isValid() && keyI.isWritable()) {
+	    keyI.interestOps(keyI.interestOps() &
+			     ~java.nio.channels.SelectionKey.OP_WRITE);
+	    synchronized (writeLock) {
+		writable = true;
+		writeLock.notifyAll();
+	    }
+	}
+
+	if (keyI.isValid() && keyI.isReadable()) {
+	    boolean eof = false;
+	    int amount;
+
+	    try {
+		do {
+		    bufferI.clear();
+		    if ((amount = channel.read(bufferI)) > 0) {
+			byte[] chunk = new byte[amount];
+			bufferI.flip();
+			bufferI.get(chunk);
+			synchronized (this) {
+			    chunks.addLast(chunk);
+			    buffered += amount;
+			    inputAt = System.currentTimeMillis();
+			}
+		    } else if (amount == -1) {
+			eof = true;
+		    }
+		} while (amount == bufferI.capacity());
+	    } catch (java.io.IOException e) {
+		eof = true;
+	    }
+
+	    synchronized (this) {
+		if (eof) {
+		    endOfStream = true;
+		    keyI.cancel();
+		} else if (buffered >= READ_LIMIT) {
+		    readSuspended = true;
+		    keyI.interestOps(keyI.interestOps() &
+				     ~java.nio.channels.SelectionKey.OP_READ);
+		}
+		lListener = listener;
+		notifyAll();
+	    }
+	}
+
+	if (lListener != null) {
+	    lListener.dispatch();
+	}
+    }
+
+    /**
+     * Records the <code>SelectionKey</code> of the channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param keyI the <code>SelectionKey</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void registered(java.nio.channels.SelectionKey keyI) {
+	NIORCO lListener;
+
+	synchronized (this) {
+	    key = keyI;
+	    if (key == null) {
+		endOfStream = true;
+	    }
+	    lListener = listener;
+	    notifyAll();
+	}
+	if ((keyI == null) && (lListener != null)) {
+	    lListener.dispatch();
+	}
+    }
+
+    /**
+     * Sets the <code>NIORCO</code> to tell about input.
+     * <p>
+     * If there is already input waiting, the new listener is told about it
+     * right away.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param listenerI the <code>NIORCO</code>, or null to stop telling
+     *			anyone.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void setListener(NIORCO listenerI) {
+	boolean waiting;
+
+	synchronized (this) {
+	    listener = listenerI;
+	    waiting = (buffered > 0) || endOfStream || closed;
+	}
+	if ((listenerI != null) && waiting) {
+	    listenerI.dispatch();
+	}
+    }
+
+    /**
+     * Waits for the channel to become writable.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the wait is interrupted.
+     * @exception java.net.SocketException
+     *		  thrown if the connection is closed.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void waitForWritable()
+	throws java.io.IOException
+    {
+	java.nio.channels.SelectionKey lKey;
+
+	synchronized (this) {
+	    lKey = key;
+	}
+	synchronized (writeLock) {
+	    writable = false;
+	}
+	if (lKey == null) {
+	    // Not registered yet; just give the socket a moment.
+	    synchronized (writeLock) {
+		writable = true;
+	    }
+	    try {
+		Thread.sleep(1);
+	    } catch (java.lang.InterruptedException e) {
+		throw new java.io.InterruptedIOException();
+	    }
+	    return;
+	}
+	selector.changeInterest(lKey,
+				java.nio.channels.SelectionKey.OP_WRITE,
+				true);
+
+	try {
+	    synchronized (writeLock) {
+		while (!writable) {
+		    if (!channel.isOpen() || !lKey.isValid()) {
+			throw new java.net.SocketException("Socket closed");
+		    }
+		    writeLock.wait(TimerPeriod.NORMAL_WAIT);
+		}
+	    }
+	} catch (java.lang.InterruptedException e) {
+	    throw new java.io.InterruptedIOException();
+	}
+    }
+
+    /**
+     * Writes bytes to the channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param bufferI the buffer to write from.
+     * @param offsetI the offset into the buffer.
+     * @param lengthI the number of bytes to write.
+     * @exception java.io.IOException
+     *		  thrown if the write fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void write(byte[] bufferI,int offsetI,int lengthI)
+	throws java.io.IOException
+    {
+	java.nio.ByteBuffer bb =
+	    java.nio.ByteBuffer.wrap(bufferI,offsetI,lengthI);
+
+	while (bb.hasRemaining()) {
+	    if (channel.write(bb) == 0) {
+		waitForWritable();
+	    }
+	}
+    }
+
+    /**
+     * Input stream reading from the buffered input.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     * Copyright 2026 Creare Inc.
+     * All Rights Reserved
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final class Input
+	extends java.io.InputStream
+    {
+
+	/**
+	 * Gets the number of bytes that can be read without blocking.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @return the number of bytes.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final int available() {
+	    return (NIOConnection.this.available());
+	}
+
+	/**
+	 * Reads a byte.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @return the byte, or -1 at the end of the input.
+	 * @exception java.io.IOException
+	 *	      thrown if the read fails.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final int read()
+	    throws java.io.IOException
+	{
+	    byte[] single = new byte[1];
+	    return ((NIOConnection.this.read(single,0,1) == -1) ?
+		    -1 :
+		    (single[0] & 0xff));
+	}
+
+	/**
+	 * Reads bytes into a buffer.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param bufferO the buffer.
+	 * @param offsetI the offset into the buffer.
+	 * @param lengthI the maximum number of bytes.
+	 * @return the number of bytes read, or -1 at the end of the input.
+	 * @exception java.io.IOException
+	 *	      thrown if the read fails.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final int read(byte[] bufferO,int offsetI,int lengthI)
+	    throws java.io.IOException
+	{
+	    return (NIOConnection.this.read(bufferO,offsetI,lengthI));
+	}
+    }
+
+    /**
+     * Output stream writing to the channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     * Copyright 2026 Creare Inc.
+     * All Rights Reserved
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final class Output
+	extends java.io.OutputStream
+    {
+
+	/**
+	 * Writes a byte.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param byteI the byte.
+	 * @exception java.io.IOException
+	 *	      thrown if the write fails.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final void write(int byteI)
+	    throws java.io.IOException
+	{
+	    byte[] single = new byte[1];
+	    single[0] = (byte) byteI;
+	    NIOConnection.this.write(single,0,1);
+	}
+
+	/**
+	 * Writes bytes from a buffer.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param bufferI the buffer.
+	 * @param offsetI the offset into the buffer.
+	 * @param lengthI the number of bytes.
+	 * @exception java.io.IOException
+	 *	      thrown if the write fails.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public final void write(byte[] bufferI,int offsetI,int lengthI)
+	    throws java.io.IOException
+	{
+	    NIOConnection.this.write(bufferI,offsetI,lengthI);
+	}
+    }
+}
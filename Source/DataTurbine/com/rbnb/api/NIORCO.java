@@ -0,0 +1,791 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Extended <code>TCPRCO</code> for connections accepted by an
+ * <code>NIO</code> address.
+ * <p>
+ * An <code>NIORCO</code> does not have a thread of its own.  Its control
+ * connection is an <code>NIOConnection</code>, which tells it when input
+ * arrives.  It then submits itself to a shared pool of worker threads, and
+ * the worker handles the messages that have arrived using
+ * <code>RCO.serviceWaiting</code>.  At most one worker runs an
+ * <code>NIORCO</code> at a time, so its messages are still handled in
+ * order.
+ * <p>
+ * The pool has at most <code>com.rbnb.api.NIO.workers</code> threads
+ * (default four times the number of processors, and at least eight), which
+ * exit when they have been idle for a minute.  Connections with input wait
+ * in the pool's queue for a free worker.  As an <code>NIORCO</code> is
+ * never queued twice, the queue holds at most one entry per connection.
+ * <p>
+ * A worker still waits for the rest of a message that has only partly
+ * arrived, since the selector threads keep reading it in.  If the client
+ * stops sending in the middle of the message, the
+ * <code>NIOConnection</code> gives up after
+ * <code>com.rbnb.api.NIO.stallLimit</code> milliseconds without input and the
+ * connection is shut down, which returns the worker to the pool.  It never
+ * waits for anything that needs another worker: after a login, the
+ * messages on the control connection are held until the client's data
+ * connection has been attached, rather than the worker waiting for it.  A
+ * <code>TimerTask</code> shuts the connection down if the data connection
+ * does not arrive within <code>TimerPeriod.STARTUP_WAIT</code>.
+ * <p>
+ * The data connection is read through the same streams, but never
+ * dispatches anything itself.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.NIO
+ * @see com.rbnb.api.NIOConnection
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Documented the stall limit on partial messages.
+ * 10/18/2026  JRS	Capped the worker pool.  Hold messages until the data
+ *			connection arrives instead of waiting for it.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class NIORCO
+    extends com.rbnb.api.TCPRCO
+    implements com.rbnb.api.TimerTaskInterface
+{
+    /**
+     * the maximum number of worker threads.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int WORKERS =
+	Integer.getInteger
+	("com.rbnb.api.NIO.workers",
+	 Math.max(8,4*Runtime.getRuntime().availableProcessors())).intValue();
+
+    /**
+     * the worker thread pool.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static java.util.concurrent.ThreadPoolExecutor workers = null;
+
+    /**
+     * the control connection.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private NIOConnection connection = null;
+
+    /**
+     * the data connection.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private NIOConnection dataConnection = null;
+
+    /**
+     * the time by which the data connection must arrive.
+     * <p>
+     * This is zero unless a login is waiting for its data connection.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #isHeld()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private volatile long dataDeadline = 0L;
+
+    /**
+     * the <code>TimerTask</code> that enforces <code>dataDeadline</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private TimerTask dataTT = null;
+
+    /**
+     * the lock protecting the dispatch state.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final Object dispatchLock = new Object();
+
+    /**
+     * has this <code>NIORCO</code> been shut down?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean finished = false;
+
+    /**
+     * has this <code>NIORCO</code> been submitted to the worker pool?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean scheduled = false;
+
+    /**
+     * the task run by the workers.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final Runnable service = new Runnable() {
+	public final void run() {
+	    service();
+	}
+    };
+
+    /**
+     * has this <code>NIORCO</code> been started?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean started = false;
+
+    /**
+     * Class constructor to build an <code>NIORCO</code> for a connection to
+     * a <code>ServerHandler</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param serverSideI the socket of the connection.
+     * @param rbnbI	  the <code>ServerHandler</code>.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if this operation is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is problem during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    NIORCO(Object serverSideI,ServerHandler rbnbI)
+	throws java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	super(serverSideI,rbnbI);
+	connection = NIOConnection.forSocket((java.net.Socket) serverSideI);
+    }
+
+    /**
+     * Attaches an existing data socket.
+     * <p>
+     * The data connection stops telling anyone about its input; it is read
+     * by whoever is handling the control connection.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param dataSocketI the data socket.
+     * @exception java.io.IOException
+     *		  thrown if there is an I/O problem.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Release the messages held for the data connection.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void attachDataSocket(java.net.Socket dataSocketI)
+	throws java.io.IOException
+    {
+	dataConnection = NIOConnection.forSocket(dataSocketI);
+	if (dataConnection != null) {
+	    dataConnection.setListener(null);
+	}
+	super.attachDataSocket(dataSocketI);
+
+	// Release any messages held for the data connection.
+	if (dataTT != null) {
+	    dataTT.cancel();
+	    dataTT = null;
+	}
+	dataDeadline = 0L;
+	dispatch();
+    }
+
+    /**
+     * Holds the messages on the control connection until the client's data
+     * connection arrives.
+     * <p>
+     * Rather than having the worker wait, which could use up the pool while
+     * the data connections wait for workers of their own, this sets a
+     * deadline and returns.  <code>isHeld</code> stops the handling of
+     * further messages until <code>attachDataSocket</code> clears it.  If
+     * the server has no <code>Timer</code> to enforce the deadline, the
+     * worker waits as a <code>TCPRCO</code> would.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.io.IOException
+     *		  thrown if the data connection does not arrive in time.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @see #isHeld()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void awaitDataConnection()
+	throws java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	Timer timer = ((getServerHandler() instanceof RBNB) ?
+		       ((RBNB) getServerHandler()).getTimer() :
+		       null);
+
+	if ((getSerialize().getIdata() != null) || (timer == null)) {
+	    super.awaitDataConnection();
+	    return;
+	}
+
+	long waitFor = ((System.getProperty("SHORTCONNECTIONS") != null) ?
+			100L :
+			TimerPeriod.STARTUP_WAIT);
+	dataDeadline = System.currentTimeMillis() + waitFor;
+	dataTT = new TimerTask(this,"NIORCO.data");
+	timer.schedule(dataTT,waitFor);
+    }
+
+    /**
+     * Disconnects from the <code>ACO</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the I/O is interrupted.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @see com.rbnb.api.TCPRCO#disconnect()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void disconnect()
+	throws java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	// The control socket may have been handed to another RCO as its data
+	// socket, in which case it is no longer ours to close.
+	boolean owned = (getServerSide() != null);
+
+	try {
+	    super.disconnect();
+	} finally {
+	    if ((connection != null) && owned) {
+		connection.closed();
+	    }
+	    if (dataConnection != null) {
+		dataConnection.closed();
+		dataConnection = null;
+	    }
+	}
+    }
+
+    /**
+     * Submits this <code>NIORCO</code> to the worker pool, unless it is
+     * already there or has been shut down.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void dispatch() {
+	synchronized (dispatchLock) {
+	    if (scheduled || finished || !started) {
+		return;
+	    }
+	    scheduled = true;
+	}
+	getWorkers().execute(service);
+    }
+
+    /**
+     * Gets the input stream for a socket.
+     * <p>
+     * This implementation returns the stream of the socket's
+     * <code>NIOConnection</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param socketI the socket.
+     * @return the input stream.
+     * @exception java.net.SocketException
+     *		  thrown if the connection has been closed.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final java.io.InputStream getSocketInput(java.net.Socket socketI)
+	throws java.io.IOException
+    {
+	NIOConnection lConnection = NIOConnection.forSocket(socketI);
+	if (lConnection == null) {
+	    throw new java.net.SocketException("Socket closed");
+	}
+	return (lConnection.getInputStream());
+    }
+
+    /**
+     * Gets the output stream for a socket.
+     * <p>
+     * This implementation returns the stream of the socket's
+     * <code>NIOConnection</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param socketI the socket.
+     * @return the output stream.
+     * @exception java.net.SocketException
+     *		  thrown if the connection has been closed.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final java.io.OutputStream getSocketOutput(java.net.Socket socketI)
+	throws java.io.IOException
+    {
+	NIOConnection lConnection = NIOConnection.forSocket(socketI);
+	if (lConnection == null) {
+	    throw new java.net.SocketException("Socket closed");
+	}
+	return (lConnection.getOutputStream());
+    }
+
+    /**
+     * Gets the worker thread pool, creating it if necessary.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the pool.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Cap the pool at <code>WORKERS</code> threads.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static synchronized java.util.concurrent.Executor
+	getWorkers()
+    {
+	if (workers == null) {
+	    workers = new java.util.concurrent.ThreadPoolExecutor
+		(WORKERS,
+		 WORKERS,
+		 60L,
+		 java.util.concurrent.TimeUnit.SECONDS,
+		 new java.util.concurrent.LinkedBlockingQueue(),
+		 new java.util.concurrent.ThreadFactory() {
+		     private int count = 0;
+
+		     public final synchronized Thread newThread
+			 (Runnable runnableI)
+		     {
+			 Thread threadR = new ThreadWithLocks
+			     (runnableI,"NIORCO.worker." + count++);
+			 threadR.setDaemon(true);
+			 return (threadR);
+		     }
+		 });
+	    workers.allowCoreThreadTimeOut(true);
+	}
+
+	return (workers);
+    }
+
+    /**
+     * Does this <code>NIORCO</code> have something to do?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return is there input or a stop request?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Held messages are not work.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final boolean hasWork() {
+	if (dataDeadline != 0L) {
+	    // Held messages are released by the data connection or by the
+	    // timer.
+	    return (getTerminateRequested());
+	}
+
+	try {
+	    return (getTerminateRequested() ||
+		    (connection == null) ||
+		    (connection.available() > 0) ||
+		    connection.isEndOfStream() ||
+		    isWaiting());
+	} catch (java.lang.Exception e) {
+	    // Let the worker run into the problem and shut down.
+	    return (true);
+	}
+    }
+
+    /**
+     * Is this <code>NIORCO</code> running?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return has it been started and not yet shut down?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean isAlive() {
+	synchronized (dispatchLock) {
+	    return (started && !finished);
+	}
+    }
+
+    /**
+     * Are the messages on the control connection being held for the data
+     * connection?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return is a login waiting for its data connection?
+     * @exception java.io.IOException
+     *		  thrown if the data connection did not arrive in time.
+     * @see #awaitDataConnection()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean isHeld()
+	throws java.io.IOException
+    {
+	long deadline = dataDeadline;
+
+	if (deadline == 0L) {
+	    return (false);
+	} else if (System.currentTimeMillis() < deadline) {
+	    return (true);
+	}
+	throw new java.io.IOException
+	    (this + " failed to get expected data connection.");
+    }
+
+    /**
+     * Handles the input that has arrived.
+     * <p>
+     * Runs on a worker thread.  Keeps going as long as there is more to do,
+     * so that input arriving while the worker is busy is not lost.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void service() {
+	boolean more = true;
+
+	while (more) {
+	    boolean eof = (connection == null) || connection.isEndOfStream();
+
+	    if (serviceWaiting(eof)) {
+		synchronized (dispatchLock) {
+		    finished = true;
+		    scheduled = false;
+		}
+		synchronized (this) {
+		    notifyAll();
+		}
+		return;
+	    }
+
+	    // Give up the slot first so that the selector can dispatch new
+	    // input, then take it back if there is already work to do.
+	    synchronized (dispatchLock) {
+		scheduled = false;
+	    }
+	    more = false;
+	    if (hasWork()) {
+		synchronized (dispatchLock) {
+		    if (!scheduled && !finished) {
+			scheduled = more = true;
+		    }
+		}
+	    }
+	}
+    }
+
+    /**
+     * Starts this <code>NIORCO</code>.
+     * <p>
+     * Rather than starting a thread, this registers for input on the
+     * control connection.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem completing the connection due
+     *		  addressing problems.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the I/O is interrupted.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void start()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	synchronized (dispatchLock) {
+	    if (started) {
+		return;
+	    }
+	    started = true;
+	}
+
+	if (connection == null) {
+	    // The connection went away before we got here.
+	    dispatch();
+	} else {
+	    connection.setListener(this);
+	}
+    }
+
+    /**
+     * Makes sure that a worker notices the stop request.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void stopMe() {
+	super.stopMe();
+	dispatch();
+    }
+
+    /**
+     * Handles the data connection deadline.
+     * <p>
+     * The worker finds that the deadline has passed and shuts this
+     * <code>NIORCO</code> down.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param ttI the <code>TimerTask</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void timerTask(TimerTask ttI) {
+	dispatch();
+    }
+}
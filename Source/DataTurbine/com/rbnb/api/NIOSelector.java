@@ -0,0 +1,481 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * I/O thread for the <code>NIO</code> transport.
+ * <p>
+ * Each <code>NIOSelector</code> owns a
+ * <code>java.nio.channels.Selector</code> and waits on it for the channels
+ * registered with it to become ready.  Ready channels are passed to their
+ * <code>Handler</code>, which must not block:  server socket channels accept
+ * their new connections and <code>NIOConnections</code> buffer whatever
+ * bytes have arrived.
+ * <p>
+ * A small, fixed pool of selectors is shared by all of the
+ * <code>NIO</code> addresses in the JVM.  The size of the pool is set by the
+ * <code>com.rbnb.api.NIO.selectors</code> system property; it defaults to
+ * half the number of processors, but no more than four.
+ * <p>
+ * Changes to the registrations are queued and performed by the selector
+ * thread itself, which is woken up for the purpose.  Registered channels
+ * are closed with <code>close</code>, as the socket of a registered channel
+ * is only released once its selector has woken up.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.NIO
+ * @see com.rbnb.api.NIOConnection
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>close</code>.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class NIOSelector
+    extends java.lang.Thread
+{
+    /**
+     * the number of selectors in the pool.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int SELECTORS =
+	Integer.getInteger
+	("com.rbnb.api.NIO.selectors",
+	 Math.max(1,
+		  Math.min(4,
+			   Runtime.getRuntime().availableProcessors()/2))).
+	intValue();
+
+    /**
+     * the size of the buffer channels are read into.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int READ_SIZE = 65536;
+
+    /**
+     * the selector pool.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static NIOSelector[] pool = null;
+
+    /**
+     * the index of the selector to use for the next registration.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static int nextSelector = 0;
+
+    /**
+     * the buffer that channels are read into.
+     * <p>
+     * The bytes read are copied out by the <code>NIOConnection</code>, so a
+     * single buffer serves every channel of this selector.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.nio.ByteBuffer readBuffer =
+	java.nio.ByteBuffer.allocateDirect(READ_SIZE);
+
+    /**
+     * the pending registration changes.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.ConcurrentLinkedQueue pending =
+	new java.util.concurrent.ConcurrentLinkedQueue();
+
+    /**
+     * the <code>java.nio.channels.Selector</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.nio.channels.Selector selector;
+
+    /**
+     * Class constructor to build an <code>NIOSelector</code> with the
+     * specified index in the pool.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param indexI the index.
+     * @exception java.io.IOException
+     *		  thrown if the selector cannot be opened.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private NIOSelector(int indexI)
+	throws java.io.IOException
+    {
+	super("NIOSelector." + indexI);
+	selector = java.nio.channels.Selector.open();
+	setDaemon(true);
+    }
+
+    /**
+     * Closes a channel registered with this selector.
+     * <p>
+     * Closing the channel cancels its key, but the socket is not released
+     * until the selector deregisters it.  The selector is woken up so that
+     * it does so straight away, rather than the next time one of its other
+     * channels is ready.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param channelI the channel.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void close(java.nio.channels.SelectableChannel channelI) {
+	try {
+	    channelI.close();
+	} catch (java.io.IOException e) {
+	}
+	selector.wakeup();
+    }
+
+    /**
+     * Changes the interest set of a registered channel.
+     * <p>
+     * The change is made by the selector thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param keyI the <code>SelectionKey</code> of the channel.
+     * @param opsI the operations to change.
+     * @param onI  turn the operations on?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void changeInterest(final java.nio.channels.SelectionKey keyI,
+			      final int opsI,
+			      final boolean onI)
+    {
+	perform(new Runnable() {
+	    public final void run() {
+		if (keyI.isValid()) {
+		    if (onI) {
+			keyI.interestOps(keyI.interestOps() | opsI);
+		    } else {
+			keyI.interestOps(keyI.interestOps() & ~opsI);
+		    }
+		}
+	    }
+	});
+    }
+
+    /**
+     * Gets the next selector from the pool.
+     * <p>
+     * The selectors are handed out in turn and started the first time that
+     * the pool is used.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the selector.
+     * @exception java.io.IOException
+     *		  thrown if the pool cannot be created.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static synchronized NIOSelector next()
+	throws java.io.IOException
+    {
+	if (pool == null) {
+	    NIOSelector[] lPool = new NIOSelector[SELECTORS];
+	    for (int idx = 0; idx < lPool.length; ++idx) {
+		lPool[idx] = new NIOSelector(idx);
+	    }
+	    for (int idx = 0; idx < lPool.length; ++idx) {
+		lPool[idx].start();
+	    }
+	    pool = lPool;
+	}
+
+	NIOSelector selectorR = pool[nextSelector];
+	nextSelector = (nextSelector + 1) % pool.length;
+	return (selectorR);
+    }
+
+    /**
+     * Queues a change for the selector thread and wakes it up.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param changeI the change.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void perform(Runnable changeI) {
+	pending.add(changeI);
+	selector.wakeup();
+    }
+
+    /**
+     * Registers a channel with this selector.
+     * <p>
+     * The channel is switched to non-blocking mode.  Once it is registered,
+     * the handler is told its <code>SelectionKey</code> and will be passed
+     * the key whenever the channel is ready for one of the operations.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param channelI the channel.
+     * @param opsI     the operations of interest.
+     * @param handlerI the <code>Handler</code>.
+     * @exception java.io.IOException
+     *		  thrown if the channel cannot be made non-blocking.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void register(final java.nio.channels.SelectableChannel channelI,
+			final int opsI,
+			final Handler handlerI)
+	throws java.io.IOException
+    {
+	channelI.configureBlocking(false);
+	perform(new Runnable() {
+	    public final void run() {
+		try {
+		    handlerI.registered
+			(channelI.register(selector,opsI,handlerI));
+		} catch (java.io.IOException e) {
+		    handlerI.registered(null);
+		}
+	    }
+	});
+    }
+
+    /**
+     * Runs the selector.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void run() {
+	Runnable change;
+	java.nio.channels.SelectionKey key;
+
+	while (true) {
+	    try {
+		while ((change = (Runnable) pending.poll()) != null) {
+		    change.run();
+		}
+
+		selector.select();
+
+		for (java.util.Iterator it = selector.selectedKeys().iterator();
+		     it.hasNext(); ) {
+		    key = (java.nio.channels.SelectionKey) it.next();
+		    it.remove();
+		    try {
+			((Handler) key.attachment()).ready(key,readBuffer);
+		    } catch (java.nio.channels.CancelledKeyException e) {
+		    }
+		}
+
+	    } catch (java.lang.Throwable e) {
+		// A failure here would take down every connection on this
+		// selector, so just report it and keep going.
+		System.err.println("NIOSelector: " + e);
+	    }
+	}
+    }
+
+    /**
+     * Interface for the objects that handle ready channels.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     * Copyright 2026 Creare Inc.
+     * All Rights Reserved
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    interface Handler {
+
+	/**
+	 * Handles a ready channel.
+	 * <p>
+	 * This method is called by the selector thread and must not block.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param keyI    the <code>SelectionKey</code> of the channel.
+	 * @param bufferI a buffer the channel can be read into.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public abstract void ready(java.nio.channels.SelectionKey keyI,
+				   java.nio.ByteBuffer bufferI);
+
+	/**
+	 * Tells the handler the <code>SelectionKey</code> of its channel.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param keyI the <code>SelectionKey</code>, or null if the channel
+	 *	       could not be registered.
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	public abstract void registered(java.nio.channels.SelectionKey keyI);
+    }
+}
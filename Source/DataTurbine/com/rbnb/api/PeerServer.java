@@ -29,7 +29,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 07/21/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -39,6 +39,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Stamp the <code>RegistrationVersions</code> of the
+ *			local server when children are added or removed.
  * 10/06/2011  MJM  Handle parse exception in SimpleDateFormat (Android JVM)
  * 07/21/2004  INB	Changed zzz in SimpleDateFormat to z.
  * 01/14/2004  INB	Added synchronization of metrics.
@@ -434,7 +436,7 @@ class PeerServer
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 08/30/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -442,6 +444,8 @@ class PeerServer
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Stamp the child in the
+     *			<code>RegistrationVersions</code>.
      * 01/08/2002  INB	Created.
      *
      */
@@ -457,6 +461,15 @@ class PeerServer
 	if (childI instanceof Shortcut) {
 	    getShortcuts().addElement(childI);
 	}
+
+	if (this instanceof RBNB) {
+	    // Stamp the change for incremental registration requests.
+	    RegistrationVersions versions =
+		((RBNB) this).getRegistrationVersions();
+	    if (versions != null) {
+		versions.changed(childI.getName());
+	    }
+	}
     }
 
     /**
@@ -1766,7 +1779,7 @@ class PeerServer
      * @see #getParent()
      * @see #removeChildAt(int)
      * @since V2.0
-     * @version 01/24/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -1774,6 +1787,8 @@ class PeerServer
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Stamp the removal in the
+     *			<code>RegistrationVersions</code>.
      * 01/08/2002  INB	Created.
      *
      */
@@ -1789,6 +1804,14 @@ class PeerServer
 	if (childI instanceof Shortcut) {
 	    getShortcuts().removeElement(childI);
 	}
+
+	if (this instanceof RBNB) {
+	    RegistrationVersions versions =
+		((RBNB) this).getRegistrationVersions();
+	    if (versions != null) {
+		versions.removed(childI.getName());
+	    }
+	}
     }
 
     /**
@@ -1816,7 +1839,7 @@ class PeerServer
      * @see #getParent()
      * @see #removeChild(com.rbnb.api.Rmap)
      * @since V2.0
-     * @version 08/30/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -1824,6 +1847,8 @@ class PeerServer
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Stamp the removal in the
+     *			<code>RegistrationVersions</code>.
      * 01/08/2002  INB	Created.
      *
      */
@@ -1844,6 +1869,14 @@ class PeerServer
 		throw new java.lang.InternalError();
 	    }
 	}
+
+	if (this instanceof RBNB) {
+	    RegistrationVersions versions =
+		((RBNB) this).getRegistrationVersions();
+	    if (versions != null) {
+		versions.removed(child.getName());
+	    }
+	}
     }
 
     /**
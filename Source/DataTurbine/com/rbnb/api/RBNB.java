@@ -106,6 +106,8 @@ import java.io.PrintWriter;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>registrationVersions</code> and
+ *			<code>getRegisteredSince</code>.
  * 07/03/2013  MJM  Avoid division by zero in SocketRate
  * 09/15/2010  MJM  Added code for RSVP parent-routing, 
  * 					i.e. not exit at startup if parent route is not available
@@ -517,6 +519,18 @@ final class RBNB
      */
     private Door rClientsDoor = null;
 
+    /**
+     * the versions of the registrations of the children.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private RegistrationVersions registrationVersions =
+	new RegistrationVersions();
+
     /**
      * controls access to this <code>RBNB</code> by remote servers attempting
      * to initiate routes.
@@ -839,7 +853,7 @@ final class RBNB
      * @return an <code>Rmap</code> containing the metrics.
      * @see com.rbnb.api.MetricsCollector#timerTask(com.rbnb.api.TimerTask)
      * @since V2.0
-     * @version 01/16/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -847,6 +861,7 @@ final class RBNB
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Add the <code>MetricsRegistry</code> channels.
      * 07/03/2013  MJM  Avoid division by zero in SocketRate
      * 08/26/2008  MJM  Use zero-duration timestamps for reduced memory use
      * 01/16/2004  INB	Initialize the data byte sizes to 0.
@@ -864,6 +879,7 @@ final class RBNB
 		metrics.addChild(new Rmap("SocketRate"));
 		metrics.addChild(new Rmap("CacheDataBytes"));
 		metrics.addChild(new Rmap("ArchiveDataBytes"));
+		MetricsRegistry.getDefault().addMetricsChannels(metrics);
 	    }
 
 	    rmapR = metrics;
@@ -954,6 +970,9 @@ final class RBNB
 			       0,
 			       8));
 
+	    // Add the server-wide counters and latencies.
+	    MetricsRegistry.getDefault().fillMetricsChannels(rmapR,duration);
+
 	} catch (java.lang.Exception e) {
 	    e.printStackTrace();
 	}
@@ -2184,6 +2203,145 @@ final class RBNB
 
 	return (rmapR);
     }
+
+    /**
+     * Gets the registration of the children of this <code>RBNB</code> that
+     * have changed since the specified version.
+     * <p>
+     * The answer is an <code>Ask.REGISTEREDSINCE</code> containing:
+     * <p><ol>
+     *    <li>the current version as a <code>Long</code>,</li>
+     *    <li>the registration <code>Rmap</code>,</li>
+     *    <li>the number of changed children as an <code>Integer</code>,
+     *	      followed by their names, or -1 if the registration is
+     *	      complete,</li>
+     *    <li>the number of removed children as an <code>Integer</code>,
+     *	      followed by their names (only if the registration is not
+     *	      complete).</li>
+     * </ol><p>
+     * Children that are not local clients, such as routed servers and
+     * shortcuts, are always reported as changed, as their registration is not
+     * tracked.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param sinceI  the version the client has already seen.
+     * @return the answer.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem during serialization.
+     * @exception java.io.EOFException
+     *		  thrown if an EOF is encountered while getting the response.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the get is interrupted.
+     * @see com.rbnb.api.Ask#REGISTEREDSINCE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Ask getRegisteredSince(long sinceI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	java.util.Vector changed = new java.util.Vector(),
+	    removed = new java.util.Vector();
+	long version;
+	boolean incremental;
+	synchronized (registrationVersions) {
+	    version = registrationVersions.getVersion();
+	    incremental = registrationVersions.getChanges(sinceI,
+							  changed,
+							  removed);
+	}
+
+	// Build the same sort of request that a full registration request
+	// uses, but limited to the changed children.
+	Rmap request = new Rmap("."),
+	    child;
+	if (!incremental) {
+	    request.addChild(new Rmap("..."));
+
+	} else {
+	    for (int idx = 0; idx < getNchildren(); ++idx) {
+		child = getChildAt(idx);
+		if (!(child instanceof ClientHandler) &&
+		    !changed.contains(child.getName())) {
+		    changed.addElement(child.getName());
+		}
+	    }
+	    for (int idx = 0; idx < changed.size(); ++idx) {
+		child = new Rmap((String) changed.elementAt(idx));
+		child.addChild(new Rmap("..."));
+		request.addChild(child);
+	    }
+	}
+
+	Rmap registration = null;
+	if (request.getNchildren() > 0) {
+	    registration = getRoutingMapHandler().getRegistered(request);
+	}
+	if (registration == null) {
+	    registration = new Rmap();
+	}
+
+	Ask answerR = new Ask(Ask.REGISTEREDSINCE);
+	answerR.addAdditional(new Long(version));
+	answerR.addAdditional(registration);
+	if (!incremental) {
+	    answerR.addAdditional(new Integer(-1));
+	} else {
+	    answerR.addAdditional(new Integer(changed.size()));
+	    for (int idx = 0; idx < changed.size(); ++idx) {
+		answerR.addAdditional(changed.elementAt(idx));
+	    }
+	    answerR.addAdditional(new Integer(removed.size()));
+	    for (int idx = 0; idx < removed.size(); ++idx) {
+		answerR.addAdditional(removed.elementAt(idx));
+	    }
+	}
+
+	return (answerR);
+    }
+
+    /**
+     * Gets the versions of the registrations of the children of this
+     * <code>RBNB</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the <code>RegistrationVersions</code>, or null if this
+     *	       <code>RBNB</code> is still being constructed.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final RegistrationVersions getRegistrationVersions() {
+	return (registrationVersions);
+    }
 
     /**
      * Gets the <code>RoutingMapHandler</code> for this <code>RBNB</code>.
@@ -2695,7 +2853,7 @@ final class RBNB
      * @author Ian Brown
      *
      * @since V2.1
-     * @version 06/22/2006
+     * @version 10/18/2026
      */
 
     /*
@@ -2703,6 +2861,8 @@ final class RBNB
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Load the smallest archives first, taking turns from an
+     *			<code>ArchiveLoader</code>.
      * 06/22/2006  JPW	Use archiveHomeDirectory
      * 04/03/2003  INB	Created.
      *
@@ -2715,13 +2875,25 @@ final class RBNB
 	    Directory asDirectory = new Directory(homeDir);
 	    java.io.File[] files = asDirectory.listFiles();
 
+	    java.util.Vector folders = new java.util.Vector();
 	    for (int idx = 0; idx < files.length; ++idx) {
 		if (files[idx].isDirectory()) {
-		    getActivityQueue().addEvent
-			(new LoadSource(this.getClientSide(),
-					files[idx].getName()));
+		    folders.addElement(files[idx]);
 		}
 	    }
+	    java.io.File[] directories = new java.io.File[folders.size()];
+	    folders.copyInto(directories);
+
+	    // Load the smallest archives first, a few at a time, so that
+	    // sources come on line as early as possible.
+	    ArchiveLoader.sortBySize(directories);
+	    ArchiveLoader loader = new ArchiveLoader(directories.length);
+	    for (int idx = 0; idx < directories.length; ++idx) {
+		getActivityQueue().addEvent
+		    (new LoadSource(this.getClientSide(),
+				    directories[idx].getName(),
+				    loader));
+	    }
 	} catch (java.lang.Exception e) {
 	}
     }
@@ -3167,6 +3339,11 @@ final class RBNB
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Count the hits, misses, and evictions of the open
+     *			filesets limited resource and sample its size.
+     * 10/18/2026  JRS	Register a <code>MetricsRegistry.Sampler</code> and
+     *			start the <code>MetricsExporter</code> if one is
+     *			configured.
      * 2005/01/20  WHF  For authentication purposes, pass the username object
      *			to the Address before accepting
      * 10/05/2004  JPW	Add preprocessor directives which can be used by "sed"
@@ -3198,6 +3375,8 @@ final class RBNB
     public final void run() {
 	setConnected(true);
 	TimerTask metricsTT = null;
+	MetricsRegistry.Sampler metricsSampler = null;
+	MetricsExporter metricsExporter = null;
 	try {
 	    // Prepare to gracefully shutdown.
 	    try {
@@ -3219,8 +3398,17 @@ final class RBNB
 	    // Create the activity thread queue.
 	    setActivityQueue(new ActionThreadQueue(getMaxActivityThreads()));
 
-	    // Create the open filesets limited resource.
-	    setOpenFileSets(new LimitedResource(getMaxOpenFileSets()));
+	    // Create the open filesets limited resource, counting how well it
+	    // keeps the files that are needed open.
+	    MetricsRegistry registry = MetricsRegistry.getDefault();
+	    setOpenFileSets(new LimitedResource
+			    (getMaxOpenFileSets(),
+			     registry.counter(MetricsRegistry.FILESET_HITS,
+					      getName()),
+			     registry.counter(MetricsRegistry.FILESET_MISSES,
+					      getName()),
+			     registry.counter(MetricsRegistry.FILESET_EVICTIONS,
+					      getName())));
 
 	    // Attach the <code>RBNB</code> log RBO.
 	    try {
@@ -3429,6 +3617,36 @@ final class RBNB
 	    */
 
 	    message += "\nStarted at address " + getAddress() + ".";
+
+	    // Publish our data sizes to the <code>MetricsRegistry</code> and
+	    // export it over HTTP if asked to.
+	    metricsSampler = new MetricsRegistry.Sampler() {
+		public final void sample(MetricsRegistry registryI) {
+		    long[] cacheDS = { 0L },
+			archiveDS = { 0L };
+		    calculateDataSizes(cacheDS,archiveDS);
+		    registryI.gauge(MetricsRegistry.CACHE_BYTES,
+				    getName()).set(cacheDS[0]);
+		    registryI.gauge(MetricsRegistry.ARCHIVE_BYTES,
+				    getName()).set(archiveDS[0]);
+		    registryI.gauge(MetricsRegistry.FILESET_OPEN,
+				    getName()).set
+			(getOpenFileSets().getCurrentUsers());
+		}
+	    };
+	    MetricsRegistry.getDefault().addSampler(metricsSampler);
+	    if (MetricsExporter.PORT != 0) {
+		try {
+		    metricsExporter = new MetricsExporter
+			(MetricsRegistry.getDefault(),MetricsExporter.PORT);
+		    metricsExporter.start();
+		    message +=
+			"\nMetrics exported at http://127.0.0.1:" +
+			metricsExporter.getPort() + "/metrics.";
+		} catch (java.io.IOException e) {
+		    message += "\nUnable to export metrics: " + e.getMessage();
+		}
+	    }
 	    // JPW 06/22/2006
 	    message += "\nArchive home directory: \"" +
 		       getArchiveHomeDirectory() + "\"";
@@ -3564,6 +3782,18 @@ final class RBNB
 	    }
 	    metricsTT = null;
 	}
+	if (metricsExporter != null) {
+	    metricsExporter.stop();
+	    metricsExporter = null;
+	}
+	if (metricsSampler != null) {
+	    MetricsRegistry.getDefault().removeSampler(metricsSampler);
+	    MetricsRegistry.getDefault().remove(MetricsRegistry.CACHE_BYTES,
+						getName());
+	    MetricsRegistry.getDefault().remove(MetricsRegistry.ARCHIVE_BYTES,
+						getName());
+	    metricsSampler = null;
+	}
 
 	// Terminate the timer.
 	if (getTimer() != null) {
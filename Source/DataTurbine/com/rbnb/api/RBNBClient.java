@@ -24,7 +24,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 02/09/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -34,6 +34,9 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>registrationChanged</code>.
+ * 10/18/2026  JRS	The handler thread may be a virtual thread; see
+ *			<code>ThreadWithLocks.newHandlerThread</code>.
  * 10/12/2005  MJM	Added yield in stop() method so Detach lets Flush
  *			finish before stopping
  * 02/09/2004  INB	Ensure that by the time the <code>stop</code> method
@@ -766,7 +769,7 @@ abstract class RBNBClient
      *
      * @return is this <code>RBNBClient</code> running?
      * @since V2.0
-     * @version 02/18/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -774,6 +777,8 @@ abstract class RBNBClient
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Ask the <code>RCO</code> whether it is alive, as it
+     *			may not have a thread of its own.
      * 02/18/2003  INB	Fixed documentation.
      * 01/02/2001  INB	Created.
      *
@@ -781,7 +786,7 @@ abstract class RBNBClient
     public final boolean isRunning() {
 	try {
 	    boolean isRunningR =
-		((getRCO() != null) && getRCO().getThread().isAlive()) ||
+		((getRCO() != null) && getRCO().isAlive()) ||
 		((getThread() != null) && getThread().isAlive());
 
 	    return (isRunningR);
@@ -925,6 +930,39 @@ abstract class RBNBClient
 	     ". Reconnects are not allowed for this type of client.");
     }
 
+    /**
+     * Notes that the structure of the registration of this
+     * <code>RBNBClient</code> has changed.
+     * <p>
+     * The change is stamped in the <code>RegistrationVersions</code> of the
+     * local server so that incremental registration requests pick it up.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.Ask#REGISTEREDSINCE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void registrationChanged() {
+	if (getParent() instanceof RBNB) {
+	    RegistrationVersions versions =
+		((RBNB) getParent()).getRegistrationVersions();
+	    if (versions != null) {
+		versions.changed(getName());
+	    }
+	}
+    }
+
     /**
      * Sets the "am new" flag.
      * <p>
@@ -1060,7 +1098,7 @@ abstract class RBNBClient
      * @see #run()
      * @see #stop(com.rbnb.api.ClientHandler)
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1068,6 +1106,7 @@ abstract class RBNBClient
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>ThreadWithLocks.newHandlerThread</code>.
      * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
      *			<code>Thread</code>.
      * 04/17/2003  INB	Allow restarts (treat as NOP).
@@ -1081,7 +1120,7 @@ abstract class RBNBClient
 	    if ((getThread() != null) && getThread().isAlive()) {
 		return;
 	    }
-	    setThread(new ThreadWithLocks(this,getName()));
+	    setThread(ThreadWithLocks.newHandlerThread(this,getName()));
 	    getThread().start();
 	    wait();
 	    if (getThread() == null) {
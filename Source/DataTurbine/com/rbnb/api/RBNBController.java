@@ -306,7 +306,7 @@ class RBNBController
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 05/18/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -314,6 +314,8 @@ class RBNBController
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 05/18/2004  INB	Catch exceptions on the timer cancel and ignore them.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 11/14/2003  INB	Ensure that we release <code>Locks</code>.
@@ -380,8 +382,9 @@ class RBNBController
 		    wait(TimerPeriod.LONG_WAIT);
 		}
 		if (getThread() != null) {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RBNBController.run(1)",
 			 getLog(),
 			 getLogLevel(),
@@ -444,8 +447,9 @@ class RBNBController
 	} finally {
 	    if (getThread() != null) {
 		try {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RBNBController.run(2)",
 			 getLog(),
 			 getLogLevel(),
@@ -110,7 +110,7 @@ package com.rbnb.api;
  * @see com.rbnb.api.Rmap
  * @see com.rbnb.api.StreamPlugInListener
  * @since V2.0
- * @version 08/05/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -120,6 +120,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Stamp registration changes via
+ *			<code>registrationChanged</code>.
  * 12/6/2005:  EMF      Ensure all AwaitNotifications are stopped in getRegistered
  * 09/02/2005  EMF      Send PlugIn client notice when stream terminates.
  * 08/04/2004  INB	Added documentation.
@@ -1196,7 +1198,7 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
      *		  thrown if this operation is interrupted.
      * @see #reRegister(com.rbnb.api.Rmap)
      * @since V2.0
-     * @version 11/14/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -1204,6 +1206,7 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Stamp the change via <code>registrationChanged</code>.
      * 11/14/2003  INB	Added location to the <code>Lock</code>.
      * 01/14/2002  INB	Created.
      *
@@ -1226,6 +1229,7 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
 		(rmapI,
 		 false,
 		 true);
+	    registrationChanged();
 
 	} finally {
 	    registrationDoor.unlock();
@@ -1253,7 +1257,7 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
      *		  thrown if this operation is interrupted.
      * @see #register(com.rbnb.api.Rmap)
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1261,6 +1265,7 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Stamp the change via <code>registrationChanged</code>.
      * 11/14/2003  INB	Added location to the <code>Lock</code>.
      * 01/21/2002  INB	Created.
      *
@@ -1281,6 +1286,7 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
 		(rmapI,
 		 false,
 		 true);
+	    registrationChanged();
 
 	} finally {
 	    registrationDoor.unlock();
@@ -1335,7 +1341,7 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 05/18/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1343,6 +1349,8 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 05/18/2004  INB	Catch exceptions on the timer cancel and ignore them.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 01/16/2004  INB	Shutdown the <code>RCO</code> before removing us as
@@ -1407,8 +1415,9 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
 		    post(theFrameR);
 		}
 		if (getThread() != null) {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RBNBPlugIn.run(1)",
 			 getLog(),
 			 getLogLevel(),
@@ -1471,8 +1480,9 @@ System.err.println("RBNBPlugIn.post: set stackLimit=2");
 	} finally {
 	    if (getThread() != null) {
 		try {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RBNBPlugIn.run(2)",
 			 getLog(),
 			 getLogLevel(),
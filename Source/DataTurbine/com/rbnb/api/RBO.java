@@ -47,6 +47,22 @@ import java.io.IOException;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Single frames are stored without locking the
+ *			<code>RBO</code>.  Batches lock it only while their
+ *			frames are stored.
+ * 10/18/2026  JRS	Match registration requests optimistically before taking
+ *			the read lock.
+ * 10/18/2026  JRS	Added <code>extractDecimated</code> to answer requests
+ *			from <code>DecimationPyramids</code>.
+ * 10/18/2026  JRS	Stamp structural registration changes via
+ *			<code>registrationChanged</code>.
+ * 10/18/2026  JRS	New frames are only posted to the notifications
+ *			interested in the <code>RingBuffer</code> they went to.
+ * 10/18/2026  JRS	The ingest queue defaults to the single frame handoff.
+ *			The rest of a batch is stored even if one of its
+ *			frames fails.
+ * 10/18/2026  JRS	Frames now pass through a bounded ingest queue, which
+ *			the <code>RBO</code> thread drains in batches.
  * 06/18/2015  MJM  	Add -DNFS property flag to set number of filesets other than default (10)
  * 08/17/2013  JPW/MJM	moveDownFromStandard:  resolve wildcard request if needed
  * 10/03/2012  MJM  	deleteArchive: try-again if file delete fails 
@@ -340,6 +356,24 @@ private boolean alreadyReset=false;
      */
     private java.util.Vector awaiting = new java.util.Vector();
 
+    /**
+     * the objects awaiting notification of new frames in each
+     * <code>RingBuffer</code>.
+     * <p>
+     * Each entry is a subset of <code>awaiting</code>, built when a frame is
+     * first posted for its <code>RingBuffer</code>.  Entries are dropped
+     * when the <code>awaiting</code> list or the channels of the
+     * <code>RingBuffer</code> change.  Access is synchronized on
+     * <code>awaiting</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Hashtable awaitingByRB = new java.util.Hashtable();
+
     /**
      * the desired number of cache frames allowed.
      * <p>
@@ -450,15 +484,54 @@ private boolean alreadyReset=false;
     };
 
     /**
-     * the last frame received.
+     * the maximum number of frames that can wait in the ingest queue.
+     * <p>
+     * Set by the <code>com.rbnb.api.RBO.ingestQueue</code> property.  The
+     * default of 1 gives the original single frame handoff, in which a new
+     * frame is not accepted until the previous one has been stored.
+     * <code>NBOs</code> always use the single frame handoff.
+     * <p>
+     * Frames still in the queue when the <code>RBO</code> terminates are
+     * lost, so a larger queue risks losing that many frames.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int INGEST_QUEUE =
+	Math.max(1,
+		 Integer.getInteger("com.rbnb.api.RBO.ingestQueue",
+				    1).intValue());
+
+    /**
+     * drop the oldest queued frame when the ingest queue is full?
+     * <p>
+     * Set by setting the <code>com.rbnb.api.RBO.ingestPolicy</code> property
+     * to <code>drop</code>.  By default (<code>block</code>), the source
+     * waits for room in the queue.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static boolean INGEST_DROP =
+	"drop".equalsIgnoreCase(System.getProperty
+				("com.rbnb.api.RBO.ingestPolicy","block"));
+
+    /**
+     * the frames received, but not yet picked up for storage.
      * <p>
      *
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 05/10/2001
+     * @version 10/18/2026
      */
-    private Rmap frame = null;
+    private java.util.Vector frames = new java.util.Vector();
 
     /**
      * the number of cache <code>FrameSets</code>.
@@ -570,6 +643,41 @@ private boolean alreadyReset=false;
      */
     java.util.Hashtable rbsToSync = new java.util.Hashtable(10000,.5F);
 
+    /**
+     * the depth of the ingest queue, in the <code>MetricsRegistry</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private MetricsRegistry.Gauge ingestDepth = null;
+
+    /**
+     * the count of frames dropped from the ingest queue, in the
+     * <code>MetricsRegistry</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private MetricsRegistry.Counter ingestDropped = null;
+
+    /**
+     * the label of our ingest queue series in the
+     * <code>MetricsRegistry</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private String ingestLabel = null;
+
     /**
      * reconnecting?
      * <p>
@@ -748,7 +856,21 @@ private boolean alreadyReset=false;
     }
 
     /**
-     * Accepts a new frame <code>Rmap</code>.
+     * Accepts the frame <code>Rmaps</code> waiting in the ingest queue.
+     * <p>
+     * All of the queued frames are taken at once.  A single frame is stored
+     * without locking the <code>RBO</code>, leaving the locking to its
+     * <code>RingBuffer</code>.  A batch is stored under a single write
+     * lock, so that the cost of locking is spread across however many
+     * frames the source sent while the previous batch was being stored.
+     * The <code>RingBuffers</code> for the batch are found, and room is
+     * waited for in their <code>ArchiveWriters</code>, before the lock is
+     * taken, and the new frames are handled once it is released, so sinks
+     * are only held off while the frames are actually stored.
+     * <p>
+     * If storing a frame fails, the source has already been told that the
+     * frames after it were accepted, so they are still stored before the
+     * exception is passed on.
      * <p>
      *
      * @author Ian Brown
@@ -768,7 +890,7 @@ private boolean alreadyReset=false;
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 10/03/2005
+     * @version 10/18/2026
      */
 
     /*
@@ -776,6 +898,12 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Store single frames without locking.  Find the
+     *			<code>RingBuffers</code> and wait for room before
+     *			locking a batch, and handle its frames afterwards.
+     * 10/18/2026  JRS	Store the rest of a batch after a frame fails.
+     * 10/18/2026  JRS	Take every queued frame and store the batch under one
+     *			write lock. Store frames queued ahead of a clear cache.
      * 10/03/2005  JPW	Move the frame index increment to **AFTER** the
      *			frame has been succesfully added to the RingBuffer.
      *			If time goes backward and an IllegalStateException is
@@ -804,9 +932,13 @@ private boolean alreadyReset=false;
 	       java.io.IOException,
 	       java.lang.InterruptedException
     {
-	Rmap theFrame = null;
+	Rmap[] batch = null,
+	    stored = null;
+	RingBuffer[] rbs = null;
+	int next = 0;
+	boolean locked = false;
 
-	// Look for a frame to process.
+	// Look for frames to process.
 	try {
 	    synchronized (this) {
 		while ((getFrame() == null) &&
@@ -821,18 +953,26 @@ private boolean alreadyReset=false;
 		//   so requests of detached sources do not get stuck in the
 		//   moveDownFrom() method.
 		if (getFrame() != null && getTerminateRequested()) {
-		    System.err.println("WARNING: Unprocessed frame "+getFrame()
-			    +" in server at time of termination; frame lost.");
-		    setFrame(null);
+		    System.err.println("WARNING: " + frames.size() +
+				       " unprocessed frame(s) in server at " +
+				       "time of termination; frames lost.");
+		    frames.removeAllElements();
+		    setIngestDepth();
 		}
 
+		// Frames queued ahead of a clear cache request were sent
+		// before it, so they are stored before the cache is cleared.
 		if (!getTerminateRequested() &&
-		    !getPerformClearCache() &&
 		    !getPerformReset() &&
-		    ((theFrame = getFrame()) != null)) {
-		    // If we get a frame, grab it.
+		    (getFrame() != null)) {
+		    // If we get frames, grab all of them and make room for the
+		    // source to send more.
 		    setAcceptingAFrame(true);
-		    setFrame(null);
+		    batch = new Rmap[frames.size()];
+		    frames.copyInto(batch);
+		    frames.removeAllElements();
+		    setIngestDepth();
+		    notifyAll();
 		}
 	    }
 
@@ -841,111 +981,298 @@ private boolean alreadyReset=false;
 		getAcceptingAFrame()) {
 		setAmNew(false);
 
-		// Set the frame index for the frame.
-		//  System.err.println("theFrame: " + theFrame);
-		//  System.err.println("Trange: " +
-		//      theFrame.getChildAt(0).getTrange());
-		theFrame.setFrange(new TimeRange(getNfindex(),0.));
-		
-		/*
-		if ((theFrame.getTrange() != null) &&
-      		    (theFrame.getTrange().compareTo
-		     (TimeRange.SERVER_TOD ) == 0)) {
-		     theFrame.setTrange
-		     (new TimeRange(System.currentTimeMillis()/1000.,0.));
-		*/	
-		// mjm SERVER_TOD timestamp is actually one level down
-		if ((theFrame.getNchildren() > 0) &&
-		    (theFrame.getChildAt(0).getTrange() != null) &&
-		    (theFrame.getChildAt(0).getTrange().compareTo
-		     (TimeRange.SERVER_TOD ) == 0)) {
-		    theFrame.getChildAt(0).setTrange
-			(new TimeRange(System.currentTimeMillis()/1000.,0.));
-		}
-		
-		// Increment the frame index
-		// JPW 10/03/2005: Move increment until after the frame has
-		//                 been successfully added to the RingBuffer
-		//                 (see below).
-		// setNfindex(getNfindex() + 1);
-		
-		// Find the <code>RingBuffer</code> to add to.
-		RingBuffer rb = null;
-		String[] channelNames = null;
-		Long indexL = null;
-		boolean badChannels = false;
-		if (this instanceof NBO) {
-		    if (getNchildren() > 0) {
-			rb = (RingBuffer) getChildAt(0);
-		    }
+		if (batch.length == 1) {
+		    // A single frame needs no more locking than its
+		    // <code>RingBuffer</code> does on its own.
+		    Rmap frame = batch[0];
+		    batch[0] = null;
+		    next = 1;
+		    storeFrame(frame,ringBufferFor(frame),true);
 
 		} else {
-		    channelNames = theFrame.extractNames();
-		    if (!(badChannels = (channelNames.length == 0))) {
-			indexL = (Long) channelToRB.get(channelNames[0]);
-			if (indexL != null) {
-			    long rbIndex = indexL.longValue();
-			    rb = findRingBuffer(rbIndex);
+		    // Find the <code>RingBuffers</code> and wait for room to
+		    // archive them before locking.
+		    rbs = new RingBuffer[batch.length];
+		    stored = new Rmap[batch.length];
+		    for (int idx = 0; idx < batch.length; ++idx) {
+			rbs[idx] = ringBufferFor(batch[idx]);
+			if (rbs[idx] != null) {
+			    rbs[idx].waitForArchiveRoom();
 			}
 		    }
-		}
 
-		if (!badChannels && (rb == null)) {
-		    rb = new RingBuffer(getNrbindex());
-		    if (channelNames != null) {
-			indexL = new Long(rb.getIndex());
-			for (int idx = 0; idx < channelNames.length; ++idx) {
-			    channelToRB.put(channelNames[idx],indexL);
+		    // Store the whole batch under a single write lock.  Each
+		    // frame is taken out of the batch as it is stored.
+		    lockWrite("RBO.acceptFrame");
+		    locked = true;
+		    for (; next < batch.length; ++next) {
+			Rmap frame = batch[next];
+			batch[next] = null;
+			if (storeFrame(frame,rbs[next],false)) {
+			    stored[next] = frame;
 			}
 		    }
-		    // JPW 09/30/2005: I wonder if the RingBuffer index should
-		    //                 be incremented *after* the new child has
-		    //                 been successfully added to the RBO? In
-		    //                 other words, I wonder if the order of
-		    //                 the following 2 lines should be changed?
-		    //                 With the order the way they currently
-		    //                 are, what happens if the ring buffer
-		    //                 index is incremented and then the
-		    //                 RingBuffer is not successfully added
-		    //                 to the RBO?  Might this cause a problem?
-		    setNrbindex(rb.getIndex() + 1);
-		    addChildAt(rb,getNchildren());
-                    //EMF 10/18/06: add trim by time info
-                    rb.setupTrimTimes(cacheflush,cachetrim,archiveflush,archivetrim);
-		    rb.setup(cFrameSets,cFrFrameSet,aFileSets,aFrSFileSet);
-		    rb.start();
 		}
+	    }
 
-		// Add the frame to the <code>RingBuffer</code>.
-		if (rb != null) {
-		    rbsToSync.put(rb,rb);
-		    // JPW 09/30/2005: RingBuffer.addChild() now throws an
-		    //                 IllegalStateException if the frame
-		    //                 cannot be added to the RingBuffer
-		    //                 (for example, for backward going time)
-		    //                 Increment the frame index **AFTER**
-		    //                 the successful addition of this
-		    //                 current frame.
-		    try {
-			rb.addChild(theFrame);
-			// Move this increment from earlier in the method
-			// to after the successful return from addChild();
-			// if an IllegalStateException occurs, this won't get
-			// incremented.
-			setNfindex(getNfindex() + 1);
-		    } catch (java.lang.IllegalStateException ise) {
-			// Nothing to do
+	} finally {
+	    if ((batch != null) && (next < batch.length)) {
+		// Storing the batch failed part way through.  The source was
+		// told that the frames after the failure were accepted, so
+		// store them before passing the failure on.
+		int lost = 0;
+		for (int idx = next; idx < batch.length; ++idx) {
+		    if (batch[idx] != null) {
+			try {
+			    if (!locked) {
+				++lost;
+			    } else if (storeFrame(batch[idx],rbs[idx],false)) {
+				stored[idx] = batch[idx];
+			    }
+			} catch (java.lang.Exception e) {
+			    ++lost;
+			}
+			batch[idx] = null;
 		    }
 		}
+		if (lost > 0) {
+		    System.err.println("WARNING: " + lost +
+				       " unprocessed frame(s) in server " +
+				       "after a failure to store a frame; " +
+				       "frames lost.");
+		}
 	    }
 
-	} finally {
-	    // We're done accepting the frame, just need to perform special
+	    if (locked) {
+		unlockWrite();
+	    }
+
+	    // We're done accepting the frames, just need to perform special
 	    // handling.
 	    setAcceptingAFrame(false);
+
+	    if (stored != null) {
+		for (int idx = 0; idx < stored.length; ++idx) {
+		    if (stored[idx] != null) {
+			rbs[idx].handleNewFrame(stored[idx]);
+		    }
+		}
+	    }
 	}
     }
-
+
+    /**
+     * Finds the <code>RingBuffer</code> for a frame <code>Rmap</code>
+     * picked up from the ingest queue.
+     * <p>
+     * The <code>RingBuffer</code> holding the frame's channels is created
+     * if necessary, and takes note of any channels that are new to it.
+     * <p>
+     *
+     * @author Ian Brown
+     *
+     * @param frameI  the frame.
+     * @return the <code>RingBuffer</code>, or null if the frame has no
+     *	       channels.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #acceptFrame(boolean)
+     * @see #storeFrame(com.rbnb.api.Rmap,com.rbnb.api.RingBuffer,boolean)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Split out of <code>acceptFrame(Rmap)</code>, so that
+     *			the <code>RingBuffers</code> for a batch are found
+     *			before it is locked.
+     * 10/18/2026  JRS	Stamp new channel names via
+     *			<code>registrationChanged</code>.
+     * 10/18/2026  JRS	Note the channels of the <code>RingBuffer</code>.
+     * 10/18/2026  JRS	Created from <code>acceptFrame(boolean)</code>.
+     *
+     */
+    private final RingBuffer ringBufferFor(Rmap frameI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	// Find the <code>RingBuffer</code> to add to.
+	RingBuffer rb = null;
+	String[] channelNames = null;
+	Long indexL = null;
+	boolean badChannels = false;
+	if (this instanceof NBO) {
+	    if (getNchildren() > 0) {
+		rb = (RingBuffer) getChildAt(0);
+	    }
+
+	} else {
+	    channelNames = frameI.extractNames();
+	    if (!(badChannels = (channelNames.length == 0))) {
+		indexL = (Long) channelToRB.get(channelNames[0]);
+		if (indexL != null) {
+		    long rbIndex = indexL.longValue();
+		    rb = findRingBuffer(rbIndex);
+		}
+	    }
+	}
+
+	if (!badChannels && (rb == null)) {
+	    rb = new RingBuffer(getNrbindex());
+	    if (channelNames != null) {
+		indexL = new Long(rb.getIndex());
+		for (int idx = 0; idx < channelNames.length; ++idx) {
+		    channelToRB.put(channelNames[idx],indexL);
+		}
+	    }
+	    // JPW 09/30/2005: I wonder if the RingBuffer index should
+	    //                 be incremented *after* the new child has
+	    //                 been successfully added to the RBO? In
+	    //                 other words, I wonder if the order of
+	    //                 the following 2 lines should be changed?
+	    //                 With the order the way they currently
+	    //                 are, what happens if the ring buffer
+	    //                 index is incremented and then the
+	    //                 RingBuffer is not successfully added
+	    //                 to the RBO?  Might this cause a problem?
+	    setNrbindex(rb.getIndex() + 1);
+	    addChildAt(rb,getNchildren());
+	    //EMF 10/18/06: add trim by time info
+	    rb.setupTrimTimes(cacheflush,cachetrim,archiveflush,archivetrim);
+	    rb.setup(cFrameSets,cFrFrameSet,aFileSets,aFrSFileSet);
+	    rb.start();
+	}
+
+	// Note the channels of the <code>RingBuffer</code>.
+	if (rb != null) {
+	    rbsToSync.put(rb,rb);
+	    if ((channelNames != null) && rb.addChannelNames(channelNames)) {
+		// The <code>RingBuffer</code> has new channels, so the list of
+		// objects interested in it needs to be rebuilt.
+		synchronized (awaiting) {
+		    awaitingByRB.remove(rb);
+		}
+		registrationChanged();
+	    }
+	}
+
+	return (rb);
+    }
+
+    /**
+     * Stores a frame <code>Rmap</code> picked up from the ingest queue in
+     * its <code>RingBuffer</code>.
+     * <p>
+     *
+     * @author Ian Brown
+     *
+     * @param frameI  the frame to store.
+     * @param rbI     the <code>RingBuffer</code> to store it in.
+     * @param aloneI  is the frame being stored on its own?  If not, the
+     *		      caller handles the frame once it has been stored.
+     * @return was the frame stored?
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #acceptFrame(boolean)
+     * @see #ringBufferFor(com.rbnb.api.Rmap)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Split out of <code>acceptFrame(Rmap)</code>.
+     * 10/18/2026  JRS	Created from <code>acceptFrame(boolean)</code>.
+     *
+     */
+    private final boolean storeFrame(Rmap frameI,
+				     RingBuffer rbI,
+				     boolean aloneI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	// Set the frame index for the frame.
+	//  System.err.println("frameI: " + frameI);
+	//  System.err.println("Trange: " +
+	//      frameI.getChildAt(0).getTrange());
+	frameI.setFrange(new TimeRange(getNfindex(),0.));
+
+	/*
+	if ((frameI.getTrange() != null) &&
+	    (frameI.getTrange().compareTo
+	     (TimeRange.SERVER_TOD ) == 0)) {
+	     frameI.setTrange
+	     (new TimeRange(System.currentTimeMillis()/1000.,0.));
+	*/	
+	// mjm SERVER_TOD timestamp is actually one level down
+	if ((frameI.getNchildren() > 0) &&
+	    (frameI.getChildAt(0).getTrange() != null) &&
+	    (frameI.getChildAt(0).getTrange().compareTo
+	     (TimeRange.SERVER_TOD ) == 0)) {
+	    frameI.getChildAt(0).setTrange
+		(new TimeRange(System.currentTimeMillis()/1000.,0.));
+	}
+
+	// Increment the frame index
+	// JPW 10/03/2005: Move increment until after the frame has
+	//                 been successfully added to the RingBuffer
+	//                 (see below).
+	// setNfindex(getNfindex() + 1);
+
+	// Add the frame to the <code>RingBuffer</code>.
+	boolean storedR = false;
+	if (rbI != null) {
+	    // JPW 09/30/2005: RingBuffer.addChild() now throws an
+	    //                 IllegalStateException if the frame
+	    //                 cannot be added to the RingBuffer
+	    //                 (for example, for backward going time)
+	    //                 Increment the frame index **AFTER**
+	    //                 the successful addition of this
+	    //                 current frame.
+	    try {
+		storedR = rbI.addFrame(frameI,aloneI);
+		// Move this increment from earlier in the method
+		// to after the successful return from addChild();
+		// if an IllegalStateException occurs, this won't get
+		// incremented.
+		setNfindex(getNfindex() + 1);
+	    } catch (java.lang.IllegalStateException ise) {
+		// Nothing to do
+	    }
+	}
+
+	return (storedR);
+    }
+
     /**
      * Adds a child <code>Rmap</code>.
      * <p>
@@ -998,9 +1325,10 @@ private boolean alreadyReset=false;
      * <p><ol>
      *    <li>The frame is received by the thread running the "RBNB control
      *	      object" or RCO, which determines that it has received a frame of
-     *	      data and passes it off to its associated RBO
+     *	      data and passes it off to its associated RBO's ingest queue
      *	      (<code>RCO.process</code> via <code>RBO.addChild</code>),</li>
-     *    <li>The frame is picked up by a thread running the RBO and is
+     *    <li>The frame is picked up, along with any others in the queue, by
+     *	      a thread running the RBO and is
      *	      examined to determine which ring buffer it should be added to
      *	      (this may require a new ring buffer)
      *	      (<code>RBO.acceptFrame</code> to
@@ -1069,14 +1397,14 @@ private boolean alreadyReset=false;
      * @see com.rbnb.api.FrameSet#storeElement(com.rbnb.api.Rmap elementI)
      * @see com.rbnb.api.FrameSet#writeToArchive()
      * @see com.rbnb.api.RCO#process(com.rbnb.api.Serializable messageI)
-     * @see com.rbnb.api.RingBuffer#acceptFrame(com.rbnb.api.Rmap frameI)
+     * @see com.rbnb.api.RingBuffer#acceptFrame(com.rbnb.api.Rmap,boolean)
      * @see com.rbnb.api.RingBuffer#addChild(com.rbnb.api.Rmap childI)
      * @see com.rbnb.api.Rmap
      * @see com.rbnb.api.StorageManager#addElement(com.rbnb.api.Rmap elementI)
      * @see com.rbnb.api.StorageManager#setSet(com.rbnb.api.FrameManager setI)
      * @see com.rbnb.api.StorageManager#trim()
      * @since V2.0
-     * @version 07/30/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1084,6 +1412,8 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Queue the frame, waiting for room or dropping the
+     *			oldest queued frame.
      * 01/14/2011  MJM  Added lock release on prolonged blocking waits
      * 07/30/2004  INB	Added overview of how data is added.
      * 11/17/2003  INB	Use <code>try/finally</code> to ensure that we don't
@@ -1124,16 +1454,36 @@ private boolean alreadyReset=false;
 
 	    try {
 		setAddingAFrame(true);
+		int capacity = getIngestCapacity();
 		synchronized (this) {
-		    // Wait for the previous frame to be processed.
+		    if (ingestDepth == null) {
+			ingestLabel = getFullName();
+			ingestDepth = MetricsRegistry.getDefault().gauge
+			    (MetricsRegistry.INGEST_QUEUE,ingestLabel);
+			ingestDropped = MetricsRegistry.getDefault().counter
+			    (MetricsRegistry.INGEST_DROPPED,ingestLabel);
+		    }
+
+		    // Wait for room in the ingest queue.  With a capacity of
+		    // one, wait for the previous frame to be processed.
 		    long startAt = System.currentTimeMillis();
 		    long now;
 		    while ((getThread() != null) && getThread().isAlive() &&
 			   !getTerminateRequested() &&
 			   ((getRCO() == null) ||
 			    !getRCO().getTerminateRequested()) &&
-			   (getAcceptingAFrame() ||
-			    (getFrame() != null))) {
+			   ((frames.size() >= capacity) ||
+			    ((capacity == 1) && getAcceptingAFrame()))) {
+			if (INGEST_DROP &&
+			    (capacity > 1) &&
+			    (frames.size() >= capacity)) {
+			    // Make room by throwing away the oldest frame.
+			    frames.removeElementAt(0);
+			    if (ingestDropped != null) {
+				ingestDropped.increment();
+			    }
+			    continue;
+			}
 			wait(TimerPeriod.NORMAL_WAIT);
 
 			if (((now = System.currentTimeMillis()) - startAt) >=
@@ -1165,13 +1515,10 @@ private boolean alreadyReset=false;
 		    //   synch block.  With it outside the synch block, the
 		    //   frame would sometimes be set just as the server
 		    //   was shutting down, thus blocking inside 'moveDownFrom'.
-		    setFrame(childI);		    
+		    frames.addElement(childI);
+		    setIngestDepth();
 		}
 
-		// Place the input frame <code>Rmap</code> where it will be
-		// picked up.
-		//setFrame(childI);
-
 	    } finally {
 		setAddingAFrame(false);
 		synchronized (this) {
@@ -1214,7 +1561,7 @@ private boolean alreadyReset=false;
      * @param anI  the <code>AwaitNotification</code> object.
      * @see #removeNotification(com.rbnb.api.AwaitNotification)
      * @since V2.0
-     * @version 05/10/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -1222,11 +1569,15 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Drop the per-<code>RingBuffer</code> lists.
      * 03/26/2001  INB	Created.
      *
      */
     public final void addNotification(AwaitNotification anI) {
-	awaiting.addElement(anI);
+	synchronized (awaiting) {
+	    awaiting.addElement(anI);
+	    awaitingByRB.clear();
+	}
     }
 
     /**
@@ -1914,7 +2265,7 @@ private boolean alreadyReset=false;
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.2
-     * @version 07/07/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1922,6 +2273,7 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Stamp the change via <code>registrationChanged</code>.
      * 07/07/2004  INB	Delete channels from the explicitly registered Rmaps
      *			as well as from the ring buffer data Rmaps.
      * 07/30/2003  INB	Created.
@@ -1993,6 +2345,7 @@ private boolean alreadyReset=false;
 	    // Standard case: locate and delete the channels.
 	    channelsR = deleteSomeChannels(channelNames,channelsR);
 	}
+	registrationChanged();
 		
 	return (channelsR);
     }
@@ -2168,6 +2521,9 @@ private boolean alreadyReset=false;
 		channels = (java.util.Vector) map.get(rb);
 		rb.destroy();
 		rbsChanged.remove(rb);
+		synchronized (awaiting) {
+		    awaitingByRB.remove(rb);
+		}
 		removeChild(rb);
 		rb.nullify();
 
@@ -2419,7 +2775,7 @@ private boolean alreadyReset=false;
      * @author Ian Brown
      *
      * @since V2.1
-     * @version 05/18/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -2427,6 +2783,8 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 05/18/2004  INB	Catch exceptions on the timer cancel and ignore them.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 01/08/2004  INB	Added clear cache handling.
@@ -2476,8 +2834,9 @@ private boolean alreadyReset=false;
 		    clearCache();
 		}
 		if (getThread() != null) {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RBO.doLoop(1)",
 			 getLog(),
 			 getLogLevel(),
@@ -2593,8 +2952,9 @@ private boolean alreadyReset=false;
 	} finally {
 	    if (getThread() != null) {
 		try {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RBO.doLoop(2)",
 			 getLog(),
 			 getLogLevel(),
@@ -2809,6 +3169,211 @@ private boolean alreadyReset=false;
 	    }
 	}
     }
+
+    /**
+     * Collects the names of the channels in a request for decimated data.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nodeI    the request <code>Rmap</code>.
+     * @param prefixI  the name of the request <code>Rmap</code> relative to
+     *		       this <code>RBO</code>, ending with a '/'.
+     * @param namesO   the list of channel names.
+     * @return can the request be answered from pyramids?  Requests with
+     *	       wildcards or with times below the top level cannot.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #extractDecimated(com.rbnb.api.Rmap,com.rbnb.api.RequestOptions)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static boolean collectDecimatedNames
+	(Rmap nodeI,
+	 String prefixI,
+	 java.util.Vector namesO)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	for (int idx = 0; idx < nodeI.getNchildren(); ++idx) {
+	    Rmap child = nodeI.getChildAt(idx);
+	    String name = child.getName();
+
+	    if ((child.getTrange() != null) || (child.getFrange() != null)) {
+		return (false);
+	    } else if (name == null) {
+		// Unnamed children just mark their parent as a channel.
+		if (child.getNchildren() > 0) {
+		    return (false);
+		}
+		continue;
+	    } else if (name.equals("...") || (name.indexOf('*') != -1)) {
+		return (false);
+	    }
+
+	    boolean folder = false;
+	    for (int idx1 = 0; idx1 < child.getNchildren(); ++idx1) {
+		if (child.getChildAt(idx1).getName() != null) {
+		    folder = true;
+		    break;
+		}
+	    }
+	    if (!folder) {
+		namesO.addElement(prefixI + name);
+	    } else if (!collectDecimatedNames(child,
+					      prefixI + name + "/",
+					      namesO)) {
+		return (false);
+	    }
+	}
+
+	return (true);
+    }
+
+    /**
+     * Answers a request from the <code>DecimationPyramids</code> of the
+     * requested channels.
+     * <p>
+     * This is only possible if the <code>RequestOptions</code> set a
+     * maximum number of samples, the request names its channels explicitly
+     * and has a single time range at the level of this <code>RBO</code>, and
+     * every requested channel has a pyramid that covers that time range.
+     * Otherwise, the request has to be answered from the raw data.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI  the absolute request, starting above this
+     *			<code>RBO</code>.
+     * @param optionsI  the <code>RequestOptions</code>.
+     * @return the decimated data or <code>null</code> if the request needs
+     *	       the raw data.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.DecimationPyramid
+     * @see com.rbnb.api.RequestOptions#setMaxSamples(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final Rmap extractDecimated(Rmap requestI,RequestOptions optionsI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if ((optionsI == null) ||
+	    (optionsI.getMaxSamples() <= 0) ||
+	    !DecimationPyramid.isConfigured() ||
+	    (requestI.getNchildren() != 1) ||
+	    getIsInStartup() ||
+	    getTerminateRequested() ||
+	    hasBeenShutdown) {
+	    return (null);
+	}
+
+	Rmap top = requestI.getChildAt(0);
+	TimeRange range = top.getTrange();
+	if ((range == null) ||
+	    (range.getNptimes() != 1) ||
+	    (top.getFrange() != null) ||
+	    (top.getName() == null) ||
+	    !top.getName().equals(getName())) {
+	    return (null);
+	}
+
+	java.util.Vector names = new java.util.Vector();
+	if (!collectDecimatedNames(top,"/",names) || (names.size() == 0)) {
+	    return (null);
+	}
+
+	double start = range.getTime(),
+	    end = start + range.getDuration();
+	Rmap responseR = new Rmap(getName());
+	boolean locked = false;
+	try {
+	    lockRead("RBO.extractDecimated");
+	    locked = true;
+
+	    if (hasBeenShutdown) {
+		return (null);
+	    }
+
+	    for (int idx = 0; idx < names.size(); ++idx) {
+		String name = (String) names.elementAt(idx);
+		Long indexL = (Long) channelToRB.get(name);
+		RingBuffer rb;
+		DecimationPyramid pyramid;
+		double[][] points;
+		if ((indexL == null) ||
+		    ((rb = findRingBuffer(indexL.longValue())) == null) ||
+		    ((pyramid = rb.getPyramid(name)) == null) ||
+		    ((points = pyramid.decimate
+		      (start,
+		       end,
+		       optionsI.getMaxSamples(),
+		       optionsI.getDecimation())) == null)) {
+		    return (null);
+		}
+
+		Rmap channel = responseR.findDescendant("/" + getName() + name,
+							true);
+		channel.setTrange(new TimeRange(points[0],0.));
+		channel.setDblock(new DataBlock(points[1],
+						points[1].length,
+						8,
+						DataBlock.TYPE_FLOAT64,
+						DataBlock.ORDER_MSB,
+						false,
+						0,
+						8));
+	    }
+
+	} finally {
+	    if (locked) {
+		unlockRead();
+	    }
+	}
+
+	return (responseR);
+    }
 
     /**
      * Matches the contents of this <code>RBO</code> against a
@@ -3618,15 +4183,16 @@ private boolean alreadyReset=false;
     }
 
     /**
-     * Gets the frame <code>Rmap</code>.
+     * Gets the oldest frame <code>Rmap</code> in the ingest queue.
      * <p>
      *
      * @author Ian Brown
      *
-     * @return the frame <code>Rmap</code>.
-     * @see #setFrame(com.rbnb.api.Rmap)
+     * @return the frame <code>Rmap</code> or <code>null</code> if the queue
+     *	       is empty.
+     * @see #addChild(com.rbnb.api.Rmap)
      * @since V2.0
-     * @version 05/22/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -3634,13 +4200,38 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Return the head of the ingest queue.
      * 01/05/2001  INB	Created.
      *
      */
-    final Rmap getFrame() {
-	return (frame);
+    final synchronized Rmap getFrame() {
+	return (frames.isEmpty() ? null : (Rmap) frames.firstElement());
     }
 
+    /**
+     * Gets the capacity of the ingest queue.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the maximum number of queued frames.
+     * @see #INGEST_QUEUE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int getIngestCapacity() {
+	return ((this instanceof NBO) ? 1 : INGEST_QUEUE);
+    }
+
     /**
      * Gets the last registration time.
      * <p>
@@ -3868,7 +4459,7 @@ private boolean alreadyReset=false;
      * @exception java.lang.InterruptedException
      *		  thrown if the get is interrupted.
      * @since V2.0
-     * @version 01/15/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -3876,6 +4467,7 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Try an optimistic match before taking the read lock.
      * 01/15/2004  INB	Handle <code>hasBeenShutdown</code> flag.
      * 11/17/2003  INB	Ensure that a <code>Lock</code> is set before clearing
      *			it.
@@ -3908,43 +4500,45 @@ private boolean alreadyReset=false;
 	    (requestI.getNchildren() != 0)) {
 	    // mjm: 1/12/06 taking out the following doesn't help the deadlock
       	    updateRegistration();     // make sure "dynamic" parts of registration up to date
-	    boolean locked = false;
-	    try {
-		/* mjm 1/12/06:  grope, try not locking here to debug deadlock problem? NG */
-       		lockRead("RBO.getRegistered");
-		locked = true;
-		//     System.err.println("mjm RBO.getRegistered lock removed!");
-
-		if (!hasBeenShutdown) {
-		    Registration lreg = (Registration) getRegistered();
-		    Rmap subRequest,
-			rmap;
-		    for (int idx = 0,
-			     endIdx = requestI.getNchildren();
-			 idx < endIdx;
-			 ++idx) {
-			subRequest = requestI.getChildAt(idx);
-
-			if (lreg != null) {
-			    if ((subRequest.compareNames("...") == 0) ||
-				(subRequest.compareNames(">...") == 0)) {
-				sourceR.addChild((Rmap) lreg.clone());
 
-			    } else {
-				if ((rmap = lreg.getRegistered
-				     (subRequest)) != null) {
-				    sourceR.addChild(rmap);
-				}
-			    }
-			}
-		    }
+	    // Try to match the registration without the read lock first.
+	    // It may change while it is being read, so a failure of any kind
+	    // just means that the match is repeated under the lock.
+	    java.util.Vector matches = null;
+	    long stamp = registrationDoor.tryOptimisticRead();
+	    if (stamp != 0L) {
+		try {
+		    matches = matchRegistered(requestI);
+		} catch (java.lang.InterruptedException e) {
+		    throw e;
+		} catch (java.lang.Exception e) {
+		    matches = null;
+		}
+		if (!registrationDoor.validate(stamp)) {
+		    matches = null;
 		}
+	    }
 
-	    } finally {
-		if (locked) {
-		    unlockRead();
+	    if (matches == null) {
+		boolean locked = false;
+		try {
+		    /* mjm 1/12/06:  grope, try not locking here to debug deadlock problem? NG */
+		    lockRead("RBO.getRegistered");
+		    locked = true;
+		    //     System.err.println("mjm RBO.getRegistered lock removed!");
+
+		    matches = matchRegistered(requestI);
+
+		} finally {
+		    if (locked) {
+			unlockRead();
+		    }
 		}
 	    }
+
+	    for (int idx = 0; idx < matches.size(); ++idx) {
+		sourceR.addChild((Rmap) matches.elementAt(idx));
+	    }
 	}
 
 	return ((Rmap) sourceR);
@@ -3957,18 +4551,21 @@ private boolean alreadyReset=false;
      * the <code>RBO</code>. It allows for any special handling needed by the
      * subclasses of the class <code>RBO</code>.
      * <p>
-     * For the <code>RBO</code> it is posts the frame as an event.
+     * For the <code>RBO</code> it is posts the frame as an event to the
+     * objects awaiting notification that are interested in the channels of
+     * the <code>RingBuffer</code>.
      * <p>
      *
      * @author Ian Brown
      *
+     * @param rbI	 the <code>RingBuffer</code> the frame was added to.
      * @param theFrameI  the frame to handle.
      * @exception com.rbnb.api.AddressException
      *		  thrown if there is a problem with an address.
      * @exception java.lang.InterruptedException
      *		  thrown if the display operation is interrupted.
      * @since V2.0
-     * @version 05/27/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -3976,29 +4573,40 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Only post to the objects interested in the
+     *			<code>RingBuffer</code>.
      * 02/27/2001  INB	Created.
      *
      */
-    void handleNewFrame(Rmap theFrameI)
+    void handleNewFrame(RingBuffer rbI,Rmap theFrameI)
 	throws com.rbnb.api.AddressException,
 	       java.lang.InterruptedException
     {
-	// Notify people of the arrival.
-	try {
-//EMF 6/30/06: listeners need client name to match against this frame instead
-//             of looking into RBO
-//System.err.println("RBO is NBO? "+(this instanceof NBO));
-//System.err.println("theFrameI "+theFrameI);
-//System.err.println("theFrameI.getParent() "+theFrameI.getParent());
-//if (!(this instanceof NBO) && theFrameI.getParent()==null) {
-  //theFrameI.setName(this.getName());
-//}
-//System.err.println("theFrameI "+theFrameI);
-	    post(theFrameI);
-	} catch (com.rbnb.api.SerializeException e) {
-	    throw new java.lang.InternalError();
-	} catch (java.io.IOException e) {
-	    throw new java.lang.InternalError();
+	// Notify the people interested in the <code>RingBuffer</code> of the
+	// arrival.
+	synchronized (awaiting) {
+	    java.util.Vector interested =
+		(java.util.Vector) awaitingByRB.get(rbI);
+	    if (interested == null) {
+		String[] channelNames = rbI.getChannelNames();
+		interested = new java.util.Vector();
+		for (int idx = 0; idx < awaiting.size(); ++idx) {
+		    AwaitNotification an = (AwaitNotification)
+			awaiting.elementAt(idx);
+		    if (an.isInterestedIn(channelNames)) {
+			interested.addElement(an);
+		    }
+		}
+		awaitingByRB.put(rbI,interested);
+	    }
+	    for (int idx = 0,
+		     endIdx = interested.size();
+		 idx < endIdx;
+		 ++idx) {
+		AwaitNotification an = (AwaitNotification)
+		    interested.elementAt(idx);
+		an.addEvent(theFrameI,false);
+	    }
 	}
     }
 
@@ -4449,6 +5057,79 @@ private boolean alreadyReset=false;
 	return (mappedR);
     }
 
+    /**
+     * Matches a request against the registration of this <code>RBO</code>.
+     * <p>
+     * The matches are built from copies, so nothing is changed by this
+     * method.  That allows <code>getRegistered</code> to call it without a
+     * lock and simply repeat the match under the lock if the registration
+     * changed while it was being read.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param requestI  the request <code>Rmap</code>.
+     * @return the matching registration <code>Rmaps</code>.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem during serialization.
+     * @exception java.io.EOFException
+     *		  thrown if an EOF is encountered while getting the response.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the match is interrupted.
+     * @see #getRegistered(com.rbnb.api.Rmap)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from <code>getRegistered</code>.
+     *
+     */
+    private final java.util.Vector matchRegistered(Rmap requestI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	java.util.Vector matchesR = new java.util.Vector();
+
+	if (!hasBeenShutdown) {
+	    Registration lreg = (Registration) getRegistered();
+	    Rmap subRequest,
+		rmap;
+	    for (int idx = 0,
+		     endIdx = requestI.getNchildren();
+		 idx < endIdx;
+		 ++idx) {
+		subRequest = requestI.getChildAt(idx);
+
+		if (lreg != null) {
+		    if ((subRequest.compareNames("...") == 0) ||
+			(subRequest.compareNames(">...") == 0)) {
+			matchesR.addElement(lreg.clone());
+
+		    } else {
+			if ((rmap = lreg.getRegistered
+			     (subRequest)) != null) {
+			    matchesR.addElement(rmap);
+			}
+		    }
+		}
+	    }
+	}
+
+	return (matchesR);
+    }
+
     /**
      * Marks this <code>Archive</code> and its parent <code>RingBuffer</code>
      * as out-of-date.
@@ -5115,7 +5796,7 @@ private boolean alreadyReset=false;
      *		  thrown if the operation is interrupted.
      * @see #writeToArchive()
      * @since V2.1
-     * @version 01/05/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -5123,6 +5804,7 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Read the <code>RingBuffers</code> in parallel.
      * 11/06/2006  EMF  Added reset call when recovering archive, to force
      *                  write and reload.
      * 01/05/2004  INB	Check for no children or null child.
@@ -5156,42 +5838,60 @@ private boolean alreadyReset=false;
 		// Read a skeleton of the data from the archive.
 		readSkeletonFromArchive();
 
-		// Load the <code>RingBuffers</code> from the archive.
+		// Load the <code>RingBuffers</code> from the archive.  They are
+		// independent of each other, so they are read in parallel and
+		// then put in place in order.
+		java.util.Vector rbs = new java.util.Vector(),
+		    reads = new java.util.Vector();
 		for (int idx = 1; idx <= nRB; ++idx) {
 		    java.io.File rbDirectory = new java.io.File
 			(getArchiveDirectory() +
 			 Archive.SEPARATOR +
 			 "RB" + idx);
 		    if (rbDirectory.exists()) {
-			rb = new RingBuffer(idx);
-			rb.setParent(this);
+			final RingBuffer lrb = new RingBuffer(idx);
+			lrb.setParent(this);
                         //EMF 10/18/06: add trim by time info
-                        rb.setupTrimTimes(cacheflush,cachetrim,archiveflush,archivetrim);
-			rb.setup(cFrameSets,cFrFrameSet,aFileSets,aFrSFileSet);
-			rb.readFromArchive();
-			rb.setParent(null);
-
-			String[] channelNames =
-			    rb.getRegistered().extractNames();
-			Long indexL = new Long(rb.getIndex()),
-			    indexL2 = (Long) channelToRB.get(channelNames[0]);
-			if ((indexL2 != null) &&
-			    (indexL2.longValue() != indexL.longValue())) {
-			    throw new java.lang.IllegalStateException
-				("Channels in ring buffer " + rb.getIndex() +
-				 " conflict with those in " +
-				 indexL2.longValue() + ".");
-			}
-			String name;
-			for (int idx1 = 0;
-			     idx1 < channelNames.length;
-			     ++idx1) {
-			    channelToRB.put(channelNames[idx1],indexL);
-			}
+                        lrb.setupTrimTimes(cacheflush,cachetrim,archiveflush,archivetrim);
+			lrb.setup(cFrameSets,cFrFrameSet,aFileSets,aFrSFileSet);
+			rbs.addElement(lrb);
+			reads.addElement(new ArchiveLoader.Task() {
+			    final void perform()
+				throws java.lang.Exception
+			    {
+				lrb.readFromArchive();
+			    }
+			});
+		    }
+		}
+		ArchiveLoader.runAll(reads);
 
-			addChild(rb);
-			rb.start();
+		for (int idx = 0; idx < rbs.size(); ++idx) {
+		    ArchiveLoader.rethrow
+			((ArchiveLoader.Task) reads.elementAt(idx));
+		    rb = (RingBuffer) rbs.elementAt(idx);
+		    rb.setParent(null);
+
+		    String[] channelNames =
+			rb.getRegistered().extractNames();
+		    Long indexL = new Long(rb.getIndex()),
+			indexL2 = (Long) channelToRB.get(channelNames[0]);
+		    if ((indexL2 != null) &&
+			(indexL2.longValue() != indexL.longValue())) {
+			throw new java.lang.IllegalStateException
+			    ("Channels in ring buffer " + rb.getIndex() +
+			     " conflict with those in " +
+			     indexL2.longValue() + ".");
+		    }
+		    String name;
+		    for (int idx1 = 0;
+			 idx1 < channelNames.length;
+			 ++idx1) {
+			channelToRB.put(channelNames[idx1],indexL);
 		    }
+
+		    addChild(rb);
+		    rb.start();
 		}
 	    }
             //EMF 11/10/06: if archive was recovered, force a reset
@@ -5675,7 +6375,7 @@ private boolean alreadyReset=false;
      *		  thrown if there is just no way to recover anything from the
      *		  <code>RBO's Archives</code>.
      * @since V2.1
-     * @version 10/31/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -5683,6 +6383,11 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Seal recovered <code>RingBuffers</code> again in
+     *			order, as they finish recovering in any order.
+     * 10/18/2026  JRS	Read or recover the <code>RingBuffers</code> in
+     *			parallel before checking their <code>Seals</code> in
+     *			order.
      * 10/31/2003  INB	Build a recovery message buffer rather than report to
      *			the log.
      * 09/09/2003  INB	Attempt to validate a ring buffer that fails to load.
@@ -5725,6 +6430,7 @@ private boolean alreadyReset=false;
 	boolean goodRB = false;
 
 	setNfindex(0);
+	java.util.Vector recoveries = new java.util.Vector();
 	for (int idx = 0,
 		 endIdx = validSealsI.size(),
 		 idx1 = 0,
@@ -5733,9 +6439,6 @@ private boolean alreadyReset=false;
 	     ) {
 	    // Read through the <code>Seals</code> to produce a sequence of
 	    // valid <code>RingBuffers</code>.
-	    rbmessage = new StringBuffer("");
-	    rbnotmessage = new StringBuffer("");
-	    rbunmessage = new StringBuffer("");
 
 	    // Get the next <code>RingBuffer/code> and its <code>Seal</code>.
 	    if ((validRB == null) && (idx < endIdx)) {
@@ -5781,28 +6484,46 @@ private boolean alreadyReset=false;
 		goodRB = false;
 	    }
 
-	    if (goodRB) {
-		try {
-		    rb.readFromArchive();
-		} catch (java.lang.Exception e) {
-		    goodRB = false;
-		}
-	    }
+	    recoveries.addElement(new RecoverRingBuffer(rb,
+							theSeal,
+							rbValidSeals,
+							rbInvalidSeals,
+							goodRB));
+	}
 
-	    if (!goodRB) {
-		try {
-		    theSeal = rb.recoverFromArchive(rbValidSeals,
-						    rbInvalidSeals,
-						    rbmessage,
-						    rbnotmessage,
-						    rbunmessage);
-		    goodRB = (theSeal != null);
-		} catch (java.lang.Exception e) {
-		    goodRB = false;
-		}
-	    }
+	// The <code>RingBuffers</code> are independent of each other until
+	// their <code>Seals</code> are checked against each other, so they are
+	// read or recovered in parallel.
+	try {
+	    ArchiveLoader.runAll(recoveries);
+	} catch (java.lang.InterruptedException e) {
+	    throw new java.lang.IllegalStateException
+		("Archive recovery was interrupted.");
+	}
+
+	for (int idx = 0; idx < recoveries.size(); ++idx) {
+	    RecoverRingBuffer recovery =
+		(RecoverRingBuffer) recoveries.elementAt(idx);
+	    rb = recovery.ringBuffer;
+	    theSeal = recovery.seal;
+	    goodRB = recovery.good;
+	    rbmessage = recovery.goodMessage;
+	    rbnotmessage = recovery.notMessage;
+	    rbunmessage = recovery.unMessage;
 
 	    try {
+		if (goodRB && recovery.recovered) {
+		    // The recovered <code>RingBuffers</code> were sealed in
+		    // whatever order they finished, so they are sealed again
+		    // here, in order.
+		    Seal.seal(rb.getArchiveDirectory());
+		    theSeal = Seal.validate(rb.getArchiveDirectory(),
+					    ((lastSeal == null) ?
+					     Long.MIN_VALUE :
+					     lastSeal.getAsOf()),
+					    Long.MAX_VALUE);
+		}
+
 		if (goodRB) {
 		    String[] channelNames =
 			rb.getRegistered().extractNames();
@@ -5956,7 +6677,7 @@ private boolean alreadyReset=false;
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 11/12/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -5964,6 +6685,7 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Stamp the change via <code>registrationChanged</code>.
      * 11/12/2003  INB	Added location of locks.
      * 10/27/2003  INB	Use write lock methods.
      * 03/12/2003  INB	Set the last registration time.
@@ -6001,6 +6723,7 @@ private boolean alreadyReset=false;
 		(rmapI,
 		 false,
 		 true);
+	    registrationChanged();
 
 	} finally {
 	    unlockWrite();
@@ -6030,7 +6753,7 @@ private boolean alreadyReset=false;
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 07/07/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -6038,6 +6761,7 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Stamp the change via <code>registrationChanged</code>.
      * 07/07/2004  INB	Delete the explicitly registered Rmaps.
      * 01/15/2004  INB	Added setting/clearing of <code>hasBeenShutdown</code>.
      * 11/12/2003  INB	Added location of locks.
@@ -6066,6 +6790,7 @@ private boolean alreadyReset=false;
 	    setRegistered(new Registration());
 	    setLastRegistration(Long.MIN_VALUE);
 	    setUpRingBuffer();
+	    registrationChanged();
 
 	    synchronized (this) {
 		setPerformReset(false);
@@ -6087,7 +6812,7 @@ private boolean alreadyReset=false;
      * @param anI  the <code>AwaitNotification</code> object.
      * @see #addNotification(com.rbnb.api.AwaitNotification)
      * @since V2.0
-     * @version 05/10/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -6095,11 +6820,15 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Drop the per-<code>RingBuffer</code> lists.
      * 03/26/2001  INB	Created.
      *
      */
     public final void removeNotification(AwaitNotification anI) {
-	awaiting.removeElement(anI);
+	synchronized (awaiting) {
+	    awaiting.removeElement(anI);
+	    awaitingByRB.clear();
+	}
     }
 
     /**
@@ -6109,7 +6838,7 @@ private boolean alreadyReset=false;
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 11/17/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -6117,6 +6846,8 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 11/14/2003  INB	Ensure that we release <code>Locks</code>.
      * 04/17/2003  INB	Rewrote logic to allow reconnects.
      * 04/04/2003  INB	Handle Java errors.
@@ -6142,8 +6873,9 @@ private boolean alreadyReset=false;
 	} finally {
 	    if (getThread() != null) {
 		try {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RBO.run",
 			 getLog(),
 			 getLogLevel(),
@@ -6480,17 +7212,20 @@ private boolean alreadyReset=false;
 
 	cacheSize = cacheSizeI;
     }
+
+
 
     /**
-     * Sets the frame <code>Rmap</code>.
+     * Publishes the depth of the ingest queue to the
+     * <code>MetricsRegistry</code>.
+     * <p>
+     * The caller must be synchronized on this <code>RBO</code>.
      * <p>
      *
-     * @author Ian Brown
+     * @author John Stafford
      *
-     * @param frameI  the new frame <code>Rmap</code>.
-     * @see #getFrame()
-     * @since V2.0
-     * @version 05/22/2001
+     * @since V3.6
+     * @version 10/18/2026
      */
 
     /*
@@ -6498,13 +7233,15 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
-     * 01/05/2001  INB	Created.
+     * 10/18/2026  JRS	Created.
      *
      */
-    final void setFrame(Rmap frameI) {
-	frame = frameI;
+    private final void setIngestDepth() {
+	if (ingestDepth != null) {
+	    ingestDepth.set(frames.size());
+	}
     }
-
+
     /**
      * Sets the last registration time.
      * <p>
@@ -7209,7 +7946,7 @@ private boolean alreadyReset=false;
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 02/11/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -7217,6 +7954,7 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Remove the ingest queue metrics.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 01/08/2004  INB	Remove our children before deleting the
      *			<code>Archive</code>.
@@ -7232,6 +7970,19 @@ private boolean alreadyReset=false;
 	stopAwaiting();
 	RingBuffer rb;
 
+	// Drop our ingest queue from the <code>MetricsRegistry</code>.
+	synchronized (this) {
+	    if (ingestLabel != null) {
+		MetricsRegistry.getDefault().remove
+		    (MetricsRegistry.INGEST_QUEUE,ingestLabel);
+		MetricsRegistry.getDefault().remove
+		    (MetricsRegistry.INGEST_DROPPED,ingestLabel);
+		ingestDepth = null;
+		ingestDropped = null;
+		ingestLabel = null;
+	    }
+	}
+
 	int eIdx = 0;
 	try {
 	    eIdx = getNchildren();
@@ -7376,7 +8127,7 @@ private boolean alreadyReset=false;
      * @see #acceptFrame(boolean)
      * @see #addChild(com.rbnb.api.Rmap)
      * @since V2.0
-     * @version 03/26/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -7384,6 +8135,8 @@ private boolean alreadyReset=false;
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait on the <code>RingBuffer's</code> state
+     *			<code>Condition</code>.
      * 03/26/2003  INB	Use <code>TimerPeriod.NORMAL_WAIT</code>.
      * 02/17/2003  INB	Modified to handle multiple <code>RingBuffers</code>.
      * 01/02/2001  INB	Created.
@@ -7432,11 +8185,14 @@ private boolean alreadyReset=false;
 	for (lrbs = lrbsT.keys(); lrbs.hasMoreElements(); ) {
 	    rb = (RingBuffer) lrbs.nextElement();
 	    startAt = System.currentTimeMillis();
-	    synchronized (rb) {
+	    rb.getStateLock().lock();
+	    try {
 		while ((rb.getFrame() != null) ||
 			rb.getAddingAFrame() ||
 			rb.getAcceptingAFrame()) {
-		    rb.wait(TimerPeriod.NORMAL_WAIT);
+		    rb.getStateChanged().await
+			(TimerPeriod.NORMAL_WAIT,
+			 java.util.concurrent.TimeUnit.MILLISECONDS);
 
 		    if (((now = System.currentTimeMillis()) - startAt) >=
 			TimerPeriod.LOCK_WAIT) {
@@ -7457,6 +8213,8 @@ private boolean alreadyReset=false;
 			}
 		    }
 		}
+	    } finally {
+		rb.getStateLock().unlock();
 	    }
 	}
 
@@ -8623,4 +9381,215 @@ cache.setMeps(cFrFrameSet);
 	    unlockWrite();
 	}
     }
+
+    /**
+     * Reads or recovers one <code>RingBuffer</code> for
+     * <code>recoverRingBuffers</code>.
+     * <p>
+     * <code>RingBuffers</code> that have a good <code>Seal</code> are read
+     * normally.  Those that do not, or that fail to read, are recovered from
+     * their <code>FileSets</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>recoverRingBuffers</code>.
+     *
+     */
+    private final static class RecoverRingBuffer
+	extends ArchiveLoader.Task
+    {
+	/**
+	 * was the <code>RingBuffer</code> read or recovered?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	boolean good;
+
+	/**
+	 * the recovery messages for good <code>FileSets</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final StringBuffer goodMessage = new StringBuffer("");
+
+	/**
+	 * the <code>Seals</code> of the <code>FileSets</code> with problems.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private final java.util.Vector invalidSeals;
+
+	/**
+	 * the recovery messages for <code>FileSets</code> that were not
+	 * recovered.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final StringBuffer notMessage = new StringBuffer("");
+
+	/**
+	 * was the <code>RingBuffer</code> recovered from its
+	 * <code>FileSets</code>?
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	boolean recovered = false;
+
+	/**
+	 * the <code>RingBuffer</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final RingBuffer ringBuffer;
+
+	/**
+	 * the <code>Seal</code>, replaced by the new one if the
+	 * <code>RingBuffer</code> is recovered.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	Seal seal;
+
+	/**
+	 * the recovery messages for unrecoverable <code>FileSets</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	final StringBuffer unMessage = new StringBuffer("");
+
+	/**
+	 * the <code>Seals</code> of the good <code>FileSets</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+	private final java.util.Vector validSeals;
+
+	/**
+	 * Class constructor.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @param ringBufferI   the <code>RingBuffer</code>.
+	 * @param sealI         its <code>Seal</code>.
+	 * @param validSealsI   the <code>Seals</code> of its good
+	 *			<code>FileSets</code>.
+	 * @param invalidSealsI the <code>Seals</code> of its
+	 *			<code>FileSets</code> with problems.
+	 * @param goodI         can it be read normally?
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Created.
+	 *
+	 */
+	RecoverRingBuffer(RingBuffer ringBufferI,
+			  Seal sealI,
+			  java.util.Vector validSealsI,
+			  java.util.Vector invalidSealsI,
+			  boolean goodI)
+	{
+	    super();
+	    ringBuffer = ringBufferI;
+	    seal = sealI;
+	    validSeals = validSealsI;
+	    invalidSeals = invalidSealsI;
+	    good = goodI;
+	}
+
+	/**
+	 * Reads or recovers the <code>RingBuffer</code>.
+	 * <p>
+	 *
+	 * @author John Stafford
+	 *
+	 * @since V3.6
+	 * @version 10/18/2026
+	 */
+
+	/*
+	 *
+	 *   Date      By	Description
+	 * MM/DD/YYYY
+	 * ----------  --	-----------
+	 * 10/18/2026  JRS	Note when the <code>RingBuffer</code> is recovered.
+	 * 10/18/2026  JRS	Created from code in
+	 *			<code>recoverRingBuffers</code>.
+	 *
+	 */
+	final void perform() {
+	    if (good) {
+		try {
+		    ringBuffer.readFromArchive();
+		} catch (java.lang.Exception e) {
+		    good = false;
+		}
+	    }
+
+	    if (!good) {
+		try {
+		    seal = ringBuffer.recoverFromArchive(validSeals,
+							 invalidSeals,
+							 goodMessage,
+							 notMessage,
+							 unMessage);
+		    good = recovered = (seal != null);
+		} catch (java.lang.Exception e) {
+		    good = false;
+		}
+	    }
+	}
+    }
 }
@@ -40,7 +40,7 @@ package com.rbnb.api;
  * @see com.rbnb.api.ClientHandle
  * @see com.rbnb.api.RBNBClient
  * @since V2.0
- * @version 08/05/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -50,6 +50,13 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	----------
+ * 10/18/2026  JRS	Added <code>isHeld</code>.
+ * 10/18/2026  JRS	Answer <code>Ask.REGISTEREDSINCE</code>.
+ * 10/18/2026  JRS	Added wire protocol negotiation.
+ * 10/18/2026  JRS	Added <code>serviceWaiting</code> and
+ *			<code>isAlive</code> so that an <code>RCO</code> can be
+ *			run by a shared worker thread.  Create
+ *			<code>NIORCOs</code> for NIO addresses.
  * 03/15/2011  MJM	Edits associated with RBO reconnect logic
  * 2007/07/23  WHF      Implemented Get/SetAddressAuthorization command support.
  * 08/12/2004  EMF      Added debug logging to login method.
@@ -286,6 +293,8 @@ abstract class RCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+ * 10/18/2026  JRS	The handler thread may be a virtual thread; see
+ *			<code>ThreadWithLocks.newHandlerThread</code>.
      * 05/08/2001  INB	Created.
      *
      */
@@ -348,7 +357,7 @@ abstract class RCO
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 08/05/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -356,6 +365,7 @@ abstract class RCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Answer <code>Ask.REGISTEREDSINCE</code> requests.
      * 08/05/2004  INB	Added in-line documentation.
      * 04/29/2004  INB	Route from requires router permission.
      * 02/11/2004  INB	Log exceptions at standard level.
@@ -392,6 +402,15 @@ abstract class RCO
 		    answer = new Rmap();
 		}
 
+	    } else if (askI.getInformationType().equalsIgnoreCase
+		       (Ask.REGISTEREDSINCE)) {
+		// If the request is for the registration changed since a
+		// version, then let the local server work out what has
+		// changed.
+		long since =
+		    ((Long) askI.getAdditional().firstElement()).longValue();
+		answer = ((RBNB) getServerHandler()).getRegisteredSince(since);
+
 	    } else if (askI.getInformationType().equalsIgnoreCase
 		       (Ask.CHILDAT)) {
 		// Request is for a child of our client handler.
@@ -853,6 +872,78 @@ abstract class RCO
 	       java.io.IOException,
 	       java.lang.InterruptedException;
 
+    /**
+     * Shuts this <code>RCO</code> down once it stops handling messages.
+     * <p>
+     * The client handler, if any, is stopped.  Unless the connection has
+     * been reversed, the connection is then closed.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #logFailure(java.lang.Throwable)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>run</code>.
+     *
+     */
+    private final void finish() {
+	try {
+	    getLog().addMessage
+		(getLogLevel() + 10,
+		 getLogClass(),
+		 toString(),
+		 "Terminating RCO.");
+	} catch (java.lang.Throwable e) {
+	}
+
+
+	if (getClientHandler() != null) {
+	    try {
+		if (reversed) {
+		    getClientHandler().setRCO(null);
+		}
+		getClientHandler().stop(getClientHandler());
+	    } catch (java.lang.Throwable e) {
+	    }
+	    setClientHandler(null);
+	}
+
+	if (!reversed) {
+	    try {
+		send(Language.ping());
+	    } catch (java.lang.Throwable e) {
+	    }
+
+	    try {
+		close();
+	    } catch (java.lang.Throwable e) {
+	    }
+	    try {
+		disconnect();
+	    } catch (java.lang.Throwable e) {
+	    }
+	}
+
+	try {
+	    getLog().addMessage
+		(getLogLevel() + 11,
+		 getLogClass(),
+		 toString(),
+		 "Terminated RCO.");
+	} catch (java.lang.Throwable e) {
+	}
+
+	setThread(null);
+    }
+
     /**
      * Gets the date that the code was built.
      * <p>
@@ -1181,6 +1272,60 @@ abstract class RCO
 	return (writeDoor);
     }
 
+    /**
+     * Handles a message received from the client.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param messageI the message.
+     * @return should this <code>RCO</code> continue running?
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a serialization problem.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if this operation is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @see #process(com.rbnb.api.Serializable)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>run</code>.
+     *
+     */
+    private final boolean handle(Serializable messageI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (!process(messageI)) {
+	    reversed = (messageI instanceof ReverseRoute);
+	    return (false);
+	}
+
+	ThreadWithLocks.ensureLocksCleared
+	    (Thread.currentThread(),
+	     toString(),
+	     "RCO.run",
+	     getLog(),
+	     getLogLevel(),
+	     getLogClass());
+
+	return (true);
+    }
+
     /**
      * Interrupts this <code>RCO</code>.
      * <p>
@@ -1209,6 +1354,32 @@ abstract class RCO
 	}
     }
 
+    /**
+     * Is this <code>RCO</code> running?
+     * <p>
+     * This implementation checks the thread started by <code>start</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return is this <code>RCO</code> running?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    boolean isAlive() {
+	Thread lThread = getThread();
+	return ((lThread != null) && lThread.isAlive());
+    }
+
     /**
      * Is this <code>RCO<code> allowed the specified access?
      * <p>
@@ -1266,6 +1437,38 @@ abstract class RCO
 	return (true);
     }
 
+    /**
+     * Is the handling of waiting messages on hold?
+     * <p>
+     * <code>serviceWaiting</code> stops handling messages while this is
+     * <code>true</code>.  This implementation never holds them.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return are the waiting messages to be left alone for now?
+     * @exception java.io.IOException
+     *		  thrown if the hold has failed and this <code>RCO</code>
+     *		  should shut down.
+     * @see #serviceWaiting(boolean)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    boolean isHeld()
+	throws java.io.IOException
+    {
+	return (false);
+    }
+
     /**
      * Is anything waiting to be read?
      * <p>
@@ -1320,7 +1523,7 @@ abstract class RCO
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 04/29/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1328,6 +1531,7 @@ abstract class RCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Only name the thread if there is one.
      * 03/15/2011  MJM	Rearranged checks for RBO reconnect logic
      * 09/07/2004  MJM  Commented out the EMF debug
      * 08/12/2004  EMF  Added logging on enter and exit, as debug for routing
@@ -1453,7 +1657,9 @@ abstract class RCO
 	    Rmap myClient = (Rmap)
 		clientInterface.getClass().newInstance();
 	    myClient.setName(getClientHandler().getName());
-	    getThread().setName("RCO." + myClient.getName());
+	    if (getThread() != null) {
+		getThread().setName("RCO." + myClient.getName());
+	    }
 	    myServer.addChild(myClient);
 	    send(myServer);
 	} catch (java.lang.IllegalAccessException e) {
@@ -1473,6 +1679,112 @@ abstract class RCO
 //	}
     } //end login method
 
+    /**
+     * Reports the failure that stopped this <code>RCO</code>.
+     * <p>
+     * Depending on the failure, it is logged and/or sent to the client.
+     * Interruptions and end-of-file conditions are simply the normal ways
+     * for a connection to end and are not reported.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param throwableI the failure.
+     * @see #finish()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>run</code>.
+     *
+     */
+    private final void logFailure(java.lang.Throwable throwableI) {
+	if (throwableI instanceof java.lang.InterruptedException) {
+	} else if (throwableI instanceof java.net.SocketException) {
+	    java.net.SocketException e = (java.net.SocketException) throwableI;
+	    try {
+
+		if (getClientHandler() == null) {
+		    getLog().addException(Log.STANDARD,
+					  getLogClass(),
+					  toString(),
+					  e);
+
+		}
+
+		if (getClientHandler() instanceof SourceHandler) {
+		    if (((SourceHandler)
+			 getClientHandler()).stopOnIOException()) {
+			setClientHandler(null);
+		    }
+
+		} else if (!stopMyself) {
+		    send(Language.exception(e));
+		}
+
+	    } catch (java.lang.Throwable e1) {
+	    }
+
+	} else if (throwableI instanceof java.io.EOFException) {
+	} else if (throwableI instanceof java.io.IOException) {
+	    java.io.IOException e = (java.io.IOException) throwableI;
+	    try {
+		if (((getClientHandler() == null) ||
+		     !((RBNBClient)
+		       getClientHandler()).getTerminateRequested()) &&
+		    !(e instanceof java.io.InterruptedIOException)) {
+		    getLog().addException(Log.STANDARD,
+					  getLogClass(),
+					  toString(),
+					  e);
+		}
+
+	    } catch (java.lang.Throwable e1) {
+	    }
+
+	} else if (throwableI instanceof java.lang.Exception) {
+	    java.lang.Exception e = (java.lang.Exception) throwableI;
+	    try {
+		if (((getClientHandler() == null) ||
+		     !((RBNBClient)
+		       getClientHandler()).getTerminateRequested()) &&
+		    !(e instanceof java.lang.InterruptedException) &&
+		    !(e instanceof java.io.InterruptedIOException)) {
+		    getLog().addException(Log.STANDARD,
+					  getLogClass(),
+					  toString(),
+					  e);
+		}
+
+		if (!stopMyself) {
+		    send(Language.exception(e));
+		}
+	    } catch (java.lang.Throwable e1) {
+	    }
+
+	} else if (throwableI instanceof java.lang.Error) {
+	    java.lang.Error e = (java.lang.Error) throwableI;
+	    try {
+		getLog().addError(Log.STANDARD,
+				  getLogClass(),
+				  toString(),
+				  e);
+		if (!stopMyself) {
+		    send(Language.exception
+			 (new java.lang.Exception
+			     ("A fatal error occured.\n" +
+			      e.getClass() + " " + e.getMessage())));
+		}
+	    } catch (java.lang.Throwable e1) {
+	    }
+	}
+    }
+
     /**
      * Makes a request via a <code>Sink</code> connection to our local RBNB
      * server.
@@ -1563,7 +1875,7 @@ abstract class RCO
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 05/17/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -1571,6 +1883,7 @@ abstract class RCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added NIO addresses.
      * 05/08/2001  INB	Created.
      *
      */
@@ -1594,6 +1907,8 @@ abstract class RCO
 		rcoR = new RAMRCO(serverSideI,rbnbI);
 	    } else if (strAddr.substring(0,ss).equalsIgnoreCase("TCP")) {
 		rcoR = new TCPRCO(serverSideI,rbnbI);
+	    } else if (strAddr.substring(0,ss).equalsIgnoreCase("NIO")) {
+		rcoR = new NIORCO(serverSideI,rbnbI);
 	    } else {
 		throw new com.rbnb.api.AddressException
 		    (strAddr + " is not a valid address.");
@@ -1622,7 +1937,7 @@ abstract class RCO
      * @exception java.lang.InterruptedException
      *		  thrwon if this operation is interrupted.
      * @since V2.0
-     * @version 04/29/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1630,6 +1945,7 @@ abstract class RCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added handling of <code>WireProtocol</code>.
      * 04/29/2004  INB	Router privilege is required to reverse a route and
      *			control to start a mirror.  Exceptions caught when
      *			there is no client handler are propagated rather than
@@ -1669,6 +1985,9 @@ abstract class RCO
 		getClientHandler().setUsername((Username) messageI);
 		send(Language.ping());
 
+	    } else if (messageI instanceof WireProtocol) {
+		protocol((WireProtocol) messageI);
+
 	    } else if (messageI instanceof ClientInterface) {
 		connectToExistingClient((ClientInterface) messageI);
 		return (false);
@@ -1911,6 +2230,51 @@ abstract class RCO
 	return (true);
     }
 
+    /**
+     * Answers a wire protocol offer from the <code>ACO</code>.
+     * <p>
+     * This implementation always answers with the legacy protocol.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param offerI the <code>WireProtocol</code> offered.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a serialization problem.
+     * @exception java.io.EOFException
+     *		  thrown if the connection is closed.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the I/O is interrupted.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem with the I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.ACO#negotiateProtocol()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    void protocol(WireProtocol offerI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	send(new WireProtocol(WireProtocol.LEGACY));
+    }
+
     /*
     private static boolean abortedPing = false;
     private final static synchronized void abortIt(short pingValueI)
@@ -2179,7 +2543,7 @@ abstract class RCO
      * @see #start()
      * @see #stop()
      * @since V2.0
-     * @version 05/27/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -2187,6 +2551,13 @@ abstract class RCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
+     * 10/18/2026  JRS	Moved the message handling, the reporting of failures,
+     *			and the shutdown code into <code>handle</code>,
+     *			<code>logFailure</code>, and <code>finish</code> so
+     *			that they can be shared with
+     *			<code>serviceWaiting</code>.
      * 05/27/2004  INB	Don't log EOF exceptions.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 02/09/2004  INB	Assume that I/O exceptions mean that there is a problem
@@ -2221,19 +2592,9 @@ abstract class RCO
 		    throw new java.lang.InterruptedException();
 		}
 
-		if (!process(message)) {
-		    reversed = (message instanceof ReverseRoute);
+		if (!handle(message)) {
 		    break;
 		}
-
-		if (getThread() != null) {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(toString(),
-			 "RCO.run",
-			 getLog(),
-			 getLogLevel(),
-			 getLogClass());
-		}
 	    }
 
 	    if (getTerminateRequested() ||
@@ -2242,136 +2603,18 @@ abstract class RCO
 		throw new java.lang.InterruptedException();
 	    }
 
-	} catch (java.lang.InterruptedException e) {
-	} catch (java.net.SocketException e) {
-	    try {
-
-		if (getClientHandler() == null) {
-		    getLog().addException(Log.STANDARD,
-					  getLogClass(),
-					  toString(),
-					  e);
-
-		}
-
-		if (getClientHandler() instanceof SourceHandler) {
-		    if (((SourceHandler)
-			 getClientHandler()).stopOnIOException()) {
-			setClientHandler(null);
-		    }
-
-		} else if (!stopMyself) {
-		    send(Language.exception(e));
-		}
-
-	    } catch (java.lang.Throwable e1) {
-	    }
-
-	} catch (java.io.EOFException e) {
-	} catch (java.io.IOException e) {
-	    try {
-		if (((getClientHandler() == null) ||
-		     !((RBNBClient)
-		       getClientHandler()).getTerminateRequested()) &&
-		    !(e instanceof java.io.InterruptedIOException)) {
-		    getLog().addException(Log.STANDARD,
-					  getLogClass(),
-					  toString(),
-					  e);
-		}
-
-	    } catch (java.lang.Throwable e1) {
-	    }
-
-	} catch (java.lang.Exception e) {
-	    try {
-		if (((getClientHandler() == null) ||
-		     !((RBNBClient)
-		       getClientHandler()).getTerminateRequested()) &&
-		    !(e instanceof java.lang.InterruptedException) &&
-		    !(e instanceof java.io.InterruptedIOException)) {
-		    getLog().addException(Log.STANDARD,
-					  getLogClass(),
-					  toString(),
-					  e);
-		}
-
-		if (!stopMyself) {
-		    send(Language.exception(e));
-		}
-	    } catch (java.lang.Throwable e1) {
-	    }
-
-	} catch (java.lang.Error e) {
-	    try {
-		getLog().addError(Log.STANDARD,
-				  getLogClass(),
-				  toString(),
-				  e);
-		if (!stopMyself) {
-		    send(Language.exception
-			 (new java.lang.Exception
-			     ("A fatal error occured.\n" +
-			      e.getClass() + " " + e.getMessage())));
-		}
-	    } catch (java.lang.Throwable e1) {
-	    }
+	} catch (java.lang.Throwable e) {
+	    logFailure(e);
 
 	} finally {
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).clearLocks();
-	    }
-	}
-
-	try {
-	    getLog().addMessage
-		(getLogLevel() + 10,
-		 getLogClass(),
-		 toString(),
-		 "Terminating RCO.");
-	} catch (java.lang.Throwable e) {
-	}
-
-
-	if (getClientHandler() != null) {
-	    try {
-		if (reversed) {
-		    getClientHandler().setRCO(null);
-		}
-		getClientHandler().stop(getClientHandler());
-	    } catch (java.lang.Throwable e) {
-	    }
-	    setClientHandler(null);
-	}
-
-	if (!reversed) {
-	    try {
-		send(Language.ping());
-	    } catch (java.lang.Throwable e) {
-	    }
-
-	    try {
-		close();
-	    } catch (java.lang.Throwable e) {
-	    }
-	    try {
-		disconnect();
-	    } catch (java.lang.Throwable e) {
+		ThreadWithLocks.clearLocks(getThread());
 	    }
 	}
 
-	try {
-	    getLog().addMessage
-		(getLogLevel() + 11,
-		 getLogClass(),
-		 toString(),
-		 "Terminated RCO.");
-	} catch (java.lang.Throwable e) {
-	}
-
-	setThread(null);
+	finish();
     }
-
+
     /**
      * Sends a message to the <code>ACO</code>.
      * <p>
@@ -2410,6 +2653,88 @@ abstract class RCO
 	       java.io.IOException,
 	       java.lang.InterruptedException;
 
+    /**
+     * Handles the messages that are waiting without blocking for more.
+     * <p>
+     * This is the counterpart of <code>run</code> for <code>RCOs</code> that
+     * do not have a thread of their own.  The calling thread stands in as the
+     * <code>RCO</code>'s thread while the messages that have already arrived
+     * are handled.  If this <code>RCO</code> is asked to stop, fails, or runs
+     * out of input at the end of the stream, it is shut down just as if
+     * <code>run</code> had returned.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param endOfStreamI has the input from the client ended?
+     * @return has this <code>RCO</code> been shut down?
+     * @see #run()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Stop while the messages are held.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean serviceWaiting(boolean endOfStreamI) {
+	Thread current = Thread.currentThread();
+	String name = current.getName();
+	boolean stoppedR = true;
+
+	setThread(current);
+	try {
+	    boolean running = true;
+
+	    try {
+		getReadDoor().setIdentification(this + "_read");
+		getWriteDoor().setIdentification(this + "_write");
+
+		while (running &&
+		       !getTerminateRequested() &&
+		       !current.isInterrupted() &&
+		       !isHeld() &&
+		       isWaiting()) {
+		    Serializable message = receive(0L);
+		    if (message != null) {
+			running = handle(message);
+		    }
+		}
+
+		if (getTerminateRequested() ||
+		    stopMyself ||
+		    Thread.interrupted()) {
+		    throw new java.lang.InterruptedException();
+		} else if (running && endOfStreamI && !isWaiting()) {
+		    throw new java.io.EOFException();
+		}
+		stoppedR = !running;
+
+	    } catch (java.lang.Throwable e) {
+		logFailure(e);
+
+	    } finally {
+		ThreadWithLocks.clearLocks(current);
+	    }
+
+	    if (stoppedR) {
+		finish();
+	    }
+
+	} finally {
+	    setThread(null);
+	    current.setName(name);
+	    Thread.interrupted();
+	}
+
+	return (stoppedR);
+    }
+
     /**
      * Sets the build date.
      * <p>
@@ -2677,7 +3002,7 @@ abstract class RCO
      * @see #run()
      * @see #stop()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -2685,11 +3010,14 @@ abstract class RCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>ThreadWithLocks.newHandlerThread</code>.
+     * 10/18/2026  JRS	No longer final so that <code>NIORCO</code> can run
+     *			without a thread.
      * 11/14/2003  INB	Create a <code>ThreadWithLocks</code>.
      * 05/08/2001  INB	Created.
      *
      */
-    final synchronized void start()
+    synchronized void start()
 	throws com.rbnb.api.AddressException,
 	       com.rbnb.api.SerializeException,
 	       java.io.InterruptedIOException,
@@ -2697,7 +3025,7 @@ abstract class RCO
 	       java.lang.InterruptedException
     {
 	if (getThread() == null) {
-	    setThread(new ThreadWithLocks(this));
+	    setThread(ThreadWithLocks.newHandlerThread(this,null));
 	    getThread().start();
 	}
     }
@@ -2918,7 +3246,7 @@ abstract class RCO
      * @see #run()
      * @see #start()
      * @since V2.0
-     * @version 01/26/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -2926,6 +3254,8 @@ abstract class RCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait for <code>isAlive</code> to return false rather
+     *			than checking the thread directly.
      * 01/26/2004  INB	If there isn't a client handler, we aren't
      *			automatically stopping ourselves.  Use the new
      *			<code>wasClientHandler</code> field to check to see
@@ -2971,8 +3301,7 @@ abstract class RCO
 		for (long startAt = System.currentTimeMillis(),
 			 nowAt = System.currentTimeMillis();
 		     ((nowAt - startAt < TimerPeriod.SHUTDOWN) &&
-		      (getThread() != null) &&
-		      getThread().isAlive());
+		      isAlive());
 		     nowAt = System.currentTimeMillis()) {
 		    wait(TimerPeriod.NORMAL_WAIT);
 		}
@@ -38,6 +38,7 @@ package com.rbnb.api;
  * MM/DD/YYYY
  * ----------  --	-----------
  * 03/08/2001  INB	Created.
+ * 10/18/2026  JRS	Added <code>mapForRead</code>.
  *
  */
 class RandomAccessFile
@@ -237,6 +238,55 @@ class RandomAccessFile
 	super.close();
     }
 
+    /**
+     * Maps the file into memory for reading.
+     * <p>
+     * If the file is no larger than the specified limit, its current contents
+     * are mapped read-only and the <code>RandomAccessInputStream</code> serves
+     * subsequent reads from the mapped region.  Any write through the
+     * <code>RandomAccessOutputStream</code> drops the mapping again, so this
+     * should only be used on files that are not expected to change.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param maxSizeI the largest file, in bytes, that will be mapped.
+     * @return was the file mapped?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean mapForRead(long maxSizeI) {
+	boolean mappedR = false;
+
+	try {
+	    long size = length();
+
+	    if ((getRAIS() != null) &&
+		(size > 0) &&
+		(size <= Math.min(maxSizeI,Integer.MAX_VALUE))) {
+		getRAIS().setMapped
+		    (getChannel().map(java.nio.channels.FileChannel.MapMode.READ_ONLY,
+				      0,
+				      size));
+		mappedR = true;
+	    }
+	} catch (java.io.IOException e) {
+	    // If the map fails (for example, the address space is exhausted),
+	    // then we simply stay with regular reads.
+	}
+
+	return (mappedR);
+    }
+
     /**
      * Gets the <code>RandomAccessInputStream</code>.
      * <p>
@@ -39,6 +39,8 @@ package com.rbnb.api;
  * 03/09/2001  INB	Created.
  * 06/14/2006  EMF      Added buffering to minimize performance drag
  *                      from single byte reads, especially to OSX over Samba.
+ * 10/18/2026  JRS	Added optional memory-mapped read mode for sealed
+ *			archive files.
  *
  */
 class RandomAccessInputStream
@@ -109,6 +111,21 @@ class RandomAccessInputStream
      * @version 06/14/2006
      */
     private int bufLength = -1;
+
+    /**
+     * memory-mapped image of the file, if the file has been mapped.
+     * <p>
+     * When set, reads are served directly from the mapped region rather
+     * than by seeking and reading the <code>RandomAccessFile</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see com.rbnb.api.RandomAccessFile#mapForRead(long)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.nio.ByteBuffer mapped = null;
 
     /**
      * Class constructor to build a <code>RandomAccessInputStream</code> for a
@@ -188,11 +205,13 @@ class RandomAccessInputStream
      * MM/DD/YYYY
      * ----------  --	-----------
      * 03/09/2001  INB	Created.
+     * 10/18/2026  JRS	Drop any mapped region.
      *
      */
     public final void close()
 	throws java.io.IOException
     {
+	setMapped(null);
 	setRAF(null);
 	super.close();
     }
@@ -329,11 +348,24 @@ class RandomAccessInputStream
      * ----------  --	-----------
      * 03/09/2001  INB	Created.
      * 06/14/2006  EMF  Buffer reads to improve performance.
+     * 10/18/2026  JRS	Read from the mapped region when there is one.
      *
      */
     public final int read()
 	throws java.io.IOException
     {
+	java.nio.ByteBuffer lMapped = getMapped();
+	if (lMapped != null) {
+	    // The mapped region is a complete image of the file, so there is
+	    // no need to go to the file itself.
+	    if (getFilePointer() >= lMapped.limit()) {
+		return -1;
+	    }
+	    int idx = (int) getFilePointer();
+	    setFilePointer(getFilePointer() + 1);
+	    return (int) lMapped.get(idx);
+	}
+
 // System.err.println("MJM DEBUG: FilePointer: "+getFilePointer()+", getRAF.ptr: "+getRAF().getFilePointer());
 	// try saving some work by avoiding unecessary seeks MJM 6/13/06
 	// if(getFilePointer() != getRAF().getFilePointer())
@@ -417,11 +449,29 @@ class RandomAccessInputStream
      * ----------  --	-----------
      * 03/09/2001  INB	Created.
      * 06/14/2006  EMF  Buffer reads to improve performance.
+     * 10/18/2026  JRS	Read from the mapped region when there is one.
      *
      */
     public final int read(byte[] bI,int offI,int lenI)
 	throws java.io.IOException
     {
+	java.nio.ByteBuffer lMapped = getMapped();
+	if (lMapped != null) {
+	    // Copy straight out of the mapped region in a single bulk
+	    // operation.  Use a duplicate so that the position of the shared
+	    // buffer is never changed.
+	    long remaining = lMapped.limit() - getFilePointer();
+	    if (remaining <= 0) {
+		return ((lenI == 0) ? 0 : -1);
+	    }
+	    int num = (int) Math.min(lenI,remaining);
+	    java.nio.ByteBuffer view = lMapped.duplicate();
+	    view.position((int) getFilePointer());
+	    view.get(bI,offI,num);
+	    setFilePointer(getFilePointer() + num);
+	    return num;
+	}
+
 	//EMF 6/14/06
 	if ((getFilePointer()>=bufStart) && (getFilePointer()+lenI<bufStart+bufLength)) {
 		int idx = (int)(getFilePointer()-bufStart);
@@ -468,10 +518,65 @@ class RandomAccessInputStream
      * MM/DD/YYYY
      * ----------  --	-----------
      * 06/15/2006  EMF	Created.
+     * 10/18/2026  JRS	A write invalidates the mapped region.
      *
      */
     public final void clearCache() {
 	bufLength = -1;
+	setMapped(null);
+    }
+
+    /**
+     * Gets the memory-mapped image of the file.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the mapped region, or <code>null</code> if the file is being
+     *	       read through the <code>RandomAccessFile</code>.
+     * @see #setMapped(java.nio.ByteBuffer)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final java.nio.ByteBuffer getMapped() {
+	return (mapped);
+    }
+
+    /**
+     * Sets the memory-mapped image of the file.
+     * <p>
+     * The region must start at the beginning of the file.  Setting it to
+     * <code>null</code> reverts to reading through the
+     * <code>RandomAccessFile</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param mappedI the mapped region.
+     * @see #getMapped()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void setMapped(java.nio.ByteBuffer mappedI) {
+	mapped = mappedI;
     }
 
     /**
@@ -0,0 +1,739 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Concurrent implementation of the locking performed by a <code>Door</code>.
+ * <p>
+ * The original <code>Door</code> keeps its read locks in a single
+ * <code>SortedVector</code> and funnels every read lock through the primary
+ * <code>Lock</code>, so all readers of a <code>Door</code> contend for the
+ * same monitors.  This class keeps the same semantics:
+ * <p><ul>
+ * <li>read and write locks are reentrant,</li>
+ * <li>a thread holding a read lock may also take the write lock,</li>
+ * <li>waiting writers hold off new readers,</li>
+ * <li>locks are tracked by <code>ThreadWithLocks</code> so that they can be
+ *     cleared if the thread dies,</li>
+ * </ul><p>
+ * but readers only touch their own <code>Lock</code> and a
+ * <code>ConcurrentHashMap</code> entry on the uncontended path.  The
+ * <code>java.util.concurrent.locks.ReentrantLock</code> is only used when a
+ * thread actually has to wait.
+ * <p>
+ * A version number that is odd while the write lock is held allows callers
+ * to perform optimistic reads that are validated afterwards.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.Door
+ * @see com.rbnb.api.Lock
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Fence optimistic reads before validating them.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class ReadWriteGate {
+
+    /**
+     * the <code>Door</code> that this gate implements.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final Door door;
+
+    /**
+     * lock used when threads need to wait.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.locks.ReentrantLock gate =
+	new java.util.concurrent.locks.ReentrantLock();
+
+    /**
+     * signalled whenever a lock is released.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.locks.Condition released =
+	gate.newCondition();
+
+    /**
+     * the active read <code>Locks</code>, by thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.ConcurrentHashMap readers =
+	new java.util.concurrent.ConcurrentHashMap();
+
+    /**
+     * the write <code>Lock</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final Lock writeLock;
+
+    /**
+     * the thread holding the write lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private volatile Thread writer = null;
+
+    /**
+     * the number of write lock holds by the writer.
+     * <p>
+     * Only changed by the writer thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int writeCount = 0;
+
+    /**
+     * the number of threads waiting for the write lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private volatile int writersWaiting = 0;
+
+    /**
+     * the write version; odd while the write lock is held.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private volatile long version = 0;
+
+    /**
+     * the load fence used by <code>validate</code>.
+     * <p>
+     * Reading the volatile <code>version</code> keeps later reads from
+     * moving ahead of it, but does not keep the optimistic reads made before
+     * it from moving after it.  <code>VarHandle.acquireFence</code> does
+     * that.  It is looked up by reflection as the code is built for Java
+     * 1.7, and is <code>null</code> on runtimes older than Java 9.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #validate(long)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static java.lang.invoke.MethodHandle LOAD_FENCE =
+	findLoadFence();
+
+    /**
+     * Class constructor to build a <code>ReadWriteGate</code> for a
+     * <code>Door</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param doorI the <code>Door</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    ReadWriteGate(Door doorI) {
+	super();
+	door = doorI;
+	writeLock = new Lock(doorI);
+    }
+
+    /**
+     * Completely clears a <code>Lock</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param lockI the <code>Lock</code> to be released.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void clear(Lock lockI) {
+	if (lockI == writeLock) {
+	    gate.lock();
+	    try {
+		if (writer != null) {
+		    writer = null;
+		    writeCount = 0;
+		    ++version;
+		}
+		writeLock.clear();
+		released.signalAll();
+	    } finally {
+		gate.unlock();
+	    }
+
+	} else {
+	    java.util.Iterator it = readers.entrySet().iterator();
+	    while (it.hasNext()) {
+		java.util.Map.Entry entry = (java.util.Map.Entry) it.next();
+		if (entry.getValue() == lockI) {
+		    it.remove();
+		}
+	    }
+	    lockI.clear();
+	    signalIfWaiting();
+	}
+    }
+
+    /**
+     * Determines if the write lock is held.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return is the write lock held by a live thread?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean isLocked() {
+	Thread lWriter = writer;
+	return ((lWriter != null) && lWriter.isAlive());
+    }
+
+    /**
+     * Sets a read lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param locationI the location of the caller.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted (no lock is set).
+     * @see #unlockRead()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void lockRead(String locationI)
+	throws java.lang.InterruptedException
+    {
+	Thread me = Thread.currentThread();
+	Lock readLock = (Lock) readers.get(me);
+
+	if (readLock != null) {
+	    // Reentrant read: only our own <code>Lock</code> is touched.
+	    readLock.lock(locationI,true);
+	    return;
+	}
+
+	readLock = new Lock(door);
+	long lastAt = System.currentTimeMillis();
+	while (true) {
+	    Thread lWriter = writer;
+	    if ((lWriter == me) ||
+		((lWriter == null) && (writersWaiting == 0))) {
+		// Publish the read lock, then check that no writer got in
+		// ahead of us.  Writers publish themselves before checking
+		// for readers, so one side always sees the other.
+		readLock.lock(locationI,true);
+		readers.put(me,readLock);
+		lWriter = writer;
+		if ((lWriter == null) || (lWriter == me)) {
+		    return;
+		}
+		readers.remove(me);
+		readLock.unlock();
+		signalIfWaiting();
+	    }
+
+	    gate.lockInterruptibly();
+	    try {
+		while (((writer != null) && (writer != me)) ||
+		       ((writer == null) && (writersWaiting > 0))) {
+		    released.await(TimerPeriod.NORMAL_WAIT,
+				   java.util.concurrent.TimeUnit.MILLISECONDS);
+		    if ((writer != null) && !writer.isAlive()) {
+			// The writer died without releasing the lock.
+			writer = null;
+			writeCount = 0;
+			++version;
+			writeLock.clear();
+		    }
+		    long nowAt = System.currentTimeMillis();
+		    if (nowAt - lastAt >= TimerPeriod.LOCK_WAIT) {
+			try {
+			    throw new Exception
+				(nowAt + " " + door +
+				 " lockRead: blocked at " + locationI +
+				 " waiting for the write lock to clear for " +
+				 me);
+			} catch (Exception e) {
+			    e.printStackTrace();
+			    lastAt = nowAt;
+			}
+		    }
+		}
+	    } finally {
+		gate.unlock();
+	    }
+	}
+    }
+
+    /**
+     * Sets the write lock.
+     * <p>
+     * If the write lock cannot be obtained because other threads hold read
+     * locks for longer than <code>TimerPeriod.LOCK_WAIT</code>, the read
+     * locks are ignored, just as they are by the original <code>Door</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param locationI the location of the caller.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted (no lock is set).
+     * @see #unlockWrite()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Keep the version odd when taking over the lock of a
+     *			writer that died.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void lockWrite(String locationI)
+	throws java.lang.InterruptedException
+    {
+	Thread me = Thread.currentThread();
+
+	if (writer == me) {
+	    ++writeCount;
+	    writeLock.lock(locationI,true);
+	    return;
+	}
+
+	gate.lockInterruptibly();
+	boolean waiting = false;
+	try {
+	    ++writersWaiting;
+	    waiting = true;
+
+	    // Wait for any other writer to finish.
+	    long lastAt = System.currentTimeMillis();
+	    while ((writer != null) && writer.isAlive()) {
+		released.await(TimerPeriod.NORMAL_WAIT,
+			       java.util.concurrent.TimeUnit.MILLISECONDS);
+		long nowAt = System.currentTimeMillis();
+		if (nowAt - lastAt >= TimerPeriod.LOCK_WAIT) {
+		    try {
+			throw new Exception
+			    (nowAt + " " + door +
+			     " lockWrite: blocked at " + locationI +
+			     " waiting for the write lock to clear for " +
+			     me);
+		    } catch (Exception e) {
+			e.printStackTrace();
+			lastAt = nowAt;
+		    }
+		}
+	    }
+	    if (writer != null) {
+		// The previous writer died without releasing the lock.
+		writeLock.clear();
+	    }
+
+	    // Claim the write lock, then wait for the other readers to drain.
+	    // The version is already odd if a dead writer's lock was taken
+	    // over, so it is made odd rather than incremented.
+	    writer = me;
+	    writeCount = 1;
+	    version |= 1L;
+	    --writersWaiting;
+	    waiting = false;
+
+	    long startAt = System.currentTimeMillis();
+	    while (hasOtherReaders(me)) {
+		try {
+		    released.await(TimerPeriod.NORMAL_WAIT,
+				   java.util.concurrent.TimeUnit.MILLISECONDS);
+		} catch (java.lang.InterruptedException e) {
+		    writer = null;
+		    writeCount = 0;
+		    ++version;
+		    released.signalAll();
+		    throw e;
+		}
+		if (System.currentTimeMillis() - startAt >=
+		    TimerPeriod.LOCK_WAIT) {
+		    System.err.println
+			("lockWrite blocked, ignoring read locks and " +
+			 "moving on!");
+		    break;
+		}
+	    }
+	    writeLock.lock(locationI,true);
+
+	} finally {
+	    if (waiting) {
+		--writersWaiting;
+		released.signalAll();
+	    }
+	    gate.unlock();
+	}
+    }
+
+    /**
+     * Removes the current thread's read lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #lockRead(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void unlockRead() {
+	Thread me = Thread.currentThread();
+	Lock readLock = (Lock) readers.get(me);
+
+	if ((readLock != null) && readLock.unlock()) {
+	    readers.remove(me);
+	    signalIfWaiting();
+	}
+    }
+
+    /**
+     * Removes one hold of the write lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #lockWrite(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void unlockWrite() {
+	if (writer != Thread.currentThread()) {
+	    return;
+	}
+
+	writeLock.unlock();
+	if (--writeCount <= 0) {
+	    gate.lock();
+	    try {
+		writeCount = 0;
+		writer = null;
+		++version;
+		released.signalAll();
+	    } finally {
+		gate.unlock();
+	    }
+	}
+    }
+
+    /**
+     * Finds <code>VarHandle.acquireFence</code>, if the runtime has it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the fence or <code>null</code>.
+     * @see #LOAD_FENCE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static java.lang.invoke.MethodHandle findLoadFence() {
+	try {
+	    return (java.lang.invoke.MethodHandles.publicLookup().findStatic
+		    (Class.forName("java.lang.invoke.VarHandle"),
+		     "acquireFence",
+		     java.lang.invoke.MethodType.methodType(Void.TYPE)));
+	} catch (java.lang.Exception e) {
+	    return (null);
+	}
+    }
+
+    /**
+     * Returns a stamp for an optimistic read.
+     * <p>
+     * The stamp is zero if the write lock is currently held, in which case an
+     * optimistic read cannot succeed.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the stamp.
+     * @see #validate(long)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final long tryOptimisticRead() {
+	long lVersion = version;
+	return (((lVersion & 1L) == 0L) ? (lVersion + 2L) : 0L);
+    }
+
+    /**
+     * Determines whether anything has been written since a stamp was
+     * obtained.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param stampI the stamp from <code>tryOptimisticRead</code>.
+     * @return is the stamp still valid?
+     * @see #tryOptimisticRead()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Fence the optimistic reads before checking the
+     *			version.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean validate(long stampI) {
+	if (stampI == 0L) {
+	    return (false);
+	}
+	if (LOAD_FENCE != null) {
+	    try {
+		LOAD_FENCE.invokeExact();
+	    } catch (java.lang.Throwable e) {
+		throw new java.lang.InternalError(e.toString());
+	    }
+	}
+	return (version + 2L == stampI);
+    }
+
+    /**
+     * Are there live read locks held by threads other than the specified
+     * one?
+     * <p>
+     * Read locks belonging to threads that have died are discarded.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param meI the thread to ignore.
+     * @return are there other readers?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final boolean hasOtherReaders(Thread meI) {
+	boolean othersR = false;
+
+	java.util.Iterator it = readers.entrySet().iterator();
+	while (it.hasNext()) {
+	    java.util.Map.Entry entry = (java.util.Map.Entry) it.next();
+	    Thread thread = (Thread) entry.getKey();
+	    if (thread == meI) {
+		continue;
+	    } else if (!((Lock) entry.getValue()).check("",false,false)) {
+		it.remove();
+	    } else {
+		othersR = true;
+	    }
+	}
+
+	return (othersR);
+    }
+
+    /**
+     * Wakes up any threads waiting for the write lock.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void signalIfWaiting() {
+	if ((writersWaiting > 0) || (writer != null)) {
+	    gate.lock();
+	    try {
+		released.signalAll();
+	    } finally {
+		gate.unlock();
+	    }
+	}
+    }
+
+    /**
+     * Gets a string representation of this <code>ReadWriteGate</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the string representation.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final String toString() {
+	return ("Writer: " + writer +
+		" Write count: " + writeCount +
+		" Writers waiting: " + writersWaiting +
+		" Read Locks: " + readers.values());
+    }
+}
@@ -0,0 +1,295 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Version stamps for the registration of the children of an
+ * <code>RBNB</code> server.
+ * <p>
+ * The server keeps a single version number, which is bumped whenever the
+ * structure of the registration of one of its children changes: the child
+ * is added or removed, registers explicitly, gains channels, or has channels
+ * deleted.  Each child is stamped with the version of its last change, and
+ * removed children leave a stamp behind, so that a client that has seen the
+ * registration as of some version can ask for just the children that have
+ * changed since then (see <code>Ask.REGISTEREDSINCE</code>).
+ * <p>
+ * Only structural changes are tracked.  The time limits of the channels of a
+ * child change with every frame and do not bump the version.
+ * <p>
+ * Version numbers start at the time the server started in milliseconds
+ * times 1024, so a version handed out by an earlier run of the server is
+ * never mistaken for one handed out by this run.  Only the most recent
+ * <code>com.rbnb.api.RegistrationVersions.maxRemoved</code> (default 1024)
+ * removals are remembered; clients that are further behind than that get
+ * the complete registration.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.Ask#REGISTEREDSINCE
+ * @see com.rbnb.api.RBNB#getRegistrationVersions()
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class RegistrationVersions {
+
+    /**
+     * the maximum number of removed children remembered.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static int MAX_REMOVED =
+	Math.max(1,
+		 Integer.getInteger
+		 ("com.rbnb.api.RegistrationVersions.maxRemoved",
+		  1024).intValue());
+
+    /**
+     * the version of the last change to each child, by name.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Hashtable changed = new java.util.Hashtable();
+
+    /**
+     * the oldest version from which the removals are known.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long oldestKnown;
+
+    /**
+     * the version at which each child was removed, by name.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Hashtable removed = new java.util.Hashtable();
+
+    /**
+     * the current version.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private long version;
+
+    /**
+     * Class constructor.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    RegistrationVersions() {
+	super();
+	oldestKnown =
+	    version = System.currentTimeMillis()*1024L;
+    }
+
+    /**
+     * Notes that the registration of a child has changed.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI  the name of the child.
+     * @see #removed(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void changed(String nameI) {
+	if (nameI != null) {
+	    changed.put(nameI,new Long(++version));
+	    removed.remove(nameI);
+	}
+    }
+
+    /**
+     * Gets the names of the children that have changed or been removed since
+     * the specified version.
+     * <p>
+     * Callers that also need the current version should synchronize on this
+     * object around both calls.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param sinceI	the version the caller has already seen.
+     * @param changedO  filled in with the names of the changed children.
+     * @param removedO  filled in with the names of the removed children.
+     * @return can the changes be determined?  If not, the caller needs the
+     *	       complete registration.
+     * @see #getVersion()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized boolean getChanges(long sinceI,
+					  java.util.Vector changedO,
+					  java.util.Vector removedO)
+    {
+	if ((sinceI < oldestKnown) || (sinceI > version)) {
+	    return (false);
+	}
+
+	String name;
+	for (java.util.Enumeration names = changed.keys();
+	     names.hasMoreElements(); ) {
+	    name = (String) names.nextElement();
+	    if (((Long) changed.get(name)).longValue() > sinceI) {
+		changedO.addElement(name);
+	    }
+	}
+	for (java.util.Enumeration names = removed.keys();
+	     names.hasMoreElements(); ) {
+	    name = (String) names.nextElement();
+	    if (((Long) removed.get(name)).longValue() > sinceI) {
+		removedO.addElement(name);
+	    }
+	}
+
+	return (true);
+    }
+
+    /**
+     * Gets the current version.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the current version.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized long getVersion() {
+	return (version);
+    }
+
+    /**
+     * Notes that a child has been removed.
+     * <p>
+     * If too many removals are being remembered, the oldest is forgotten and
+     * clients that have not seen it get the complete registration.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI  the name of the child.
+     * @see #changed(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized void removed(String nameI) {
+	if ((nameI == null) || (changed.remove(nameI) == null)) {
+	    return;
+	}
+	removed.put(nameI,new Long(++version));
+
+	if (removed.size() > MAX_REMOVED) {
+	    String oldestName = null;
+	    long oldest = Long.MAX_VALUE,
+		at;
+	    for (java.util.Enumeration names = removed.keys();
+		 names.hasMoreElements(); ) {
+		String name = (String) names.nextElement();
+		if ((at = ((Long) removed.get(name)).longValue()) < oldest) {
+		    oldest = at;
+		    oldestName = name;
+		}
+	    }
+	    removed.remove(oldestName);
+	    oldestKnown = oldest;
+	}
+    }
+}
@@ -32,7 +32,7 @@ package com.rbnb.api;
  * @see com.rbnb.api.RemoteClient
  * @see com.rbnb.api.RemoteServer
  * @since V2.0
- * @version 08/05/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -42,6 +42,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	The handler thread may be a virtual thread; see
+ *			<code>ThreadWithLocks.newHandlerThread</code>.
  * 08/05/2004  INB	Updated documentation and added link to RemoteServer
  *			and StreamRemoteListener.
  * 02/16/2004  INB	Added handling of
@@ -554,7 +556,7 @@ final class RemoteClientHandler
      * @see #start()
      * @see #stop()
      * @since V2.0
-     * @version 02/16/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -562,6 +564,8 @@ final class RemoteClientHandler
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 02/16/2004  INB	Added handling of
      *			<code>DisconnectedClientException</code>.  This is a
      *			special one that means that the client of this handler
@@ -624,8 +628,9 @@ final class RemoteClientHandler
 		}
 
 		if (getThread() != null) {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RemoteClientHandler.run(1)",
 			 getLog(),
 			 getLogLevel(),
@@ -691,8 +696,9 @@ final class RemoteClientHandler
 	    }
 	    if (getThread() != null) {
 		try {
-		    ((ThreadWithLocks) getThread()).ensureLocksCleared
-			(getFullName(),
+		    ThreadWithLocks.ensureLocksCleared
+			(getThread(),
+			 getFullName(),
 			 "RemoteClientHandler.run(2)",
 			 getLog(),
 			 getLogLevel(),
@@ -893,7 +899,7 @@ final class RemoteClientHandler
      * @see #run()
      * @see #stop()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -901,6 +907,7 @@ final class RemoteClientHandler
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>ThreadWithLocks.newHandlerThread</code>.
      * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
      *			<code>Thread</code>.
      * 03/26/2003  INB	Use <code>TimerPeriod.NORMAL_WAIT</code>.
@@ -910,7 +917,7 @@ final class RemoteClientHandler
     final void start()
 	throws java.lang.InterruptedException
     {
-	setThread(new ThreadWithLocks(this,"_RCH." + getName()));
+	setThread(ThreadWithLocks.newHandlerThread(this,"_RCH." + getName()));
 	synchronized (this) {
 	    getThread().start();
 	    while (!started) {
@@ -28,7 +28,7 @@ package com.rbnb.api;
  *
  * @see com.rbnb.api.DataRequest
  * @since V2.2
- * @version 12/09/2003
+ * @version 10/18/2026
  */
 
 /*
@@ -38,6 +38,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>maxSamples</code> and
+ *			<code>decimation</code>.
  * 12/08/2003  INB	Added <code>extendStart</code> flag.
  * 06/11/2003  INB	Created.
  *
@@ -46,6 +48,55 @@ public class RequestOptions
     extends com.rbnb.api.Serializable
 {
 
+    /**
+     * decimate by returning the maximum of each interval.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #setDecimation(byte)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static byte DECIMATE_MAX = 2;
+
+    /**
+     * decimate by returning the mean of each interval.
+     * <p>
+     * This is the default.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #setDecimation(byte)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static byte DECIMATE_MEAN = 0;
+
+    /**
+     * decimate by returning the minimum of each interval.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #setDecimation(byte)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    public final static byte DECIMATE_MIN = 1;
+
+    /**
+     * the statistic returned for each interval of decimated data.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte decimation = DECIMATE_MEAN;
+
     /**
      * extend the start time of a request rather than move it?
      * <p>
@@ -61,6 +112,17 @@ public class RequestOptions
      */
     private boolean extendStart = false;
 
+    /**
+     * the maximum number of samples per channel wanted in the response.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int maxSamples = 0;
+
     /**
      * the maximum time to wait for the data to appear in a request for
      * "existing" data.
@@ -75,10 +137,14 @@ public class RequestOptions
 
     private final static int PAR_MWT = 0;
     private final static int PAR_EXS = 1;
+    private final static int PAR_MXS = 2;
+    private final static int PAR_DEC = 3;
 
     private final static String[] PARAMETERS = {
 			    "MWT",
-			    "EXS"
+			    "EXS",
+			    "MXS",
+			    "DEC"
 			};
 
     /**
@@ -155,7 +221,7 @@ public class RequestOptions
      *
      * @param roI the <code>RequestOptions</code> to copy.
      * @since V2.2
-     * @version 12/08/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -163,6 +229,8 @@ public class RequestOptions
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added <code>maxSamples</code> and
+     *			<code>decimation</code> handling.
      * 12/08/2003  INB	Added <code>extendStart</code> handling.
      * 06/11/2003  INB	Created.
      *
@@ -170,6 +238,32 @@ public class RequestOptions
     final void copy(RequestOptions roI) {
 	setExtendStart(roI.getExtendStart());
 	setMaxWait(roI.getMaxWait());
+	setMaxSamples(roI.getMaxSamples());
+	setDecimation(roI.getDecimation());
+    }
+
+    /**
+     * Gets the decimation statistic.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the statistic returned for each decimated interval.
+     * @see #setDecimation(byte)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final byte getDecimation() {
+	return (decimation);
     }
 
     /**
@@ -196,6 +290,30 @@ public class RequestOptions
 	return (extendStart);
     }
 
+    /**
+     * Gets the maximum number of samples per channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the maximum number of samples, or 0 for no limit.
+     * @see #setMaxSamples(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final int getMaxSamples() {
+	return (maxSamples);
+    }
+
     /**
      * Gets the maximum wait period.
      * <p>
@@ -246,7 +364,7 @@ public class RequestOptions
      *		  thrown if the read is interrupted.
      * @see #write(String[],int,com.rbnb.api.OutputStream,com.rbnb.api.DataOutputStream)
      * @since V2.2
-     * @version 12/08/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -254,6 +372,8 @@ public class RequestOptions
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added <code>maxSamples</code> and
+     *			<code>decimation</code> handling.
      * 12/08/2003  INB	Added <code>extendStart</code> handling.
      * 06/11/2003  INB	Created.
      *
@@ -279,10 +399,54 @@ public class RequestOptions
 	    case PAR_EXS:
 		setExtendStart(isI.readBoolean());
 		break;
+	    case PAR_MXS:
+		setMaxSamples(isI.readInt());
+		break;
+	    case PAR_DEC:
+		setDecimation(isI.readByte());
+		break;
 	    }
 	}
     }
 
+    /**
+     * Sets the decimation statistic.
+     * <p>
+     * When a request is answered from a decimation pyramid (see
+     * <code>setMaxSamples</code>), each returned sample summarizes an interval
+     * of the original data.  This selects which statistic of the interval is
+     * returned: <code>DECIMATE_MEAN</code>, <code>DECIMATE_MIN</code>, or
+     * <code>DECIMATE_MAX</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param decimationI  the statistic to return.
+     * @exception java.lang.IllegalArgumentException
+     *		  thrown if the statistic is not recognized.
+     * @see #getDecimation()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void setDecimation(byte decimationI) {
+	if ((decimationI != DECIMATE_MEAN) &&
+	    (decimationI != DECIMATE_MIN) &&
+	    (decimationI != DECIMATE_MAX)) {
+	    throw new java.lang.IllegalArgumentException
+		("Unrecognized decimation statistic " + decimationI + ".");
+	}
+	decimation = decimationI;
+    }
+
     /**
      * Sets the extend start flag.
      * <p>
@@ -314,6 +478,48 @@ public class RequestOptions
 	extendStart = extendStartI;
     }
 
+    /**
+     * Sets the maximum number of samples per channel.
+     * <p>
+     * This is a hint to the server.  If a channel in the request has a
+     * decimation pyramid (see <code>DecimationPyramid</code>) and the
+     * requested time range holds more than this number of samples, the server
+     * answers from the finest level of the pyramid that fits, without
+     * reading the raw data.  Each returned sample is stamped with the
+     * midpoint of the interval it summarizes.  Requests that name a channel
+     * without a pyramid, or that the raw data can satisfy, are answered
+     * normally.
+     * <p>
+     * A value of zero (0) means no limit.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param maxSamplesI  the maximum number of samples.
+     * @exception java.lang.IllegalArgumentException
+     *		  thrown if the value is negative.
+     * @see #getMaxSamples()
+     * @see #setDecimation(byte)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void setMaxSamples(int maxSamplesI) {
+	if (maxSamplesI < 0) {
+	    throw new java.lang.IllegalArgumentException
+		("The maximum number of samples cannot be negative.");
+	}
+	maxSamples = maxSamplesI;
+    }
+
     /**
      * Sets the maximum wait period.
      * <p>
@@ -358,7 +564,7 @@ public class RequestOptions
      *
      * @return the string representation.
      * @since V2.2
-     * @version 12/08/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -366,6 +572,8 @@ public class RequestOptions
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added <code>maxSamples</code> and
+     *			<code>decimation</code> handling.
      * 12/08/2003  INB	Added <code>extendStart</code> handling.
      * 06/11/2003  INB	Created.
      *
@@ -373,7 +581,9 @@ public class RequestOptions
     public final String toString() {
 	return ("RequestOptions:\n" +
 		"   Extend Start: " + getExtendStart() + "\n" +
-		"   Max Wait: " + getMaxWait() + " milliseconds.");
+		"   Max Wait: " + getMaxWait() + " milliseconds.\n" +
+		"   Max Samples: " + getMaxSamples() + "\n" +
+		"   Decimation: " + getDecimation());
     }
 
     /**
@@ -400,7 +610,7 @@ public class RequestOptions
      *		  thrown if the operation is interrupted.
      * @see #read(com.rbnb.api.InputStream,com.rbnb.api.DataInputStream)
      * @since V2.2
-     * @version 12/08/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -408,6 +618,8 @@ public class RequestOptions
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Added <code>maxSamples</code> and
+     *			<code>decimation</code> handling.
      * 12/08/2003  INB	Added <code>extendStart</code> handling.
      * 06/11/2003  INB	Created.
      *
@@ -440,6 +652,17 @@ public class RequestOptions
 		osI.writeBoolean(getExtendStart());
 	    }
 
+	    if ((getMaxSamples() != 0) &&
+		IsSupported.isSupported
+		(IsSupported.FEATURE_DECIMATION_PYRAMIDS,
+		 osI.getBuildVersion(),
+		 osI.getBuildDate())) {
+		osI.writeParameter(PARAMETERS,PAR_MXS);
+		osI.writeInt(getMaxSamples());
+		osI.writeParameter(PARAMETERS,PAR_DEC);
+		osI.writeByte(getDecimation());
+	    }
+
 	    Serialize.writeCloseBracket(osI);
 	}
     }
@@ -33,6 +33,21 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Let the <code>ArchiveWriter</code> take the locks held
+ *			while accepting a frame.
+ * 10/18/2026  JRS	Wait for the <code>ArchiveWriter</code> before accepting
+ *			frames when it is full and before closing, sealing, or
+ *			deleting the <code>Archive</code>.
+ * 10/18/2026  JRS	Maintain <code>DecimationPyramids</code>.
+ * 10/18/2026  JRS	Keep track of the channels stored in the
+ *			<code>RingBuffer</code>, so that new frames are only
+ *			posted to interested objects.
+ * 10/18/2026  JRS	Count accepted frames in the
+ *			<code>MetricsRegistry</code>.
+ * 10/18/2026  JRS	Wait for the frame state on a
+ *			<code>ReentrantLock</code> rather than the monitor so
+ *			that waiting virtual threads do not pin their carrier
+ *			threads.
  * 10/11/2006  EMF      Added cache/archive looping by time instead of frame.
  * 10/03/2005  JPW	Change <code>addChild</code>: Rather than just
  *			returning, throw IllegalStateException if the start
@@ -167,6 +182,17 @@ final class RingBuffer
      */
     private Cache cache = null;
 
+    /**
+     * the names of the channels stored in this <code>RingBuffer</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Hashtable channelNames = new java.util.Hashtable();
+
     /**
      * cleanup an error that occured in this <code>RingBuffer</code>?
      * <p>
@@ -243,6 +269,29 @@ final class RingBuffer
      */
     private long idIndex;
 
+    /**
+     * the count of frames accepted, in the <code>MetricsRegistry</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private MetricsRegistry.Counter ingestFrames = null;
+
+    /**
+     * the label of <code>ingestFrames</code> in the
+     * <code>MetricsRegistry</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private String ingestLabel = null;
+
     /**
      * the last frame time summary.
      * <p>
@@ -287,6 +336,17 @@ final class RingBuffer
      */
     private String[] myNames = null;
 
+    /**
+     * the <code>DecimationPyramids</code> of the channels, by name.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private java.util.Hashtable pyramids = new java.util.Hashtable();
+
     /**
      * the registration map.
      * <p>
@@ -309,6 +369,34 @@ final class RingBuffer
      */
     private Door registrationDoor = null;
 
+    /**
+     * protects the frame state (<code>frame</code>,
+     * <code>acceptingAFrame</code>, <code>addingAFrame</code>, and
+     * <code>terminateRequested</code>) while waiting for it to change.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #getStateChanged()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.locks.ReentrantLock stateLock =
+	new java.util.concurrent.locks.ReentrantLock();
+
+    /**
+     * signalled when the frame state changes.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #getStateLock()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.locks.Condition stateChanged =
+	stateLock.newCondition();
+
     /**
      * stop this <code>RingBuffer</code>?
      * <p>
@@ -420,10 +508,17 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
     /**
      * Accepts a new frame <code>Rmap</code>.
      * <p>
+     * A frame added on its own waits for room in the
+     * <code>ArchiveWriter</code> before it is stored and is handled once it
+     * has been stored.  For a frame added as part of a batch, the caller
+     * does both for the batch as a whole, outside of its own locks.
+     * <p>
      *
      * @author Ian Brown
      *
      * @param frameI the frame to process.
+     * @param aloneI is the frame being added on its own?
+     * @return was the frame stored?
      * @exception com.rbnb.api.AddressException
      *		  thrown if there is a problem with an address.
      * @exception com.rbnb.api.SerializeException
@@ -438,7 +533,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.1
-     * @version 04/13/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -446,6 +541,11 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Leave waiting for room and handling the frame to the
+     *			caller for frames added as part of a batch.
+     * 10/18/2026  JRS	Wait for room in the <code>ArchiveWriter</code>.
+     * 10/18/2026  JRS	Update the <code>DecimationPyramids</code>.
+     * 10/18/2026  JRS	Count the frame in the <code>MetricsRegistry</code>.
      * 04/13/2004  INB	Changed <code>addChild/acceptFame</code> to run in a
      *			single thread to eliminate potential deadlock issues.
      * 11/17/2003  INB	Use <code>try/finally</code> to ensure that we don't
@@ -457,7 +557,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      *			method.
      *
      */
-    final void acceptFrame(Rmap frameI)
+    final boolean acceptFrame(Rmap frameI,boolean aloneI)
 	throws com.rbnb.api.AddressException,
 	       com.rbnb.api.SerializeException,
 	       java.io.EOFException,
@@ -467,6 +567,12 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 	SourceHandler sh = (SourceHandler) getParent();
 	boolean addedFrame = false;
 
+	// If the <code>Archive</code> is being written behind, wait for its
+	// writer to have room before adding more to the <code>Cache</code>.
+	if (aloneI) {
+	    waitForArchiveRoom();
+	}
+
 	// Look for a frame to process.
 	try {
 	    setAcceptingAFrame(true);
@@ -484,6 +590,13 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 
 		    // Add the frame to the <code>Cache</code>.
 		    getCache().addElement(frameI);
+		    if (ingestFrames == null) {
+			ingestLabel = getFullName();
+			ingestFrames = MetricsRegistry.getDefault().counter
+			    (MetricsRegistry.INGEST_FRAMES,ingestLabel);
+		    }
+		    ingestFrames.increment();
+		    updatePyramids(frameI);
 
 		} finally {
 		    if (registrationDoor != null) {
@@ -491,7 +604,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 			((RBO) sh).unlockWrite();
 		    } else {
 			((RBO) sh).unlockWrite();
-			return;
+			return (false);
 		    }
 		}
 
@@ -504,10 +617,12 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 	    setAcceptingAFrame(false);
 
 	    // Do any specialized handling of the frame.
-	    if (addedFrame) {
+	    if (addedFrame && aloneI) {
 		handleNewFrame(frameI);
 	    }
 	}
+
+	return (addedFrame);
     }
 
     /**
@@ -536,9 +651,9 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      *		  previous frame
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
-     * @see #acceptFrame(com.rbnb.api.Rmap frameI)
+     * @see #addFrame(com.rbnb.api.Rmap,boolean)
      * @since V2.1
-     * @version 10/03/2005
+     * @version 10/18/2026
      */
 
     /*
@@ -546,6 +661,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Moved the handling of frames to <code>addFrame</code>.
      * 10/03/2005  JPW	Rather than just returning, throw IllegalStateException
      *			if the start time of the current frame is before the
      *			end time of the previous frame.
@@ -581,67 +697,122 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 	    super.addChild(childI);
 
 	} else {
-	    try {
-		setAddingAFrame(true);
-		if (getFull()) {
-		    throw new java.io.IOException
-			("Cannot add frame " + childI + " to " + getName() +
-			 ", the ring buffer is full.");
-		}
+	    addFrame(childI,true);
+	}
+    }
 
-		SourceHandler sh = (SourceHandler) getParent();
-		if (!(sh instanceof NBO) && !(sh instanceof Log)) {
-		    Rmap summary = childI.summarize();
-		    double endOfLast =
-			(lastFrameSummary == null) ?
-			Double.NEGATIVE_INFINITY :
-			(lastFrameSummary.getTrange().getTime() +
-			 lastFrameSummary.getTrange().getDuration());
-		    // JPW 10/13/2004: Allow backward going time for the
-		    //                 special case that there's no archive
-		    //                 and the number of cache frames = 1
-		    if (((sh.getCframes() > 1) || (sh.getAframes() > 0)) &&
-			(lastFrameSummary != null) &&
-			(summary.getTrange() != null) &&
-			(endOfLast > summary.getTrange().getTime())) {
-			if (endOfLast - (endOfLast*1e-14) >
-			    summary.getTrange().getTime()) {
-			    setAddingAFrame(false);
-			    // JPW 09/30/2005: Don't print out the Rmaps
-			    //                 in this message
-			    sh.getLog().addMessage
-				(sh.getLogLevel(),
-				 sh.getLogClass(),
-				 sh.getName(),
-				 // "Cannot add frame to " + sh.getName() +
-				 //     ", it starts before the end of the " +
-				 //     "previous frame.\n" + childI + "\n" +
-				 //     lastFrameSummary);
-				 "Cannot add frame to " + sh.getName() +
-				     ", it starts before the end of the " +
-				     "previous frame.\n" +
-				     "\tEnd of previous frame: " +
-				     endOfLast +
-				     "\tStart of new frame: " +
-				     summary.getTrange().getTime());
-			    // JPW 09/30/2005: Throw an exception (rather than
-			    //                 just return) if time is going
-			    //                 backward.
-			    // return;
-			    throw new java.lang.IllegalStateException(
-			        "Backward going time");
-			}
+    /**
+     * Adds a frame <code>Rmap</code>.
+     * <p>
+     * The frame is checked against the end of the previous frame before it
+     * is accepted.
+     * <p>
+     *
+     * @author Ian Brown
+     *
+     * @param frameI the frame.
+     * @param aloneI is the frame being added on its own?
+     * @return was the frame stored?
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.IllegalArgumentException
+     *		  thrown if the input <code>Rmap</code> is already a child of
+     *		  another <code>Rmap</code> or if the input is null.
+     * @exception java.lang.IllegalStateException
+     *		  thrown if start time of current frame is before end time of
+     *		  previous frame
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #acceptFrame(com.rbnb.api.Rmap,boolean)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from <code>addChild</code>.
+     *
+     */
+    final boolean addFrame(Rmap frameI,boolean aloneI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.IllegalStateException,
+	       java.lang.InterruptedException
+    {
+	if (cleanupError || fatalError) {
+	    return (false);
+	}
+
+	try {
+	    setAddingAFrame(true);
+	    if (getFull()) {
+		throw new java.io.IOException
+		    ("Cannot add frame " + frameI + " to " + getName() +
+		     ", the ring buffer is full.");
+	    }
+
+	    SourceHandler sh = (SourceHandler) getParent();
+	    if (!(sh instanceof NBO) && !(sh instanceof Log)) {
+		Rmap summary = frameI.summarize();
+		double endOfLast =
+		    (lastFrameSummary == null) ?
+		    Double.NEGATIVE_INFINITY :
+		    (lastFrameSummary.getTrange().getTime() +
+		     lastFrameSummary.getTrange().getDuration());
+		// JPW 10/13/2004: Allow backward going time for the
+		//                 special case that there's no archive
+		//                 and the number of cache frames = 1
+		if (((sh.getCframes() > 1) || (sh.getAframes() > 0)) &&
+		    (lastFrameSummary != null) &&
+		    (summary.getTrange() != null) &&
+		    (endOfLast > summary.getTrange().getTime())) {
+		    if (endOfLast - (endOfLast*1e-14) >
+			summary.getTrange().getTime()) {
+			setAddingAFrame(false);
+			// JPW 09/30/2005: Don't print out the Rmaps
+			//                 in this message
+			sh.getLog().addMessage
+			    (sh.getLogLevel(),
+			     sh.getLogClass(),
+			     sh.getName(),
+			     // "Cannot add frame to " + sh.getName() +
+			     //     ", it starts before the end of the " +
+			     //     "previous frame.\n" + frameI + "\n" +
+			     //     lastFrameSummary);
+			     "Cannot add frame to " + sh.getName() +
+				 ", it starts before the end of the " +
+				 "previous frame.\n" +
+				 "\tEnd of previous frame: " +
+				 endOfLast +
+				 "\tStart of new frame: " +
+				 summary.getTrange().getTime());
+			// JPW 09/30/2005: Throw an exception (rather than
+			//                 just return) if time is going
+			//                 backward.
+			// return;
+			throw new java.lang.IllegalStateException(
+			    "Backward going time");
 		    }
-		    lastFrameSummary = summary;
 		}
+		lastFrameSummary = summary;
+	    }
 
-		// Add the frame.
-		// picked up.
-		acceptFrame(childI);
+	    // Add the frame.
+	    return (acceptFrame(frameI,aloneI));
 
-	    } finally {
-		setAddingAFrame(false);
-	    }
+	} finally {
+	    setAddingAFrame(false);
 	}
     }
 
@@ -732,7 +903,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.2
-     * @version 01/12/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -740,6 +911,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait on <code>stateChanged</code>.
      * 01/08/2004  INB	Created.
      *
      */
@@ -753,11 +925,13 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 	try {
 	    long startAt = System.currentTimeMillis();
 	    long now;
-	    synchronized (this) {
+	    stateLock.lock();
+	    try {
 		while ((getFrame() != null) ||
 		       getAcceptingAFrame() ||
 		       getAddingAFrame()) {
-		    wait(TimerPeriod.NORMAL_WAIT);
+		    stateChanged.await(TimerPeriod.NORMAL_WAIT,
+				       java.util.concurrent.TimeUnit.MILLISECONDS);
 
 		    if (((now = System.currentTimeMillis()) - startAt) >=
 			TimerPeriod.LOCK_WAIT) {
@@ -777,6 +951,8 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 			}
 		    }
 		}
+	    } finally {
+		stateLock.unlock();
 	    }
 
 	    registrationDoor.lock("RingBuffer.clearCache");
@@ -867,7 +1043,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.2
-     * @version 11/12/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -875,6 +1051,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait for the <code>ArchiveWriter</code>.
      * 07/30/2003  INB	Created.
      *
      */
@@ -884,6 +1061,8 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 	       java.io.IOException,
 	       java.lang.InterruptedException
     {
+	ArchiveWriter.awaitWritten(getArchive());
+
 	try {
 	    registrationDoor.lock("RingBuffer.destroy");
 
@@ -914,7 +1093,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.2
-     * @version 01/09/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -922,6 +1101,8 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait for the <code>ArchiveWriter</code> to write the
+     *			flushed sets before closing the <code>Archive</code>.
      * 01/09/2004  INB	Created.
      *
      */
@@ -936,6 +1117,7 @@ System.err.println("cacheflush="+cacheflush+", cachetrim="+cachetrim+", archivef
 	}
 //EMF 11/16/06: close FileSet as well
 if (getArchive() != null) {
+ArchiveWriter.awaitWritten(getArchive());
 getArchive().close();
 }
     }
@@ -1238,6 +1420,31 @@ getArchive().close();
 	return (logR);
     }
 
+    /**
+     * Gets the <code>DecimationPyramid</code> of a channel.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param nameI  the name of the channel.
+     * @return the <code>DecimationPyramid</code> or <code>null</code> if
+     *	       the channel doesn't have one.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final DecimationPyramid getPyramid(String nameI) {
+	return ((DecimationPyramid) pyramids.get(nameI));
+    }
+
     /**
      * Gets the <code>Registration</code> map.
      * <p>
@@ -1275,6 +1482,123 @@ getArchive().close();
 	return (fatalError ? null : registered);
     }
 
+    /**
+     * Gets the <code>Condition</code> signalled when the frame state
+     * changes.
+     * <p>
+     * Wait on it while holding the <code>stateLock</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the <code>Condition</code>.
+     * @see #getStateLock()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final java.util.concurrent.locks.Condition getStateChanged() {
+	return (stateChanged);
+    }
+
+    /**
+     * Gets the lock protecting the frame state.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the lock.
+     * @see #getStateChanged()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final java.util.concurrent.locks.ReentrantLock getStateLock() {
+	return (stateLock);
+    }
+
+    /**
+     * Adds channel names to the list stored in this <code>RingBuffer</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param namesI  the channel names.
+     * @return were any of the names new?
+     * @see #getChannelNames()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized boolean addChannelNames(String[] namesI) {
+	boolean added = false;
+
+	for (int idx = 0; idx < namesI.length; ++idx) {
+	    if (channelNames.put(namesI[idx],namesI[idx]) == null) {
+		added = true;
+	    }
+	}
+
+	return (added);
+    }
+
+    /**
+     * Gets the names of the channels stored in this <code>RingBuffer</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the channel names.
+     * @see #addChannelNames(String[])
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final synchronized String[] getChannelNames() {
+	String[] namesR = new String[channelNames.size()];
+	int idx = 0;
+
+	for (java.util.Enumeration names = channelNames.keys();
+	     names.hasMoreElements();
+	     ++idx) {
+	    namesR[idx] = (String) names.nextElement();
+	}
+
+	return (namesR);
+    }
+
     /**
      * Gets the terminate requested flag.
      * <p>
@@ -1315,7 +1639,7 @@ getArchive().close();
      * @exception java.lang.InterruptedException
      *		  thrown if the display operation is interrupted.
      * @since V2.0
-     * @version 03/18/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1323,6 +1647,8 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Pass this <code>RingBuffer</code> to the
+     *			<code>RBO</code>.
      * 02/27/2003  INB	Created from the corresponding <code>RBO</code> method.
      *
      */
@@ -1334,7 +1660,7 @@ getArchive().close();
 	// <code>RBO</code>. Eventually, we may want to allow individual
 	// <code>RingBuffers</code> to be watched, which will improve
 	// performance.
-	((RBO) getParent()).handleNewFrame(theFrameI);
+	((RBO) getParent()).handleNewFrame(this,theFrameI);
 
 	/*
 	// Notify people of the arrival.
@@ -1493,7 +1819,7 @@ getArchive().close();
      *		  thrown if the operation is interrupted.
      * @see com.rbnb.api.Rmap#getChildAt(int)
      * @since V2.1
-     * @version 03/26/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1501,6 +1827,7 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait on <code>stateChanged</code>.
      * 03/26/2003  INB	Use <code>TimerPeriod.NORMAL_WAIT</code>.
      * 02/17/2003  INB	Created from the corresponding <code>RBO</code> method.
      *
@@ -1520,11 +1847,13 @@ getArchive().close();
 	RCO rco = sh.getRCO();
 	long startAt = System.currentTimeMillis();
 	long now;
-	synchronized (this) {
+	stateLock.lock();
+	try {
 	    while ((getFrame() != null) ||
 		   getAcceptingAFrame() ||
 		   getAddingAFrame()) {
-		wait(TimerPeriod.NORMAL_WAIT);
+		stateChanged.await(TimerPeriod.NORMAL_WAIT,
+				   java.util.concurrent.TimeUnit.MILLISECONDS);
 
 		if (((now = System.currentTimeMillis()) - startAt) >=
 		    TimerPeriod.LOCK_WAIT) {
@@ -1544,6 +1873,8 @@ getArchive().close();
 		    }
 		}
 	    }
+	} finally {
+	    stateLock.unlock();
 	}
 
 	// Determine which <code>FrameSet</code> the child is in.
@@ -1568,6 +1899,55 @@ getArchive().close();
 	return (childR);
     }
 
+    /**
+     * Takes the locks held while a frame is accepted: the write lock of
+     * the <code>RBO</code> and the registration lock of this
+     * <code>RingBuffer</code>.
+     * <p>
+     * The <code>ArchiveWriter</code> takes these to write a
+     * <code>FrameSet</code> behind, just as the thread accepting the frame
+     * that closed it would have held them to write it inline.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param locationI the location of the caller.
+     * @return were the locks taken?  They are not if this
+     *	       <code>RingBuffer</code> has been removed.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @see #acceptFrame(com.rbnb.api.Rmap,boolean)
+     * @see #unlockAccept()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean lockAccept(String locationI)
+	throws java.lang.InterruptedException
+    {
+	RBO rbo = (RBO) getParent();
+	if (rbo == null) {
+	    return (false);
+	}
+
+	rbo.lockWrite(locationI);
+	if (registrationDoor == null) {
+	    rbo.unlockWrite();
+	    return (false);
+	}
+	registrationDoor.lock(locationI);
+
+	return (true);
+    }
+
     /**
      * Locks this <code>RingBuffer</code> hierarchy for read access.
      * <p>
@@ -1817,7 +2197,7 @@ getArchive().close();
      *		  source <code>Rmap</code> hierarchy or in extracting the
      *		  desired information.
      * @since V2.0
-     * @version 02/03/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1825,6 +2205,7 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait on <code>stateChanged</code>.
      * 02/03/2004  INB	Throw <code>IllegalMonitorStateException> if our parent
      *			shuts down while we're unlocked.
      * 12/22/2003  INB	If our parent shuts down while we're unlocked, then
@@ -1869,12 +2250,14 @@ getArchive().close();
 
 	    long startAt = System.currentTimeMillis();
 	    long now;
-	    synchronized (this) {
+	    stateLock.lock();
+	    try {
 		while (!getTerminateRequested() &&
 		       ((getFrame() != null) ||
 			getAcceptingAFrame() ||
 			getAddingAFrame())) {
-		    wait(TimerPeriod.NORMAL_WAIT);
+		    stateChanged.await(TimerPeriod.NORMAL_WAIT,
+				       java.util.concurrent.TimeUnit.MILLISECONDS);
 
 		    if (((now = System.currentTimeMillis()) - startAt) >=
 			TimerPeriod.LOCK_WAIT) {
@@ -1894,6 +2277,8 @@ getArchive().close();
 			}
 		    }
 		}
+	    } finally {
+		stateLock.unlock();
 	    }
 
 	} catch (Exception e) {
@@ -2049,7 +2434,7 @@ getArchive().close();
      * @author Ian Brown
      *
      * @since V2.2
-     * @version 07/30/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -2057,12 +2442,21 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Remove the ingest counter from the
+     *			<code>MetricsRegistry</code>.
      * 07/30/2003  INB	Created.
      *
      */
     public final void nullify() {
 	super.nullify();
 
+	if (ingestLabel != null) {
+	    MetricsRegistry.getDefault().remove(MetricsRegistry.INGEST_FRAMES,
+						ingestLabel);
+	    ingestFrames = null;
+	    ingestLabel = null;
+	}
+
 	try {
 	    if (getArchive() != null) {
 		getArchive().nullify();
@@ -2168,7 +2562,7 @@ getArchive().close();
      *		  thrown if the operation is interrupted.
      * @see #writeToArchive()
      * @since V2.0
-     * @version 11/12/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -2176,6 +2570,7 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Read the <code>DecimationPyramids</code>.
      * 11/12/2003  INB	Added location to the locks.
      * 02/18/2003  INB	Created from the corresponding <code>Archive</code>
      *			method.
@@ -2193,6 +2588,7 @@ getArchive().close();
 	}
 
 	getArchive().readFromArchive();
+	readPyramids();
 
 	try {
 	    registrationDoor.lock("RingBuffer.readFromArchive");
@@ -2206,6 +2602,60 @@ getArchive().close();
 	}
     }
 
+    /**
+     * Reads the <code>DecimationPyramids</code> saved in the archive.
+     * <p>
+     * A missing or damaged file simply leaves the pyramids to be rebuilt
+     * from new data.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #writePyramids()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void readPyramids() {
+	java.io.File file = new java.io.File
+	    (getArchiveDirectory() + Archive.SEPARATOR + "pyramid.rbn");
+	if (!file.exists()) {
+	    return;
+	}
+
+	java.io.DataInputStream dis = null;
+	try {
+	    dis = new java.io.DataInputStream
+		(new java.io.BufferedInputStream
+		 (new java.io.FileInputStream(file)));
+	    java.util.Hashtable read = new java.util.Hashtable();
+	    for (int idx = 0, nPyramids = dis.readInt();
+		 idx < nPyramids;
+		 ++idx) {
+		DecimationPyramid pyramid = DecimationPyramid.read(dis);
+		read.put(pyramid.getName(),pyramid);
+	    }
+	    pyramids = read;
+	} catch (java.io.IOException e) {
+	    pyramids = new java.util.Hashtable();
+	} finally {
+	    if (dis != null) {
+		try {
+		    dis.close();
+		} catch (java.io.IOException e) {
+		}
+	    }
+	}
+    }
+
     /**
      * Rebuild an invalid <code>Archive</code> from the last good sequence of
      * <code>Archive</code> <code>FileSets</code>.
@@ -2483,7 +2933,7 @@ getArchive().close();
      *		  thrown if this operation is interrupted.
      * @see #getAcceptingAFrame()
      * @since V2.1
-     * @version 03/27/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -2491,15 +2941,21 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Signal <code>stateChanged</code>.
      * 02/17/2003  INB	Created from the corresponding <code>RBO</code> method.
      *
      */
-    final synchronized void setAcceptingAFrame(boolean acceptingAFrameI)
+    final void setAcceptingAFrame(boolean acceptingAFrameI)
 	throws java.lang.InterruptedException
     {
-	acceptingAFrame = acceptingAFrameI;
-	if (!acceptingAFrame) {
-	    notifyAll();
+	stateLock.lock();
+	try {
+	    acceptingAFrame = acceptingAFrameI;
+	    if (!acceptingAFrame) {
+		stateChanged.signalAll();
+	    }
+	} finally {
+	    stateLock.unlock();
 	}
     }
 
@@ -2857,7 +3313,7 @@ getArchive().close();
      * @param stopI  stop this <code>RBNBClient</code>?
      * @see #getTerminateRequested()
      * @since V2.1
-     * @version 02/19/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -2865,13 +3321,19 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Signal <code>stateChanged</code>.
      * 02/19/2003  INB	Created from the corresponding <code>RBNBClient</code>
      *			method.
      *
      */
-    final synchronized void setTerminateRequested(boolean stopI) {
-	terminateRequested = stopI;
-	notifyAll();
+    final void setTerminateRequested(boolean stopI) {
+	stateLock.lock();
+	try {
+	    terminateRequested = stopI;
+	    stateChanged.signalAll();
+	} finally {
+	    stateLock.unlock();
+	}
     }
 
     /**
@@ -3079,7 +3541,7 @@ getArchive().close();
      *		  thrown if the stop is interrupted.
      * @see #start()
      * @since V2.1
-     * @version 04/30/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -3087,6 +3549,7 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait on <code>stateChanged</code>.
      * 04/30/2003  INB	Cleanup on errors, just don't bother with frames.
      * 03/26/2003  INB	Use <code>TimerPeriod.NORMAL_WAIT</code>.
      * 02/17/2003  INB	Created from the corresponding <code>RBNBClient</code>
@@ -3099,18 +3562,22 @@ getArchive().close();
 	setTerminateRequested(true);
 
 	if (!cleanupError && !fatalError) {
-	    synchronized (this) {
+	    stateLock.lock();
+	    try {
 		long startAt = System.currentTimeMillis(),
 		    endAt;
 		while ((frame != null) &&
 		       ((endAt = System.currentTimeMillis()) <
 			startAt + TimerPeriod.SHUTDOWN)) {
 		    try {
-			wait(TimerPeriod.NORMAL_WAIT);
+			stateChanged.await(TimerPeriod.NORMAL_WAIT,
+					   java.util.concurrent.TimeUnit.MILLISECONDS);
 		    } catch (java.lang.InterruptedException e) {
 			break;
 		    }
 		}
+	    } finally {
+		stateLock.unlock();
 	    }
 	}
 
@@ -3181,6 +3648,34 @@ getArchive().close();
 	}
     }
 
+    /**
+     * Releases the locks taken by <code>lockAccept</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @see #lockAccept(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void unlockAccept()
+	throws java.lang.InterruptedException
+    {
+	registrationDoor.unlock();
+	((RBO) getParent()).unlockWrite();
+    }
+
     /**
      * Unlocks this <code>Ring Buffer</code> hierarchy for read access.
      * <p>
@@ -3207,6 +3702,76 @@ getArchive().close();
 	registrationDoor.unlockRead();
     }
 
+    /**
+     * Adds the data of a frame to the <code>DecimationPyramids</code> of its
+     * channels.
+     * <p>
+     * Pyramids are created for the configured channels the first time they
+     * appear with numeric data.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param frameI  the frame.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.DecimationPyramid#isEnabled(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void updatePyramids(Rmap frameI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (!DecimationPyramid.isConfigured() ||
+	    (getParent() instanceof NBO) ||
+	    (getParent() instanceof Log)) {
+	    return;
+	}
+
+	String[] names = frameI.extractNames();
+	for (int idx = 0; idx < names.length; ++idx) {
+	    if (!DecimationPyramid.isEnabled(names[idx])) {
+		continue;
+	    }
+	    DataArray array = frameI.extract(names[idx]);
+	    if ((array.getData() == null) || (array.getTime() == null)) {
+		continue;
+	    }
+
+	    DecimationPyramid pyramid =
+		(DecimationPyramid) pyramids.get(names[idx]);
+	    if (pyramid == null) {
+		pyramid = new DecimationPyramid(names[idx]);
+		if (pyramid.add(array.getTime(),array.getData())) {
+		    pyramids.put(names[idx],pyramid);
+		}
+	    } else {
+		pyramid.add(array.getTime(),array.getData());
+	    }
+	}
+    }
+
     /**
      * Updates the <code>Rregistration</code> for the <code>Ring Buffer</code>.
      * <p>
@@ -3422,6 +3987,44 @@ getArchive().close();
 	return (rbSealR);
     }
 
+    /**
+     * Waits for room in the <code>ArchiveWriter</code> of the
+     * <code>Archive</code>, if it is being written behind.
+     * <p>
+     * This must be called without holding the locks that the writer needs.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.io.IOException
+     *		  thrown if the <code>Archive</code> could not be written.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the wait is interrupted.
+     * @see com.rbnb.api.ArchiveWriter#waitForRoom(com.rbnb.api.Archive)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Pass on only failures to write this
+     *			<code>Archive</code>.
+     * 10/18/2026  JRS	Pass on the failure of the writer.
+     * 10/18/2026  JRS	Created from <code>acceptFrame</code>.
+     *
+     */
+    final void waitForArchiveRoom()
+	throws java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if ((ArchiveWriter.QUEUE > 0) && (getArchive() != null)) {
+	    ArchiveWriter.forArchive(getArchive()).waitForRoom(getArchive());
+	}
+    }
+
     /**
      * Writes the <code>RingBuffer</code> to the archive files.
      * <p>
@@ -3440,7 +4043,7 @@ getArchive().close();
      *		  thrown if the operation is interrupted.
      * @see #readFromArchive()
      * @since V2.1
-     * @version 11/12/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -3448,6 +4051,8 @@ getArchive().close();
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait for the <code>ArchiveWriter</code> before sealing.
+     * 10/18/2026  JRS	Write the <code>DecimationPyramids</code>.
      * 11/12/2003  INB	Added location to the locks.
      * 04/24/2003  INB	Ensure that the registration is up-to-date.
      * 02/18/2003  INB	Created.
@@ -3464,10 +4069,14 @@ getArchive().close();
 	    return;
 	}
 
+	// Only seal what has actually been written.
+	ArchiveWriter.awaitWritten(getArchive());
+
 	try {
 	    registrationDoor.lock("RingBuffer.writeToArchive");
 	    if (getArchive() != null) {
 		getArchive().writeToArchive();
+		writePyramids();
 		hasChanged = true;
 		updateRegistration();
 	    }
@@ -3476,4 +4085,53 @@ getArchive().close();
 	    registrationDoor.unlock();
 	}
     }
+
+    /**
+     * Writes the <code>DecimationPyramids</code> to the archive.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @see #readPyramids()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void writePyramids()
+	throws java.io.IOException
+    {
+	java.io.File file = new java.io.File
+	    (getArchiveDirectory() + Archive.SEPARATOR + "pyramid.rbn");
+	java.util.Vector toWrite = new java.util.Vector();
+	for (java.util.Enumeration values = pyramids.elements();
+	     values.hasMoreElements(); ) {
+	    toWrite.addElement(values.nextElement());
+	}
+	if (toWrite.size() == 0) {
+	    file.delete();
+	    return;
+	}
+
+	java.io.DataOutputStream dos = new java.io.DataOutputStream
+	    (new java.io.BufferedOutputStream
+	     (new java.io.FileOutputStream(file)));
+	try {
+	    dos.writeInt(toWrite.size());
+	    for (int idx = 0; idx < toWrite.size(); ++idx) {
+		((DecimationPyramid) toWrite.elementAt(idx)).write(dos);
+	    }
+	} finally {
+	    dos.close();
+	}
+    }
 }
@@ -74,6 +74,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>extract(String,DataArray)</code>.
+ * 10/18/2026  JRS	<code>extractData</code> shares the data payload.
  * 05/12/2005  JPW	In xmlRegistration(): To keep the code Java 1.1.4
  *			compatible, replaced the call to Vector.get(0) with
  *			Vector.elementAt(0).
@@ -3077,6 +3079,82 @@ T     * @return the string representation.
 	return (extract(chanNameI,false,true,true));
     }
 
+    /**
+     * Extracts the time and data for a particular channel, reusing the
+     * arrays of an earlier <code>DataArray</code> where possible.
+     * <p>
+     * This is the same as <code>extract(chanNameI)</code>, except that the
+     * primitive data array and the time array of <code>reuseI</code> are
+     * filled in and returned again when they are the right type and length.
+     * Callers that extract the same channels over and over, such as a sink
+     * fetching a steady subscription, can use this to avoid creating new
+     * arrays each time.  The contents of <code>reuseI</code> should not be
+     * used afterwards.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param chanNameI  the fully qualified name of the channel.
+     * @param reuseI     the earlier <code>DataArray</code>.  This may be
+     *			 null.
+     * @return a <code>DataArray</code> object containing the extracted times
+     *	       and data.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #extract(String)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final DataArray extract(String chanNameI,DataArray reuseI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (!isImplemented(OPR_EXTRACTION)) {
+	    throw new java.lang.IllegalArgumentException
+		("Extraction is not supported by " + this);
+	}
+
+	DataArray arrayR = null;
+	if (chanNameI.endsWith("/")) {
+	    // For folders, we always return an empty <code>DataArray</code>.
+	    arrayR = new DataArray();
+
+	} else {
+	    // Extract the time and data as <code>extract</code> does, handing
+	    // the earlier <code>DataArray</code> to the extractor.
+	    RmapExtractor extractor = new RmapExtractor(createFromName
+							(chanNameI),
+							false,
+							false,
+							true,
+							true);
+	    extractor.setReuse(reuseI);
+	    arrayR = (DataArray) extractor.extract(this);
+	}
+
+	return (arrayR);
+    }
+
     /**
      * Extracts the frame indexes, time, and/or data for a particular channel.
      * <p>
@@ -3319,6 +3397,7 @@ T     * @return the string representation.
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026 JRS	Share the data payload rather than cloning it.
      * 12/19/2000 INB	Created.
      *
      */
@@ -3347,7 +3426,7 @@ T     * @return the string representation.
 		rmapR.setTrange((TimeRange) getTrange().clone());
 	    }
 	    if (needDataI && (getDblock() != null)) {
-		rmapR.setDblock((DataBlock) getDblock().clone());
+		rmapR.setDblock(getDblock().share());
 	    }
 
 	} else {
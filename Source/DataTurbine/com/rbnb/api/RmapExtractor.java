@@ -27,7 +27,7 @@ package com.rbnb.api;
  * @see com.rbnb.api.RmapChain
  * @see com.rbnb.api.DataArray
  * @since V2.0
- * @version 03/18/2003
+ * @version 10/18/2026
  */
 
 /*
@@ -37,6 +37,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>reuse</code>.
  * 10/31/2008  MJM  Tweeked previous check for monitor-mode.  Changed logic to detect wildcards.
  * 08/15/2008  MJM	Do not "merge" multi-channel Rmaps in Monitor mode, or lose time-info
  * 03/18/2003  INB	Ensure that combined results contain marker blocks.
@@ -114,6 +115,17 @@ class RmapExtractor {
      */
     private boolean requireData = true;
 
+    /**
+     * an earlier <code>DataArray</code> whose arrays can be reused.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private DataArray reuse = null;
+
     /**
      * the information extractor.
      * <p>
@@ -460,7 +472,7 @@ class RmapExtractor {
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 08/30/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -468,6 +480,8 @@ class RmapExtractor {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Passes <code>reuse</code> to the
+     *			<code>DataArrayExtractor</code>.
      * 12/08/2000  INB	Created.
      *
      */
@@ -489,7 +503,9 @@ class RmapExtractor {
 	    // If we're extracting time and data, create a
 	    // <code>DataArrayExtractor</code> to extract
 	    // <code>DataArray</code> objects.
-	    setExtractor(new DataArrayExtractor());
+	    DataArrayExtractor daExtractor = new DataArrayExtractor();
+	    daExtractor.setReuse(reuse);
+	    setExtractor(daExtractor);
 	}
 
 	// actual work is done by matchRoot - mjm
@@ -963,6 +979,30 @@ class RmapExtractor {
     private final void setRequireData(boolean requireDataI) {
 	requireData = requireDataI;
     }
+
+    /**
+     * Sets an earlier <code>DataArray</code> whose arrays can be reused.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param reuseI the earlier <code>DataArray</code>.
+     * @see com.rbnb.api.DataArray#reuseArrays(com.rbnb.api.DataArray)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void setReuse(DataArray reuseI) {
+	reuse = reuseI;
+    }
 
     /**
      * Sets the work request <code>Rmap</code>.
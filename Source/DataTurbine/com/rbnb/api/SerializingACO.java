@@ -23,7 +23,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 08/04/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -33,6 +33,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added data stream compression and byte counts.
+ * 10/18/2026  JRS	Added wire protocol negotiation.
  * 12/01/2004  MJM      Catch System.getProperty exception for applets to work
  * 08/04/2004  JPW      In receive(), add check on "Timeout" in exception
  *                      message (this is so the code will run under J#).
@@ -179,6 +181,35 @@ abstract class SerializingACO
 
     }
 
+    /**
+     * Calculates the number of bytes transferred on the data stream.
+     * <p>
+     * This is the size after compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes transferred.
+     * @see #uncompressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final long compressedBytes() {
+	return ((getSerialize() == null) ?
+		0 :
+		getSerialize().compressedBytes());
+    }
+
+
     /**
      * Gets the language serializing object.
      * <p>
@@ -317,6 +348,73 @@ abstract class SerializingACO
 	getSerialize().getIcontrol().setBinary(true);
     }
 
+    /**
+     * Negotiates the wire protocol to use with the <code>RCO</code>.
+     * <p>
+     * An offer is only made if this client has been asked to use a newer
+     * protocol or to compress its data stream, and the server is new enough
+     * to understand the offer.  Both
+     * sides switch once the server's answer has been received.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a serialization problem.
+     * @exception java.io.EOFException
+     *		  thrown if the connection is closed.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the I/O is interrupted.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem with the I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.SerializingRCO#protocol(com.rbnb.api.WireProtocol)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Offer compression.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void negotiateProtocol()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	int offer = WireProtocol.getOffer(),
+	    compression = getClient().getCompression();
+	if (compression != Client.COMPRESS_NONE) {
+	    offer = WireProtocol.FRAMED;
+	}
+	if ((offer == WireProtocol.LEGACY) ||
+	    !isSupported(IsSupported.FEATURE_FRAMED_PROTOCOL)) {
+	    return;
+	}
+
+	send(new WireProtocol(offer,compression));
+	WireProtocol answer = (WireProtocol) receive
+	    (protocolClass,false,TimerPeriod.STARTUP_WAIT);
+	if (answer == null) {
+	    throw new com.rbnb.api.AddressException
+		("Failed to negotiate the wire protocol in a reasonable " +
+		 "amount of time.");
+	}
+	getSerialize().setProtocol(answer.getVersion());
+	getSerialize().setCompression(answer.getCompression());
+    }
+
     /**
      * Receives a message from the <code>RCO</code> in the
      * <code>Server</code>.
@@ -626,4 +724,31 @@ abstract class SerializingACO
      */
     abstract void setTimeout(long timeOutI)
 	throws java.io.IOException;
+
+    /**
+     * Calculates the number of bytes transferred on the data stream before
+     * compression.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @see #compressedBytes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final long uncompressedBytes() {
+	return ((getSerialize() == null) ?
+		0 :
+		getSerialize().uncompressedBytes());
+    }
 }
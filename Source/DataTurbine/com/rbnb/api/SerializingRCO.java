@@ -23,7 +23,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 08/04/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -33,6 +33,10 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Moved the wait for the data connection out of
+ *			<code>login</code> into
+ *			<code>awaitDataConnection</code>.
+ * 10/18/2026  JRS	Added wire protocol negotiation.
  * 08/04/2004  JPW      Changes in exception handling in receive():
  *                      add check on null message; also check if Interrupted-
  *                      IOException message contains "Timeout" - this is to
@@ -138,6 +142,60 @@ abstract class SerializingRCO
 	super(connectionI,rbnbI);
     }
 
+    /**
+     * Waits for the client's data connection after a login.
+     * <p>
+     * The data connection is attached by the <code>RCO</code> that reads it,
+     * using <code>assignConnection</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception java.io.IOException
+     *		  thrown if the data connection does not arrive in time.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @see #login(com.rbnb.api.Login)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from <code>login</code>.
+     *
+     */
+    synchronized void awaitDataConnection()
+	throws java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	long startAt = System.currentTimeMillis();
+	long nowAt = 0L;
+	if (System.getProperty("SHORTCONNECTIONS") != null) {
+	    while ((getSerialize().getIdata() == null) &&
+		   ((nowAt = System.currentTimeMillis()) - startAt < 100) &&
+		   !getTerminateRequested()) {
+		wait(10);
+	    }
+	} else {	
+	    while ((getSerialize().getIdata() == null) &&
+		   ((nowAt = System.currentTimeMillis()) - startAt <
+		    TimerPeriod.STARTUP_WAIT) &&
+		   !getTerminateRequested()) {
+		wait(TimerPeriod.NORMAL_WAIT);
+	    }
+	}
+
+	if (!getTerminateRequested() &&
+	    (getSerialize().getIdata() == null)) {
+	    throw new java.io.IOException
+		(this + " failed to get expected data connection.");
+	}
+    }
+
     /**
      * Calculates the total number of bytes transferred.
      * <p>
@@ -324,7 +382,7 @@ abstract class SerializingRCO
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 02/09/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -332,6 +390,8 @@ abstract class SerializingRCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Wait for the data connection in
+     *			<code>awaitDataConnection</code>.
      * 02/09/2004  INB	Use <code>STARTUP_WAIT</code>.
      * 01/23/2004  INB	Ensure that there are ways that the wait loop can
      *			terminate.  Quit on a terminate request or if too
@@ -354,30 +414,68 @@ abstract class SerializingRCO
 	getSerialize().getOcontrol().setBuildVersion(loginI.getBuildVersion());
 	getSerialize().getIcontrol().setBinary(true);
 
-	long startAt = System.currentTimeMillis();
-	long nowAt = 0L;
-	if (System.getProperty("SHORTCONNECTIONS") != null) {
-	    while ((getSerialize().getIdata() == null) &&
-		   ((nowAt = System.currentTimeMillis()) - startAt < 100) &&
-		   !getTerminateRequested()) {
-		wait(10);
-	    }
-	} else {	
-	    while ((getSerialize().getIdata() == null) &&
-		   ((nowAt = System.currentTimeMillis()) - startAt <
-		    TimerPeriod.STARTUP_WAIT) &&
-		   !getTerminateRequested()) {
-		wait(TimerPeriod.NORMAL_WAIT);
-	    }
-	}
+	awaitDataConnection();
+    }
+
+    /**
+     * Answers a wire protocol offer from the <code>ACO</code>.
+     * <p>
+     * The answer is written using the current protocol while holding the
+     * write door, and the switch is made before the door is released, so
+     * that nothing else can be written in between.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param offerI the <code>WireProtocol</code> offered.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a serialization problem.
+     * @exception java.io.EOFException
+     *		  thrown if the connection is closed.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if the I/O is interrupted.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem with the I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.SerializingACO#negotiateProtocol()
+     * @since V3.6
+     * @version 10/18/2026
+     */
 
-	if (!getTerminateRequested() &&
-	    (getSerialize().getIdata() == null)) {
-	    throw new java.io.IOException
-		(this + " failed to get expected data connection.");
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Accept compression.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void protocol(WireProtocol offerI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	WireProtocol answer = WireProtocol.accept(offerI);
+
+	try {
+	    getWriteDoor().lock("SerializingRCO.protocol");
+	    send(answer);
+	    if (getSerialize() != null) {
+		getSerialize().setProtocol(answer.getVersion());
+		getSerialize().setCompression(answer.getCompression());
+	    }
+	} finally {
+	    getWriteDoor().unlock();
 	}
     }
-
+
     /**
      * Receives a message from the <code>RCO</code> in the
      * <code>Server</code>.
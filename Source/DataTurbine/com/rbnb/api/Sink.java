@@ -24,7 +24,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 09/29/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -34,6 +34,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>getRegisteredSince</code>.
  * 09/29/2004  JPW	In order to compile under J#, need to explicitly
  *			add a declaration for the clone method in this class.
  * 06/11/2003  INB	Added <code>sendRequestOptions</code>.
@@ -130,6 +131,48 @@ public interface Sink
 	       java.io.IOException,
 	       java.lang.InterruptedException;
 
+    /**
+     * Gets the registration information that has changed since a version.
+     * <p>
+     * The answer is described by <code>Ask.REGISTEREDSINCE</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param sinceI  the version already seen, or 0 for the complete
+     *		      registration.
+     * @return the answer, or null if the server does not support the
+     *	       request.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.Ask#REGISTEREDSINCE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public abstract Ask getRegisteredSince(long sinceI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException;
+
     /**
      * Sends a <code>RequestOptions</code> object to the server.
      * <p>
@@ -24,7 +24,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 06/11/2003
+ * @version 10/18/2026
  */
 
 /*
@@ -34,6 +34,7 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>getRegisteredSince</code>.
  * 10/25/2005  EMF      Added bytesTransferred method.
  * 06/11/2003  INB	Added <code>sendRequestOptions</code>.
  * 05/11/2001  INB	Created.
@@ -420,6 +421,52 @@ if (true) {
 	synchronizeWserver();
 	return (super.getRegistered(requestI));
     }
+
+    /**
+     * Gets the registration information that has changed since a version.
+     * <p>
+     * The answer is described by <code>Ask.REGISTEREDSINCE</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param sinceI  the version already seen, or 0 for the complete
+     *		      registration.
+     * @return the answer, or null if the server does not support the
+     *	       request.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see com.rbnb.api.Ask#REGISTEREDSINCE
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final synchronized Ask getRegisteredSince(long sinceI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	synchronizeWserver();
+	return (getACO().getRegisteredSince(sinceI));
+    }
 
     /**
      * Initiates a request for the child at the specified index.
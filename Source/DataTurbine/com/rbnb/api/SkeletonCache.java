@@ -0,0 +1,214 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Keeps track of the lazily opened <code>FileSets</code> whose skeletons are
+ * in memory.
+ * <p>
+ * When archives are opened lazily (see <code>Archive.LAZY</code>), each
+ * <code>FileSet</code> starts out with just its summary
+ * <code>Registration</code>.  The first request that needs to look inside
+ * it loads its skeleton (its <code>Registration</code> and its
+ * <code>FrameSets</code>) and reports it here.  Once more than
+ * <code>LIMIT</code> skeletons are in memory, the least recently used ones
+ * are reduced back to their summaries, so the memory used by an archive
+ * follows what is actually being requested from it.
+ * <p>
+ * The limit is shared by all of the archives in the server.  It can be set
+ * with the <code>com.rbnb.api.SkeletonCache.limit</code> system property.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.FileSet#loadSkeleton()
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class SkeletonCache {
+
+    /**
+     * the maximum number of <code>FileSet</code> skeletons kept in memory.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int LIMIT =
+	Math.max(1,
+		 Integer.getInteger("com.rbnb.api.SkeletonCache.limit",
+				    256).intValue());
+
+    /**
+     * the loaded <code>FileSets</code>, least recently used first.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static java.util.LinkedHashMap loaded =
+	new java.util.LinkedHashMap(16,0.75f,true);
+
+    /**
+     * Class constructor.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private SkeletonCache() {
+	super();
+    }
+
+    /**
+     * Forgets a <code>FileSet</code> that is being unloaded or deleted.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param fileSetI the <code>FileSet</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static void forget(FileSet fileSetI) {
+	synchronized (loaded) {
+	    loaded.remove(fileSetI);
+	}
+    }
+
+    /**
+     * Gets the number of <code>FileSet</code> skeletons in memory.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of skeletons.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static int size() {
+	synchronized (loaded) {
+	    return (loaded.size());
+	}
+    }
+
+    /**
+     * Notes that a loaded <code>FileSet</code> has been used.
+     * <p>
+     * Any skeletons pushed over the limit are unloaded by the calling thread
+     * once it is done with the list, so that no other lock is held while it
+     * waits for the <code>FileSets</code> to become free.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param fileSetI the <code>FileSet</code>.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static void used(FileSet fileSetI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	java.util.Vector unload = null;
+
+	synchronized (loaded) {
+	    loaded.put(fileSetI,fileSetI);
+
+	    java.util.Iterator it = loaded.keySet().iterator();
+	    while ((loaded.size() > LIMIT) && it.hasNext()) {
+		FileSet eldest = (FileSet) it.next();
+		if (eldest != fileSetI) {
+		    it.remove();
+		    if (unload == null) {
+			unload = new java.util.Vector();
+		    }
+		    unload.addElement(eldest);
+		}
+	    }
+	}
+
+	if (unload != null) {
+	    for (int idx = 0; idx < unload.size(); ++idx) {
+		((FileSet) unload.elementAt(idx)).unloadSkeleton();
+	    }
+	}
+    }
+}
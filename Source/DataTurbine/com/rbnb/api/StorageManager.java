@@ -35,6 +35,17 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Pass on failures to close a full set from
+ *			<code>addElement</code>.
+ * 10/18/2026  JRS	Leave unwritten <code>FrameSets</code> trimmed from a
+ *			<code>Cache</code> to the <code>ArchiveWriter</code>.
+ * 10/18/2026  JRS	Load the <code>Registrations</code> of lazily opened
+ *			<code>FileSets</code> when rebuilding ours.
+ * 10/18/2026  JRS	Time-based flushes run on the shared
+ *			<code>FlushScheduler</code> instead of a thread per
+ *			<code>StorageManager</code>.
+ * 10/18/2026  JRS	Keep a running data size for the metrics, rather than
+ *			summing the sets on every sample.
  * 06/26/2007  MJM	Fixed bug with flushInterval/1000 in trimbytime mode
  * 10/11/2006  EMF      Added trim by time for flushing and looping.
  * 05/02/2006  EMF      Compress FrameSets when they fill, rather than when
@@ -69,7 +80,7 @@ package com.rbnb.api;
  */
 abstract class StorageManager
     extends com.rbnb.api.Rmap
-    implements GetLogInterface, Runnable
+    implements GetLogInterface
 {
     /**
      * have any sets been removed from the <code>StorageManager</code> since
@@ -242,6 +253,22 @@ abstract class StorageManager
      * @version 10/03/2006
      */
     private boolean closeByTime=false;
+
+    /**
+     * the number of bytes of data held in the sets.
+     * <p>
+     * This is kept up to date as elements and sets are added and removed so
+     * that the metrics do not have to walk the sets to find it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #getDataSize()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final java.util.concurrent.atomic.AtomicLong dataBytes =
+	new java.util.concurrent.atomic.AtomicLong();
 
     /**
      * Class constructor.
@@ -261,7 +288,7 @@ abstract class StorageManager
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 05/10/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -269,6 +296,9 @@ abstract class StorageManager
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Schedule time-based flushes on the shared
+     *			<code>FlushScheduler</code> rather than starting a
+     *			thread.
      * 10/11/2006  EMF  Added arguments, thread starting.
      * 03/12/2000  INB	Created.
      *
@@ -288,46 +318,19 @@ abstract class StorageManager
           trimInterval=trimIntervalI;
         } else closeByTime=false;
         if (closeByTime) {
-          (new Thread(this)).start(); //start timer
+          FlushScheduler.getDefault().schedule(this,flushInterval);
         }
     }
 
-    /**
-     * Runs timer to close FrameSets and FileSets as needed
-     *
-     * @author Eric Friets
-     *
-     * @since V2.7
-     * @version 10/02/2006
-     *
-     */
-
-    /*
-     *   Date      By	Description
-     * MM/DD/YYYY
-     * ----------  --	-----------
-     * 10/02/2006  EMF 	Created.
-     */
-    public void run() {
-
-      //don't flush right away
-      try {Thread.currentThread().sleep(flushInterval);} catch (Exception e) {}
-      //so long as still attached to RingBuffer, check for data to flush
-      do {
-        close();
-        try {Thread.currentThread().sleep(flushInterval);} catch (Exception e) {}
-      } while (getParent()!=null) ;
-
-    } //end run method
-
 
     /**
      * Closes current set
      *
      * @author Eric Friets
      *
+     * @see #closeSet()
      * @since V2.7
-     * @version 10/03/2006
+     * @version 10/18/2026
      *
      */
 
@@ -335,21 +338,109 @@ abstract class StorageManager
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>closeSet</code>.
      * 11/17/2006  EMF  Make public so FileSet can be closed on Source.Detach
      * 10/03/2006  EMF 	Created.
      */
     /*private*/ synchronized void close() {
 	if (getSet()!=null) {
           try {
-            getSet().close();
-            setSet(null);
+            closeSet();
           } catch (Exception e) {
             System.err.println("Exception closing set:");
             e.printStackTrace();
           }
         }
     }
+
+    /**
+     * Closes the current set, passing on any failure to do so.
+     * <p>
+     * A full set is closed this way by <code>addElement</code>, so that a
+     * set that cannot be written fails the add rather than being dropped.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if this operation is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is an I/O problem.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @see #close()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from <code>close</code>.
+     *
+     */
+    synchronized final void closeSet()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (getSet() != null) {
+	    getSet().close();
+	    setSet(null);
+	}
+    }
 
+    /**
+     * Adds a set.
+     * <p>
+     * The size of the set is added to the data size.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param childI the set.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #getDataSize()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void addChild(Rmap childI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	super.addChild(childI);
+	dataBytes.addAndGet(childI.getDataSize());
+    }
+
     /**
      * Adds an element <code>Rmap</code> to this <code>StorageManager</code>
      * object.
@@ -369,7 +460,7 @@ abstract class StorageManager
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -377,6 +468,8 @@ abstract class StorageManager
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Pass on failures to close a full set.
+     * 10/18/2026  JRS	Track the change in the data size.
      * 10/11/2006  EMF  Added trimByTime logic, calls to close().
                         If trimByTime, close() never called from here.
      * 11/14/2003  INB	Added identification to the <code>Door</code> and
@@ -414,7 +507,10 @@ abstract class StorageManager
 		    // Add the element to the current set. Note that the last set has
 		    // been added to, which means its registration needs to be
 		    // updated.
-		    getSet().addElement(elementI);
+		    FrameManager current = getSet();
+		    long before = current.getDataSize();
+		    current.addElement(elementI);
+		    dataBytes.addAndGet(current.getDataSize() - before);
 		    framesAdded++;
 		    if (getAddedSets() == -1) {
 		    	setAddedSets(getNchildren() - 1);
@@ -443,13 +539,13 @@ abstract class StorageManager
 					}
 					// If the current set is full, then close it.
 					if (!closeByTime &&	framesAdded==getMeps()) {
-			            close();
+			            closeSet();
 					}
 				}
 		    }
 		    
 		    if (!closeByTime&&(this instanceof Archive)&&(getSet().getNchildren()==getMeps())) {
-              close();
+              closeSet();
 		    }
   //          trim();	// MJM FOO
     	} finally {
@@ -730,6 +826,32 @@ abstract class StorageManager
     final int getAddedSets() {
 	return (addedSets);
     }
+
+    /**
+     * Gets the number of bytes of data held in the sets.
+     * <p>
+     * The value is maintained as the sets change rather than calculated.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the data size.
+     * @see #refreshDataSize()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final long getDataSize() {
+	return (dataBytes.get());
+    }
 
     /**
      * Gets the <code>Door</code> to this <code>FrameManager</code>.
@@ -1461,6 +1583,143 @@ abstract class StorageManager
 	} catch (java.lang.Throwable e) {
 	}
     }
+
+    /**
+     * Recalculates the number of bytes of data held in the sets.
+     * <p>
+     * This is needed only when sets have been loaded from the archive after
+     * being added.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #getDataSize()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void refreshDataSize()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	dataBytes.set(super.getDataSize());
+    }
+
+    /**
+     * Removes a set.
+     * <p>
+     * The size of the set is subtracted from the data size.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param childI the set.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #getDataSize()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void removeChild(Rmap childI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (childI.getParent() == this) {
+	    long size = childI.getDataSize();
+	    int before = getNchildren();
+	    super.removeChild(childI);
+	    if (getNchildren() < before) {
+		dataBytes.addAndGet(-size);
+	    }
+	}
+    }
+
+    /**
+     * Removes the set at an index.
+     * <p>
+     * The size of the set is subtracted from the data size.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param indexI the index of the set.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error during I/O.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #getDataSize()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final void removeChildAt(int indexI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	if (getNchildren() > indexI) {
+	    long size = getChildAt(indexI).getDataSize();
+	    super.removeChildAt(indexI);
+	    dataBytes.addAndGet(-size);
+	}
+    }
 
     /**
      * Sets the index of the first of the added sets.
@@ -1752,7 +2011,7 @@ abstract class StorageManager
      *		  thrown if the operation is interrupted.
      * @see #getSet()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1760,6 +2019,8 @@ abstract class StorageManager
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Leave <code>FrameSets</code> that have yet to be
+     *			written to the <code>ArchiveWriter</code> to clear.
      * 11/19/2007  MJM	Fixed trimByTime logic for _Metrics channels
      * 10/11/2006  EMF  Added trimByTime code.
      * 11/14/2003  INB	Added location to the <code>Lock</code>.
@@ -1854,6 +2115,10 @@ new Exception(set.toString()).printStackTrace(); */
 	if (this instanceof Archive) {
 	    ((Archive) this).setOldest
 		(((FileSet) getChildAt(0)).getIndex());
+	} else if (ArchiveWriter.deferClear((FrameSet) set)) {
+	    // The <code>ArchiveWriter</code> still needs the data, so it
+	    // clears the set once it has written it.
+	    return;
 	}
 
 	try {
@@ -1907,7 +2172,7 @@ new Exception(set.toString()).printStackTrace(); */
      * @exception java.lang.InterruptedException
      *		  thrown if the operation is interrupted.
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -1915,6 +2180,8 @@ new Exception(set.toString()).printStackTrace(); */
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Load the <code>Registrations</code> of lazily opened
+     *			<code>FileSets</code>.
      * 11/14/2003  INB	Added location to the <code>Lock</code>.
      * 03/28/2003  INB	Eliminated unnecessary synchronization.
      * 03/12/2001  INB	Created.
@@ -1959,6 +2226,13 @@ new Exception(set.toString()).printStackTrace(); */
 		    // the <code>Registration</code>.
 		    FrameManager set = (FrameManager) getChildAt(idx);
 
+		    // Lazily opened <code>FileSets</code> read their
+		    // <code>Registrations</code> when first needed.
+		    if ((set instanceof FileSet) &&
+			(set.getRegistered() == null)) {
+			((FileSet) set).loadSkeleton();
+		    }
+
 		    // Ensure that the <code>FrameManager's Registration</code>
 		    // is up-to-date.
 		    if (set.updateRegistration() ||
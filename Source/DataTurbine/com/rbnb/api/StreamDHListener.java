@@ -34,6 +34,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Ask <code>RBOs</code> for notification of the frames
+ *			for our channels only.
  * 11/11/2003  INB	Ensure that we don't lose the relationship in
  *			requests.
  * 11/07/2003  INB	Account for <code>StreamTimeRelativeListeners</code>
@@ -46,6 +48,17 @@ package com.rbnb.api;
 abstract class StreamDHListener
     extends com.rbnb.api.StreamListener
 {
+    /**
+     * are we only notified of the frames for our channels?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private boolean channelRouted = false;
+
 
     /**
      * Class constructor to build a <code>StreamDHListener</code> for the
@@ -210,6 +223,33 @@ return new String("StreamDHListener:"+super.toString());
 	       java.io.IOException,
 	       java.lang.InterruptedException;
 
+    /**
+     * Are we only notified of the frames for our channels?
+     * <p>
+     * When this is true, frames added to the source for other channels do
+     * not wake us up, so frame-by-frame walks have to step over them on
+     * their own.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return only notified for our channels?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final boolean getChannelRouted() {
+	return (channelRouted);
+    }
+
     /**
      * Starts this <code>StreamDHListener</code> running.
      * <p>
@@ -228,7 +268,7 @@ return new String("StreamDHListener:"+super.toString());
      * @see #run()
      * @see #stop()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -236,6 +276,8 @@ return new String("StreamDHListener:"+super.toString());
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Give <code>RBO</code> notifications the request, so
+     *			that they only see frames for the requested channels.
      * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
      *			<code>Thread</code>.
      * 11/07/2003  INB	Account for <code>StreamTimeRelativeListeners</code>.
@@ -254,15 +296,25 @@ return new String("StreamDHListener:"+super.toString());
 	     ((DataRequest) getBaseRequest()) :
 	     null);
 
+	// Only ask an <code>RBO</code> for the frames that can contain our
+	// channels.
+	Rmap channelRequest =
+	    ((getSource() instanceof RBO) ? getRequest() : null);
+
+	AwaitNotification an = null;
 	if (((base != null) &&
 	     (base.getMode() != DataRequest.CONSOLIDATED)) ||
 	    ((getNBO().getRequestOptions() != null) &&
 	     (getNBO().getRequestOptions().getMaxWait() != 0))) {
-	    (new AwaitNotification(null,getSource(),this)).start();
+	    an = new AwaitNotification(null,channelRequest,getSource(),this);
 	} else if (this instanceof StreamPlugInListener) {
-	    (new AwaitNotification(null,getSource(),this)).start();
+	    an = new AwaitNotification(null,getSource(),this);
 	} else if (this instanceof StreamTimeRelativeListener) {
-	    (new AwaitNotification(null,getSource(),this)).start();
+	    an = new AwaitNotification(null,channelRequest,getSource(),this);
+	}
+	if (an != null) {
+	    channelRouted = (an.getChannelRequest() != null);
+	    an.start();
 	}
 	try {
 	    createOriginal();
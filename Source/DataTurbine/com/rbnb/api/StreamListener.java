@@ -120,6 +120,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Record sink delivery lag in the
+ *			<code>MetricsRegistry</code>.
  * 08/05/2004  INB	Added documentation.
  * 04/07/2004  INB	Replaced boolean <code>waiting</code> with
  *			<code>int</code>.  Old code left commented out.
@@ -211,6 +213,20 @@ abstract class StreamListener
      */
     private Door door = null;
 
+    /**
+     * the delivery lag of our sink, in the <code>MetricsRegistry</code>.
+     * <p>
+     * This is only used by the <code>StreamRequestHandler</code> of an
+     * <code>NBO</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private MetricsRegistry.Histogram deliveryLag = null;
+
     /**
      * have we seen an EOS go past.
      * <p>
@@ -1505,6 +1521,59 @@ abstract class StreamListener
 	return (isAliveR);
     }
 
+    /**
+     * Finds the latest time in an <code>Rmap</code> hierarchy.
+     * <p>
+     * Times are added down the hierarchy, so the children of an
+     * <code>Rmap</code> are offset by its last point time.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param rmapI   the <code>Rmap</code>.
+     * @param offsetI the time offset inherited from the parents.
+     * @return the latest time, or negative infinity if there are no times.
+     * @exception java.lang.Exception
+     *		  thrown if the hierarchy cannot be read.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static double latestTime(Rmap rmapI,double offsetI)
+	throws java.lang.Exception
+    {
+	double latestR = Double.NEGATIVE_INFINITY,
+	    offset = offsetI;
+	double[] limits =
+	    (rmapI.getTrange() == null) ?
+	    null :
+	    rmapI.getTrange().getLimits();
+
+	if (limits != null) {
+	    double duration = rmapI.getTrange().getDuration();
+	    if (duration == TimeRange.INHERIT_DURATION) {
+		duration = 0.;
+	    }
+	    latestR = offset + limits[1];
+	    offset += limits[1] - duration;
+	}
+
+	for (int idx = 0; idx < rmapI.getNchildren(); ++idx) {
+	    latestR = Math.max(latestR,
+			       latestTime(rmapI.getChildAt(idx),offset));
+	}
+
+	return (latestR);
+    }
+
     /**
      * Posts a response <code>Rmap</code> to the application.
      * <p>
@@ -1589,7 +1658,7 @@ abstract class StreamListener
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 01/26/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1597,6 +1666,8 @@ abstract class StreamListener
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 01/26/2004  INB	Use <code>syncThreadObj</code>.
      * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
      *			<code>Thread</code> and ensure that <code>Locks</code>
@@ -1609,12 +1680,54 @@ abstract class StreamListener
 	getDoor().setIdentification(toString());
 	synchronized (syncThreadObj) {
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).clearLocks();
+		ThreadWithLocks.clearLocks(getThread());
 	    }
 	}
 	setThread(null);
     }
 
+    /**
+     * Records the delivery lag of a response to our sink.
+     * <p>
+     * The lag is the wall clock time less the latest time in the response.
+     * Responses that are more than a day away from the wall clock are
+     * assumed to be on some other time base and are ignored.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param responseI the response being delivered.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void recordDeliveryLag(Rmap responseI) {
+	if ((responseI == null) || (responseI instanceof EndOfStream)) {
+	    return;
+	}
+
+	try {
+	    double lag =
+		System.currentTimeMillis()/1000. - latestTime(responseI,0.);
+	    if (Math.abs(lag) < 24.*60.*60.) {
+		if (deliveryLag == null) {
+		    deliveryLag = MetricsRegistry.getDefault().histogram
+			(MetricsRegistry.DELIVERY_LAG,getNBO().getFullName());
+		}
+		deliveryLag.observeNanos((long) (lag*1.e9));
+	    }
+	} catch (java.lang.Exception e) {
+	}
+    }
+
     /**
      * Removes a <code>StreamListener</code>.
      * <p>
@@ -615,7 +615,7 @@ return new String("StreamPlugInListener:"+super.toString());
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -623,6 +623,8 @@ return new String("StreamPlugInListener:"+super.toString());
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
      *			<code>Thread</code> and ensure that <code>Locks</code>
      *			are released.  Added identification to <code>Door</code>.
@@ -656,7 +658,7 @@ return new String("StreamPlugInListener:"+super.toString());
 
 	} finally {
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).clearLocks();
+		ThreadWithLocks.clearLocks(getThread());
 	    }
 	}
 
@@ -668,7 +670,7 @@ return new String("StreamPlugInListener:"+super.toString());
 	    } catch (java.lang.Exception e) {
 	    }
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).clearLocks();
+		ThreadWithLocks.clearLocks(getThread());
 	    }
 	}
 
@@ -117,6 +117,10 @@ import java.util.Vector;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Answer requests for a limited number of samples from
+ *			<code>DecimationPyramids</code> when possible.
+ * 10/18/2026  JRS	Step frame-by-frame requests over frames for other
+ *			channels when only notified of our own channels.
  * 10/31/2008  MJM	in updateWorking(), limit increment to not get ahead of actual data.  
  * 08/27/2008  JPW	Make change in processWorking():
  * 			Support monitor mode data request with more than 1 child
@@ -906,6 +910,70 @@ final class StreamRBOListener
 	return (foundR);
     }
 
+    /**
+     * Are there frames in the source at or beyond the working frame index?
+     * <p>
+     * This is used to step a frame-by-frame request over frames that we
+     * were not notified of because they are for other channels.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return are there frames we haven't looked at?
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a serialization problem.
+     * @exception java.io.EOFException
+     *		  thrown if the end of file is reached.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if this operation is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is an I/O problem.
+     * @exception java.lang.InterruptedException
+     *		  thrown if this operation is interrupted.
+     * @see #updateWorking()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final boolean framesSkipped()
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	DataRequest myOriginal =
+	    ((getOriginal() instanceof DataRequest) ?
+	     ((DataRequest) getOriginal()) :
+	     null);
+	if ((myOriginal == null) ||
+	    (myOriginal.getIncrement() == 0.) ||
+	    (getWorking().getNchildren() == 0) ||
+	    (getWorking().getChildAt(0).getFrange() == null)) {
+	    return (false);
+	}
+
+	TimeRange tLimits = new TimeRange(Double.MAX_VALUE),
+	    fLimits = new TimeRange(Double.MAX_VALUE);
+	tLimits.setDuration(-Double.MAX_VALUE);
+	fLimits.setDuration(-Double.MAX_VALUE);
+	((RBO) getSource()).getRegistered().findLimits(tLimits,fLimits);
+
+	return (getWorking().getChildAt(0).getFrange().getLimits()[1] <=
+		fLimits.getLimits()[1]);
+    }
+
     /**
      * Gets the number of frames per iteration.
      * <p>
@@ -1027,7 +1095,7 @@ final class StreamRBOListener
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 01/15/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1035,6 +1103,8 @@ final class StreamRBOListener
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	When only notified of frames for our channels, keep
+     *			stepping over the frames for other channels.
      * 01/15/2004  INB	Set EOS when an <code>EndOfStream</code> is posted.
      * 10/23/2003  INB	Added check for skip logic.
      * 09/28/2001  INB	Created.
@@ -1095,6 +1165,11 @@ final class StreamRBOListener
 		     setNeedStart(true);
 		     if (skip) {
 			 updateWorking();
+			 if (getChannelRouted() && framesSkipped()) {
+			     // Frames for other channels don't notify us, so
+			     // count the ones we still have to step over.
+			     setToPickup(getToPickup() + 1);
+			 }
 		     }
 		}
 	    }
@@ -1178,7 +1253,7 @@ final class StreamRBOListener
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 08/27/2008
+     * @version 10/18/2026
      */
 
     /*
@@ -1186,6 +1261,9 @@ final class StreamRBOListener
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Answer absolute requests for existing data from the
+     *			decimation pyramids if the request options limit the
+     *			number of samples.
      * 08/27/2008  JPW  Support monitor mode data request with more than 1 child
      * 2005/07/15  WHF  Added OutOfMemoryError handling.
      * 04/25/2005  JPW	If we got a match and if the user is in Monitor mode,
@@ -1260,7 +1338,19 @@ final class StreamRBOListener
 	    //     rt.totalMemory()/1024 +
 	    //     'k');
 	    try {
-	      match = ((Rmap) getSource()).extractRmap(subWorking,true);
+	      match = null;
+	      if ((dSub != null) &&
+		  (dSub.getReference() == DataRequest.ABSOLUTE) &&
+		  (dSub.getDomain() == DataRequest.EXISTING) &&
+		  (getSource() instanceof RBO) &&
+		  !(getSource() instanceof NBO)) {
+		  match = ((RBO) getSource()).extractDecimated
+		      (subWorking,
+		       getNBO().getRequestOptions());
+	      }
+	      if (match == null) {
+		  match = ((Rmap) getSource()).extractRmap(subWorking,true);
+	      }
 
 //EMF
 //if (newFrames.isEmpty()) newFr=new Rmap();
@@ -1619,7 +1709,7 @@ final class StreamRBOListener
      * @see #start()
      * @see #stop()
      * @since V2.0
-     * @version 02/11/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -1627,6 +1717,8 @@ final class StreamRBOListener
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 01/15/2004  INB	Added posting of <code>EndOfStream</code> if we are
      *			shutting down without having done so.
@@ -1688,8 +1780,9 @@ final class StreamRBOListener
 		    }
 
 		    if (getThread() != null) {
-			((ThreadWithLocks) getThread()).ensureLocksCleared
-			    (toString(),
+			ThreadWithLocks.ensureLocksCleared
+			    (getThread(),
+			     toString(),
 			     "StreamRBOListener.run(1)",
 			     getNBO().getLog(),
 			     getNBO().getLogLevel(),
@@ -1720,8 +1813,9 @@ final class StreamRBOListener
 
 	} finally {
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).ensureLocksCleared
-		    (toString(),
+		ThreadWithLocks.ensureLocksCleared
+		    (getThread(),
+		     toString(),
 		     "StreamRBOListener.run(2)",
 		     getNBO().getLog(),
 		     getNBO().getLogLevel(),
@@ -35,7 +35,7 @@ package com.rbnb.api;
  *
  * @see com.rbnb.api.RemoteServer
  * @since V2.0
- * @version 05/26/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -45,6 +45,8 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	The handler thread may be a virtual thread; see
+ *			<code>ThreadWithLocks.newHandlerThread</code>.
  * 05/26/2004  INB	Call <code>RemoteClient.stopAwaiting</code> in
  *			<code>disconnectFromRemote</code>.
  * 02/23/2004  INB	Optionally log creation of remote clients.
@@ -660,7 +662,7 @@ class StreamRemoteListener
      *
      * @param eI the <code>Exception</code> (if any) that terminated this.
      * @since V2.0
-     * @version 02/12/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -668,6 +670,8 @@ class StreamRemoteListener
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 12/17/2001  INB	Created.
      *
      */
@@ -745,7 +749,7 @@ class StreamRemoteListener
 	    super.run();
 	} finally {
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).clearLocks();
+		ThreadWithLocks.clearLocks(getThread());
 	    }
 	}
     }
@@ -936,7 +940,7 @@ class StreamRemoteListener
      *		  thrown if this operation is interrupted.
      * @see #stop()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -944,6 +948,7 @@ class StreamRemoteListener
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>ThreadWithLocks.newHandlerThread</code>.
      * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
      *			<code>Thread</code>.
      * 05/23/2003  INB	Ensure that we clear the start up stage count. Just
@@ -1019,7 +1024,7 @@ class StreamRemoteListener
 		}
 		thrName += "." + getNBO().getFullName();
 		thrName = thrName.replace('/','_');
-		setThread(new ThreadWithLocks(this,thrName));
+		setThread(ThreadWithLocks.newHandlerThread(this,thrName));
 		doStart = true;
 		if (count > 0) {
 		    doConnect = matched;
@@ -33,7 +33,7 @@ package com.rbnb.api;
  *
  * @see com.rbnb.api.NBO#initiateRequestAt(int indexI)
  * @since V2.0
- * @version 08/05/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -43,6 +43,10 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Record the delivery lag of each response in the
+ *			<code>MetricsRegistry</code>.
+ * 10/18/2026  JRS	The handler thread may be a virtual thread; see
+ *			<code>ThreadWithLocks.newHandlerThread</code>.
  * 08/05/2004  INB	Updated documentation.
  * 05/26/2004  INB	Added <code>stop</code> call to end of
  *			<code>run</code>.
@@ -409,7 +413,7 @@ return new String("StreamRequestHandler: "+super.toString());
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 12/24/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -417,6 +421,7 @@ return new String("StreamRequestHandler: "+super.toString());
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Record the delivery lag of each response.
      * 12/24/2003  INB	Synchronize on the children list so that it doesn't
      *			get modified while we're doing notifications.
      * 03/28/2003  INB	Eliminated unnecessary synchronization.
@@ -465,6 +470,7 @@ return new String("StreamRequestHandler: "+super.toString());
 	    if (serializableI instanceof EndOfStream) {
 		setEOS(true);
 	    }
+	    recordDeliveryLag(workOn);
 	    ((NBO) getParent()).asynchronousResponse(serializableI);
 
 	} else {
@@ -540,6 +546,7 @@ return new String("StreamRequestHandler: "+super.toString());
 			if (response instanceof EndOfStream) {
 			    setEOS(true);
 			}
+			recordDeliveryLag(response);
 			((NBO) getParent()).asynchronousResponse(response);
 		    }
 		}
@@ -555,7 +562,7 @@ return new String("StreamRequestHandler: "+super.toString());
      *
      * @see #stop()
      * @since V2.0
-     * @version 05/26/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -563,6 +570,8 @@ return new String("StreamRequestHandler: "+super.toString());
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 05/26/2004  INB	Added <code>stop</code> call to end of
      *			<code>run</code>.
      * 02/03/2004  INB	Any time we have no children and we have a request
@@ -618,7 +627,7 @@ return new String("StreamRequestHandler: "+super.toString());
 
 	} finally {
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).clearLocks();
+		ThreadWithLocks.clearLocks(getThread());
 	    }
 	}
 
@@ -654,7 +663,7 @@ return new String("StreamRequestHandler: "+super.toString());
      * @see #run()
      * @see #stop()
      * @since V2.0
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -662,6 +671,7 @@ return new String("StreamRequestHandler: "+super.toString());
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>ThreadWithLocks.newHandlerThread</code>.
      * 11/14/2003  INB	Use <code>ThreadWithLocks</code> rather than
      *			<code>Thread</code>.
      * 05/23/2003  INB	Ensure that we clear the start up stage count.
@@ -697,9 +707,9 @@ return new String("StreamRequestHandler: "+super.toString());
 	    setStartupStage(getStartupStage() - 1);
 	}
 
-	setThread(new ThreadWithLocks(this,
-				      "_SRH." +
-				      ((NBO) getParent()).getName()));
+	setThread(ThreadWithLocks.newHandlerThread
+		  (this,
+		   "_SRH." + ((NBO) getParent()).getName()));
 	getThread().start();
     }
 }
@@ -457,7 +457,7 @@ abstract class StreamServerListener
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 02/03/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -465,6 +465,8 @@ abstract class StreamServerListener
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 02/03/2004  INB	Any time we have no children and we have a request
      *			for existing data, we need to abort.
      * 01/15/2004  INB	Break out of loop on EOS.
@@ -515,7 +517,7 @@ abstract class StreamServerListener
 
 	} finally {
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).clearLocks();
+		ThreadWithLocks.clearLocks(getThread());
 	    }
 	}
 
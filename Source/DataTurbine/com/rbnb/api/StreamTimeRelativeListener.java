@@ -794,7 +794,7 @@ System.err.println(
      * @see #start()
      * @see #stop()
      * @since V2.2
-     * @version 02/11/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -802,6 +802,8 @@ System.err.println(
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static <code>ThreadWithLocks</code> methods, as
+     *			the thread may be a virtual thread.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 11/06/2003  INB	Created.
      *
@@ -825,8 +827,9 @@ System.err.println(
 		    reason = process();
 
 		    if (getThread() != null) {
-			((ThreadWithLocks) getThread()).ensureLocksCleared
-			    (toString(),
+			ThreadWithLocks.ensureLocksCleared
+			    (getThread(),
+			     toString(),
 			     "StreamTimeRelativeListener.run(1)",
 			     getNBO().getLog(),
 			     getNBO().getLogLevel(),
@@ -857,8 +860,9 @@ System.err.println(
 
 	} finally {
 	    if (getThread() != null) {
-		((ThreadWithLocks) getThread()).ensureLocksCleared
-		    (toString(),
+		ThreadWithLocks.ensureLocksCleared
+		    (getThread(),
+		     toString(),
 		     "StreamTimeRelativeListener.run(2)",
 		     getNBO().getLog(),
 		     getNBO().getLogLevel(),
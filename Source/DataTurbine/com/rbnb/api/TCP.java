@@ -35,7 +35,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 06/16/2011
+ * @version 10/18/2026
  */
 
 /*
@@ -46,6 +46,9 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Moved the checks made on accepted sockets into
+ *			<code>admit</code> and added <code>getScheme</code> so
+ *			that <code>NIO</code> can extend this class.
  * 06/19/2013  MJM  	Check for null pointer in newServerSide()
  * 06/16/2011  JPW      In accept(), added catch SocketTimeoutException;
  *                      ServerSocket.accept() will throw this exception on
@@ -182,7 +185,7 @@ class TCP
      *		  thrown if the address is rejected for any reason.
      * @see #newServerSide(com.rbnb.api.ServerHandler)
      * @since V2.0
-     * @version 06/16/2011
+     * @version 10/18/2026
      */
 
     /*
@@ -190,6 +193,8 @@ class TCP
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Moved the authentication and authorization checks
+     *			into <code>admit</code>.
      * 06/16/2011  JPW  Add catch SocketTimeoutException; ServerSocket.accept()
      *                  will throw this exception on timeout.  This is a
      *                  Java 1.4 feature.
@@ -202,16 +207,14 @@ class TCP
      * 05/11/2001  INB	Created.
      *
      */
-    final Object accept(Object serverSideI,long timeOutI)
+    Object accept(Object serverSideI,long timeOutI)
 	throws com.rbnb.api.AddressException,
 	       java.io.IOException,
 	       java.lang.InterruptedException
     {
 	java.net.ServerSocket ss = (java.net.ServerSocket) serverSideI;
 	java.net.Socket socket;
-	java.net.InetAddress netAddr = null;
 	Object connectionR = null;
-	String authenticate = null;
 
 	// Turn on the timeout for the socket.
 	if ((timeOutI == 0) || (timeOutI == Client.FOREVER)) {
@@ -225,101 +228,7 @@ class TCP
 	    socket = ss.accept();
 	    // log4j.debug("server socket accepted");
 	    
-	    // JPW 11/11/2004: Security code from NEES
-	    try {
-		authenticate = System.getProperty("com.rbnb.authenticate");
-	    } catch (Exception e) {  //  catch and ignore exception (applets)
-		authenticate = null;
-	    }
-
-	    if (authenticate == null) {
-		authenticate = "false";
-	    };
-
-	    // log4j.debug("authentication set to: " + authenticate);
-
-	    if (!authenticate.equals("false")) {
-
-		try {
-
-		    String factoryProperty="com.rbnb.securityProviderFactory";
-		    String factoryName = System.getProperty(factoryProperty);
-		    if (factoryName == null) {
-			throw new Exception(
-			    "Property not specified: " + factoryProperty);
-		    }
-		    Class factoryClass = Class.forName(factoryName);
-		    SecurityProviderFactory factory = (SecurityProviderFactory)
-			factoryClass.newInstance();
-		    SecurityProvider provider = factory.create(this);
-		    
-		    provider.serverSideAuthenticate(
-		        socket.getInputStream(),
-			socket.getOutputStream());
-
-		} catch (Exception gsse) {
-		    // usually org.ietf.jgss.GSSException
-		    // log4j.error(
-		    //     "Authentication failed: " + gsse.toString());
-		    socket.close();
-		    java.io.IOException hack =
-			new java.io.IOException(gsse.toString());
-		    // JPW 11/12/2004: Add preprocessor directives which can be
-		    //                 used by "sed" to create a version of the
-		    //                 code appropriate for compilation under
-		    //                 J# (which supports Java 1.1.4).  In the
-		    //                 Java 1.1.4 version, don't call
-		    //                 Throwable.initCause()
-		    //#open_java2_comment#
-		    hack.initCause(gsse);
-		    //#close_java2_comment#
-		    throw hack;
-		}
-	    }
-	    
-	    if (getAuthorization() != null) {
-		try {
-		    netAddr = socket.getInetAddress();
-		    Object addr;
-		    if ((netAddr.getHostName() == null) ||
-			(netAddr.getHostName().equals(""))) {
-			addr = netAddr.getHostAddress();
-		    } else {
-			String[] values = new String[2];
-			values[0] = netAddr.getHostName();
-			values[1] = netAddr.getHostAddress();
-			addr = values;
-		    }
-		    if (!getAuthorization().isAllowed(addr)) {
-			socket.close();
-			throw new com.rbnb.api.AddressException
-			    (netAddr + " is not authorized to connect.");
-		    }
-
-		} catch (java.lang.Exception e) {
-		    if ((e instanceof com.rbnb.api.AddressException) ||
-			(e instanceof java.io.IOException) ||
-			(e instanceof java.lang.InterruptedException)) {
-			try {
-			    Language.throwException(e);
-			} catch (com.rbnb.api.SerializeException e1) {
-			}
-		    }
-		    java.io.ByteArrayOutputStream baos =
-			new java.io.ByteArrayOutputStream();
-		    java.io.PrintWriter pw = new java.io.PrintWriter(baos);
-		    e.printStackTrace(pw);
-		    pw.flush();
-		    String message = new String(baos.toByteArray());
-		    pw.close();
-		    throw new com.rbnb.api.AddressException
-			(netAddr +
-			 " was denied access due to an exception.\n" +
-			 message);
-		}
-	    }
-	    setup(socket);
-	    connectionR = socket;
+	    connectionR = admit(socket);
 
 	} catch (java.net.SocketTimeoutException e) {
 	    // JPW 06/16/2011: Added check on SocketTimeoutException
@@ -350,6 +259,144 @@ class TCP
 	return (connectionR);
     }
     
+    /**
+     * Admits a socket accepted by the server side.
+     * <p>
+     * If authentication is turned on, the client is authenticated using the
+     * configured security provider.  The address of the client is then
+     * checked against the authorization list, if any.  Finally, the socket
+     * is set up for use by the RBNB.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param socketI the accepted socket.
+     * @return the socket.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if the address is rejected for any reason.
+     * @exception java.io.IOException
+     *		  thrown if there is an I/O problem.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #accept(java.lang.Object,long)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from code in <code>accept</code>.
+     *
+     */
+    final java.net.Socket admit(java.net.Socket socketI)
+	throws com.rbnb.api.AddressException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	java.net.InetAddress netAddr = null;
+	String authenticate = null;
+
+	// JPW 11/11/2004: Security code from NEES
+	try {
+	    authenticate = System.getProperty("com.rbnb.authenticate");
+	} catch (Exception e) {  //  catch and ignore exception (applets)
+	    authenticate = null;
+	}
+
+	if (authenticate == null) {
+	    authenticate = "false";
+	};
+
+	// log4j.debug("authentication set to: " + authenticate);
+
+	if (!authenticate.equals("false")) {
+
+	    try {
+
+		String factoryProperty="com.rbnb.securityProviderFactory";
+		String factoryName = System.getProperty(factoryProperty);
+		if (factoryName == null) {
+		    throw new Exception(
+			"Property not specified: " + factoryProperty);
+		}
+		Class factoryClass = Class.forName(factoryName);
+		SecurityProviderFactory factory = (SecurityProviderFactory)
+		    factoryClass.newInstance();
+		SecurityProvider provider = factory.create(this);
+		    
+		provider.serverSideAuthenticate(
+		    socketI.getInputStream(),
+		    socketI.getOutputStream());
+
+	    } catch (Exception gsse) {
+		// usually org.ietf.jgss.GSSException
+		// log4j.error(
+		//     "Authentication failed: " + gsse.toString());
+		socketI.close();
+		java.io.IOException hack =
+		    new java.io.IOException(gsse.toString());
+		// JPW 11/12/2004: Add preprocessor directives which can be
+		//                 used by "sed" to create a version of the
+		//                 code appropriate for compilation under
+		//                 J# (which supports Java 1.1.4).  In the
+		//                 Java 1.1.4 version, don't call
+		//                 Throwable.initCause()
+		//#open_java2_comment#
+		hack.initCause(gsse);
+		//#close_java2_comment#
+		throw hack;
+	    }
+	}
+	    
+	if (getAuthorization() != null) {
+	    try {
+		netAddr = socketI.getInetAddress();
+		Object addr;
+		if ((netAddr.getHostName() == null) ||
+		    (netAddr.getHostName().equals(""))) {
+		    addr = netAddr.getHostAddress();
+		} else {
+		    String[] values = new String[2];
+		    values[0] = netAddr.getHostName();
+		    values[1] = netAddr.getHostAddress();
+		    addr = values;
+		}
+		if (!getAuthorization().isAllowed(addr)) {
+		    socketI.close();
+		    throw new com.rbnb.api.AddressException
+			(netAddr + " is not authorized to connect.");
+		}
+
+	    } catch (java.lang.Exception e) {
+		if ((e instanceof com.rbnb.api.AddressException) ||
+		    (e instanceof java.io.IOException) ||
+		    (e instanceof java.lang.InterruptedException)) {
+		    try {
+			Language.throwException(e);
+		    } catch (com.rbnb.api.SerializeException e1) {
+		    }
+		}
+		java.io.ByteArrayOutputStream baos =
+		    new java.io.ByteArrayOutputStream();
+		java.io.PrintWriter pw = new java.io.PrintWriter(baos);
+		e.printStackTrace(pw);
+		pw.flush();
+		String message = new String(baos.toByteArray());
+		pw.close();
+		throw new com.rbnb.api.AddressException
+		    (netAddr +
+		     " was denied access due to an exception.\n" +
+		     message);
+	    }
+	}
+	setup(socketI);
+
+	return (socketI);
+    }
+
     /**
      * Builds a valid TCP address.
      * <p>
@@ -361,7 +408,7 @@ class TCP
      * @exception com.rbnb.api.AddressException
      *		  thrown if the address cannot be made into a valid one.
      * @since V2.0
-     * @version 04/09/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -369,11 +416,13 @@ class TCP
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	No longer final, so that <code>NIO</code> can have
+     *			its own.
      * 04/09/2003  INB	Added call to <code>checkForQualifiedName</code>.
      * 05/02/2001  INB	Created.
      *
      */
-    public final static String buildAddress(String addressI)
+    public static String buildAddress(String addressI)
 	throws com.rbnb.api.AddressException
     {
 	String addressR = (String) addressI,
@@ -511,7 +560,7 @@ class TCP
      *
      * @param connectionI the connection object.
      * @since V2.0
-     * @version 10/05/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -519,6 +568,8 @@ class TCP
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	No longer final so that <code>NIO</code> can close its
+     *			channels.
      * 10/05/2004  JPW	Added preprocessor directives which can be used by
      *			"sed" to manipulate the Java calls made to close down
      *			the socket.  This was done to support a version of the
@@ -526,7 +577,7 @@ class TCP
      * 05/15/2001  INB	Created.
      *
      */
-    final void close(Object connectionI) {
+    void close(Object connectionI) {
 	try {
 	    if (connectionI instanceof java.net.ServerSocket) {
 		java.net.ServerSocket sSocket =
@@ -692,7 +743,7 @@ class TCP
      * @return the host <code>java.net.InetAddress</code>.
      * @see #setHost(java.net.InetAddress)
      * @since V2.0
-     * @version 05/22/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -700,10 +751,11 @@ class TCP
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Made package access for <code>NIO</code>.
      * 01/09/2001  INB	Created.
      *
      */
-    private final java.net.InetAddress getHost() {
+    final java.net.InetAddress getHost() {
 	return (host);
     }
 
@@ -762,7 +814,7 @@ class TCP
      * @return the socket port ID.
      * @see #setPort(int)
      * @since V2.0
-     * @version 05/22/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -770,13 +822,37 @@ class TCP
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Made package access for <code>NIO</code>.
      * 01/09/2001  INB	Created.
      *
      */
-    private final int getPort() {
+    final int getPort() {
 	return (port);
     }
 
+    /**
+     * Gets the scheme that prefixes addresses of this type.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the scheme, "tcp://".
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    String getScheme() {
+	return ("tcp://");
+    }
+
     /**
      * Is the address one that can be handled by a local RBNB server?
      * <p>
@@ -884,7 +960,7 @@ class TCP
      *		  connection.
      * @see #newClientSide(com.rbnb.api.ACO)
      * @since V2.0
-     * @version 11/26/2007
+     * @version 10/18/2026
      */
 
     /*
@@ -892,6 +968,8 @@ class TCP
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	No longer final so that <code>NIO</code> can create a
+     *			server socket channel.
      * 06/19/2013  MJM  Check for null pointer
      * 11/26/2007  WHF  Supports multi-homed machines.
      * 10/03/2003  INB	Set the backlog large enough to ensure that we can
@@ -900,7 +978,7 @@ class TCP
      * 01/11/2001  INB	Created.
      *
      */
-    final Object newServerSide(ServerHandler serverHandlerI)
+    Object newServerSide(ServerHandler serverHandlerI)
 	throws com.rbnb.api.AddressException,
 	       java.io.IOException,
 	       java.lang.SecurityException
@@ -962,7 +1040,7 @@ class TCP
      * @see #setHost(java.net.InetAddress)
      * @see #setPort(int)
      * @since V2.0
-     * @version 03/13/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -970,10 +1048,12 @@ class TCP
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Strip the scheme returned by <code>getScheme</code>.
+     *			Package access for <code>NIO</code>.
      * 01/09/2001  INB	Created.
      *
      */
-    private final void parseAddress(String addressI)
+    final void parseAddress(String addressI)
 	throws com.rbnb.api.AddressException
     {
 	if (addressI != null) {
@@ -981,9 +1061,11 @@ class TCP
 
 	    String lAddress = addressI,
 		   hostName = null;
-	    if ((lAddress.length() >= 6) &&
-		lAddress.substring(0,6).equalsIgnoreCase("tcp://")) {
-		lAddress = lAddress.substring(6);
+	    String scheme = getScheme();
+	    if ((lAddress.length() >= scheme.length()) &&
+		lAddress.substring(0,scheme.length()).equalsIgnoreCase
+		(scheme)) {
+		lAddress = lAddress.substring(scheme.length());
 	    }
 
 	    // Start by finding the optional colon that should separate the
@@ -1059,7 +1141,7 @@ class TCP
      *		  thrown if there is a problem with the address.
      * @see #getAddress()
      * @since V2.0
-     * @version 03/13/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -1067,27 +1149,29 @@ class TCP
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the scheme returned by <code>getScheme</code>.
      * 01/09/2001  INB	Created.
      *
      */
     final synchronized void setAddress(String addressI)
 	throws com.rbnb.api.AddressException
     {
+	String scheme = getScheme();
 	parseAddress(addressI);
 	if ((addressI.indexOf(".") != -1) || (getHost() == null)) {
-	    if (addressI.indexOf("tcp://") == 0) {
+	    if (addressI.indexOf(scheme) == 0) {
 		super.setAddress(addressI);
 	    } else {
-		super.setAddress("tcp://" + addressI);
+		super.setAddress(scheme + addressI);
 	    }
 	} else {
 	    String hostName = getHost().getHostName();
 	    if (hostName.indexOf(".") != -1) {
 		super.setAddress
-		    ("tcp://" + hostName + ":" + getPort());
+		    (scheme + hostName + ":" + getPort());
 	    } else {
 		super.setAddress
-		    ("tcp://" + getHost().getHostAddress() + ":" + getPort());
+		    (scheme + getHost().getHostAddress() + ":" + getPort());
 	    }
 	}
     }
@@ -23,7 +23,7 @@ package com.rbnb.api;
  * @author Ian Brown
  *
  * @since V2.0
- * @version 04/28/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -33,12 +33,16 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	No longer final.  The socket streams are obtained
+ *			through <code>getSocketInput</code> and
+ *			<code>getSocketOutput</code> so that <code>NIORCO</code>
+ *			can supply its own.
  * 10/18/2010  MJM  Moved up null-check in authorization to speed up routing connections
  * 04/28/2004  INB	Added method <code>isAllowedAccess</code>.
  * 05/10/2001  INB	Created.
  *
  */
-final class TCPRCO
+class TCPRCO
     extends com.rbnb.api.SerializingRCO
 {
     /**
@@ -90,7 +94,7 @@ final class TCPRCO
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 01/25/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -98,6 +102,8 @@ final class TCPRCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>getSocketInput</code> and
+     *			<code>getSocketOutput</code>.
      * 05/10/2001  INB	Created.
      *
      */
@@ -111,11 +117,11 @@ final class TCPRCO
 	java.net.Socket socket = (java.net.Socket) getServerSide();
 	if (socket != null) {
 	    setSerialize
-		(new Language(new InputStream(socket.getInputStream(),
+		(new Language(new InputStream(getSocketInput(socket),
 					      false,
 					      0),
 			      null,
-			      new OutputStream(socket.getOutputStream(),
+			      new OutputStream(getSocketOutput(socket),
 					       false,
 					       0),
 			      null));
@@ -195,7 +201,7 @@ final class TCPRCO
      * @exception java.io.IOException
      *		  thrown if there is an I/O problem.
      * @since V2.0
-     * @version 01/25/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -203,18 +209,20 @@ final class TCPRCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	No longer final.  Use <code>getSocketInput</code>
+     *			and <code>getSocketOutput</code>.
      * 01/25/2002  INB	Created.
      *
      */
-    final void attachDataSocket(java.net.Socket dataSocketI)
+    void attachDataSocket(java.net.Socket dataSocketI)
 	throws java.io.IOException
     {
 	setDataSocket(dataSocketI);
 	getSerialize().setOdata
-	    (new DataOutputStream(getDataSocket().getOutputStream(),
+	    (new DataOutputStream(getSocketOutput(getDataSocket()),
 				  32768));
 	getSerialize().setIdata
-	    (new DataInputStream(getDataSocket().getInputStream(),
+	    (new DataInputStream(getSocketInput(getDataSocket()),
 				 32768));
     }
 
@@ -272,7 +280,7 @@ final class TCPRCO
      *		  thrown if this operation is interrupted.
      * @see #close()
      * @since V2.0
-     * @version 01/25/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -280,10 +288,11 @@ final class TCPRCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	No longer final.
      * 05/09/2001  INB	Created.
      *
      */
-    final void disconnect()
+    void disconnect()
 	throws java.io.InterruptedIOException,
 	       java.io.IOException,
 	       java.lang.InterruptedException
@@ -341,6 +350,68 @@ final class TCPRCO
 	return (dataSocket);
     }
 
+    /**
+     * Gets the input stream for a socket.
+     * <p>
+     * This implementation returns the socket's own input stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param socketI the socket.
+     * @return the input stream.
+     * @exception java.io.IOException
+     *		  thrown if the stream cannot be retrieved.
+     * @see #getSocketOutput(java.net.Socket)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    java.io.InputStream getSocketInput(java.net.Socket socketI)
+	throws java.io.IOException
+    {
+	return (socketI.getInputStream());
+    }
+
+    /**
+     * Gets the output stream for a socket.
+     * <p>
+     * This implementation returns the socket's own output stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param socketI the socket.
+     * @return the output stream.
+     * @exception java.io.IOException
+     *		  thrown if the stream cannot be retrieved.
+     * @see #getSocketInput(java.net.Socket)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    java.io.OutputStream getSocketOutput(java.net.Socket socketI)
+	throws java.io.IOException
+    {
+	return (socketI.getOutputStream());
+    }
+
     /**
      * Is this <code>RCO<code> allowed the specified access?
      * <p>
@@ -436,7 +507,7 @@ final class TCPRCO
      * @exception java.lang.InterruptedException
      *		  thrown if this operation is interrupted.
      * @since V2.0
-     * @version 11/19/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -444,6 +515,8 @@ final class TCPRCO
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use <code>getSocketInput</code> and
+     *			<code>getSocketOutput</code>.
      * 05/08/2001  INB	Created.
      *
      */
@@ -458,11 +531,11 @@ final class TCPRCO
 	metricsBytes += getSerialize().bytesTransferred();
 	java.net.Socket cSocket = (java.net.Socket) getServerSide();
 	setSerialize
-	    (new Language(new InputStream(cSocket.getInputStream(),
+	    (new Language(new InputStream(getSocketInput(cSocket),
 					  false,
 					  32768),
 			  null,
-			  new OutputStream(cSocket.getOutputStream(),
+			  new OutputStream(getSocketOutput(cSocket),
 					   false,
 					   32768),
 			  null));
@@ -20,13 +20,26 @@ package com.rbnb.api;
  * Extended <code>Thread</code> that stores information about the
  * <code>Door.Locks</code> associated with it.
  * <p>
+ * The per-client handlers of the server (<code>RCO</code>,
+ * <code>RBNBClient</code>, <code>StreamRemoteListener</code>,
+ * <code>StreamRequestHandler</code>, and
+ * <code>RemoteClientHandler</code>) create their threads using
+ * <code>newHandlerThread</code>.  If the server is started with
+ * <code>-Dcom.rbnb.api.ThreadWithLocks.virtual=true</code> and the JVM
+ * supports virtual threads (Java 21 or later), those threads are virtual
+ * threads rather than <code>ThreadWithLocks</code>.  A virtual thread
+ * cannot be extended, so the <code>Locks</code> of such a thread are kept
+ * in a table instead.  The static methods of this class work for either
+ * kind of thread, so code that may run on a handler thread should use
+ * them rather than casting to <code>ThreadWithLocks</code>.
+ * <p>
  *
  * @author Ian Brown
  *
  * @see com.rbnb.api.Door
  * @see com.rbnb.api.Lock
  * @since V2.2
- * @version 02/11/2004
+ * @version 10/18/2026
  */
 
 /*
@@ -36,6 +49,9 @@ package com.rbnb.api;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Added <code>newHandlerThread</code> and static versions
+ *			of the lock methods so that handlers can run on
+ *			virtual threads.
  * 02/11/2004  INB	Log exceptions at standard level.
  * 11/14/2003  INB	Created.
  *
@@ -43,6 +59,79 @@ package com.rbnb.api;
 class ThreadWithLocks
     extends java.lang.Thread
 {
+    /**
+     * run handlers on virtual threads?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static boolean VIRTUAL =
+	Boolean.getBoolean("com.rbnb.api.ThreadWithLocks.virtual");
+
+    /**
+     * the <code>Thread.ofVirtual</code> method.
+     * <p>
+     * This and the <code>Thread.Builder</code> methods are looked up by
+     * reflection so that the code still runs on older JVMs.  It is null if
+     * virtual threads are not used.  A builder is not thread-safe and keeps
+     * the name it was last given, so each thread gets a builder of its own.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static java.lang.reflect.Method virtualOf = null;
+
+    /**
+     * have the virtual thread methods been looked up?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static boolean virtualChecked = false;
+
+    /**
+     * the <code>Thread.Builder.name</code> method.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static java.lang.reflect.Method virtualName = null;
+
+    /**
+     * the <code>Thread.Builder.unstarted</code> method.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private static java.lang.reflect.Method virtualUnstarted = null;
+
+    /**
+     * the lists of <code>Locks</code> of the virtual threads.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private final static java.util.Map virtualLocks =
+	new java.util.concurrent.ConcurrentHashMap();
+
     /**
      * the list of <code>Locks</code>.
      * <p>
@@ -234,7 +323,7 @@ class ThreadWithLocks
      *		  if the <code>Lock</code> is already held.
      * @see #removeLock(com.rbnb.api.Lock lockI)
      * @since V2.2
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -242,15 +331,51 @@ class ThreadWithLocks
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static method.
      * 11/14/2003  INB	Created.
      *
      */
     public final void addLock(Lock lockI) {
-	if (getLocks().contains(lockI)) {
+	addLock(this,lockI);
+    }
+
+    /**
+     * Adds the specified <code>Lock</code> to the list for a thread.
+     * <p>
+     * Nothing is done if the thread does not keep track of its
+     * <code>Locks</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param threadI the thread.
+     * @param lockI   the <code>Lock</code>.
+     * @exception java.lang.IllegalStateException
+     *		  if the <code>Lock</code> is already held.
+     * @see #removeLock(Thread,com.rbnb.api.Lock)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from the instance method.
+     *
+     */
+    final static void addLock(Thread threadI,Lock lockI) {
+	java.util.Vector lLocks = getLocks(threadI);
+
+	if (lLocks == null) {
+	    return;
+	}
+	if (lLocks.contains(lockI)) {
 	    throw new java.lang.IllegalStateException
-		(this + " already has " + lockI + " set.");
+		(threadI + " already has " + lockI + " set.");
 	}
-	getLocks().addElement(lockI);
+	lLocks.addElement(lockI);
     }
 
     /**
@@ -260,7 +385,7 @@ class ThreadWithLocks
      * @author Ian Brown
      *
      * @since V2.2
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -268,22 +393,50 @@ class ThreadWithLocks
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static method.
      * 11/14/2003  INB	Created.
      *
      */
     public final void clearLocks() {
+	clearLocks(this);
+    }
+
+    /**
+     * Clears all of the <code>Locks</code> of a thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param threadI the thread.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from the instance method.
+     *
+     */
+    final static void clearLocks(Thread threadI) {
+	java.util.Vector lLocks = getLocks(threadI);
 	Lock lock;
 
-	while (!getLocks().isEmpty()) {
+	if (lLocks == null) {
+	    return;
+	}
+	while (!lLocks.isEmpty()) {
 	    try {
-		lock = (Lock) getLocks().elementAt(0);
+		lock = (Lock) lLocks.elementAt(0);
 	    } catch (java.lang.ArrayIndexOutOfBoundsException e) {
 		break;
 	    }
 	    lock.getDoor().clear(lock);
-	    if (!getLocks().isEmpty() &&
-		(getLocks().elementAt(0) == lock)) {
-		getLocks().removeElementAt(0);
+	    if (!lLocks.isEmpty() &&
+		(lLocks.elementAt(0) == lock)) {
+		lLocks.removeElementAt(0);
 	    }
 	}
     }
@@ -298,7 +451,7 @@ class ThreadWithLocks
      * @param locationI	      the location of the caller.
      * @param logI	      the <code>Log</code> for reporting problems.
      * @since V2.2
-     * @version 02/11/2004
+     * @version 10/18/2026
      */
 
     /*
@@ -306,6 +459,7 @@ class ThreadWithLocks
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static method.
      * 02/11/2004  INB	Log exceptions at standard level.
      * 11/17/2003  INB	Created.
      *
@@ -316,12 +470,49 @@ class ThreadWithLocks
 					 byte levelI,
 					 long classI)
     {
-	if (getLocks().size() > 0) {
+	ensureLocksCleared(this,identificationI,locationI,logI,levelI,classI);
+    }
+
+    /**
+     * Ensures that all <code>Locks</code> of a thread are cleared at this
+     * time.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param threadI	      the thread.
+     * @param identificationI the identification of the caller.
+     * @param locationI	      the location of the caller.
+     * @param logI	      the <code>Log</code> for reporting problems.
+     * @param levelI	      the level for the message.
+     * @param classI	      the class of the message.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from the instance method.
+     *
+     */
+    final static void ensureLocksCleared(Thread threadI,
+					 String identificationI,
+					 String locationI,
+					 Log logI,
+					 byte levelI,
+					 long classI)
+    {
+	java.util.Vector lLocks = getLocks(threadI);
+
+	if ((lLocks != null) && (lLocks.size() > 0)) {
 	    try {
 		throw new java.lang.IllegalStateException
 		    ("Locks still set in " +
-		     locationI + ".\nThread: " + this +
-		     " Locks: " + getLocks());
+		     locationI + ".\nThread: " + threadI +
+		     " Locks: " + lLocks);
 	    } catch (java.lang.IllegalStateException e) {
 		try {
 		    if (logI == null) {
@@ -337,7 +528,7 @@ class ThreadWithLocks
 		}
 	    }
 
-	    clearLocks();
+	    clearLocks(threadI);
 
 	    if (logI == null) {
 		System.err.println(identificationI +
@@ -379,6 +570,159 @@ class ThreadWithLocks
     public final java.util.Vector getLocks() {
 	return (locks);
     }
+
+    /**
+     * Gets the list of <code>Locks</code> of a thread.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param threadI the thread.
+     * @return the list, or null if the thread does not keep track of its
+     *	       <code>Locks</code>.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static java.util.Vector getLocks(Thread threadI) {
+	if (threadI instanceof ThreadWithLocks) {
+	    return (((ThreadWithLocks) threadI).getLocks());
+	} else if (threadI == null) {
+	    return (null);
+	}
+	return ((java.util.Vector) virtualLocks.get(threadI));
+    }
+
+    /**
+     * Gets the <code>Thread.ofVirtual</code> method.
+     * <p>
+     * The virtual thread methods are looked up the first time that this
+     * method is called.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the method, or null if virtual threads are not to be used.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Look up <code>Thread.ofVirtual</code> rather than
+     *			sharing one builder between threads.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final static synchronized java.lang.reflect.Method
+	getVirtualOf()
+    {
+	if (!virtualChecked) {
+	    virtualChecked = true;
+	    if (VIRTUAL) {
+		try {
+		    Class builderClass =
+			Class.forName("java.lang.Thread$Builder");
+		    virtualName = builderClass.getMethod
+			("name",
+			 new Class[] { String.class });
+		    virtualUnstarted = builderClass.getMethod
+			("unstarted",
+			 new Class[] { Runnable.class });
+		    virtualOf = Thread.class.getMethod
+			("ofVirtual",
+			 new Class[0]);
+
+		    // JVMs that only preview virtual threads refuse to build
+		    // them.
+		    virtualOf.invoke(null,new Object[0]);
+		} catch (java.lang.Exception e) {
+		    virtualOf = null;
+		    System.err.println
+			("Virtual threads are not available (" + e +
+			 "); handlers will use platform threads.");
+		}
+	    }
+	}
+
+	return (virtualOf);
+    }
+
+    /**
+     * Builds a thread for a per-client handler.
+     * <p>
+     * The thread is a virtual thread if virtual threads have been requested
+     * and are supported by the JVM.  Otherwise, it is a
+     * <code>ThreadWithLocks</code>.  Either way, it has not been started.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param targetI the <code>Runnable</code>.
+     * @param nameI   the name of the thread.  If null, the name is left to
+     *		      the JVM.
+     * @return the thread.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Use a new builder for each thread.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static Thread newHandlerThread(final Runnable targetI,
+					 String nameI)
+    {
+	java.lang.reflect.Method lVirtualOf = getVirtualOf();
+
+	if (lVirtualOf != null) {
+	    final Thread[] threadR = new Thread[1];
+	    final java.util.Vector lLocks = new java.util.Vector();
+	    Runnable target = new Runnable() {
+		public final void run() {
+		    try {
+			targetI.run();
+		    } finally {
+			virtualLocks.remove(threadR[0]);
+		    }
+		}
+	    };
+
+	    try {
+		Object builder = lVirtualOf.invoke(null,new Object[0]);
+		if (nameI != null) {
+		    builder = virtualName.invoke(builder,new Object[] { nameI });
+		}
+		threadR[0] = (Thread) virtualUnstarted.invoke
+		    (builder,
+		     new Object[] { target });
+		virtualLocks.put(threadR[0],lLocks);
+		return (threadR[0]);
+	    } catch (java.lang.Exception e) {
+		// Fall back to a normal thread.
+	    }
+	}
+
+	return ((nameI == null) ?
+		new ThreadWithLocks(targetI) :
+		new ThreadWithLocks(targetI,nameI));
+    }
 
     /**
      * Removes the specified <code>Lock</code>.
@@ -391,7 +735,7 @@ class ThreadWithLocks
      *		  if the <code>Lock</code> is not held.
      * @see #addLock(com.rbnb.api.Lock lockI)
      * @since V2.2
-     * @version 11/14/2003
+     * @version 10/18/2026
      */
 
     /*
@@ -399,16 +743,52 @@ class ThreadWithLocks
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Use the static method.
      * 11/14/2003  INB	Created.
      *
      */
     public final void removeLock(Lock lockI) {
-	if (!getLocks().contains(lockI)) {
+	removeLock(this,lockI);
+    }
+
+    /**
+     * Removes the specified <code>Lock</code> from the list for a thread.
+     * <p>
+     * Nothing is done if the thread does not keep track of its
+     * <code>Locks</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param threadI the thread.
+     * @param lockI   the <code>Lock</code>.
+     * @exception java.lang.IllegalStateException
+     *		  if the <code>Lock</code> is not held.
+     * @see #addLock(Thread,com.rbnb.api.Lock)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from the instance method.
+     *
+     */
+    final static void removeLock(Thread threadI,Lock lockI) {
+	java.util.Vector lLocks = getLocks(threadI);
+
+	if (lLocks == null) {
+	    return;
+	}
+	if (!lLocks.contains(lockI)) {
 	    throw new java.lang.IllegalStateException
-		(this + " does not hold " + lockI + ".\nHas: " +
-		 getLocks());
+		(threadI + " does not hold " + lockI + ".\nHas: " +
+		 lLocks);
 	}
-	getLocks().removeElement(lockI);
+	lLocks.removeElement(lockI);
     }
 
     /**
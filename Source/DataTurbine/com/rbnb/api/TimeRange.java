@@ -56,12 +56,18 @@ import com.rbnb.utility.ToString;
  * <code>TimeRanges</code>. The way that the inheritance works is described
  * in the documentation for </code>Rmaps</code>.
  * <p>
+ * Point times read from a stream may arrive as a regular run (a start, an
+ * interval, and a count) or as delta-encoded times.  They are kept in that
+ * form until something asks for the individual times, so a
+ * <code>TimeRange</code> that is only passed along is written out again
+ * without ever being expanded.
+ * <p>
  *
  * @author Ian Brown
  *
  * @see com.rbnb.api.Rmap
  * @since V2.0
- * @version 05/19/2005
+ * @version 10/18/2026
  */
 
 /*
@@ -71,6 +77,10 @@ import com.rbnb.utility.ToString;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 10/18/2026  JRS	Compact point times can be expanded by several threads
+ *			at once.
+ * 10/18/2026  JRS	Point times can be written and read as a regular run or
+ *			as delta-encoded times, and are expanded lazily.
  * 05/19/2005  JPW/MJM	Fixed a bug in matchTimeRelative() where point number
  *			could be calculated incorrectly due to limited floating
  *			point precision.
@@ -184,7 +194,9 @@ public final class TimeRange
 			      PAR_DUR = 0,
 			      PAR_PTM = 1,
 			      PAR_STA = 2,
-			      PAR_INC = 3;
+			      PAR_INC = 3,
+			      PAR_REG = 4,
+			      PAR_DLT = 5;
 
     private static final byte[][] MATCHES =
 	{
@@ -208,7 +220,9 @@ public final class TimeRange
 				    "DUR",
 				    "PTM",
 				    "STA",
-				    "INC"
+				    "INC",
+				    "REG",
+				    "DLT"
 				};
 
     /**
@@ -230,6 +244,36 @@ public final class TimeRange
      */
     private byte changing = INCREASING;
 
+    /**
+     * the number of point times held in compact form.
+     * <p>
+     * This is only meaningful while <code>ptimes</code> is
+     * <code>INHERIT_TIMES</code>; it is left in place when the times are
+     * expanded.  The times are then either the regular run
+     * described by <code>regularStart</code> and
+     * <code>regularInterval</code> or, if <code>deltaTimes</code> is set, the
+     * times encoded by it.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int compactCount = 0;
+
+    /**
+     * the delta-encoded point times.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @see #encodeDeltas(double[])
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private byte[] deltaTimes = null;
+
     /**
      * the comparison direction.
      * <p>
@@ -270,13 +314,38 @@ public final class TimeRange
     /**
      * time values.
      * <p>
+     * Compact times are expanded into this array the first time that they
+     * are needed, possibly by a thread other than the one that read them.
+     * <p>
      *
      * @author Ian Brown
      *
      * @since V2.0
-     * @version 11/30/2000
+     * @version 10/18/2026
      */
-    private double[] ptimes = INHERIT_TIMES;
+    private volatile double[] ptimes = INHERIT_TIMES;
+
+    /**
+     * the interval between the point times of a regular run.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double regularInterval = 0.;
+
+    /**
+     * the first point time of a regular run.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private double regularStart = 0.;
 
     /**
      * Class constructor.
@@ -964,7 +1033,7 @@ public final class TimeRange
      *
      * @return the clone.
      * @since V2.0
-     * @version 04/25/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -972,6 +1041,7 @@ public final class TimeRange
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Compact times are not expanded.
      * 11/30/2000  INB	Created.
      *
      */
@@ -979,8 +1049,10 @@ public final class TimeRange
 	TimeRange clonedR = (TimeRange) super.clone();
 
 	if (clonedR != null) {
-	    if (getPtimes() != null) {
-		clonedR.setPtimes((double[]) getPtimes().clone());
+	    // Compact times are never changed in place, so the clone can
+	    // share them.
+	    if (ptimes != null) {
+		clonedR.setPtimes((double[]) ptimes.clone());
 	    }
 	}
 
@@ -1402,6 +1474,60 @@ public final class TimeRange
 	return (tRangeR);
     }
 
+    /**
+     * Decodes delta-encoded point times.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param bytesI   the encoded times.
+     * @param nTimesI  the number of times.
+     * @return the point times.
+     * @exception java.lang.IllegalArgumentException
+     *		  thrown if the encoded times are truncated.
+     * @see #encodeDeltas(double[])
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private static final double[] decodeDeltas(byte[] bytesI,int nTimesI) {
+	double[] timesR = new double[nTimesI];
+	long bits = 0,
+	    delta = 0;
+	int pos = 0;
+
+	for (int idx = 0; idx < nTimesI; ++idx) {
+	    long zigZag = 0;
+	    int shift = 0,
+		value;
+
+	    do {
+		if (pos == bytesI.length) {
+		    throw new java.lang.IllegalArgumentException
+			("Delta-encoded times are truncated after " + idx +
+			 " of " + nTimesI + " times.");
+		}
+		value = bytesI[pos++];
+		zigZag |= ((long) (value & 0x7f)) << shift;
+		shift += 7;
+	    } while ((value & 0x80) != 0);
+
+	    delta += (zigZag >>> 1) ^ -(zigZag & 1);
+	    bits += delta;
+	    timesR[idx] = Double.longBitsToDouble(bits);
+	}
+
+	return (timesR);
+    }
+
     /**
      * Determines the result of the comparison between two
      * <code>TimeRanges</code>.
@@ -1547,6 +1673,105 @@ public final class TimeRange
 	return (matchesR);
     }
 
+    /**
+     * Encodes point times as deltas.
+     * <p>
+     * Each time is taken as the 64 bits of its IEEE 754 representation.  The
+     * change in the difference between one time and the next is written as a
+     * zig-zag encoded variable length integer, seven bits to the byte.  Times
+     * at a steady rate cost one byte each and jittered times cost two or
+     * three.  The encoding is exact, whatever the times are.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param timesI  the point times.
+     * @return the encoded times.
+     * @see #decodeDeltas(byte[],int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private static final byte[] encodeDeltas(double[] timesI) {
+	java.io.ByteArrayOutputStream baos =
+	    new java.io.ByteArrayOutputStream(2*timesI.length);
+	long previous = 0,
+	    delta = 0;
+
+	for (int idx = 0; idx < timesI.length; ++idx) {
+	    long bits = Double.doubleToRawLongBits(timesI[idx]),
+		change = bits - previous,
+		zigZag = ((change - delta) << 1) ^ ((change - delta) >> 63);
+
+	    while ((zigZag & ~0x7fL) != 0) {
+		baos.write((int) ((zigZag & 0x7f) | 0x80));
+		zigZag >>>= 7;
+	    }
+	    baos.write((int) zigZag);
+	    previous = bits;
+	    delta = change;
+	}
+
+	return (baos.toByteArray());
+    }
+
+    /**
+     * Expands compact point times into the <code>ptimes</code> array.
+     * <p>
+     * Other threads may be reading this <code>TimeRange</code> at the same
+     * time, so the compact form is left alone and the expanded array is
+     * only published once it is complete.  If two threads expand the times
+     * at once, each gets its own copy and one of them is kept.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the expanded times.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Leave the compact form alone and publish the expanded
+     *			times last.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final double[] expandTimes() {
+	int count = compactCount;
+	byte[] deltas = deltaTimes;
+	double[] times;
+
+	if (deltas != null) {
+	    times = decodeDeltas(deltas,count);
+	} else {
+	    double start = regularStart,
+		interval = regularInterval;
+	    times = new double[count];
+	    for (int idx = 0; idx < count; ++idx) {
+		times[idx] = start + idx*interval;
+	    }
+	}
+
+	// The expanded array may be changed in place, so from now on it is
+	// used rather than the compact form.
+	ptimes = times;
+
+	return (times);
+    }
+
     /**
      * Extends the range of this <code>TimeRange</code> by adding the input
      * <code>TimeRange</code> to the end.
@@ -2181,6 +2406,44 @@ public final class TimeRange
 	return (true);
     }
 
+    /**
+     * Finds the interval of a regular run of point times.
+     * <p>
+     * The times form a regular run if each one is exactly equal to the first
+     * time plus its index times the interval.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param timesI  the point times.
+     * @return the interval or <code>Double.NaN</code> if the times are not a
+     *	       regular run.
+     * @see #expandTimes()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private static final double findRegularInterval(double[] timesI) {
+	double intervalR = ((timesI[timesI.length - 1] - timesI[0])/
+			    (timesI.length - 1));
+
+	for (int idx = 1; idx < timesI.length; ++idx) {
+	    if (timesI[0] + idx*intervalR != timesI[idx]) {
+		return (Double.NaN);
+	    }
+	}
+
+	return (intervalR);
+    }
+
     /**
      * Determines how time is changing across this <code>TimeRange</code>.
      * <p>
@@ -2325,7 +2588,7 @@ public final class TimeRange
      * @return the minimum and maximum times of this <code>TimeRange</code> as
      * an array. 
      * @since V2.0
-     * @version 11/07/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -2333,6 +2596,7 @@ public final class TimeRange
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Increasing limits do not expand compact times.
      * 11/30/2000  INB	Created.
      *
      */
@@ -2350,8 +2614,8 @@ public final class TimeRange
 	double[] valuesR = new double[2];
 
 	if (changing == INCREASING) {
-	    valuesR[0] = getPtimes()[0];
-	    valuesR[1] = (getPtimes()[getNptimes() - 1] +
+	    valuesR[0] = getTime();
+	    valuesR[1] = (getPointTime(getNptimes() - 1,0) +
 			  addDuration);
 
 	} else if (changing == DECREASING) {
@@ -2386,7 +2650,7 @@ public final class TimeRange
      * @see #set(double[])
      * @see #set(double[],double)
      * @since V2.0
-     * @version 05/22/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -2394,11 +2658,15 @@ public final class TimeRange
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Read the times once.
+     * 10/18/2026  JRS	Count compact times.
      * 11/30/2000  INB	Created.
      *
      */
     public final int getNptimes() {
-	return ((ptimes == null) ? 0 : ptimes.length);
+	double[] times = ptimes;
+
+	return ((times == null) ? compactCount : times.length);
     }
 
     /**
@@ -2437,7 +2705,7 @@ public final class TimeRange
      *		  <li>0 <= pointI < nPointsI is not true.</li>
      *		  </ul>
      * @since V2.0
-     * @version 01/25/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -2445,6 +2713,7 @@ public final class TimeRange
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Compute the time of a point in a regular run.
      * 11/30/2000  INB	Created.
      *
      */
@@ -2477,6 +2746,10 @@ public final class TimeRange
 	    // duration, and number of data points.
 	    valueR = getTime() + getDuration()*pointI/nPoints;
 
+	} else if (isCompact() && (deltaTimes == null)) {
+	    // A regular run is not expanded to get one of its times.
+	    valueR = regularStart + pointI*regularInterval;
+
 	} else {
 	    // With individual times, grab the appropriate one.
 	    valueR = getPtimes()[pointI];
@@ -2496,7 +2769,7 @@ public final class TimeRange
      * @see #set(double[],double)
      * @see #setPtimes(double[])
      * @since V2.0
-     * @version 05/22/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -2504,11 +2777,19 @@ public final class TimeRange
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Read the times once so that a concurrent expansion
+     *			cannot be missed.
+     * 10/18/2026  JRS	Expand compact times.
      * 11/30/2000  INB	Created.
      *
      */
     public final double[] getPtimes() {
-	return (ptimes);
+	double[] ptimesR = ptimes;
+
+	if ((ptimesR == INHERIT_TIMES) && (compactCount > 0)) {
+	    ptimesR = expandTimes();
+	}
+	return (ptimesR);
     }
 
     /**
@@ -2519,7 +2800,7 @@ public final class TimeRange
      *
      * @return the time.
      * @since V2.0
-     * @version 04/12/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -2527,13 +2808,40 @@ public final class TimeRange
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Return the start of a regular run.
      * 11/30/2000  INB	Created.
      *
      */
     public final double getTime() {
-	return (ptimes[0]);
+	if (isCompact() && (deltaTimes == null)) {
+	    return (regularStart);
+	}
+	return (getPtimes()[0]);
     }
 
+    /**
+     * Are the point times held in compact form?
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return are the times a regular run or delta-encoded?
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final boolean isCompact() {
+	return ((ptimes == INHERIT_TIMES) && (compactCount > 0));
+    }
+
     /**
      * Inclusive of both ends of range?
      * <p>
@@ -3934,7 +4242,7 @@ if (requestI.getTimeRange().getDuration() == 0.0) {
      *		  thrown if there is an error reading the input stream.
      * @see #write(com.rbnb.api.TimeRange,String[],int,com.rbnb.api.OutputStream,com.rbnb.api.DataOutputStream)
      * @since V2.0
-     * @version 11/06/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -3942,6 +4250,7 @@ if (requestI.getTimeRange().getDuration() == 0.0) {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Read regular runs and delta-encoded times.
      * 07/26/2001  INB	Created.
      *
      */
@@ -3983,6 +4292,20 @@ if (requestI.getTimeRange().getDuration() == 0.0) {
 		setPtimes(new double[1]);
 		getPtimes()[0] = isI.readDouble();
 		break;
+
+	    case PAR_REG:
+		setPtimes(INHERIT_TIMES);
+		regularStart = isI.readDouble();
+		regularInterval = isI.readDouble();
+		compactCount = isI.readInt();
+		break;
+
+	    case PAR_DLT:
+		setPtimes(INHERIT_TIMES);
+		compactCount = isI.readInt();
+		deltaTimes = new byte[isI.readInt()];
+		isI.readFully(deltaTimes);
+		break;
 	    }
 	}
 
@@ -3990,8 +4313,19 @@ if (requestI.getTimeRange().getDuration() == 0.0) {
 	    if (!seen[PAR_DUR]) {
 		setDuration(otherI.getDuration());
 	    }
-	    if (!seen[PAR_PTM] && !seen[PAR_STA]) {
-		setPtimes((double[]) otherI.getPtimes().clone());
+	    if (!seen[PAR_PTM] &&
+		!seen[PAR_STA] &&
+		!seen[PAR_REG] &&
+		!seen[PAR_DLT]) {
+		if (otherI.isCompact()) {
+		    setPtimes(INHERIT_TIMES);
+		    compactCount = otherI.compactCount;
+		    deltaTimes = otherI.deltaTimes;
+		    regularInterval = otherI.regularInterval;
+		    regularStart = otherI.regularStart;
+		} else {
+		    setPtimes((double[]) otherI.getPtimes().clone());
+		}
 	    }
 	    if (!seen[PAR_INC]) {
 		setInclusive(otherI.getInclusive());
@@ -4223,7 +4557,7 @@ if (requestI.getTimeRange().getDuration() == 0.0) {
      * @param ptimesI  the new point times array.
      * @see #getPtimes()
      * @since V2.0
-     * @version 05/31/2001
+     * @version 10/18/2026
      */
 
     /*
@@ -4231,11 +4565,14 @@ if (requestI.getTimeRange().getDuration() == 0.0) {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Drop any compact times.
      * 11/30/2000  INB	Created.
      *
      */
     public final void setPtimes(double[] ptimesI) {
 	ptimes = ptimesI;
+	compactCount = 0;
+	deltaTimes = null;
     }
 
     /**
@@ -4463,7 +4800,7 @@ try {
      *		  thrown if there is a problem writing to the stream.
      * @see #read(com.rbnb.api.TimeRange,com.rbnb.api.InputStream,com.rbnb.api.DataInputStream)
      * @since V2.0
-     * @version 11/20/2002
+     * @version 10/18/2026
      */
 
     /*
@@ -4471,6 +4808,8 @@ try {
      *   Date      By	Description
      * MM/DD/YYYY
      * ----------  --	-----------
+     * 10/18/2026  JRS	Write multiple point times in compact form when the
+     *			other end supports it.
      * 07/26/2001  INB	Created.
      *
      */
@@ -4488,12 +4827,28 @@ try {
 	} else {
 	    trChanged =
 		(getInclusive() != otherI.getInclusive()) ||
-		(getDuration() != otherI.getDuration()) ||
-		(getPtimes() == otherI.getPtimes());
-	    if (!trChanged) {
-		trChanged = getNptimes() != otherI.getNptimes();
-		for (int idx = 0; !trChanged && (idx < getNptimes()); ++idx) {
-		    trChanged = getPtimes()[idx] != otherI.getPtimes()[idx];
+		(getDuration() != otherI.getDuration());
+	    if (!trChanged &&
+		isCompact() &&
+		otherI.isCompact() &&
+		((deltaTimes == null) == (otherI.deltaTimes == null))) {
+		// Compact times in the same form are compared without
+		// expanding them.
+		trChanged =
+		    (compactCount != otherI.compactCount) ||
+		    ((deltaTimes == null) ?
+		     ((regularStart != otherI.regularStart) ||
+		      (regularInterval != otherI.regularInterval)) :
+		     !java.util.Arrays.equals(deltaTimes,otherI.deltaTimes));
+	    } else if (!trChanged) {
+		trChanged = (getPtimes() == otherI.getPtimes());
+		if (!trChanged) {
+		    trChanged = getNptimes() != otherI.getNptimes();
+		    for (int idx = 0;
+			 !trChanged && (idx < getNptimes());
+			 ++idx) {
+			trChanged = getPtimes()[idx] != otherI.getPtimes()[idx];
+		    }
 		}
 	    }
 	}
@@ -4518,6 +4873,13 @@ try {
 		osI.writeParameter(PARAMETERS,PAR_STA);
 		osI.writeDouble(getTime());
 
+	    } else if ((getNptimes() > 1) &&
+		       IsSupported.isSupported
+		       (IsSupported.FEATURE_COMPACT_TIMES,
+			osI.getBuildVersion(),
+			osI.getBuildDate())) {
+		writeCompactTimes(osI);
+
 	    } else if (getPtimes() != INHERIT_TIMES) {
 		osI.writeParameter(PARAMETERS,PAR_PTM);
 		osI.writeInt(getNptimes());
@@ -4528,4 +4890,89 @@ try {
 	    Serialize.writeCloseBracket(osI);
 	}
     }
+
+    /**
+     * Writes multiple point times in the most compact form that represents
+     * them exactly.
+     * <p>
+     * The times are written as one of:
+     * <p><ul>
+     * <li>a regular run (start, interval, and count) if each time is the
+     *     start plus its index times the interval,</li>
+     * <li>delta-encoded times on a binary stream if that is smaller than the
+     *     times themselves, or</li>
+     * <li>the individual times.</li>
+     * </ul><p>
+     * Times that were read in compact form are written back out in that form
+     * without being expanded.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param osI  the output stream.
+     * @exception java.io.IOException
+     *		  thrown if there is a problem writing to the stream.
+     * @see #encodeDeltas(double[])
+     * @see #findRegularInterval(double[])
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private final void writeCompactTimes(OutputStream osI)
+	throws java.io.IOException
+    {
+	double[] times = null;
+	double interval;
+	byte[] deltas = null;
+
+	if (!isCompact()) {
+	    times = getPtimes();
+	    interval = findRegularInterval(times);
+	} else if (deltaTimes == null) {
+	    interval = regularInterval;
+	} else if (osI.getBinary()) {
+	    interval = Double.NaN;
+	    deltas = deltaTimes;
+	} else {
+	    times = getPtimes();
+	    interval = findRegularInterval(times);
+	}
+
+	if (!Double.isNaN(interval)) {
+	    osI.writeParameter(PARAMETERS,PAR_REG);
+	    osI.writeDouble(getTime());
+	    osI.writeDouble(interval);
+	    osI.writeInt(getNptimes());
+	    return;
+	}
+
+	if ((deltas == null) && osI.getBinary()) {
+	    deltas = encodeDeltas(times);
+	    if (deltas.length + 4 >= 8*times.length) {
+		deltas = null;
+	    }
+	}
+
+	if (deltas != null) {
+	    osI.writeParameter(PARAMETERS,PAR_DLT);
+	    osI.writeInt(getNptimes());
+	    osI.writeInt(deltas.length);
+	    osI.write(deltas,0,deltas.length);
+
+	} else {
+	    osI.writeParameter(PARAMETERS,PAR_PTM);
+	    osI.writeInt(times.length);
+	    for (int idx = 0; idx < times.length; ++idx) {
+		osI.writeDouble(times[idx]);
+	    }
+	}
+    }
 }
@@ -0,0 +1,540 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.rbnb.api;
+
+/**
+ * Wire protocol negotiation message.
+ * <p>
+ * Once a client has logged in and connected its data stream, it can offer
+ * to switch the connection from the legacy protocol to a newer one.  The
+ * offer carries the highest version the client understands; the server
+ * answers with the version that both sides will use.  Both sides switch
+ * once the answer has been written.  A version of <code>LEGACY</code>
+ * leaves the connection as it was.
+ * <p>
+ * The offer is only made when the client is run with
+ * <code>-Dcom.rbnb.api.WireProtocol.framed=true</code> and the server is
+ * new enough to understand it, so old clients and old servers keep using
+ * the legacy protocol.  A server run with
+ * <code>-Dcom.rbnb.api.WireProtocol.legacyOnly=true</code> turns down all
+ * offers.
+ * <p>
+ * An offer can also ask for the data stream to be compressed (see
+ * <code>Client.setCompression</code>), which requires the framed protocol.
+ * The server answers with the compression that it will use, which is
+ * <code>Client.COMPRESS_NONE</code> if it stays with the legacy protocol.
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @see com.rbnb.api.Language#setProtocol(int)
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ * Copyright 2026 Creare Inc.
+ * All Rights Reserved
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Added data stream compression.
+ * 10/18/2026  JRS	Created.
+ *
+ */
+final class WireProtocol
+    extends com.rbnb.api.Serializable
+{
+    /**
+     * the legacy bracketed, parameter-coded protocol.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int LEGACY = 0;
+
+    /**
+     * the length-prefixed, framed protocol.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    final static int FRAMED = 1;
+
+    /**
+     * the protocol version.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int version = LEGACY;
+
+    /**
+     * the data stream compression mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+    private int compression = Client.COMPRESS_NONE;
+
+    private final static int PAR_VER = 0;
+    private final static int PAR_CMP = 1;
+
+    private final static String[] PARAMETERS = {
+			    "VER",
+			    "CMP"
+			};
+
+    /**
+     * Class constructor.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    WireProtocol() {
+	super();
+    }
+
+    /**
+     * Class constructor to build a <code>WireProtocol</code> for a version.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param versionI the protocol version.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    WireProtocol(int versionI) {
+	this();
+	setVersion(versionI);
+    }
+
+    /**
+     * Class constructor to build a <code>WireProtocol</code> for a version
+     * and compression mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param versionI     the protocol version.
+     * @param compressionI the data stream compression mode.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    WireProtocol(int versionI,int compressionI) {
+	this(versionI);
+	setCompression(compressionI);
+    }
+
+    /**
+     * Class constructor to build a <code>WireProtocol</code> object from the
+     * specified input streams.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param isI   the control input stream.
+     * @param disI  the data input stream.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization. For
+     *		  example, a missing bracket.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.IOException
+     *		  thrown if there is an error reading the input stream.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the read is interrupted.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    WireProtocol(InputStream isI,DataInputStream disI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	this();
+	read(isI,disI);
+    }
+
+    /**
+     * Builds the answer that a server makes to an offer.
+     * <p>
+     * Compression is only accepted along with the framed protocol.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param offerI the <code>WireProtocol</code> offered by the client.
+     * @return the answer.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Added compression.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static WireProtocol accept(WireProtocol offerI) {
+	if (Boolean.getBoolean("com.rbnb.api.WireProtocol.legacyOnly")) {
+	    return (new WireProtocol(LEGACY));
+	}
+
+	int versionR = Math.max(LEGACY,Math.min(offerI.getVersion(),FRAMED)),
+	    compressionR = offerI.getCompression();
+	if ((versionR == LEGACY) ||
+	    (compressionR < Client.COMPRESS_NONE) ||
+	    (compressionR > Client.COMPRESS_DEFLATE)) {
+	    compressionR = Client.COMPRESS_NONE;
+	}
+
+	return (new WireProtocol(versionR,compressionR));
+    }
+
+    /**
+     * Gets the data stream compression mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the compression mode.
+     * @see #setCompression(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int getCompression() {
+	return (compression);
+    }
+
+
+    /**
+     * Gets the version that a client should offer.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the version, or <code>LEGACY</code> if the client should not
+     *	       make an offer.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final static int getOffer() {
+	return (Boolean.getBoolean("com.rbnb.api.WireProtocol.framed") ?
+		FRAMED :
+		LEGACY);
+    }
+
+    /**
+     * Gets the protocol version.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the version.
+     * @see #setVersion(int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final int getVersion() {
+	return (version);
+    }
+
+    /**
+     * Reads the object from an input stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param isI   the input stream.
+     * @param disI  the data input stream.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization. For
+     *		  example, a missing bracket.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if this operation is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is an error reading the input stream.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the read is interrupted.
+     * @see #write(String[],int,com.rbnb.api.OutputStream,com.rbnb.api.DataOutputStream)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Added compression.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void read(InputStream isI,DataInputStream disI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	// Read the open bracket marking the start of the
+	// <code>WireProtocol</code>.
+	Serialize.readOpenBracket(isI);
+
+	int parameter;
+	while ((parameter = Serialize.readParameter(PARAMETERS,isI)) != -1) {
+	    switch (parameter) {
+	    case PAR_VER:
+		setVersion(isI.readInt());
+		break;
+
+	    case PAR_CMP:
+		setCompression(isI.readInt());
+		break;
+	    }
+	}
+    }
+
+    /**
+     * Sets the data stream compression mode.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param compressionI the compression mode.
+     * @see #getCompression()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void setCompression(int compressionI) {
+	compression = compressionI;
+    }
+
+
+    /**
+     * Sets the protocol version.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param versionI the version.
+     * @see #getVersion()
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void setVersion(int versionI) {
+	version = versionI;
+    }
+
+    /**
+     * Gets a displayable string representation of this
+     * <code>WireProtocol</code>.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the string representation.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Added compression.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public final String toString() {
+	return ("WireProtocol: version " + getVersion() +
+		", compression " + getCompression());
+    }
+
+    /**
+     * Writes this <code>WireProtocol</code> to the specified stream.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param parametersI  our parameter list.
+     * @param parameterI   the parameter index.
+     * @param osI	   the output stream.
+     * @param dosI	   the data output stream.
+     * @exception com.rbnb.api.AddressException
+     *		  thrown if there is a problem with an address.
+     * @exception com.rbnb.api.SerializeException
+     *		  thrown if there is a problem with the serialization.
+     * @exception java.io.EOFException
+     *		  thrown if the end of the input stream is reached.
+     * @exception java.io.InterruptedIOException
+     *		  thrown if this operation is interrupted during I/O.
+     * @exception java.io.IOException
+     *		  thrown if there is an I/O problem.
+     * @exception java.lang.InterruptedException
+     *		  thrown if the operation is interrupted.
+     * @see #read(com.rbnb.api.InputStream,com.rbnb.api.DataInputStream)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Added compression.
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    final void write(String[] parametersI,
+		     int parameterI,
+		     OutputStream osI,
+		     DataOutputStream dosI)
+	throws com.rbnb.api.AddressException,
+	       com.rbnb.api.SerializeException,
+	       java.io.EOFException,
+	       java.io.InterruptedIOException,
+	       java.io.IOException,
+	       java.lang.InterruptedException
+    {
+	osI.writeParameter(parametersI,parameterI);
+	Serialize.writeOpenBracket(osI);
+
+	osI.writeParameter(PARAMETERS,PAR_VER);
+	osI.writeInt(getVersion());
+
+	if (getCompression() != Client.COMPRESS_NONE) {
+	    osI.writeParameter(PARAMETERS,PAR_CMP);
+	    osI.writeInt(getCompression());
+	}
+
+	Serialize.writeCloseBracket(osI);
+    }
+}
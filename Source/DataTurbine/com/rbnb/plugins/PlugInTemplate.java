@@ -27,6 +27,9 @@ limitations under the License.
 		restarting it.
 	2007/11/15  WHF  Added showHelper() and argHelper().
 	2008/02/07  WHF  Added timeout argument to showHelper and argHelper.
+	2026/10/18  JRS  Requests are answered by a bounded pool of worker threads
+		instead of a new thread each, with a request timeout and
+		queue/active/rejected counts.  The one sink is now connected.
 */
 
 package com.rbnb.plugins;
@@ -34,6 +37,12 @@ package com.rbnb.plugins;
 import java.util.Hashtable;
 import java.util.Properties;
 import java.util.Stack;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.rbnb.sapi.*;
 
@@ -109,6 +118,24 @@ public abstract class PlugInTemplate
 		if (registeredChannels.NumberOfChannels() != 0)
 			pi.Register(registeredChannels);
 		
+		executor = new ThreadPoolExecutor(
+				maxThreads,
+				maxThreads,
+				60,
+				TimeUnit.SECONDS,
+				new ArrayBlockingQueue(maxQueuedRequests),
+				new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						return new Thread(
+								r,
+								PlugInTemplate.this.getClass().getName()
+										+" AnswerRequest"
+						);
+					}
+				}
+		);
+		executor.allowCoreThreadTimeOut(true);
+		
 		synchronized (this) {
 			notifyAll();
 		}
@@ -195,6 +222,77 @@ public abstract class PlugInTemplate
 	public final long getTimeout() { return timeout; }
 	public final void setTimeout(long timeout) { this.timeout = timeout; }
 
+	/**
+	  * The maximum number of requests answered at once.  Each worker thread
+	  *  keeps its own Sink for forwarding, so this also bounds the number of
+	  *  sink connections.  The default is twice the number of processors,
+	  *  but at least eight.  Takes effect when the PlugIn is started.
+	  */
+	public final int getMaxThreads() { return maxThreads; }
+	public final void setMaxThreads(int maxThreads)
+	{
+		if (maxThreads < 1) throw new IllegalArgumentException(
+				"At least one thread is required.");
+		this.maxThreads = maxThreads;
+	}
+	
+	/**
+	  * The maximum number of requests waiting for a free worker thread.
+	  *  Requests arriving when the queue is full are answered immediately
+	  *  with no data.  The default is 1024.  Takes effect when the PlugIn is 
+	  *  started.
+	  * @see #getRejectedRequests()
+	  */
+	public final int getMaxQueuedRequests() { return maxQueuedRequests; }
+	public final void setMaxQueuedRequests(int maxQueuedRequests)
+	{
+		if (maxQueuedRequests < 1) throw new IllegalArgumentException(
+				"The queue must hold at least one request.");
+		this.maxQueuedRequests = maxQueuedRequests;
+	}
+	
+	/**
+	  * Time (in ms) a request may wait for a free worker thread.  Requests
+	  *  which wait longer are answered with no data, as by then the client
+	  *  has usually given up.  The default is -1 (forever).
+	  * @see #getTimedOutRequests()
+	  */
+	public final long getRequestTimeout() { return requestTimeout; }
+	public final void setRequestTimeout(long requestTimeout)
+	{ this.requestTimeout = requestTimeout; }
+	
+	/**
+	  * The number of requests waiting for a free worker thread.
+	  */
+	public final int getQueuedRequests()
+	{
+		ThreadPoolExecutor ex = executor;
+		return ex == null ? 0 : ex.getQueue().size();
+	}
+	
+	/**
+	  * The number of requests being answered.
+	  */
+	public final int getActiveRequests() 
+	{
+		ThreadPoolExecutor ex = executor;
+		return ex == null ? 0 : ex.getActiveCount();
+	}
+	
+	/**
+	  * The number of requests turned away since the PlugIn was created
+	  *  because the queue was full.
+	  * @see #getMaxQueuedRequests()
+	  */
+	public final long getRejectedRequests() { return rejectedRequests.get(); }
+	
+	/**
+	  * The number of requests abandoned since the PlugIn was created
+	  *  because they waited longer than the request timeout.
+	  * @see #getRequestTimeout()
+	  */
+	public final long getTimedOutRequests() { return timedOutRequests.get(); }
+
 	/**
 	  * If true, one sink is used to get all forwarding data.  Otherwise,
 	  *  one sink is used per thread created to handle an incoming request.
@@ -279,6 +377,8 @@ public abstract class PlugInTemplate
 	  *  callback methods of this class.
 	  * <p><strong>NOTE:</strong> If the useOneSink property is true, 
 	  *  you should synchronize on the Sink object returned by this method.
+	  *  Otherwise the Sink belongs to the worker thread, and is reused
+	  *  by later requests answered on it.
 	  * @return The Sink instance for the current thread, 
 	  * @throws SAPIException if the sink is new and needs to be connected,
 	  *  but failed.
@@ -427,6 +527,30 @@ public abstract class PlugInTemplate
 	}	
 	
 //***************************  Private  Methods  ****************************//
+	/**
+	  * Answers a request with no data, so the client does not hang.
+	  */
+	private void answerEmpty(PlugInChannelMap requestMap)
+	{
+		try {
+			if (isRunning()) pi.Flush(requestMap);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	  * Ensures the one sink is connected.  Call while synchronized on it.
+	  */
+	private Sink connectGlobalSink() throws SAPIException
+	{
+		if (!globalSink.VerifyConnection()) {
+			globalSink.CloseRBNBConnection();
+			globalSink.OpenRBNBConnection(host, name+"Sink", user, pass);
+		}
+		return globalSink;
+	}
+	
 	private void addChannel(ChannelMap src, int srcIndex, ChannelMap dest)
 		throws SAPIException
 	{
@@ -459,12 +583,12 @@ public abstract class PlugInTemplate
 						if (debugFlag) 
 							System.err.println(
 									"PlugInTemplate: received request: "+map);
-						AnswerRequest a;
-						if (threadStack.empty())
-							a = new AnswerRequest();
-						else
-							a = (AnswerRequest) threadStack.pop();
-						a.answerRequest(map);
+						try {
+							executor.execute(new QueuedRequest(map));
+						} catch (RejectedExecutionException ree) {
+							rejectedRequests.incrementAndGet();
+							answerEmpty(map);
+						}
 						map=new PlugInChannelMap(); // use new map
 					} else map.Clear();
 				}
@@ -474,8 +598,16 @@ public abstract class PlugInTemplate
 				if (running) se.printStackTrace(); 
 			}
 			finally { 
+				// Let the requests in hand finish before closing:
+				executor.shutdown();
+				try {
+					executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+				} catch (InterruptedException ie) {}
 				while (!threadStack.empty())
 					((AnswerRequest) threadStack.pop()).close();
+				synchronized (globalSink) {
+					globalSink.CloseRBNBConnection();
+				}
 				pi.CloseRBNBConnection();
 				running = false;
 				myThread = null;
@@ -509,9 +641,46 @@ public abstract class PlugInTemplate
 		private volatile boolean running;
 		private Thread myThread;
 	} // end inner class Slave
+	
+	/**
+	  * A request waiting for a free worker thread.  An AnswerRequest, and so
+	  *  a Sink, is only taken from the pool once the request runs, so there
+	  *  are never more of them than worker threads.
+	  */
+	private class QueuedRequest implements Runnable
+	{
+		QueuedRequest(PlugInChannelMap requestMap)
+		{
+			this.requestMap = requestMap;
+			queuedAt = System.currentTimeMillis();
+		}
+		
+		public final void run()
+		{
+			if (requestTimeout >= 0
+					&& System.currentTimeMillis() - queuedAt > requestTimeout) {
+				timedOutRequests.incrementAndGet();
+				answerEmpty(requestMap);
+				return;
+			}
+			AnswerRequest a;
+			synchronized (threadStack) {
+				if (threadStack.empty())
+					a = new AnswerRequest();
+				else
+					a = (AnswerRequest) threadStack.pop();
+			}
+			a.answerRequest(requestMap);
+		}
+		
+		private final PlugInChannelMap requestMap;
+		private final long queuedAt;
+	} // end inner class QueuedRequest
 		
 	/**
 	  * Instances of this class are created to handle incoming PlugIn requests.
+	  *  They are pooled, each one keeping its user object and Sink between
+	  *  requests.
 	  */
 	private class AnswerRequest implements Runnable
 	{
@@ -536,15 +705,15 @@ public abstract class PlugInTemplate
 			userInstance = temporary;
 		}
 		
+		/**
+		  * Answers the request on the current (worker) thread.
+		  */
 		final void answerRequest(PlugInChannelMap requestMap)
 		{ 
 			this.requestMap=requestMap;
 			parseOptions(requestMap);
-			(thread = new Thread(
-					this,
-					PlugInTemplate.this.getClass().getName()
-							+" AnswerRequest"
-			)).start();
+			thread = Thread.currentThread();
+			run();
 		}
 		
 		public final void run()
@@ -561,7 +730,7 @@ public abstract class PlugInTemplate
 						if (oneSink) {
 							synchronized (globalSink) {
 								map = getForwardData(
-										globalSink,
+										connectGlobalSink(),
 										map,
 										requestMap
 								);
@@ -670,7 +839,14 @@ public abstract class PlugInTemplate
 		  *  but failed.
 		  */
 		final Sink getSink() throws SAPIException
-		{ return oneSink ? globalSink : connect(); }
+		{
+			if (oneSink) {
+				synchronized (globalSink) {
+					return connectGlobalSink();
+				}
+			}
+			return connect();
+		}
 		
 		final Properties getRequestOptions() { return requestOptions; }
 		
@@ -699,6 +875,11 @@ public abstract class PlugInTemplate
 				+"\t-n name                 Client name (class name)\n"
 				+"\t-to timeout             Timeout in ms to wait for request"
 						+" (inf)\n"
+				+"\t-th threads             Maximum requests answered at once"
+						+" (2 x cpus)\n"
+				+"\t-mq queue               Maximum requests waiting (1024)\n"
+				+"\t-rto timeout            Timeout in ms for a request to"
+						+" wait (inf)\n"
 		);
 	}
 	
@@ -730,6 +911,21 @@ public abstract class PlugInTemplate
 				pit.setTimeout(Long.parseLong(args[++ii]));
 				used[ii] = true;
 				usedCount += 2;
+			} else if ("-th".equals(args[ii])) {
+				used[ii] = true;
+				pit.setMaxThreads(Integer.parseInt(args[++ii]));
+				used[ii] = true;
+				usedCount += 2;
+			} else if ("-mq".equals(args[ii])) {
+				used[ii] = true;
+				pit.setMaxQueuedRequests(Integer.parseInt(args[++ii]));
+				used[ii] = true;
+				usedCount += 2;
+			} else if ("-rto".equals(args[ii])) {
+				used[ii] = true;
+				pit.setRequestTimeout(Long.parseLong(args[++ii]));
+				used[ii] = true;
+				usedCount += 2;
 			}
 		}
 		
@@ -750,7 +946,11 @@ public abstract class PlugInTemplate
 			name = getClass().getName(),
 			user, pass, channelToReg,
 			serverName;
-	private long timeout = -1;
+	private long timeout = -1, requestTimeout = -1;
+	private int maxThreads = Math.max(
+			8,
+			2 * Runtime.getRuntime().availableProcessors()),
+			maxQueuedRequests = 1024;
 	private boolean oneSink = false, forwardRequests = true, 
 			forwardRequestData = true;
 	private Class userClass;
@@ -760,6 +960,12 @@ public abstract class PlugInTemplate
 	private final PlugIn pi = new PlugIn();
 	private final Slave slave = new Slave();
 	private final Sink globalSink = new Sink();
+	/**
+	  * Answers requests; created by start().
+	  */
+	private volatile ThreadPoolExecutor executor;
+	private final AtomicLong rejectedRequests = new AtomicLong(),
+			timedOutRequests = new AtomicLong();
 	private final ChannelMap registeredChannels = new ChannelMap();
 	/**
 	  * Stores a mapping between answer request threads and user data objects.
@@ -73,6 +73,11 @@ import com.rbnb.api.*;
  * 2005/09/01  EMF  Added serializaton methods, so just underlying RMap is saved.
  * 2007/04/03  WHF  Added AddPlugInOption().
  * 2007/11/15  WHF  Added GetDataAsArray().
+ * 2026/10/18  JRS  GetData converts numbers in bulk through ByteConvert.
+ * 2026/10/18  JRS  Added reprocessResult and the GetTimes, GetData, and
+ *                  GetDataAs methods that copy into caller buffers.
+ *                  GetFolderList extracts the folders on demand after
+ *                  reprocessResult.
  */
 
 public class ChannelMap implements java.io.Serializable
@@ -348,6 +353,43 @@ public class ChannelMap implements java.io.Serializable
 		return times;
 	}
 
+	/**
+	  * Copies the times for each data point for the specified channel
+	  *  into an array owned by the caller.
+	  * <p>Together with {@link Sink#Fetch(long,ChannelMap,boolean)}, this
+	  *  lets a sink follow a steady subscription without creating new
+	  *  arrays for each fetch.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The array to copy the times into.
+     * @param offset The index in <code>dest</code> of the first time.
+     * @return The number of times copied.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds, or
+     *	if <code>dest</code> is too small.
+     * @see #GetTimes(int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetTimes(int index, double[] dest, int offset)
+	{
+		double[] times=((Channel) channelList.elementAt(index)).dArray.getTime();
+		if (times==null) return 0;
+		System.arraycopy(times, 0, dest, offset, times.length);
+		return times.length;
+	}
+
 	/**
 	  * Yields the start time of this channel's data.  Should only be 
 	  *   on the map resulting from a <code>Fetch()</code>.
@@ -719,6 +761,296 @@ public class ChannelMap implements java.io.Serializable
 	public Object GetDataAsArray(int index)
 	{ return getData(index); }
 
+	/**
+	  * Copies the channel data as doubles into an array owned by the
+	  *  caller.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The array to copy the data into.
+     * @param offset The index in <code>dest</code> of the first point.
+     * @return The number of points copied.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds, or
+     *	if <code>dest</code> is too small.
+     * @exception ClassCastException Channel data is not the correct type.
+     * @see #GetDataAsFloat64(int)
+     * @see #GetTimes(int,double[],int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetDataAsFloat64(int index, double[] dest, int offset)
+	{ return copyData(index, dest, offset); }
+
+	/**
+	  * Copies the channel data as floats into an array owned by the
+	  *  caller.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The array to copy the data into.
+     * @param offset The index in <code>dest</code> of the first point.
+     * @return The number of points copied.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds, or
+     *	if <code>dest</code> is too small.
+     * @exception ClassCastException Channel data is not the correct type.
+     * @see #GetDataAsFloat32(int)
+     * @see #GetTimes(int,double[],int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetDataAsFloat32(int index, float[] dest, int offset)
+	{ return copyData(index, dest, offset); }
+
+	/**
+	  * Copies the channel data as longs into an array owned by the
+	  *  caller.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The array to copy the data into.
+     * @param offset The index in <code>dest</code> of the first point.
+     * @return The number of points copied.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds, or
+     *	if <code>dest</code> is too small.
+     * @exception ClassCastException Channel data is not the correct type.
+     * @see #GetDataAsInt64(int)
+     * @see #GetTimes(int,double[],int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetDataAsInt64(int index, long[] dest, int offset)
+	{ return copyData(index, dest, offset); }
+
+	/**
+	  * Copies the channel data as ints into an array owned by the
+	  *  caller.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The array to copy the data into.
+     * @param offset The index in <code>dest</code> of the first point.
+     * @return The number of points copied.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds, or
+     *	if <code>dest</code> is too small.
+     * @exception ClassCastException Channel data is not the correct type.
+     * @see #GetDataAsInt32(int)
+     * @see #GetTimes(int,double[],int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetDataAsInt32(int index, int[] dest, int offset)
+	{ return copyData(index, dest, offset); }
+
+	/**
+	  * Copies the channel data as shorts into an array owned by the
+	  *  caller.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The array to copy the data into.
+     * @param offset The index in <code>dest</code> of the first point.
+     * @return The number of points copied.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds, or
+     *	if <code>dest</code> is too small.
+     * @exception ClassCastException Channel data is not the correct type.
+     * @see #GetDataAsInt16(int)
+     * @see #GetTimes(int,double[],int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetDataAsInt16(int index, short[] dest, int offset)
+	{ return copyData(index, dest, offset); }
+
+	/**
+	  * Copies the channel data as bytes into an array owned by the
+	  *  caller.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The array to copy the data into.
+     * @param offset The index in <code>dest</code> of the first point.
+     * @return The number of points copied.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds, or
+     *	if <code>dest</code> is too small.
+     * @exception ClassCastException Channel data is not the correct type.
+     * @see #GetDataAsInt8(int)
+     * @see #GetTimes(int,double[],int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetDataAsInt8(int index, byte[] dest, int offset)
+	{ return copyData(index, dest, offset); }
+
+	/**
+	  * Puts the channel data as doubles into a buffer owned by the caller.
+	  * <p>The data is put at the buffer's current position, which is then
+	  *  advanced past it.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The buffer to put the data into.
+     * @return The number of points put.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds.
+     * @exception java.nio.BufferOverflowException If there is not enough
+     *	room left in <code>dest</code>.
+     * @exception ClassCastException Channel data is not the correct type.
+     * @see #GetDataAsFloat64(int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetDataAsFloat64(int index, java.nio.DoubleBuffer dest)
+	{
+		double[] data=(double[]) getData(index);
+		if (data==null) return 0;
+		dest.put(data);
+		return data.length;
+	}
+
+	/**
+	  * Puts the channel data into a byte buffer owned by the caller.
+	  * <p>Numeric data is put in the byte order of <code>dest</code>,
+	  *  rather than the local machine order used by {@link #GetData(int)}.
+	  *  Other data is put as the bytes returned by
+	  *  <code>GetData(int)</code>.  The data is put at the buffer's current
+	  *  position, which is then advanced past it.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param index The channel index.
+     * @param dest The buffer to put the data into.
+     * @return The number of bytes put.
+     * @exception ArrayIndexOutOfBoundsException If index out of bounds.
+     * @exception java.nio.BufferOverflowException If there is not enough
+     *	room left in <code>dest</code>.
+     * @see #GetData(int)
+     * @since V3.6
+     * @version 2026/10/18
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 2026/10/18  JRS	Created.
+     *
+     */
+	public int GetData(int index, java.nio.ByteBuffer dest)
+	{
+		Object data=getData(index);
+		if (data == null) {
+			return 0;
+		}
+
+		int nBytes;
+		Class cl=data.getClass();
+		if (cl==double[].class) {
+			nBytes=((double[]) data).length*8;
+			checkRoom(dest, nBytes);
+			dest.asDoubleBuffer().put((double[]) data);
+		} else if (cl==float[].class) {
+			nBytes=((float[]) data).length*4;
+			checkRoom(dest, nBytes);
+			dest.asFloatBuffer().put((float[]) data);
+		} else if (cl==long[].class) {
+			nBytes=((long[]) data).length*8;
+			checkRoom(dest, nBytes);
+			dest.asLongBuffer().put((long[]) data);
+		} else if (cl==int[].class) {
+			nBytes=((int[]) data).length*4;
+			checkRoom(dest, nBytes);
+			dest.asIntBuffer().put((int[]) data);
+		} else if (cl==short[].class) {
+			nBytes=((short[]) data).length*2;
+			checkRoom(dest, nBytes);
+			dest.asShortBuffer().put((short[]) data);
+		} else {
+			byte[] bytes=(cl==byte[].class ? (byte[]) data : GetData(index));
+			dest.put(bytes);
+			return bytes.length;
+		}
+		dest.position(dest.position()+nBytes);
+		return nBytes;
+	}
+
     /**
      * Get the fully qualified channel name from its index in constant time.
      * <p>
@@ -1830,7 +2162,21 @@ public class ChannelMap implements java.io.Serializable
 	  * @see Sink#RequestRegistration(ChannelMap)
 	  * @since V2.1
 	  */
-	public final String[] GetFolderList() { return folderArray; } 	
+	// 2026/10/18  JRS  Extracts the folders of a reprocessed result on
+	//   demand.
+	public final String[] GetFolderList()
+	{
+		if (folderArray==null) {
+			try {
+			folderArray=(response==null
+					? new String[0] : response.extractFolders());
+			} catch (Exception e) {
+				e.printStackTrace();
+				folderArray=new String[0];
+			}
+		}
+		return folderArray;
+	}
 	
 	/**
 	  * Convenience function to return the list of child servers contained in
@@ -2239,6 +2585,50 @@ if (debugFlag) System.err.println("Processing from fetch "+result);
 	}
 
 
+	/**
+	  * Stores this rmap in this channelmap, keeping the channel list of
+	  *  the previous fetch.  If the rmap holds the same channels in the
+	  *  same order, as each fetch of a steady subscription does, the
+	  *  channels are updated in place and their data and time arrays are
+	  *  reused.  Otherwise the map is cleared and the rmap processed by
+	  *  processResult().  The rmap is always kept for forwarding.
+	  */
+	// 2026/10/18  JRS  Created.
+	void reprocessResult(Rmap result) throws Exception
+	{
+		if (result!=null && channelList.size()>0)
+		{
+			String [] names=result.extractNames();
+			int ii=0;
+			if (names.length==channelList.size())
+			{
+				while (ii<names.length && names[ii].equals(
+						((Channel) channelList.elementAt(ii)).name))
+					++ii;
+			}
+			if (ii>0 && ii==names.length)
+			{
+if (debugFlag) System.err.println("Reprocessing from fetch "+result);
+				response=result;
+				setIfFetchTimedOut(false);
+				for (ii=0; ii<names.length; ++ii)
+				{
+					Channel ch=(Channel) channelList.elementAt(ii);
+					// See processResult() for the "." channel case:
+					ch.dArray=result.extract(
+							names[ii].length()==0?".":names[ii],
+							ch.dArray);
+				}
+				// Extracted by GetFolderList(), if it is called:
+				folderArray=null;
+				return;
+			}
+		}
+
+		Clear();
+		processResult(result, true, false);
+	}
+
 	// Also reset by Clear().
 	private void setIfFetchTimedOut(boolean wasTimeout)
 	{ this.wasTimeout=wasTimeout; }
@@ -2555,6 +2945,28 @@ Rmap rmin=(Rmap)in.readObject();
 		return ((Channel) channelList.elementAt(index)).dArray.getData();
 	}
 
+	// 2026/10/18  JRS  Copies the data into a caller's array of the same
+	//   type.
+	private int copyData(int index, Object dest, int offset)
+	{
+		Object data=getData(index);
+		if (data==null) return 0;
+		if (data.getClass()!=dest.getClass())
+			throw new ClassCastException(
+					"Channel data is "+data.getClass().getName()+".");
+		int n=java.lang.reflect.Array.getLength(data);
+		System.arraycopy(data, 0, dest, offset, n);
+		return n;
+	}
+
+	// 2026/10/18  JRS  Checks before putting into a view of a byte buffer,
+	//   which would not advance the buffer's position itself.
+	private static void checkRoom(java.nio.ByteBuffer dest, int nBytes)
+	{
+		if (dest.remaining()<nBytes)
+			throw new java.nio.BufferOverflowException();
+	}
+
 //  Source: 
 	private void onTimeModeSet()
 	{
@@ -2949,86 +3361,35 @@ Rmap rmin=(Rmap)in.readObject();
 		return size;
 	}
 
+// Conversions to the LSB byte arrays returned by GetData.  JRS 2026/10/18:
+// done in bulk by com.rbnb.utility.ByteConvert.
+
 // double2Byte method - writes doubles to byte array
 private static final byte[] double2Byte(double[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*8];
-  for (int i=0;i<length;i++) {
-    long data=Double.doubleToLongBits(inData[i]);
-    outData[j++]=(byte)(data>>>0);
-    outData[j++]=(byte)(data>>>8);
-    outData[j++]=(byte)(data>>>16);
-    outData[j++]=(byte)(data>>>24);
-    outData[j++]=(byte)(data>>>32);
-    outData[j++]=(byte)(data>>>40);
-    outData[j++]=(byte)(data>>>48);
-    outData[j++]=(byte)(data>>>56);
-  }
-  return outData;
+  return com.rbnb.utility.ByteConvert.double2Byte(inData,true);
 }
 
 //float2Byte method - writes floats to byte array
 private static final byte[] float2Byte(float[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*4];
-  for (int i=0;i<length;i++) {
-    int data=Float.floatToIntBits(inData[i]);
-    outData[j++]=(byte)(data>>>0);
-    outData[j++]=(byte)(data>>>8);
-    outData[j++]=(byte)(data>>>16);
-    outData[j++]=(byte)(data>>>24);
- }
-  return outData;
+  return com.rbnb.utility.ByteConvert.float2Byte(inData,true);
 }
 
 
-// double2Byte method - writes doubles to byte array
+// long2Byte method - writes longs to byte array
 private static final byte[] long2Byte(long[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*8];
-  for (int i=0;i<length;i++) {
-    long data=inData[i];
-    outData[j++]=(byte)(data>>>0);
-    outData[j++]=(byte)(data>>>8);
-    outData[j++]=(byte)(data>>>16);
-    outData[j++]=(byte)(data>>>24);
-    outData[j++]=(byte)(data>>>32);
-    outData[j++]=(byte)(data>>>40);
-    outData[j++]=(byte)(data>>>48);
-    outData[j++]=(byte)(data>>>56);
-  }
-  return outData;
+  return com.rbnb.utility.ByteConvert.long2Byte(inData,true);
 }
 
 
 //EMF 9/13/00: added support for integers
 //int2Byte method - writes ints to byte array
 private static final byte[] int2Byte(int[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*4];
-  for (int i=0;i<length;i++) {
-    outData[j++]=(byte)(inData[i]>>>0);
-    outData[j++]=(byte)(inData[i]>>>8);
-    outData[j++]=(byte)(inData[i]>>>16);
-    outData[j++]=(byte)(inData[i]>>>24);
-  }
-  return outData;
+  return com.rbnb.utility.ByteConvert.int2Byte(inData,true);
 }
 
 // short2Byte method - writes short ints to byte array
 private static final byte[] short2Byte(short[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*2];
-  for (int i=0;i<length;i++) {
-    outData[j++]=(byte)(inData[i]>>>0);
-    outData[j++]=(byte)(inData[i]>>>8);
-  }
-  return outData;
+  return com.rbnb.utility.ByteConvert.short2Byte(inData,true);
 }
 
 
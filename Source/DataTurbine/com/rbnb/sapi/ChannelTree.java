@@ -19,6 +19,7 @@ package com.rbnb.sapi;
 //import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -67,6 +68,7 @@ import com.rbnb.api.Rmap;
  *   Date      By	Description
  * MM/DD/YYYY
  * ----------  --	-----------
+ * 2026/10/18  JRS  Added update(ChannelTree, String, String[]).
  * 2007/12/07  WHF  Shortcuts now appear as SERVER nodes as opposed to FOLDERs.
  * 2005/10/06  WHF  Added ChannelTree.createFromChannelMap(ChannelMap, String)
  * 2005/08/10  WHF  ChannelTree.Node.equals() returns false if the input is
@@ -176,32 +178,81 @@ public final class ChannelTree implements java.io.Serializable
 	{
 		ChannelTree tree=new ChannelTree(this); //(ChannelTree) this.clone();
 	
+		tree.addMissing(toMerge);
+/*
+		recursiveMerge(
+			this.rootIterator(),
+			toMerge.rootIterator(),
+			tree.rootList,
+			null,
+			false,
+			0);
+*/		
+		return tree;
+	}
+	
+/**
+	  * Produces a new tree, which is <b>this</b> with the nodes named
+	  *  <code>parentFullName + '/' + names[i]</code>, and everything under
+	  *  them, replaced by the nodes of <code>changed</code>.
+	  * <p>This is intended for keeping a tree current with
+	  *  {@link Sink#RequestRegistrationSince(long)}: pass the tree of the
+	  *  fetched registration, the full name of the server node, and the
+	  *  changed and removed names.  Only the changed subtrees are rebuilt.
+	  *
+	  * @author John Stafford
+	  * @since V3.6
+	  * @version 10/18/2026
+	  */
+	public ChannelTree update(
+			ChannelTree changed,
+			String parentFullName,
+			String[] names)
+	{
+		HashSet replaced=new HashSet();
+		for (int ii=0; ii<names.length; ++ii)
+			replaced.add(parentFullName+'/'+names[ii]);
+		
+		ChannelTree tree=new ChannelTree();
+		for (Iterator iter=iterator(); iter.hasNext(); ) {
+			ChannelTree.Node node=(ChannelTree.Node) iter.next(),
+				parent=(node.parent==null?null
+					:(ChannelTree.Node) tree.map.get(node.parent.fullName));
+			// Iteration is depth first, so a missing parent means that the
+			//  node lies under a replaced one.
+			if ((node.parent!=null && parent==null)
+					|| replaced.contains(node.fullName)) continue;
+			ChannelTree.Node newNode=new ChannelTree.Node(node, parent);
+			if (parent!=null) parent.addChild(newNode); 
+			else tree.rootList.add(newNode);
+			tree.map.put(newNode.fullName, newNode);
+		}
+		
+		tree.addMissing(changed);
+		return tree;
+	}
+	
+	/**
+	  * Adds the nodes of toMerge which are not already in this tree.
+	  */
+	private void addMissing(ChannelTree toMerge)
+	{
 		for (Iterator iter=toMerge.iterator(); iter.hasNext(); ) {
 			ChannelTree.Node node=(ChannelTree.Node) iter.next();
-			if (!tree.map.containsKey(node.getFullName())) {
+			if (!map.containsKey(node.getFullName())) {
 				if (node.getParent()!=null) {
-					ChannelTree.Node parent=(ChannelTree.Node) tree.map.get(
+					ChannelTree.Node parent=(ChannelTree.Node) map.get(
 						node.getParent().getFullName());
 					ChannelTree.Node newNode=new ChannelTree.Node(node, parent);
-					tree.map.put(node.getFullName(), newNode);
+					map.put(node.getFullName(), newNode);
 					parent.addChild(newNode);
 				} else {
 					ChannelTree.Node newNode=new ChannelTree.Node(node, null);
-					tree.map.put(node.getFullName(), newNode);
-					addSorted(tree.rootList, newNode);
+					map.put(node.getFullName(), newNode);
+					addSorted(rootList, newNode);
 				}
 			}
 		}
-/*
-		recursiveMerge(
-			this.rootIterator(),
-			toMerge.rootIterator(),
-			tree.rootList,
-			null,
-			false,
-			0);
-*/		
-		return tree;
 	}
 	
 /* approach #1, not complete.
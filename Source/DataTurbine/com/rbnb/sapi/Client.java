@@ -64,6 +64,8 @@ import com.rbnb.api.*;
  * 2008/03/25  WHF  Added synchWserver to _close call.
  * 2009/05/19  WHF  Uncommented server termination code, added exception 
  *          indicator.  Added member termination function.
+ * 10/18/2026  JRS  Added SetCompression(), GetCompression(), and the
+ *          compressed and uncompressed byte counts.
  */
 
 public abstract class Client implements java.io.Serializable
@@ -100,6 +102,108 @@ public abstract class Client implements java.io.Serializable
      */
 	public abstract long BytesTransferred();
 
+    /**
+      *  Reports the number of bytes of data read and written by this Client,
+      *  as sent over the network. <p>
+      *  If the connection is compressed (see {@link #SetCompression(String)}),
+      *  this will be less than {@link #UncompressedBytesTransferred()}.
+      * <p>
+      *
+      * @author John Stafford
+      *
+      * @return The number of data bytes read and written after compression,
+      *  or zero if not connected.
+      * @since V3.6
+      * @version 10/18/2026
+      */
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+	public final long CompressedBytesTransferred()
+	{
+		com.rbnb.api.Client c=getClient();
+		if (c!=null) return c.getCompressedBytes();
+		else return 0L;
+	}
+
+    /**
+      *  Reports the number of bytes of data read and written by this Client,
+      *  before compression. <p>
+      * <p>
+      *
+      * @author John Stafford
+      *
+      * @return The number of data bytes read and written before compression,
+      *  or zero if not connected.
+      * @see #CompressedBytesTransferred()
+      * @since V3.6
+      * @version 10/18/2026
+      */
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+	public final long UncompressedBytesTransferred()
+	{
+		com.rbnb.api.Client c=getClient();
+		if (c!=null) return c.getUncompressedBytes();
+		else return 0L;
+	}
+
+	/**
+	 * Requests compression of the data sent between this client and the
+	 *  server.  This is useful for pulling large channels over slow network
+	 *  links.  The setting takes effect on the next call to
+	 *  <code>OpenRBNBConnection()</code>.  Modes are:
+	 *  <ul>
+	 *  <li>"none" - no compression (the default),</li>
+	 *  <li>"fast" - a fast LZ4 style coder, which does well on repetitive
+	 *   data at little cost in CPU time,</li>
+	 *  <li>"deflate" - Deflate (as used by zip), which compresses better
+	 *   but is slower.</li>
+	 *  </ul>
+	 * <p>Servers that do not support compression ignore the request.  Use
+	 *  {@link #CompressedBytesTransferred()} and
+	 *  {@link #UncompressedBytesTransferred()} to see the effect.
+	 * <p>
+	 * @author John Stafford
+	 *
+	 * @exception IllegalArgumentException If mode is not one of "none",
+	 *  "fast", or "deflate".
+	 * @since V3.6
+	 * @version 10/18/2026
+	*/
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+	public final void SetCompression(String mode)
+	{
+		if (mode==null) mode="none";
+		mode=mode.toLowerCase();
+		if (mode.equals("none"))
+			compression=com.rbnb.api.Client.COMPRESS_NONE;
+		else if (mode.equals("fast"))
+			compression=com.rbnb.api.Client.COMPRESS_FAST;
+		else if (mode.equals("deflate"))
+			compression=com.rbnb.api.Client.COMPRESS_DEFLATE;
+		else throw new IllegalArgumentException(
+			"Compression mode \""+mode+"\" not recognized.");
+	}
+
 	/**
 	 * Allows the cache size, archive mode, and archive size to be 
 	 *  specified outside of the constructor.  This is useful for the 
@@ -585,6 +689,31 @@ public abstract class Client implements java.io.Serializable
 		return mode;
 	}
 
+	/**
+	 * Returns the compression mode requested, one of "none", "fast", or
+	 *  "deflate".
+	 *
+	 *<p>
+     * @author John Stafford
+     *
+	 * @see #SetCompression(String)
+     * @since V3.6
+     * @version 10/18/2026
+	  */
+	public final String GetCompression()
+	{
+		switch (compression) {
+			case com.rbnb.api.Client.COMPRESS_FAST:
+			return "fast";
+
+			case com.rbnb.api.Client.COMPRESS_DEFLATE:
+			return "deflate";
+
+			default:
+			return "none";
+		}
+	}
+
 ////////////////////////////////////////////////////////////////////////////
 /////////////////////////// Subclass Overrides: //////////////////////////
 	abstract com.rbnb.api.Client getClient();
@@ -596,6 +725,14 @@ public abstract class Client implements java.io.Serializable
 ////////////////////////////////////////////////////////////////////////////
 ////////////////////// Package private utilities: //////////////
 
+	/**
+	  * Applies the requested compression to a new connection.
+	  */
+	final void prepareCompression()
+	{
+		getClient().setCompression(compression);
+	}
+
 	void prepareArchive(boolean doReset) throws SAPIException
 	{
 		com.rbnb.api.Source source=(com.rbnb.api.Source) getClient();
@@ -978,6 +1115,8 @@ public abstract class Client implements java.io.Serializable
 			archiveSize,
 			archiveMode;
 
+	private int compression=com.rbnb.api.Client.COMPRESS_NONE;
+
 	/**
 	  * A general Action interface.  Eventually move to the utility 
 	  *   package.
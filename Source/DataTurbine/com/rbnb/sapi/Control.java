@@ -946,6 +946,7 @@ public class Control extends Client
 		if (userName != null) {
 			controller.setUsername(new Username(userName,password));
 		}
+	    prepareCompression();
 	    controller.start();
 	}
 	
@@ -152,6 +152,7 @@ public class PlugIn extends Client
 		if (userName != null) {
 		    plugin.setUsername(new Username(userName,password));
 		}
+		prepareCompression();
 		plugin.start();
 	}
 
@@ -25,6 +25,13 @@ package com.rbnb.sapi;
   * <p>The MaxWait property should be set to the wait time in milliseconds,
   *  the time the server waits to completely fulfill the request.  If zero
   *  there is no wait.
+  * <p>The MaxSamples property is a hint giving the largest number of samples
+  *  wanted for each channel.  Channels that the server keeps decimation
+  *  pyramids for are then answered with one sample per interval of the
+  *  original data, either the mean (the default), the minimum, or the
+  *  maximum, as selected by the Decimation property.  If any requested
+  *  channel has no pyramid, the request is answered with the raw data.
+  *  If zero, the default, there is no limit.
   *  
   * <p>
   * @author WHF
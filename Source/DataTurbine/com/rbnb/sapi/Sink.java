@@ -74,6 +74,8 @@ import com.rbnb.api.*;
  *                      so channel list includes one level of plugins and routes
  * 12/21/2006  MJM	Reversed EMF 11/20/2006 change, registration back to "..."
  * 03/08/2007  WHF  Added RequestFrame().
+ * 10/18/2026  JRS	Added RequestRegistrationSince().
+ * 10/18/2026  JRS	Added Fetch(long,ChannelMap,boolean).
  *
  */
 public class Sink extends Client
@@ -89,6 +91,10 @@ public class Sink extends Client
 
 	private Rmap registrationResult=null;
 
+	// Results of the last RequestRegistrationSince():
+	private String[] changedRegistrations=null,
+		removedRegistrations=new String[0];
+
 	private static final String 		timeRefErrStr=
 		"TimeRef must be one of \"Newest\", \"Oldest\", "
 		+"\"After\", \"Modified\", \"Aligned\", \"Next\", "
@@ -219,6 +225,7 @@ public class Sink extends Client
 		if (userName != null) {
 		    sink.setUsername(new Username(userName,password));
 		}
+		prepareCompression();
 		sink.start();
 	}
 
@@ -798,6 +805,100 @@ if (cm.debugFlag) System.err.println("-- Request: \n" +dataReq);
 		} catch (Exception e) { throw new SAPIException(e); }
 	}
 
+	/**
+	  * Sends a request to the server for the registration of the sources,
+	  *  plugins and routed servers that have changed since an earlier
+	  *  request.
+	  * <p>The server stamps each structural change to its registration
+	  *  (a client connecting or disconnecting, registering, gaining new
+	  *  channels or deleting channels) with a version number.  This method
+	  *  returns the current version; pass it to the next call to receive
+	  *  only what has changed since.  Pass 0 to receive the complete
+	  *  registration.</p>
+	  * <p>As with {@link #RequestRegistration()}, the registration is
+	  *  obtained with {@link #Fetch(long)}.  It contains every channel of
+	  *  the clients named by {@link #GetChangedRegistrations()}; the clients
+	  *  named by {@link #GetRemovedRegistrations()} are gone.  If
+	  *  <code>GetChangedRegistrations()</code> returns null, the
+	  *  registration is complete and replaces any earlier one, which
+	  *  happens for the first request, when the server has restarted, or
+	  *  when the client is too far behind.</p>
+	  * <p>Only structural changes are versioned.  The time ranges of
+	  *  channels are not, so an application that displays them must
+	  *  refresh them some other way.</p>
+	  * <p>Servers that do not support incremental registration are sent a
+	  *  complete registration request, and 0 is returned.</p>
+	  *
+	  * @author John Stafford
+	  *
+	  * @param version The version returned by the last call, or 0.
+	  * @return The version of the registration to be fetched.
+	  * @exception SAPIException If not connected to a server or there
+	  *  is a problem with the connection.
+	  * @see #GetChangedRegistrations()
+	  * @see #GetRemovedRegistrations()
+	  * @since V3.6
+	  * @version 10/18/2026
+	  */
+	public final long RequestRegistrationSince(long version)
+		throws SAPIException
+	{
+		assertConnection();
+		try {
+		com.rbnb.api.Ask answer=sink.getRegisteredSince(version);
+		if (answer==null) {
+			RequestRegistration();
+			changedRegistrations=null;
+			removedRegistrations=new String[0];
+			return 0;
+		}
+
+		java.util.Vector additional=answer.getAdditional();
+		int index=0;
+		long newVersion=((Long) additional.elementAt(index++)).longValue();
+		registrationResult=(Rmap) additional.elementAt(index++);
+		int count=((Integer) additional.elementAt(index++)).intValue();
+		if (count<0) {
+			changedRegistrations=null;
+			removedRegistrations=new String[0];
+		} else {
+			changedRegistrations=new String[count];
+			for (int ii=0; ii<count; ++ii)
+				changedRegistrations[ii]=(String)
+					additional.elementAt(index++);
+			count=((Integer) additional.elementAt(index++)).intValue();
+			removedRegistrations=new String[count];
+			for (int ii=0; ii<count; ++ii)
+				removedRegistrations[ii]=(String)
+					additional.elementAt(index++);
+		}
+		return newVersion;
+		} catch (Exception e) { throw new SAPIException(e); }
+	}
+
+	/**
+	  * Returns the names of the clients whose registration was returned by
+	  *  the last {@link #RequestRegistrationSince(long)}, or null if the
+	  *  complete registration was returned.
+	  *
+	  * @author John Stafford
+	  * @since V3.6
+	  * @version 10/18/2026
+	  */
+	public final String[] GetChangedRegistrations()
+	{ return changedRegistrations; }
+
+	/**
+	  * Returns the names of the clients removed since the version passed to
+	  *  the last {@link #RequestRegistrationSince(long)}.
+	  *
+	  * @author John Stafford
+	  * @since V3.6
+	  * @version 10/18/2026
+	  */
+	public final String[] GetRemovedRegistrations()
+	{ return removedRegistrations; }
+
 	/**
 	  * Similar to Subscribe, but allows for continuous frames of data
 	  *  without gaps.
@@ -1099,14 +1200,66 @@ if (cm.debugFlag) System.err.println("-- Request: \n" +dataReq);
      * MM/DD/YYYY
      * ----------  --	-----------
      * 01/11/2002  WHF	Created.
+     * 10/18/2026  JRS	Calls Fetch(long,ChannelMap,boolean).
      */
 	public final ChannelMap Fetch(long blockTimeout, ChannelMap cm)
 		throws SAPIException
+	{ return Fetch(blockTimeout,cm,false); }
+
+	/**
+	  * Obtains the data and time values for the set of channels
+	  *  added via {@link ChannelMap#Add}, optionally reusing the channels
+	  *  of the <code>ChannelMap</code> you provide.
+	  * <p>This is the same as {@link #Fetch(long,ChannelMap)}, except that
+	  *  when <code>reuse</code> is true and the new data holds the same
+	  *  channels in the same order as <code>cm</code> already does, the
+	  *  channel indexes of <code>cm</code> are kept and its data and time
+	  *  arrays are filled in again rather than replaced.  This is the case
+	  *  for each fetch of a steady subscription, which then creates very
+	  *  little garbage, particularly when the data is copied out with
+	  *  methods such as
+	  *  {@link ChannelMap#GetDataAsFloat64(int,double[],int)}.
+	  * <p>Arrays returned by <code>cm</code> for an earlier fetch may be
+	  *  overwritten by a later one.  If the channels change, <code>cm</code>
+	  *  is cleared and filled just as by <code>Fetch(long,ChannelMap)</code>.
+	  * <p>
+     *
+     * @author John Stafford
+     *
+     * @param blockTimeout The amount of time (ms) to wait for data to become
+     *  available.  Use 0 for no delay or any negative number for an 
+     *  infinite delay.
+     * @param cm The ChannelMap object which is filled with the data received
+     *    from the server.  If this parameter is null, a new ChannelMap is
+     *    created.
+     * @param reuse Reuse the channels and arrays of <code>cm</code>?
+     * @return The ChannelMap object provided, or a newly created one.
+     *    
+     * @exception SAPIException If there are problems obtaining data from
+     *  the server.
+     * @see #Fetch(long,ChannelMap)
+     * @see ChannelMap#GetTimes(int,double[],int)
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created from Fetch(long,ChannelMap).
+     */
+	public final ChannelMap Fetch(
+			long blockTimeout,
+			ChannelMap cm,
+			boolean reuse)
+		throws SAPIException
 	{
 		assertConnection();
 
 		if (cm==null) cm=new ChannelMap();
-		else cm.Clear();
+		else if (!reuse) cm.Clear();
 		try {
 		Rmap result;
 		if (registrationResult!=null)
@@ -1120,7 +1273,8 @@ if (cm.debugFlag) System.err.println("-- Request: \n" +dataReq);
 				?com.rbnb.api.Sink.FOREVER:blockTimeout);
 //System.err.println("ChannelMap::Fetch(): "+result);
 //		processFetchedResult(result,cm);
-		cm.processResult(result, true, false);
+		if (reuse) cm.reprocessResult(result);
+		else cm.processResult(result, true, false);
 
 		// mjm 9/2004:: about here put check for "redirection", re-issue request or subscribe 
 		// using sink.getDataRequest() or equivalent
@@ -228,6 +228,7 @@ public class Source extends Client
 		if (userName != null) {
 		    source.setUsername(new Username(userName,password));
 		}
+		prepareCompression();
 		source.start();
 	}
 
@@ -53,239 +53,327 @@ package com.rbnb.utility;
   */
   
 // 
+// 10/18/2026  JRS  Conversions are done in bulk through ByteBuffer views
+//                  rather than a byte at a time.  Added the ranged forms
+//                  used by the server.  Runs of fewer than BULK points are
+//                  still converted a value at a time, since wrapping the
+//                  array costs more than it saves for them.
 // 02/17/2003  WHF  Added optional byte swapping on x2Byte methods.
 //
 public class ByteConvert {
 
-// byte2Double method - extracts doubles from byte array
-public static final double[] byte2Double(byte[] inData,boolean byteSwap) {
-   int j=0,upper,lower;
-	int length=inData.length/8;
-   double[] outData=new double[length];
-	if (!byteSwap) for (int i=0;i<length;i++) {
-		j=i*8;
-		upper=( ((inData[j]   & 0xff) << 24) +
-				  ((inData[j+1] & 0xff) << 16) +
-				  ((inData[j+2] & 0xff) << 8) +
-				  ((inData[j+3] & 0xff) << 0) );
-		lower=( ((inData[j+4] & 0xff) << 24) +
-				  ((inData[j+5] & 0xff) << 16) +
-				  ((inData[j+6] & 0xff) << 8) +
-				  ((inData[j+7] & 0xff) << 0) );
-		outData[i]=Double.longBitsToDouble( (((long)upper) << 32) +
-						    (lower & 0xffffffffl) );
+// JRS 10/18/26
+// fewest points worth converting through ByteBuffer views
+private static final int BULK = 8;
+
+// getLong method - assembles a long from 8 bytes
+private static final long getLong(byte[] data,int at,boolean lsb) {
+	long value=0;
+	if (lsb) for (int k=7;k>=0;k--) value=(value<<8)|(data[at+k]&0xffL);
+	else for (int k=0;k<8;k++) value=(value<<8)|(data[at+k]&0xffL);
+	return value;
+	}
+
+// getInt method - assembles an int from 4 bytes
+private static final int getInt(byte[] data,int at,boolean lsb) {
+	int value=0;
+	if (lsb) for (int k=3;k>=0;k--) value=(value<<8)|(data[at+k]&0xff);
+	else for (int k=0;k<4;k++) value=(value<<8)|(data[at+k]&0xff);
+	return value;
+	}
+
+// putLong method - splits a long into 8 bytes
+private static final void putLong(byte[] data,int at,long value,
+				  boolean lsb) {
+	for (int k=0;k<8;k++) data[at+(lsb?k:7-k)]=(byte)(value>>>(8*k));
+	}
+
+// putInt method - splits an int into 4 bytes
+private static final void putInt(byte[] data,int at,int value,
+				 boolean lsb) {
+	for (int k=0;k<4;k++) data[at+(lsb?k:3-k)]=(byte)(value>>>(8*k));
+	}
+
+// order method - byte order of the data: swapped (byteSwap or makeLSB)
+// means least significant byte first
+private static final java.nio.ByteOrder order(boolean lsb) {
+	return lsb ? java.nio.ByteOrder.LITTLE_ENDIAN
+		   : java.nio.ByteOrder.BIG_ENDIAN;
+	}
+
+// view method - wraps nBytes of a byte array starting at offset
+private static final java.nio.ByteBuffer view(byte[] data,int offset,
+					      int nBytes,boolean lsb) {
+	return java.nio.ByteBuffer.wrap(data,offset,nBytes).order(order(lsb));
+	}
+
+/**
+  * Extracts <code>nPoints</code> doubles starting at byte <code>from</code>
+  * of <code>inData</code> into <code>outData</code> starting at
+  * <code>to</code>.
+  *
+  * <p>
+  * @author John Stafford
+  * @since V3.6
+  */
+public static final void byte2Double(byte[] inData,int from,
+				     double[] outData,int to,int nPoints,
+				     boolean lsb) {
+	if (nPoints<BULK) {
+		for (int i=0;i<nPoints;i++) outData[to+i]=
+			Double.longBitsToDouble(getLong(inData,from+8*i,lsb));
+		return;
+		}
+	view(inData,from,nPoints*8,lsb).asDoubleBuffer().get
+	    (outData,to,nPoints);
+	}
+
+/**
+  * Extracts floats from part of a byte array.
+  *
+  * <p>
+  * @author John Stafford
+  * @see #byte2Double(byte[],int,double[],int,int,boolean)
+  * @since V3.6
+  */
+public static final void byte2Float(byte[] inData,int from,
+				    float[] outData,int to,int nPoints,
+				    boolean lsb) {
+	if (nPoints<BULK) {
+		for (int i=0;i<nPoints;i++) outData[to+i]=
+			Float.intBitsToFloat(getInt(inData,from+4*i,lsb));
+		return;
+		}
+	view(inData,from,nPoints*4,lsb).asFloatBuffer().get
+	    (outData,to,nPoints);
+	}
+
+/**
+  * Extracts ints from part of a byte array.
+  *
+  * <p>
+  * @author John Stafford
+  * @see #byte2Double(byte[],int,double[],int,int,boolean)
+  * @since V3.6
+  */
+public static final void byte2Int(byte[] inData,int from,
+				  int[] outData,int to,int nPoints,
+				  boolean lsb) {
+	if (nPoints<BULK) {
+		for (int i=0;i<nPoints;i++)
+			outData[to+i]=getInt(inData,from+4*i,lsb);
+		return;
+		}
+	view(inData,from,nPoints*4,lsb).asIntBuffer().get
+	    (outData,to,nPoints);
+	}
+
+/**
+  * Extracts longs from part of a byte array.
+  *
+  * <p>
+  * @author John Stafford
+  * @see #byte2Double(byte[],int,double[],int,int,boolean)
+  * @since V3.6
+  */
+public static final void byte2Long(byte[] inData,int from,
+				   long[] outData,int to,int nPoints,
+				   boolean lsb) {
+	if (nPoints<BULK) {
+		for (int i=0;i<nPoints;i++)
+			outData[to+i]=getLong(inData,from+8*i,lsb);
+		return;
+		}
+	view(inData,from,nPoints*8,lsb).asLongBuffer().get
+	    (outData,to,nPoints);
+	}
+
+/**
+  * Extracts short ints from part of a byte array.
+  *
+  * <p>
+  * @author John Stafford
+  * @see #byte2Double(byte[],int,double[],int,int,boolean)
+  * @since V3.6
+  */
+public static final void byte2Short(byte[] inData,int from,
+				    short[] outData,int to,int nPoints,
+				    boolean lsb) {
+	if (nPoints<BULK) {
+		for (int i=0,j=from;i<nPoints;i++,j+=2) outData[to+i]=(short)
+			(lsb ? ((inData[j+1]<<8)|(inData[j]&0xff))
+			     : ((inData[j]<<8)|(inData[j+1]&0xff)));
+		return;
+		}
+	view(inData,from,nPoints*2,lsb).asShortBuffer().get
+	    (outData,to,nPoints);
+	}
+
+/**
+  * Writes <code>nPoints</code> doubles starting at <code>from</code> of
+  * <code>inData</code> into <code>outData</code> starting at byte
+  * <code>to</code>.
+  *
+  * <p>
+  * @author John Stafford
+  * @since V3.6
+  */
+public static final void double2Byte(double[] inData,int from,
+				     byte[] outData,int to,int nPoints,
+				     boolean makeLSB) {
+	if (nPoints<BULK) {
+		for (int i=0;i<nPoints;i++) putLong(outData,to+8*i,
+			Double.doubleToRawLongBits(inData[from+i]),makeLSB);
+		return;
+		}
+	view(outData,to,nPoints*8,makeLSB).asDoubleBuffer().put
+	    (inData,from,nPoints);
+	}
+
+/**
+  * Writes floats to part of a byte array.
+  *
+  * <p>
+  * @author John Stafford
+  * @see #double2Byte(double[],int,byte[],int,int,boolean)
+  * @since V3.6
+  */
+public static final void float2Byte(float[] inData,int from,
+				    byte[] outData,int to,int nPoints,
+				    boolean makeLSB) {
+	if (nPoints<BULK) {
+		for (int i=0;i<nPoints;i++) putInt(outData,to+4*i,
+			Float.floatToRawIntBits(inData[from+i]),makeLSB);
+		return;
 		}
-	else for (int i=0;i<length;i++) {
-		j=i*8;
-		upper=( ((inData[j+7] & 0xff) << 24) +
-				  ((inData[j+6] & 0xff) << 16) +
-				  ((inData[j+5] & 0xff) << 8) +
-				  ((inData[j+4] & 0xff) << 0) );
-		lower=( ((inData[j+3] & 0xff) << 24) +
-				  ((inData[j+2] & 0xff) << 16) +
-				  ((inData[j+1] & 0xff) << 8) +
-				  ((inData[j]   & 0xff) << 0) );
-		outData[i]=Double.longBitsToDouble( (((long)upper) << 32) +
-						    (lower & 0xffffffffl) );
+	view(outData,to,nPoints*4,makeLSB).asFloatBuffer().put
+	    (inData,from,nPoints);
+	}
+
+/**
+  * Writes ints to part of a byte array.
+  *
+  * <p>
+  * @author John Stafford
+  * @see #double2Byte(double[],int,byte[],int,int,boolean)
+  * @since V3.6
+  */
+public static final void int2Byte(int[] inData,int from,
+				  byte[] outData,int to,int nPoints,
+				  boolean makeLSB) {
+	if (nPoints<BULK) {
+		for (int i=0;i<nPoints;i++)
+			putInt(outData,to+4*i,inData[from+i],makeLSB);
+		return;
 		}
-		
+	view(outData,to,nPoints*4,makeLSB).asIntBuffer().put
+	    (inData,from,nPoints);
+	}
+
+/**
+  * Writes longs to part of a byte array.
+  *
+  * <p>
+  * @author John Stafford
+  * @see #double2Byte(double[],int,byte[],int,int,boolean)
+  * @since V3.6
+  */
+public static final void long2Byte(long[] inData,int from,
+				   byte[] outData,int to,int nPoints,
+				   boolean makeLSB) {
+	if (nPoints<BULK) {
+		for (int i=0;i<nPoints;i++)
+			putLong(outData,to+8*i,inData[from+i],makeLSB);
+		return;
+		}
+	view(outData,to,nPoints*8,makeLSB).asLongBuffer().put
+	    (inData,from,nPoints);
+	}
+
+/**
+  * Writes short ints to part of a byte array.
+  *
+  * <p>
+  * @author John Stafford
+  * @see #double2Byte(double[],int,byte[],int,int,boolean)
+  * @since V3.6
+  */
+public static final void short2Byte(short[] inData,int from,
+				    byte[] outData,int to,int nPoints,
+				    boolean makeLSB) {
+	if (nPoints<BULK) {
+		for (int i=0,j=to;i<nPoints;i++,j+=2) {
+			outData[j+(makeLSB?1:0)]=(byte)(inData[from+i]>>>8);
+			outData[j+(makeLSB?0:1)]=(byte)inData[from+i];
+			}
+		return;
+		}
+	view(outData,to,nPoints*2,makeLSB).asShortBuffer().put
+	    (inData,from,nPoints);
+	}
+
+// byte2Double method - extracts doubles from byte array
+public static final double[] byte2Double(byte[] inData,boolean byteSwap) {
+	double[] outData=new double[inData.length/8];
+	byte2Double(inData,0,outData,0,outData.length,byteSwap);
 	return outData;
    }
 
 // byte2Float method - extracts floats from byte array
 public static final float[] byte2Float(byte[] inData,boolean byteSwap) {
-	int j=0,value;
-	int length=inData.length/4;
-   float[] outData=new float[length];
-	if (!byteSwap) for (int i=0;i<length;i++) {
-		j=i*4;
-		value=( ((inData[j]   & 0xff) << 24) +
-				  ((inData[j+1] & 0xff) << 16) +
-				  ((inData[j+2] & 0xff) << 8) +
-				  ((inData[j+3] & 0xff) << 0) );
-		outData[i]=Float.intBitsToFloat(value);
-		}
-	else for (int i=0;i<length;i++) {
-		j=i*4;
-		value=( ((inData[j+3] & 0xff) << 24) +
-				  ((inData[j+2] & 0xff) << 16) +
-				  ((inData[j+1] & 0xff) << 8) +
-				  ((inData[j]   & 0xff) << 0) );
-		outData[i]=Float.intBitsToFloat(value);
-		}
-
-   return outData;
+	float[] outData=new float[inData.length/4];
+	byte2Float(inData,0,outData,0,outData.length,byteSwap);
+	return outData;
     }
 
 // EMF 9/12/00
 // byte2Int method - extracts ints from byte array
 public static final int[] byte2Int(byte[] inData,boolean byteSwap) {
-	int j=0,value;
-	int length=inData.length/4;
-   int[] outData=new int[length];
-	if (!byteSwap) for (int i=0;i<length;i++) {
-		j=i*4;
-		outData[i]=( ((inData[j]   & 0xff) << 24) +
-				  ((inData[j+1] & 0xff) << 16) +
-				  ((inData[j+2] & 0xff) << 8) +
-				  ((inData[j+3] & 0xff) << 0) );
-		}
-	else for (int i=0;i<length;i++) {
-		j=i*4;
-		outData[i]=( ((inData[j+3] & 0xff) << 24) +
-				  ((inData[j+2] & 0xff) << 16) +
-				  ((inData[j+1] & 0xff) << 8) +
-				  ((inData[j]   & 0xff) << 0) );
-		}
-
-   return outData;
+	int[] outData=new int[inData.length/4];
+	byte2Int(inData,0,outData,0,outData.length,byteSwap);
+	return outData;
     }
 
 // INB 11/7/00
 // byte2Long method - extracts longs from byte array
 public static final long[] byte2Long(byte[] inData,boolean byteSwap) {
-	int j=0;
-	long value;
-	int length=inData.length/8;
-	long ff = 0xff;
-   long[] outData=new long[length];
-	if (!byteSwap) for (int i=0;i<length;i++) {
-		j=i*8;
-		outData[i]=( ((inData[j]   & ff) << 56) +
-				  ((inData[j+1] & ff) << 48) +
-				  ((inData[j+2] & ff) << 40) +
-				  ((inData[j+3] & ff) << 32) +
-				  ((inData[j+4] & ff) << 24) +
-				  ((inData[j+5] & ff) << 16) +
-				  ((inData[j+6] & ff) << 8) +
-				  ((inData[j+7] & ff) << 0) );
-
-		// UCB 06/21/01-- finding a bug!
-//  		System.err.println("   Converting: ");
-//  		long result = 0;
-//  		long accume = 0;
-//  		for (int k = j+7, m = 0; k > -1; k--, m++) {
-//  		    System.err.println("   inData[" + k + "]: " + inData[k]);
-//  		    System.err.println("   inData & (long) ff: " + (inData[k] & ff));
-//  		    result = (inData[k] & ff) << (m*8);
-//  		    System.err.println("   (inData & (long) ff) << " + (m*8) + ": " +
-//  				       result);
-//  		    accume += result;
-//  		    System.err.println("   So far: " + accume);
-//  		}
-
-		}
-	else for (int i=0;i<length;i++) {
-		j=i*8;
-		outData[i]=( ((inData[j+7]   & 0xff) << 56) +
-				  ((inData[j+6] & 0xff) << 48) +
-				  ((inData[j+5] & 0xff) << 40) +
-				  ((inData[j+4] & 0xff) << 32) +
-				  ((inData[j+3] & 0xff) << 24) +
-				  ((inData[j+2] & 0xff) << 16) +
-				  ((inData[j+1] & 0xff) << 8) +
-				  ((inData[j]   & 0xff) << 0) );
-		}
-
-   return outData;
+	long[] outData=new long[inData.length/8];
+	byte2Long(inData,0,outData,0,outData.length,byteSwap);
+	return outData;
     }
 
 // byte2Short method - extracts short ints from byte array    
 public static final short[] byte2Short(byte[] inData,boolean byteSwap) {
-	//int j=0;
-	int length=inData.length/2;
-   short[] outData=new short[length];
-	if (!byteSwap) for (int i=0,j=0;i<length;i++,j+=2) {
-		//j=i*2;
-		//outData[i]=(short)( ((inData[j] & 0xff) << 8) + ((inData[j+1] & 0xff) << 0 ) );
-		outData[i]=(short)( (inData[j] << 8) + (inData[j+1] & 0xff) );
-		}
-	else for (int i=0;i<length;i++) {
-		int j=i*2;
-		outData[i]=(short)( ((inData[j+1] & 0xff) << 8) + ((inData[j] & 0xff) << 0) );
-		}
-	
-   return outData;
+	short[] outData=new short[inData.length/2];
+	byte2Short(inData,0,outData,0,outData.length,byteSwap);
+	return outData;
    }
 
 // double2Byte method - writes doubles to byte array
 public static final byte[] double2Byte(double[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*8];
-  for (int i=0;i<length;i++) {
-    long data=Double.doubleToLongBits(inData[i]);
-    outData[j++]=(byte)(data>>>56);
-    outData[j++]=(byte)(data>>>48);
-    outData[j++]=(byte)(data>>>40);
-    outData[j++]=(byte)(data>>>32);
-    outData[j++]=(byte)(data>>>24);
-    outData[j++]=(byte)(data>>>16);
-    outData[j++]=(byte)(data>>>8);
-    outData[j++]=(byte)(data>>>0);
-  }
-  return outData;
+  return double2Byte(inData,false);
 }
 
 //float2Byte method - writes floats to byte array
 public static final byte[] float2Byte(float[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*4];
-  for (int i=0;i<length;i++) {
-    int data=Float.floatToIntBits(inData[i]);
-    outData[j++]=(byte)(data>>>24);
-    outData[j++]=(byte)(data>>>16);
-    outData[j++]=(byte)(data>>>8);
-    outData[j++]=(byte)(data>>>0);
-  }
-  return outData;
+  return float2Byte(inData,false);
 }
 
 //EMF 9/13/00: added support for integers
 //int2Byte method - writes ints to byte array
 public static final byte[] int2Byte(int[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*4];
-  for (int i=0;i<length;i++) {
-    outData[j++]=(byte)(inData[i]>>>24);
-    outData[j++]=(byte)(inData[i]>>>16);
-    outData[j++]=(byte)(inData[i]>>>8);
-    outData[j++]=(byte)(inData[i]>>>0);
-  }
-  return outData;
+  return int2Byte(inData,false);
 }
 
 //UCB 7/19/01: added support for longs
 //long2Byte method - writes longs to byte array
 public static final byte[] long2Byte(long[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*8];
-  for (int i=0;i<length;i++) {
-    outData[j++]=(byte)(inData[i]>>>56);
-    outData[j++]=(byte)(inData[i]>>>48);
-    outData[j++]=(byte)(inData[i]>>>40);
-    outData[j++]=(byte)(inData[i]>>>32);
-    outData[j++]=(byte)(inData[i]>>>24);
-    outData[j++]=(byte)(inData[i]>>>16);
-    outData[j++]=(byte)(inData[i]>>>8);
-    outData[j++]=(byte)(inData[i]>>>0);
-  }
-  return outData;
+  return long2Byte(inData,false);
 }
 
 // short2Byte method - writes short ints to byte array
 public static final byte[] short2Byte(short[] inData) {
-  int j=0;
-  int length=inData.length;
-  byte[] outData=new byte[length*2];
-  for (int i=0;i<length;i++) {
-    outData[j++]=(byte)(inData[i]>>>8);
-    outData[j++]=(byte)(inData[i]>>>0);
-  }
-  return outData;
+  return short2Byte(inData,false);
 }
 
 
@@ -298,21 +386,8 @@ public static final byte[] short2Byte(short[] inData) {
   */
 public static final byte[] double2Byte(double[] inData, boolean makeLSB) 
 {
-	if (!makeLSB) return double2Byte(inData);
-	int j=0;
-	int length=inData.length;
-	byte[] outData=new byte[length*8];
-	for (int i=0;i<length;i++) {
-		long data=Double.doubleToLongBits(inData[i]);
-		outData[j++]=(byte)(data>>>0);
-		outData[j++]=(byte)(data>>>8);
-		outData[j++]=(byte)(data>>>16);
-		outData[j++]=(byte)(data>>>24);
-		outData[j++]=(byte)(data>>>32);
-		outData[j++]=(byte)(data>>>40);
-		outData[j++]=(byte)(data>>>48);
-		outData[j++]=(byte)(data>>>56);
-	}
+	byte[] outData=new byte[inData.length*8];
+	double2Byte(inData,0,outData,0,inData.length,makeLSB);
 	return outData;
 }
 
@@ -324,17 +399,8 @@ public static final byte[] double2Byte(double[] inData, boolean makeLSB)
   * @since V2.0B10
   */
 public static final byte[] float2Byte(float[] inData, boolean makeLSB) {
-	if (!makeLSB) return float2Byte(inData);
-	int j=0;
-	int length=inData.length;
-	byte[] outData=new byte[length*4];
-	for (int i=0;i<length;i++) {
-		int data=Float.floatToIntBits(inData[i]);
-		outData[j++]=(byte)(data>>>0);
-		outData[j++]=(byte)(data>>>8);
-		outData[j++]=(byte)(data>>>16);
-		outData[j++]=(byte)(data>>>24);
-	}
+	byte[] outData=new byte[inData.length*4];
+	float2Byte(inData,0,outData,0,inData.length,makeLSB);
 	return outData;
 }
 
@@ -346,17 +412,8 @@ public static final byte[] float2Byte(float[] inData, boolean makeLSB) {
   * @since V2.0B10
   */
 public static final byte[] int2Byte(int[] inData, boolean makeLSB) {
-	if (!makeLSB) return int2Byte(inData);
-	int j=0;
-	int length=inData.length;
-	byte[] outData=new byte[length*4];
-	for (int i=0;i<length;i++) {
-		int data=inData[i];
-		outData[j++]=(byte)(data>>>0);
-		outData[j++]=(byte)(data>>>8);
-		outData[j++]=(byte)(data>>>16);
-		outData[j++]=(byte)(data>>>24);
-	}
+	byte[] outData=new byte[inData.length*4];
+	int2Byte(inData,0,outData,0,inData.length,makeLSB);
 	return outData;
 }
 
@@ -368,21 +425,8 @@ public static final byte[] int2Byte(int[] inData, boolean makeLSB) {
   * @since V2.0B10
   */
 public static final byte[] long2Byte(long[] inData, boolean makeLSB) {
-	if (!makeLSB) return long2Byte(inData);
-	int j=0;
-	int length=inData.length;
-	byte[] outData=new byte[length*8];
-	for (int i=0;i<length;i++) {
-		long data=inData[i];
-		outData[j++]=(byte)(data>>>0);
-		outData[j++]=(byte)(data>>>8);
-		outData[j++]=(byte)(data>>>16);
-		outData[j++]=(byte)(data>>>24);
-		outData[j++]=(byte)(data>>>32);
-		outData[j++]=(byte)(data>>>40);
-		outData[j++]=(byte)(data>>>48);
-		outData[j++]=(byte)(data>>>56);
-	}
+	byte[] outData=new byte[inData.length*8];
+	long2Byte(inData,0,outData,0,inData.length,makeLSB);
 	return outData;
 }
 
@@ -394,15 +438,8 @@ public static final byte[] long2Byte(long[] inData, boolean makeLSB) {
   * @since V2.0B10
   */
 public static final byte[] short2Byte(short[] inData, boolean makeLSB) {
-	if (!makeLSB) return short2Byte(inData);
-	int j=0;
-	int length=inData.length;
-	byte[] outData=new byte[length*2];
-	for (int i=0;i<length;i++) {
-		short data=inData[i];
-		outData[j++]=(byte)(data>>>0);
-		outData[j++]=(byte)(data>>>8);
-	}
+	byte[] outData=new byte[inData.length*2];
+	short2Byte(inData,0,outData,0,inData.length,makeLSB);
 	return outData;
 }
 }
@@ -0,0 +1,304 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	ArchiveLoaderTests.java
+
+	Checks that the ArchiveLoader runs tasks on its pool exactly once,
+	takes turns and orders archives by size, and that a server started
+	with -F loads and recovers several archives with all of their data.
+	Lives in com.rbnb.api so that it can reach the ArchiveLoader.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArchiveLoaderTests
+{
+	private static final String ARCHIVE_DIR
+			= System.getProperty("com.rbnb.tests.rbnbArchiveDir");
+
+	/** A task that counts its runs, and may run nested tasks or fail. */
+	private static class Counted
+		extends ArchiveLoader.Task
+	{
+		int runs = 0;
+		String thread = null;
+		final java.util.Vector nested = new java.util.Vector();
+		final boolean fail;
+
+		Counted(boolean failI)
+		{
+			fail = failI;
+		}
+
+		void perform() throws Exception
+		{
+			synchronized (this) {
+				++runs;
+				thread = Thread.currentThread().getName();
+			}
+			Thread.sleep(20);
+			ArchiveLoader.runAll(nested);
+			if (fail) throw new java.io.IOException("Failed on purpose.");
+		}
+	}
+
+	@Test
+	public void testRunAll() throws Exception
+	{
+		java.util.Vector tasks = new java.util.Vector();
+		for (int idx = 0; idx < 24; ++idx) {
+			Counted task = new Counted(idx == 5);
+			if (idx % 4 == 0) {
+				for (int idx1 = 0; idx1 < 4; ++idx1)
+					task.nested.addElement(new Counted(false));
+			}
+			tasks.addElement(task);
+		}
+		ArchiveLoader.runAll(tasks);
+
+		java.util.HashSet threads = new java.util.HashSet();
+		for (int idx = 0; idx < tasks.size(); ++idx) {
+			Counted task = (Counted) tasks.elementAt(idx);
+			Assert.assertEquals(1, task.runs);
+			threads.add(task.thread);
+			for (int idx1 = 0; idx1 < task.nested.size(); ++idx1)
+				Assert.assertEquals(1,
+						((Counted) task.nested.elementAt(idx1)).runs);
+			if (idx == 5) {
+				try {
+					ArchiveLoader.rethrow(task);
+					Assert.fail("The failure was not passed on.");
+				} catch (java.io.IOException e) {
+				}
+			} else {
+				Assert.assertNull(task.getFailure());
+				ArchiveLoader.rethrow(task);
+			}
+		}
+
+		// The calling thread works alongside the pool.
+		Assert.assertTrue(threads.contains(Thread.currentThread().getName()));
+		if (ArchiveLoader.THREADS > 1)
+			Assert.assertTrue(threads.size() > 1);
+	}
+
+	@Test
+	public void testTurns() throws Exception
+	{
+		final ArchiveLoader loader = new ArchiveLoader(ArchiveLoader.SOURCES + 1);
+		for (int idx = 0; idx < ArchiveLoader.SOURCES; ++idx) loader.begin();
+
+		// One more archive has to wait for a turn.
+		final boolean[] started = { false };
+		Thread waiter = new Thread() {
+			public void run()
+			{
+				try {
+					loader.begin();
+					synchronized (started) {
+						started[0] = true;
+					}
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+		waiter.start();
+		Thread.sleep(200);
+		synchronized (started) {
+			Assert.assertFalse(started[0]);
+		}
+
+		int total = ArchiveLoader.SOURCES + 1;
+		Assert.assertEquals("1 of " + total + " archives",
+				loader.finished(true));
+		waiter.join(10000);
+		synchronized (started) {
+			Assert.assertTrue(started[0]);
+		}
+		Assert.assertEquals("2 of " + total + " archives, 1 failed",
+				loader.finished(false));
+	}
+
+	private static void write(java.io.File file, int nBytes) throws Exception
+	{
+		file.getParentFile().mkdirs();
+		java.io.FileOutputStream fos = new java.io.FileOutputStream(file);
+		try {
+			fos.write(new byte[nBytes]);
+		} finally {
+			fos.close();
+		}
+	}
+
+	private static void delete(java.io.File file)
+	{
+		java.io.File[] children = file.listFiles();
+		if (children != null)
+			for (java.io.File child : children) delete(child);
+		file.delete();
+	}
+
+	@Test
+	public void testSortBySize() throws Exception
+	{
+		java.io.File home = new java.io.File(ARCHIVE_DIR, "SortedBySize");
+		delete(home);
+		try {
+			java.io.File large = new java.io.File(home, "large"),
+				small = new java.io.File(home, "small"),
+				medium = new java.io.File(home, "medium");
+			write(new java.io.File(large, "a"), 200);
+			write(new java.io.File(large, "RB1/b"), 200);
+			write(new java.io.File(small, "RB1/FS1/c"), 100);
+			write(new java.io.File(medium, "d"), 300);
+
+			java.io.File[] directories = { large, small, medium };
+			ArchiveLoader.sortBySize(directories);
+			Assert.assertEquals(java.util.Arrays.asList(small, medium, large),
+					java.util.Arrays.asList(directories));
+		} finally {
+			delete(home);
+		}
+	}
+
+	/** Deletes the seals of an archive, so that it has to be recovered. */
+	private static int deleteSeals(java.io.File directory)
+	{
+		int count = 0;
+		java.io.File[] children = directory.listFiles();
+		for (java.io.File child : children) {
+			if (child.isDirectory()) {
+				count += deleteSeals(child);
+			} else if (child.getName().equals("seal.rbn")) {
+				Assert.assertTrue(child.delete());
+				++count;
+			}
+		}
+		return count;
+	}
+
+	/** The channels of each archive. */
+	private static final String[] CHANNELS = { "c", "d" };
+
+	private static double value(int archive, int channel, int frame)
+	{
+		return 10000 * archive + 1000 * channel + frame;
+	}
+
+	private static com.rbnb.sapi.ChannelMap fetch(com.rbnb.sapi.Sink sink,
+			String channel) throws Exception
+	{
+		com.rbnb.sapi.ChannelMap request = new com.rbnb.sapi.ChannelMap();
+		request.Add(channel);
+		sink.Request(request, 0., 1000., "absolute");
+		return sink.Fetch(10000);
+	}
+
+	@Test
+	public void testLoadAndRecover() throws Exception
+	{
+		// The archives get a home of their own, as -F loads every folder
+		//  in it.
+		java.io.File home = new java.io.File(ARCHIVE_DIR, "LoadedArchives");
+		delete(home);
+		home.mkdirs();
+		String[] names = new String[6];
+		int nFrames = 50;
+
+		Server server = Server.launchNewServer(new String[] {
+			"-H", home.getPath()
+		});
+		try {
+			for (int idx = 0; idx < names.length; ++idx) {
+				names[idx] = "Loaded" + idx;
+				com.rbnb.sapi.Source src
+						= new com.rbnb.sapi.Source(10, "create", 1000);
+				src.OpenRBNBConnection("localhost", names[idx]);
+				// Each channel is flushed on its own, so that it gets a
+				//  ring buffer of its own.
+				for (int frame = 0; frame < nFrames * (idx + 1); ++frame) {
+					for (int cIdx = 0; cIdx < CHANNELS.length; ++cIdx) {
+						com.rbnb.sapi.ChannelMap cmap
+								= new com.rbnb.sapi.ChannelMap();
+						cmap.PutTime(frame, 1.);
+						cmap.PutDataAsFloat64(cmap.Add(CHANNELS[cIdx]),
+								new double[] { value(idx, cIdx, frame) });
+						src.Flush(cmap, true);
+					}
+				}
+				src.Detach();
+			}
+		} finally {
+			server.stop();
+		}
+
+		// Two of the archives have to be recovered from their data files,
+		//  which are recovered in parallel.
+		Assert.assertTrue(deleteSeals(new java.io.File(home, names[1])) > 1);
+		Assert.assertTrue(deleteSeals(new java.io.File(home, names[4])) > 1);
+
+		server = Server.launchNewServer(new String[] {
+			"-F", "-H", home.getPath()
+		});
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			sink.OpenRBNBConnection("localhost", "LoadedSink");
+
+			// Wait for every archive to be loaded.
+			java.util.HashSet waiting
+					= new java.util.HashSet(java.util.Arrays.asList(names));
+			long giveUpAt = System.currentTimeMillis() + 60000;
+			while (!waiting.isEmpty()) {
+				Assert.assertTrue("Still loading " + waiting + ".",
+						System.currentTimeMillis() < giveUpAt);
+				com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+				sink.RequestRegistration();
+				sink.Fetch(10000, cmap);
+				for (int idx = 0; idx < names.length; ++idx) {
+					if (cmap.GetIndex(names[idx] + "/c") != -1)
+						waiting.remove(names[idx]);
+				}
+				if (!waiting.isEmpty()) Thread.sleep(100);
+			}
+
+			for (int idx = 0; idx < names.length; ++idx) {
+				for (int cIdx = 0; cIdx < CHANNELS.length; ++cIdx) {
+					String channel = names[idx] + "/" + CHANNELS[cIdx];
+					com.rbnb.sapi.ChannelMap result = fetch(sink, channel);
+					Assert.assertEquals(channel, 1,
+							result.NumberOfChannels());
+					double[] values = result.GetDataAsFloat64(0);
+					Assert.assertEquals(channel, nFrames * (idx + 1),
+							values.length);
+					for (int frame = 0; frame < values.length; ++frame) {
+						Assert.assertEquals(value(idx, cIdx, frame),
+								values[frame], 0.);
+					}
+				}
+			}
+		} finally {
+			sink.CloseRBNBConnection();
+			server.stop();
+			delete(home);
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	ArchiveWriterTests.java
+
+	Archives through the ArchiveWriter, reloads the archive in a new
+	server, and checks that a set the writer cannot write is reported to
+	its source without stopping the other sources on the disk.  The build runs these in a JVM of their own, with
+	com.rbnb.api.ArchiveWriter.queue set, so that the sets closed by the
+	sources are written behind.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class ArchiveWriterTests
+{
+	private static final String ARCHIVE_DIR
+			= System.getProperty("com.rbnb.tests.rbnbArchiveDir");
+
+	@org.junit.Before
+	public void checkWriteBehind()
+	{
+		Assume.assumeTrue(ArchiveWriter.QUEUE > 0);
+	}
+
+	private static Server startServer() throws Exception
+	{
+		return Server.launchNewServer(new String[] { "-H", ARCHIVE_DIR });
+	}
+
+	private static void delete(java.io.File file)
+	{
+		java.io.File[] children = file.listFiles();
+		if (children != null)
+			for (java.io.File child : children) delete(child);
+		file.delete();
+	}
+
+	private static void flush(com.rbnb.sapi.Source src, int idx)
+			throws Exception
+	{
+		com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+		cmap.PutTime(idx, 1.);
+		cmap.PutDataAsFloat64(cmap.Add("c"), new double[] { idx });
+		src.Flush(cmap, true);
+	}
+
+	@Test
+	public void testWrittenBehind() throws Exception
+	{
+		String name = "WrittenBehind";
+		int nFrames = 500;
+		delete(new java.io.File(ARCHIVE_DIR, name));
+
+		// Detaching flushes the cache and seals the archive under the
+		//  source's locks, which the writer needs too.
+		Server server = startServer();
+		try {
+			com.rbnb.sapi.Source src
+					= new com.rbnb.sapi.Source(10, "create", 1000);
+			src.OpenRBNBConnection("localhost", name);
+			for (int idx = 0; idx < nFrames; ++idx) flush(src, idx);
+			src.Detach();
+		} finally {
+			server.stop();
+		}
+
+		server = startServer();
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(10, "load", 0);
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			src.OpenRBNBConnection("localhost", name);
+			sink.OpenRBNBConnection("localhost", name + "Sink");
+			com.rbnb.sapi.ChannelMap request
+					= new com.rbnb.sapi.ChannelMap();
+			request.Add(name + "/c");
+			sink.Request(request, 0., nFrames, "absolute");
+			com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+			Assert.assertEquals(1, result.NumberOfChannels());
+			double[] values = result.GetDataAsFloat64(0);
+			Assert.assertEquals(nFrames, values.length);
+			for (int idx = 0; idx < nFrames; ++idx)
+				Assert.assertEquals(idx, values[idx], 0.);
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testFailureReachesSource() throws Exception
+	{
+		String name = "WriteFails";
+		String other = "WriteGoesOn";
+		java.io.File dir = new java.io.File(ARCHIVE_DIR, name),
+			moved = new java.io.File(ARCHIVE_DIR, name + ".moved");
+		delete(dir);
+		delete(moved);
+
+		Server server = startServer();
+		try {
+			com.rbnb.sapi.Source src
+					= new com.rbnb.sapi.Source(10, "create", 1000);
+			src.OpenRBNBConnection("localhost", name);
+			int idx = 0;
+			for (; idx < 50; ++idx) flush(src, idx);
+
+			// Put a file where the archive was, so that the open FileSet
+			//  cannot be written.
+			Assert.assertTrue(dir.renameTo(moved));
+			Assert.assertTrue(dir.createNewFile());
+			try {
+				for (; idx < 5000; ++idx) flush(src, idx);
+				Assert.fail("Write failure was not passed on.");
+			} catch (com.rbnb.sapi.SAPIException e) {
+			} finally {
+				src.CloseRBNBConnection();
+			}
+
+			// Other archives on the disk are still written.
+			src = new com.rbnb.sapi.Source(10, "create", 1000);
+			src.OpenRBNBConnection("localhost", other);
+			try {
+				for (idx = 0; idx < 200; ++idx) flush(src, idx);
+			} finally {
+				src.CloseRBNBConnection();
+			}
+		} finally {
+			server.stop();
+			delete(dir);
+			delete(moved);
+			delete(new java.io.File(ARCHIVE_DIR, other));
+		}
+	}
+}
@@ -0,0 +1,277 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	ChannelIndexTests.java
+
+	Writes an archive in which one channel only appears part way through,
+	reloads it in a new server, and checks the data found through the
+	per-FileSet channel index: as read back from disk, and as rebuilt
+	for FileSets written before the index existed.
+	Lives in com.rbnb.api so that it can read the index files.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChannelIndexTests
+{
+	/** Frames written; channel b starts at frame B_START. */
+	private static final int N_FRAMES = 60,
+		B_START = 30;
+
+	private static final String ARCHIVE_DIR
+			= System.getProperty("com.rbnb.tests.rbnbArchiveDir");
+
+	private static Server startServer() throws Exception
+	{
+		return Server.launchNewServer(new String[] { "-H", ARCHIVE_DIR });
+	}
+
+	private static void delete(java.io.File file)
+	{
+		java.io.File[] children = file.listFiles();
+		if (children != null)
+			for (java.io.File child : children) delete(child);
+		file.delete();
+	}
+
+	/** Returns the channel index files of an archive. */
+	private static java.util.List<java.io.File> indexFiles(String name)
+	{
+		java.util.List<java.io.File> files
+				= new java.util.ArrayList<java.io.File>();
+		java.util.LinkedList<java.io.File> dirs
+				= new java.util.LinkedList<java.io.File>();
+		dirs.add(new java.io.File(ARCHIVE_DIR, name));
+		while (!dirs.isEmpty()) {
+			java.io.File[] children = dirs.removeFirst().listFiles();
+			if (children == null) continue;
+			for (java.io.File child : children) {
+				if (child.isDirectory()) dirs.add(child);
+				else if (child.getName().equals(ChannelIndex.FILE_NAME))
+					files.add(child);
+			}
+		}
+		return files;
+	}
+
+	/** Returns a channel holding a single value. */
+	private static Rmap channel(String name, double value) throws Exception
+	{
+		return new Rmap(name, new DataBlock(new double[] { value }, 1, 8,
+				DataBlock.TYPE_FLOAT64, DataBlock.ORDER_MSB, false, 0, 8),
+				null);
+	}
+
+	/**
+	  * Archives frames of channel a, with channel b joining at frame
+	  *  B_START, in FileSets of ten frames each.  This goes through the
+	  *  API rather than the SAPI, which would put b in a ring buffer of
+	  *  its own.
+	  */
+	private static void writeArchive(String name) throws Exception
+	{
+		delete(new java.io.File(ARCHIVE_DIR, name));
+		Server server = startServer();
+		try {
+			Source source = Server.newServerHandle(null, "localhost")
+					.createSource(name);
+			source.setCframes(10);
+			source.setAframes(100);
+			source.setAmode(Source.ACCESS_CREATE);
+			source.start();
+			for (int idx = 0; idx < N_FRAMES; ++idx) {
+				Rmap frame = new Rmap(null, null, new TimeRange(idx, 1.));
+				frame.addChild(channel("a", idx));
+				if (idx >= B_START) frame.addChild(channel("b", 100 + idx));
+				source.addChild(frame);
+				source.synchronizeWserver();
+			}
+			source.stop();
+		} finally {
+			server.stop();
+		}
+	}
+
+	/**
+	  * Fetches channels of a loaded archive.  Returns the values of each
+	  *  channel, or null for channels that have nothing.
+	  */
+	private static double[][] fetch(com.rbnb.sapi.Sink sink, String name,
+			String[] channels, double start, double duration,
+			String reference) throws Exception
+	{
+		com.rbnb.sapi.ChannelMap request = new com.rbnb.sapi.ChannelMap();
+		for (String channel : channels) request.Add(name + "/" + channel);
+		sink.Request(request, start, duration, reference);
+		com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+		double[][] values = new double[channels.length][];
+		for (int idx = 0; idx < channels.length; ++idx) {
+			int index = result.GetIndex(name + "/" + channels[idx]);
+			if (index != -1) values[idx] = result.GetDataAsFloat64(index);
+		}
+		return values;
+	}
+
+	private static void assertValues(double[] expected, double[] got)
+	{
+		Assert.assertNotNull(got);
+		Assert.assertEquals(expected.length, got.length);
+		for (int idx = 0; idx < expected.length; ++idx)
+			Assert.assertEquals(expected[idx], got[idx], 0.);
+	}
+
+	/**
+	  * Loads the archive in a new server and checks what sinks get from
+	  *  it.
+	  */
+	private static void checkArchive(String name) throws Exception
+	{
+		Server server = startServer();
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(10, "load", 0);
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			src.OpenRBNBConnection("localhost", name);
+			sink.OpenRBNBConnection("localhost", name + "Sink");
+			String[] both = { "a", "b" };
+
+			for (int idx = 0; idx < N_FRAMES; idx += 7) {
+				// Absolute requests, before and after b starts.
+				double[][] values = fetch(sink, name, both, idx - .25, .5,
+						"absolute");
+				assertValues(new double[] { idx }, values[0]);
+				if (idx < B_START) Assert.assertNull(values[1]);
+				else assertValues(new double[] { 100 + idx }, values[1]);
+			}
+
+			// Requests that only b could satisfy, where the FileSets from
+			//  before b started do not have it at all.
+			double[][] values = fetch(sink, name, new String[] { "b" },
+					4.75, .5, "absolute");
+			Assert.assertNull(values[0]);
+			values = fetch(sink, name, new String[] { "b" },
+					B_START + 9.75, .5, "absolute");
+			assertValues(new double[] { 100 + B_START + 10 }, values[0]);
+
+			// Time relative requests, which go through the index to find
+			//  the FrameSet.  Each point spans a second, so the one before
+			//  the point holding the reference is the previous one.
+			values = fetch(sink, name, new String[] { "a" },
+					12.5, 0., "next");
+			assertValues(new double[] { 13 }, values[0]);
+			values = fetch(sink, name, new String[] { "a" },
+					12.5, 0., "previous");
+			assertValues(new double[] { 11 }, values[0]);
+			values = fetch(sink, name, new String[] { "b" },
+					B_START + 20.5, 0., "next");
+			assertValues(new double[] { 100 + B_START + 21 }, values[0]);
+			values = fetch(sink, name, new String[] { "a", "b" },
+					B_START + 5.5, 0., "previous");
+			assertValues(new double[] { B_START + 4 }, values[0]);
+			assertValues(new double[] { 100 + B_START + 4 }, values[1]);
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testIndexFiles() throws Exception
+	{
+		String name = "IndexFiles";
+		writeArchive(name);
+
+		// Every FileSet has an index, and b is missing from some of them.
+		//  The index names channels from the top of the source.
+		java.util.List<java.io.File> files = indexFiles(name);
+		Assert.assertTrue(files.size() > 1);
+		int withB = 0, withoutB = 0;
+		for (java.io.File file : files) {
+			ChannelIndex index = ChannelIndex.read(file.getParent(), -1);
+			Assert.assertNotNull(index);
+			Assert.assertTrue(index.getFrameSets() > 0);
+			Assert.assertEquals(2, index.compare("/c", 0., N_FRAMES));
+			Assert.assertEquals(-1, index.compare("/a", -2., -1.));
+			Assert.assertEquals(1, index.compare("/a", N_FRAMES + 1.,
+					N_FRAMES + 2.));
+			if (index.compare("/b", 0., N_FRAMES) == 2) {
+				++withoutB;
+				Assert.assertEquals(-1, index.locate("/b", B_START + .5));
+			} else {
+				++withB;
+			}
+		}
+		Assert.assertTrue(withB > 0);
+		Assert.assertTrue(withoutB > 0);
+
+		// An index for a different number of FrameSets is not used.
+		java.io.File dir = files.get(0).getParentFile();
+		int frameSets = ChannelIndex.read(dir.getPath(), -1).getFrameSets();
+		Assert.assertNull(ChannelIndex.read(dir.getPath(), frameSets + 1));
+	}
+
+	@Test
+	public void testReadFromDisk() throws Exception
+	{
+		String name = "IndexFromDisk";
+		writeArchive(name);
+
+		// Date the index files so that a rewrite would show.
+		java.util.List<java.io.File> files = indexFiles(name);
+		for (java.io.File file : files)
+			Assert.assertTrue(file.setLastModified(86400000L));
+
+		checkArchive(name);
+
+		for (java.io.File file : files) {
+			Assert.assertTrue(file.exists());
+			Assert.assertEquals(86400000L, file.lastModified());
+		}
+	}
+
+	@Test
+	public void testRebuild() throws Exception
+	{
+		// FileSets written before the index existed have no index file.
+		String name = "IndexRebuilt";
+		writeArchive(name);
+		java.util.List<java.io.File> files = indexFiles(name);
+		java.util.Map<java.io.File, Integer> frameSets
+				= new java.util.HashMap<java.io.File, Integer>();
+		for (java.io.File file : files) {
+			frameSets.put(file, ChannelIndex.read(file.getParent(), -1)
+					.getFrameSets());
+			Assert.assertTrue(file.delete());
+		}
+
+		checkArchive(name);
+
+		// The indexes have been rebuilt from the FrameSets.
+		for (java.io.File file : files) {
+			Assert.assertTrue(file.getPath(), file.exists());
+			ChannelIndex index = ChannelIndex.read(file.getParent(),
+					frameSets.get(file).intValue());
+			Assert.assertNotNull(index);
+			Assert.assertTrue(index.compare("/a", 0., N_FRAMES) != 2);
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	CompressorTests.java
+
+	Round trips data bodies through the fast and Deflate coders, and
+	checks which bodies a compressed connection actually compresses.
+	Lives in com.rbnb.api so that it can reach the Compressor.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressorTests
+{
+	private static final int[] MODES = {
+		Client.COMPRESS_FAST,
+		Client.COMPRESS_DEFLATE
+	};
+
+	/** Padding around the bodies, to catch stray offsets. */
+	private static final int PAD = 5;
+
+	private static byte[] zeros(int n)
+	{
+		return new byte[n];
+	}
+
+	private static byte[] random(int n)
+	{
+		byte[] bytes = new byte[n];
+		new java.util.Random(n).nextBytes(bytes);
+		return bytes;
+	}
+
+	/** Slowly changing samples, as most sources send. */
+	private static byte[] samples(int n)
+	{
+		double[] values = new double[n / 8];
+		for (int ii = 0; ii < values.length; ++ii)
+			values[ii] = Math.rint(1000. * Math.sin(ii / 100.)) / 8.;
+		byte[] bytes = new byte[n];
+		com.rbnb.utility.ByteConvert.double2Byte(values, 0, bytes, 0,
+				values.length, false);
+		return bytes;
+	}
+
+	/**
+	  * Random blocks repeated further apart than the fast coder looks
+	  *  back, mixed with blocks repeated close by.
+	  */
+	private static byte[] farRepeats(int n)
+	{
+		byte[] block = random(1000), bytes = new byte[n];
+		java.util.Random random = new java.util.Random(2);
+		for (int at = 0; at < n; at += block.length) {
+			if (random.nextBoolean()) random.nextBytes(block);
+			System.arraycopy(block, 0, bytes, at,
+					Math.min(block.length, n - at));
+		}
+		return bytes;
+	}
+
+	/**
+	  * Compresses and decompresses the body, from and into the middle of
+	  *  larger buffers.  Returns the compressed size, or -1 if the body
+	  *  would not shrink.
+	  */
+	private static int roundTrip(Compressor compressor, int mode,
+			byte[] body) throws Exception
+	{
+		byte[] src = new byte[body.length + 2 * PAD];
+		System.arraycopy(body, 0, src, PAD, body.length);
+		byte[] compressed = new byte[body.length + 2 * PAD];
+		int size = compressor.compress(mode, src, PAD, body.length,
+				compressed, PAD, Math.max(0, body.length - 5));
+		if (size == -1) return size;
+		Assert.assertTrue(size <= body.length - 5);
+
+		byte[] dst = new byte[body.length + 2 * PAD];
+		java.util.Arrays.fill(dst, (byte) 0x5a);
+		compressor.decompress(mode, compressed, PAD, size, dst, PAD,
+				body.length);
+		for (int ii = 0; ii < PAD; ++ii) {
+			Assert.assertEquals(0x5a, dst[ii]);
+			Assert.assertEquals(0x5a, dst[PAD + body.length + ii]);
+		}
+		Assert.assertArrayEquals(body, java.util.Arrays.copyOfRange(dst,
+				PAD, PAD + body.length));
+		return size;
+	}
+
+	@Test
+	public void testRoundTrips() throws Exception
+	{
+		Compressor compressor = new Compressor();
+		try {
+			for (int mode : MODES) {
+				for (int n : new int[] { 64, 100, 1000, 65536, 300000 }) {
+					int size = roundTrip(compressor, mode, zeros(n));
+					Assert.assertTrue(size > 0 && size < n / 4 + 20);
+					size = roundTrip(compressor, mode, samples(n));
+					Assert.assertTrue(size > 0 && size < n);
+					size = roundTrip(compressor, mode, farRepeats(n));
+					Assert.assertTrue(n < 2000 || (size > 0 && size < n));
+				}
+			}
+		} finally {
+			compressor.close();
+		}
+	}
+
+	@Test
+	public void testIncompressible() throws Exception
+	{
+		// Bodies that would not shrink are left for the caller to send as
+		//  is.
+		Compressor compressor = new Compressor();
+		try {
+			for (int mode : MODES) {
+				for (int n : new int[] { 0, 1, 12, 64, 1000, 100000 }) {
+					Assert.assertEquals(-1,
+							roundTrip(compressor, mode, random(n)));
+				}
+			}
+		} finally {
+			compressor.close();
+		}
+	}
+
+	@Test
+	public void testShortBodies() throws Exception
+	{
+		// Bodies near the fast coder's end of block limits.
+		Compressor compressor = new Compressor();
+		try {
+			for (int mode : MODES) {
+				for (int n = 0; n < 64; ++n) {
+					roundTrip(compressor, mode, zeros(n));
+					roundTrip(compressor, mode, samples(n));
+				}
+			}
+		} finally {
+			compressor.close();
+		}
+	}
+
+	@Test
+	public void testBadData() throws Exception
+	{
+		Compressor compressor = new Compressor();
+		try {
+			for (int mode : MODES) {
+				byte[] body = samples(1000),
+					compressed = new byte[body.length];
+				int size = compressor.compress(mode, body, 0, body.length,
+						compressed, 0, compressed.length);
+				try {
+					compressor.decompress(mode, compressed, 0, size,
+							new byte[body.length + 1], 0, body.length + 1);
+					Assert.fail("Wrong length accepted for mode " + mode);
+				} catch (SerializeException e) {
+				}
+			}
+			try {
+				compressor.decompress(99, new byte[10], 0, 10,
+						new byte[10], 0, 10);
+				Assert.fail("Unknown mode accepted.");
+			} catch (SerializeException e) {
+			}
+		} finally {
+			compressor.close();
+		}
+	}
+
+	/**
+	  * Sends a body of the given size from a compressed source and returns
+	  *  the number of bytes saved.
+	  */
+	private static long saved(String mode, int n) throws Exception
+	{
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source();
+		src.SetCompression(mode);
+		src.OpenRBNBConnection("localhost", "Compressed" + n);
+		try {
+			long before = src.UncompressedBytesTransferred()
+					- src.CompressedBytesTransferred();
+			com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+			cmap.PutTime(0., 1.);
+			cmap.PutDataAsByteArray(cmap.Add("zeros"), zeros(n));
+			src.Flush(cmap, true);
+			return src.UncompressedBytesTransferred()
+					- src.CompressedBytesTransferred() - before;
+		} finally {
+			src.CloseRBNBConnection();
+		}
+	}
+
+	@Test
+	public void testSizeThreshold() throws Exception
+	{
+		Server server = Server.launchNewServer(new String[] {
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+		try {
+			for (String mode : new String[] { "fast", "deflate" }) {
+				// Data bodies under 64 bytes are not worth compressing.
+				Assert.assertEquals(0, saved(mode, 63));
+				Assert.assertTrue(saved(mode, 64) > 0);
+			}
+		} finally {
+			server.stop();
+		}
+	}
+}
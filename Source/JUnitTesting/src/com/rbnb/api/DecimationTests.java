@@ -0,0 +1,253 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	DecimationTests.java
+
+	Checks the levels of decimation pyramids, and that requests limited
+	to a number of samples are answered from them, before and after the
+	archive holding them is reloaded.  The build runs these in a JVM of
+	their own, with com.rbnb.api.DecimationPyramid.channels set, as the
+	server only keeps pyramids for the channels named there.  Lives in
+	com.rbnb.api so that it can reach the DecimationPyramid.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class DecimationTests
+{
+	private static final String ARCHIVE_DIR
+			= System.getProperty("com.rbnb.tests.rbnbArchiveDir");
+
+	/** Builds a pyramid of points at times 0, 1, ... with values = times. */
+	private static DecimationPyramid ramp(int nPoints)
+	{
+		DecimationPyramid pyramid = new DecimationPyramid("c");
+		double[] times = new double[nPoints];
+		for (int idx = 0; idx < nPoints; ++idx) times[idx] = idx;
+		Assert.assertTrue(pyramid.add(times, times.clone()));
+		return pyramid;
+	}
+
+	/**
+	  * Checks that points summarize runs of span samples of a ramp,
+	  *  starting at first.
+	  */
+	private static void checkRuns(double[][] points, int first, int span,
+			byte decimation)
+	{
+		for (int idx = 0; idx < points[0].length; ++idx) {
+			double start = first + idx * span,
+				end = start + span - 1;
+			Assert.assertEquals((start + end) / 2., points[0][idx], 0.);
+			Assert.assertEquals(
+					(decimation == RequestOptions.DECIMATE_MIN) ? start
+					: (decimation == RequestOptions.DECIMATE_MAX) ? end
+					: (start + end) / 2.,
+					points[1][idx], 0.);
+		}
+	}
+
+	@Test
+	public void testLevels()
+	{
+		// Levels of 4, 16, 64, ... samples.  The finest that fits is used.
+		DecimationPyramid pyramid = ramp(4096);
+		for (byte decimation : new byte[] {
+				RequestOptions.DECIMATE_MEAN,
+				RequestOptions.DECIMATE_MIN,
+				RequestOptions.DECIMATE_MAX
+			}) {
+			double[][] points = pyramid.decimate(0., 4095., 100, decimation);
+			Assert.assertEquals(64, points[0].length);
+			checkRuns(points, 0, 64, decimation);
+		}
+		double[][] points = pyramid.decimate(1024., 2047., 300,
+				RequestOptions.DECIMATE_MEAN);
+		Assert.assertEquals(256, points[0].length);
+		checkRuns(points, 1024, 4, RequestOptions.DECIMATE_MEAN);
+
+		// Ranges whose raw data fits, or that hold no data, are left to the
+		//  raw data.
+		Assert.assertNull(pyramid.decimate(0., 50., 100,
+				RequestOptions.DECIMATE_MEAN));
+		Assert.assertNull(pyramid.decimate(5000., 6000., 100,
+				RequestOptions.DECIMATE_MEAN));
+	}
+
+	@Test
+	public void testOpenInterval()
+	{
+		// The samples of an interval that is still filling count too.
+		DecimationPyramid pyramid = ramp(4098);
+		double[][] points = pyramid.decimate(4000., 4097., 30,
+				RequestOptions.DECIMATE_MAX);
+		Assert.assertEquals(25, points[0].length);
+		checkRuns(new double[][] {
+				java.util.Arrays.copyOf(points[0], 24),
+				java.util.Arrays.copyOf(points[1], 24)
+			}, 4000, 4, RequestOptions.DECIMATE_MAX);
+		Assert.assertEquals(4096.5, points[0][24], 0.);
+		Assert.assertEquals(4097., points[1][24], 0.);
+	}
+
+	@Test
+	public void testDiscardedIntervals()
+	{
+		// Each level keeps 1024 intervals, so only the coarser ones still
+		//  reach back to the start.
+		DecimationPyramid pyramid = ramp(10000);
+		double[][] points = pyramid.decimate(0., 9983., 1000,
+				RequestOptions.DECIMATE_MIN);
+		Assert.assertEquals(624, points[0].length);
+		checkRuns(points, 0, 16, RequestOptions.DECIMATE_MIN);
+
+		points = pyramid.decimate(8000., 9999., 1000,
+				RequestOptions.DECIMATE_MIN);
+		Assert.assertEquals(500, points[0].length);
+		checkRuns(points, 8000, 4, RequestOptions.DECIMATE_MIN);
+	}
+
+	@Test
+	public void testReadWrite() throws Exception
+	{
+		DecimationPyramid pyramid = ramp(10001);
+		java.io.ByteArrayOutputStream baos
+				= new java.io.ByteArrayOutputStream();
+		java.io.DataOutputStream dos = new java.io.DataOutputStream(baos);
+		pyramid.write(dos);
+		dos.flush();
+		DecimationPyramid read = DecimationPyramid.read(
+				new java.io.DataInputStream(new java.io.ByteArrayInputStream(
+				baos.toByteArray())));
+		Assert.assertEquals("c", read.getName());
+
+		double[][] expected = pyramid.decimate(0., 10000., 1000,
+				RequestOptions.DECIMATE_MEAN),
+			got = read.decimate(0., 10000., 1000,
+				RequestOptions.DECIMATE_MEAN);
+		Assert.assertEquals(expected[0].length, got[0].length);
+		for (int idx = 0; idx < got[0].length; ++idx) {
+			Assert.assertEquals(expected[0][idx], got[0][idx], 0.);
+			Assert.assertEquals(expected[1][idx], got[1][idx], 0.);
+		}
+	}
+
+	private static Server startServer() throws Exception
+	{
+		return Server.launchNewServer(new String[] { "-H", ARCHIVE_DIR });
+	}
+
+	private static void delete(java.io.File file)
+	{
+		java.io.File[] children = file.listFiles();
+		if (children != null)
+			for (java.io.File child : children) delete(child);
+		file.delete();
+	}
+
+	/** Requests channels of a source from time 0 to 4096. */
+	private static com.rbnb.sapi.ChannelMap fetch(com.rbnb.sapi.Sink sink,
+			String name, String[] channels, int maxSamples)
+			throws Exception
+	{
+		com.rbnb.sapi.ChannelMap request = new com.rbnb.sapi.ChannelMap();
+		for (String channel : channels) request.Add(name + "/" + channel);
+		com.rbnb.sapi.RequestOptions options
+				= new com.rbnb.sapi.RequestOptions();
+		options.setMaxSamples(maxSamples);
+		sink.Request(request, 0., 4096., "absolute", options);
+		return sink.Fetch(10000);
+	}
+
+	/** Checks the answers to requests for 100 samples or for all. */
+	private static void checkRequests(String name) throws Exception
+	{
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			sink.OpenRBNBConnection("localhost", name + "Sink");
+
+			com.rbnb.sapi.ChannelMap result = fetch(sink, name,
+					new String[] { "decimated" }, 100);
+			double[][] points = {
+				result.GetTimes(0),
+				result.GetDataAsFloat64(0)
+			};
+			Assert.assertEquals(64, points[0].length);
+			checkRuns(points, 0, 64, RequestOptions.DECIMATE_MEAN);
+
+			Assert.assertEquals(4096, fetch(sink, name,
+					new String[] { "decimated" }, 0).GetTimes(0).length);
+
+			// A channel without a pyramid gets the raw data for all.
+			result = fetch(sink, name, new String[] { "decimated", "raw" },
+					100);
+			Assert.assertEquals(2, result.NumberOfChannels());
+			Assert.assertEquals(4096, result.GetTimes(0).length);
+			Assert.assertEquals(4096, result.GetTimes(1).length);
+		} finally {
+			sink.CloseRBNBConnection();
+		}
+	}
+
+	@Test
+	public void testRequests() throws Exception
+	{
+		Assume.assumeTrue(DecimationPyramid.isEnabled("decimated")
+				&& !DecimationPyramid.isEnabled("raw"));
+
+		String name = "Decimated";
+		delete(new java.io.File(ARCHIVE_DIR, name));
+		Server server = startServer();
+		try {
+			com.rbnb.sapi.Source src
+					= new com.rbnb.sapi.Source(100, "create", 100);
+			src.OpenRBNBConnection("localhost", name);
+			for (int at = 0; at < 4096; at += 256) {
+				double[] values = new double[256];
+				for (int idx = 0; idx < values.length; ++idx)
+					values[idx] = at + idx;
+				com.rbnb.sapi.ChannelMap cmap
+						= new com.rbnb.sapi.ChannelMap();
+				cmap.PutTimes(values.clone());
+				cmap.PutDataAsFloat64(cmap.Add("decimated"), values);
+				cmap.PutDataAsFloat64(cmap.Add("raw"), values);
+				src.Flush(cmap, true);
+			}
+			checkRequests(name);
+			src.Detach();
+		} finally {
+			server.stop();
+		}
+
+		// The pyramid is read back with the archive.
+		server = startServer();
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(100, "load", 0);
+		try {
+			src.OpenRBNBConnection("localhost", name);
+			checkRequests(name);
+		} finally {
+			src.CloseRBNBConnection();
+			server.stop();
+		}
+	}
+}
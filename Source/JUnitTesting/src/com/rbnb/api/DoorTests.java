@@ -0,0 +1,216 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	DoorTests.java
+
+	Checks the optimistic reads granted by concurrent READ_WRITE doors, and
+	that registration requests matched optimistically never see half of a
+	registration change.  The build runs these a second time with
+	com.rbnb.api.Door.concurrent set, so that the server's own doors are
+	concurrent too.
+	Lives in com.rbnb.api so that it can create doors.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoorTests
+{
+	@Test
+	public void testStamps() throws Exception
+	{
+		Door door = new Door("DoorTests", Door.READ_WRITE, true);
+		long stamp = door.tryOptimisticRead();
+		Assert.assertTrue(stamp != 0L);
+		Assert.assertTrue(door.validate(stamp));
+
+		// Read locks leave the stamp valid, write locks do not.
+		door.lockRead("DoorTests.testStamps");
+		door.unlockRead();
+		Assert.assertTrue(door.validate(stamp));
+		door.lock("DoorTests.testStamps");
+		door.unlock();
+		Assert.assertFalse(door.validate(stamp));
+		Assert.assertFalse(door.validate(0L));
+
+		stamp = door.tryOptimisticRead();
+		Assert.assertTrue(door.validate(stamp));
+	}
+
+	@Test
+	public void testNoStampWhileWriting() throws Exception
+	{
+		final Door door = new Door("DoorTests", Door.READ_WRITE, true);
+		door.lock("DoorTests.testNoStampWhileWriting");
+		try {
+			// The writer's own thread gets no stamp either.
+			Assert.assertEquals(0L, door.tryOptimisticRead());
+			final long[] stamp = { -1L };
+			Thread reader = new Thread() {
+				public void run()
+				{
+					stamp[0] = door.tryOptimisticRead();
+				}
+			};
+			reader.start();
+			reader.join(10000);
+			Assert.assertEquals(0L, stamp[0]);
+		} finally {
+			door.unlock();
+		}
+		Assert.assertTrue(door.tryOptimisticRead() != 0L);
+	}
+
+	@Test
+	public void testLegacyDoors() throws Exception
+	{
+		// The original doors never grant optimistic reads.
+		Assert.assertEquals(0L, new Door("DoorTests", Door.READ_WRITE, false)
+				.tryOptimisticRead());
+		Assert.assertEquals(0L, new Door("DoorTests", Door.STANDARD, true)
+				.tryOptimisticRead());
+	}
+
+	@Test
+	public void testValidatedReadsAreConsistent() throws Exception
+	{
+		// A writer keeps a == b under the write lock.  Readers that see
+		//  them differ must fail to validate.
+		final Door door = new Door("DoorTests", Door.READ_WRITE, true);
+		final long[] values = new long[2];
+		final boolean[] stop = { false };
+		final int[] validated = { 0 };
+		final Throwable[] failure = { null };
+
+		Thread writer = new Thread() {
+			public void run()
+			{
+				try {
+					while (!stop[0]) {
+						door.lock("DoorTests.writer");
+						try {
+							++values[0];
+							Thread.yield();
+							++values[1];
+						} finally {
+							door.unlock();
+						}
+						// Let the readers in now and then.
+						if (values[1] % 64 == 0) Thread.sleep(1);
+					}
+				} catch (Throwable e) {
+					failure[0] = e;
+				}
+			}
+		};
+		Thread[] readers = new Thread[4];
+		for (int idx = 0; idx < readers.length; ++idx) {
+			readers[idx] = new Thread() {
+				public void run()
+				{
+					long end = System.currentTimeMillis() + 2000;
+					while (System.currentTimeMillis() < end) {
+						long stamp = door.tryOptimisticRead();
+						if (stamp == 0L) continue;
+						long a = values[0], b = values[1];
+						if (door.validate(stamp)) {
+							if (a != b) failure[0] = new AssertionError(
+									"Validated " + a + " != " + b);
+							synchronized (validated) {
+								++validated[0];
+							}
+						}
+					}
+				}
+			};
+		}
+		writer.start();
+		for (Thread reader : readers) reader.start();
+		for (Thread reader : readers) reader.join(60000);
+		stop[0] = true;
+		writer.join(10000);
+
+		if (failure[0] != null) throw new AssertionError(failure[0]);
+		Assert.assertTrue(validated[0] > 0);
+	}
+
+	@Test
+	public void testRegistrationPrefixes() throws Exception
+	{
+		// The source adds a channel at a time while a sink keeps asking
+		//  for its registration.  Every answer must be the channels
+		//  registered so far.
+		Server server = Server.launchNewServer(new String[] {
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+		final com.rbnb.sapi.Source src = new com.rbnb.sapi.Source();
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			final int nChans = 50;
+			src.OpenRBNBConnection("localhost", "DoorTests");
+			final com.rbnb.sapi.ChannelMap reg
+					= new com.rbnb.sapi.ChannelMap();
+			reg.Add("c00");
+			src.Register(reg);
+
+			final Throwable[] failure = { null };
+			Thread registrar = new Thread() {
+				public void run()
+				{
+					try {
+						for (int idx = 1; idx < nChans; ++idx) {
+							reg.Add(idx < 10 ? "c0" + idx : "c" + idx);
+							src.Register(reg);
+						}
+					} catch (Throwable e) {
+						failure[0] = e;
+					}
+				}
+			};
+			sink.OpenRBNBConnection("localhost", "DoorTestsSink");
+			com.rbnb.sapi.ChannelMap request
+					= new com.rbnb.sapi.ChannelMap();
+			request.Add("DoorTests/...");
+			registrar.start();
+
+			int seen = 0;
+			while (seen < nChans) {
+				sink.RequestRegistration(request);
+				String[] names = sink.Fetch(10000).GetChannelList();
+				java.util.Arrays.sort(names);
+				Assert.assertTrue(names.length >= seen);
+				for (int idx = 0; idx < names.length; ++idx) {
+					Assert.assertEquals("DoorTests/"
+							+ (idx < 10 ? "c0" + idx : "c" + idx),
+							names[idx]);
+				}
+				seen = names.length;
+				if (failure[0] != null) throw new AssertionError(failure[0]);
+			}
+			registrar.join(10000);
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+			server.stop();
+		}
+	}
+}
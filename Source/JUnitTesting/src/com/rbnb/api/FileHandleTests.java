@@ -0,0 +1,179 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	FileHandleTests.java
+
+	Checks that a LimitedResource demands the resource held the longest
+	and counts its hits, misses, and evictions, and that a server allowed
+	fewer open FileSets than its archive has still answers requests from
+	all of them.  Lives in com.rbnb.api so that it can reach the
+	LimitedResource.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FileHandleTests
+{
+	private static final String ARCHIVE_DIR
+			= System.getProperty("com.rbnb.tests.rbnbArchiveDir");
+
+	/** Holds a resource the way a FileSet holds its files. */
+	private static class Holder
+		implements LimitedResourceInterface
+	{
+		final Object resource = new Object();
+		int released = 0;
+
+		public void forcedRelease(Object resourceI)
+		{
+			Assert.assertSame(resource, resourceI);
+			++released;
+		}
+	}
+
+	@Test
+	public void testLeastRecentlyHeld() throws Exception
+	{
+		MetricsRegistry registry = new MetricsRegistry();
+		MetricsRegistry.Counter
+			hits = registry.counter(MetricsRegistry.FILESET_HITS, "test"),
+			misses = registry.counter(MetricsRegistry.FILESET_MISSES, "test"),
+			evictions = registry.counter(MetricsRegistry.FILESET_EVICTIONS,
+					"test");
+		LimitedResource resource = new LimitedResource(2, hits, misses,
+				evictions);
+		Holder a = new Holder(),
+			b = new Holder(),
+			c = new Holder();
+
+		resource.addUser();
+		resource.holdResource(a, a.resource);
+		resource.addUser();
+		resource.holdResource(b, b.resource);
+		Assert.assertEquals(2, resource.getCurrentUsers());
+
+		// Using a again makes b the one held the longest.
+		Assert.assertTrue(resource.grabResource(a, a.resource));
+		resource.holdResource(a, a.resource);
+		Assert.assertFalse(resource.grabResource(a, new Object()));
+
+		// c takes over the files of b.
+		resource.addUser();
+		Assert.assertEquals(0, a.released);
+		Assert.assertEquals(1, b.released);
+		Assert.assertEquals(2, resource.getCurrentUsers());
+		Assert.assertFalse(resource.grabResource(b, b.resource));
+		resource.holdResource(c, c.resource);
+
+		// Then a, which is now older than c.
+		resource.addUser();
+		Assert.assertEquals(1, a.released);
+		Assert.assertEquals(0, c.released);
+		Assert.assertTrue(resource.grabResource(c, c.resource));
+
+		Assert.assertEquals(2, hits.get());
+		Assert.assertEquals(4, misses.get());
+		Assert.assertEquals(2, evictions.get());
+	}
+
+	private static void delete(java.io.File file)
+	{
+		java.io.File[] children = file.listFiles();
+		if (children != null)
+			for (java.io.File child : children) delete(child);
+		file.delete();
+	}
+
+	private static void check(com.rbnb.sapi.Sink sink, String channel,
+			int first, int nPoints) throws Exception
+	{
+		com.rbnb.sapi.ChannelMap request = new com.rbnb.sapi.ChannelMap();
+		request.Add(channel);
+		sink.Request(request, first, nPoints, "absolute");
+		com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+		Assert.assertEquals(1, result.NumberOfChannels());
+		double[] values = result.GetDataAsFloat64(0);
+		Assert.assertEquals(nPoints, values.length);
+		for (int idx = 0; idx < nPoints; ++idx)
+			Assert.assertEquals(first + idx, values[idx], 0.);
+	}
+
+	@Test
+	public void testFewerOpenFileSets() throws Exception
+	{
+		String name = "Handles",
+			serverName = "HandlesServer";
+		int nFrames = 500;
+		delete(new java.io.File(ARCHIVE_DIR, name));
+		String[] args = {
+			"-n", serverName, "-S", "2", "-H", ARCHIVE_DIR
+		};
+		Server server = Server.launchNewServer(args);
+		try {
+			com.rbnb.sapi.Source src
+					= new com.rbnb.sapi.Source(10, "create", 1000);
+			src.OpenRBNBConnection("localhost", name);
+			for (int frame = 0; frame < nFrames; ++frame) {
+				com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+				cmap.PutTime(frame, 1.);
+				cmap.PutDataAsFloat64(cmap.Add("c"), new double[] { frame });
+				src.Flush(cmap, true);
+			}
+			src.Detach();
+		} finally {
+			server.stop();
+		}
+
+		MetricsRegistry registry = MetricsRegistry.getDefault();
+		MetricsRegistry.Counter
+			hits = registry.counter(MetricsRegistry.FILESET_HITS, serverName),
+			evictions = registry.counter(MetricsRegistry.FILESET_EVICTIONS,
+					serverName);
+		long hitsBefore = hits.get(),
+			evictionsBefore = evictions.get();
+
+		server = Server.launchNewServer(args);
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(10, "load", 0);
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			src.OpenRBNBConnection("localhost", name);
+			sink.OpenRBNBConnection("localhost", name + "Sink");
+			String channel = name + "/c";
+
+			// Each range lies in a FileSet of its own, and there are more of
+			//  them than can be open at once.
+			for (int pass = 0; pass < 3; ++pass) {
+				for (int first = 0; first < nFrames; first += 100) {
+					check(sink, channel, first + 10, 20);
+					check(sink, channel, first + 50, 20);
+				}
+			}
+			check(sink, channel, 0, nFrames);
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+			server.stop();
+		}
+		Assert.assertTrue(evictions.get() > evictionsBefore);
+		Assert.assertTrue(hits.get() > hitsBefore);
+	}
+}
@@ -0,0 +1,118 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	FlushSchedulerTests.java
+
+	Runs sources in trim by time mode, where the caches are flushed by
+	the shared FlushScheduler rather than by a thread apiece, and checks
+	that every cache is flushed on time and keeps its data.  Lives in
+	com.rbnb.api so that it can read the flush metrics.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FlushSchedulerTests
+{
+	/** Returns the number of scheduled flushes of a source's cache. */
+	private static long flushes(String name) throws Exception
+	{
+		java.io.StringWriter sw = new java.io.StringWriter();
+		MetricsRegistry.getDefault().writePrometheus(sw);
+		for (String line : sw.toString().split("\n")) {
+			if (line.startsWith("rbnb_storage_flush_seconds_count{")
+					&& line.indexOf("/" + name + "/cache\"}") != -1) {
+				return Long.parseLong(
+						line.substring(line.lastIndexOf(' ') + 1));
+			}
+		}
+		return 0;
+	}
+
+	@Test
+	public void testCachesFlushedByTime() throws Exception
+	{
+		String[] names = new String[8];
+		com.rbnb.sapi.Source[] srcs = new com.rbnb.sapi.Source[names.length];
+		Server server = Server.launchNewServer(new String[] {
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+		// In trim by time mode the cache frames are seconds instead.
+		System.setProperty("trimbytime", "true");
+		try {
+			for (int idx = 0; idx < names.length; ++idx) {
+				names[idx] = "FlushedByTime" + idx;
+				srcs[idx] = new com.rbnb.sapi.Source(1, "none", 0);
+				srcs[idx].OpenRBNBConnection("localhost", names[idx]);
+			}
+
+			long startAt = System.currentTimeMillis();
+			int nFrames = 0;
+			while (System.currentTimeMillis() - startAt < 3500) {
+				for (int idx = 0; idx < names.length; ++idx) {
+					com.rbnb.sapi.ChannelMap cmap
+							= new com.rbnb.sapi.ChannelMap();
+					cmap.PutTime(nFrames, 1.);
+					cmap.PutDataAsFloat64(cmap.Add("c"),
+							new double[] { nFrames });
+					srcs[idx].Flush(cmap, true);
+				}
+				++nFrames;
+				Thread.sleep(10);
+			}
+
+			// Each cache is flushed about once a second.  The flushes
+			//  share a few worker threads, so none should fall far behind.
+			for (int idx = 0; idx < names.length; ++idx) {
+				long count = flushes(names[idx]);
+				Assert.assertTrue(names[idx] + " flushed " + count
+						+ " times.", count >= 2 && count <= 5);
+			}
+
+			// The cache still holds the newest frames, in order.
+			com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+			try {
+				sink.OpenRBNBConnection("localhost", "FlushedByTimeSink");
+				com.rbnb.sapi.ChannelMap request
+						= new com.rbnb.sapi.ChannelMap();
+				request.Add(names[0] + "/c");
+				sink.Request(request, 0., 1., "newest");
+				com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+				Assert.assertEquals(1, result.NumberOfChannels());
+				double[] values = result.GetDataAsFloat64(0);
+				Assert.assertTrue(values.length > 0);
+				Assert.assertEquals(nFrames - 1,
+						values[values.length - 1], 0.);
+				for (int idx = 1; idx < values.length; ++idx)
+					Assert.assertEquals(values[idx - 1] + 1., values[idx], 0.);
+			} finally {
+				sink.CloseRBNBConnection();
+			}
+		} finally {
+			System.clearProperty("trimbytime");
+			for (int idx = 0; idx < srcs.length; ++idx) {
+				if (srcs[idx] != null) srcs[idx].CloseRBNBConnection();
+			}
+			server.stop();
+		}
+	}
+}
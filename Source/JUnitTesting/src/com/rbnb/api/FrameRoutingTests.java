@@ -0,0 +1,227 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	FrameRoutingTests.java
+
+	Checks which ring buffers a stream listener is told about, and that
+	sinks of single channels, of several channels, and of wildcards still
+	get every frame once new frames are routed only to the listeners
+	interested in them.  Lives in com.rbnb.api so that it can reach the
+	AwaitNotification.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrameRoutingTests
+{
+	/** Both ends of a notification, neither of which does anything. */
+	private static class Quiet
+		extends Rmap
+		implements NotificationFrom, NotificationTo
+	{
+		Quiet() throws Exception
+		{
+			super("Quiet");
+		}
+
+		public void addNotification(AwaitNotification anI)
+		{
+		}
+
+		public void removeNotification(AwaitNotification anI)
+		{
+		}
+
+		public void post(Serializable serializableI)
+		{
+		}
+
+		public void accept(Serializable eventI, Rmap matchI)
+		{
+		}
+	}
+
+	private static AwaitNotification notification(String... channels)
+			throws Exception
+	{
+		Rmap request = new Rmap("Src");
+		for (String channel : channels) {
+			request.findDescendant("/Src/" + channel, true);
+		}
+		Quiet quiet = new Quiet();
+		return new AwaitNotification(null, request, quiet, quiet);
+	}
+
+	@Test
+	public void testInterest() throws Exception
+	{
+		AwaitNotification an = notification("a", "g/x");
+		Assert.assertNotNull(an.getChannelRequest());
+		Assert.assertTrue(an.isInterestedIn(new String[] { "a" }));
+		Assert.assertTrue(an.isInterestedIn(new String[] { "/a" }));
+		Assert.assertTrue(an.isInterestedIn(new String[] { "b", "g/x" }));
+		Assert.assertFalse(an.isInterestedIn(new String[] { "b" }));
+		Assert.assertFalse(an.isInterestedIn(new String[] { "g/y", "ab" }));
+
+		// A ring buffer whose channels are not yet known could hold
+		//  anything.
+		Assert.assertTrue(an.isInterestedIn(new String[0]));
+
+		// A request for a whole group covers every channel in it.
+		an = notification("g");
+		Assert.assertTrue(an.isInterestedIn(new String[] { "g/y" }));
+		Assert.assertFalse(an.isInterestedIn(new String[] { "a" }));
+
+		// Requests that cannot be matched by name see every frame.
+		for (String channel : new String[] { "*", "g/*", "...", ".x" }) {
+			an = notification(channel);
+			Assert.assertNull(an.getChannelRequest());
+			Assert.assertTrue(an.isInterestedIn(new String[] { "b" }));
+		}
+		Quiet quiet = new Quiet();
+		an = new AwaitNotification(null, quiet, quiet);
+		Assert.assertNull(an.getChannelRequest());
+	}
+
+	private static void flush(com.rbnb.sapi.Source src, String channel,
+			double time) throws Exception
+	{
+		com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+		cmap.PutTime(time, 0.);
+		cmap.PutDataAsFloat64(cmap.Add(channel), new double[] { time });
+		src.Flush(cmap, true);
+	}
+
+	/**
+	  * Fetches from a subscription until it has the expected number of
+	  *  points of a channel at times of at least zero, and returns them.
+	  */
+	private static double[] collect(com.rbnb.sapi.Sink sink, String channel,
+			int nPoints) throws Exception
+	{
+		double[] values = new double[nPoints];
+		int count = 0;
+		long giveUpAt = System.currentTimeMillis() + 30000;
+		while (count < nPoints) {
+			Assert.assertTrue(channel + " got " + count + " points.",
+					System.currentTimeMillis() < giveUpAt);
+			com.rbnb.sapi.ChannelMap result = sink.Fetch(1000);
+			int index = result.GetIndex(channel);
+			if (index == -1) continue;
+			for (double value : result.GetDataAsFloat64(index)) {
+				if (value < 0.) continue;
+				Assert.assertTrue(channel + " got too many points.",
+						count < nPoints);
+				values[count++] = value;
+			}
+		}
+		return values;
+	}
+
+	@Test
+	public void testSinksGetEveryFrame() throws Exception
+	{
+		String name = "Routed";
+		int nFrames = 20;
+		Server server = Server.launchNewServer(new String[] {
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(100, "none", 0);
+		String[] requests = { "a", "b", "a,b", "*" };
+		com.rbnb.sapi.Sink[] sinks = new com.rbnb.sapi.Sink[requests.length];
+		try {
+			// Each channel is flushed on its own, so that it gets a ring
+			//  buffer of its own.
+			src.OpenRBNBConnection("localhost", name);
+			flush(src, "a", -2.);
+			flush(src, "b", -1.);
+
+			for (int idx = 0; idx < sinks.length; ++idx) {
+				sinks[idx] = new com.rbnb.sapi.Sink();
+				sinks[idx].OpenRBNBConnection("localhost", name + "Sink" + idx);
+				com.rbnb.sapi.ChannelMap request
+						= new com.rbnb.sapi.ChannelMap();
+				for (String channel : requests[idx].split(","))
+					request.Add(name + "/" + channel);
+				sinks[idx].Subscribe(request);
+			}
+			Thread.sleep(1000);
+
+			// A subscription skips frames that arrive while it is still
+			//  sending earlier ones, so the frames are spaced out.
+			for (int idx = 0; idx < nFrames; ++idx) {
+				flush(src, "a", 2 * idx);
+				Thread.sleep(50);
+				flush(src, "b", 2 * idx + 1);
+				Thread.sleep(50);
+			}
+
+			for (int idx = 0; idx < sinks.length; ++idx) {
+				boolean wantA = !requests[idx].equals("b"),
+					wantB = !requests[idx].equals("a");
+				if (wantA && wantB) {
+					// Frames from the two ring buffers may come back
+					//  together, so only the set of points is checked.
+					double[] got = new double[2 * nFrames];
+					int count = 0;
+					long giveUpAt = System.currentTimeMillis() + 30000;
+					while (count < got.length) {
+						Assert.assertTrue(requests[idx] + " got " + count
+								+ " points.",
+								System.currentTimeMillis() < giveUpAt);
+						com.rbnb.sapi.ChannelMap result
+								= sinks[idx].Fetch(1000);
+						for (int cIdx = 0;
+								cIdx < result.NumberOfChannels();
+								++cIdx) {
+							for (double value
+									: result.GetDataAsFloat64(cIdx)) {
+								if (value < 0.) continue;
+								Assert.assertTrue(requests[idx]
+										+ " got too many points.",
+										count < got.length);
+								got[count++] = value;
+							}
+						}
+					}
+					java.util.Arrays.sort(got);
+					for (int vIdx = 0; vIdx < got.length; ++vIdx)
+						Assert.assertEquals(vIdx, got[vIdx], 0.);
+				} else {
+					String channel = name + "/" + requests[idx];
+					double[] values = collect(sinks[idx], channel, nFrames);
+					for (int vIdx = 0; vIdx < nFrames; ++vIdx) {
+						Assert.assertEquals(2 * vIdx + (wantB ? 1 : 0),
+								values[vIdx], 0.);
+					}
+				}
+			}
+		} finally {
+			for (int idx = 0; idx < sinks.length; ++idx) {
+				if (sinks[idx] != null) sinks[idx].CloseRBNBConnection();
+			}
+			src.CloseRBNBConnection();
+			server.stop();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	IngestTests.java
+
+	Floods sources with frames that are not waited for, so that the RBO
+	picks them up from its ingest queue in batches, and checks that every
+	frame is stored in order and that sinks are answered meanwhile.  The
+	build runs these in a JVM of their own, with
+	com.rbnb.api.RBO.ingestQueue set above one.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IngestTests
+{
+	private static final int N_FRAMES = 2000;
+
+	private Server server;
+
+	@org.junit.Before
+	public void startServer() throws Exception
+	{
+		server = Server.launchNewServer(new String[] {
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+	}
+
+	@org.junit.After
+	public void stopServer() throws Exception
+	{
+		if (server != null) {
+			server.stop();
+			server = null;
+		}
+	}
+
+	/**
+	  * Flushes a frame with one point at the given time, without waiting
+	  *  for the server.
+	  */
+	private static void flush(com.rbnb.sapi.Source src, double time)
+			throws Exception
+	{
+		com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+		cmap.PutTime(time, 1.);
+		cmap.PutDataAsFloat64(cmap.Add("c"), new double[] { time });
+		src.Flush(cmap, false);
+	}
+
+	/**
+	  * Waits for the source's frames to be stored and fetches them all.
+	  */
+	private static double[] fetchAll(com.rbnb.sapi.Source src,
+			String name) throws Exception
+	{
+		src.Flush(new com.rbnb.sapi.ChannelMap(), true);
+		src.Detach();
+
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			sink.OpenRBNBConnection("localhost", name + "Sink");
+			com.rbnb.sapi.ChannelMap request
+					= new com.rbnb.sapi.ChannelMap();
+			request.Add(name + "/c");
+			sink.Request(request, 0., 1e6, "absolute");
+			com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+			Assert.assertEquals(1, result.NumberOfChannels());
+			return result.GetDataAsFloat64(0);
+		} finally {
+			sink.CloseRBNBConnection();
+		}
+	}
+
+	@Test
+	public void testBatchesKeepEveryFrame() throws Exception
+	{
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(
+				N_FRAMES, "none", 0);
+		src.OpenRBNBConnection("localhost", "Batches");
+		for (int idx = 0; idx < N_FRAMES; ++idx) flush(src, idx);
+
+		double[] values = fetchAll(src, "Batches");
+		Assert.assertEquals(N_FRAMES, values.length);
+		for (int idx = 0; idx < N_FRAMES; ++idx)
+			Assert.assertEquals(idx, values[idx], 0.);
+	}
+
+	@Test
+	public void testBackwardFrameInBatch() throws Exception
+	{
+		// A frame that goes back in time is refused, but the frames
+		//  queued behind it are still stored.
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(100, "none", 0);
+		src.OpenRBNBConnection("localhost", "Backward");
+		for (int idx = 0; idx < 10; ++idx) flush(src, idx);
+		flush(src, 5.);
+		for (int idx = 10; idx < 20; ++idx) flush(src, idx);
+
+		double[] values = fetchAll(src, "Backward");
+		Assert.assertEquals(20, values.length);
+		for (int idx = 0; idx < values.length; ++idx)
+			Assert.assertEquals(idx, values[idx], 0.);
+	}
+
+	@Test
+	public void testSinksAnsweredDuringIngest() throws Exception
+	{
+		// Sinks share the RBO with the batches being stored, so they
+		//  must keep getting answers while a source floods it.
+		final com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(
+				N_FRAMES, "none", 0);
+		src.OpenRBNBConnection("localhost", "Flooded");
+		flush(src, 0.);
+		src.Flush(new com.rbnb.sapi.ChannelMap(), true);
+
+		final Exception[] failure = new Exception[1];
+		Thread flooder = new Thread() {
+			public void run() {
+				try {
+					for (int idx = 1; idx < N_FRAMES; ++idx)
+						flush(src, idx);
+				} catch (Exception e) {
+					failure[0] = e;
+				}
+			}
+		};
+		flooder.start();
+
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			sink.OpenRBNBConnection("localhost", "FloodedSink");
+			com.rbnb.sapi.ChannelMap request
+					= new com.rbnb.sapi.ChannelMap();
+			request.Add("Flooded/c");
+			double last = -1.;
+			while (flooder.isAlive() || (last < N_FRAMES - 1)) {
+				sink.Request(request, 0., 0., "newest");
+				com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+				Assert.assertEquals(1, result.NumberOfChannels());
+				double newest = result.GetDataAsFloat64(0)[0];
+				Assert.assertTrue(newest >= last);
+				last = newest;
+			}
+		} finally {
+			sink.CloseRBNBConnection();
+		}
+		flooder.join();
+		Assert.assertNull(failure[0]);
+
+		double[] values = fetchAll(src, "Flooded");
+		Assert.assertEquals(N_FRAMES, values.length);
+	}
+}
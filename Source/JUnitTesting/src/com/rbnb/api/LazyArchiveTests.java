@@ -0,0 +1,165 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	LazyArchiveTests.java
+
+	Checks that the SkeletonCache keeps the most recently used FileSets,
+	and that an archive opened lazily answers requests with the same data
+	as when it was written while holding no more skeletons than the
+	limit.  The build runs these in a JVM of their own, with
+	com.rbnb.api.Archive.lazy and com.rbnb.api.SkeletonCache.limit set.
+	Lives in com.rbnb.api so that it can reach the SkeletonCache.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class LazyArchiveTests
+{
+	private static final String ARCHIVE_DIR
+			= System.getProperty("com.rbnb.tests.rbnbArchiveDir");
+
+	@Test
+	public void testSkeletonCache() throws Exception
+	{
+		// FileSets that were not opened lazily have nothing to unload, so
+		//  only the bookkeeping is seen.
+		FileSet[] sets = new FileSet[SkeletonCache.LIMIT + 3];
+		try {
+			for (int idx = 0; idx < sets.length; ++idx) {
+				sets[idx] = new FileSet(idx + 1);
+				SkeletonCache.used(sets[idx]);
+				Assert.assertTrue(SkeletonCache.size() <= SkeletonCache.LIMIT);
+			}
+			Assert.assertEquals(SkeletonCache.LIMIT, SkeletonCache.size());
+
+			// The most recently used ones are kept.
+			SkeletonCache.forget(sets[sets.length - 1]);
+			Assert.assertEquals(SkeletonCache.LIMIT - 1, SkeletonCache.size());
+			SkeletonCache.forget(sets[0]);
+			Assert.assertEquals(SkeletonCache.LIMIT - 1, SkeletonCache.size());
+		} finally {
+			for (int idx = 0; idx < sets.length; ++idx) {
+				if (sets[idx] != null) SkeletonCache.forget(sets[idx]);
+			}
+		}
+	}
+
+	private static com.rbnb.sapi.ChannelMap fetch(com.rbnb.sapi.Sink sink,
+			String channel, double start, double duration, String reference)
+			throws Exception
+	{
+		com.rbnb.sapi.ChannelMap request = new com.rbnb.sapi.ChannelMap();
+		request.Add(channel);
+		sink.Request(request, start, duration, reference);
+		return sink.Fetch(10000);
+	}
+
+	/** Checks a fetch against the frames written, one point per second. */
+	private static void check(String what, com.rbnb.sapi.ChannelMap result,
+			int first, int nPoints)
+	{
+		Assert.assertEquals(what, 1, result.NumberOfChannels());
+		double[] times = result.GetTimes(0),
+			values = result.GetDataAsFloat64(0);
+		Assert.assertEquals(what, nPoints, values.length);
+		for (int idx = 0; idx < nPoints; ++idx) {
+			Assert.assertEquals(what, first + idx, times[idx], 0.);
+			Assert.assertEquals(what, first + idx, values[idx], 0.);
+		}
+	}
+
+	private static void delete(java.io.File file)
+	{
+		java.io.File[] children = file.listFiles();
+		if (children != null)
+			for (java.io.File child : children) delete(child);
+		file.delete();
+	}
+
+	@Test
+	public void testLazyArchive() throws Exception
+	{
+		Assume.assumeTrue(Archive.LAZY);
+
+		String name = "Lazy";
+		int nFrames = 500;
+		delete(new java.io.File(ARCHIVE_DIR, name));
+		Server server = Server.launchNewServer(new String[] {
+			"-H", ARCHIVE_DIR
+		});
+		try {
+			com.rbnb.sapi.Source src
+					= new com.rbnb.sapi.Source(10, "create", 1000);
+			src.OpenRBNBConnection("localhost", name);
+			for (int frame = 0; frame < nFrames; ++frame) {
+				com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+				cmap.PutTime(frame, 1.);
+				cmap.PutDataAsFloat64(cmap.Add("c"), new double[] { frame });
+				src.Flush(cmap, true);
+			}
+			src.Detach();
+		} finally {
+			server.stop();
+		}
+		java.io.File[] fileSets = new java.io.File(ARCHIVE_DIR,
+				name + "/RB1").listFiles(new java.io.FileFilter() {
+					public boolean accept(java.io.File file)
+					{
+						return file.getName().startsWith("FS");
+					}
+				});
+		Assert.assertTrue(fileSets.length > SkeletonCache.LIMIT);
+
+		server = Server.launchNewServer(new String[] { "-H", ARCHIVE_DIR });
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source(10, "load", 0);
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			src.OpenRBNBConnection("localhost", name);
+			Assert.assertTrue(SkeletonCache.size() <= SkeletonCache.LIMIT);
+			sink.OpenRBNBConnection("localhost", name + "Sink");
+			String channel = name + "/c";
+
+			// Each request is made twice, as the skeletons it needs may
+			//  have been unloaded in between.
+			for (int pass = 0; pass < 2; ++pass) {
+				check("oldest", fetch(sink, channel, 0., 10., "oldest"), 0, 10);
+				Assert.assertTrue(SkeletonCache.size() <= SkeletonCache.LIMIT);
+				check("newest", fetch(sink, channel, 0., 10., "newest"),
+						nFrames - 10, 10);
+				check("absolute", fetch(sink, channel, 0., nFrames,
+						"absolute"), 0, nFrames);
+				Assert.assertTrue(SkeletonCache.size() <= SkeletonCache.LIMIT);
+				check("middle", fetch(sink, channel, 240., 20., "absolute"),
+						240, 20);
+				check("next", fetch(sink, channel, 150.5, 0., "next"), 151, 1);
+				check("previous", fetch(sink, channel, 351., 0.,
+						"previous"), 350, 1);
+				Assert.assertTrue(SkeletonCache.size() <= SkeletonCache.LIMIT);
+			}
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+			server.stop();
+		}
+	}
+}
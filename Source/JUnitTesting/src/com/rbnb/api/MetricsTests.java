@@ -0,0 +1,227 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	MetricsTests.java
+
+	Checks the metrics registry's Prometheus text and _Metrics channels,
+	the HTTP exporter, and that a server counts the frames it accepts.
+	Lives in com.rbnb.api so that it can reach the MetricsRegistry.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsTests
+{
+	private static String prometheus(MetricsRegistry registry)
+			throws Exception
+	{
+		java.io.StringWriter sw = new java.io.StringWriter();
+		registry.writePrometheus(sw);
+		return sw.toString();
+	}
+
+	private static boolean hasLine(String text, String line)
+	{
+		return ("\n" + text).indexOf("\n" + line + "\n") != -1;
+	}
+
+	/** Returns the single value of a _Metrics channel. */
+	private static double value(Rmap metrics, String channel)
+			throws Exception
+	{
+		Object data = metrics.findDescendant("/" + channel, false)
+				.getDblock().getData().elementAt(0);
+		if (data instanceof long[]) return ((long[]) data)[0];
+		return ((double[]) data)[0];
+	}
+
+	@Test
+	public void testPrometheusText() throws Exception
+	{
+		MetricsRegistry registry = new MetricsRegistry();
+		MetricsRegistry.Counter counter = registry.counter(
+				MetricsRegistry.INGEST_FRAMES, "rb\"1\"");
+		counter.increment();
+		counter.add(2);
+		registry.gauge(MetricsRegistry.CACHE_BYTES, "server").set(1234);
+		MetricsRegistry.Histogram histogram
+				= registry.histogram(MetricsRegistry.DOOR_WAIT, null);
+		histogram.observeNanos(500L);
+		histogram.observeNanos(2000000000L);
+		histogram.observeNanos(-1L);
+
+		String text = prometheus(registry);
+		Assert.assertTrue(hasLine(text,
+				"# TYPE rbnb_ingest_frames_total counter"));
+		Assert.assertTrue(hasLine(text,
+				"rbnb_ingest_frames_total{ringbuffer=\"rb\\\"1\\\"\"} 3"));
+		Assert.assertTrue(hasLine(text,
+				"rbnb_cache_bytes{server=\"server\"} 1234"));
+		Assert.assertTrue(hasLine(text,
+				"# TYPE rbnb_door_wait_seconds histogram"));
+
+		// The buckets are cumulative, and negative times count as zero.
+		Assert.assertTrue(hasLine(text,
+				"rbnb_door_wait_seconds_bucket{le=\"+Inf\"} 3"));
+		Assert.assertTrue(hasLine(text, "rbnb_door_wait_seconds_count 3"));
+		Assert.assertTrue(hasLine(text,
+				"rbnb_door_wait_seconds_sum 2.0000005"));
+		long last = 0;
+		int nBuckets = 0;
+		for (String line : text.split("\n")) {
+			if (!line.startsWith("rbnb_door_wait_seconds_bucket")) continue;
+			long count = Long.parseLong(
+					line.substring(line.lastIndexOf(' ') + 1));
+			Assert.assertTrue(count >= last);
+			last = count;
+			++nBuckets;
+		}
+		Assert.assertTrue(nBuckets > 1);
+
+		// Removed series no longer appear.
+		registry.remove(MetricsRegistry.INGEST_FRAMES, "rb\"1\"");
+		Assert.assertEquals(-1, prometheus(registry).indexOf(
+				"rbnb_ingest_frames_total{"));
+	}
+
+	@Test
+	public void testMetricsChannels() throws Exception
+	{
+		MetricsRegistry registry = new MetricsRegistry();
+		Rmap metrics = new Rmap();
+		registry.addMetricsChannels(metrics);
+		Assert.assertNotNull(metrics.findDescendant("/IngestFrames", false));
+		Assert.assertNotNull(metrics.findDescendant("/IngestFramesRate",
+				false));
+		Assert.assertNotNull(metrics.findDescendant("/DoorWaitCount",
+				false));
+		Assert.assertNotNull(metrics.findDescendant("/DoorWaitMean",
+				false));
+		Assert.assertNull(metrics.findDescendant("/CacheBytes", false));
+
+		// Series are summed across labels, and rates and means cover the
+		//  time since the previous sample.
+		registry.counter(MetricsRegistry.INGEST_FRAMES, "a").add(10);
+		registry.counter(MetricsRegistry.INGEST_FRAMES, "b").add(20);
+		registry.histogram(MetricsRegistry.DOOR_WAIT, null)
+				.observeNanos(1000000000L);
+		registry.fillMetricsChannels(metrics, 2.);
+		Assert.assertEquals(30., value(metrics, "IngestFrames"), 0.);
+		Assert.assertEquals(15., value(metrics, "IngestFramesRate"), 0.);
+		Assert.assertEquals(1., value(metrics, "DoorWaitCount"), 0.);
+		Assert.assertEquals(1., value(metrics, "DoorWaitMean"), 1.e-9);
+
+		registry.counter(MetricsRegistry.INGEST_FRAMES, "a").add(4);
+		registry.histogram(MetricsRegistry.DOOR_WAIT, null)
+				.observeNanos(3000000000L);
+		registry.fillMetricsChannels(metrics, 1.);
+		Assert.assertEquals(34., value(metrics, "IngestFrames"), 0.);
+		Assert.assertEquals(4., value(metrics, "IngestFramesRate"), 0.);
+		Assert.assertEquals(3., value(metrics, "DoorWaitMean"), 1.e-9);
+
+		// A series that goes away never gives a negative rate.
+		registry.remove(MetricsRegistry.INGEST_FRAMES, "b");
+		registry.fillMetricsChannels(metrics, 1.);
+		Assert.assertEquals(14., value(metrics, "IngestFrames"), 0.);
+		Assert.assertEquals(0., value(metrics, "IngestFramesRate"), 0.);
+		Assert.assertEquals(0., value(metrics, "DoorWaitMean"), 0.);
+	}
+
+	/** Sends a request to the exporter and returns the response. */
+	private static String scrape(int port, String path) throws Exception
+	{
+		java.net.Socket socket = new java.net.Socket("127.0.0.1", port);
+		try {
+			socket.getOutputStream().write(("GET " + path
+					+ " HTTP/1.0\r\nHost: localhost\r\n\r\n")
+					.getBytes("US-ASCII"));
+			java.io.ByteArrayOutputStream baos
+					= new java.io.ByteArrayOutputStream();
+			java.io.InputStream is = socket.getInputStream();
+			byte[] buffer = new byte[4096];
+			for (int n; (n = is.read(buffer)) != -1; )
+				baos.write(buffer, 0, n);
+			return baos.toString("UTF-8");
+		} finally {
+			socket.close();
+		}
+	}
+
+	@Test
+	public void testExporter() throws Exception
+	{
+		MetricsRegistry registry = new MetricsRegistry();
+		registry.counter(MetricsRegistry.INGEST_FRAMES, "rb").add(7);
+		MetricsExporter exporter = new MetricsExporter(registry, 0);
+		exporter.start();
+		try {
+			String response = scrape(exporter.getPort(), "/metrics");
+			Assert.assertTrue(response.startsWith("HTTP/1.0 200 OK\r\n"));
+			String body = response.substring(
+					response.indexOf("\r\n\r\n") + 4);
+			Assert.assertEquals(prometheus(registry), body);
+			Assert.assertTrue(hasLine(body,
+					"rbnb_ingest_frames_total{ringbuffer=\"rb\"} 7"));
+
+			Assert.assertTrue(scrape(exporter.getPort(), "/other")
+					.startsWith("HTTP/1.0 404 Not Found\r\n"));
+		} finally {
+			exporter.stop();
+		}
+	}
+
+	@Test
+	public void testServerCountsFrames() throws Exception
+	{
+		String name = "MetricsCounted";
+		int nFrames = 25;
+		Server server = Server.launchNewServer(new String[] {
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source();
+		try {
+			src.OpenRBNBConnection("localhost", name);
+			for (int idx = 0; idx < nFrames; ++idx) {
+				com.rbnb.sapi.ChannelMap cmap
+						= new com.rbnb.sapi.ChannelMap();
+				cmap.PutTime(idx, 1.);
+				cmap.PutDataAsFloat64(cmap.Add("c"), new double[] { idx });
+				src.Flush(cmap, true);
+			}
+
+			long total = 0;
+			for (String line : prometheus(MetricsRegistry.getDefault())
+					.split("\n")) {
+				if (line.startsWith("rbnb_ingest_frames_total{")
+						&& (line.indexOf("/" + name + "\"}") != -1)) {
+					total += Long.parseLong(
+							line.substring(line.lastIndexOf(' ') + 1));
+				}
+			}
+			Assert.assertEquals(nFrames, total);
+		} finally {
+			src.CloseRBNBConnection();
+			server.stop();
+		}
+	}
+}
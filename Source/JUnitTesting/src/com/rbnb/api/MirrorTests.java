@@ -0,0 +1,156 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	MirrorTests.java
+
+	Checks that a mirror copies every frame of a source to another server,
+	in order, whether it posts each frame before fetching the next or
+	keeps fetching while it posts batches of them.  The build runs these
+	both ways, the second in a JVM of its own with
+	com.rbnb.api.MirrorController.window set.  Lives in com.rbnb.api so
+	that it can reach the MirrorController.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MirrorTests
+{
+	private static final String ARCHIVE_DIR
+			= System.getProperty("com.rbnb.tests.rbnbArchiveDir");
+
+	/** The address of the server that is mirrored to. */
+	private static final String TO_ADDRESS = "localhost:3334";
+
+	/** The channels of the mirrored source. */
+	private static final String[] CHANNELS = { "c", "d" };
+
+	private static double value(int channel, int frame)
+	{
+		return 1000 * channel + frame;
+	}
+
+	private static String prometheus() throws Exception
+	{
+		java.io.StringWriter sw = new java.io.StringWriter();
+		MetricsRegistry.getDefault().writePrometheus(sw);
+		return sw.toString();
+	}
+
+	/**
+	  * Fetches the frames that have reached the mirror until there are
+	  *  nFrames of each channel, and checks them.
+	  */
+	private static void checkMirrored(com.rbnb.sapi.Sink sink, String name,
+			int nFrames) throws Exception
+	{
+		long giveUpAt = System.currentTimeMillis() + 60000;
+		for (int cIdx = 0; cIdx < CHANNELS.length; ++cIdx) {
+			String channel = name + "/" + CHANNELS[cIdx];
+			double[] times, values;
+			do {
+				Assert.assertTrue(channel + " was not mirrored.",
+						System.currentTimeMillis() < giveUpAt);
+				com.rbnb.sapi.ChannelMap request
+						= new com.rbnb.sapi.ChannelMap();
+				request.Add(channel);
+				sink.Request(request, 0., nFrames, "absolute");
+				com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+				if (result.NumberOfChannels() == 0) {
+					times = values = new double[0];
+				} else {
+					times = result.GetTimes(0);
+					values = result.GetDataAsFloat64(0);
+				}
+				if (values.length < nFrames) Thread.sleep(100);
+			} while (values.length < nFrames);
+
+			Assert.assertEquals(channel, nFrames, values.length);
+			for (int frame = 0; frame < nFrames; ++frame) {
+				Assert.assertEquals(channel, frame, times[frame], 0.);
+				Assert.assertEquals(channel, value(cIdx, frame),
+						values[frame], 0.);
+			}
+		}
+	}
+
+	@Test
+	public void testMirrorEveryFrame() throws Exception
+	{
+		String name = "Mirrored",
+			copy = "MirroredCopy";
+		int nFrames = 200;
+		Server from = Server.launchNewServer(new String[] {
+				"-H", ARCHIVE_DIR
+			}),
+			to = null;
+		com.rbnb.sapi.Source src
+				= new com.rbnb.sapi.Source(2 * nFrames, "none", 0);
+		com.rbnb.sapi.Control control = new com.rbnb.sapi.Control();
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			to = Server.launchNewServer(new String[] {
+				"-a", TO_ADDRESS, "-n", "MirrorServer", "-H", ARCHIVE_DIR
+			});
+
+			// Every frame fits in the caches of both sources.
+			src.OpenRBNBConnection("localhost", name);
+			control.OpenRBNBConnection("localhost", name + "Control");
+			control.CreateMirrorOut(name, TO_ADDRESS, copy, 2 * nFrames, 0,
+					SourceInterface.ACCESS_NONE, false);
+			Thread.sleep(2000);
+
+			// The frames are flushed as fast as they can be, so that a
+			//  pipelined mirror has frames waiting to be posted together.
+			for (int frame = 0; frame < nFrames; ++frame) {
+				com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+				cmap.PutTime(frame, 1.);
+				for (int cIdx = 0; cIdx < CHANNELS.length; ++cIdx) {
+					cmap.PutDataAsFloat64(cmap.Add(CHANNELS[cIdx]),
+							new double[] { value(cIdx, frame) });
+				}
+				src.Flush(cmap, true);
+			}
+
+			sink.OpenRBNBConnection(TO_ADDRESS, name + "Sink");
+			checkMirrored(sink, copy, nFrames);
+
+			// A pipelined mirror says how far it is behind while it runs.
+			Assert.assertEquals(MirrorController.WINDOW > 0,
+					prometheus().indexOf(MetricsRegistry.MIRROR_LAG
+					+ "{") != -1);
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+
+			// Server.stop() waits for the mirror's sink, which is blocked
+			//  fetching the next frame, so the server is terminated from
+			//  the control connection instead.
+			if (control.VerifyConnection()) {
+				control.TerminateServer();
+				control.CloseRBNBConnection();
+			} else {
+				from.stop();
+			}
+			if (to != null) to.stop();
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	NIOTests.java
+
+	Runs sources and sinks through a server on an nio:// address, with
+	more clients than worker threads, and checks that clients that stop
+	in the middle of a message are dropped rather than keeping workers
+	from everyone else.  The build runs these in a JVM of their own, with
+	com.rbnb.api.NIO.workers and com.rbnb.api.NIO.stallLimit set low.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class NIOTests
+{
+	private static final String ADDRESS = "localhost:3340";
+
+	private Server server;
+
+	@org.junit.Before
+	public void startServer() throws Exception
+	{
+		server = Server.launchNewServer(new String[] {
+			"-a",
+			"nio://" + ADDRESS,
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+	}
+
+	@org.junit.After
+	public void stopServer() throws Exception
+	{
+		if (server != null) {
+			server.stop();
+			server = null;
+		}
+	}
+
+	/**
+	  * Flushes frames from a source and fetches them back through a sink.
+	  */
+	private static void roundTrip(String name, int nFrames) throws Exception
+	{
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source();
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			src.OpenRBNBConnection(ADDRESS, name);
+			for (int idx = 0; idx < nFrames; ++idx) {
+				com.rbnb.sapi.ChannelMap cmap
+						= new com.rbnb.sapi.ChannelMap();
+				cmap.PutTime(idx, 1.);
+				cmap.PutDataAsFloat64(cmap.Add("c"),
+						new double[] { idx });
+				src.Flush(cmap, true);
+			}
+
+			sink.OpenRBNBConnection(ADDRESS, name + "Sink");
+			com.rbnb.sapi.ChannelMap request
+					= new com.rbnb.sapi.ChannelMap();
+			request.Add(name + "/c");
+			sink.Request(request, 0., nFrames, "absolute");
+			com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+			Assert.assertEquals(1, result.NumberOfChannels());
+			double[] values = result.GetDataAsFloat64(0);
+			Assert.assertEquals(nFrames, values.length);
+			for (int idx = 0; idx < nFrames; ++idx)
+				Assert.assertEquals(idx, values[idx], 0.);
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+		}
+	}
+
+	@Test
+	public void testManyClients() throws Exception
+	{
+		final Throwable[] failure = { null };
+		Thread[] clients = new Thread[20];
+		for (int idx = 0; idx < clients.length; ++idx) {
+			final String name = "NIO" + idx;
+			clients[idx] = new Thread() {
+				public void run()
+				{
+					try {
+						roundTrip(name, 20);
+					} catch (Throwable e) {
+						failure[0] = e;
+					}
+				}
+			};
+			clients[idx].start();
+		}
+		for (Thread client : clients) client.join(120000);
+		if (failure[0] != null) throw new AssertionError(failure[0]);
+	}
+
+	/**
+	  * Returns the bytes a client sends when it opens a connection, up to
+	  *  the point where it waits for the server.
+	  */
+	private static byte[] loginBytes() throws Exception
+	{
+		final java.net.ServerSocket listener = new java.net.ServerSocket(0);
+		Thread client = new Thread() {
+			public void run()
+			{
+				com.rbnb.sapi.Source src = new com.rbnb.sapi.Source();
+				try {
+					src.OpenRBNBConnection("localhost:"
+							+ listener.getLocalPort(), "Captured");
+				} catch (Exception e) {
+				}
+			}
+		};
+		client.start();
+		java.net.Socket socket = listener.accept();
+		try {
+			socket.setSoTimeout(1000);
+			java.io.ByteArrayOutputStream bytes
+					= new java.io.ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			try {
+				for (int n; (n = socket.getInputStream().read(buffer)) > 0; )
+					bytes.write(buffer, 0, n);
+			} catch (java.net.SocketTimeoutException e) {
+			}
+			return bytes.toByteArray();
+		} finally {
+			socket.close();
+			listener.close();
+			client.join(10000);
+		}
+	}
+
+	@Test
+	public void testStalledClients() throws Exception
+	{
+		String limit = System.getProperty("com.rbnb.api.NIO.stallLimit");
+		Assume.assumeTrue(limit != null);
+		long stallLimit = Long.parseLong(limit);
+
+		// Start a login on more connections than there are workers and
+		//  then stop sending.
+		byte[] login = loginBytes();
+		Assert.assertTrue(login.length > 1);
+		java.net.Socket[] stalled = new java.net.Socket[
+				Integer.getInteger("com.rbnb.api.NIO.workers", 8) + 2];
+		long startAt = System.currentTimeMillis();
+		for (int idx = 0; idx < stalled.length; ++idx) {
+			stalled[idx] = new java.net.Socket("localhost", 3340);
+			stalled[idx].getOutputStream().write(login, 0, login.length / 2);
+			stalled[idx].getOutputStream().flush();
+		}
+
+		try {
+			// Everyone else is served once the stalled connections are
+			//  dropped.
+			roundTrip("AfterStall", 5);
+
+			for (java.net.Socket socket : stalled) {
+				socket.setSoTimeout((int) (10 * stallLimit));
+				try {
+					// Skip any answers to what did arrive.
+					while (socket.getInputStream().read() != -1) ;
+				} catch (java.net.SocketException e) {
+					// Reset by the server.
+				}
+			}
+			Assert.assertTrue(System.currentTimeMillis() - startAt
+					>= stallLimit);
+		} finally {
+			for (java.net.Socket socket : stalled) socket.close();
+		}
+	}
+}
@@ -0,0 +1,222 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	RegistrationSinceTests.java
+
+	Checks the versions kept of the server's registration, and that a
+	sink asking for the registration since a version gets just the
+	clients that changed, which update its ChannelTree to match the full
+	registration.  Lives in com.rbnb.api so that it can reach the
+	RegistrationVersions.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import com.rbnb.sapi.ChannelMap;
+import com.rbnb.sapi.ChannelTree;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RegistrationSinceTests
+{
+	/** The root the trees are built under, as the WebDAV servlet does. */
+	private static final String ROOT = "Server";
+
+	private static java.util.Vector changed(RegistrationVersions versions,
+			long since, java.util.Vector removed)
+	{
+		java.util.Vector changed = new java.util.Vector();
+		Assert.assertTrue(versions.getChanges(since, changed, removed));
+		java.util.Collections.sort(changed);
+		java.util.Collections.sort(removed);
+		return changed;
+	}
+
+	@Test
+	public void testVersions()
+	{
+		RegistrationVersions versions = new RegistrationVersions();
+		long start = versions.getVersion();
+
+		versions.changed("a");
+		versions.changed("b");
+		long afterB = versions.getVersion();
+		versions.changed("a");
+		Assert.assertTrue(afterB > start
+				&& versions.getVersion() > afterB);
+
+		java.util.Vector removed = new java.util.Vector();
+		Assert.assertEquals(java.util.Arrays.asList("a", "b"),
+				changed(versions, start, removed));
+		Assert.assertTrue(removed.isEmpty());
+		Assert.assertEquals(java.util.Arrays.asList("a"),
+				changed(versions, afterB, removed));
+		Assert.assertTrue(changed(versions, versions.getVersion(),
+				removed).isEmpty());
+
+		// Removing a client reports it as gone until it comes back.
+		versions.removed("b");
+		versions.removed("unknown");
+		Assert.assertEquals(java.util.Arrays.asList("a"),
+				changed(versions, start, removed));
+		Assert.assertEquals(java.util.Arrays.asList("b"), removed);
+		removed.removeAllElements();
+		versions.changed("b");
+		Assert.assertEquals(java.util.Arrays.asList("a", "b"),
+				changed(versions, start, removed));
+		Assert.assertTrue(removed.isEmpty());
+
+		// Versions from before this server started, or not yet given out,
+		//  cannot be answered.
+		java.util.Vector changed = new java.util.Vector();
+		Assert.assertFalse(versions.getChanges(start - 1, changed, removed));
+		Assert.assertFalse(versions.getChanges(versions.getVersion() + 1,
+				changed, removed));
+	}
+
+	@Test
+	public void testForgottenRemovals()
+	{
+		// Once the oldest removals are forgotten, versions before them
+		//  cannot be answered.
+		RegistrationVersions versions = new RegistrationVersions();
+		long start = versions.getVersion();
+		for (int idx = 0; idx < 1100; ++idx) versions.changed("c" + idx);
+		long added = versions.getVersion();
+		for (int idx = 0; idx < 1100; ++idx) versions.removed("c" + idx);
+
+		java.util.Vector changed = new java.util.Vector(),
+			removed = new java.util.Vector();
+		Assert.assertFalse(versions.getChanges(start, changed, removed));
+		Assert.assertFalse(versions.getChanges(added, changed, removed));
+		Assert.assertTrue(versions.getChanges(versions.getVersion() - 10,
+				changed, removed));
+		Assert.assertEquals(10, removed.size());
+	}
+
+	private static ChannelTree fullTree(com.rbnb.sapi.Sink sink)
+			throws Exception
+	{
+		ChannelMap cmap = new ChannelMap();
+		sink.RequestRegistration();
+		sink.Fetch(10000, cmap);
+		return ChannelTree.createFromChannelMap(cmap, ROOT);
+	}
+
+	/** Lists the channels of the sources whose names start with prefix. */
+	private static java.util.List channels(ChannelTree tree, String prefix)
+	{
+		java.util.List names = new java.util.ArrayList();
+		for (java.util.Iterator iter = tree.iterator(); iter.hasNext(); ) {
+			ChannelTree.Node node = (ChannelTree.Node) iter.next();
+			String name = node.getFullName();
+			if (node.getType() == ChannelTree.CHANNEL
+					&& name.startsWith("/" + ROOT + "/" + prefix)) {
+				names.add(name);
+			}
+		}
+		java.util.Collections.sort(names);
+		return names;
+	}
+
+	private static void flush(com.rbnb.sapi.Source src, String channel)
+			throws Exception
+	{
+		ChannelMap cmap = new ChannelMap();
+		cmap.PutTime(0., 1.);
+		cmap.PutDataAsFloat64(cmap.Add(channel), new double[] { 1. });
+		src.Flush(cmap, true);
+	}
+
+	@Test
+	public void testRegistrationSince() throws Exception
+	{
+		Server server = Server.launchNewServer(new String[] {
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		com.rbnb.sapi.Source srcA = new com.rbnb.sapi.Source(),
+			srcB = new com.rbnb.sapi.Source();
+		try {
+			sink.OpenRBNBConnection("localhost", "SinceSink");
+			String parent = "/" + ROOT;
+
+			// An unknown version gets the whole registration.
+			long version = sink.RequestRegistrationSince(0);
+			Assert.assertTrue(version != 0);
+			Assert.assertNull(sink.GetChangedRegistrations());
+			ChannelMap cmap = new ChannelMap();
+			sink.Fetch(10000, cmap);
+			ChannelTree tree = ChannelTree.createFromChannelMap(cmap, ROOT);
+
+			srcA.OpenRBNBConnection("localhost", "SinceA");
+			flush(srcA, "x");
+			srcB.OpenRBNBConnection("localhost", "SinceB");
+			flush(srcB, "y");
+
+			long next = sink.RequestRegistrationSince(version);
+			Assert.assertTrue(next > version);
+			java.util.List changed = java.util.Arrays.asList(
+					sink.GetChangedRegistrations());
+			Assert.assertTrue(changed.contains("SinceA"));
+			Assert.assertTrue(changed.contains("SinceB"));
+			Assert.assertFalse(changed.contains("SinceSink"));
+			Assert.assertEquals(0, sink.GetRemovedRegistrations().length);
+			sink.Fetch(10000, cmap);
+			tree = tree.update(ChannelTree.createFromChannelMap(cmap, ROOT),
+					parent, sink.GetChangedRegistrations());
+			Assert.assertEquals(java.util.Arrays.asList(
+					parent + "/SinceA/x", parent + "/SinceB/y"),
+					channels(tree, "Since"));
+			version = next;
+
+			// Nothing changed.
+			Assert.assertEquals(version,
+					sink.RequestRegistrationSince(version));
+			Assert.assertEquals(0, sink.GetChangedRegistrations().length);
+			sink.Fetch(10000, cmap);
+
+			// A new channel and a client that goes away.
+			flush(srcA, "z");
+			srcB.CloseRBNBConnection();
+			srcB = null;
+			next = sink.RequestRegistrationSince(version);
+			Assert.assertEquals(java.util.Arrays.asList("SinceA"),
+					java.util.Arrays.asList(sink.GetChangedRegistrations()));
+			Assert.assertEquals(java.util.Arrays.asList("SinceB"),
+					java.util.Arrays.asList(sink.GetRemovedRegistrations()));
+			sink.Fetch(10000, cmap);
+			String[] replaced = { "SinceA", "SinceB" };
+			tree = tree.update(ChannelTree.createFromChannelMap(cmap, ROOT),
+					parent, replaced);
+			Assert.assertEquals(java.util.Arrays.asList(
+					parent + "/SinceA/x", parent + "/SinceA/z"),
+					channels(tree, "Since"));
+			Assert.assertEquals(channels(fullTree(sink), "Since"),
+					channels(tree, "Since"));
+		} finally {
+			sink.CloseRBNBConnection();
+			srcA.CloseRBNBConnection();
+			if (srcB != null) srcB.CloseRBNBConnection();
+			server.stop();
+		}
+	}
+}
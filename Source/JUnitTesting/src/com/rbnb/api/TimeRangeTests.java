@@ -0,0 +1,243 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	TimeRangeTests.java
+
+	Lives in com.rbnb.api so that it can use the package's streams.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimeRangeTests
+{
+	private static final int N = 1000;
+
+	/** Build date of a peer that understands compact times. */
+	private static final String NEW_PEER = "Oct 19 2026";
+
+	/** Build date of a peer that predates compact times. */
+	private static final String OLD_PEER = "Oct 17 2026";
+
+	/**
+	  * Writes the range to a stream as a peer with the given build date
+	  *  would see it.
+	  */
+	private static byte[] write(TimeRange range, boolean binary,
+			String buildDate) throws Exception
+	{
+		java.io.ByteArrayOutputStream baos
+				= new java.io.ByteArrayOutputStream();
+		OutputStream os = new OutputStream(baos, binary, 0);
+		os.setBuildVersion("V3.6");
+		os.setBuildDate(new java.text.SimpleDateFormat("MMM dd yyyy")
+				.parse(buildDate));
+		range.write(new String[] { "TRG" }, 0, os, null);
+		os.flush();
+		return baos.toByteArray();
+	}
+
+	private static TimeRange read(byte[] bytes, boolean binary)
+			throws Exception
+	{
+		InputStream is = new InputStream(
+				new java.io.ByteArrayInputStream(bytes), binary, 0);
+		Serialize.readParameter(new String[] { "TRG" }, is);
+		TimeRange range = new TimeRange();
+		range.read(is, null);
+		return range;
+	}
+
+	private static double[] regularTimes()
+	{
+		double[] times = new double[N];
+		for (int ii = 0; ii < N; ++ii) times[ii] = -5 + ii * 0.125;
+		return times;
+	}
+
+	/** Wall clock times a few microseconds off a 100 Hz sample clock. */
+	private static double[] jitteredTimes()
+	{
+		java.util.Random random = new java.util.Random(1);
+		double[] times = new double[N];
+		for (int ii = 0; ii < N; ++ii)
+			times[ii] = 1.7e9 + ii * 0.01 + random.nextInt(8) * 1e-6;
+		return times;
+	}
+
+	/**
+	  * Times spread over every sign and exponent, so that their deltas take
+	  *  more room than the times themselves.
+	  */
+	private static double[] randomTimes()
+	{
+		java.util.Random random = new java.util.Random(1);
+		double[] times = new double[N];
+		for (int ii = 0; ii < N; ++ii) {
+			do {
+				times[ii] = Double.longBitsToDouble(random.nextLong());
+			} while (Double.isNaN(times[ii]) || Double.isInfinite(times[ii]));
+		}
+		java.util.Arrays.sort(times);
+		return times;
+	}
+
+	/**
+	  * Round trips the times through a new peer and checks that they come
+	  *  back exactly, both directly and when relayed on by the reader.
+	  *  Returns the number of bytes written.
+	  */
+	private static int checkRoundTrip(double[] times, boolean binary)
+			throws Exception
+	{
+		TimeRange range = new TimeRange(times, 0.01);
+		byte[] bytes = write(range, binary, NEW_PEER);
+		TimeRange copy = read(bytes, binary);
+
+		Assert.assertEquals(N, copy.getNptimes());
+		Assert.assertEquals(times[0], copy.getTime(), 0.);
+		Assert.assertEquals(times[N - 1], copy.getPointTime(N - 1, N), 0.);
+		double[] limits = copy.getLimits();
+		Assert.assertEquals(times[0], limits[0], 0.);
+		Assert.assertEquals(times[N - 1] + 0.01, limits[1], 0.);
+
+		// A reader relaying the times writes the same bytes without
+		//  expanding them first.
+		byte[] relayed = write(copy, binary, NEW_PEER);
+		Assert.assertArrayEquals(bytes, relayed);
+
+		assertTimes(times, copy.getPtimes());
+		assertTimes(times, read(relayed, binary).getPtimes());
+		return bytes.length;
+	}
+
+	private static void assertTimes(double[] expected, double[] actual)
+	{
+		Assert.assertEquals(expected.length, actual.length);
+		for (int ii = 0; ii < expected.length; ++ii)
+			Assert.assertEquals(expected[ii], actual[ii], 0.);
+	}
+
+	private static int legacySize(double[] times, boolean binary)
+			throws Exception
+	{
+		return write(new TimeRange(times, 0.01), binary, OLD_PEER).length;
+	}
+
+	@Test
+	public void testRegularRun() throws Exception
+	{
+		double[] times = regularTimes();
+
+		// A regular run is the same few numbers on either kind of stream.
+		Assert.assertTrue(checkRoundTrip(times, true) < 100);
+		Assert.assertTrue(checkRoundTrip(times, false) < 200);
+	}
+
+	@Test
+	public void testDeltaTimes() throws Exception
+	{
+		double[] times = jitteredTimes();
+
+		int size = checkRoundTrip(times, true);
+		Assert.assertTrue(size < legacySize(times, true) / 2);
+
+		// Text streams have no delta form and write the times out.
+		Assert.assertEquals(legacySize(times, false),
+				checkRoundTrip(times, false));
+	}
+
+	@Test
+	public void testDeltaSizeFallback() throws Exception
+	{
+		double[] times = randomTimes();
+
+		// The deltas would not be smaller, so the times are written as is.
+		Assert.assertEquals(legacySize(times, true),
+				checkRoundTrip(times, true));
+	}
+
+	@Test
+	public void testOldPeer() throws Exception
+	{
+		double[] times = jitteredTimes();
+
+		// Compact times read from a new peer are expanded for an old one.
+		TimeRange compact = read(write(new TimeRange(times, 0.01), true,
+				NEW_PEER), true);
+		byte[] bytes = write(compact, true, OLD_PEER);
+		Assert.assertEquals(legacySize(times, true), bytes.length);
+		assertTimes(times, read(bytes, true).getPtimes());
+	}
+
+	/**
+	  * Has several threads expand the compact times of the same range at
+	  *  once, and checks that each of them sees all of the times.
+	  */
+	private static void checkConcurrentExpansion(final double[] times)
+			throws Exception
+	{
+		byte[] bytes = write(new TimeRange(times, 0.01), true, NEW_PEER);
+		final int nThreads = 8;
+
+		for (int loop = 0; loop < 100; ++loop) {
+			final TimeRange range = read(bytes, true);
+			final java.util.concurrent.CyclicBarrier barrier
+					= new java.util.concurrent.CyclicBarrier(nThreads);
+			final double[][] results = new double[nThreads][];
+			Thread[] threads = new Thread[nThreads];
+
+			for (int ii = 0; ii < nThreads; ++ii) {
+				final int index = ii;
+				threads[ii] = new Thread() {
+					public void run()
+					{
+						try {
+							barrier.await();
+							results[index] = range.getPtimes();
+						} catch (Exception e) {
+						}
+					}
+				};
+				threads[ii].start();
+			}
+			for (int ii = 0; ii < nThreads; ++ii) threads[ii].join();
+
+			for (int ii = 0; ii < nThreads; ++ii) {
+				Assert.assertNotNull(results[ii]);
+				assertTimes(times, results[ii]);
+			}
+			assertTimes(times, range.getPtimes());
+			Assert.assertEquals(times.length, range.getNptimes());
+		}
+	}
+
+	@Test
+	public void testConcurrentExpansion() throws Exception
+	{
+		// A long regular run keeps the threads expanding it for a while.
+		double[] regular = new double[100 * N];
+		for (int ii = 0; ii < regular.length; ++ii) regular[ii] = ii * 0.01;
+		checkConcurrentExpansion(regular);
+
+		checkConcurrentExpansion(jitteredTimes());
+	}
+}
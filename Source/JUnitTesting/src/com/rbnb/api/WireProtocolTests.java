@@ -0,0 +1,223 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	WireProtocolTests.java
+
+	Checks the negotiation of the framed wire protocol, and that clients
+	fall back to the legacy protocol when the server will not use it.
+	Lives in com.rbnb.api so that it can see which protocol a connection
+	settled on.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WireProtocolTests
+{
+	private static final String FRAMED = "com.rbnb.api.WireProtocol.framed";
+	private static final String LEGACY_ONLY
+			= "com.rbnb.api.WireProtocol.legacyOnly";
+
+	private Server server;
+
+	/**
+	  * Starts a server for the tests that talk to one.  The server is not
+	  *  ready to be stopped as soon as it is launched, so tests that do
+	  *  not connect to it do not start one.
+	  */
+	private void startServer() throws Exception
+	{
+		server = Server.launchNewServer(new String[] {
+			"-H",
+			System.getProperty("com.rbnb.tests.rbnbArchiveDir")
+		});
+	}
+
+	@org.junit.After
+	public void stopServer() throws Exception
+	{
+		System.clearProperty(FRAMED);
+		System.clearProperty(LEGACY_ONLY);
+		if (server != null) {
+			server.stop();
+			server = null;
+		}
+	}
+
+	/**
+	  * Opens a source and returns the protocol its connection settled on.
+	  */
+	private static int negotiate(String name, int compression)
+			throws Exception
+	{
+		Source source = Server.newServerHandle(null, "localhost")
+				.createSource(name);
+		source.setCompression(compression);
+		source.start();
+		try {
+			Language language = ((SerializingACO)
+					((ClientHandle) source).getACO()).getSerialize();
+			Assert.assertEquals(compression, language.getCompression());
+			return language.getProtocol();
+		} finally {
+			source.stop();
+		}
+	}
+
+	/**
+	  * Sends a frame of several channels through the server and checks
+	  *  what comes back.
+	  */
+	private static void checkRoundTrip(String name) throws Exception
+	{
+		double[] doubles = new double[1000];
+		for (int ii = 0; ii < doubles.length; ++ii) doubles[ii] = ii * 0.5;
+		byte[] bytes = new byte[100000];
+		new java.util.Random(1).nextBytes(bytes);
+
+		com.rbnb.sapi.Source src = new com.rbnb.sapi.Source();
+		com.rbnb.sapi.Sink sink = new com.rbnb.sapi.Sink();
+		try {
+			src.OpenRBNBConnection("localhost", name);
+			com.rbnb.sapi.ChannelMap cmap = new com.rbnb.sapi.ChannelMap();
+			cmap.PutTime(0., 1.);
+			cmap.PutDataAsFloat64(cmap.Add("doubles"), doubles);
+			cmap.PutDataAsString(cmap.Add("string"), "Framed");
+			cmap.PutDataAsByteArray(cmap.Add("bytes"), bytes);
+			src.Flush(cmap, true);
+
+			sink.OpenRBNBConnection("localhost", name + "Sink");
+			com.rbnb.sapi.ChannelMap request
+					= new com.rbnb.sapi.ChannelMap();
+			request.Add(name + "/doubles");
+			request.Add(name + "/string");
+			request.Add(name + "/bytes");
+			sink.Request(request, 0., 1., "absolute");
+			com.rbnb.sapi.ChannelMap result = sink.Fetch(10000);
+
+			double[] gotDoubles = result.GetDataAsFloat64(
+					result.GetIndex(name + "/doubles"));
+			Assert.assertEquals(doubles.length, gotDoubles.length);
+			for (int ii = 0; ii < doubles.length; ++ii)
+				Assert.assertEquals(doubles[ii], gotDoubles[ii], 0.);
+			Assert.assertEquals("Framed", result.GetDataAsString(
+					result.GetIndex(name + "/string"))[0]);
+			Assert.assertArrayEquals(bytes, result.GetDataAsByteArray(
+					result.GetIndex(name + "/bytes"))[0]);
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+		}
+	}
+
+	@Test
+	public void testLegacyByDefault() throws Exception
+	{
+		startServer();
+		Assert.assertEquals(WireProtocol.LEGACY,
+				negotiate("LegacyByDefault", Client.COMPRESS_NONE));
+		checkRoundTrip("LegacyByDefault");
+	}
+
+	@Test
+	public void testFramed() throws Exception
+	{
+		startServer();
+		System.setProperty(FRAMED, "true");
+		Assert.assertEquals(WireProtocol.FRAMED,
+				negotiate("Framed", Client.COMPRESS_NONE));
+		checkRoundTrip("Framed");
+	}
+
+	@Test
+	public void testLegacyServer() throws Exception
+	{
+		startServer();
+		// A server that will not frame answers the offer with the legacy
+		//  protocol and no compression, and the client carries on with
+		//  that.
+		System.setProperty(FRAMED, "true");
+		System.setProperty(LEGACY_ONLY, "true");
+		Source source = Server.newServerHandle(null, "localhost")
+				.createSource("LegacyServer");
+		source.setCompression(Client.COMPRESS_FAST);
+		source.start();
+		try {
+			Language language = ((SerializingACO)
+					((ClientHandle) source).getACO()).getSerialize();
+			Assert.assertEquals(WireProtocol.LEGACY, language.getProtocol());
+			Assert.assertEquals(Client.COMPRESS_NONE,
+					language.getCompression());
+		} finally {
+			source.stop();
+		}
+		checkRoundTrip("LegacyServer");
+	}
+
+	@Test
+	public void testAccept()
+	{
+		// Offers of later versions are met with the newest one known.
+		Assert.assertEquals(WireProtocol.FRAMED, WireProtocol.accept(
+				new WireProtocol(WireProtocol.FRAMED + 3)).getVersion());
+		Assert.assertEquals(WireProtocol.LEGACY, WireProtocol.accept(
+				new WireProtocol(WireProtocol.LEGACY)).getVersion());
+
+		// Compression rides only on the framed protocol, and unknown modes
+		//  are refused.
+		WireProtocol answer = WireProtocol.accept(new WireProtocol(
+				WireProtocol.FRAMED, Client.COMPRESS_DEFLATE));
+		Assert.assertEquals(Client.COMPRESS_DEFLATE, answer.getCompression());
+		Assert.assertEquals(Client.COMPRESS_NONE, WireProtocol.accept(
+				new WireProtocol(WireProtocol.LEGACY, Client.COMPRESS_FAST))
+				.getCompression());
+		Assert.assertEquals(Client.COMPRESS_NONE, WireProtocol.accept(
+				new WireProtocol(WireProtocol.FRAMED, 99)).getCompression());
+
+		System.setProperty(LEGACY_ONLY, "true");
+		answer = WireProtocol.accept(new WireProtocol(WireProtocol.FRAMED,
+				Client.COMPRESS_FAST));
+		Assert.assertEquals(WireProtocol.LEGACY, answer.getVersion());
+		Assert.assertEquals(Client.COMPRESS_NONE, answer.getCompression());
+	}
+
+	@Test
+	public void testOfferEncoding() throws Exception
+	{
+		for (boolean binary : new boolean[] { true, false }) {
+			java.io.ByteArrayOutputStream baos
+					= new java.io.ByteArrayOutputStream();
+			OutputStream os = new OutputStream(baos, binary, 0);
+			new WireProtocol(WireProtocol.FRAMED, Client.COMPRESS_DEFLATE)
+					.write(new String[] { "WPR" }, 0, os, null);
+			os.flush();
+
+			InputStream is = new InputStream(new java.io.ByteArrayInputStream(
+					baos.toByteArray()), binary, 0);
+			Assert.assertEquals(0, Serialize.readParameter(
+					new String[] { "WPR" }, is));
+			WireProtocol offer = new WireProtocol(is, null);
+			Assert.assertEquals(WireProtocol.FRAMED, offer.getVersion());
+			Assert.assertEquals(Client.COMPRESS_DEFLATE,
+					offer.getCompression());
+		}
+	}
+}
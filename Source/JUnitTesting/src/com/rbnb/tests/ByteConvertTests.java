@@ -0,0 +1,242 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	ByteConvertTests.java
+
+	Checks ByteConvert against java.nio.ByteBuffer for every numeric type
+	in both byte orders, for runs converted a value at a time and runs
+	converted in bulk.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.tests;
+
+import com.rbnb.utility.ByteConvert;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ByteConvertTests
+{
+	/** Run lengths either side of the bulk conversion cut over. */
+	private static final int[] SIZES = { 0, 1, 7, 8, 9, 1000 };
+
+	/** Padding around ranged conversions, to catch stray offsets. */
+	private static final int PAD = 3;
+
+	private static long[] longs(int n)
+	{
+		java.util.Random random = new java.util.Random(n);
+		long[] values = new long[n];
+		for (int ii = 0; ii < n; ++ii) values[ii] = random.nextLong();
+		if (n > 0) values[0] = 0x8123456789abcdefL;
+		return values;
+	}
+
+	private static ByteBuffer buffer(int nBytes, boolean lsb)
+	{
+		return ByteBuffer.allocate(nBytes).order(lsb
+				? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+	}
+
+	/** Embeds the bytes in a larger array, after PAD bytes of junk. */
+	private static byte[] padded(byte[] bytes)
+	{
+		byte[] result = new byte[bytes.length + 2 * PAD];
+		java.util.Arrays.fill(result, (byte) 0x5a);
+		System.arraycopy(bytes, 0, result, PAD, bytes.length);
+		return result;
+	}
+
+	@Test
+	public void testDouble()
+	{
+		for (int n : SIZES) for (boolean lsb : new boolean[] { false, true }) {
+			long[] bits = longs(n);
+			double[] values = new double[n];
+			ByteBuffer bb = buffer(8 * n, lsb);
+			for (int ii = 0; ii < n; ++ii) {
+				values[ii] = Double.longBitsToDouble(bits[ii]);
+				bb.putDouble(values[ii]);
+			}
+			byte[] bytes = bb.array();
+
+			Assert.assertArrayEquals(bytes, ByteConvert.double2Byte(values,
+					lsb));
+			double[] back = ByteConvert.byte2Double(bytes, lsb);
+			for (int ii = 0; ii < n; ++ii) {
+				Assert.assertEquals(bits[ii],
+						Double.doubleToRawLongBits(back[ii]));
+			}
+
+			double[] ranged = new double[n + 2];
+			ByteConvert.byte2Double(padded(bytes), PAD, ranged, 1, n, lsb);
+			for (int ii = 0; ii < n; ++ii) {
+				Assert.assertEquals(bits[ii],
+						Double.doubleToRawLongBits(ranged[ii + 1]));
+			}
+			byte[] out = new byte[bytes.length + 2 * PAD];
+			java.util.Arrays.fill(out, (byte) 0x5a);
+			ByteConvert.double2Byte(values, 0, out, PAD, n, lsb);
+			Assert.assertArrayEquals(padded(bytes), out);
+		}
+	}
+
+	@Test
+	public void testFloat()
+	{
+		for (int n : SIZES) for (boolean lsb : new boolean[] { false, true }) {
+			long[] bits = longs(n);
+			float[] values = new float[n];
+			ByteBuffer bb = buffer(4 * n, lsb);
+			for (int ii = 0; ii < n; ++ii) {
+				values[ii] = Float.intBitsToFloat((int) bits[ii]);
+				bb.putFloat(values[ii]);
+			}
+			byte[] bytes = bb.array();
+
+			Assert.assertArrayEquals(bytes, ByteConvert.float2Byte(values,
+					lsb));
+			float[] back = ByteConvert.byte2Float(bytes, lsb);
+			for (int ii = 0; ii < n; ++ii) {
+				Assert.assertEquals(Float.floatToRawIntBits(values[ii]),
+						Float.floatToRawIntBits(back[ii]));
+			}
+
+			float[] ranged = new float[n + 2];
+			ByteConvert.byte2Float(padded(bytes), PAD, ranged, 1, n, lsb);
+			for (int ii = 0; ii < n; ++ii) {
+				Assert.assertEquals(Float.floatToRawIntBits(values[ii]),
+						Float.floatToRawIntBits(ranged[ii + 1]));
+			}
+			byte[] out = new byte[bytes.length + 2 * PAD];
+			java.util.Arrays.fill(out, (byte) 0x5a);
+			ByteConvert.float2Byte(values, 0, out, PAD, n, lsb);
+			Assert.assertArrayEquals(padded(bytes), out);
+		}
+	}
+
+	@Test
+	public void testInt()
+	{
+		for (int n : SIZES) for (boolean lsb : new boolean[] { false, true }) {
+			long[] bits = longs(n);
+			int[] values = new int[n];
+			ByteBuffer bb = buffer(4 * n, lsb);
+			for (int ii = 0; ii < n; ++ii) {
+				values[ii] = (int) (bits[ii] >> 32);
+				bb.putInt(values[ii]);
+			}
+			byte[] bytes = bb.array();
+
+			Assert.assertArrayEquals(bytes, ByteConvert.int2Byte(values,
+					lsb));
+			Assert.assertArrayEquals(values, ByteConvert.byte2Int(bytes,
+					lsb));
+
+			int[] ranged = new int[n + 2];
+			ByteConvert.byte2Int(padded(bytes), PAD, ranged, 1, n, lsb);
+			Assert.assertArrayEquals(values, java.util.Arrays.copyOfRange(
+					ranged, 1, n + 1));
+			byte[] out = new byte[bytes.length + 2 * PAD];
+			java.util.Arrays.fill(out, (byte) 0x5a);
+			ByteConvert.int2Byte(values, 0, out, PAD, n, lsb);
+			Assert.assertArrayEquals(padded(bytes), out);
+		}
+	}
+
+	@Test
+	public void testLong()
+	{
+		for (int n : SIZES) for (boolean lsb : new boolean[] { false, true }) {
+			long[] values = longs(n);
+			ByteBuffer bb = buffer(8 * n, lsb);
+			for (int ii = 0; ii < n; ++ii) bb.putLong(values[ii]);
+			byte[] bytes = bb.array();
+
+			Assert.assertArrayEquals(bytes, ByteConvert.long2Byte(values,
+					lsb));
+			Assert.assertArrayEquals(values, ByteConvert.byte2Long(bytes,
+					lsb));
+
+			long[] ranged = new long[n + 2];
+			ByteConvert.byte2Long(padded(bytes), PAD, ranged, 1, n, lsb);
+			Assert.assertArrayEquals(values, java.util.Arrays.copyOfRange(
+					ranged, 1, n + 1));
+			byte[] out = new byte[bytes.length + 2 * PAD];
+			java.util.Arrays.fill(out, (byte) 0x5a);
+			ByteConvert.long2Byte(values, 0, out, PAD, n, lsb);
+			Assert.assertArrayEquals(padded(bytes), out);
+		}
+	}
+
+	/**
+	  * Byte swapped longs used to be assembled with an int mask, so the
+	  *  shifts by 32 and more wrapped around and the upper four bytes were
+	  *  folded into the lower ones.
+	  */
+	@Test
+	public void testSwappedLongUpperBytes()
+	{
+		byte[] bytes = {
+			(byte) 0xef, (byte) 0xcd, (byte) 0xab, (byte) 0x89,
+			0x67, 0x45, 0x23, (byte) 0x81
+		};
+
+		Assert.assertEquals(0x8123456789abcdefL,
+				ByteConvert.byte2Long(bytes, true)[0]);
+		Assert.assertEquals(0xefcdab8967452381L,
+				ByteConvert.byte2Long(bytes, false)[0]);
+
+		long[] one = new long[1];
+		ByteConvert.byte2Long(bytes, 0, one, 0, 1, true);
+		Assert.assertEquals(0x8123456789abcdefL, one[0]);
+	}
+
+	@Test
+	public void testShort()
+	{
+		for (int n : SIZES) for (boolean lsb : new boolean[] { false, true }) {
+			long[] bits = longs(n);
+			short[] values = new short[n];
+			ByteBuffer bb = buffer(2 * n, lsb);
+			for (int ii = 0; ii < n; ++ii) {
+				values[ii] = (short) (bits[ii] >> 48);
+				bb.putShort(values[ii]);
+			}
+			byte[] bytes = bb.array();
+
+			Assert.assertArrayEquals(bytes, ByteConvert.short2Byte(values,
+					lsb));
+			Assert.assertArrayEquals(values, ByteConvert.byte2Short(bytes,
+					lsb));
+
+			short[] ranged = new short[n + 2];
+			ByteConvert.byte2Short(padded(bytes), PAD, ranged, 1, n, lsb);
+			Assert.assertArrayEquals(values, java.util.Arrays.copyOfRange(
+					ranged, 1, n + 1));
+			byte[] out = new byte[bytes.length + 2 * PAD];
+			java.util.Arrays.fill(out, (byte) 0x5a);
+			ByteConvert.short2Byte(values, 0, out, PAD, n, lsb);
+			Assert.assertArrayEquals(padded(bytes), out);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+	Copyright 2009 Creare Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+	http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+
+/*
+	SteadySubscriptionTests.java
+
+	Checks that fetching a steady subscription into the same ChannelMap
+	keeps its channels and arrays and still gets every frame's data, that
+	the map is filled again when the channels change, and that the data
+	can be copied into arrays and buffers owned by the caller.
+
+	2026/10/18  JRS  Created.
+*/
+
+package com.rbnb.tests;
+
+import com.rbnb.sapi.*;
+
+import org.junit.Assert;
+
+public class SteadySubscriptionTests
+{
+	private static final TestUtil testUtil = new TestUtil();
+
+	/** The number of points in each frame. */
+	private static final int POINTS = 100;
+
+	@org.junit.Before
+	public void startServer() throws Exception
+	{
+		testUtil.startServer();
+	}
+
+	@org.junit.After
+	public void stopServer() throws Exception
+	{
+		testUtil.stopServer();
+	}
+
+	/** Flushes frame number frame of channels a and b, or of c alone. */
+	private static void flush(Source src, int frame, boolean justC)
+			throws Exception
+	{
+		double[] times = new double[POINTS],
+			values = new double[POINTS];
+		int[] counts = new int[POINTS];
+		for (int idx = 0; idx < POINTS; ++idx) {
+			times[idx] = frame * POINTS + idx;
+			values[idx] = times[idx] / 2.;
+			counts[idx] = -(int) times[idx];
+		}
+		ChannelMap cmap = new ChannelMap();
+		cmap.PutTimes(times);
+		if (justC) {
+			cmap.PutDataAsFloat64(cmap.Add("c"), values);
+		} else {
+			cmap.PutDataAsFloat64(cmap.Add("a"), values);
+			cmap.PutDataAsInt32(cmap.Add("b"), counts);
+		}
+		src.Flush(cmap, true);
+	}
+
+	/** Checks the frame in a fetched map, copying it out as it goes. */
+	private static void check(ChannelMap cmap, String name, int frame)
+	{
+		int a = cmap.GetIndex(name + "/a"),
+			b = cmap.GetIndex(name + "/b");
+		Assert.assertTrue(a != -1 && b != -1);
+
+		double[] times = cmap.GetTimes(a),
+			values = cmap.GetDataAsFloat64(a);
+		int[] counts = cmap.GetDataAsInt32(b);
+		Assert.assertEquals(POINTS, values.length);
+		Assert.assertEquals(POINTS, counts.length);
+
+		double[] timesCopy = new double[POINTS + 1],
+			valuesCopy = new double[POINTS + 1];
+		int[] countsCopy = new int[POINTS + 1];
+		Assert.assertEquals(POINTS, cmap.GetTimes(a, timesCopy, 1));
+		Assert.assertEquals(POINTS, cmap.GetDataAsFloat64(a, valuesCopy, 1));
+		Assert.assertEquals(POINTS, cmap.GetDataAsInt32(b, countsCopy, 1));
+
+		java.nio.DoubleBuffer doubles = java.nio.DoubleBuffer.allocate(POINTS);
+		Assert.assertEquals(POINTS, cmap.GetDataAsFloat64(a, doubles));
+		java.nio.ByteBuffer bytes = java.nio.ByteBuffer.allocate(4 * POINTS)
+				.order(java.nio.ByteOrder.LITTLE_ENDIAN);
+		Assert.assertEquals(4 * POINTS, cmap.GetData(b, bytes));
+		Assert.assertEquals(4 * POINTS, bytes.position());
+		bytes.flip();
+
+		for (int idx = 0; idx < POINTS; ++idx) {
+			double time = frame * POINTS + idx;
+			Assert.assertEquals(time, times[idx], 0.);
+			Assert.assertEquals(time / 2., values[idx], 0.);
+			Assert.assertEquals(-(int) time, counts[idx]);
+			Assert.assertEquals(time, timesCopy[idx + 1], 0.);
+			Assert.assertEquals(time / 2., valuesCopy[idx + 1], 0.);
+			Assert.assertEquals(-(int) time, countsCopy[idx + 1]);
+			Assert.assertEquals(time / 2., doubles.get(idx), 0.);
+			Assert.assertEquals(-(int) time, bytes.getInt());
+		}
+	}
+
+	@org.junit.Test
+	public void testReuse() throws Exception
+	{
+		String name = "Steady";
+		Source src = new Source(100, "none", 0);
+		Sink sink = new Sink();
+		try {
+			// The channels are there before the subscription is, so that it
+			//  covers all of them.  Channel c is flushed on its own, so that
+			//  it comes in fetches of its own.
+			src.OpenRBNBConnection("localhost", name);
+			flush(src, -2, true);
+			flush(src, -1, false);
+			sink.OpenRBNBConnection("localhost", name + "Sink");
+			ChannelMap request = new ChannelMap();
+			request.Add(name + "/*");
+			sink.Subscribe(request);
+			Thread.sleep(1000);
+			while (!sink.Fetch(500).GetIfFetchTimedOut());
+
+			// Each frame is fetched before the next is flushed, so that each
+			//  fetch gets just the one frame.
+			ChannelMap cmap = new ChannelMap();
+			double[] firstValues = null;
+			int a = -1;
+			for (int frame = 0; frame < 10; ++frame) {
+				flush(src, frame, false);
+				Assert.assertSame(cmap, sink.Fetch(10000, cmap, true));
+				Assert.assertFalse(cmap.GetIfFetchTimedOut());
+				Assert.assertEquals(2, cmap.NumberOfChannels());
+				check(cmap, name, frame);
+				if (frame == 0) {
+					a = cmap.GetIndex(name + "/a");
+					firstValues = cmap.GetDataAsFloat64(a);
+				} else {
+					// The arrays of the first fetch were filled in again.
+					Assert.assertEquals(a, cmap.GetIndex(name + "/a"));
+					Assert.assertSame(firstValues, cmap.GetDataAsFloat64(a));
+				}
+				Assert.assertEquals(java.util.Arrays.asList(),
+						java.util.Arrays.asList(cmap.GetFolderList()));
+			}
+
+			// Other channels fill the map again, as do the first ones when
+			//  they come back.
+			flush(src, 10, true);
+			sink.Fetch(10000, cmap, true);
+			Assert.assertEquals(1, cmap.NumberOfChannels());
+			Assert.assertEquals(name + "/c", cmap.GetName(0));
+			Assert.assertEquals(1000 / 2., cmap.GetDataAsFloat64(0)[0], 0.);
+			flush(src, 11, false);
+			sink.Fetch(10000, cmap, true);
+			Assert.assertEquals(2, cmap.NumberOfChannels());
+			check(cmap, name, 11);
+
+			// Without reuse, each fetch has arrays of its own.
+			a = cmap.GetIndex(name + "/a");
+			double[] values = cmap.GetDataAsFloat64(a);
+			flush(src, 12, false);
+			sink.Fetch(10000, cmap);
+			check(cmap, name, 12);
+			Assert.assertNotSame(values, cmap.GetDataAsFloat64(a));
+			Assert.assertEquals(1100 / 2., values[0], 0.);
+		} finally {
+			sink.CloseRBNBConnection();
+			src.CloseRBNBConnection();
+		}
+	}
+}
@@ -0,0 +1,224 @@
+/*
+Copyright 2026 Creare Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+import com.rbnb.api.Server;
+import com.rbnb.sapi.ChannelMap;
+import com.rbnb.sapi.Sink;
+import com.rbnb.sapi.Source;
+
+/**
+ * Measures the memory allocated while fanning large frames out to sinks.
+ * <p>
+ * Starts a server in this JVM, then repeatedly flushes one large byte array
+ * frame from a source and has each of a number of sinks request the newest
+ * frame.  The bytes allocated by all of the threads in the JVM are reported
+ * per frame delivered to a sink.
+ * <p>
+ * Run it twice to compare payload sharing with the old behaviour:
+ * <p>
+ * <code>java -cp rbnb.jar:. PayloadAllocation [sinks [frames [bytes]]]
+ * </code><br>
+ * <code>java -Dcom.rbnb.api.DataBlock.copyPayloads=true -cp rbnb.jar:.
+ * PayloadAllocation [sinks [frames [bytes]]]</code>
+ * <p>
+ *
+ * @author John Stafford
+ *
+ * @since V3.6
+ * @version 10/18/2026
+ */
+
+/*
+ *
+ *   Date      By	Description
+ * MM/DD/YYYY
+ * ----------  --	-----------
+ * 10/18/2026  JRS	Created.
+ *
+ */
+public class PayloadAllocation {
+
+    /**
+     * Runs the measurement.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param argsI the number of sinks, the number of frames, and the size
+     *		    of a frame in bytes.
+     * @exception java.lang.Exception
+     *		  thrown if the measurement fails.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    public static void main(String[] argsI)
+	throws java.lang.Exception
+    {
+	int nSinks = ((argsI.length > 0) ? Integer.parseInt(argsI[0]) : 10);
+	int nFrames = ((argsI.length > 1) ? Integer.parseInt(argsI[1]) : 20);
+	int nBytes = ((argsI.length > 2) ?
+		      Integer.parseInt(argsI[2]) :
+		      1024*1024);
+	String address = "localhost:3399";
+
+	Server server = Server.launchNewServer(new String[] { "-a",
+							      address });
+	try {
+	    Source source = new Source(10,"none",0);
+	    source.OpenRBNBConnection(address,"PayloadSource");
+	    ChannelMap sMap = new ChannelMap();
+	    int sIdx = sMap.Add("frame");
+	    byte[] frame = new byte[nBytes];
+
+	    Sink[] sinks = new Sink[nSinks];
+	    ChannelMap rMap = new ChannelMap();
+	    rMap.Add("PayloadSource/frame");
+	    for (int idx = 0; idx < nSinks; ++idx) {
+		sinks[idx] = new Sink();
+		sinks[idx].OpenRBNBConnection(address,"PayloadSink" + idx);
+	    }
+
+	    // Warm up, then measure.
+	    run(source,sMap,sIdx,frame,sinks,rMap,2);
+	    long before = allocatedBytes();
+	    long startAt = System.currentTimeMillis();
+	    run(source,sMap,sIdx,frame,sinks,rMap,nFrames);
+	    long allocated = allocatedBytes() - before;
+	    long elapsed = System.currentTimeMillis() - startAt;
+
+	    long delivered = ((long) nFrames)*nSinks;
+	    System.out.println
+		("Sinks: " + nSinks +
+		 " Frames: " + nFrames +
+		 " Frame size: " + nBytes +
+		 " Copy payloads: " +
+		 Boolean.getBoolean("com.rbnb.api.DataBlock.copyPayloads"));
+	    System.out.println
+		("Allocated: " + allocated/(1024*1024) + " MB" +
+		 " (" + allocated/delivered + " bytes per frame per sink," +
+		 " " + ((double) allocated/delivered/nBytes) +
+		 " frame sizes) in " + elapsed + " ms");
+
+	    for (int idx = 0; idx < nSinks; ++idx) {
+		sinks[idx].CloseRBNBConnection();
+	    }
+	    source.CloseRBNBConnection();
+
+	} finally {
+	    server.stop();
+	}
+    }
+
+    /**
+     * Flushes frames and has each sink fetch them.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @param sourceI  the <code>Source</code>.
+     * @param sMapI    the source <code>ChannelMap</code>.
+     * @param sIdxI    the channel index.
+     * @param frameI   the frame data.
+     * @param sinksI   the <code>Sinks</code>.
+     * @param rMapI    the request <code>ChannelMap</code>.
+     * @param nFramesI the number of frames.
+     * @exception java.lang.Exception
+     *		  thrown if there is a problem.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private static void run(Source sourceI,
+			    ChannelMap sMapI,
+			    int sIdxI,
+			    byte[] frameI,
+			    Sink[] sinksI,
+			    ChannelMap rMapI,
+			    int nFramesI)
+	throws java.lang.Exception
+    {
+	for (int fIdx = 0; fIdx < nFramesI; ++fIdx) {
+	    frameI[0] = (byte) fIdx;
+	    sMapI.PutTimeAuto("next");
+	    sMapI.PutDataAsByteArray(sIdxI,frameI);
+	    sourceI.Flush(sMapI,true);
+
+	    for (int idx = 0; idx < sinksI.length; ++idx) {
+		sinksI[idx].Request(rMapI,0.,0.,"newest");
+		ChannelMap result = sinksI[idx].Fetch(10000);
+		if ((result.NumberOfChannels() != 1) ||
+		    (result.GetDataAsByteArray(0)[0].length !=
+		     frameI.length)) {
+		    throw new java.lang.IllegalStateException
+			("Sink " + idx + " did not get frame " + fIdx + ".");
+		}
+	    }
+	}
+    }
+
+    /**
+     * Gets the number of bytes allocated by all live threads.
+     * <p>
+     *
+     * @author John Stafford
+     *
+     * @return the number of bytes.
+     * @since V3.6
+     * @version 10/18/2026
+     */
+
+    /*
+     *
+     *   Date      By	Description
+     * MM/DD/YYYY
+     * ----------  --	-----------
+     * 10/18/2026  JRS	Created.
+     *
+     */
+    private static long allocatedBytes() {
+	com.sun.management.ThreadMXBean threads =
+	    (com.sun.management.ThreadMXBean)
+	    java.lang.management.ManagementFactory.getThreadMXBean();
+	long[] ids = threads.getAllThreadIds();
+	long[] bytes = threads.getThreadAllocatedBytes(ids);
+	long totalR = 0;
+
+	for (int idx = 0; idx < bytes.length; ++idx) {
+	    if (bytes[idx] > 0) {
+		totalR += bytes[idx];
+	    }
+	}
+
+	return (totalR);
+    }
+}
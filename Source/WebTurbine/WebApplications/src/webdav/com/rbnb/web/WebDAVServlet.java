@@ -87,6 +87,7 @@ import org.apache.catalina.util.XMLWriter;
 // 2008/05/28  MJM	Tweeked reconnect logic (restored the delete zero-file logic)
 // 2008/07/31  WHF  Fixed delete of original file on MOVE; added deleteNode().
 // 2013/09/03  MJM  Added f=b for fetching both time and data single request
+// 2026/10/18  JRS  Keep a warm registration tree, updated incrementally.
 //
 
 /**
@@ -1512,16 +1513,12 @@ if (debug) System.err.println("registering null channel(s): "+sourceMap);
 			);
 		}
 		//retrieve channel listing
-		conn.sink.RequestRegistration();
-		conn.sink.Fetch(60000, conn.cm);
+		conn.ctree = registrationTree(conn);
 
 		/*
 		  * Checks to see if the path matches a server or plugin.  If so,
 		  *  passes a registration request along for the whole path.
 		  */
-		conn.ctree = ChannelTree.createFromChannelMap(
-				conn.cm,
-				conn.reqParam.servlet);
 
 //		System.err.println("conn.ctree: "+conn.ctree);
 		
@@ -1590,6 +1587,68 @@ if (debug) System.err.println("Got: "+conn.cm);
 		return conn;
 	}
 	
+	/**
+	  * Returns the registration tree for the request.  The tree is kept
+	  *  warm between requests; only the sources that have changed
+	  *  structurally since the last request are fetched from the server.
+	  *  Time ranges are not versioned, so the source named in the request is
+	  *  always fetched afresh, and a request for the root listing fetches
+	  *  everything.
+	  */
+	private ChannelTree registrationTree(Connection conn)
+			throws SAPIException
+	{
+		String servlet = conn.reqParam.servlet,
+				source = conn.reqParam.source;
+		ChannelTree tree;
+		long version;
+		synchronized (registrationLock) {
+			tree = registrationTree;
+			version = registrationVersion;
+		}
+		if (tree == null || tree.findNode("/"+servlet) == null
+				|| source.length() == 0) version = 0;
+
+		long newVersion = conn.sink.RequestRegistrationSince(version);
+		conn.sink.Fetch(60000, conn.cm);
+		ChannelTree changedTree = ChannelTree.createFromChannelMap(
+				conn.cm,
+				servlet);
+		String[] changed = conn.sink.GetChangedRegistrations(),
+				removed = conn.sink.GetRemovedRegistrations();
+		if (changed == null) {
+			tree = changedTree;
+		} else {
+			String[] replaced = new String[changed.length + removed.length];
+			System.arraycopy(changed, 0, replaced, 0, changed.length);
+			System.arraycopy(
+					removed, 0, replaced, changed.length, removed.length);
+			tree = tree.update(changedTree, "/"+servlet, replaced);
+		}
+		synchronized (registrationLock) {
+			if (newVersion == 0 || newVersion >= registrationVersion) {
+				registrationTree = tree;
+				registrationVersion = newVersion;
+			}
+		}
+		
+		if (changed != null && !Arrays.asList(changed).contains(source)) {
+			ChannelTree.Node node = tree.findNode("/"+servlet+"/"+source);
+			if (node != null && node.getType() == ChannelTree.SOURCE) {
+				conn.cm.Clear();
+				conn.cm.Add(source+"/...");
+				conn.sink.RequestRegistration(conn.cm);
+				conn.sink.Fetch(60000, conn.cm);
+				tree = tree.update(
+						ChannelTree.createFromChannelMap(conn.cm, servlet),
+						"/"+servlet,
+						new String[] { source });
+			}
+		}
+		
+		return tree;
+	}
+	
 	/**
 	  * Return unused connections to the pool.
 	  */
@@ -2224,6 +2283,13 @@ if (debug) System.err.println("Got: "+conn.cm);
 			defaultProperties = new HashMap();
 			
 	private final Stack connectionStack = new Stack();
+	
+	/**
+	  * Registration shared by all connections, and the version it is at.
+	  */
+	private ChannelTree registrationTree;
+	private long registrationVersion;
+	private final Object registrationLock = new Object();
 			
 	private static final NumberFormat numberFormatter 
 			= NumberFormat.getInstance();